@@ -78,11 +78,17 @@ public class AbstractPosition implements Position {
     
     @Override
     public double getQuickApproximateNauticalMileDistance(Position p) {
-        double latDeg = getLatDeg();
-        double pLatDeg = p.getLatDeg();
+        return getQuickApproximateNauticalMileDistance(getLatDeg(), getLngDeg(), p.getLatDeg(), p.getLngDeg());
+    }
+
+    /**
+     * Implements {@link #getQuickApproximateNauticalMileDistance(Position)} for positions given by their coordinates
+     * in degrees, e.g., for positions kept in primitive arrays
+     */
+    public static double getQuickApproximateNauticalMileDistance(double latDeg, double lngDeg, double pLatDeg, double pLngDeg) {
         final double latDiffDeg = Math.abs(latDeg - pLatDeg);
         double cosineOfAverageLatitude = Math.cos((latDeg+pLatDeg)/2./180.*Math.PI);
-        final double normalizedLngDiffDeg = cosineOfAverageLatitude * Math.abs(getLngDeg() - p.getLngDeg());
+        final double normalizedLngDiffDeg = cosineOfAverageLatitude * Math.abs(lngDeg - pLngDeg);
         // One degree of latitude or one degree of longitude at the equator each correspond to 60 nautical miles.
         return Math.sqrt(latDiffDeg*latDiffDeg + normalizedLngDiffDeg*normalizedLngDiffDeg) * 60.;
     }
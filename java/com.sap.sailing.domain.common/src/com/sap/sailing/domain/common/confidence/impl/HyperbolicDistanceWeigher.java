@@ -45,7 +45,15 @@ public class HyperbolicDistanceWeigher implements Weigher<Position> {
      */
     @Override
     public double getConfidence(Position fix, Position request) {
-        double x = fix.getQuickApproximateNauticalMileDistance(request);
+        return getConfidence(fix.getQuickApproximateNauticalMileDistance(request));
+    }
+
+    /**
+     * Same as {@link #getConfidence(Position, Position)}, for a distance that has already been determined using
+     * {@link Position#getQuickApproximateNauticalMileDistance(Position)}
+     */
+    public double getConfidence(double quickApproximateNauticalMileDistance) {
+        double x = quickApproximateNauticalMileDistance;
         double c = halfConfidence.getNauticalMiles();
         double y = c;
         return c/(x+y);
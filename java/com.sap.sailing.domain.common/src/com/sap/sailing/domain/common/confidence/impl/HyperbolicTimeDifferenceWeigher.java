@@ -35,7 +35,14 @@ public class HyperbolicTimeDifferenceWeigher implements Weigher<TimePoint> {
      */
     @Override
     public double getConfidence(TimePoint fix, TimePoint request) {
-        double x = Math.abs(fix.asMillis() - request.asMillis());
+        return getConfidence(fix.asMillis(), request.asMillis());
+    }
+
+    /**
+     * Same as {@link #getConfidence(TimePoint, TimePoint)}, for time points given in milliseconds
+     */
+    public double getConfidence(long fixMillis, long requestMillis) {
+        double x = Math.abs(fixMillis - requestMillis);
         double c = halfConfidenceAfterMilliseconds;
         double y = halfConfidenceAfterMilliseconds;
         return c/(x+y);
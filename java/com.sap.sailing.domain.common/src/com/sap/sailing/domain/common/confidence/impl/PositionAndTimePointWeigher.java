@@ -1,5 +1,6 @@
 package com.sap.sailing.domain.common.confidence.impl;
 
+import com.sap.sailing.domain.common.AbstractPosition;
 import com.sap.sailing.domain.common.Position;
 import com.sap.sailing.domain.common.confidence.ConfidenceFactory;
 import com.sap.sailing.domain.common.confidence.Weigher;
@@ -50,4 +51,34 @@ public class PositionAndTimePointWeigher implements Weigher<Util.Pair<Position,
         }
         return timeConfidence * distanceConfidence;
     }
+
+    /**
+     * Same as {@link #getConfidence(com.sap.sse.common.Util.Pair, com.sap.sse.common.Util.Pair)}, for a fix given by
+     * primitive values, so that callers that keep their fixes in primitive arrays don't have to construct
+     * {@link Position}, {@link TimePoint} and {@link Util.Pair} objects for each fix.
+     * 
+     * @param fixHasPosition
+     *            if {@code false}, {@code fixLatDeg} and {@code fixLngDeg} are ignored, as for a fix with a
+     *            {@code null} position
+     * @param referencePosition
+     *            may be {@code null}
+     */
+    public double getConfidence(boolean fixHasPosition, double fixLatDeg, double fixLngDeg, long fixTimeMillis,
+            Position referencePosition, long referenceTimeMillis) {
+        // the constructor always creates hyperbolic weighers; the fields keep their general type for serialization compatibility
+        final double timeConfidence = ((HyperbolicTimeDifferenceWeigher) timeWeigher).getConfidence(fixTimeMillis, referenceTimeMillis);
+        final double distanceConfidence;
+        if (usePosition) {
+            if (fixHasPosition && referencePosition != null) {
+                distanceConfidence = ((HyperbolicDistanceWeigher) distanceWeigher).getConfidence(
+                        AbstractPosition.getQuickApproximateNauticalMileDistance(fixLatDeg, fixLngDeg,
+                                referencePosition.getLatDeg(), referencePosition.getLngDeg()));
+            } else {
+                distanceConfidence = 0.1;
+            }
+        } else {
+            distanceConfidence = 1;
+        }
+        return timeConfidence * distanceConfidence;
+    }
 }
@@ -3,6 +3,7 @@ package com.sap.sailing.domain.persistence;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
@@ -37,12 +38,15 @@ import com.sap.sailing.domain.leaderboard.LeaderboardGroup;
 import com.sap.sailing.domain.leaderboard.LeaderboardGroupResolver;
 import com.sap.sailing.domain.leaderboard.LeaderboardRegistry;
 import com.sap.sailing.domain.leaderboard.RegattaLeaderboardWithEliminations;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprint;
 import com.sap.sailing.domain.markpassinghash.MarkPassingRaceFingerprint;
 import com.sap.sailing.domain.racelog.RaceLogIdentifier;
 import com.sap.sailing.domain.regattalike.RegattaLikeIdentifier;
+import com.sap.sailing.domain.tracking.Maneuver;
 import com.sap.sailing.domain.tracking.MarkPassing;
 import com.sap.sailing.domain.tracking.RaceTrackingConnectivityParameters;
 import com.sap.sailing.domain.tracking.RaceTrackingConnectivityParametersHandler;
+import com.sap.sailing.domain.tracking.TrackedRace;
 import com.sap.sailing.domain.tracking.TrackedRegattaRegistry;
 import com.sap.sailing.domain.tracking.WindTrack;
 import com.sap.sse.common.NoCorrespondingServiceRegisteredException;
@@ -235,4 +239,16 @@ public interface DomainObjectFactory {
      * a caller can load the corresponding mark passings with this method.
      */
     Map<Competitor, Map<Waypoint, MarkPassing>> loadMarkPassings(RaceIdentifier raceIdentifier, Course course);
+
+    Map<RaceIdentifier, ManeuverRaceFingerprint> loadFingerprintsForManeuverHashes();
+
+    /**
+     * For races that have a {@link ManeuverRaceFingerprint} stored in the database (see
+     * {@link #loadFingerprintsForManeuverHashes()}) a caller can load the corresponding maneuvers with this method.
+     * 
+     * @param trackedRace
+     *            the race whose course and mark passings are used to resolve the maneuvers' mark passings
+     * @return {@code null} if no maneuvers are stored for the race or they can't be decoded
+     */
+    Map<Competitor, List<Maneuver>> loadManeuvers(RaceIdentifier raceIdentifier, TrackedRace trackedRace);
 }
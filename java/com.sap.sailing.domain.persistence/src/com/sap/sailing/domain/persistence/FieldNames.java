@@ -195,5 +195,8 @@ public enum FieldNames {
     ORC_CERTIFICATE_CIRCULAR_RANDOM_SPEED_PREDICTIONS, ORC_CERTIFICATE_NON_SPINNAKER_SPEED_PREDICTIONS, ORC_OTHER_RACE_IDENTIFIER, ORC_IMPLIED_WIND_SOURCE,
     
     // MARKPASSINGS collection
-    MARK_PASSINGS_FINGERPRINT, MARK_PASSINGS;
+    MARK_PASSINGS_FINGERPRINT, MARK_PASSINGS,
+
+    // MANEUVERS collection
+    MANEUVERS_FINGERPRINT, MANEUVERS, ENCODED_MANEUVERS;
 }
@@ -3,6 +3,7 @@ package com.sap.sailing.domain.persistence;
 import java.io.Serializable;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -30,9 +31,11 @@ import com.sap.sailing.domain.common.WindSource;
 import com.sap.sailing.domain.common.dto.AnniversaryType;
 import com.sap.sailing.domain.leaderboard.Leaderboard;
 import com.sap.sailing.domain.leaderboard.LeaderboardGroup;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprint;
 import com.sap.sailing.domain.markpassinghash.MarkPassingRaceFingerprint;
 import com.sap.sailing.domain.racelog.RaceLogIdentifier;
 import com.sap.sailing.domain.regattalike.RegattaLikeIdentifier;
+import com.sap.sailing.domain.tracking.Maneuver;
 import com.sap.sailing.domain.tracking.MarkPassing;
 import com.sap.sailing.domain.tracking.RaceTrackingConnectivityParameters;
 import com.sap.sailing.domain.tracking.TrackedRace;
@@ -246,4 +249,19 @@ public interface MongoObjectFactory {
     void storeMarkPassings(RaceIdentifier raceIdentifier, MarkPassingRaceFingerprint fingerprint, Map<Competitor, Map<Waypoint, MarkPassing>> markPassings, Course course);
     
     void removeMarkPassings(RaceIdentifier raceIdentifier);
+
+    /**
+     * Stores a race's maneuvers persistently, in a compact binary format per competitor.
+     * 
+     * @param raceIdentifier
+     *            identifies the race to which the maneuvers belong
+     * @param fingerprint
+     *            a composite fingerprint of the race in the state at which the maneuvers were detected
+     * @param trackedRace
+     *            the race the maneuvers were detected for; used to resolve the waypoints of the maneuvers' mark
+     *            passings
+     */
+    void storeManeuvers(RaceIdentifier raceIdentifier, ManeuverRaceFingerprint fingerprint, Map<Competitor, List<Maneuver>> maneuvers, TrackedRace trackedRace);
+
+    void removeManeuvers(RaceIdentifier raceIdentifier);
 }
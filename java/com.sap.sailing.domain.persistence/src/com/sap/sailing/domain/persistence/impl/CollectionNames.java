@@ -125,6 +125,12 @@ public enum CollectionNames {
     /**
      * Contains the Hashes for the {@link MarkPassingHashFingerprint}
      */
-    MARKPASSINGS;
+    MARKPASSINGS,
+
+    /**
+     * Contains the maneuvers of races in a binary format, together with the fingerprint of the race at the time the
+     * maneuvers were detected
+     */
+    MANEUVERS;
 
 }
@@ -4,6 +4,7 @@ import static com.mongodb.client.model.Filters.eq;
 import static com.sap.sailing.shared.persistence.impl.DomainObjectFactoryImpl.loadDeviceId;
 import static com.sap.sailing.shared.persistence.impl.DomainObjectFactoryImpl.loadPosition;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -30,6 +31,7 @@ import java.util.logging.Logger;
 import org.bson.Document;
 import org.bson.json.JsonMode;
 import org.bson.json.JsonWriterSettings;
+import org.bson.types.Binary;
 import org.bson.types.ObjectId;
 import org.json.simple.JSONObject;
 import org.json.simple.parser.JSONParser;
@@ -239,6 +241,9 @@ import com.sap.sailing.domain.leaderboard.impl.RegattaLeaderboardImpl;
 import com.sap.sailing.domain.leaderboard.impl.RegattaLeaderboardWithOtherTieBreakingLeaderboardImpl;
 import com.sap.sailing.domain.leaderboard.impl.ThresholdBasedResultDiscardingRuleImpl;
 import com.sap.sailing.domain.leaderboard.meta.LeaderboardGroupMetaLeaderboard;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprint;
+import com.sap.sailing.domain.maneuverhash.impl.ManeuverListCodec;
+import com.sap.sailing.domain.maneuverhash.impl.ManeuverRaceFingerprintImpl;
 import com.sap.sailing.domain.markpassinghash.MarkPassingRaceFingerprint;
 import com.sap.sailing.domain.markpassinghash.impl.MarkPassingRaceFingerprintImpl;
 import com.sap.sailing.domain.persistence.DomainObjectFactory;
@@ -252,9 +257,11 @@ import com.sap.sailing.domain.ranking.RankingMetricConstructor;
 import com.sap.sailing.domain.ranking.RankingMetricsFactory;
 import com.sap.sailing.domain.regattalike.RegattaLikeIdentifier;
 import com.sap.sailing.domain.regattalog.RegattaLogStore;
+import com.sap.sailing.domain.tracking.Maneuver;
 import com.sap.sailing.domain.tracking.MarkPassing;
 import com.sap.sailing.domain.tracking.RaceTrackingConnectivityParameters;
 import com.sap.sailing.domain.tracking.RaceTrackingConnectivityParametersHandler;
+import com.sap.sailing.domain.tracking.TrackedRace;
 import com.sap.sailing.domain.tracking.TrackedRegattaRegistry;
 import com.sap.sailing.domain.tracking.WindTrack;
 import com.sap.sailing.domain.tracking.impl.MarkPassingImpl;
@@ -3278,4 +3285,64 @@ public class DomainObjectFactoryImpl implements DomainObjectFactory {
         final MarkPassing markPassing = new MarkPassingImpl(timePoint, waypoint, competitor);
         return new Pair<>(waypoint, markPassing);
     }
+
+    @Override
+    public Map<RaceIdentifier, ManeuverRaceFingerprint> loadFingerprintsForManeuverHashes() {
+        final MongoCollection<Document> maneuversCollection = database.getCollection(CollectionNames.MANEUVERS.name());
+        maneuversCollection.createIndex(new Document()
+                .append(FieldNames.EVENT_NAME.name(), 1)
+                .append(FieldNames.RACE_NAME.name(), 1),
+            new IndexOptions()
+                .unique(true)
+                .name("maneuversbyeventandrace")
+                .background(false));
+        final Map<RaceIdentifier, ManeuverRaceFingerprint> fingerprintHashMap = new HashMap<>();
+        for (final Document currentDocument : maneuversCollection.find()) {
+            final RaceIdentifier raceIdentifier = loadRaceIdentifier(currentDocument);
+            try {
+                final JSONObject json = Helpers.toJSONObjectSafe(
+                        new JSONParser().parse(((Document) currentDocument.get(FieldNames.MANEUVERS_FINGERPRINT.name())).toJson()));
+                fingerprintHashMap.put(raceIdentifier, new ManeuverRaceFingerprintImpl(json));
+            } catch (JsonDeserializationException | ParseException | RuntimeException e) {
+                logger.log(Level.WARNING, "Problem de-serializing maneuver fingerprint of race "+raceIdentifier+"; ignoring", e);
+            }
+        }
+        return fingerprintHashMap;
+    }
+
+    @Override
+    public Map<Competitor, List<Maneuver>> loadManeuvers(RaceIdentifier raceIdentifier, TrackedRace trackedRace) {
+        Map<Competitor, List<Maneuver>> result;
+        final Document query = new Document();
+        addRaceIdentifierToQuery(query, raceIdentifier);
+        final MongoCollection<Document> maneuversCollection = database.getCollection(CollectionNames.MANEUVERS.name());
+        final Document doc = maneuversCollection.find(query).first();
+        if (doc != null) {
+            result = new HashMap<>();
+            final ManeuverListCodec codec = new ManeuverListCodec();
+            final Course course = trackedRace.getRace().getCourse();
+            course.lockForRead();
+            try {
+                for (final Document maneuversForOneCompetitorDoc : doc.getList(FieldNames.MANEUVERS.name(), Document.class)) {
+                    final Serializable competitorId = maneuversForOneCompetitorDoc.get(FieldNames.COMPETITOR_ID.name(), Serializable.class);
+                    final Competitor competitor = baseDomainFactory.getExistingCompetitorById(competitorId);
+                    if (competitor == null) {
+                        logger.warning("Competitor with ID "+competitorId+" of stored maneuvers of race "+raceIdentifier+" not found; ignoring stored maneuvers");
+                        result = null;
+                        break;
+                    }
+                    final byte[] encodedManeuvers = maneuversForOneCompetitorDoc.get(FieldNames.ENCODED_MANEUVERS.name(), Binary.class).getData();
+                    result.put(competitor, codec.decode(encodedManeuvers, competitor, trackedRace));
+                }
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Problem decoding stored maneuvers of race "+raceIdentifier+"; ignoring them", e);
+                result = null;
+            } finally {
+                course.unlockAfterRead();
+            }
+        } else {
+            result = null;
+        }
+        return result;
+    }
 }
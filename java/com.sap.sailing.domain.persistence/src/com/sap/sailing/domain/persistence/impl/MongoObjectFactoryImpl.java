@@ -3,6 +3,7 @@ package com.sap.sailing.domain.persistence.impl;
 import static com.sap.sailing.shared.persistence.impl.MongoObjectFactoryImpl.getPassingInstructions;
 import static com.sap.sailing.shared.persistence.impl.MongoObjectFactoryImpl.storeDeviceId;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -18,6 +19,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.bson.Document;
+import org.bson.types.Binary;
 import org.bson.types.ObjectId;
 import org.json.simple.JSONObject;
 
@@ -127,11 +129,14 @@ import com.sap.sailing.domain.leaderboard.RegattaLeaderboardWithOtherTieBreaking
 import com.sap.sailing.domain.leaderboard.ResultDiscardingRule;
 import com.sap.sailing.domain.leaderboard.SettableScoreCorrection;
 import com.sap.sailing.domain.leaderboard.ThresholdBasedResultDiscardingRule;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprint;
+import com.sap.sailing.domain.maneuverhash.impl.ManeuverListCodec;
 import com.sap.sailing.domain.markpassinghash.MarkPassingRaceFingerprint;
 import com.sap.sailing.domain.persistence.FieldNames;
 import com.sap.sailing.domain.persistence.MongoObjectFactory;
 import com.sap.sailing.domain.racelog.RaceLogIdentifier;
 import com.sap.sailing.domain.regattalike.RegattaLikeIdentifier;
+import com.sap.sailing.domain.tracking.Maneuver;
 import com.sap.sailing.domain.tracking.MarkPassing;
 import com.sap.sailing.domain.tracking.RaceTrackingConnectivityParameters;
 import com.sap.sailing.domain.tracking.RaceTrackingConnectivityParametersHandler;
@@ -2032,4 +2037,42 @@ public class MongoObjectFactoryImpl implements MongoObjectFactory {
         DomainObjectFactoryImpl.addRaceIdentifierToQuery(query, raceIdentifier);
         markPassingCollection.deleteOne(query);
     }
+
+    @Override
+    public void storeManeuvers(RaceIdentifier raceIdentifier, ManeuverRaceFingerprint fingerprint,
+            Map<Competitor, List<Maneuver>> maneuvers, TrackedRace trackedRace) {
+        final List<Document> maneuversDoc = new ArrayList<>();
+        final ManeuverListCodec codec = new ManeuverListCodec();
+        final Course course = trackedRace.getRace().getCourse();
+        course.lockForRead();
+        try {
+            for (final Entry<Competitor, List<Maneuver>> e : maneuvers.entrySet()) {
+                final Document competitorManeuvers = new Document();
+                competitorManeuvers.put(FieldNames.COMPETITOR_ID.name(), e.getKey().getId());
+                competitorManeuvers.put(FieldNames.ENCODED_MANEUVERS.name(), new Binary(codec.encode(e.getValue(), course)));
+                maneuversDoc.add(competitorManeuvers);
+            }
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Couldn't encode maneuvers of race "+raceIdentifier+"; not storing them", e);
+            return;
+        } finally {
+            course.unlockAfterRead();
+        }
+        final MongoCollection<Document> maneuverCollection = database.getCollection(CollectionNames.MANEUVERS.name());
+        final Document query = new Document();
+        DomainObjectFactoryImpl.addRaceIdentifierToQuery(query, raceIdentifier);
+        final Document result = new Document();
+        result.put(FieldNames.MANEUVERS_FINGERPRINT.name(), Document.parse(fingerprint.toJson().toString()));
+        storeRaceIdentifier(result, raceIdentifier);
+        result.put(FieldNames.MANEUVERS.name(), maneuversDoc);
+        maneuverCollection.replaceOne(query, result, new ReplaceOptions().upsert(true));
+    }
+
+    @Override
+    public void removeManeuvers(RaceIdentifier raceIdentifier) {
+        final MongoCollection<Document> maneuverCollection = database.getCollection(CollectionNames.MANEUVERS.name());
+        final Document query = new Document();
+        DomainObjectFactoryImpl.addRaceIdentifierToQuery(query, raceIdentifier);
+        maneuverCollection.deleteOne(query);
+    }
 }
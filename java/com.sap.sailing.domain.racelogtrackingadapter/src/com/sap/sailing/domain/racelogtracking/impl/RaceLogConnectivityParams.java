@@ -29,6 +29,7 @@ import com.sap.sailing.domain.tracking.RaceTrackingHandler;
 import com.sap.sailing.domain.tracking.TrackedRegattaRegistry;
 import com.sap.sailing.domain.tracking.WindStore;
 import com.sap.sailing.domain.tracking.impl.AbstractRaceTrackingConnectivityParameters;
+import com.sap.sse.common.TimePoint;
 
 public class RaceLogConnectivityParams extends AbstractRaceTrackingConnectivityParameters {
 
@@ -147,6 +148,24 @@ public class RaceLogConnectivityParams extends AbstractRaceTrackingConnectivityP
     public Regatta getRegatta() {
         return regatta;
     }
+
+    @Override
+    public TimePoint getTimePointForRestorePriority() {
+        final TimePoint result;
+        if (regatta == null) {
+            result = null;
+        } else if (regatta.getEndDate() != null) {
+            result = regatta.getEndDate();
+        } else {
+            result = regatta.getStartDate();
+        }
+        return result;
+    }
+
+    @Override
+    public String getRegattaNameForRestorePriority() {
+        return regatta == null ? null : regatta.getName();
+    }
     
     @Override
     public String toString() {
@@ -44,6 +44,7 @@ import com.sap.sailing.domain.racelog.tracking.SensorFixMapper;
 import com.sap.sailing.domain.racelog.tracking.SensorFixStore;
 import com.sap.sailing.domain.racelogsensortracking.SensorFixMapperFactory;
 import com.sap.sailing.domain.racelogtracking.DeviceMappingWithRegattaLogEvent;
+import com.sap.sailing.domain.racelogtracking.RaceLogTrackingAdapter;
 import com.sap.sailing.domain.shared.tracking.Track;
 import com.sap.sailing.domain.shared.tracking.impl.TimedComparator;
 import com.sap.sailing.domain.tracking.DynamicGPSFixTrack;
@@ -92,6 +93,10 @@ import com.sap.sse.util.ThreadPoolUtil;
  * boats cross the finishing line. This isn't much of a problem because no fixes are available for the future.</li>
  * <li>No loaded fixes are ever removed from {@link Track}s. Even if the tracking times change to be more restrictive,
  * the fixes in the time range not covered anymore are held in the {@link Track}.</li>
+ * <li>The only exception is a race tracked solely by this loader that is {@link DynamicTrackedRace#hibernate()
+ * hibernated} when it has been idle for a while. This loader registers itself as the race's
+ * {@link DynamicTrackedRace#setRematerializer rematerializer} and loads the competitor and sensor fixes again when the
+ * race is accessed the next time.</li>
  * </ul>
  * Marks can either be tracked or just pinged using the respective app. If a Mark is pinged early in the morning before
  * the start of a race, no fix is available for this Mark in the tracked {@link TimeRange}. The semantic of pinging a
@@ -766,6 +771,9 @@ public class FixLoaderAndTracker implements TrackingDataLoader {
             }
         }
         sensorFixStore.removeListener(listener);
+        if (preemptive || willBeRemoved) {
+            trackedRace.setRematerializer(null);
+        }
     }
 
     private void startTracking() {
@@ -775,9 +783,29 @@ public class FixLoaderAndTracker implements TrackingDataLoader {
                 trackedRace.getRace().getName());
         trackedRace.addListener(raceChangeListener);
         this.deviceMappings.updateMappings();
+        if (trackedRace.getTrackingConnectorInfo() != null && RaceLogTrackingAdapter.NAME.equals(
+                trackedRace.getTrackingConnectorInfo().getTrackingConnectorName())) {
+            // all fixes of the race can be loaded again from the store; other connectors stream fixes we can't reload
+            trackedRace.setRematerializer(this::rematerialize);
+        }
         updateStatusAndProgress(); // will switch to TRACKING immediately if no loading jobs are running based on the device mappings found
     }
 
+    /**
+     * Loads the competitor and sensor fixes of the {@link DynamicTrackedRace#hibernate() hibernated} race again. Mark
+     * tracks are not emptied by hibernation and therefore aren't reloaded.
+     */
+    private void rematerialize() {
+        if (!preemptiveStopRequested.get() && trackedRace.getStartOfTracking() != null) {
+            deviceMappings.forEachItemAndCoveredTimeRanges((item, mappingsAndCoveredTimeRanges) -> {
+                if (!(item instanceof Mark)) {
+                    addLoadingJob(new LoadFixesForNewlyCoveredTimeRangesJob(item, mappingsAndCoveredTimeRanges));
+                }
+            });
+        }
+        updateStatusAndProgress();
+    }
+
     private void loadFixesForExtendedTimeRange(final TimeRange extendedTimeRange) {
         deviceMappings.forEachItemAndCoveredTimeRanges((item, mappingsAndCoveredTimeRanges) -> addLoadingJob(
                 new LoadFixesInTrackingTimeRangeJob(mappingsAndCoveredTimeRanges, extendedTimeRange)));
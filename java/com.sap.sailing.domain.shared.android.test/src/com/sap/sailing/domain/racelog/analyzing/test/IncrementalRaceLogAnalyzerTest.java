@@ -0,0 +1,131 @@
+package com.sap.sailing.domain.racelog.analyzing.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.when;
+
+import java.io.Serializable;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.abstractlog.race.RaceLog;
+import com.sap.sailing.domain.abstractlog.race.RaceLogEvent;
+import com.sap.sailing.domain.abstractlog.race.RaceLogRaceStatusEvent;
+import com.sap.sailing.domain.abstractlog.race.RaceLogRevokeEvent;
+import com.sap.sailing.domain.abstractlog.race.analyzing.impl.FinishingTimeFinder;
+import com.sap.sailing.domain.common.racelog.RaceLogRaceStatus;
+import com.sap.sse.common.TimePoint;
+
+/**
+ * Checks that an analyzer that is kept across changes of the log folds the events added in between into its result
+ * such that it always matches the result of an analyzer created from scratch, and that it only scans the log again
+ * where folding isn't possible.
+ */
+public class IncrementalRaceLogAnalyzerTest extends RaceLogAnalyzerTest<IncrementalRaceLogAnalyzerTest.CountingFinishingTimeFinder> {
+
+    static class CountingFinishingTimeFinder extends FinishingTimeFinder {
+        private int numberOfFullAnalyses;
+
+        public CountingFinishingTimeFinder(RaceLog raceLog) {
+            super(raceLog);
+        }
+
+        @Override
+        protected synchronized TimePoint performAnalysis() {
+            numberOfFullAnalyses++;
+            return super.performAnalysis();
+        }
+    }
+
+    @Override
+    protected CountingFinishingTimeFinder createAnalyzer(RaceLog raceLog) {
+        return new CountingFinishingTimeFinder(raceLog);
+    }
+
+    private RaceLogRaceStatusEvent createFinishingEvent(long milliseconds, int passId) {
+        final RaceLogRaceStatusEvent result = createEvent(RaceLogRaceStatusEvent.class, milliseconds, passId);
+        when(result.getNextStatus()).thenReturn(RaceLogRaceStatus.FINISHING);
+        return result;
+    }
+
+    private RaceLogRevokeEvent createRevokeEvent(long milliseconds, RaceLogEvent toRevoke) {
+        final RaceLogRevokeEvent result = createEvent(RaceLogRevokeEvent.class, milliseconds, toRevoke.getPassId());
+        final Serializable revokedEventId = toRevoke.getId();
+        when(result.getRevokedEventId()).thenReturn(revokedEventId);
+        return result;
+    }
+
+    private TimePoint analyzeAndCompareWithNewAnalyzer() {
+        final TimePoint result = analyzer.analyze();
+        assertEquals(new FinishingTimeFinder(raceLog).analyze(), result);
+        return result;
+    }
+
+    @Test
+    public void testResultIsKeptWhileNoEventIsAdded() {
+        final RaceLogRaceStatusEvent event1 = createFinishingEvent(1, 0);
+        raceLog.add(event1);
+        assertSame(event1.getLogicalTimePoint(), analyzeAndCompareWithNewAnalyzer());
+        assertSame(event1.getLogicalTimePoint(), analyzeAndCompareWithNewAnalyzer());
+        assertEquals(1, analyzer.numberOfFullAnalyses);
+    }
+
+    @Test
+    public void testAddedEventsAreFolded() {
+        assertNull(analyzeAndCompareWithNewAnalyzer());
+        final RaceLogRaceStatusEvent event2 = createFinishingEvent(2, 0);
+        raceLog.add(event2);
+        assertSame(event2.getLogicalTimePoint(), analyzeAndCompareWithNewAnalyzer());
+        // an event ordered before the current result doesn't replace it
+        raceLog.add(createFinishingEvent(1, 0));
+        assertSame(event2.getLogicalTimePoint(), analyzeAndCompareWithNewAnalyzer());
+        raceLog.add(createEvent(RaceLogEvent.class, 3));
+        final RaceLogRaceStatusEvent event4 = createFinishingEvent(4, 0);
+        raceLog.add(event4);
+        assertSame(event4.getLogicalTimePoint(), analyzeAndCompareWithNewAnalyzer());
+        assertEquals(1, analyzer.numberOfFullAnalyses);
+    }
+
+    @Test
+    public void testRevokingResultLeadsToFullAnalysis() {
+        final RaceLogRaceStatusEvent event1 = createFinishingEvent(1, 0);
+        final RaceLogRaceStatusEvent event2 = createFinishingEvent(2, 0);
+        raceLog.add(event1);
+        raceLog.add(event2);
+        assertSame(event2.getLogicalTimePoint(), analyzeAndCompareWithNewAnalyzer());
+        raceLog.add(createRevokeEvent(3, event1));
+        assertSame(event2.getLogicalTimePoint(), analyzeAndCompareWithNewAnalyzer());
+        assertEquals(1, analyzer.numberOfFullAnalyses);
+        raceLog.add(createRevokeEvent(4, event2));
+        assertNull(analyzeAndCompareWithNewAnalyzer());
+        assertEquals(2, analyzer.numberOfFullAnalyses);
+    }
+
+    @Test
+    public void testEventRevokedBeforeItWasAddedIsIgnored() {
+        final RaceLogRaceStatusEvent event1 = createFinishingEvent(1, 0);
+        final RaceLogRaceStatusEvent event2 = createFinishingEvent(2, 0);
+        raceLog.add(event1);
+        assertSame(event1.getLogicalTimePoint(), analyzeAndCompareWithNewAnalyzer());
+        raceLog.add(createRevokeEvent(3, event2));
+        raceLog.add(event2);
+        assertSame(event1.getLogicalTimePoint(), analyzeAndCompareWithNewAnalyzer());
+        assertEquals(1, analyzer.numberOfFullAnalyses);
+    }
+
+    @Test
+    public void testPassChangeLeadsToFullAnalysis() {
+        raceLog.add(createFinishingEvent(1, 0));
+        analyzeAndCompareWithNewAnalyzer();
+        raceLog.add(createEvent(RaceLogEvent.class, 2, /* passId */ 1));
+        assertNull(analyzeAndCompareWithNewAnalyzer());
+        assertEquals(2, analyzer.numberOfFullAnalyses);
+        final RaceLogRaceStatusEvent event3 = createFinishingEvent(3, 1);
+        raceLog.add(event3);
+        // an event of an earlier pass doesn't count in the current pass
+        raceLog.add(createFinishingEvent(4, 0));
+        assertSame(event3.getLogicalTimePoint(), analyzeAndCompareWithNewAnalyzer());
+        assertEquals(2, analyzer.numberOfFullAnalyses);
+    }
+}
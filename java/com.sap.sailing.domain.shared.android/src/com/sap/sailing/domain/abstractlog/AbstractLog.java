@@ -3,6 +3,7 @@ package com.sap.sailing.domain.abstractlog;
 import java.io.Serializable;
 import java.util.ConcurrentModificationException;
 import java.util.HashSet;
+import java.util.List;
 import java.util.NavigableSet;
 import java.util.UUID;
 
@@ -146,4 +147,22 @@ extends Track<EventT>, WithID {
      */
     void revokeEvent(AbstractLogEventAuthor author, EventT toRevoke, String reason) throws NotRevokableException;
     void revokeEvent(AbstractLogEventAuthor author, EventT toRevoke) throws NotRevokableException;
+
+    /**
+     * Tells how many events have been added to this log so far, including those {@link #load(AbstractLogEvent)
+     * loaded}. The number never decreases. Together with {@link #getEventsAddedSince(int)} this lets analyzers find
+     * out cheaply whether and by which events this log has changed since they last looked at it. Callers should hold
+     * the read lock to get a number consistent with the events they see.
+     */
+    int getNumberOfEventsAdded();
+
+    /**
+     * Callers need to hold the read lock and must not use the list returned after releasing it.
+     * 
+     * @param numberOfEventsAdded
+     *            a number previously obtained from {@link #getNumberOfEventsAdded()}
+     * @return the events added to this log after it had {@code numberOfEventsAdded} events, in the order in which they
+     *         were added which may differ from the order of {@link #getRawFixes()}
+     */
+    List<EventT> getEventsAddedSince(int numberOfEventsAdded);
 }
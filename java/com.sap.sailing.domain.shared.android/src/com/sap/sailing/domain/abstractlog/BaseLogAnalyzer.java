@@ -3,15 +3,37 @@ package com.sap.sailing.domain.abstractlog;
 
 /**
  * Analyzer to perform a query over a given AbstractLog. Each subclass defines its <code>ResultType</code>.
- * 
+ * <p>
+ *
+ * By default, each call to {@link #analyze()} {@link #performAnalysis() scans} the log. Analyzers whose result depends
+ * on nothing but the events in the log can {@link #isIncremental() declare themselves incremental}. They are expected
+ * to be created once per log and kept. Their first {@link #analyze()} call performs a full analysis; subsequent calls
+ * return the last result as long as no event was added to the log in between, and otherwise {@link #fold(AbstractLogEvent)
+ * fold} only the events added since into their state. An analyzer that cannot fold an event, e.g., because it revokes
+ * the event its result is based on, makes {@link #analyze()} fall back to a full analysis.
+ *
  * @param <ResultT>
  *            type of analysis result.
  */
 public abstract class BaseLogAnalyzer<LogT extends AbstractLog<EventT, VisitorT>, EventT extends AbstractLogEvent<VisitorT>, VisitorT, ResultT>
         implements LogAnalyzer<ResultT> {
+    private static final int NOT_ANALYZED = -1;
 
     protected final LogT log;
 
+    /**
+     * The {@link AbstractLog#getNumberOfEventsAdded() number of events} the log had when {@link #result} was
+     * determined by an {@link #isIncremental() incremental} analyzer; {@link #NOT_ANALYZED} before the first analysis.
+     * Guarded by this analyzer's monitor.
+     */
+    private int numberOfEventsAnalyzed = NOT_ANALYZED;
+
+    /**
+     * The last result of an {@link #isIncremental() incremental} analyzer, valid while the log has
+     * {@link #numberOfEventsAnalyzed} events. Guarded by this analyzer's monitor.
+     */
+    private ResultT result;
+
     public BaseLogAnalyzer(LogT log) {
         this.log = log;
     }
@@ -24,17 +46,73 @@ public abstract class BaseLogAnalyzer<LogT extends AbstractLog<EventT, VisitorT>
     public ResultT analyze() {
         log.lockForRead();
         try {
-            return performAnalysis();
+            return isIncremental() ? analyzeIncrementally() : performAnalysis();
         } finally {
             log.unlockAfterRead();
         }
     }
 
     /**
-     * Always called under the {@link #getLog() log's} read lock
+     * Called under the {@link #getLog() log's} read lock. Several threads may hold that lock at the same time, so the
+     * state used for folding is guarded by this analyzer's monitor, which is always obtained after the log's read
+     * lock.
+     */
+    private synchronized ResultT analyzeIncrementally() {
+        final int numberOfEventsAdded = log.getNumberOfEventsAdded();
+        if (numberOfEventsAnalyzed != numberOfEventsAdded) {
+            boolean folded = numberOfEventsAnalyzed != NOT_ANALYZED;
+            if (folded) {
+                for (final EventT addedEvent : log.getEventsAddedSince(numberOfEventsAnalyzed)) {
+                    if (!fold(addedEvent)) {
+                        folded = false;
+                        break;
+                    }
+                }
+            }
+            result = folded ? getFoldedResult() : performAnalysis();
+            numberOfEventsAnalyzed = numberOfEventsAdded;
+        }
+        return result;
+    }
+
+    /**
+     * Always called under the {@link #getLog() log's} read lock. For an {@link #isIncremental() incremental} analyzer
+     * this has to (re-)initialize the state that {@link #fold(AbstractLogEvent)} updates.
      */
     protected abstract ResultT performAnalysis();
 
+    /**
+     * Tells whether this analyzer's result depends only on the events in the log, such that it can be kept while no
+     * events are added and updated by {@link #fold(AbstractLogEvent) folding} the events added. Analyzers that also
+     * depend on other input, such as a clock or other logs, must not be incremental. This default implementation
+     * returns {@code false}.
+     */
+    protected boolean isIncremental() {
+        return false;
+    }
+
+    /**
+     * Incorporates an event added to the log since the last analysis into this analyzer's state. Only called for
+     * {@link #isIncremental() incremental} analyzers, under the log's read lock and this analyzer's monitor, and with the
+     * log already containing all events added since the last analysis. The events are passed in the order in which they
+     * were added.
+     *
+     * @return {@code false} if the event cannot be incorporated incrementally, in which case a full
+     *         {@link #performAnalysis() analysis} follows, and the remaining added events are not passed to this method
+     */
+    protected boolean fold(EventT addedEvent) {
+        return false;
+    }
+
+    /**
+     * @return the result according to the state after {@link #fold(AbstractLogEvent) folding} the events added; only
+     *         called for {@link #isIncremental() incremental} analyzers, under the same conditions as
+     *         {@link #fold(AbstractLogEvent)}
+     */
+    protected ResultT getFoldedResult() {
+        throw new UnsupportedOperationException("Analyzer " + getClass().getName() + " is not incremental");
+    }
+
     protected Iterable<EventT> getAllEvents() {
         return log.getRawFixes();
     }
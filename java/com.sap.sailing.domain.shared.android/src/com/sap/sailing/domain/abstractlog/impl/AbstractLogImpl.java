@@ -3,11 +3,14 @@ package com.sap.sailing.domain.abstractlog.impl;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
@@ -55,6 +58,12 @@ extends TrackImpl<EventT> implements AbstractLog<EventT, VisitorT> {
 
     private Map<Serializable, EventT> eventsById = new HashMap<Serializable, EventT>();
 
+    /**
+     * All events of this log in the order in which they were added; see {@link #getEventsAddedSince(int)}. Guarded by
+     * the read/write lock. Not serialized but reconstructed from the events in {@link #readObject(ObjectInputStream)}.
+     */
+    private transient List<EventT> eventsInOrderOfAddition = new ArrayList<EventT>();
+
     private final Serializable id;
     private transient Set<VisitorT> listeners;
 
@@ -95,6 +104,9 @@ extends TrackImpl<EventT> implements AbstractLog<EventT, VisitorT> {
         lockForWrite();
         try {
             isAdded = getInternalRawFixes().add(event);
+            if (isAdded) {
+                eventsInOrderOfAddition.add(event);
+            }
         } finally {
             unlockAfterWrite();
         }
@@ -235,6 +247,15 @@ extends TrackImpl<EventT> implements AbstractLog<EventT, VisitorT> {
         ois.defaultReadObject();
         listeners = new HashSet<VisitorT>();
         eventsDeliveredToClient = new HashMap<UUID, Set<EventT>>();
+        eventsInOrderOfAddition = new ArrayList<EventT>();
+        lockForRead();
+        try {
+            for (EventT event : getRawFixes()) {
+                eventsInOrderOfAddition.add(event);
+            }
+        } finally {
+            unlockAfterRead();
+        }
         if (eventsById == null) {
             eventsById = new HashMap<Serializable, EventT>();
             lockForRead();
@@ -311,6 +332,17 @@ extends TrackImpl<EventT> implements AbstractLog<EventT, VisitorT> {
         return eventsById.get(id);
     }
 
+    @Override
+    public int getNumberOfEventsAdded() {
+        return eventsInOrderOfAddition.size();
+    }
+
+    @Override
+    public List<EventT> getEventsAddedSince(int numberOfEventsAdded) {
+        assertReadLock();
+        return Collections.unmodifiableList(eventsInOrderOfAddition.subList(numberOfEventsAdded, eventsInOrderOfAddition.size()));
+    }
+
     @Override
     public NavigableSet<EventT> getUnrevokedEvents() {
         return new FilteredPartialNavigableSetView<>(super.getInternalFixes(), new RevokedValidator<>(revokedEventIds));
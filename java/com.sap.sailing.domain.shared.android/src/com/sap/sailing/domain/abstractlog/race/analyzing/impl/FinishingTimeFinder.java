@@ -6,39 +6,29 @@ import com.sap.sailing.domain.abstractlog.race.RaceLogRaceStatusEvent;
 import com.sap.sailing.domain.common.racelog.RaceLogRaceStatus;
 import com.sap.sse.common.TimePoint;
 
-public class FinishingTimeFinder extends RaceLogAnalyzer<TimePoint> {
+public class FinishingTimeFinder extends LastMatchingEventFinder<TimePoint> {
 
     public FinishingTimeFinder(RaceLog raceLog) {
-        super(raceLog);
+        super(raceLog, Scope.UNREVOKED_PASS_EVENTS);
     }
 
     public RaceLogRaceStatusEvent findFinishingEvent() {
         log.lockForRead();
         try {
-            for (RaceLogEvent event : getPassUnrevokedEventsDescending()) {
-                if (event instanceof RaceLogRaceStatusEvent) {
-                    final RaceLogRaceStatusEvent statusEvent = (RaceLogRaceStatusEvent) event;
-                    if (statusEvent.getNextStatus().equals(RaceLogRaceStatus.FINISHING)) {
-                        return statusEvent;
-                    }
-                }
-            }
-            return null;
+            return (RaceLogRaceStatusEvent) findLastMatchingEvent();
         } finally {
             log.unlockAfterRead();
         }
     }
 
     @Override
-    protected TimePoint performAnalysis() {
-        for (RaceLogEvent event : getPassUnrevokedEventsDescending()) {
-            if (event instanceof RaceLogRaceStatusEvent) {
-                final RaceLogRaceStatusEvent statusEvent = (RaceLogRaceStatusEvent) event;
-                if (statusEvent.getNextStatus().equals(RaceLogRaceStatus.FINISHING)) {
-                    return statusEvent.getLogicalTimePoint();
-                }
-            }
-        }
-        return null;
+    protected boolean matches(RaceLogEvent event) {
+        return event instanceof RaceLogRaceStatusEvent
+                && ((RaceLogRaceStatusEvent) event).getNextStatus().equals(RaceLogRaceStatus.FINISHING);
+    }
+
+    @Override
+    protected TimePoint getResult(RaceLogEvent lastMatchingEvent) {
+        return lastMatchingEvent == null ? null : ((RaceLogRaceStatusEvent) lastMatchingEvent).getLogicalTimePoint();
     }
 }
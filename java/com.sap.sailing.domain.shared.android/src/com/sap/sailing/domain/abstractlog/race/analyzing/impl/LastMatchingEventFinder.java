@@ -0,0 +1,143 @@
+package com.sap.sailing.domain.abstractlog.race.analyzing.impl;
+
+import java.util.Comparator;
+
+import com.sap.sailing.domain.abstractlog.BaseLogAnalyzer;
+import com.sap.sailing.domain.abstractlog.RevokeEvent;
+import com.sap.sailing.domain.abstractlog.race.RaceLog;
+import com.sap.sailing.domain.abstractlog.race.RaceLogEvent;
+import com.sap.sailing.domain.abstractlog.race.impl.RaceLogEventComparator;
+import com.sap.sse.common.Timed;
+
+/**
+ * Base class for the many analyzers that derive their result from the last event of the {@link RaceLog} that
+ * {@link #matches(RaceLogEvent) matches} some condition, searching a given {@link Scope}. As the result only depends on
+ * the events in the log, the analyzer is {@link #isIncremental() incremental}: an event added later is compared with
+ * the last matching event found so far. A full analysis is repeated only if the current pass changed or, for
+ * {@link Scope#UNREVOKED_PASS_EVENTS}, if the last matching event got revoked.
+ */
+public abstract class LastMatchingEventFinder<ResultType> extends RaceLogAnalyzer<ResultType> {
+    /**
+     * The order of the events in a {@link RaceLog}
+     */
+    private static final Comparator<Timed> EVENT_ORDER = new RaceLogEventComparator();
+
+    public static enum Scope {
+        /**
+         * All events of the log, including revoked ones, regardless of their pass; see {@link BaseLogAnalyzer#getAllEvents()}
+         */
+        ALL_EVENTS,
+
+        /**
+         * The events of the current pass, including revoked ones; see {@link RaceLogAnalyzer#getPassEvents()}
+         */
+        PASS_EVENTS,
+
+        /**
+         * The unrevoked events of the current pass; see {@link RaceLogAnalyzer#getPassUnrevokedEvents()}
+         */
+        UNREVOKED_PASS_EVENTS
+    }
+
+    private final Scope scope;
+
+    /**
+     * The last event in {@link #scope} {@link #matches(RaceLogEvent) matching}, or {@code null} if there is none. Guarded
+     * by this analyzer's monitor while analyzing.
+     */
+    private RaceLogEvent lastMatchingEvent;
+
+    /**
+     * The pass that was current when {@link #lastMatchingEvent} was determined by a full analysis; only relevant if the
+     * {@link #scope} is restricted to a pass.
+     */
+    private int passId;
+
+    public LastMatchingEventFinder(RaceLog raceLog, Scope scope) {
+        super(raceLog);
+        this.scope = scope;
+    }
+
+    protected abstract boolean matches(RaceLogEvent event);
+
+    /**
+     * @param lastMatchingEvent
+     *            the last event in the scope {@link #matches(RaceLogEvent) matching}, or {@code null} if there is
+     *            none
+     */
+    protected abstract ResultType getResult(RaceLogEvent lastMatchingEvent);
+
+    /**
+     * Searches the events in scope in descending order for the first one {@link #matches(RaceLogEvent) matching}. Callers
+     * are expected to hold the {@link #getLog() log's} read lock.
+     */
+    protected RaceLogEvent findLastMatchingEvent() {
+        for (final RaceLogEvent event : getEventsInScopeDescending()) {
+            if (matches(event)) {
+                return event;
+            }
+        }
+        return null;
+    }
+
+    private Iterable<RaceLogEvent> getEventsInScopeDescending() {
+        final Iterable<RaceLogEvent> result;
+        switch (scope) {
+        case PASS_EVENTS:
+            result = getPassEventsDescending();
+            break;
+        case UNREVOKED_PASS_EVENTS:
+            result = getPassUnrevokedEventsDescending();
+            break;
+        default:
+            result = getAllEventsDescending();
+            break;
+        }
+        return result;
+    }
+
+    @Override
+    protected synchronized ResultType performAnalysis() {
+        if (scope != Scope.ALL_EVENTS) {
+            passId = log.getCurrentPassId();
+        }
+        lastMatchingEvent = findLastMatchingEvent();
+        return getResult(lastMatchingEvent);
+    }
+
+    @Override
+    protected boolean isIncremental() {
+        return true;
+    }
+
+    @Override
+    protected boolean fold(RaceLogEvent addedEvent) {
+        if (scope != Scope.ALL_EVENTS) {
+            if (log.getCurrentPassId() != passId) {
+                return false;
+            }
+            if (addedEvent.getPassId() != passId) {
+                return true;
+            }
+            if (scope == Scope.UNREVOKED_PASS_EVENTS) {
+                if (addedEvent instanceof RevokeEvent<?> && lastMatchingEvent != null
+                        && lastMatchingEvent.getId().equals(((RevokeEvent<?>) addedEvent).getRevokedEventId())) {
+                    return false;
+                }
+                // the event may have been revoked by a revoke event added before it
+                if (!log.getUnrevokedEvents().contains(addedEvent)) {
+                    return true;
+                }
+            }
+        }
+        if (matches(addedEvent) && (lastMatchingEvent == null || EVENT_ORDER.compare(addedEvent, lastMatchingEvent) > 0)) {
+            lastMatchingEvent = addedEvent;
+        }
+        return true;
+    }
+
+    @Override
+    protected ResultType getFoldedResult() {
+        return getResult(lastMatchingEvent);
+    }
+}
@@ -16,7 +16,7 @@ import com.sap.sailing.domain.common.CourseDesignerMode;
  * @author Axel Uhl (d043530)
  *
  */
-public class LastPublishedCourseDesignFinder extends RaceLogAnalyzer<CourseBase> {
+public class LastPublishedCourseDesignFinder extends LastMatchingEventFinder<CourseBase> {
 
     private final boolean onlyCoursesWithValidWaypointList;
 
@@ -29,21 +29,22 @@ public class LastPublishedCourseDesignFinder extends RaceLogAnalyzer<CourseBase>
      *            as well.
      */
     public LastPublishedCourseDesignFinder(RaceLog raceLog, boolean onlyCoursesWithValidWaypointList) {
-        super(raceLog);
+        super(raceLog, Scope.ALL_EVENTS);
         this.onlyCoursesWithValidWaypointList = onlyCoursesWithValidWaypointList;
     }
 
     @Override
-    protected CourseBase performAnalysis() {
-        for (RaceLogEvent event : getAllEventsDescending()) {
-            if (event instanceof RaceLogCourseDesignChangedEvent) {
-                RaceLogCourseDesignChangedEvent courseDesignEvent = (RaceLogCourseDesignChangedEvent) event;
-                if (!onlyCoursesWithValidWaypointList || (courseDesignEvent.getCourseDesignerMode() == null ||
-                        courseDesignEvent.getCourseDesignerMode().isWaypointSequenceValid())) {
-                    return courseDesignEvent.getCourseDesign();
-                }
-            }
+    protected boolean matches(RaceLogEvent event) {
+        if (event instanceof RaceLogCourseDesignChangedEvent) {
+            RaceLogCourseDesignChangedEvent courseDesignEvent = (RaceLogCourseDesignChangedEvent) event;
+            return !onlyCoursesWithValidWaypointList || (courseDesignEvent.getCourseDesignerMode() == null ||
+                    courseDesignEvent.getCourseDesignerMode().isWaypointSequenceValid());
         }
-        return null;
+        return false;
+    }
+
+    @Override
+    protected CourseBase getResult(RaceLogEvent lastMatchingEvent) {
+        return lastMatchingEvent == null ? null : ((RaceLogCourseDesignChangedEvent) lastMatchingEvent).getCourseDesign();
     }
 }
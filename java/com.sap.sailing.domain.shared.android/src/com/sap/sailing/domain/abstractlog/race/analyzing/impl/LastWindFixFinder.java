@@ -5,22 +5,20 @@ import com.sap.sailing.domain.abstractlog.race.RaceLogEvent;
 import com.sap.sailing.domain.abstractlog.race.RaceLogWindFixEvent;
 import com.sap.sailing.domain.common.Wind;
 
-public class LastWindFixFinder extends RaceLogAnalyzer<Wind> {
+public class LastWindFixFinder extends LastMatchingEventFinder<Wind> {
 
     public LastWindFixFinder(RaceLog raceLog) {
-        super(raceLog);
+        super(raceLog, Scope.ALL_EVENTS);
     }
 
     @Override
-    protected Wind performAnalysis() {
-        for (RaceLogEvent event : getAllEventsDescending()) {
-            if (event instanceof RaceLogWindFixEvent) {
-                RaceLogWindFixEvent windFixEvent = (RaceLogWindFixEvent) event;
-                return windFixEvent.getWindFix();
-            }
-        }
-        
-        return null;
+    protected boolean matches(RaceLogEvent event) {
+        return event instanceof RaceLogWindFixEvent;
+    }
+
+    @Override
+    protected Wind getResult(RaceLogEvent lastMatchingEvent) {
+        return lastMatchingEvent == null ? null : ((RaceLogWindFixEvent) lastMatchingEvent).getWindFix();
     }
 
 }
@@ -5,21 +5,20 @@ import com.sap.sailing.domain.abstractlog.race.RaceLogEvent;
 import com.sap.sailing.domain.abstractlog.race.RaceLogProtestStartTimeEvent;
 import com.sap.sse.common.TimeRange;
 
-public class ProtestTimeFinder extends RaceLogAnalyzer<TimeRange> {
+public class ProtestTimeFinder extends LastMatchingEventFinder<TimeRange> {
 
     public ProtestTimeFinder(RaceLog raceLog) {
-        super(raceLog);
+        super(raceLog, Scope.PASS_EVENTS);
     }
 
     @Override
-    protected TimeRange performAnalysis() {
-        for (RaceLogEvent event : getPassEventsDescending()) {
-            if (event instanceof RaceLogProtestStartTimeEvent) {
-                RaceLogProtestStartTimeEvent protestEvent = (RaceLogProtestStartTimeEvent) event;
-                return protestEvent.getProtestTime();
-            }
-        }
-        return null;
+    protected boolean matches(RaceLogEvent event) {
+        return event instanceof RaceLogProtestStartTimeEvent;
+    }
+
+    @Override
+    protected TimeRange getResult(RaceLogEvent lastMatchingEvent) {
+        return lastMatchingEvent == null ? null : ((RaceLogProtestStartTimeEvent) lastMatchingEvent).getProtestTime();
     }
 
 }
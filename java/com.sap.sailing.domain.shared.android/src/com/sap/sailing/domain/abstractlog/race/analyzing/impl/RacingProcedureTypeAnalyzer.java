@@ -5,21 +5,21 @@ import com.sap.sailing.domain.abstractlog.race.RaceLogEvent;
 import com.sap.sailing.domain.abstractlog.race.RaceLogStartProcedureChangedEvent;
 import com.sap.sailing.domain.common.racelog.RacingProcedureType;
 
-public class RacingProcedureTypeAnalyzer extends RaceLogAnalyzer<RacingProcedureType> {
+public class RacingProcedureTypeAnalyzer extends LastMatchingEventFinder<RacingProcedureType> {
 
     public RacingProcedureTypeAnalyzer(RaceLog raceLog) {
-        super(raceLog);
+        super(raceLog, Scope.ALL_EVENTS);
     }
 
     @Override
-    protected RacingProcedureType performAnalysis() {
-        for (RaceLogEvent event : getAllEventsDescending()) {
-            if (event instanceof RaceLogStartProcedureChangedEvent) {
-                RaceLogStartProcedureChangedEvent startProcedureEvent = (RaceLogStartProcedureChangedEvent) event;
-                return startProcedureEvent.getStartProcedureType();
-            }
-        }
-        return RacingProcedureType.UNKNOWN;
+    protected boolean matches(RaceLogEvent event) {
+        return event instanceof RaceLogStartProcedureChangedEvent;
+    }
+
+    @Override
+    protected RacingProcedureType getResult(RaceLogEvent lastMatchingEvent) {
+        return lastMatchingEvent == null ? RacingProcedureType.UNKNOWN
+                : ((RaceLogStartProcedureChangedEvent) lastMatchingEvent).getStartProcedureType();
     }
 
 }
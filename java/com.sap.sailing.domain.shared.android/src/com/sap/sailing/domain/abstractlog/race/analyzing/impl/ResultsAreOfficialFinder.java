@@ -12,19 +12,19 @@ import com.sap.sailing.domain.abstractlog.race.RaceLogResultsAreOfficialEvent;
  * {@link RaceLogResultsAreOfficialEvent} is returned.
  * 
  */
-public class ResultsAreOfficialFinder extends RaceLogAnalyzer<RaceLogResultsAreOfficialEvent> {
+public class ResultsAreOfficialFinder extends LastMatchingEventFinder<RaceLogResultsAreOfficialEvent> {
 
     public ResultsAreOfficialFinder(RaceLog raceLog) {
-        super(raceLog);
+        super(raceLog, Scope.ALL_EVENTS);
     }
 
     @Override
-    protected RaceLogResultsAreOfficialEvent performAnalysis() {
-        for (final RaceLogEvent e : getAllEventsDescending()) {
-            if (e instanceof RaceLogResultsAreOfficialEvent) {
-                return (RaceLogResultsAreOfficialEvent) e;
-            }
-        }
-        return null;
+    protected boolean matches(RaceLogEvent event) {
+        return event instanceof RaceLogResultsAreOfficialEvent;
+    }
+
+    @Override
+    protected RaceLogResultsAreOfficialEvent getResult(RaceLogEvent lastMatchingEvent) {
+        return (RaceLogResultsAreOfficialEvent) lastMatchingEvent;
     }
 }
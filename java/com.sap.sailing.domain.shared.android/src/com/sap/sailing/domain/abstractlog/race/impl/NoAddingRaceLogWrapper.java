@@ -4,6 +4,7 @@ import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NavigableSet;
 import java.util.UUID;
 import java.util.function.Function;
@@ -244,6 +245,16 @@ public class NoAddingRaceLogWrapper implements RaceLog {
         return innerRaceLog.getEventById(id);
     }
 
+    @Override
+    public int getNumberOfEventsAdded() {
+        return innerRaceLog.getNumberOfEventsAdded();
+    }
+
+    @Override
+    public List<RaceLogEvent> getEventsAddedSince(int numberOfEventsAdded) {
+        return innerRaceLog.getEventsAddedSince(numberOfEventsAdded);
+    }
+
     @Override
     public void merge(AbstractLog<RaceLogEvent, RaceLogEventVisitor> other) {
         innerRaceLog.merge(other);
@@ -0,0 +1,118 @@
+package com.sap.sailing.domain.shared.tracking.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.sap.sailing.domain.shared.tracking.Track;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.Timed;
+
+/**
+ * Iterates over the fixes of a {@link Track} in a time range without requiring the caller to hold the track's
+ * {@link Track#lockForRead() read lock}. The fixes are copied in chunks of limited size while holding the read lock
+ * only for the duration of copying one chunk. This is meant for slow consumers such as the serialization of a whole
+ * race's track into an HTTP response: neither does a slow client block writers of the track, nor does the memory
+ * required grow with the size of the track.
+ * <p>
+ *
+ * Since a track holds at most one fix per time point, the next chunk starts right after the time point of the last
+ * fix of the previous chunk. Fixes added to the track while iterating will be returned if they are later than the last
+ * fix returned so far; fixes removed while iterating may still be returned if they were part of the current chunk.
+ */
+public class ChunkedFixesIterator<FixType extends Timed> implements Iterator<FixType> {
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final Track<FixType> track;
+
+    private final boolean raw;
+
+    private final TimePoint to;
+
+    private final boolean toInclusive;
+
+    private final int chunkSize;
+
+    private final List<FixType> chunk;
+
+    private int positionInChunk;
+
+    /**
+     * The time point at which to continue with the next chunk; {@code null} to start at the beginning of the track
+     */
+    private TimePoint nextFrom;
+
+    private boolean nextFromInclusive;
+
+    /**
+     * {@code true} if the last chunk fetched was not full, so the track has no more fixes in the requested range
+     */
+    private boolean exhausted;
+
+    /**
+     * @param raw
+     *            whether to iterate the {@link Track#getRawFixesIterator raw fixes} or the
+     *            {@link Track#getFixesIterator fixes} with outliers removed
+     * @param from
+     *            {@code null} to start with the track's first fix
+     * @param to
+     *            {@code null} to end with the track's last fix
+     */
+    public ChunkedFixesIterator(Track<FixType> track, boolean raw, TimePoint from, boolean fromInclusive, TimePoint to,
+            boolean toInclusive, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive but was " + chunkSize);
+        }
+        this.track = track;
+        this.raw = raw;
+        this.nextFrom = from;
+        this.nextFromInclusive = fromInclusive;
+        this.to = to;
+        this.toInclusive = toInclusive;
+        this.chunkSize = chunkSize;
+        this.chunk = new ArrayList<>(chunkSize);
+    }
+
+    public ChunkedFixesIterator(Track<FixType> track, boolean raw, TimePoint from, TimePoint to) {
+        this(track, raw, from, /* fromInclusive */ true, to, /* toInclusive */ true, DEFAULT_CHUNK_SIZE);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (positionInChunk >= chunk.size() && !exhausted) {
+            fetchNextChunk();
+        }
+        return positionInChunk < chunk.size();
+    }
+
+    @Override
+    public FixType next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return chunk.get(positionInChunk++);
+    }
+
+    private void fetchNextChunk() {
+        chunk.clear();
+        positionInChunk = 0;
+        track.lockForRead();
+        try {
+            final Iterator<FixType> fixesIterator = raw
+                    ? track.getRawFixesIterator(nextFrom, nextFromInclusive, to, toInclusive)
+                    : track.getFixesIterator(nextFrom, nextFromInclusive, to, toInclusive);
+            while (chunk.size() < chunkSize && fixesIterator.hasNext()) {
+                chunk.add(fixesIterator.next());
+            }
+        } finally {
+            track.unlockAfterRead();
+        }
+        if (chunk.size() < chunkSize) {
+            exhausted = true;
+        } else {
+            nextFrom = chunk.get(chunk.size() - 1).getTimePoint();
+            nextFromInclusive = false;
+        }
+    }
+}
@@ -27,7 +27,12 @@ public class MappedTrackImpl<ItemType, FixType extends Timed> extends TrackImpl<
     
     /** @see TrackImpl#TrackImpl(ArrayListNavigableSet, String) */
     protected MappedTrackImpl(ItemType trackedItem, ArrayListNavigableSet<Timed> fixes, String nameForReadWriteLock) {
-        super(fixes, nameForReadWriteLock);
+        this(trackedItem, fixes, nameForReadWriteLock, /* optimisticReads */ false);
+    }
+
+    /** @see TrackImpl#TrackImpl(ArrayListNavigableSet, String, boolean) */
+    protected MappedTrackImpl(ItemType trackedItem, ArrayListNavigableSet<Timed> fixes, String nameForReadWriteLock, boolean optimisticReads) {
+        super(fixes, nameForReadWriteLock, optimisticReads);
         this.trackedItem = trackedItem;
     }
 
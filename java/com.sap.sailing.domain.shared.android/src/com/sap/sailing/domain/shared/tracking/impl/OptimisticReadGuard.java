@@ -0,0 +1,83 @@
+package com.sap.sailing.domain.shared.tracking.impl;
+
+import java.io.Serializable;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/**
+ * Lets readers of a {@link TrackImpl} look up single fixes without acquiring the track's read lock. It uses a
+ * {@link StampedLock} as a sequence lock: writers that change the position of fixes already contained in the track
+ * (out-of-order inserts, replacements, removals) bracket their modification with
+ * {@link #beginStructuralModification()} and {@link #endStructuralModification()}, while they still hold the track's
+ * write lock. Appending a fix at the end of the track does not move any fix; it only needs no bracketing if the fix
+ * set used by the track publishes appends safely to readers running concurrently (see
+ * {@link TrackImpl#isAppendSafeForOptimisticReaders()}). A plain {@link com.sap.sse.shared.util.impl.ArrayListNavigableSet}
+ * does not, so its tracks bracket appends as well. Readers only retry if a bracketed modification happened while
+ * they were reading.
+ * <p>
+ *
+ * This class is kept separate from {@link TrackImpl} so that {@link StampedLock} is only loaded by runtimes that
+ * actually enable optimistic reads.
+ */
+class OptimisticReadGuard implements Serializable {
+    private static final long serialVersionUID = 4218880012567435437L;
+
+    /**
+     * After this many failed optimistic attempts readers resort to the track's read lock
+     */
+    private static final int MAX_OPTIMISTIC_ATTEMPTS = 2;
+
+    private final transient StampedLock structuralModificationLock;
+
+    /**
+     * Obtained from {@link #structuralModificationLock}; structural modifications are performed while holding the
+     * track's write lock, so this lock is never contended and doesn't need the stamp.
+     */
+    private final transient Lock structuralModificationWriteLock;
+
+    OptimisticReadGuard() {
+        structuralModificationLock = new StampedLock();
+        structuralModificationWriteLock = structuralModificationLock.asWriteLock();
+    }
+
+    /**
+     * The locks are not serialized; a de-serialized track starts with a fresh guard
+     */
+    private Object readResolve() {
+        return new OptimisticReadGuard();
+    }
+
+    void beginStructuralModification() {
+        structuralModificationWriteLock.lock();
+    }
+
+    void endStructuralModification() {
+        structuralModificationWriteLock.unlock();
+    }
+
+    /**
+     * Evaluates {@code reader} without locking and returns its result if no structural modification happened while
+     * evaluating. Exceptions thrown by {@code reader} are taken as a sign of a concurrent modification, e.g., an
+     * append that was only partially visible, and cause another attempt. If no consistent result could be obtained
+     * optimistically, {@code lockingReader} is evaluated; it is expected to obtain the track's read lock and will
+     * then also surface any exception that {@code reader} would throw consistently.
+     */
+    <T> T read(Supplier<T> reader, Supplier<T> lockingReader) {
+        for (int attempt=0; attempt<MAX_OPTIMISTIC_ATTEMPTS; attempt++) {
+            final long stamp = structuralModificationLock.tryOptimisticRead();
+            if (stamp == 0) {
+                break; // a structural modification is in progress; wait for it on the track's lock
+            }
+            try {
+                final T result = reader.get();
+                if (structuralModificationLock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // inconsistent state observed; try again
+            }
+        }
+        return lockingReader.get();
+    }
+}
@@ -6,6 +6,7 @@ import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.NavigableSet;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.sap.sailing.domain.shared.tracking.AddResult;
 import com.sap.sailing.domain.shared.tracking.FixAcceptancePredicate;
@@ -30,6 +31,12 @@ public class TrackImpl<FixType extends Timed> implements Track<FixType> {
 
     private final NamedReentrantReadWriteLock readWriteLock;
 
+    /**
+     * {@code null} unless optimistic reads were requested when constructing this track; see
+     * {@link #TrackImpl(ArrayListNavigableSet, String, boolean)}
+     */
+    private final OptimisticReadGuard optimisticReadGuard;
+
     protected static class DummyTimed implements Timed {
         private static final long serialVersionUID = 6047311973718918856L;
         private final TimePoint timePoint;
@@ -52,8 +59,25 @@ public class TrackImpl<FixType extends Timed> implements Track<FixType> {
     }
     
     protected TrackImpl(ArrayListNavigableSet<Timed> fixes, String nameForReadWriteLock) {
+        this(fixes, nameForReadWriteLock, /* optimisticReads */ false);
+    }
+
+    /**
+     * @param optimisticReads
+     *            if {@code true}, the single-fix lookups such as {@link #getLastRawFixAtOrBefore(TimePoint)} or
+     *            {@link #getFirstRawFixAtOrAfter(TimePoint)} don't acquire the read lock but read optimistically,
+     *            retrying if the fixes were modified concurrently. Appending fixes at the end of the track, the usual
+     *            case for live data, only doesn't disturb these readers if the fix set publishes appends safely to
+     *            readers that don't hold the lock; see {@link #isAppendSafeForOptimisticReaders()}. Subclasses that
+     *            modify the fixes other than through {@link #addWithoutLocking(Timed, boolean)} have to bracket
+     *            such modifications by {@link #beginStructuralModification()} and
+     *            {@link #endStructuralModification()}. Iterating the fixes still requires the read lock, and all
+     *            modifications still require the write lock.
+     */
+    protected TrackImpl(ArrayListNavigableSet<Timed> fixes, String nameForReadWriteLock, boolean optimisticReads) {
         this.readWriteLock = new NamedReentrantReadWriteLock(nameForReadWriteLock, /* fair */ false);
         this.fixes = fixes;
+        this.optimisticReadGuard = optimisticReads ? new OptimisticReadGuard() : null;
     }
     
     /**
@@ -86,6 +110,77 @@ public class TrackImpl<FixType extends Timed> implements Track<FixType> {
         LockUtil.unlockAfterWrite(readWriteLock);
     }
 
+    protected boolean isOptimisticReads() {
+        return optimisticReadGuard != null;
+    }
+
+    /**
+     * Tells whether appending a fix at the end of the fix set can run concurrently with optimistic readers. This is
+     * only the case if the fix set publishes the appended fix and the new size safely, e.g., through a volatile size
+     * field written after the fix. A plain {@link java.util.ArrayList} backing an {@link ArrayListNavigableSet} does
+     * not: a reader may see the new size but not the fix, or a partially copied backing array while it is grown.
+     * Therefore, by default, appends are treated as structural modifications, too.
+     */
+    protected boolean isAppendSafeForOptimisticReaders() {
+        return false;
+    }
+
+    /**
+     * To be called while holding the write lock before a modification of the fixes that may change the position of
+     * fixes already in the track, such as an out-of-order insert or a removal. Optimistic readers that overlap with
+     * such a modification will retry. Must be followed by a call to {@link #endStructuralModification()}.
+     */
+    protected void beginStructuralModification() {
+        if (optimisticReadGuard != null) {
+            optimisticReadGuard.beginStructuralModification();
+        }
+    }
+
+    protected void endStructuralModification() {
+        if (optimisticReadGuard != null) {
+            optimisticReadGuard.endStructuralModification();
+        }
+    }
+
+    /**
+     * Evaluates {@code reader} optimistically without the read lock if this track was configured for optimistic reads;
+     * otherwise, or if no consistent result could be obtained optimistically, {@code reader} is evaluated while holding
+     * the read lock. {@code reader} must not rely on the read lock being held and must not have side effects.
+     */
+    protected <T> T read(Supplier<T> reader) {
+        return read(reader, /* optimistic */ optimisticReadGuard != null);
+    }
+
+    /**
+     * Like {@link #read(Supplier)}, but for readers that use {@link #getInternalFixes()} which subclasses may
+     * redefine in ways that require the read lock; see {@link #isInternalFixesReadableOptimistically()}.
+     */
+    private <T> T readInternalFixes(Supplier<T> reader) {
+        return read(reader, /* optimistic */ optimisticReadGuard != null && isInternalFixesReadableOptimistically());
+    }
+
+    private <T> T read(Supplier<T> reader, boolean optimistic) {
+        final Supplier<T> lockingReader = ()->{
+            lockForRead();
+            try {
+                return reader.get();
+            } finally {
+                unlockAfterRead();
+            }
+        };
+        return optimistic ? optimisticReadGuard.read(reader, lockingReader) : lockingReader.get();
+    }
+
+    /**
+     * Tells whether {@link #getInternalFixes()} can be used without holding the read lock. This is the case for this
+     * implementation which returns the raw fixes. Subclasses that redefine {@link #getInternalFixes()}, e.g., for
+     * outlier removal based on cached fix validity, and that need the read lock for this, have to redefine this
+     * method to return {@code false}.
+     */
+    protected boolean isInternalFixesReadableOptimistically() {
+        return true;
+    }
+
     /**
      * Callers that want to iterate over the collection returned need to use {@link #lockForRead()} and {@link #unlockAfterRead()}
      * to avoid {@link ConcurrentModificationException}s. Should they modify the structure returned, they have to use
@@ -155,8 +250,7 @@ public class TrackImpl<FixType extends Timed> implements Track<FixType> {
     }
     
     private FixType getLastFixAtOrBefore(TimePoint timePoint, FixAcceptancePredicate<FixType> fixAcceptancePredicate) {
-        lockForRead();
-        try {
+        return readInternalFixes(()->{
             final NavigableSet<FixType> headSet = getInternalFixes().headSet(getDummyFix(timePoint), /* inclusive */ true);
             for (final Iterator<FixType> i=headSet.descendingIterator(); i.hasNext(); ) {
                 final FixType next = i.next();
@@ -165,39 +259,22 @@ public class TrackImpl<FixType extends Timed> implements Track<FixType> {
                 }
             }
             return null;
-        } finally {
-            unlockAfterRead();
-        }
+        });
     }
 
     @Override
     public FixType getLastFixBefore(TimePoint timePoint) {
-        lockForRead();
-        try {
-            return (FixType) getInternalFixes().lower(getDummyFix(timePoint));
-        } finally {
-            unlockAfterRead();
-        }
+        return readInternalFixes(()->getInternalFixes().lower(getDummyFix(timePoint)));
     }
 
     @Override
     public FixType getLastRawFixAtOrBefore(TimePoint timePoint) {
-        lockForRead();
-        try {
-            return (FixType) getInternalRawFixes().floor(getDummyFix(timePoint));
-        } finally {
-            unlockAfterRead();
-        }
+        return read(()->getInternalRawFixes().floor(getDummyFix(timePoint)));
     }
 
     @Override
     public FixType getFirstRawFixAtOrAfter(TimePoint timePoint) {
-        lockForRead();
-        try {
-            return (FixType) getInternalRawFixes().ceiling(getDummyFix(timePoint));
-        } finally {
-            unlockAfterRead();
-        }
+        return read(()->getInternalRawFixes().ceiling(getDummyFix(timePoint)));
     }
 
     @Override
@@ -206,8 +283,7 @@ public class TrackImpl<FixType extends Timed> implements Track<FixType> {
     }
 
     private FixType getFirstFixAtOrAfter(TimePoint timePoint, FixAcceptancePredicate<FixType> fixAcceptancePredicate) {
-        lockForRead();
-        try {
+        return readInternalFixes(()->{
             final NavigableSet<FixType> tailSet = getInternalFixes().tailSet(getDummyFix(timePoint), /* inclusive */ true);
             for (final FixType next : tailSet) {
                 if (fixAcceptancePredicate == null || fixAcceptancePredicate.isAcceptFix(next)) {
@@ -215,39 +291,22 @@ public class TrackImpl<FixType extends Timed> implements Track<FixType> {
                 }
             }
             return null;
-        } finally {
-            unlockAfterRead();
-        }
+        });
     }
 
     @Override
     public FixType getLastRawFixBefore(TimePoint timePoint) {
-        lockForRead();
-        try {
-            return (FixType) getInternalRawFixes().lower(getDummyFix(timePoint));
-        } finally {
-            unlockAfterRead();
-        }
+        return read(()->getInternalRawFixes().lower(getDummyFix(timePoint)));
     }
 
     @Override
     public FixType getFirstFixAfter(TimePoint timePoint) {
-        lockForRead();
-        try {
-            return (FixType) getInternalFixes().higher(getDummyFix(timePoint));
-        } finally {
-            unlockAfterRead();
-        }
+        return readInternalFixes(()->getInternalFixes().higher(getDummyFix(timePoint)));
     }
 
     @Override
     public FixType getFirstRawFixAfter(TimePoint timePoint) {
-        lockForRead();
-        try {
-            return (FixType) getInternalRawFixes().higher(getDummyFix(timePoint));
-        } finally {
-            unlockAfterRead();
-        }
+        return read(()->getInternalRawFixes().higher(getDummyFix(timePoint)));
     }
 
     @Override
@@ -266,16 +325,10 @@ public class TrackImpl<FixType extends Timed> implements Track<FixType> {
     
     @Override
     public FixType getLastRawFix() {
-        lockForRead();
-        try {
-            if (getInternalRawFixes().isEmpty()) {
-                return null;
-            } else {
-                return (FixType) getInternalRawFixes().last();
-            }
-        } finally {
-            unlockAfterRead();
-        }
+        return read(()->{
+            final NavigableSet<FixType> rawFixes = getInternalRawFixes();
+            return rawFixes.isEmpty() ? null : rawFixes.last();
+        });
     }
     
     /**
@@ -433,16 +486,48 @@ public class TrackImpl<FixType extends Timed> implements Track<FixType> {
      */
     protected AddResult addWithoutLocking(FixType fix, boolean replace) {
         final AddResult result;
-        final boolean added = getInternalRawFixes().add(fix);
-        if (!added && replace) {
-            getInternalRawFixes().remove(fix);
-            result = getInternalRawFixes().add(fix) ? AddResult.REPLACED : AddResult.NOT_ADDED;
-        } else {
-            result = added ? AddResult.ADDED : AddResult.NOT_ADDED;
+        final NavigableSet<FixType> rawFixes = getInternalRawFixes();
+        // appending to a fix set that publishes appends safely doesn't move any fix already contained and therefore
+        // doesn't invalidate optimistic readers; all other modifications do
+        final boolean structural = !isAppendSafeForOptimisticReaders()
+                || !(rawFixes.isEmpty() || fixes.comparator().compare(fix, rawFixes.last()) > 0);
+        if (structural) {
+            beginStructuralModification();
+        }
+        try {
+            final boolean added = rawFixes.add(fix);
+            if (!added && replace) {
+                rawFixes.remove(fix);
+                result = rawFixes.add(fix) ? AddResult.REPLACED : AddResult.NOT_ADDED;
+            } else {
+                result = added ? AddResult.ADDED : AddResult.NOT_ADDED;
+            }
+        } finally {
+            if (structural) {
+                endStructuralModification();
+            }
         }
         return result;
     }
 
+    /**
+     * Removes all fixes from this track, releasing the memory they occupied. Subclasses holding caches derived from the
+     * fixes must invalidate them.
+     */
+    protected void removeAllFixes() {
+        lockForWrite();
+        try {
+            beginStructuralModification();
+            try {
+                fixes.clear();
+            } finally {
+                endStructuralModification();
+            }
+        } finally {
+            unlockAfterWrite();
+        }
+    }
+
     @Override
     public Duration getAverageIntervalBetweenFixes() {
         lockForRead();
@@ -0,0 +1,155 @@
+package com.sap.sailing.domain.orc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.apache.commons.math.FunctionEvaluationException;
+import org.apache.commons.math.MaxIterationsExceededException;
+import org.json.simple.parser.ParseException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.common.impl.NauticalMileDistance;
+import com.sap.sailing.domain.common.orc.ORCCertificate;
+import com.sap.sailing.domain.common.orc.ORCPerformanceCurveCourse;
+import com.sap.sailing.domain.common.orc.ORCPerformanceCurveLeg;
+import com.sap.sailing.domain.common.orc.ORCPerformanceCurveLegTypes;
+import com.sap.sailing.domain.common.orc.impl.ORCPerformanceCurveCourseImpl;
+import com.sap.sailing.domain.common.orc.impl.ORCPerformanceCurveLegImpl;
+import com.sap.sailing.domain.orc.impl.ORCCertificatesJsonImporter;
+import com.sap.sailing.domain.orc.impl.ORCImpliedWindSolver;
+import com.sap.sailing.domain.orc.impl.ORCPerformanceCurveImpl;
+import com.sap.sse.common.Duration;
+import com.sap.sse.common.Speed;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+
+/**
+ * Compares the table-based {@link ORCImpliedWindSolver} used by {@link ORCPerformanceCurveImpl#getImpliedWind(Duration)}
+ * with the reference values from the ORC scorer and with the Newton-Raphson solver it replaces. Uses only the local
+ * certificate files so that it can run without access to the ORC certificate database.
+ */
+public class TestORCImpliedWindSolver {
+    private static final Logger logger = Logger.getLogger(TestORCImpliedWindSolver.class.getName());
+
+    private static final String RESOURCES = "resources/orc/";
+
+    private static ORCPerformanceCurveCourse alturaCourse;
+    private static ORCPerformanceCurveCourse complexCourse;
+    private static ORCCertificatesCollection importerLocal;
+
+    @BeforeAll
+    public static void initialize() throws IOException, ParseException {
+        final List<ORCPerformanceCurveLeg> alturaLegs = new ArrayList<>();
+        alturaLegs.add(new ORCPerformanceCurveLegImpl(new NauticalMileDistance(2.23), new DegreeBearingImpl(10)));
+        alturaLegs.add(new ORCPerformanceCurveLegImpl(new NauticalMileDistance(2.00), new DegreeBearingImpl(170)));
+        alturaLegs.add(new ORCPerformanceCurveLegImpl(new NauticalMileDistance(0.97), new DegreeBearingImpl(0)));
+        alturaLegs.add(new ORCPerformanceCurveLegImpl(new NauticalMileDistance(1.03), new DegreeBearingImpl(15)));
+        alturaLegs.add(new ORCPerformanceCurveLegImpl(new NauticalMileDistance(1.03), new DegreeBearingImpl(165)));
+        alturaLegs.add(new ORCPerformanceCurveLegImpl(new NauticalMileDistance(1.17), new DegreeBearingImpl(180)));
+        alturaCourse = new ORCPerformanceCurveCourseImpl(alturaLegs);
+        final List<ORCPerformanceCurveLeg> complexLegs = new ArrayList<>();
+        complexLegs.add(new ORCPerformanceCurveLegImpl(new NauticalMileDistance(1.5), new DegreeBearingImpl(0)));
+        complexLegs.add(new ORCPerformanceCurveLegImpl(new NauticalMileDistance(2), ORCPerformanceCurveLegTypes.WINDWARD_LEEWARD));
+        complexLegs.add(new ORCPerformanceCurveLegImpl(new NauticalMileDistance(2), ORCPerformanceCurveLegTypes.LONG_DISTANCE));
+        complexLegs.add(new ORCPerformanceCurveLegImpl(new NauticalMileDistance(2), ORCPerformanceCurveLegTypes.CIRCULAR_RANDOM));
+        complexLegs.add(new ORCPerformanceCurveLegImpl(new NauticalMileDistance(1.5), ORCPerformanceCurveLegTypes.NON_SPINNAKER));
+        complexLegs.add(new ORCPerformanceCurveLegImpl(new NauticalMileDistance(1), new DegreeBearingImpl(180)));
+        complexCourse = new ORCPerformanceCurveCourseImpl(complexLegs);
+        importerLocal = new ORCCertificatesJsonImporter().read(new FileInputStream(new File(RESOURCES + "GER2019.json")));
+    }
+
+    private ORCPerformanceCurveImpl createPerformanceCurve(String sailNumber, ORCPerformanceCurveCourse course) throws FunctionEvaluationException {
+        return new ORCPerformanceCurveImpl(importerLocal.getCertificateById(sailNumber), course);
+    }
+
+    /**
+     * Implied wind values as computed by the ORC scorer, see also {@code TestORCPerformanceCurve}
+     */
+    @Test
+    public void testImpliedWindAgainstORCReferenceValues() throws FunctionEvaluationException, MaxIterationsExceededException {
+        final double accuracy = 0.0001;
+        assertEquals(12.80881, createPerformanceCurve("GER20041179", alturaCourse).getImpliedWind(Duration.ONE_HOUR.times(1.0)).getKnots(), accuracy);
+        assertEquals(8.72668, createPerformanceCurve("GER30010194", alturaCourse).getImpliedWind(Duration.ONE_HOUR.times(1.5)).getKnots(), accuracy);
+        assertEquals(8.07591, createPerformanceCurve("GER20040647", alturaCourse).getImpliedWind(Duration.ONE_HOUR.times(1.5)).getKnots(), accuracy);
+        assertEquals(7.78413, createPerformanceCurve("GER30010167", alturaCourse).getImpliedWind(Duration.ONE_HOUR.times(1.5)).getKnots(), accuracy);
+        assertEquals(7.76218, createPerformanceCurve("GER20040783", alturaCourse).getImpliedWind(Duration.ONE_HOUR.times(1.5)).getKnots(), accuracy);
+        assertEquals(7.62407, createPerformanceCurve("GER20040632", alturaCourse).getImpliedWind(Duration.ONE_HOUR.times(2.0)).getKnots(), accuracy);
+        assertEquals(15.75777, createPerformanceCurve("GER20041179", complexCourse).getImpliedWind(Duration.ONE_HOUR.times(1.0)).getKnots(), accuracy);
+        assertEquals(10.86927, createPerformanceCurve("GER30010194", complexCourse).getImpliedWind(Duration.ONE_HOUR.times(1.5)).getKnots(), accuracy);
+        assertEquals(9.13385, createPerformanceCurve("GER20040632", complexCourse).getImpliedWind(Duration.ONE_HOUR.times(2.0)).getKnots(), accuracy);
+    }
+
+    @Test
+    public void testImpliedWindIsCappedAtLowestAndHighestTrueWindSpeed() throws FunctionEvaluationException, MaxIterationsExceededException {
+        final ORCPerformanceCurveImpl performanceCurve = createPerformanceCurve("GER20040783", alturaCourse);
+        assertEquals(6.0, performanceCurve.getImpliedWind(Duration.ONE_HOUR.times(24)).getKnots(), 0.0000001);
+        assertEquals(20.0, performanceCurve.getImpliedWind(Duration.ONE_HOUR.divide(24)).getKnots(), 0.0000001);
+    }
+
+    /**
+     * Sweeps the durations across the whole range of true wind speeds for all local certificates and compares with the
+     * Newton-Raphson solver.
+     */
+    @Test
+    public void testAgreementWithNewtonRaphsonSolver() throws FunctionEvaluationException, MaxIterationsExceededException {
+        int numberOfComparisons = 0;
+        for (final ORCCertificate certificate : importerLocal.getCertificates()) {
+            for (final ORCPerformanceCurveCourse course : Arrays.asList(alturaCourse, complexCourse)) {
+                final ORCPerformanceCurveImpl performanceCurve = new ORCPerformanceCurveImpl(certificate, course);
+                final Speed[] trueWindSpeeds = certificate.getTrueWindSpeeds();
+                final Duration slowest = performanceCurve.getAllowancePerCourse(trueWindSpeeds[0]);
+                final Duration fastest = performanceCurve.getAllowancePerCourse(trueWindSpeeds[trueWindSpeeds.length - 1]);
+                for (int i = -5; i <= 105; i++) {
+                    final Duration duration = fastest.plus(slowest.minus(fastest).times(i / 100.0));
+                    assertEquals(performanceCurve.getImpliedWindUsingNewtonRaphson(duration).getKnots(),
+                            performanceCurve.getImpliedWind(duration).getKnots(), 0.000001,
+                            "mismatch for certificate " + certificate.getId() + " and duration " + duration);
+                    numberOfComparisons++;
+                }
+            }
+        }
+        assertTrue(numberOfComparisons > 0);
+    }
+
+    @Test
+    public void testPerformanceAgainstNewtonRaphsonSolver() throws FunctionEvaluationException, MaxIterationsExceededException {
+        final List<ORCPerformanceCurveImpl> performanceCurves = new ArrayList<>();
+        for (final ORCCertificate certificate : importerLocal.getCertificates()) {
+            performanceCurves.add(new ORCPerformanceCurveImpl(certificate, alturaCourse));
+        }
+        final Duration[] durations = new Duration[100];
+        for (int i = 0; i < durations.length; i++) {
+            durations[i] = Duration.ONE_MINUTE.times(50 + i);
+        }
+        double checksumNewtonRaphson = 0;
+        double checksumTable = 0;
+        for (int round = 0; round < 3; round++) { // the first rounds warm up the JIT
+            long start = System.nanoTime();
+            for (final ORCPerformanceCurveImpl performanceCurve : performanceCurves) {
+                for (final Duration duration : durations) {
+                    checksumNewtonRaphson += performanceCurve.getImpliedWindUsingNewtonRaphson(duration).getKnots();
+                }
+            }
+            final long newtonRaphsonNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (final ORCPerformanceCurveImpl performanceCurve : performanceCurves) {
+                for (final Duration duration : durations) {
+                    checksumTable += performanceCurve.getImpliedWind(duration).getKnots();
+                }
+            }
+            final long tableNanos = System.nanoTime() - start;
+            logger.info("Round " + round + ": " + performanceCurves.size() * durations.length
+                    + " implied wind calculations took " + newtonRaphsonNanos / 1000000 + "ms with the Newton-Raphson solver and "
+                    + tableNanos / 1000000 + "ms with the table-based solver");
+        }
+        assertEquals(checksumNewtonRaphson, checksumTable, 0.0001);
+    }
+}
@@ -0,0 +1,238 @@
+package com.sap.sailing.domain.racelog.tracking.impl;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sap.sailing.domain.common.DeviceIdentifier;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.tracking.DoubleVectorFix;
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.common.tracking.impl.DoubleVectorFixImpl;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixMovingImpl;
+import com.sap.sailing.domain.racelogtracking.impl.SmartphoneUUIDIdentifierImpl;
+import com.sap.sse.common.Duration;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.TimeRange;
+import com.sap.sse.common.Timed;
+import com.sap.sse.common.TransformationException;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+import com.sap.sse.common.impl.TimeRangeImpl;
+
+public class FileSensorFixStoreTest {
+    private static final Duration PARTITION_DURATION = Duration.ONE_HOUR;
+
+    @TempDir
+    File baseDirectory;
+
+    private final DeviceIdentifier device = new SmartphoneUUIDIdentifierImpl(UUID.randomUUID());
+    private final DeviceIdentifier otherDevice = new SmartphoneUUIDIdentifierImpl(UUID.randomUUID());
+    private FileSensorFixStoreImpl store;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        store = new FileSensorFixStoreImpl(baseDirectory, PARTITION_DURATION);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        store.close();
+    }
+
+    private void reopen() throws IOException {
+        store.close();
+        store = new FileSensorFixStoreImpl(baseDirectory, PARTITION_DURATION);
+    }
+
+    private static TimePoint time(long seconds) {
+        return new MillisecondsTimePoint(999999960000l + seconds * 1000); // starts at a full minute
+    }
+
+    private static GPSFixMoving createFix(long seconds) {
+        return new GPSFixMovingImpl(new DegreePosition(54 + seconds * 0.0001, 10.5), time(seconds),
+                new KnotSpeedWithBearingImpl(7.5, new DegreeBearingImpl(123)),
+                seconds % 2 == 0 ? new DegreeBearingImpl(120) : null);
+    }
+
+    /**
+     * Stores one fix per second for the seconds given, in batches of 50 fixes
+     */
+    private void store(List<Long> seconds) {
+        final List<GPSFixMoving> batch = new ArrayList<>();
+        for (final long s : seconds) {
+            batch.add(createFix(s));
+            if (batch.size() == 50) {
+                store.storeFixes(device, batch, /* returnManeuverUpdate */ false, /* returnLiveDelay */ false);
+                batch.clear();
+            }
+        }
+        store.storeFixes(device, batch, /* returnManeuverUpdate */ false, /* returnLiveDelay */ false);
+    }
+
+    private static List<Long> range(long fromInclusive, long toExclusive) {
+        final List<Long> result = new ArrayList<>();
+        for (long i = fromInclusive; i < toExclusive; i++) {
+            result.add(i);
+        }
+        return result;
+    }
+
+    private List<GPSFixMoving> load(TimePoint from, TimePoint to, boolean inclusive) throws TransformationException {
+        final List<GPSFixMoving> result = new ArrayList<>();
+        store.<GPSFixMoving> loadFixes(result::add, device, from, to, inclusive);
+        return result;
+    }
+
+    private static void assertSeconds(long fromInclusive, long toExclusive, List<GPSFixMoving> fixes) {
+        assertEquals(toExclusive - fromInclusive, fixes.size());
+        for (int i = 0; i < fixes.size(); i++) {
+            assertEquals(time(fromInclusive + i), fixes.get(i).getTimePoint());
+        }
+    }
+
+    @Test
+    public void testStoreAndLoadRange() throws Exception {
+        store(range(0, 1000));
+        assertSeconds(0, 1000, load(null, null, true));
+        assertSeconds(100, 300, load(time(100), time(300), false));
+        assertSeconds(100, 301, load(time(100), time(300), true));
+        assertSeconds(0, 0, load(time(2000), time(3000), true));
+        assertEquals(1000, store.getNumberOfFixes(device));
+        assertEquals(new TimeRangeImpl(time(0), time(999), /* toIsInclusive */ true), store.getTimeRangeCoveredByFixes(device));
+    }
+
+    @Test
+    public void testFixContentsPreserved() throws Exception {
+        final GPSFixMoving fix = createFix(42);
+        final GPSFixMoving fixWithoutTrueHeading = createFix(43);
+        store.storeFixes(device, Arrays.asList(fix, fixWithoutTrueHeading), false, false);
+        final List<GPSFixMoving> loaded = load(null, null, true);
+        assertEquals(fix.getPosition(), loaded.get(0).getPosition());
+        assertEquals(fix.getSpeed().getKnots(), loaded.get(0).getSpeed().getKnots(), 0.0000001);
+        assertEquals(fix.getSpeed().getBearing().getDegrees(), loaded.get(0).getSpeed().getBearing().getDegrees(), 0.0000001);
+        assertEquals(fix.getOptionalTrueHeading().getDegrees(), loaded.get(0).getOptionalTrueHeading().getDegrees(), 0.0000001);
+        assertNull(loaded.get(1).getOptionalTrueHeading());
+    }
+
+    @Test
+    public void testOutOfOrderFixesAreLoadedInTimeOrder() throws Exception {
+        final List<Long> seconds = range(0, 1000);
+        Collections.shuffle(seconds.subList(200, 400));
+        store(seconds);
+        assertSeconds(0, 1000, load(null, null, true));
+        assertSeconds(150, 450, load(time(150), time(450), false));
+        reopen();
+        assertSeconds(150, 450, load(time(150), time(450), false));
+    }
+
+    @Test
+    public void testOldestAndYoungestFix() throws Exception {
+        store(range(0, 1000));
+        final TimeRange timeRange = new TimeRangeImpl(time(333), time(777));
+        final List<GPSFixMoving> oldest = new ArrayList<>();
+        assertTrue(store.<GPSFixMoving> loadOldestFix(oldest::add, device, timeRange));
+        assertSeconds(333, 334, oldest);
+        final List<GPSFixMoving> youngest = new ArrayList<>();
+        assertTrue(store.<GPSFixMoving> loadYoungestFix(youngest::add, device, timeRange));
+        assertSeconds(776, 777, youngest);
+        assertFalse(store.<GPSFixMoving> loadYoungestFix(youngest::add, device, new TimeRangeImpl(time(2000), time(3000))));
+        assertFalse(store.<GPSFixMoving> loadOldestFix(youngest::add, otherDevice, timeRange));
+    }
+
+    @Test
+    public void testPersistenceAcrossInstances() throws Exception {
+        store(range(0, 500));
+        store.storeFix(otherDevice, new DoubleVectorFixImpl(time(7), new Double[] { 1.5, null, 3.0 }));
+        reopen();
+        assertSeconds(0, 500, load(null, null, true));
+        assertEquals(500, store.getNumberOfFixes(device));
+        assertEquals(0, store.getNumberOfFixes(new SmartphoneUUIDIdentifierImpl(UUID.randomUUID())));
+        final Map<DeviceIdentifier, Timed> lastReceived = store.getFixLastReceived(Arrays.asList(device, otherDevice));
+        assertEquals(time(499), lastReceived.get(device).getTimePoint());
+        assertArrayEquals(new Double[] { 1.5, null, 3.0 }, ((DoubleVectorFix) lastReceived.get(otherDevice)).get());
+        store(range(500, 600));
+        assertSeconds(0, 600, load(null, null, true));
+    }
+
+    @Test
+    public void testFixOfUnexpectedTypeIsSkipped() throws Exception {
+        store(range(0, 10));
+        store.storeFix(device, new DoubleVectorFixImpl(time(5).plus(500), new Double[] { 1.5 }));
+        final List<TimePoint> timePoints = new ArrayList<>();
+        store.<GPSFixMoving> loadFixes(fix -> timePoints.add(fix.getSpeed() == null ? null : fix.getTimePoint()), device,
+                /* from */ null, /* to */ null, /* inclusive */ true);
+        assertEquals(10, timePoints.size());
+        assertEquals(time(9), timePoints.get(9));
+    }
+
+    @Test
+    public void testYoungestFixIsLastReceived() throws Exception {
+        store.storeFixes(device, Arrays.asList(createFix(20), createFix(30), createFix(10)), false, false);
+        assertEquals(time(30), store.getFixLastReceived(Collections.singleton(device)).get(device).getTimePoint());
+        store.storeFixes(device, Arrays.asList(createFix(25), createFix(5)), false, false);
+        assertEquals(time(30), store.getFixLastReceived(Collections.singleton(device)).get(device).getTimePoint());
+        reopen();
+        assertEquals(time(30), store.getFixLastReceived(Collections.singleton(device)).get(device).getTimePoint());
+        store.storeFix(device, createFix(31));
+        assertEquals(time(31), store.getFixLastReceived(Collections.singleton(device)).get(device).getTimePoint());
+    }
+
+    @Test
+    public void testNumberOfOpenSegmentsIsBounded() throws Exception {
+        store.close();
+        store = new FileSensorFixStoreImpl(baseDirectory, PARTITION_DURATION, /* maxOpenSegments */ 2);
+        final long secondsPerPartition = PARTITION_DURATION.asMillis() / 1000;
+        // ten fixes in each of five partitions
+        final List<Long> seconds = new ArrayList<>();
+        for (int partition = 0; partition < 5; partition++) {
+            seconds.addAll(range(partition * secondsPerPartition, partition * secondsPerPartition + 10));
+        }
+        store(seconds);
+        assertTrue(store.getNumberOfOpenSegments() <= 2);
+        final List<GPSFixMoving> loaded = load(null, null, true);
+        assertEquals(50, loaded.size());
+        assertEquals(time(4 * secondsPerPartition + 9), loaded.get(49).getTimePoint());
+        assertTrue(store.getNumberOfOpenSegments() <= 2);
+        store.storeFix(device, createFix(10));
+        assertEquals(51, store.getNumberOfFixes(device));
+        assertSeconds(0, 11, load(time(0), time(secondsPerPartition), false));
+        reopen();
+        assertEquals(51, load(null, null, true).size());
+    }
+
+    @Test
+    public void testIncompleteRecordIsTruncated() throws Exception {
+        store(range(0, 30));
+        store.close();
+        final File[] deviceDirectories = baseDirectory.listFiles(File::isDirectory);
+        assertEquals(1, deviceDirectories.length);
+        final File[] segmentFiles = deviceDirectories[0].listFiles((dir, name) -> name.endsWith(".fixes"));
+        assertEquals(1, segmentFiles.length);
+        try (RandomAccessFile segmentFile = new RandomAccessFile(segmentFiles[0], "rw")) {
+            segmentFile.setLength(segmentFile.length() - 3);
+        }
+        store = new FileSensorFixStoreImpl(baseDirectory, PARTITION_DURATION);
+        assertSeconds(0, 29, load(null, null, true));
+        store(range(29, 30));
+        assertSeconds(0, 30, load(null, null, true));
+    }
+}
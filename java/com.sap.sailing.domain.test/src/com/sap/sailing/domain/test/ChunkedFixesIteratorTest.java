@@ -0,0 +1,88 @@
+package com.sap.sailing.domain.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.tracking.GPSFix;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixImpl;
+import com.sap.sailing.domain.shared.tracking.impl.ChunkedFixesIterator;
+import com.sap.sailing.domain.tracking.DynamicGPSFixTrack;
+import com.sap.sailing.domain.tracking.impl.DynamicGPSFixTrackImpl;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+public class ChunkedFixesIteratorTest {
+    private DynamicGPSFixTrack<Object, GPSFix> track;
+
+    @BeforeEach
+    public void setUp() {
+        track = new DynamicGPSFixTrackImpl<Object>(new Object(), /* millisecondsOverWhichToAverage */ 5000);
+        for (int i = 0; i < 10; i++) {
+            addFix(1000 * i);
+        }
+    }
+
+    private void addFix(long timeMillis) {
+        track.addGPSFix(new GPSFixImpl(new DegreePosition(54, 10 + timeMillis / 1E8), new MillisecondsTimePoint(timeMillis)));
+    }
+
+    private static List<Long> getTimePoints(Iterator<GPSFix> iterator) {
+        final List<Long> result = new ArrayList<>();
+        while (iterator.hasNext()) {
+            result.add(iterator.next().getTimePoint().asMillis());
+        }
+        return result;
+    }
+
+    private static List<Long> range(long fromMillis, long toMillis) {
+        final List<Long> result = new ArrayList<>();
+        for (long t = fromMillis; t <= toMillis; t += 1000) {
+            result.add(t);
+        }
+        return result;
+    }
+
+    @Test
+    public void testAllFixesForDifferentChunkSizes() {
+        for (final int chunkSize : new int[] { 1, 3, 5, 10, 11, 1000 }) {
+            assertEquals(range(0, 9000), getTimePoints(new ChunkedFixesIterator<>(track, /* raw */ true, null, true,
+                    null, true, chunkSize)), "chunk size " + chunkSize);
+        }
+    }
+
+    @Test
+    public void testTimeRangeBoundaries() {
+        final TimePoint from = new MillisecondsTimePoint(2000);
+        final TimePoint to = new MillisecondsTimePoint(6000);
+        assertEquals(range(2000, 6000), getTimePoints(new ChunkedFixesIterator<>(track, /* raw */ false, from, to)));
+        assertEquals(range(3000, 5000), getTimePoints(new ChunkedFixesIterator<>(track, /* raw */ false, from,
+                /* fromInclusive */ false, to, /* toInclusive */ false, 2)));
+        assertEquals(range(2000, 9000), getTimePoints(new ChunkedFixesIterator<>(track, /* raw */ true, from, null)));
+        assertFalse(new ChunkedFixesIterator<>(track, /* raw */ true, new MillisecondsTimePoint(9500), null).hasNext());
+    }
+
+    @Test
+    public void testFixesAddedWhileIteratingBehindCurrentChunk() {
+        final Iterator<GPSFix> iterator = new ChunkedFixesIterator<>(track, /* raw */ true, null, true, null, true, 4);
+        assertEquals(0, iterator.next().getTimePoint().asMillis());
+        // neither in the current chunk nor before the last fix returned; no lock is held, so adding doesn't block
+        addFix(5500);
+        addFix(10000);
+        // before the last fix returned; must not be returned
+        addFix(-1000);
+        final List<Long> expected = range(1000, 10000);
+        expected.add(5, 5500l);
+        assertEquals(expected, getTimePoints(iterator));
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+}
@@ -0,0 +1,95 @@
+package com.sap.sailing.domain.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.common.dto.LeaderboardEntryDTO;
+import com.sap.sailing.domain.leaderboard.caching.LeaderboardEntryDetailsCache;
+import com.sap.sailing.domain.leaderboard.caching.LeaderboardEntryDetailsCache.Fingerprint;
+import com.sap.sailing.domain.tracking.RaceChangeListener;
+import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+public class LeaderboardEntryDetailsCacheTest {
+    private LeaderboardEntryDetailsCache cache;
+    private TrackedRace liveRace;
+    private TrackedRace finishedRace;
+    private Competitor competitor;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new LeaderboardEntryDetailsCache();
+        liveRace = mock(TrackedRace.class);
+        when(liveRace.getUpdateCount()).thenReturn(1l);
+        finishedRace = mock(TrackedRace.class);
+        when(finishedRace.getUpdateCount()).thenReturn(42l);
+        when(finishedRace.getEndOfTracking()).thenReturn(time(1000));
+        competitor = mock(Competitor.class);
+    }
+
+    private static TimePoint time(long millis) {
+        return new MillisecondsTimePoint(millis);
+    }
+
+    @Test
+    public void testFingerprintMapsTimePointsAfterEndOfTracking() {
+        assertEquals(Fingerprint.of(finishedRace, time(2000), false), Fingerprint.of(finishedRace, time(3000), false));
+        assertTrue(!Fingerprint.of(finishedRace, time(500), false).equals(Fingerprint.of(finishedRace, time(600), false)));
+        assertTrue(!Fingerprint.of(finishedRace, time(2000), false).equals(Fingerprint.of(finishedRace, time(2000), true)));
+        assertTrue(!Fingerprint.of(liveRace, time(2000), false).equals(Fingerprint.of(liveRace, time(3000), false)));
+    }
+
+    @Test
+    public void testDetailsReusedForEqualFingerprintOnly() {
+        final ConcurrentMap<Competitor, LeaderboardEntryDTO> details = cache.getDetails(finishedRace, Fingerprint.of(finishedRace, time(2000), false));
+        final LeaderboardEntryDTO entry = new LeaderboardEntryDTO();
+        details.put(competitor, entry);
+        assertSame(entry, cache.getDetails(finishedRace, Fingerprint.of(finishedRace, time(5000), false)).get(competitor));
+        assertEquals(1, cache.getReuseCount());
+        assertEquals(1, cache.getRecomputationCount());
+        // a new fix for the race changes its update count
+        when(finishedRace.getUpdateCount()).thenReturn(43l);
+        final ConcurrentMap<Competitor, LeaderboardEntryDTO> newDetails = cache.getDetails(finishedRace, Fingerprint.of(finishedRace, time(5000), false));
+        assertNotSame(details, newDetails);
+        assertTrue(newDetails.isEmpty());
+        assertEquals(2, cache.getRecomputationCount());
+    }
+
+    @Test
+    public void testDetailsOfRacesNoLongerAttachedAreDropped() {
+        cache.getDetails(liveRace, Fingerprint.of(liveRace, time(2000), false)).put(competitor, new LeaderboardEntryDTO());
+        cache.getDetails(finishedRace, Fingerprint.of(finishedRace, time(2000), false)).put(competitor, new LeaderboardEntryDTO());
+        cache.retainAll(Arrays.asList(finishedRace));
+        assertTrue(cache.getDetails(liveRace, Fingerprint.of(liveRace, time(2000), false)).isEmpty());
+        assertEquals(1, cache.getDetails(finishedRace, Fingerprint.of(finishedRace, time(2000), false)).size());
+        cache.retainAll(Collections.emptySet());
+        assertTrue(cache.getDetails(finishedRace, Fingerprint.of(finishedRace, time(2000), false)).isEmpty());
+    }
+
+    @Test
+    public void testClearDetachesRaceListeners() {
+        cache.getDetails(liveRace, Fingerprint.of(liveRace, time(2000), false)).put(competitor, new LeaderboardEntryDTO());
+        cache.getDetails(finishedRace, Fingerprint.of(finishedRace, time(2000), false)).put(competitor, new LeaderboardEntryDTO());
+        assertEquals(2, cache.getNumberOfRaces());
+        cache.clear();
+        assertEquals(0, cache.getNumberOfRaces());
+        verify(liveRace, times(1)).removeListener(any(RaceChangeListener.class));
+        verify(finishedRace, times(1)).removeListener(any(RaceChangeListener.class));
+    }
+}
@@ -0,0 +1,220 @@
+package com.sap.sailing.domain.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.base.DomainFactory;
+import com.sap.sailing.domain.base.impl.CourseAreaImpl;
+import com.sap.sailing.domain.common.dto.LeaderboardDTO;
+import com.sap.sailing.domain.common.dto.LeaderboardEntryDTO;
+import com.sap.sailing.domain.common.dto.LeaderboardRowDTO;
+import com.sap.sailing.domain.leaderboard.FlexibleLeaderboard;
+import com.sap.sailing.domain.leaderboard.Leaderboard;
+import com.sap.sailing.domain.leaderboard.caching.LeaderboardCache;
+import com.sap.sailing.domain.leaderboard.caching.LeaderboardDTOCache;
+import com.sap.sailing.domain.leaderboard.caching.SharedLeaderboardDTOCache;
+import com.sap.sailing.domain.leaderboard.impl.FlexibleLeaderboardImpl;
+import com.sap.sailing.domain.leaderboard.impl.LowPoint;
+import com.sap.sailing.domain.leaderboard.impl.ThresholdBasedResultDiscardingRuleImpl;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+public class SharedLeaderboardDTOCacheTest {
+    private static class Owner implements LeaderboardCache {
+        @Override
+        public void add(Leaderboard leaderboard) {
+        }
+
+        @Override
+        public void invalidate(Leaderboard leaderboard) {
+        }
+    }
+
+    private static LeaderboardDTO createLeaderboardDTO(int numberOfEntries) {
+        final LeaderboardDTO result = new LeaderboardDTO("Leaderboard", new MillisecondsTimePoint(0).asDate(),
+                /* timePointOfLastCorrectionsValidity */ null, /* comment */ null, /* scoringScheme */ null,
+                /* higherScoreIsBetter */ false, () -> UUID.randomUUID().toString(), /* hasOverallDetails */ false,
+                /* boatClass */ null);
+        result.rows = new HashMap<>();
+        final LeaderboardRowDTO row = new LeaderboardRowDTO();
+        row.fieldsByRaceColumnName = new HashMap<>();
+        for (int i = 0; i < numberOfEntries; i++) {
+            row.fieldsByRaceColumnName.put("R" + i, new LeaderboardEntryDTO());
+        }
+        result.rows.put(/* competitor */ null, row);
+        return result;
+    }
+
+    private static long estimatedSize(int numberOfEntries) {
+        return SharedLeaderboardDTOCache.estimateSizeInBytes(createLeaderboardDTO(numberOfEntries));
+    }
+
+    private static TimePoint time(long millis) {
+        return new MillisecondsTimePoint(millis);
+    }
+
+    @Test
+    public void testHitsAndMissesPerOwnerAndKey() throws Exception {
+        final SharedLeaderboardDTOCache cache = new SharedLeaderboardDTOCache(/* memoryBudgetInBytes */ 1024 * 1024, /* timeQuantumInMillis */ 1000);
+        final Owner owner1 = new Owner();
+        final Owner owner2 = new Owner();
+        final AtomicInteger computations = new AtomicInteger();
+        final LeaderboardDTO dto1 = cache.get(owner1, time(1000), Collections.emptySet(), false, "test", () -> {
+            computations.incrementAndGet();
+            return createLeaderboardDTO(1);
+        });
+        assertSame(dto1, cache.get(owner1, time(1000), Collections.emptySet(), false, "test", () -> {
+            computations.incrementAndGet();
+            return createLeaderboardDTO(1);
+        }));
+        cache.get(owner1, time(1000), Collections.emptySet(), /* addOverallDetails */ true, "test", () -> {
+            computations.incrementAndGet();
+            return createLeaderboardDTO(1);
+        });
+        cache.get(owner2, time(1000), Collections.emptySet(), false, "test", () -> {
+            computations.incrementAndGet();
+            return createLeaderboardDTO(1);
+        });
+        assertEquals(3, computations.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(3, cache.getNumberOfEntries());
+        assertEquals(3 * estimatedSize(1), cache.getEstimatedSizeInBytes());
+        cache.invalidate(owner1);
+        assertEquals(1, cache.getNumberOfEntries());
+        assertEquals(2, cache.getInvalidationCount());
+        assertEquals(estimatedSize(1), cache.getEstimatedSizeInBytes());
+    }
+
+    @Test
+    public void testQuantization() {
+        final SharedLeaderboardDTOCache cache = new SharedLeaderboardDTOCache(1024 * 1024, 1000);
+        assertEquals(time(12000), cache.quantize(time(12000)));
+        assertEquals(time(12000), cache.quantize(time(12999)));
+        assertEquals(time(-1000), cache.quantize(time(-1)));
+        final SharedLeaderboardDTOCache unquantized = new SharedLeaderboardDTOCache(1024 * 1024, 0);
+        assertEquals(time(12345), unquantized.quantize(time(12345)));
+    }
+
+    @Test
+    public void testEvictionOfLeastRecentlyUsedAcrossOwners() throws Exception {
+        final long entrySize = estimatedSize(10);
+        final SharedLeaderboardDTOCache cache = new SharedLeaderboardDTOCache(/* room for four entries */ 4 * entrySize + entrySize / 2, 0);
+        final Owner owner1 = new Owner();
+        final Owner owner2 = new Owner();
+        for (int i = 0; i < 4; i++) {
+            cache.get(i % 2 == 0 ? owner1 : owner2, time(i), Collections.emptySet(), false, "test", () -> createLeaderboardDTO(10));
+        }
+        assertEquals(0, cache.getEvictionCount());
+        // touch the oldest entry, so that the second one is the least recently used
+        cache.get(owner1, time(0), Collections.emptySet(), false, "test", () -> createLeaderboardDTO(10));
+        cache.get(owner1, time(4), Collections.emptySet(), false, "test", () -> createLeaderboardDTO(10));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(4, cache.getNumberOfEntries());
+        assertTrue(cache.getEstimatedSizeInBytes() <= cache.getMemoryBudgetInBytes());
+        final long missesBefore = cache.getMissCount();
+        cache.get(owner1, time(0), Collections.emptySet(), false, "test", () -> createLeaderboardDTO(10));
+        assertEquals(missesBefore, cache.getMissCount());
+        cache.get(owner2, time(1), Collections.emptySet(), false, "test", () -> createLeaderboardDTO(10));
+        assertEquals(missesBefore + 1, cache.getMissCount());
+    }
+
+    @Test
+    public void testRemovedAndEvictedOwnersAreForgotten() throws Exception {
+        final long entrySize = estimatedSize(10);
+        final SharedLeaderboardDTOCache cache = new SharedLeaderboardDTOCache(/* room for two entries */ 2 * entrySize + entrySize / 2, 0);
+        final Owner owner1 = new Owner();
+        final Owner owner2 = new Owner();
+        cache.get(owner1, time(0), Collections.emptySet(), false, "test", () -> createLeaderboardDTO(10));
+        cache.get(owner2, time(1), Collections.emptySet(), false, "test", () -> createLeaderboardDTO(10));
+        assertEquals(2, cache.getNumberOfOwners());
+        cache.removeOwner(owner2);
+        assertEquals(1, cache.getNumberOfOwners());
+        assertEquals(0, cache.getInvalidationCount());
+        assertEquals(entrySize, cache.getEstimatedSizeInBytes());
+        // evicting the only entry of owner1 forgets owner1
+        cache.get(owner2, time(2), Collections.emptySet(), false, "test", () -> createLeaderboardDTO(10));
+        cache.get(owner2, time(3), Collections.emptySet(), false, "test", () -> createLeaderboardDTO(10));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1, cache.getNumberOfOwners());
+        assertEquals(2, cache.getNumberOfEntries());
+    }
+
+    @Test
+    public void testDestroyedLeaderboardIsRemovedFromSharedCache() throws Exception {
+        final SharedLeaderboardDTOCache sharedCache = new SharedLeaderboardDTOCache(1024 * 1024, 1000);
+        final FlexibleLeaderboard leaderboard = new FlexibleLeaderboardImpl("Leaderboard",
+                new ThresholdBasedResultDiscardingRuleImpl(new int[0]), new LowPoint(),
+                new CourseAreaImpl("My Course Area", UUID.randomUUID(), /* centerPosition */ null, /* radius */ null));
+        final LeaderboardDTOCache cache = new LeaderboardDTOCache(/* waitForLatestAnalyses */ false, leaderboard, sharedCache);
+        cache.getLeaderboardByName(time(100000), Collections.emptySet(), false, DomainFactory.INSTANCE, null);
+        assertEquals(1, sharedCache.getNumberOfOwners());
+        cache.destroy();
+        assertEquals(0, sharedCache.getNumberOfOwners());
+        assertEquals(0, sharedCache.getEstimatedSizeInBytes());
+    }
+
+    @Test
+    public void testConcurrentRequestsShareOneComputation() throws Exception {
+        final SharedLeaderboardDTOCache cache = new SharedLeaderboardDTOCache(1024 * 1024, 0);
+        final Owner owner = new Owner();
+        final CountDownLatch computationStarted = new CountDownLatch(1);
+        final CountDownLatch computationMayFinish = new CountDownLatch(1);
+        final AtomicInteger computations = new AtomicInteger();
+        final FutureTask<LeaderboardDTO> first = new FutureTask<>(() -> cache.get(owner, time(0), Collections.emptySet(), false, "test", () -> {
+            computations.incrementAndGet();
+            computationStarted.countDown();
+            computationMayFinish.await();
+            return createLeaderboardDTO(1);
+        }));
+        new Thread(first).start();
+        computationStarted.await();
+        final FutureTask<LeaderboardDTO> second = new FutureTask<>(() -> cache.get(owner, time(0), Collections.emptySet(), false, "test", () -> {
+            computations.incrementAndGet();
+            return createLeaderboardDTO(1);
+        }));
+        new Thread(second).start();
+        computationMayFinish.countDown();
+        assertSame(first.get(), second.get());
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    public void testFailedComputationIsNotCached() throws Exception {
+        final SharedLeaderboardDTOCache cache = new SharedLeaderboardDTOCache(1024 * 1024, 0);
+        final Owner owner = new Owner();
+        assertThrows(ExecutionException.class, () -> cache.get(owner, time(0), Collections.emptySet(), false, "test", () -> {
+            throw new IllegalStateException("computation failed");
+        }));
+        assertEquals(0, cache.getNumberOfEntries());
+        assertEquals(0, cache.getEstimatedSizeInBytes());
+    }
+
+    @Test
+    public void testLeaderboardDTOCacheSharesQuantizedEntriesAndInvalidates() throws Exception {
+        final SharedLeaderboardDTOCache sharedCache = new SharedLeaderboardDTOCache(1024 * 1024, 1000);
+        final FlexibleLeaderboard leaderboard = new FlexibleLeaderboardImpl("Leaderboard",
+                new ThresholdBasedResultDiscardingRuleImpl(new int[0]), new LowPoint(),
+                new CourseAreaImpl("My Course Area", UUID.randomUUID(), /* centerPosition */ null, /* radius */ null));
+        final LeaderboardDTOCache cache = new LeaderboardDTOCache(/* waitForLatestAnalyses */ false, leaderboard, sharedCache);
+        final LeaderboardDTO dto = cache.getLeaderboardByName(time(100000), Collections.emptySet(), false, DomainFactory.INSTANCE, null);
+        assertSame(dto, cache.getLeaderboardByName(time(100999), Collections.emptySet(), false, DomainFactory.INSTANCE, null));
+        assertEquals(1, sharedCache.getHitCount());
+        leaderboard.setDisplayName("New Display Name");
+        assertEquals(0, sharedCache.getNumberOfEntries());
+        assertEquals("New Display Name",
+                cache.getLeaderboardByName(time(100500), Collections.emptySet(), false, DomainFactory.INSTANCE, null).getDisplayName());
+    }
+}
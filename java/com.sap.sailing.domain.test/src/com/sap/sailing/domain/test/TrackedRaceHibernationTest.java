@@ -0,0 +1,160 @@
+package com.sap.sailing.domain.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.base.Boat;
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.base.CompetitorWithBoat;
+import com.sap.sailing.domain.base.DomainFactory;
+import com.sap.sailing.domain.common.Position;
+import com.sap.sailing.domain.common.TrackedRaceStatusEnum;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixMovingImpl;
+import com.sap.sailing.domain.tracking.DynamicTrackedRace;
+import com.sap.sailing.domain.tracking.GPSFixTrack;
+import com.sap.sailing.domain.tracking.TrackingDataLoader;
+import com.sap.sailing.domain.tracking.impl.DynamicTrackedRaceImpl;
+import com.sap.sailing.domain.tracking.impl.MarkPassingImpl;
+import com.sap.sailing.domain.tracking.impl.TrackedRaceStatusImpl;
+import com.sap.sse.common.Distance;
+import com.sap.sse.common.Duration;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.Util;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+public class TrackedRaceHibernationTest extends TrackBasedTest {
+    private CompetitorWithBoat competitor;
+    private DynamicTrackedRace trackedRace;
+    private TimePoint now;
+    private List<GPSFixMoving> fixes;
+
+    @BeforeEach
+    public void setUp() {
+        competitor = createCompetitorWithBoat("Test Competitor");
+        Map<Competitor, Boat> competitorsAndBoats = TrackBasedTest.createCompetitorAndBoatsMap(competitor);
+        trackedRace = createTestTrackedRace("Test Regatta", "Test Race", "505", competitorsAndBoats, MillisecondsTimePoint.now(), /* useMarkPassingCalculator */ false);
+        now = MillisecondsTimePoint.now();
+        final Position startPos = new DegreePosition(0, 0);
+        final DegreeBearingImpl bearing = new DegreeBearingImpl(10);
+        final KnotSpeedWithBearingImpl speed = new KnotSpeedWithBearingImpl(10, bearing);
+        fixes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            fixes.add(new GPSFixMovingImpl(startPos.translateGreatCircle(bearing, speed.travel(Duration.ONE_SECOND.times(i))),
+                    now.plus(Duration.ONE_SECOND.times(i)), speed, /* optionalTrueHeading */ null));
+        }
+        fixes.forEach(fix -> trackedRace.recordFix(competitor, fix));
+        trackedRace.updateMarkPassings(competitor, Collections.singleton(new MarkPassingImpl(now, trackedRace.getRace().getCourse().getFirstWaypoint(), competitor)));
+    }
+
+    private int getNumberOfFixes() {
+        final GPSFixTrack<Competitor, GPSFixMoving> track = trackedRace.getTrack(competitor);
+        track.lockForRead();
+        try {
+            return Util.size(track.getRawFixes());
+        } finally {
+            track.unlockAfterRead();
+        }
+    }
+
+    @Test
+    public void testNoHibernationWithoutRematerializer() {
+        assertFalse(trackedRace.hibernate());
+        assertFalse(trackedRace.isHibernated());
+        assertEquals(fixes.size(), getNumberOfFixes());
+    }
+
+    @Test
+    public void testAccessAfterHibernationRematerializes() {
+        final Distance distanceBeforeHibernation = trackedRace.getDistanceTraveled(competitor, now.plus(Duration.ONE_MINUTE));
+        final TrackingDataLoader tdl = new TrackingDataLoader() {};
+        final List<Integer> fixesFoundWhenRematerializing = new ArrayList<>();
+        trackedRace.setRematerializer(() -> {
+            assertTrue(trackedRace.isRematerializing());
+            fixesFoundWhenRematerializing.add(getNumberOfFixes());
+            trackedRace.onStatusChanged(tdl, new TrackedRaceStatusImpl(TrackedRaceStatusEnum.LOADING, /* progress */ 0.0));
+            fixes.forEach(fix -> trackedRace.recordFix(competitor, fix));
+            trackedRace.onStatusChanged(tdl, new TrackedRaceStatusImpl(TrackedRaceStatusEnum.TRACKING, /* progress */ 1.0));
+        });
+        assertTrue(trackedRace.hibernate());
+        assertTrue(trackedRace.isHibernated());
+        assertFalse(trackedRace.hibernate());
+        // the first access loads the fixes again
+        assertEquals(fixes.size(), getNumberOfFixes());
+        assertEquals(Collections.singletonList(0), fixesFoundWhenRematerializing);
+        assertFalse(trackedRace.isHibernated());
+        assertFalse(trackedRace.isRematerializing());
+        assertEquals(distanceBeforeHibernation.getMeters(),
+                trackedRace.getDistanceTraveled(competitor, now.plus(Duration.ONE_MINUTE)).getMeters(), 0.01);
+        trackedRace.getTrack(competitor);
+        assertEquals(1, fixesFoundWhenRematerializing.size());
+    }
+
+    @Test
+    public void testAccessDuringRematerialization() {
+        final TimePoint end = now.plus(Duration.ONE_MINUTE);
+        final Distance distanceBeforeHibernation = trackedRace.getDistanceTraveled(competitor, end);
+        final TrackingDataLoader tdl = new TrackingDataLoader() {};
+        final List<Integer> fixesFoundWhenRematerializing = new ArrayList<>();
+        final List<Distance> distancesWhileRematerializing = new ArrayList<>();
+        trackedRace.setRematerializer(() -> {
+            fixesFoundWhenRematerializing.add(getNumberOfFixes());
+            trackedRace.onStatusChanged(tdl, new TrackedRaceStatusImpl(TrackedRaceStatusEnum.LOADING, /* progress */ 0.0));
+            fixes.subList(0, fixes.size() / 2).forEach(fix -> trackedRace.recordFix(competitor, fix));
+            // another reader accesses the race while only half of the fixes have been loaded again
+            assertEquals(TrackedRaceStatusEnum.LOADING, trackedRace.getStatus().getStatus());
+            assertFalse(trackedRace.isHibernated());
+            assertTrue(trackedRace.isRematerializing());
+            assertEquals(fixes.size() / 2, getNumberOfFixes());
+            distancesWhileRematerializing.add(trackedRace.getDistanceTraveled(competitor, end));
+            fixes.subList(fixes.size() / 2, fixes.size()).forEach(fix -> trackedRace.recordFix(competitor, fix));
+            trackedRace.onStatusChanged(tdl, new TrackedRaceStatusImpl(TrackedRaceStatusEnum.TRACKING, /* progress */ 1.0));
+        });
+        assertTrue(trackedRace.hibernate());
+        assertEquals(fixes.size(), getNumberOfFixes());
+        // the access during rematerialization didn't trigger another one
+        assertEquals(Collections.singletonList(0), fixesFoundWhenRematerializing);
+        assertEquals(1, distancesWhileRematerializing.size());
+        assertTrue(distancesWhileRematerializing.get(0).getMeters() < distanceBeforeHibernation.getMeters());
+        assertFalse(trackedRace.isRematerializing());
+        // nothing computed from the partially loaded track is returned once the race has been loaded again
+        assertEquals(distanceBeforeHibernation.getMeters(), trackedRace.getDistanceTraveled(competitor, end).getMeters(), 0.01);
+    }
+
+    @Test
+    public void testSerializingHibernatedRaceWaitsForFixesToBeLoadedAgain() throws ClassNotFoundException, IOException {
+        final TrackingDataLoader tdl = new TrackingDataLoader() {};
+        trackedRace.setRematerializer(() -> {
+            trackedRace.onStatusChanged(tdl, new TrackedRaceStatusImpl(TrackedRaceStatusEnum.LOADING, /* progress */ 0.0));
+            // load in the background, as the fix loader does
+            new Thread(() -> {
+                fixes.forEach(fix -> trackedRace.recordFix(competitor, fix));
+                trackedRace.onStatusChanged(tdl, new TrackedRaceStatusImpl(TrackedRaceStatusEnum.TRACKING, /* progress */ 1.0));
+            }, "rematerializer").start();
+        });
+        assertTrue(trackedRace.hibernate());
+        final DynamicTrackedRaceImpl clone = AbstractSerializationTest.cloneBySerialization((DynamicTrackedRaceImpl) trackedRace,
+                DomainFactory.INSTANCE);
+        final GPSFixTrack<Competitor, GPSFixMoving> cloneTrack = clone.getTrack(clone.getRace().getCompetitors().iterator().next());
+        cloneTrack.lockForRead();
+        try {
+            assertEquals(fixes.size(), Util.size(cloneTrack.getRawFixes()));
+        } finally {
+            cloneTrack.unlockAfterRead();
+        }
+        assertFalse(trackedRace.isHibernated());
+    }
+}
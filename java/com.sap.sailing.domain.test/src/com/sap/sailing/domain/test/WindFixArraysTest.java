@@ -0,0 +1,280 @@
+package com.sap.sailing.domain.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.base.RaceDefinition;
+import com.sap.sailing.domain.common.Position;
+import com.sap.sailing.domain.common.Wind;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.impl.WindImpl;
+import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sailing.domain.tracking.WindWithConfidence;
+import com.sap.sailing.domain.tracking.impl.CourseBasedWindTrackImpl;
+import com.sap.sailing.domain.tracking.impl.WindTrackImpl;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.Util.Pair;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+/**
+ * Compares the averages computed by a {@link WindTrackImpl} from its primitive fix arrays with those computed by
+ * iterating the fixes and averaging them with a confidence-based averager, and measures both.
+ */
+public class WindFixArraysTest {
+    private static final long AVERAGING_INTERVAL_MILLIS = 30000;
+
+    private Random random;
+    private WindTrackImpl track;
+    private WindTrackImpl referenceTrack;
+
+    private static class IteratingWindTrackImpl extends WindTrackImpl {
+        private static final long serialVersionUID = 4216370235617934405L;
+
+        public IteratingWindTrackImpl(boolean useSpeed) {
+            super(AVERAGING_INTERVAL_MILLIS, /* baseConfidence */ 0.9, useSpeed, "reference", /* losslessCompaction */ true);
+        }
+
+        @Override
+        protected boolean isAveragingFromFixArraysPossible() {
+            return false;
+        }
+    }
+
+    private static class ReadLockCountingWindTrackImpl extends WindTrackImpl {
+        private static final long serialVersionUID = -3263802985425536297L;
+        private final AtomicInteger readLocks = new AtomicInteger();
+
+        public ReadLockCountingWindTrackImpl() {
+            super(AVERAGING_INTERVAL_MILLIS, /* baseConfidence */ 0.9, /* useSpeed */ true, "counting", /* losslessCompaction */ true);
+        }
+
+        @Override
+        public void lockForRead() {
+            readLocks.incrementAndGet();
+            super.lockForRead();
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        random = new Random(4711);
+        track = new WindTrackImpl(AVERAGING_INTERVAL_MILLIS, /* baseConfidence */ 0.9, /* useSpeed */ true, "test", /* losslessCompaction */ true);
+        referenceTrack = new IteratingWindTrackImpl(/* useSpeed */ true);
+    }
+
+    private Wind createWind(long timeMillis, boolean withPosition) {
+        return new WindImpl(withPosition ? new DegreePosition(54.4 + random.nextDouble() / 100, 10.2 + random.nextDouble() / 100) : null,
+                new MillisecondsTimePoint(timeMillis),
+                new KnotSpeedWithBearingImpl(8 + random.nextDouble() * 4, new DegreeBearingImpl(350 + random.nextDouble() * 20)));
+    }
+
+    private void add(Wind wind) {
+        track.add(wind);
+        referenceTrack.add(wind);
+    }
+
+    private void fill(int count, long startMillis, long intervalMillis) {
+        for (int i = 0; i < count; i++) {
+            add(createWind(startMillis + i * intervalMillis + random.nextInt((int) intervalMillis / 2), /* withPosition */ i % 7 != 0));
+        }
+    }
+
+    private void assertSameAverages(long fromMillis, long toMillis, int count) {
+        for (int i = 0; i < count; i++) {
+            final TimePoint at = new MillisecondsTimePoint(fromMillis + (long) (random.nextDouble() * (toMillis - fromMillis)));
+            final Position p = i % 3 == 0 ? null : new DegreePosition(54.4 + random.nextDouble() / 100, 10.2 + random.nextDouble() / 100);
+            assertSameAverage(referenceTrack.getAveragedWindWithConfidence(p, at), track.getAveragedWindWithConfidence(p, at));
+        }
+    }
+
+    private void assertSameAverage(WindWithConfidence<Pair<Position, TimePoint>> expected, WindWithConfidence<Pair<Position, TimePoint>> actual) {
+        if (expected == null) {
+            assertNull(actual);
+        } else {
+            assertNotNull(actual);
+            assertEquals(expected.getConfidence(), actual.getConfidence(), 0.0);
+            assertEquals(expected.useSpeed(), actual.useSpeed());
+            final Wind expectedWind = expected.getObject();
+            final Wind actualWind = actual.getObject();
+            assertEquals(expectedWind.getKnots(), actualWind.getKnots(), 0.0);
+            assertEquals(expectedWind.getBearing().getDegrees(), actualWind.getBearing().getDegrees(), 0.0);
+            assertEquals(expectedWind.getTimePoint(), actualWind.getTimePoint());
+            if (expectedWind.getPosition() == null) {
+                assertNull(actualWind.getPosition());
+            } else {
+                assertEquals(expectedWind.getPosition().getLatDeg(), actualWind.getPosition().getLatDeg(), 0.0);
+                assertEquals(expectedWind.getPosition().getLngDeg(), actualWind.getPosition().getLngDeg(), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testEmptyTrack() {
+        assertNull(track.getAveragedWindWithConfidence(null, MillisecondsTimePoint.now()));
+    }
+
+    @Test
+    public void testAveragesEqualThoseOfIteratingTrack() {
+        fill(2000, 1000000, 1000);
+        assertSameAverages(900000, 3100000, 2000);
+    }
+
+    @Test
+    public void testAveragesAfterAppendingInsertingAndRemoving() {
+        fill(500, 1000000, 1000);
+        assertSameAverages(900000, 1600000, 200);
+        // appended fixes
+        fill(500, 1500000, 1000);
+        assertSameAverages(900000, 2100000, 200);
+        // out-of-order inserts
+        for (int i = 0; i < 100; i++) {
+            add(createWind(1000000 + random.nextInt(1000000), /* withPosition */ true));
+        }
+        assertSameAverages(900000, 2100000, 200);
+        // removals
+        final List<Wind> fixesToRemove = new ArrayList<>();
+        referenceTrack.lockForRead();
+        try {
+            int i = 0;
+            for (final Wind wind : referenceTrack.getRawFixes()) {
+                if (i++ % 3 == 0) {
+                    fixesToRemove.add(wind);
+                }
+            }
+        } finally {
+            referenceTrack.unlockAfterRead();
+        }
+        for (final Wind wind : fixesToRemove) {
+            track.remove(wind);
+            referenceTrack.remove(wind);
+        }
+        assertSameAverages(900000, 2100000, 200);
+    }
+
+    /**
+     * Only the first average after a modification has to bring the fix arrays up to date while holding the read lock;
+     * all other averages are computed without locking.
+     */
+    @Test
+    public void testAveragingDoesNotLockWhileFixArraysAreUpToDate() {
+        final ReadLockCountingWindTrackImpl countingTrack = new ReadLockCountingWindTrackImpl();
+        track = countingTrack;
+        fill(500, 1000000, 1000);
+        assertSameAverages(900000, 1600000, 200);
+        assertEquals(1, countingTrack.readLocks.get());
+        fill(10, 1500000, 1000);
+        assertSameAverages(900000, 1600000, 200);
+        assertEquals(2, countingTrack.readLocks.get());
+        add(createWind(1200500, /* withPosition */ true));
+        assertSameAverages(900000, 1600000, 200);
+        assertEquals(3, countingTrack.readLocks.get());
+    }
+
+    /**
+     * Appends fixes while other threads are averaging without locking; the averages computed afterwards must match
+     * those of the iterating track.
+     */
+    @Test
+    public void testAveragingWhileAppending() throws InterruptedException {
+        fill(100, 1000000, 1000);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread[] readers = new Thread[4];
+        final int fixesToAppend = 5000;
+        final AtomicInteger appended = new AtomicInteger();
+        for (int r = 0; r < readers.length; r++) {
+            final Random readerRandom = new Random(r);
+            readers[r] = new Thread(() -> {
+                try {
+                    while (appended.get() < fixesToAppend) {
+                        track.getAveragedWindWithConfidence(/* position */ null,
+                                new MillisecondsTimePoint(1000000 + readerRandom.nextInt(100000 + 1000 * appended.get())));
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            });
+            readers[r].start();
+        }
+        for (int i = 0; i < fixesToAppend; i++) {
+            add(createWind(1100000 + i * 1000l, /* withPosition */ i % 7 != 0));
+            appended.incrementAndGet();
+        }
+        for (final Thread reader : readers) {
+            reader.join();
+        }
+        assertNull(failure.get());
+        assertSameAverages(900000, 1100000 + fixesToAppend * 1000l, 2000);
+    }
+
+    @Test
+    public void testAveragesWithoutSpeed() {
+        track = new WindTrackImpl(AVERAGING_INTERVAL_MILLIS, /* baseConfidence */ 0.9, /* useSpeed */ false, "test", /* losslessCompaction */ true);
+        referenceTrack = new IteratingWindTrackImpl(/* useSpeed */ false);
+        fill(300, 1000000, 2000);
+        assertSameAverages(900000, 1700000, 300);
+    }
+
+    /**
+     * The fixes of a {@link CourseBasedWindTrackImpl} are computed from the course; its averages must follow course
+     * changes and must not be taken from arrays built from the fixes computed earlier.
+     */
+    @Test
+    public void testCourseBasedAverageFollowsCourseChanges() {
+        final TimePoint startOfRace = new MillisecondsTimePoint(1000000);
+        final AtomicReference<Double> courseBearingInDegrees = new AtomicReference<>(10.0);
+        final TrackedRace trackedRace = mock(TrackedRace.class);
+        final RaceDefinition race = mock(RaceDefinition.class);
+        when(race.getName()).thenReturn("Race");
+        when(trackedRace.getRace()).thenReturn(race);
+        when(trackedRace.raceIsKnownToStartUpwind()).thenReturn(true);
+        when(trackedRace.getStartOfRace()).thenReturn(startOfRace);
+        when(trackedRace.getDirectionFromStartToNextMark(any(TimePoint.class))).thenAnswer(invocation ->
+                new WindImpl(/* position */ null, invocation.getArgument(0),
+                        new KnotSpeedWithBearingImpl(1, new DegreeBearingImpl(courseBearingInDegrees.get()).reverse())));
+        final CourseBasedWindTrackImpl courseBasedTrack = new CourseBasedWindTrackImpl(trackedRace, AVERAGING_INTERVAL_MILLIS, /* baseConfidence */ 0.9);
+        final double bearingBefore = courseBasedTrack.getAveragedWind(null, startOfRace).getBearing().getDegrees();
+        assertEquals(190.0, bearingBefore, 0.000001);
+        courseBearingInDegrees.set(40.0);
+        assertEquals(220.0, courseBasedTrack.getAveragedWind(null, startOfRace).getBearing().getDegrees(), 0.000001);
+    }
+
+    @Test
+    public void testPerformance() {
+        fill(20000, 1000000, 1000);
+        final int queries = 200000;
+        final TimePoint[] timePoints = new TimePoint[queries];
+        for (int i = 0; i < queries; i++) {
+            timePoints[i] = new MillisecondsTimePoint(1000000 + random.nextInt(20000000));
+        }
+        final Position position = new DegreePosition(54.405, 10.205);
+        for (int round = 0; round < 3; round++) {
+            final long startReference = System.nanoTime();
+            for (final TimePoint at : timePoints) {
+                referenceTrack.getAveragedWindWithConfidence(position, at);
+            }
+            final long referenceNanos = System.nanoTime() - startReference;
+            final long start = System.nanoTime();
+            for (final TimePoint at : timePoints) {
+                track.getAveragedWindWithConfidence(position, at);
+            }
+            final long nanos = System.nanoTime() - start;
+            System.out.println("Averaging " + queries + " times over " + AVERAGING_INTERVAL_MILLIS + "ms from fix iterators took "
+                    + referenceNanos / 1000000 + "ms, from fix arrays " + nanos / 1000000 + "ms");
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.sap.sailing.domain.test.maneuverhash;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.base.ControlPoint;
+import com.sap.sailing.domain.base.Course;
+import com.sap.sailing.domain.base.Mark;
+import com.sap.sailing.domain.base.impl.BoatClassImpl;
+import com.sap.sailing.domain.base.impl.ControlPointWithTwoMarksImpl;
+import com.sap.sailing.domain.common.BoatClassMasterdata;
+import com.sap.sailing.domain.common.PassingInstruction;
+import com.sap.sailing.domain.common.WindSourceType;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.impl.WindImpl;
+import com.sap.sailing.domain.common.impl.WindSourceImpl;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprint;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprintFactory;
+import com.sap.sailing.domain.maneuverhash.impl.ManeuverListCodec;
+import com.sap.sailing.domain.test.markpassing.AbstractExportedPositionsBasedTest;
+import com.sap.sailing.domain.tracking.Maneuver;
+import com.sap.sailing.domain.tracking.ManeuverCurveBoundaries;
+import com.sap.sailing.domain.tracking.MarkPassing;
+import com.sap.sailing.domain.tracking.impl.DynamicTrackedRaceImpl;
+import com.sap.sailing.domain.tracking.impl.ManeuverWithMainCurveBoundariesImpl;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.Util;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+
+/**
+ * Checks that maneuvers detected on a recorded race survive encoding and decoding with the {@link ManeuverListCodec}
+ * and that a {@link ManeuverRaceFingerprint} survives its JSON round trip and stops matching when wind is added.
+ */
+public class ManeuverRaceFingerprintAndCodecTest extends AbstractExportedPositionsBasedTest {
+    private DynamicTrackedRaceImpl trackedRace;
+
+    @BeforeEach
+    public void setUp() throws IOException, ParseException {
+        trackedRace = readRace("/MoevensteinCompetitorPositions.json.gz", "/MoevensteinMarkPositions.json.gz",
+                new BoatClassImpl(BoatClassMasterdata.J70));
+    }
+
+    @Override
+    protected Course createCourse(Map<String, Mark> marksByName) {
+        final Map<String, ControlPoint> controlPoints = new HashMap<>(marksByName);
+        controlPoints.put("Start/Ziel", new ControlPointWithTwoMarksImpl(marksByName.get("G2"), marksByName.get("MEU"),
+                "Start/Ziel", "Start/Ziel"));
+        controlPoints.put("Gate",
+                new ControlPointWithTwoMarksImpl(marksByName.get("G1"), marksByName.get("G2"), "Gate", "Gate"));
+        return createCourse(controlPoints,
+                wp(controlPoints, "Start/Ziel", PassingInstruction.Line),
+                wp(controlPoints, "LUV", PassingInstruction.Port),
+                wp(controlPoints, "Gate", PassingInstruction.Gate),
+                wp(controlPoints, "LUV", PassingInstruction.Port),
+                wp(controlPoints, "Start/Ziel", PassingInstruction.Line));
+    }
+
+    @Test
+    public void testEncodedManeuversDecodeToEqualManeuvers() throws IOException {
+        final ManeuverListCodec codec = new ManeuverListCodec();
+        for (final Competitor competitor : trackedRace.getRace().getCompetitors()) {
+            trackedRace.getMarkPassings(competitor, /* waitForLatestUpdates */ true);
+            final List<Maneuver> maneuvers = new ArrayList<>();
+            Util.addAll(trackedRace.getManeuvers(competitor, /* waitForLatest */ true), maneuvers);
+            assertFalse(maneuvers.isEmpty());
+            final byte[] encoded = codec.encode(maneuvers, trackedRace.getRace().getCourse());
+            final List<Maneuver> decoded = codec.decode(encoded, competitor, trackedRace);
+            assertEquals(maneuvers.size(), decoded.size());
+            for (int i = 0; i < maneuvers.size(); i++) {
+                final Maneuver expected = maneuvers.get(i);
+                final Maneuver actual = decoded.get(i);
+                assertSame(expected.getClass(), actual.getClass());
+                assertEquals(expected.getType(), actual.getType());
+                assertEquals(expected.getNewTack(), actual.getNewTack());
+                assertEquals(expected.getTimePoint(), actual.getTimePoint());
+                assertEquals(expected.getPosition().getLatDeg(), actual.getPosition().getLatDeg(), 1E-9);
+                assertEquals(expected.getPosition().getLngDeg(), actual.getPosition().getLngDeg(), 1E-9);
+                assertEquals(expected.getMaxTurningRateInDegreesPerSecond(), actual.getMaxTurningRateInDegreesPerSecond(), 0.0);
+                assertEqualBoundaries(expected.getMainCurveBoundaries(), actual.getMainCurveBoundaries());
+                assertEqualBoundaries(expected.getManeuverCurveWithStableSpeedAndCourseBoundaries(),
+                        actual.getManeuverCurveWithStableSpeedAndCourseBoundaries());
+                assertEquals(expected.getManeuverLoss() == null, actual.getManeuverLoss() == null);
+                if (expected.getMarkPassing() != null) {
+                    assertSame(expected.getMarkPassing().getWaypoint(), actual.getMarkPassing().getWaypoint());
+                    assertEquals(expected.getMarkPassing().getTimePoint(), actual.getMarkPassing().getTimePoint());
+                } else {
+                    assertEquals(null, actual.getMarkPassing());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMarkPassingOfManeuverIsResolvedAgainstRace() throws IOException {
+        final Competitor competitor = trackedRace.getRace().getCompetitors().iterator().next();
+        final MarkPassing markPassing = trackedRace.getMarkPassings(competitor, /* waitForLatestUpdates */ true).iterator().next();
+        final Maneuver detected = trackedRace.getManeuvers(competitor, /* waitForLatest */ true).iterator().next();
+        final Maneuver atMarkPassing = new ManeuverWithMainCurveBoundariesImpl(detected.getType(),
+                detected.getNewTack(), detected.getPosition(), markPassing.getTimePoint(),
+                detected.getMainCurveBoundaries(), detected.getManeuverCurveWithStableSpeedAndCourseBoundaries(),
+                detected.getMaxTurningRateInDegreesPerSecond(), markPassing, detected.getManeuverLoss());
+        final ManeuverListCodec codec = new ManeuverListCodec();
+        final Maneuver decoded = codec.decode(codec.encode(Collections.singletonList(atMarkPassing),
+                trackedRace.getRace().getCourse()), competitor, trackedRace).get(0);
+        assertEquals(markPassing.getTimePoint(), decoded.getTimePoint());
+        assertSame(markPassing, decoded.getMarkPassing());
+    }
+
+    private void assertEqualBoundaries(ManeuverCurveBoundaries expected, ManeuverCurveBoundaries actual) {
+        if (expected == null) {
+            assertEquals(null, actual);
+        } else {
+            assertEquals(expected.getTimePointBefore(), actual.getTimePointBefore());
+            assertEquals(expected.getTimePointAfter(), actual.getTimePointAfter());
+            assertEquals(expected.getSpeedWithBearingBefore(), actual.getSpeedWithBearingBefore());
+            assertEquals(expected.getSpeedWithBearingAfter(), actual.getSpeedWithBearingAfter());
+            assertEquals(expected.getDirectionChangeInDegrees(), actual.getDirectionChangeInDegrees(), 0.0);
+            assertEquals(expected.getLowestSpeed().getKnots(), actual.getLowestSpeed().getKnots(), 0.0);
+        }
+    }
+
+    @Test
+    public void testJsonSerialization() throws ParseException {
+        trackedRace.getMarkPassings(trackedRace.getRace().getCompetitors().iterator().next(), /* waitForLatestUpdates */ true);
+        final ManeuverRaceFingerprintFactory factory = ManeuverRaceFingerprintFactory.INSTANCE;
+        final ManeuverRaceFingerprint fingerprint = factory.createFingerprint(trackedRace);
+        assertTrue(fingerprint.matches(trackedRace));
+        // the way the fingerprint is written to and read from the database
+        final JSONObject json = (JSONObject) new JSONParser().parse(fingerprint.toJson().toString());
+        final ManeuverRaceFingerprint deserialized = factory.fromJson(json);
+        assertTrue(deserialized.matches(trackedRace));
+        assertEquals(fingerprint, deserialized);
+        assertEquals(fingerprint.hashCode(), deserialized.hashCode());
+    }
+
+    @Test
+    public void testFingerprintDoesNotMatchAfterWindFixWasAdded() {
+        trackedRace.getMarkPassings(trackedRace.getRace().getCompetitors().iterator().next(), /* waitForLatestUpdates */ true);
+        final ManeuverRaceFingerprint fingerprint = ManeuverRaceFingerprintFactory.INSTANCE.createFingerprint(trackedRace);
+        assertTrue(fingerprint.matches(trackedRace));
+        trackedRace.recordWind(new WindImpl(new DegreePosition(54.43, 10.19), TimePoint.now(),
+                new KnotSpeedWithBearingImpl(12, new DegreeBearingImpl(250).reverse())), new WindSourceImpl(WindSourceType.WEB), /* applyFilter */ false);
+        assertFalse(fingerprint.matches(trackedRace));
+    }
+}
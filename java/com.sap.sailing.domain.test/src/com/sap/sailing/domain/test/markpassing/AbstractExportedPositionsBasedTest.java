@@ -75,6 +75,17 @@ import com.sap.sse.common.impl.MillisecondsTimePoint;
 public abstract class AbstractExportedPositionsBasedTest {
     protected DynamicTrackedRaceImpl readRace(String gzippedJsonCompetitorPositionsResourceName,
             String gzippedJsonMarkPositionsResourceName, BoatClass boatClass) throws IOException, ParseException {
+        return readRace(gzippedJsonCompetitorPositionsResourceName, gzippedJsonMarkPositionsResourceName, boatClass,
+                /* useInternalMarkPassingAlgorithm */ true);
+    }
+
+    /**
+     * @param useInternalMarkPassingAlgorithm
+     *            if {@code false}, the race won't compute any mark passings while the fixes are loaded, so that tests
+     *            can run the mark passing calculation on the completely loaded race themselves
+     */
+    protected DynamicTrackedRaceImpl readRace(String gzippedJsonCompetitorPositionsResourceName,
+            String gzippedJsonMarkPositionsResourceName, BoatClass boatClass, boolean useInternalMarkPassingAlgorithm) throws IOException, ParseException {
         final JSONParser parser = new JSONParser();
         final JSONObject competitorPositionsJson = (JSONObject) parser.parse(new InputStreamReader(new GZIPInputStream(getClass().getResourceAsStream(gzippedJsonCompetitorPositionsResourceName))));
         final JSONObject markPositionsJson = (JSONObject) parser.parse(new InputStreamReader(new GZIPInputStream(getClass().getResourceAsStream(gzippedJsonMarkPositionsResourceName))));
@@ -106,7 +117,7 @@ public abstract class AbstractExportedPositionsBasedTest {
                 /* sidelines */ Collections.emptySet(),
                 EmptyWindStore.INSTANCE,
                 /* delayToLiveInMillis */ 3000, /* millisecondsOverWhichToAverageWind */ 15000,
-                /* millisecondsOverWhichToAverageSpeed */ 10000, /* useInternalMarkPassingAlgorithm */ true,
+                /* millisecondsOverWhichToAverageSpeed */ 10000, useInternalMarkPassingAlgorithm,
                 OneDesignRankingMetric::new, /* raceLogResolver */ null, /* trackingConnectorInfo */ null, /* markPassingRaceFingerprintRegistry */ null);
         result.setStatus(new TrackedRaceStatusImpl(TrackedRaceStatusEnum.LOADING, 0.0));
         for (final Entry<CompetitorWithBoat, Iterable<GPSFixMoving>> e : competitorsAndTheirTracks.entrySet()) {
@@ -0,0 +1,155 @@
+package com.sap.sailing.domain.test.markpassing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.json.simple.parser.ParseException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.base.ControlPoint;
+import com.sap.sailing.domain.base.Course;
+import com.sap.sailing.domain.base.Mark;
+import com.sap.sailing.domain.base.impl.BoatClassImpl;
+import com.sap.sailing.domain.base.impl.ControlPointWithTwoMarksImpl;
+import com.sap.sailing.domain.common.BoatClassMasterdata;
+import com.sap.sailing.domain.common.PassingInstruction;
+import com.sap.sailing.domain.markpassingcalculation.Candidate;
+import com.sap.sailing.domain.markpassingcalculation.MarkPassingCalculator;
+import com.sap.sailing.domain.markpassingcalculation.impl.CandidateChooserImpl;
+import com.sap.sailing.domain.markpassingcalculation.impl.CandidateFinderImpl;
+import com.sap.sailing.domain.test.measurements.Measurement;
+import com.sap.sailing.domain.test.measurements.MeasurementCase;
+import com.sap.sailing.domain.test.measurements.MeasurementXMLFile;
+import com.sap.sailing.domain.tracking.MarkPassing;
+import com.sap.sailing.domain.tracking.impl.DynamicTrackedRaceImpl;
+import com.sap.sse.common.Util;
+
+/**
+ * Runs the complete mark passing calculation on a recorded race, once sequentially for one competitor after the other
+ * on the calling thread and once the way a {@link MarkPassingCalculator} does it initially, in parallel per competitor.
+ * Both have to produce the same mark passings. The wall-clock times and, where the VM can tell, the bytes allocated by
+ * the sequential calculation are reported.
+ */
+public class MarkPassingCalculatorRecordedRacePerformanceTest extends AbstractExportedPositionsBasedTest {
+    private static final int ROUNDS = 2;
+
+    private DynamicTrackedRaceImpl trackedRace;
+
+    @BeforeEach
+    public void setUp() throws IOException, ParseException {
+        trackedRace = readRace("/MoevensteinCompetitorPositions.json.gz", "/MoevensteinMarkPositions.json.gz",
+                new BoatClassImpl(BoatClassMasterdata.J70), /* useInternalMarkPassingAlgorithm */ false);
+    }
+
+    @Override
+    protected Course createCourse(Map<String, Mark> marksByName) {
+        final Map<String, ControlPoint> controlPoints = new HashMap<>(marksByName);
+        controlPoints.put("Start/Ziel", new ControlPointWithTwoMarksImpl(marksByName.get("G2"), marksByName.get("MEU"),
+                "Start/Ziel", "Start/Ziel"));
+        controlPoints.put("Gate",
+                new ControlPointWithTwoMarksImpl(marksByName.get("G1"), marksByName.get("G2"), "Gate", "Gate"));
+        return createCourse(controlPoints,
+                wp(controlPoints, "Start/Ziel", PassingInstruction.Line),
+                wp(controlPoints, "LUV", PassingInstruction.Port),
+                wp(controlPoints, "Gate", PassingInstruction.Gate),
+                wp(controlPoints, "LUV", PassingInstruction.Port),
+                wp(controlPoints, "Gate", PassingInstruction.Gate),
+                wp(controlPoints, "LUV", PassingInstruction.Port),
+                wp(controlPoints, "Start/Ziel", PassingInstruction.Line),
+                wp(controlPoints, "LUV", PassingInstruction.Port),
+                wp(controlPoints, "Gate", PassingInstruction.Gate),
+                wp(controlPoints, "LUV", PassingInstruction.Port),
+                wp(controlPoints, "Gate", PassingInstruction.Gate),
+                wp(controlPoints, "LUV", PassingInstruction.Port),
+                wp(controlPoints, "Start/Ziel", PassingInstruction.Line));
+    }
+
+    /**
+     * @return the bytes allocated so far by the current thread, or -1 if the VM doesn't tell
+     */
+    private static long getAllocatedBytesOfCurrentThread() {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        long result = -1;
+        for (final Class<?> i : threadMXBean.getClass().getInterfaces()) {
+            try {
+                final Method getThreadAllocatedBytes = i.getMethod("getThreadAllocatedBytes", long.class);
+                result = (Long) getThreadAllocatedBytes.invoke(threadMXBean, Thread.currentThread().getId());
+                break;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // try the next interface
+            }
+        }
+        return result;
+    }
+
+    private Map<Competitor, List<MarkPassing>> getAndClearMarkPassings() {
+        final Map<Competitor, List<MarkPassing>> result = new HashMap<>();
+        for (final Competitor competitor : trackedRace.getRace().getCompetitors()) {
+            final List<MarkPassing> markPassings = new ArrayList<>();
+            Util.addAll(trackedRace.getMarkPassings(competitor, /* waitForLatestUpdates */ true), markPassings);
+            result.put(competitor, markPassings);
+            trackedRace.updateMarkPassings(competitor, Collections.emptySet());
+        }
+        return result;
+    }
+
+    private void assertSameMarkPassings(Map<Competitor, List<MarkPassing>> expected, Map<Competitor, List<MarkPassing>> actual) {
+        assertEquals(expected.keySet(), actual.keySet());
+        for (final Competitor competitor : expected.keySet()) {
+            final List<MarkPassing> expectedMarkPassings = expected.get(competitor);
+            final List<MarkPassing> actualMarkPassings = actual.get(competitor);
+            assertEquals(expectedMarkPassings.size(), actualMarkPassings.size(), "Number of mark passings for "+competitor);
+            for (int i = 0; i < expectedMarkPassings.size(); i++) {
+                assertEquals(expectedMarkPassings.get(i).getWaypoint(), actualMarkPassings.get(i).getWaypoint());
+                assertEquals(expectedMarkPassings.get(i).getTimePoint(), actualMarkPassings.get(i).getTimePoint());
+            }
+        }
+    }
+
+    @Test
+    public void testParallelCalculationEqualsSequentialCalculation() throws IOException {
+        long sequentialMillis = 0;
+        long sequentialAllocatedBytes = 0;
+        long parallelMillis = 0;
+        Map<Competitor, List<MarkPassing>> sequentialMarkPassings = null;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long allocatedBytesBefore = getAllocatedBytesOfCurrentThread();
+            final long sequentialStart = System.currentTimeMillis();
+            final CandidateFinderImpl finder = new CandidateFinderImpl(trackedRace);
+            final CandidateChooserImpl chooser = new CandidateChooserImpl(trackedRace);
+            for (final Competitor competitor : trackedRace.getRace().getCompetitors()) {
+                final Util.Pair<Iterable<Candidate>, Iterable<Candidate>> allCandidates = finder.getAllCandidates(competitor);
+                chooser.calculateMarkPassDeltas(competitor, allCandidates.getA(), allCandidates.getB());
+            }
+            sequentialMillis = System.currentTimeMillis() - sequentialStart;
+            sequentialAllocatedBytes = getAllocatedBytesOfCurrentThread() - allocatedBytesBefore;
+            sequentialMarkPassings = getAndClearMarkPassings();
+            final long parallelStart = System.currentTimeMillis();
+            new MarkPassingCalculator(trackedRace, /* doListen */ false, /* waitForInitialMarkPassingCalculation */ true,
+                    /* markPassingRaceFingerprintRegistry */ null);
+            parallelMillis = System.currentTimeMillis() - parallelStart;
+            assertSameMarkPassings(sequentialMarkPassings, getAndClearMarkPassings());
+            System.out.println("Round " + round + ": sequential calculation took " + sequentialMillis + "ms, allocating "
+                    + sequentialAllocatedBytes / 1024 / 1024 + "MB; parallel calculation took " + parallelMillis + "ms");
+        }
+        assertFalse(sequentialMarkPassings.values().stream().allMatch(List::isEmpty));
+        final MeasurementXMLFile performanceReport = new MeasurementXMLFile(getClass());
+        final MeasurementCase performanceReportCase = performanceReport.addCase(getClass().getSimpleName());
+        performanceReportCase.addMeasurement(new Measurement("SequentialCalculationInMillis", sequentialMillis));
+        performanceReportCase.addMeasurement(new Measurement("SequentialCalculationAllocatedBytes", sequentialAllocatedBytes));
+        performanceReportCase.addMeasurement(new Measurement("ParallelCalculationInMillis", parallelMillis));
+        performanceReport.write();
+    }
+}
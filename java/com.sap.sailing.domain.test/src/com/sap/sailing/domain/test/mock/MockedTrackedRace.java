@@ -86,6 +86,7 @@ import com.sap.sailing.domain.tracking.TrackFactory;
 import com.sap.sailing.domain.tracking.TrackedLeg;
 import com.sap.sailing.domain.tracking.TrackedLegOfCompetitor;
 import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sailing.domain.tracking.TrackedRaceRematerializer;
 import com.sap.sailing.domain.tracking.TrackedRaceStatus;
 import com.sap.sailing.domain.tracking.TrackingDataLoader;
 import com.sap.sailing.domain.tracking.WindLegTypeAndLegBearingAndORCPerformanceCurveCache;
@@ -1416,4 +1417,28 @@ public class MockedTrackedRace implements DynamicTrackedRace {
             WindLegTypeAndLegBearingAndORCPerformanceCurveCache cache) {
         return null;
     }
+
+    @Override
+    public void setRematerializer(TrackedRaceRematerializer rematerializer) {
+    }
+
+    @Override
+    public boolean hibernate() {
+        return false;
+    }
+
+    @Override
+    public boolean isHibernated() {
+        return false;
+    }
+
+    @Override
+    public boolean isRematerializing() {
+        return false;
+    }
+
+    @Override
+    public TimePoint getTimePointOfLastAccess() {
+        return null;
+    }
 }
@@ -0,0 +1,134 @@
+package com.sap.sailing.domain.tracking.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixMovingImpl;
+import com.sap.sailing.domain.shared.tracking.AddResult;
+import com.sap.sailing.domain.tracking.GPSTrackListener;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+/**
+ * Checks that adding a batch of fixes under a single lock acquisition leads to the same track and the same listener
+ * notifications as adding the fixes one by one.
+ */
+public class BatchedGPSFixAddTest {
+    private static final long START_MILLIS = 1000000l;
+
+    private DynamicGPSFixMovingTrackImpl<String> batchedTrack;
+    private DynamicGPSFixMovingTrackImpl<String> singleFixTrack;
+    private List<TimePoint> notifiedTimePoints;
+    private List<Boolean> notifiedFirstFixInTrack;
+
+    @BeforeEach
+    public void setUp() {
+        batchedTrack = new DynamicGPSFixMovingTrackImpl<>("Competitor", /* millisecondsOverWhichToAverage */ 5000);
+        singleFixTrack = new DynamicGPSFixMovingTrackImpl<>("Competitor", /* millisecondsOverWhichToAverage */ 5000);
+        notifiedTimePoints = new ArrayList<>();
+        notifiedFirstFixInTrack = new ArrayList<>();
+        batchedTrack.addListener(new GPSTrackListener<String, GPSFixMoving>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void gpsFixReceived(GPSFixMoving fix, String item, boolean firstFixInTrack, AddResult addedOrReplaced) {
+                notifiedTimePoints.add(fix.getTimePoint());
+                notifiedFirstFixInTrack.add(firstFixInTrack);
+            }
+
+            @Override
+            public boolean isTransient() {
+                return true;
+            }
+
+            @Override
+            public void speedAveragingChanged(long oldMillisecondsOverWhichToAverage, long newMillisecondsOverWhichToAverage) {
+            }
+        });
+    }
+
+    private GPSFixMoving createFix(int i) {
+        return new GPSFixMovingImpl(new DegreePosition(54 + i * 0.0001, 10), new MillisecondsTimePoint(START_MILLIS + i * 1000),
+                new KnotSpeedWithBearingImpl(21.6, new DegreeBearingImpl(0)), /* optionalTrueHeading */ null);
+    }
+
+    private List<GPSFixMoving> createFixes(Integer... indices) {
+        final List<GPSFixMoving> result = new ArrayList<>();
+        for (final int i : indices) {
+            result.add(createFix(i));
+        }
+        return result;
+    }
+
+    private void addOneByOne(List<GPSFixMoving> fixes) {
+        for (final GPSFixMoving fix : fixes) {
+            singleFixTrack.addGPSFix(fix);
+        }
+    }
+
+    private void assertSameFixes() {
+        batchedTrack.lockForRead();
+        singleFixTrack.lockForRead();
+        try {
+            assertEquals(singleFixTrack.getRawFixes().size(), batchedTrack.getRawFixes().size());
+            final Iterator<GPSFixMoving> singleFixIterator = singleFixTrack.getRawFixes().iterator();
+            for (final GPSFixMoving batchedFix : batchedTrack.getRawFixes()) {
+                final GPSFixMoving singleFix = singleFixIterator.next();
+                assertEquals(singleFix.getTimePoint(), batchedFix.getTimePoint());
+                assertEquals(singleFix.getPosition(), batchedFix.getPosition());
+                assertEquals(batchedTrack.isValid(batchedTrack.getRawFixes(), batchedFix),
+                        singleFixTrack.isValid(singleFixTrack.getRawFixes(), singleFix));
+            }
+        } finally {
+            singleFixTrack.unlockAfterRead();
+            batchedTrack.unlockAfterRead();
+        }
+    }
+
+    @Test
+    public void testBatchIsAddedLikeSingleFixes() {
+        final List<GPSFixMoving> firstBatch = createFixes(0, 1, 2, 5, 4);
+        assertEquals(5, batchedTrack.addGPSFixes(firstBatch));
+        addOneByOne(firstBatch);
+        assertSameFixes();
+        final List<GPSFixMoving> secondBatch = createFixes(3, 6, 7);
+        assertEquals(3, batchedTrack.addGPSFixes(secondBatch));
+        addOneByOne(secondBatch);
+        assertSameFixes();
+        final TimePoint timePoint = new MillisecondsTimePoint(START_MILLIS + 3500);
+        assertEquals(singleFixTrack.getEstimatedPosition(timePoint, /* extrapolate */ false),
+                batchedTrack.getEstimatedPosition(timePoint, /* extrapolate */ false));
+        assertEquals(singleFixTrack.getEstimatedSpeed(timePoint), batchedTrack.getEstimatedSpeed(timePoint));
+    }
+
+    @Test
+    public void testListenersAreNotifiedInOrderOfAddition() {
+        batchedTrack.addGPSFixes(createFixes(2, 0, 1));
+        batchedTrack.addGPSFixes(createFixes(3));
+        assertEquals(Arrays.asList(createFix(2).getTimePoint(), createFix(0).getTimePoint(), createFix(1).getTimePoint(),
+                createFix(3).getTimePoint()), notifiedTimePoints);
+        assertTrue(notifiedFirstFixInTrack.get(0));
+        for (final boolean firstFixInTrack : notifiedFirstFixInTrack.subList(1, notifiedFirstFixInTrack.size())) {
+            assertFalse(firstFixInTrack);
+        }
+    }
+
+    @Test
+    public void testEmptyBatchAddsNothing() {
+        assertEquals(0, batchedTrack.addGPSFixes(new ArrayList<>()));
+        assertTrue(notifiedTimePoints.isEmpty());
+    }
+}
@@ -0,0 +1,214 @@
+package com.sap.sailing.domain.tracking.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.common.Position;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixMovingImpl;
+import com.sap.sailing.domain.test.PositionAssert;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+public class ColumnarDynamicGPSFixMovingTrackTest {
+    private static final long START_MILLIS = 1000000l;
+    private static final int NUMBER_OF_FIXES = 2000;
+
+    private DynamicGPSFixMovingTrackImpl<String> objectTrack;
+    private ColumnarDynamicGPSFixMovingTrackImpl<String> columnarTrack;
+    private Random random;
+
+    @BeforeEach
+    public void setUp() {
+        objectTrack = new DynamicGPSFixMovingTrackImpl<>("Competitor", /* millisecondsOverWhichToAverage */ 5000);
+        columnarTrack = new ColumnarDynamicGPSFixMovingTrackImpl<>("Competitor", /* millisecondsOverWhichToAverage */ 5000);
+        random = new Random(4711);
+    }
+
+    /**
+     * Heading north with roughly 21.6kts, one fix per second
+     */
+    private GPSFixMoving createFix(int i) {
+        return new GPSFixMovingImpl(new DegreePosition(54 + i * 0.0001, 10), new MillisecondsTimePoint(START_MILLIS + i * 1000),
+                new KnotSpeedWithBearingImpl(21.6 + random.nextDouble(), new DegreeBearingImpl(random.nextDouble())),
+                i % 3 == 0 ? new DegreeBearingImpl(12) : null);
+    }
+
+    private void addFixesToBothTracks(List<Integer> indices) {
+        for (final int i : indices) {
+            final GPSFixMoving fix = createFix(i);
+            objectTrack.addGPSFix(fix);
+            columnarTrack.addGPSFix(fix);
+        }
+    }
+
+    private List<Integer> getIndicesPartlyOutOfOrder() {
+        final List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < NUMBER_OF_FIXES; i++) {
+            indices.add(i);
+        }
+        Collections.shuffle(indices.subList(500, 700), random);
+        return indices;
+    }
+
+    @Test
+    public void testSameEstimationsAsObjectBasedTrack() {
+        addFixesToBothTracks(getIndicesPartlyOutOfOrder());
+        for (int i = 0; i < 1000; i++) {
+            final TimePoint timePoint = new MillisecondsTimePoint(START_MILLIS + random.nextInt(NUMBER_OF_FIXES * 1100));
+            PositionAssert.assertPositionEquals(objectTrack.getEstimatedPosition(timePoint, /* extrapolate */ false),
+                    columnarTrack.getEstimatedPosition(timePoint, /* extrapolate */ false), /* deg delta */ 0.0000001);
+            assertEquals(objectTrack.getEstimatedSpeed(timePoint), columnarTrack.getEstimatedSpeed(timePoint));
+        }
+        final TimePoint from = new MillisecondsTimePoint(START_MILLIS);
+        final TimePoint to = new MillisecondsTimePoint(START_MILLIS + NUMBER_OF_FIXES * 1000);
+        assertEquals(objectTrack.getDistanceTraveled(from, to).getMeters(), columnarTrack.getDistanceTraveled(from, to).getMeters(), 0.001);
+    }
+
+    @Test
+    public void testFixIterationInTimeOrder() {
+        addFixesToBothTracks(getIndicesPartlyOutOfOrder());
+        columnarTrack.lockForRead();
+        objectTrack.lockForRead();
+        try {
+            assertEquals(NUMBER_OF_FIXES, columnarTrack.getRawFixes().size());
+            assertEquals(objectTrack.getFixes().size(), columnarTrack.getFixes().size());
+            final Iterator<GPSFixMoving> objectIter = objectTrack.getRawFixes().iterator();
+            TimePoint last = null;
+            for (final GPSFixMoving fix : columnarTrack.getRawFixes()) {
+                final GPSFixMoving objectFix = objectIter.next();
+                assertEquals(objectFix.getTimePoint(), fix.getTimePoint());
+                assertEquals(objectFix.getOptionalTrueHeading() == null, fix.getOptionalTrueHeading() == null);
+                assertTrue(last == null || last.before(fix.getTimePoint()));
+                last = fix.getTimePoint();
+            }
+            assertFalse(objectIter.hasNext());
+        } finally {
+            objectTrack.unlockAfterRead();
+            columnarTrack.unlockAfterRead();
+        }
+    }
+
+    @Test
+    public void testCachesWriteThroughAndSurviveInsertions() {
+        for (int i = 0; i < 10; i += 2) {
+            columnarTrack.addGPSFix(createFix(i));
+        }
+        final TimePoint timePoint = new MillisecondsTimePoint(START_MILLIS + 4000);
+        final GPSFixMoving view = columnarTrack.getFirstRawFixAtOrAfter(timePoint);
+        view.cacheValidity(false);
+        final GPSFixMoving otherView = columnarTrack.getFirstRawFixAtOrAfter(timePoint);
+        assertTrue(otherView.isValidityCached());
+        assertFalse(otherView.isValidCached());
+        // inserting earlier fixes shifts the fix at timePoint within the columns
+        columnarTrack.addGPSFix(createFix(1));
+        columnarTrack.addGPSFix(createFix(3));
+        view.cacheEstimatedSpeed(new KnotSpeedWithBearingImpl(12, new DegreeBearingImpl(123)));
+        final GPSFixMoving viewAfterInsertions = columnarTrack.getFirstRawFixAtOrAfter(timePoint);
+        assertEquals(timePoint, viewAfterInsertions.getTimePoint());
+        assertTrue(viewAfterInsertions.isEstimatedSpeedCached());
+        assertEquals(12, viewAfterInsertions.getCachedEstimatedSpeed().getKnots(), 0.02);
+        assertEquals(123, viewAfterInsertions.getCachedEstimatedSpeed().getBearing().getDegrees(), 0.02);
+        assertFalse(columnarTrack.getFirstRawFixAtOrAfter(new MillisecondsTimePoint(START_MILLIS + 3000)).isEstimatedSpeedCached());
+    }
+
+    @Test
+    public void testCachedEstimatedSpeedOfRemovedFix() {
+        for (int i = 0; i < 10; i++) {
+            columnarTrack.addGPSFix(createFix(i));
+        }
+        final TimePoint timePoint = new MillisecondsTimePoint(START_MILLIS + 4000);
+        final GPSFixMoving view = columnarTrack.getFirstRawFixAtOrAfter(timePoint);
+        view.cacheEstimatedSpeed(new KnotSpeedWithBearingImpl(12, new DegreeBearingImpl(123)));
+        assertTrue(view.isEstimatedSpeedCached());
+        columnarTrack.removeAllFixes();
+        // a speed reported as cached remains valid after the fix has been removed
+        assertEquals(12, view.getCachedEstimatedSpeed().getKnots(), 0.02);
+        assertEquals(123, view.getCachedEstimatedSpeed().getBearing().getDegrees(), 0.02);
+        assertFalse(view.isEstimatedSpeedCached());
+        for (int i = 0; i < 10; i++) {
+            columnarTrack.addGPSFix(createFix(i));
+        }
+        assertNotNull(columnarTrack.getEstimatedSpeed(timePoint));
+    }
+
+    @Test
+    public void testViewsAreReusedUntilFixesShift() {
+        for (int i = 0; i < 10; i += 2) {
+            columnarTrack.addGPSFix(createFix(i));
+        }
+        final TimePoint timePoint = new MillisecondsTimePoint(START_MILLIS + 4000);
+        final GPSFixMoving view = columnarTrack.getFirstRawFixAtOrAfter(timePoint);
+        assertSame(view, columnarTrack.getFirstRawFixAtOrAfter(timePoint));
+        // appending doesn't move any fix
+        columnarTrack.addGPSFix(createFix(10));
+        assertSame(view, columnarTrack.getFirstRawFixAtOrAfter(timePoint));
+        columnarTrack.addGPSFix(createFix(1));
+        final List<Long> secondsAfterStart = new ArrayList<>();
+        columnarTrack.lockForRead();
+        try {
+            for (final GPSFixMoving fix : columnarTrack.getRawFixes()) {
+                secondsAfterStart.add((fix.getTimePoint().asMillis() - START_MILLIS) / 1000);
+            }
+        } finally {
+            columnarTrack.unlockAfterRead();
+        }
+        assertEquals(Arrays.asList(0l, 1l, 2l, 4l, 6l, 8l, 10l), secondsAfterStart);
+        final GPSFixMoving viewAfterInsertion = columnarTrack.getFirstRawFixAtOrAfter(timePoint);
+        assertNotSame(view, viewAfterInsertion);
+        assertEquals(timePoint, viewAfterInsertion.getTimePoint());
+        PositionAssert.assertPositionEquals(view.getPosition(), viewAfterInsertion.getPosition(), /* deg delta */ 0.0000001);
+    }
+
+    @Test
+    public void testFixWithSpeedOutOfCompactRange() {
+        final Position position = new DegreePosition(54, 10);
+        final GPSFixMoving fastFix = new GPSFixMovingImpl(position, new MillisecondsTimePoint(START_MILLIS),
+                new KnotSpeedWithBearingImpl(1000, new DegreeBearingImpl(90)), /* optionalTrueHeading */ null);
+        columnarTrack.addGPSFix(createFix(1));
+        columnarTrack.addGPSFix(fastFix);
+        final GPSFixMoving result = columnarTrack.getFirstRawFixAtOrAfter(fastFix.getTimePoint());
+        assertNotNull(result);
+        assertEquals(1000, result.getSpeed().getKnots(), 0.0000001);
+        assertNull(result.getOptionalTrueHeading());
+        assertEquals(fastFix.getTimePoint(), result.getTimePoint());
+    }
+
+    @Test
+    public void testRemoveAllFixesAndAddAgain() {
+        addFixesToBothTracks(getIndicesPartlyOutOfOrder());
+        final TimePoint from = new MillisecondsTimePoint(START_MILLIS);
+        final TimePoint to = new MillisecondsTimePoint(START_MILLIS + NUMBER_OF_FIXES * 1000);
+        final double distanceInMeters = columnarTrack.getDistanceTraveled(from, to).getMeters();
+        columnarTrack.removeAllFixes();
+        assertNull(columnarTrack.getFirstRawFix());
+        assertEquals(0, columnarTrack.getDistanceTraveled(from, to).getMeters(), 0.0000001);
+        objectTrack.lockForRead();
+        try {
+            for (final GPSFixMoving fix : objectTrack.getRawFixes()) {
+                columnarTrack.addGPSFix(fix);
+            }
+        } finally {
+            objectTrack.unlockAfterRead();
+        }
+        assertEquals(distanceInMeters, columnarTrack.getDistanceTraveled(from, to).getMeters(), 0.001);
+    }
+}
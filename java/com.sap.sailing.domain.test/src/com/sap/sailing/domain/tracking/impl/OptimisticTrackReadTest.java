@@ -0,0 +1,99 @@
+package com.sap.sailing.domain.tracking.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixMovingImpl;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+public class OptimisticTrackReadTest {
+    private static final long START_MILLIS = 1000000l;
+    private static final int NUMBER_OF_FIXES = 10000;
+
+    private GPSFixMoving createFix(int i) {
+        return new GPSFixMovingImpl(new DegreePosition(54 + i * 0.0001, 10), new MillisecondsTimePoint(START_MILLIS + i * 1000),
+                new KnotSpeedWithBearingImpl(21.6, new DegreeBearingImpl(0)), /* optionalTrueHeading */ null);
+    }
+
+    @Test
+    public void testConcurrentAppendsAndReadsOnObjectTrack() throws InterruptedException {
+        runConcurrentAppendsAndReads(new DynamicGPSFixMovingTrackImpl<>("Competitor", /* millisecondsOverWhichToAverage */ 5000,
+                DynamicGPSFixMovingTrackImpl.DEFAULT_MAX_SPEED_FOR_SMOOTHING, /* losslessCompaction */ false, /* optimisticReads */ true));
+    }
+
+    @Test
+    public void testConcurrentAppendsAndReadsOnColumnarTrack() throws InterruptedException {
+        runConcurrentAppendsAndReads(new ColumnarDynamicGPSFixMovingTrackImpl<>("Competitor", /* millisecondsOverWhichToAverage */ 5000,
+                DynamicGPSFixMovingTrackImpl.DEFAULT_MAX_SPEED_FOR_SMOOTHING, /* optimisticReads */ true));
+    }
+
+    /**
+     * While one thread appends fixes and occasionally inserts one out of order, another thread keeps
+     * looking up the fix at the last time point known to be in the track; it must always find exactly that fix.
+     */
+    private void runConcurrentAppendsAndReads(DynamicGPSFixMovingTrackImpl<String> track) throws InterruptedException {
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final int[] lastAdded = new int[] { -1 };
+        final Thread writer = new Thread(()->{
+            for (int i=0; i<NUMBER_OF_FIXES; i++) {
+                if (i % 100 != 0) {
+                    track.addGPSFix(createFix(i));
+                }
+                if (i % 100 == 99) {
+                    track.addGPSFix(createFix(i-99)); // out of order insert of the fix skipped before
+                }
+                synchronized (lastAdded) {
+                    lastAdded[0] = i;
+                }
+            }
+        }, "Writer");
+        final Thread reader = new Thread(()->{
+            try {
+                int last;
+                do {
+                    synchronized (lastAdded) {
+                        last = lastAdded[0];
+                    }
+                    if (last > 0 && (last % 100 != 0)) {
+                        final TimePoint timePoint = new MillisecondsTimePoint(START_MILLIS + last * 1000);
+                        assertFound(timePoint, track::getLastRawFixAtOrBefore);
+                        assertFound(timePoint, track::getFirstRawFixAtOrAfter);
+                        assertFalse(track.getLastRawFix().getTimePoint().before(timePoint));
+                    }
+                } while (last < NUMBER_OF_FIXES-1);
+            } catch (Throwable t) {
+                failure.set(t);
+            }
+        }, "Reader");
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        track.lockForRead();
+        try {
+            assertEquals(NUMBER_OF_FIXES, track.getRawFixes().size());
+        } finally {
+            track.unlockAfterRead();
+        }
+    }
+
+    private void assertFound(TimePoint timePoint, Function<TimePoint, GPSFixMoving> lookup) {
+        final GPSFixMoving fix = lookup.apply(timePoint);
+        assertNotNull(fix);
+        assertEquals(timePoint, fix.getTimePoint());
+    }
+}
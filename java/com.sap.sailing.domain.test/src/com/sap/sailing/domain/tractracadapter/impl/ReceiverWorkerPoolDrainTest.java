@@ -0,0 +1,143 @@
+package com.sap.sailing.domain.tractracadapter.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.base.RaceDefinition;
+import com.sap.sailing.domain.base.Regatta;
+import com.sap.sailing.domain.tracking.DynamicTrackedRace;
+import com.sap.sailing.domain.tracking.DynamicTrackedRegatta;
+import com.sap.sailing.domain.tractracadapter.DomainFactory;
+import com.sap.sse.common.Util;
+import com.tractrac.model.lib.api.event.IEvent;
+import com.tractrac.model.lib.api.event.IRace;
+
+public class ReceiverWorkerPoolDrainTest {
+    private static final String RACE_NAME = "R1";
+
+    private ScheduledExecutorService executor;
+    private DomainFactory domainFactory;
+    private DynamicTrackedRegatta trackedRegatta;
+    private IRace race;
+    private AtomicReference<DynamicTrackedRace> existingTrackedRace;
+
+    /**
+     * Records the number of each event handled and whether the tracked race was found for it
+     */
+    private static class RecordingReceiver extends AbstractReceiverWithQueue<IRace, Integer, Void> {
+        private final List<Integer> handled = Collections.synchronizedList(new ArrayList<>());
+        private final List<Boolean> trackedRaceFound = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingReceiver(DomainFactory domainFactory, DynamicTrackedRegatta trackedRegatta, ReceiverWorkerPool workerPool) {
+            super(domainFactory, mock(IEvent.class), trackedRegatta, /* simulator */ null, /* eventSubscriber */ null,
+                    /* raceSubscriber */ null, /* timeoutInMilliseconds */ -1, workerPool);
+        }
+
+        void receive(IRace race, int eventNumber) {
+            enqueue(new Util.Triple<>(race, eventNumber, null));
+        }
+
+        @Override
+        public void subscribe() {
+            startThread();
+        }
+
+        @Override
+        protected void unsubscribe() {
+        }
+
+        @Override
+        protected IRace getRace(Util.Triple<IRace, Integer, Void> event) {
+            return event.getA();
+        }
+
+        @Override
+        protected void handleEvent(Util.Triple<IRace, Integer, Void> event) {
+            trackedRaceFound.add(getTrackedRace(event.getA()) != null);
+            handled.add(event.getB());
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newScheduledThreadPool(1);
+        race = mock(IRace.class);
+        final UUID raceId = UUID.randomUUID();
+        when(race.getId()).thenReturn(raceId);
+        final RaceDefinition raceDefinition = mock(RaceDefinition.class);
+        when(raceDefinition.getName()).thenReturn(RACE_NAME);
+        domainFactory = mock(DomainFactory.class);
+        when(domainFactory.getAndWaitForRaceDefinition(eq(raceId), any(Long.class))).thenReturn(raceDefinition);
+        final Regatta regatta = mock(Regatta.class);
+        when(regatta.getRaceByName(RACE_NAME)).thenReturn(raceDefinition);
+        trackedRegatta = mock(DynamicTrackedRegatta.class);
+        when(trackedRegatta.getRegatta()).thenReturn(regatta);
+        existingTrackedRace = new AtomicReference<>(mock(DynamicTrackedRace.class));
+        when(trackedRegatta.getExistingTrackedRace(raceDefinition)).thenAnswer(invocation -> existingTrackedRace.get());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testEventsAreDrainedInOrderInBatchesOnlyAfterStart() throws InterruptedException {
+        final RecordingReceiver receiver = new RecordingReceiver(domainFactory, trackedRegatta, new ReceiverWorkerPool(executor, /* batchSize */ 2));
+        for (int i = 0; i < 5; i++) {
+            receiver.receive(race, i);
+        }
+        // no drain is scheduled before the receiver has been started
+        assertEquals(5, receiver.getQueueSize());
+        receiver.subscribe();
+        for (int i = 5; i < 10; i++) {
+            receiver.receive(race, i);
+        }
+        receiver.stopAfterProcessingQueuedEvents();
+        receiver.join(10000);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), receiver.handled);
+        assertEquals(0, receiver.getQueueSize());
+        assertTrue(receiver.trackedRaceFound.stream().allMatch(found -> found));
+    }
+
+    @Test
+    public void testDrainWaitsForTrackedRaceWithoutBlockingPoolThread() throws Exception {
+        existingTrackedRace.set(null);
+        final RecordingReceiver receiver = new RecordingReceiver(domainFactory, trackedRegatta, new ReceiverWorkerPool(executor, /* batchSize */ 2));
+        receiver.subscribe();
+        receiver.receive(race, 0);
+        receiver.receive(race, 1);
+        Thread.sleep(300);
+        assertEquals(Collections.emptyList(), receiver.handled);
+        assertEquals(2, receiver.getQueueSize());
+        // the single pool thread is still available to others while the receiver waits for the tracked race
+        assertEquals("free", executor.submit(() -> "free").get(1, TimeUnit.SECONDS));
+        existingTrackedRace.set(mock(DynamicTrackedRace.class));
+        receiver.stopAfterProcessingQueuedEvents();
+        receiver.join(10000);
+        assertEquals(Arrays.asList(0, 1), receiver.handled);
+        assertEquals(Arrays.asList(true, true), receiver.trackedRaceFound);
+        // the pool thread must never wait for the tracked race to be created
+        verify(trackedRegatta, never()).getTrackedRace(any(RaceDefinition.class));
+    }
+}
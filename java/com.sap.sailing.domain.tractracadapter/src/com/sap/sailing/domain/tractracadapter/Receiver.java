@@ -3,6 +3,7 @@ package com.sap.sailing.domain.tractracadapter;
 import com.sap.sailing.domain.tracking.TrackedRace;
 import com.sap.sailing.domain.tracking.TrackedRaceStatus;
 import com.sap.sailing.domain.tractracadapter.impl.TracTracRaceTrackerImpl;
+import com.sap.sse.common.Duration;
 
 
 public interface Receiver {
@@ -53,4 +54,19 @@ public interface Receiver {
      *            {@link #callBackWhenLoadingQueueIsDone(LoadingQueueDoneCallBack)} has been handled.
      */
     void callBackWhenLoadingQueueIsDone(LoadingQueueDoneCallBack callback);
+
+    /**
+     * @return the number of events received but not yet handled; for monitoring purposes
+     */
+    default int getQueueSize() {
+        return 0;
+    }
+
+    /**
+     * @return the time that has passed since the oldest event not yet handled was received, or {@link Duration#NULL}
+     *         if all events received have been handled; for monitoring purposes
+     */
+    default Duration getLag() {
+        return Duration.NULL;
+    }
 }
@@ -1,6 +1,18 @@
 package com.sap.sailing.domain.tractracadapter;
 
 import com.sap.sailing.domain.tracking.RaceTracker;
+import com.sap.sse.common.Duration;
 
 public interface TracTracRaceTracker extends RaceTracker {
+    /**
+     * @return the total number of events received for this race by the tracker's {@link Receiver receivers} that have
+     *         not yet been handled
+     */
+    int getNumberOfQueuedEvents();
+
+    /**
+     * @return the maximum {@link Receiver#getLag() lag} of the tracker's {@link Receiver receivers}, telling how long
+     *         ago the oldest event not yet handled for this race was received
+     */
+    Duration getLag();
 }
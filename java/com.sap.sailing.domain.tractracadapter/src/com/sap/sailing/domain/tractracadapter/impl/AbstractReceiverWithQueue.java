@@ -1,11 +1,15 @@
 package com.sap.sailing.domain.tractracadapter.impl;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -31,7 +35,14 @@ import com.tractrac.subscription.lib.api.IRaceSubscriber;
  * Some event receiver that can be executed in a thread because it's a runnable, and
  * manages a queue of events received. The events are expected to be triplets.<p>
  * 
- * The receiver can be stopped in different ways. 
+ * The receiver can be stopped in different ways.<p>
+ * 
+ * Receivers constructed with a {@link ReceiverWorkerPool} don't use a thread of their own. Instead, a task of the
+ * pool drains the queue in batches whenever events are pending, passing each batch to {@link #handleEvents(List)}.
+ * As there is at most one such task per receiver at any time, events are still handled in the order received. Such a
+ * task doesn't wait for the race to appear the way {@link #getTrackedRace(IRace)} does when using a thread of its own;
+ * as long as the {@link #getRace(Triple) race} of the next event or its {@link TrackedRace} isn't known yet, the task
+ * is re-scheduled with a delay, thus not occupying a pool thread.
  * 
  * @author Axel Uhl (d043530)
  */
@@ -46,7 +57,33 @@ public abstract class AbstractReceiverWithQueue<A, B, C> implements Runnable, Re
      */
     private static final long RETRY_TIMEOUT_IN_MILLIS = Duration.ONE_MINUTE.asMillis();
 
-    private final LinkedBlockingDeque<Util.Triple<A, B, C>> queue;
+    /**
+     * The delay after which a receiver processed by a {@link ReceiverWorkerPool} checks again whether the race of the
+     * next event in its queue has appeared
+     */
+    private static final long RACE_NOT_YET_KNOWN_RETRY_DELAY_IN_MILLIS = 100;
+
+    /**
+     * An event in the {@link AbstractReceiverWithQueue#queue}, together with the time it was received, used to
+     * determine the receiver's {@link AbstractReceiverWithQueue#getLag() lag}. Uses identity for equality, so
+     * callbacks registered for an event are not confused with those for an equal event received at another time.
+     */
+    private static class QueuedEvent<A, B, C> {
+        private final Util.Triple<A, B, C> event;
+        private final long receivedAtMillis;
+
+        private QueuedEvent(Util.Triple<A, B, C> event) {
+            this.event = event;
+            this.receivedAtMillis = System.currentTimeMillis();
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(event);
+        }
+    }
+
+    private final LinkedBlockingDeque<QueuedEvent<A, B, C>> queue;
     private final DomainFactory domainFactory;
     private final IEvent tractracEvent;
     private final IEventSubscriber eventSubscriber;
@@ -54,7 +91,49 @@ public abstract class AbstractReceiverWithQueue<A, B, C> implements Runnable, Re
     private final DynamicTrackedRegatta trackedRegatta;
     private final Simulator simulator;
     private final Thread thread;
-    private final Map<Util.Triple<A, B, C>, Set<LoadingQueueDoneCallBack>> loadingQueueDoneCallBacks;
+
+    /**
+     * The pool whose tasks handle this receiver's events, or {@code null} if this receiver uses {@link #thread its own
+     * thread}
+     */
+    private final ReceiverWorkerPool workerPool;
+
+    /**
+     * Tells whether a task draining the {@link #queue} has been submitted to the {@link #workerPool} and has not yet
+     * completed
+     */
+    private final AtomicBoolean drainScheduled;
+
+    /**
+     * Set by {@link #startThread()}; a receiver using the {@link #workerPool} doesn't drain its queue before that
+     */
+    private volatile boolean started;
+
+    /**
+     * Counted down when this receiver has handled the stop event or has terminated abnormally; used to {@link #join()}
+     * a receiver that doesn't use a thread of its own
+     */
+    private final CountDownLatch terminated;
+
+    /**
+     * When a receiver using the {@link #workerPool} first found that the race of its next event isn't known yet, or
+     * {@code -1} if the race was known the last time this was checked. Only accessed by the task draining the queue.
+     */
+    private long raceNotYetKnownSinceMillis;
+
+    /**
+     * The first of the events taken from the {@link #queue} but not yet handled; used to determine the {@link #getLag()
+     * lag} while the queue is empty
+     */
+    private volatile QueuedEvent<A, B, C> firstEventBeingHandled;
+
+    /**
+     * The last of the events taken from the {@link #queue} but not yet handled; a callback registered while the queue
+     * is empty is triggered once this event has been handled. Guarded by {@link #loadingQueueDoneCallBacks}.
+     */
+    private QueuedEvent<A, B, C> lastEventBeingHandled;
+
+    private final Map<QueuedEvent<A, B, C>, Set<LoadingQueueDoneCallBack>> loadingQueueDoneCallBacks;
     private final long timeoutInMilliseconds;
 
     /**
@@ -74,6 +153,18 @@ public abstract class AbstractReceiverWithQueue<A, B, C> implements Runnable, Re
     public AbstractReceiverWithQueue(DomainFactory domainFactory, IEvent tractracEvent,
             DynamicTrackedRegatta trackedRegatta, Simulator simulator, IEventSubscriber eventSubscriber, IRaceSubscriber raceSubscriber,
             long timeoutInMilliseconds) {
+        this(domainFactory, tractracEvent, trackedRegatta, simulator, eventSubscriber, raceSubscriber, timeoutInMilliseconds,
+                /* workerPool */ null);
+    }
+
+    /**
+     * @param workerPool
+     *            the pool whose tasks are to handle the events received, or {@code null} to handle them in a thread of
+     *            this receiver's own
+     */
+    public AbstractReceiverWithQueue(DomainFactory domainFactory, IEvent tractracEvent,
+            DynamicTrackedRegatta trackedRegatta, Simulator simulator, IEventSubscriber eventSubscriber, IRaceSubscriber raceSubscriber,
+            long timeoutInMilliseconds, ReceiverWorkerPool workerPool) {
         super();
         this.eventSubscriber = eventSubscriber;
         this.raceSubscriber = raceSubscriber;
@@ -81,8 +172,12 @@ public abstract class AbstractReceiverWithQueue<A, B, C> implements Runnable, Re
         this.trackedRegatta = trackedRegatta;
         this.domainFactory = domainFactory;
         this.simulator = simulator;
-        this.queue = new LinkedBlockingDeque<Util.Triple<A, B, C>>();
-        this.thread = new Thread(this, getClass().getName());
+        this.queue = new LinkedBlockingDeque<>();
+        this.workerPool = workerPool;
+        this.thread = workerPool == null ? new Thread(this, getClass().getName()) : null;
+        this.drainScheduled = new AtomicBoolean();
+        this.terminated = new CountDownLatch(1);
+        this.raceNotYetKnownSinceMillis = -1;
         this.loadingQueueDoneCallBacks = new HashMap<>();
         this.timeoutInMilliseconds = timeoutInMilliseconds;
     }
@@ -95,8 +190,21 @@ public abstract class AbstractReceiverWithQueue<A, B, C> implements Runnable, Re
         return raceSubscriber;
     }
 
+    /**
+     * Starts handling the events received; for a receiver using a {@link ReceiverWorkerPool} this submits a task
+     * draining the events queued so far instead of starting a thread.
+     */
     protected synchronized void startThread() {
-        thread.start();
+        if (workerPool == null) {
+            thread.start();
+        } else {
+            started = true;
+            scheduleDrain();
+        }
+    }
+
+    protected boolean isProcessedByWorkerPool() {
+        return workerPool != null;
     }
     
     protected DomainFactory getDomainFactory() {
@@ -124,7 +232,8 @@ public abstract class AbstractReceiverWithQueue<A, B, C> implements Runnable, Re
     
     @Override
     public void stopAfterProcessingQueuedEvents() {
-        queue.add(new Util.Triple<A, B, C>(null, null, null));
+        queue.add(new QueuedEvent<>(new Util.Triple<A, B, C>(null, null, null)));
+        scheduleDrain();
     }
     
     protected Simulator getSimulator() {
@@ -154,8 +263,9 @@ public abstract class AbstractReceiverWithQueue<A, B, C> implements Runnable, Re
     }
 
     protected void enqueue(Util.Triple<A, B, C> event) {
-        queue.add(event);
+        queue.add(new QueuedEvent<>(event));
         receivedEventDuringTimeout = true;
+        scheduleDrain();
     }
     
     private boolean isStopEvent(Util.Triple<A, B, C> event) {
@@ -164,49 +274,150 @@ public abstract class AbstractReceiverWithQueue<A, B, C> implements Runnable, Re
 
     @Override
     public void run() {
-        Util.Triple<A, B, C> event = null;
-        while (event == null || !isStopEvent(event)) {
+        boolean stopped = false;
+        while (!stopped) {
             try {
-                final Set<LoadingQueueDoneCallBack> callBacks;
-                event = queue.take();
-                synchronized (loadingQueueDoneCallBacks) {
-                    if (getSimulator() != null) {
-                        // when simulator is running, loading is considered finished and all callbacks will
-                        // be satisfied instantly
-                        callBacks = new HashSet<>();
-                        for (Set<LoadingQueueDoneCallBack> set : loadingQueueDoneCallBacks.values()) {
-                            callBacks.addAll(set);
-                        }
-                        loadingQueueDoneCallBacks.clear();
-                    } else {
-                        // otherwise, check only if there are callbacks that registered at the event
-                        // currently consumed and notify if any are found
-                        callBacks = loadingQueueDoneCallBacks.remove(event);
-                    }
-                }
-                if (!isStopEvent(event)) {
-                    handleEvent(event);
-                }
-                if (callBacks != null) {
-                    for (LoadingQueueDoneCallBack callback : callBacks) {
-                        callback.loadingQueueDone(this);
-                    }
-                }
+                stopped = handleQueuedEvents(queue.take(), /* maximum number of events */ 1);
             } catch (InterruptedException e) {
                 logger.log(Level.INFO, "Interrupted while taking element from queue", e);
             } catch (Exception e) {
                 // before this thread terminates abnormally, at least log it:
                 logger.log(Level.SEVERE, ""+this+" is terminating abnormally; the race will probably be left at LOADING (100%).", e);
+                terminated.countDown();
                 throw e;
             }
         }
-        unsubscribe();
+    }
+
+    /**
+     * Submits a task draining the {@link #queue} to the {@link #workerPool} unless this receiver uses a thread of its
+     * own, hasn't been {@link #startThread() started} or has terminated, the queue is empty, or such a task is already
+     * scheduled. A task that completes calls this method again, so events enqueued while it was running are not
+     * missed.
+     */
+    private void scheduleDrain() {
+        if (workerPool != null && started && terminated.getCount() > 0 && !queue.isEmpty()
+                && drainScheduled.compareAndSet(false, true)) {
+            workerPool.getExecutor().execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        boolean stopped = false;
+        try {
+            if (!isRaceOfNextEventKnown() && !hasBeenStoppedPreemptively()) {
+                final long now = System.currentTimeMillis();
+                if (raceNotYetKnownSinceMillis == -1) {
+                    raceNotYetKnownSinceMillis = now;
+                }
+                if (timeoutInMilliseconds == -1 || now - raceNotYetKnownSinceMillis < timeoutInMilliseconds) {
+                    // keep drainScheduled set; no other task must drain the queue in the meantime
+                    workerPool.getExecutor().schedule(this::drain, RACE_NOT_YET_KNOWN_RETRY_DELAY_IN_MILLIS, TimeUnit.MILLISECONDS);
+                    return;
+                }
+                // waited long enough; let the events be handled, and most likely dropped, as getTrackedRace would do
+            }
+            raceNotYetKnownSinceMillis = -1;
+            stopped = handleQueuedEvents(/* first event */ null, workerPool.getBatchSize());
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, ""+this+" is terminating abnormally; the race will probably be left at LOADING (100%).", e);
+            stopped = true;
+            terminated.countDown();
+        }
+        drainScheduled.set(false);
+        if (!stopped) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Used by the tasks of the {@link #workerPool} to find out whether the events can be handled without having to wait
+     * for the race or its tracked race to appear. A race that isn't part of the {@link #trackedRegatta}'s regatta
+     * doesn't need to be waited for because {@link #getTrackedRace(IRace)} won't find a tracked race for it anyway.
+     */
+    private boolean isRaceOfNextEventKnown() {
+        final QueuedEvent<A, B, C> next = queue.peekFirst();
+        final IRace race = next == null || isStopEvent(next.event) ? null : getRace(next.event);
+        final boolean result;
+        if (race == null) {
+            result = true;
+        } else {
+            final RaceDefinition raceDefinition = getDomainFactory().getAndWaitForRaceDefinition(race.getId(), /* don't wait */ 0);
+            result = raceDefinition != null && (trackedRegatta.getRegatta().getRaceByName(raceDefinition.getName()) == null
+                    || trackedRegatta.getExistingTrackedRace(raceDefinition) != null);
+        }
+        return result;
+    }
+
+    /**
+     * Takes {@code firstEvent}, if not {@code null}, and up to {@code maximumNumberOfEvents} events in total from the
+     * queue and handles them up to the stop event, if any. Callbacks registered for these events are triggered
+     * afterwards. After handling a stop event, this receiver {@link #unsubscribe() unsubscribes}.
+     * 
+     * @return whether a stop event was handled
+     */
+    private boolean handleQueuedEvents(QueuedEvent<A, B, C> firstEvent, int maximumNumberOfEvents) {
+        final List<QueuedEvent<A, B, C>> batch = new ArrayList<>();
+        synchronized (loadingQueueDoneCallBacks) {
+            if (firstEvent != null) {
+                batch.add(firstEvent);
+            }
+            queue.drainTo(batch, maximumNumberOfEvents - batch.size());
+            if (!batch.isEmpty()) {
+                firstEventBeingHandled = batch.get(0);
+                lastEventBeingHandled = batch.get(batch.size()-1);
+            }
+        }
+        final List<Util.Triple<A, B, C>> events = new ArrayList<>(batch.size());
+        boolean stopped = false;
+        for (final QueuedEvent<A, B, C> queuedEvent : batch) {
+            if (isStopEvent(queuedEvent.event)) {
+                stopped = true;
+                break;
+            }
+            events.add(queuedEvent.event);
+        }
+        if (!events.isEmpty() && !hasBeenStoppedPreemptively()) {
+            handleEvents(events);
+        }
+        final Set<LoadingQueueDoneCallBack> callBacks = new HashSet<>();
+        synchronized (loadingQueueDoneCallBacks) {
+            if (getSimulator() != null) {
+                // when simulator is running, loading is considered finished and all callbacks will
+                // be satisfied instantly
+                for (Set<LoadingQueueDoneCallBack> set : loadingQueueDoneCallBacks.values()) {
+                    callBacks.addAll(set);
+                }
+                loadingQueueDoneCallBacks.clear();
+            } else {
+                // otherwise, check only if there are callbacks that registered at the events
+                // currently consumed and notify if any are found
+                for (final QueuedEvent<A, B, C> queuedEvent : batch) {
+                    final Set<LoadingQueueDoneCallBack> callBacksForEvent = loadingQueueDoneCallBacks.remove(queuedEvent);
+                    if (callBacksForEvent != null) {
+                        callBacks.addAll(callBacksForEvent);
+                    }
+                }
+            }
+            firstEventBeingHandled = null;
+            lastEventBeingHandled = null;
+        }
+        for (LoadingQueueDoneCallBack callback : callBacks) {
+            callback.loadingQueueDone(this);
+        }
+        if (stopped) {
+            unsubscribe();
+            terminated.countDown();
+        }
+        return stopped;
     }
 
     @Override
     public synchronized void join() throws InterruptedException {
         if (thread != null) {
             thread.join();
+        } else if (started) {
+            terminated.await();
         }
     }
 
@@ -214,11 +425,53 @@ public abstract class AbstractReceiverWithQueue<A, B, C> implements Runnable, Re
     public synchronized void join(long timeoutInMilliseconds) throws InterruptedException {
         if (thread != null) {
             thread.join(timeoutInMilliseconds);
+        } else if (started) {
+            terminated.await(timeoutInMilliseconds, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public Duration getLag() {
+        QueuedEvent<A, B, C> oldest = firstEventBeingHandled;
+        if (oldest == null) {
+            oldest = queue.peekFirst();
         }
+        return oldest == null ? Duration.NULL : Duration.ofMillis(Math.max(0, System.currentTimeMillis() - oldest.receivedAtMillis));
     }
 
     protected abstract void handleEvent(Util.Triple<A, B, C> event);
 
+    /**
+     * Handles a batch of events in the order received. Receivers that are {@link #isProcessedByWorkerPool() processed
+     * by a worker pool} are passed up to {@link ReceiverWorkerPool#getBatchSize()} events at a time and may redefine
+     * this method to apply them in one go, e.g., by recording all fixes for a competitor with a single call to
+     * {@link DynamicTrackedRace#recordFixes(com.sap.sailing.domain.base.Competitor, Iterable)}. This default
+     * implementation calls {@link #handleEvent(Triple)} for each event, stopping early if this receiver gets
+     * {@link #stopPreemptively() stopped preemptively}.
+     */
+    protected void handleEvents(List<Util.Triple<A, B, C>> events) {
+        for (final Util.Triple<A, B, C> event : events) {
+            if (hasBeenStoppedPreemptively()) {
+                break;
+            }
+            handleEvent(event);
+        }
+    }
+
+    /**
+     * The race to which {@code event} refers; receivers {@link #isProcessedByWorkerPool() processed by a worker pool}
+     * need to tell so that their events are handled only once the race is known. This default implementation returns
+     * {@code null}, meaning that the event can be handled right away.
+     */
+    protected IRace getRace(Util.Triple<A, B, C> event) {
+        return null;
+    }
+
     /**
      * Tries to find a {@link TrackedRace} for <code>race</code> in the {@link com.sap.sailing.domain.base.Regatta}
      * corresponding to {@link #tractracEvent}, as keyed by the {@link #domainFactory}. Waits for
@@ -227,18 +480,26 @@ public abstract class AbstractReceiverWithQueue<A, B, C> implements Runnable, Re
      * preemptively}. If the race doesn't show up under these boundary conditions, <code>null</code> is returned. If the
      * {@link RaceDefinition} for <code>race</code> is not found in the {@link com.sap.sailing.domain.base.Regatta},
      * <code>null</code> is returned. If the {@link TrackedRace} for <code>race</code> isn't found in the
-     * {@link TrackedRegatta}, <code>null</code> is returned, too.
+     * {@link TrackedRegatta}, <code>null</code> is returned, too; a receiver using a thread of its own waits for it to
+     * be created, whereas one {@link #isProcessedByWorkerPool() processed by a worker pool} doesn't, as a pool thread
+     * must never block.
      */
     protected DynamicTrackedRace getTrackedRace(IRace race) {
         DynamicTrackedRace result = null;
-        final long effectiveTimeoutInMilliseconds = timeoutInMilliseconds == -1 ? RETRY_TIMEOUT_IN_MILLIS : timeoutInMilliseconds;
         RaceDefinition raceDefinition;
-        while ((raceDefinition = getDomainFactory().getAndWaitForRaceDefinition(race.getId(), effectiveTimeoutInMilliseconds)) == null &&
-                timeoutInMilliseconds == -1 && !hasBeenStoppedPreemptively());
+        if (isProcessedByWorkerPool()) {
+            // the task draining the queue has already waited for the race; don't block a pool thread
+            raceDefinition = getDomainFactory().getAndWaitForRaceDefinition(race.getId(), /* don't wait */ 0);
+        } else {
+            final long effectiveTimeoutInMilliseconds = timeoutInMilliseconds == -1 ? RETRY_TIMEOUT_IN_MILLIS : timeoutInMilliseconds;
+            while ((raceDefinition = getDomainFactory().getAndWaitForRaceDefinition(race.getId(), effectiveTimeoutInMilliseconds)) == null &&
+                    timeoutInMilliseconds == -1 && !hasBeenStoppedPreemptively());
+        }
         if (raceDefinition != null) {
             com.sap.sailing.domain.base.Regatta domainRegatta = trackedRegatta.getRegatta();
             if (domainRegatta.getRaceByName(raceDefinition.getName()) != null) {
-                result = trackedRegatta.getTrackedRace(raceDefinition);
+                result = isProcessedByWorkerPool() ? trackedRegatta.getExistingTrackedRace(raceDefinition)
+                        : trackedRegatta.getTrackedRace(raceDefinition);
             }
         }
         return result;
@@ -250,10 +511,15 @@ public abstract class AbstractReceiverWithQueue<A, B, C> implements Runnable, Re
             // Synchronization: If the following peekLast() call returns an element that is consumed just before the
             // callback is added to loadingQueueDoneCallbacks then the callback will still be triggered because the
             // run() method also synchronizes on loadingQueueDoneCallBacks before checking for any call back to be
-            // triggered for the event just consumed. Worst case: the event is taken from the queue but not yet
-            // handled. In this case the peekLast() call will already return null and execute the loadingQueueDone(this)
-            // callback already although the event's handling has not completed yet.
-            Triple<A, B, C> lastInQueue = queue.peekLast();
+            // triggered for the event just consumed. Events taken from the queue are remembered in lastEventBeingHandled
+            // under the same monitor until they have been handled. Worst case: a receiver with a thread of its own has
+            // taken the event from the queue but not yet remembered it. In this case the callback is executed already
+            // although the event's handling has not completed yet.
+            QueuedEvent<A, B, C> lastInQueue = queue.peekLast();
+            if (lastInQueue == null) {
+                // events taken from the queue may not have been handled yet; wait for the last of them
+                lastInQueue = lastEventBeingHandled;
+            }
             // when simulator is attached, consider loading already done; the simulator simulates "live" tracking
             if (lastInQueue == null || getSimulator() != null) {
                 callback.loadingQueueDone(this);
@@ -1,11 +1,16 @@
 package com.sap.sailing.domain.tractracadapter.impl;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import com.sap.sailing.domain.base.Course;
 import com.sap.sailing.domain.base.Mark;
 import com.sap.sailing.domain.base.RaceDefinition;
 import com.sap.sailing.domain.base.Regatta;
+import com.sap.sailing.domain.common.tracking.GPSFix;
 import com.sap.sailing.domain.common.tracking.GPSFixMoving;
 import com.sap.sailing.domain.tracking.DynamicTrackedRace;
 import com.sap.sailing.domain.tracking.DynamicTrackedRegatta;
@@ -32,7 +37,11 @@ import com.tractrac.subscription.lib.api.map.IPositionedItemPositionListener;
  * As a {@link MarkPositionReceiver} requires a tracked race in order to update the mark positions received, and since a
  * {@link TrackedRace} depends on the {@link RaceDefinition} which in turn depends on having received the race course
  * description, at least a {@link RaceCourseReceiver} has to be active as well. Otherwise, the first call to
- * {@link #getTrackedRace} will block forever.
+ * {@link #getTrackedRace} will block forever.<p>
+ * 
+ * The receiver is {@link #isProcessedByWorkerPool() processed} by the shared {@link ReceiverWorkerPool} unless that
+ * has been disabled, recording the fixes received for a mark with a single
+ * {@link DynamicTrackedRace#recordFixes(Mark, Iterable)} call per batch.
  * 
  * @author Axel Uhl (d043530)
  * 
@@ -56,7 +65,8 @@ public class MarkPositionReceiver extends AbstractReceiverWithQueue<IPositionedI
     public MarkPositionReceiver(final DynamicTrackedRegatta trackedRegatta, IEvent tractracEvent,
             IRace tractracRace, Simulator simulator, final DomainFactory domainFactory, IEventSubscriber eventSubscriber,
             IRaceSubscriber raceSubscriber, long timeoutInMilliseconds) {
-        super(domainFactory, tractracEvent, trackedRegatta, simulator, eventSubscriber, raceSubscriber, timeoutInMilliseconds);
+        super(domainFactory, tractracEvent, trackedRegatta, simulator, eventSubscriber, raceSubscriber, timeoutInMilliseconds,
+                ReceiverWorkerPool.getInstance());
         // assumption: there is currently only one race per TracTrac Event object
         this.tractracRace = tractracRace;
         if (tractracEvent.getRaces().isEmpty()) {
@@ -81,8 +91,65 @@ public class MarkPositionReceiver extends AbstractReceiverWithQueue<IPositionedI
         getRaceSubscriber().unsubscribePositionedItemPositions(listener);
     }
 
+    @Override
+    protected IRace getRace(Util.Triple<IPositionedItem, IPosition, Void> event) {
+        return tractracRace;
+    }
+
+    /**
+     * Groups the fixes accepted by mark, keeping their order, and records each group in one go unless a simulator is
+     * attached, in which case each fix is scheduled separately.
+     */
+    @Override
+    protected void handleEvents(List<Util.Triple<IPositionedItem, IPosition, Void>> events) {
+        if (getSimulator() != null) {
+            super.handleEvents(events);
+        } else {
+            final Map<Mark, List<GPSFix>> fixesByMark = new LinkedHashMap<>();
+            for (final Util.Triple<IPositionedItem, IPosition, Void> event : events) {
+                if (isAccepted(event)) {
+                    fixesByMark.computeIfAbsent(getDomainFactory().getMark(event.getA()), mark -> new ArrayList<>())
+                        .add(getDomainFactory().createGPSFixMoving(event.getB()));
+                }
+            }
+            if (!fixesByMark.isEmpty()) {
+                final DynamicTrackedRace trackedRace = getTrackedRace(tractracRace);
+                if (trackedRace != null) {
+                    for (final Map.Entry<Mark, List<GPSFix>> e : fixesByMark.entrySet()) {
+                        trackedRace.recordFixes(e.getKey(), e.getValue());
+                    }
+                } else {
+                    logger.warning("Couldn't find tracked race for race " + tractracRace.getName()
+                            + ". Dropping mark position events for " + fixesByMark.keySet());
+                }
+            }
+        }
+    }
+
     @Override
     protected void handleEvent(Util.Triple<IPositionedItem, IPosition, Void> event) {
+        if (isAccepted(event)) {
+            Mark mark = getDomainFactory().getMark(event.getA());
+            DynamicTrackedRace trackedRace = getTrackedRace(tractracRace);
+            if (trackedRace != null) {
+                GPSFixMoving markPosition = getDomainFactory().createGPSFixMoving(event.getB());
+                if (getSimulator() != null) {
+                    getSimulator().scheduleMarkPosition(mark, markPosition);
+                } else {
+                    trackedRace.recordFix(mark, markPosition);
+                }
+            } else {
+                logger.warning("Couldn't find tracked race for race " + tractracRace.getName()
+                        + ". Dropping mark position event " + event);
+            }
+        }
+    }
+
+    /**
+     * Tells whether the mark position is to be recorded for {@link #tractracRace}, counting the events accepted and
+     * ensuring that the single marks of the race's course area exist once the first event has been accepted
+     */
+    private boolean isAccepted(Util.Triple<IPositionedItem, IPosition, Void> event) {
         /* bug 5919 (https://bugzilla.sapsailing.com/bugzilla/show_bug.cgi?id=5919)
          * 
          * TracTrac has re-keyed all mark IDs from old events.
@@ -108,19 +175,8 @@ public class MarkPositionReceiver extends AbstractReceiverWithQueue<IPositionedI
                 singleMarksEnsuredAlready = true;
                 ensureAllSingleMarksOfCourseAreaAreCreated(tractracRace);
             }
-            Mark mark = getDomainFactory().getMark(event.getA());
-            DynamicTrackedRace trackedRace = getTrackedRace(tractracRace);
-            if (trackedRace != null) {
-                GPSFixMoving markPosition = getDomainFactory().createGPSFixMoving(event.getB());
-                if (getSimulator() != null) {
-                    getSimulator().scheduleMarkPosition(mark, markPosition);
-                } else {
-                    trackedRace.recordFix(mark, markPosition);
-                }
-            } else {
-                logger.warning("Couldn't find tracked race for race " + tractracRace.getName()
-                        + ". Dropping mark position event " + event);
-            }
+            return true;
         }
+        return false;
     }
 }
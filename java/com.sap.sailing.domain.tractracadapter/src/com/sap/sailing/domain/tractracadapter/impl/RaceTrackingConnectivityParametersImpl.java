@@ -193,6 +193,11 @@ public class RaceTrackingConnectivityParametersImpl extends AbstractRaceTracking
         return endOfTracking;
     }
 
+    @Override
+    public TimePoint getTimePointForRestorePriority() {
+        return endOfTracking != null ? endOfTracking : startOfTracking;
+    }
+
     public Duration getOffsetToStartTimeOfSimulatedRace() {
         return offsetToStartTimeOfSimulatedRace;
     }
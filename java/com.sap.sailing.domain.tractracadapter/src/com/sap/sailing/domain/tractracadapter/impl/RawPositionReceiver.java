@@ -1,5 +1,10 @@
 package com.sap.sailing.domain.tractracadapter.impl;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.logging.Logger;
 
 import com.sap.sailing.domain.base.Competitor;
@@ -7,6 +12,7 @@ import com.sap.sailing.domain.common.tracking.GPSFixMoving;
 import com.sap.sailing.domain.tracking.DynamicTrackedRace;
 import com.sap.sailing.domain.tracking.DynamicTrackedRegatta;
 import com.sap.sailing.domain.tractracadapter.DomainFactory;
+import com.sap.sse.common.Util.Pair;
 import com.sap.sse.common.Util.Triple;
 import com.tractrac.model.lib.api.data.IPosition;
 import com.tractrac.model.lib.api.event.IEvent;
@@ -16,6 +22,11 @@ import com.tractrac.subscription.lib.api.IEventSubscriber;
 import com.tractrac.subscription.lib.api.IRaceSubscriber;
 import com.tractrac.subscription.lib.api.competitor.IPositionListener;
 
+/**
+ * Receives the competitors' positions. The receiver is {@link #isProcessedByWorkerPool() processed} by the shared
+ * {@link ReceiverWorkerPool} unless that has been disabled, recording the fixes received for a competitor with a
+ * single {@link DynamicTrackedRace#recordFixes(Competitor, Iterable)} call per batch.
+ */
 public class RawPositionReceiver extends AbstractReceiverWithQueue<IRaceCompetitor, IPosition, Void> {
     private static final Logger logger = Logger.getLogger(RawPositionReceiver.class.getName());
 
@@ -26,7 +37,8 @@ public class RawPositionReceiver extends AbstractReceiverWithQueue<IRaceCompetit
     public RawPositionReceiver(DynamicTrackedRegatta trackedRegatta, IEvent tractracEvent,
             DomainFactory domainFactory, Simulator simulator, IEventSubscriber eventSubscriber,
             IRaceSubscriber raceSubscriber, long timeoutInMilliseconds) {
-        super(domainFactory, tractracEvent, trackedRegatta, simulator, eventSubscriber, raceSubscriber, timeoutInMilliseconds);
+        super(domainFactory, tractracEvent, trackedRegatta, simulator, eventSubscriber, raceSubscriber, timeoutInMilliseconds,
+                ReceiverWorkerPool.getInstance());
         listener = new IPositionListener() {
             @Override
             public void gotPosition(IRaceCompetitor controlPoint, IPosition position) {
@@ -46,15 +58,58 @@ public class RawPositionReceiver extends AbstractReceiverWithQueue<IRaceCompetit
         getRaceSubscriber().unsubscribePositions(listener);
     }
 
+    private void countReceived() {
+        if (received++ % 1000 == 0) {
+            System.out.print("P");
+            if ((received / 1000 + 1) % 80 == 0) {
+                System.out.println();
+            }
+        }
+    }
+
     @Override
-    protected void handleEvent(Triple<IRaceCompetitor, IPosition, Void> event) {
-        if (!event.getA().getCompetitor().isNonCompeting()) {
-            if (received++ % 1000 == 0) {
-                System.out.print("P");
-                if ((received / 1000 + 1) % 80 == 0) {
-                    System.out.println();
+    protected IRace getRace(Triple<IRaceCompetitor, IPosition, Void> event) {
+        return event.getA().getRace();
+    }
+
+    /**
+     * Groups the fixes by race and competitor, keeping their order, and records each group in one go unless a
+     * simulator is attached, in which case each fix is scheduled separately.
+     */
+    @Override
+    protected void handleEvents(List<Triple<IRaceCompetitor, IPosition, Void>> events) {
+        if (getSimulator() != null) {
+            super.handleEvents(events);
+        } else {
+            final Map<UUID, IRace> racesById = new LinkedHashMap<>();
+            final Map<Pair<UUID, Competitor>, List<GPSFixMoving>> fixesByRaceIdAndCompetitor = new LinkedHashMap<>();
+            for (final Triple<IRaceCompetitor, IPosition, Void> event : events) {
+                if (!event.getA().getCompetitor().isNonCompeting()) {
+                    countReceived();
+                    final IRace race = event.getA().getRace();
+                    racesById.putIfAbsent(race.getId(), race);
+                    final Competitor competitor = getDomainFactory().resolveCompetitor(event.getA().getCompetitor());
+                    fixesByRaceIdAndCompetitor.computeIfAbsent(new Pair<>(race.getId(), competitor), key -> new ArrayList<>())
+                        .add(getDomainFactory().createGPSFixMoving(event.getB()));
                 }
             }
+            for (final Map.Entry<Pair<UUID, Competitor>, List<GPSFixMoving>> e : fixesByRaceIdAndCompetitor.entrySet()) {
+                final IRace race = racesById.get(e.getKey().getA());
+                final DynamicTrackedRace trackedRace = getTrackedRace(race);
+                if (trackedRace != null) {
+                    trackedRace.recordFixes(e.getKey().getB(), e.getValue());
+                } else {
+                    logger.warning("Couldn't find tracked race for race " + race.getName()
+                            + ". Dropping " + e.getValue().size() + " raw position events for " + e.getKey().getB());
+                }
+            }
+        }
+    }
+
+    @Override
+    protected void handleEvent(Triple<IRaceCompetitor, IPosition, Void> event) {
+        if (!event.getA().getCompetitor().isNonCompeting()) {
+            countReceived();
             IRace race = event.getA().getRace();
             DynamicTrackedRace trackedRace = getTrackedRace(race);
             if (trackedRace != null) {
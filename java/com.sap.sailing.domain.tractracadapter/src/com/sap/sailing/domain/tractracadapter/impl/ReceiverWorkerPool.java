@@ -0,0 +1,73 @@
+package com.sap.sailing.domain.tractracadapter.impl;
+
+import java.util.concurrent.ScheduledExecutorService;
+
+import com.sap.sse.util.ThreadPoolUtil;
+
+/**
+ * A thread pool shared by the high-volume receivers of all races tracked through TracTrac, such as the
+ * {@link RawPositionReceiver}, the {@link MarkPositionReceiver} and the {@link SensorDataReceiver}. Instead of blocking
+ * a dedicated thread per receiver and race, such receivers {@link AbstractReceiverWithQueue#isProcessedByWorkerPool()
+ * use} a task of this pool to drain their queue in batches of up to {@link #getBatchSize()} events whenever events
+ * are pending. At most one such task runs for a receiver at any time, so the events of a receiver, and hence the fixes
+ * of each competitor and mark, are handled in the order received.
+ * <p>
+ *
+ * The pool size can be configured using the system property {@link #POOL_SIZE_SYSTEM_PROPERTY_NAME}; it defaults to
+ * the {@link ThreadPoolUtil#getReasonableThreadPoolSize() reasonable thread pool size}. A size of {@code 0} disables
+ * the pool, making each receiver use its own thread again. The batch size can be configured using
+ * {@link #BATCH_SIZE_SYSTEM_PROPERTY_NAME}.
+ */
+public class ReceiverWorkerPool {
+    /**
+     * The name of the system property that specifies the number of threads of the shared receiver worker pool;
+     * {@code 0} makes each receiver use a dedicated thread.
+     */
+    public static final String POOL_SIZE_SYSTEM_PROPERTY_NAME = "tractrac.receiverWorkerPoolSize";
+
+    /**
+     * The name of the system property that specifies the maximum number of events a receiver handles in one go
+     * before giving other receivers a chance to use the worker thread. Defaults to {@link #DEFAULT_BATCH_SIZE}.
+     */
+    public static final String BATCH_SIZE_SYSTEM_PROPERTY_NAME = "tractrac.receiverBatchSize";
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private static ReceiverWorkerPool instance;
+
+    private final ScheduledExecutorService executor;
+
+    private final int batchSize;
+
+    ReceiverWorkerPool(ScheduledExecutorService executor, int batchSize) {
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return the pool shared by all receivers, created upon first request, or {@code null} if the pool has been
+     *         disabled by setting the {@link #POOL_SIZE_SYSTEM_PROPERTY_NAME pool size} to {@code 0}
+     */
+    public static synchronized ReceiverWorkerPool getInstance() {
+        if (instance == null) {
+            final int poolSize = Integer.getInteger(POOL_SIZE_SYSTEM_PROPERTY_NAME, ThreadPoolUtil.INSTANCE.getReasonableThreadPoolSize());
+            if (poolSize > 0) {
+                instance = new ReceiverWorkerPool(
+                        ThreadPoolUtil.INSTANCE.createForegroundTaskThreadPoolExecutor(poolSize, "TracTrac receiver worker pool"),
+                        Math.max(1, Integer.getInteger(BATCH_SIZE_SYSTEM_PROPERTY_NAME, DEFAULT_BATCH_SIZE)));
+            }
+        }
+        return instance;
+    }
+
+    ScheduledExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return the maximum number of queued events a receiver handles in one task
+     */
+    int getBatchSize() {
+        return batchSize;
+    }
+}
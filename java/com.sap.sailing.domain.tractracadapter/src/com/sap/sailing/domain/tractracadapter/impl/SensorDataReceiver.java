@@ -24,7 +24,8 @@ import com.tractrac.subscription.lib.api.IRaceSubscriber;
 import com.tractrac.subscription.lib.api.competitor.ICompetitorSensorDataListener;
 
 /**
- * Subscribes for sensor data other than GPS.
+ * Subscribes for sensor data other than GPS. The receiver is {@link #isProcessedByWorkerPool() processed} by the
+ * shared {@link ReceiverWorkerPool} unless that has been disabled.
  * 
  * @author Axel Uhl (d043530)
  * 
@@ -37,7 +38,8 @@ public class SensorDataReceiver extends AbstractReceiverWithQueue<IRaceCompetito
     public SensorDataReceiver(DynamicTrackedRegatta trackedRegatta, IEvent tractracEvent,
             Simulator simulator, DomainFactory domainFactory, IEventSubscriber eventSubscriber,
             IRaceSubscriber raceSubscriber, long timeoutInMilliseconds) {
-        super(domainFactory, tractracEvent, trackedRegatta, simulator, eventSubscriber, raceSubscriber, timeoutInMilliseconds);
+        super(domainFactory, tractracEvent, trackedRegatta, simulator, eventSubscriber, raceSubscriber, timeoutInMilliseconds,
+                ReceiverWorkerPool.getInstance());
         listener = new ICompetitorSensorDataListener() {
             @Override
             public void gotSensorData(IRaceCompetitor raceCompetitor, ISensorData sensorData) {
@@ -57,6 +59,11 @@ public class SensorDataReceiver extends AbstractReceiverWithQueue<IRaceCompetito
         getRaceSubscriber().unsubscribeCompetitorSensorData(listener);
     }
 
+    @Override
+    protected IRace getRace(Triple<IRaceCompetitor, ISensorData, Void> event) {
+        return event.getA().getRace();
+    }
+
     /**
      * Looks for valid, non-{@code null} components for ride height port/starboard, heel and trim
      * in the {@link ISensorData} object. All those values are copied into a {@link BravoFix} and
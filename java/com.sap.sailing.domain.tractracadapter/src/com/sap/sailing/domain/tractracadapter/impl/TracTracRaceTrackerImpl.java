@@ -578,6 +578,27 @@ public class TracTracRaceTrackerImpl extends AbstractRaceTrackerImpl<RaceTrackin
         return race;
     }
     
+    @Override
+    public int getNumberOfQueuedEvents() {
+        int result = 0;
+        for (final Receiver receiver : receivers) {
+            result += receiver.getQueueSize();
+        }
+        return result;
+    }
+
+    @Override
+    public Duration getLag() {
+        Duration result = Duration.NULL;
+        for (final Receiver receiver : receivers) {
+            final Duration lag = receiver.getLag();
+            if (lag.compareTo(result) > 0) {
+                result = lag;
+            }
+        }
+        return result;
+    }
+
     protected void addListenersForStoredDataAndStartController(Iterable<Receiver> listenersForStoredData) {
         for (Receiver receiver : listenersForStoredData) {
             receiver.subscribe();
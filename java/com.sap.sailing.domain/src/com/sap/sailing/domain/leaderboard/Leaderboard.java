@@ -34,6 +34,7 @@ import com.sap.sailing.domain.common.security.SecuredDomainType;
 import com.sap.sailing.domain.common.tracking.GPSFixMoving;
 import com.sap.sailing.domain.leaderboard.caching.LeaderboardDTOCache;
 import com.sap.sailing.domain.leaderboard.caching.LeaderboardDTOCalculationReuseCache;
+import com.sap.sailing.domain.leaderboard.caching.LiveLeaderboardUpdateListener;
 import com.sap.sailing.domain.leaderboard.caching.LiveLeaderboardUpdater;
 import com.sap.sailing.domain.tracking.TrackedRace;
 import com.sap.sailing.domain.tracking.TrackedRegattaRegistry;
@@ -747,6 +748,18 @@ public interface Leaderboard extends LeaderboardBase, HasRaceColumns, HasCPUMete
             boolean addOverallDetails, TrackedRegattaRegistry trackedRegattaRegistry, DomainFactory baseDomainFactory, boolean fillTotalPointsUncorrected) throws NoWindException,
             InterruptedException, ExecutionException;
 
+    /**
+     * Registers {@code listener} with this leaderboard's {@link LiveLeaderboardUpdater} which keeps computing the live
+     * leaderboard with the details requested and passes each result to the listener until the listener is
+     * {@link #removeLiveLeaderboardUpdateListener(LiveLeaderboardUpdateListener) removed}. The results are the same
+     * objects that {@link #getLeaderboardDTO} returns for live requests.
+     */
+    void addLiveLeaderboardUpdateListener(LiveLeaderboardUpdateListener listener,
+            Collection<String> namesOfRaceColumnsForWhichToLoadLegDetails, boolean addOverallDetails,
+            TrackedRegattaRegistry trackedRegattaRegistry, DomainFactory baseDomainFactory);
+
+    void removeLiveLeaderboardUpdateListener(LiveLeaderboardUpdateListener listener);
+
     NumberOfCompetitorsInLeaderboardFetcher getNumberOfCompetitorsInLeaderboardFetcher();
 
     /**
@@ -2,11 +2,7 @@ package com.sap.sailing.domain.leaderboard.caching;
 
 import java.util.Collection;
 import java.util.Date;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.FutureTask;
 import java.util.logging.Logger;
 
 import com.sap.sailing.domain.base.DomainFactory;
@@ -20,10 +16,6 @@ import com.sap.sailing.domain.leaderboard.ScoreCorrectionListener;
 import com.sap.sailing.domain.tracking.RaceChangeListener;
 import com.sap.sailing.domain.tracking.TrackedRegattaRegistry;
 import com.sap.sse.common.TimePoint;
-import com.sap.sse.common.Util;
-import com.sap.sse.concurrent.LockUtil;
-import com.sap.sse.concurrent.NamedReentrantReadWriteLock;
-import com.sap.sse.util.impl.FutureTaskWithTracingGet;
 
 /**
  * Caches the expensive to compute {@link LeaderboardDTO} results of a
@@ -33,6 +25,10 @@ import com.sap.sse.util.impl.FutureTaskWithTracingGet;
  * this cache holds one or more {@link LeaderboardDTO}s changes, the cache entries for that leaderboard are removed. Also,
  * when the {@link ScoreCorrection}s of a leaderboard change, a {@link ScoreCorrectionListener} that is registered will be
  * notified and removes the leaderboard's cache entries from this cache.
+ * <p>
+ * 
+ * The entries are held by the server-wide {@link SharedLeaderboardDTOCache} which evicts entries across all
+ * leaderboards based on a common memory budget and quantizes the requested time points.
  * 
  * @author Axel Uhl (D043530)
  * 
@@ -45,14 +41,11 @@ public class LeaderboardDTOCache implements LeaderboardCache {
      * bottleneck. When two clients ask the same data for the same leaderboard with their
      * <code>waitForLatestAnalyses</code> parameters set to <code>false</code>, expansion state and (quantized) time
      * stamp, no two computations should be spawned for the two clients. Instead, if the computation is still running,
-     * all clients asking the same wait for the single result. Results are cached in this LRU-based evicting cache. The key is
-     * the time point for the query, the names of the races for which details are requested and the flag telling
-     * whether overall details for the leaderboard are requested.
+     * all clients asking the same wait for the single result. Results are cached in this shared cache whose entries for
+     * this leaderboard are keyed by the time point for the query, the names of the races for which details are requested
+     * and the flag telling whether overall details for the leaderboard are requested.
      */
-    private final Map<Util.Triple<TimePoint, Collection<String>, Boolean>, FutureTask<LeaderboardDTO>> leaderboardCache;
-    private final NamedReentrantReadWriteLock leaderboardCacheLock;
-    private int leaderboardByNameCacheHitCount;
-    private int leaderboardByNameCacheMissCount;
+    private final SharedLeaderboardDTOCache sharedCache;
     
     /**
      * Tells if leaderboard computations shall wait for long-running analyses to complete or if they instead use the
@@ -66,39 +59,39 @@ public class LeaderboardDTOCache implements LeaderboardCache {
     private final Leaderboard leaderboard;
     
     public LeaderboardDTOCache(boolean waitForLatestAnalyses, Leaderboard leaderboard) {
+        this(waitForLatestAnalyses, leaderboard, SharedLeaderboardDTOCache.getInstance());
+    }
+    
+    public LeaderboardDTOCache(boolean waitForLatestAnalyses, Leaderboard leaderboard, SharedLeaderboardDTOCache sharedCache) {
         this.leaderboard = leaderboard;
         this.waitForLatestAnalyses = waitForLatestAnalyses;
-        // Note: don't use access-based ordering as it turns the get(...) call into a "write" access
-        this.leaderboardCache = new LinkedHashMap<Util.Triple<TimePoint, Collection<String>, Boolean>, FutureTask<LeaderboardDTO>>(16, 0.75f) {
-            private static final long serialVersionUID = 7287916997229815039L;
-            @Override
-            protected boolean removeEldestEntry(Map.Entry<Util.Triple<TimePoint, Collection<String>, Boolean>, FutureTask<LeaderboardDTO>> e) {
-                return size() > 10; // remember 10 LeaderboardDTOs per leaderboard
-            }
-        };
-        leaderboardCacheLock = new NamedReentrantReadWriteLock("leaderboardCacheLock for "+leaderboard.getName(), /* fair */ false);
+        this.sharedCache = sharedCache;
         this.leaderboardCacheManager = new LeaderboardCacheManager(this);
     }
     
     @Override
     public void invalidate(Leaderboard leaderboard) {
-        LockUtil.lockForWrite(leaderboardCacheLock);
-        try {
-            leaderboardCache.clear();
-        } finally {
-            LockUtil.unlockAfterWrite(leaderboardCacheLock);
-        }
+        sharedCache.invalidate(this);
     }
     
     @Override
     public void add(Leaderboard leaderboard) {}
+
+    /**
+     * Removes the entries of this cache from the {@link SharedLeaderboardDTOCache}, which otherwise would keep
+     * referencing this cache and its leaderboard; to be called when the leaderboard is removed.
+     */
+    public void destroy() {
+        sharedCache.removeOwner(this);
+    }
     
     /**
      * If the cache holds entries for the <code>leaderboard</code> requested, compare <code>timePoint</code> to the
      * {@link #getLatestModification latest modification} affecting the <code>leaderboard</code>. If
      * <code>timePoint</code> is after that time, adjust it to the {@link #getLatestModification latest modification
      * time} for cache lookup and computation. This will increase chances that a subsequent request will achieve a cache
-     * hit.
+     * hit. Otherwise, the time point is {@link SharedLeaderboardDTOCache#quantize(TimePoint) quantized} for the same
+     * reason.
      * <p>
      * 
      * The {@link #waitForLatestAnalyses} field is passed on to
@@ -118,12 +111,8 @@ public class LeaderboardDTOCache implements LeaderboardCache {
             adjustedTimePoint = timePointOfLastModification; 
             logger.fine("Adjusted time point in getLeaderboardByName from "+timePoint+" to "+adjustedTimePoint);
         } else {
-            adjustedTimePoint = timePoint;
+            adjustedTimePoint = sharedCache.quantize(timePoint);
         }
-        Util.Triple<TimePoint, Collection<String>, Boolean> key = new Util.Triple<TimePoint, Collection<String>, Boolean>(adjustedTimePoint,
-                namesOfRaceColumnsForWhichToLoadLegDetails, addOverallDetails);
-        FutureTask<LeaderboardDTO> future = null;
-        boolean cacheHit = false;
         /*
          * Waiting for latest analyzes results largely regards wind estimation and maneuver cache; see SmartFutureCache.
          * Even if waitForLatestAnalysis is requested, it is OK to cache. The cache would be invalidated when the race
@@ -134,43 +123,13 @@ public class LeaderboardDTOCache implements LeaderboardCache {
          * LeaderboardDTOCache. Therefore, it's okay to re-use the LeaderboardDTOCache match even if the latest analysis
          * results are requested.
          */
-        LockUtil.lockForRead(leaderboardCacheLock);
-        try {
-            future = leaderboardCache.get(key);
-        } finally {
-            LockUtil.unlockAfterRead(leaderboardCacheLock);
-        }
-        if (future == null) {
-            future = new FutureTaskWithTracingGet<LeaderboardDTO>(LeaderboardDTOCache.class.getName()+" for leaderboard "+leaderboard.getName(),
-                    new Callable<LeaderboardDTO>() {
-                        @Override
-                        public LeaderboardDTO call() throws Exception {
-                            LeaderboardDTO result = leaderboard.computeDTO(adjustedTimePoint,
-                                    namesOfRaceColumnsForWhichToLoadLegDetails, addOverallDetails,
-                                    waitForLatestAnalyses, trackedRegattaRegistry, baseDomainFactory, /* fillTotalPointsUncorrected */ false);
-                            return result;
-                        }
-                    });
-            // The add(Leaderboard) method that the cache manager calls back on this class does nothing, so no synchronization required
-            this.leaderboardCacheManager.add(leaderboard); // ensure the leaderboard is tracked for changes to invalidate
-            LockUtil.lockForWrite(leaderboardCacheLock);
-            try {
-                leaderboardCache.put(key, future);
-            } finally {
-                LockUtil.unlockAfterWrite(leaderboardCacheLock);
-            }
-            future.run(); // execute in calling thread as it is fetched a few instructions later using future.get() anyway
-        } else {
-            cacheHit = true;
-        }
-        if (cacheHit) {
-            leaderboardByNameCacheHitCount++;
-            logger.info("Cache hit in getLeaderboardByName("+leaderboard.getName()+", "+adjustedTimePoint+", "+namesOfRaceColumnsForWhichToLoadLegDetails+")");
-        } else {
-            leaderboardByNameCacheMissCount++;
-        }
-        logger.info("getLeaderboardByName cache hit vs. miss: "+leaderboardByNameCacheHitCount+"/"+leaderboardByNameCacheMissCount);
-        final LeaderboardDTO result = future.get();
+        // The add(Leaderboard) method that the cache manager calls back on this class does nothing, so no synchronization required
+        this.leaderboardCacheManager.add(leaderboard); // ensure the leaderboard is tracked for changes to invalidate
+        final LeaderboardDTO result = sharedCache.get(this, adjustedTimePoint, namesOfRaceColumnsForWhichToLoadLegDetails,
+                addOverallDetails, LeaderboardDTOCache.class.getName()+" for leaderboard "+leaderboard.getName(),
+                () -> leaderboard.computeDTO(adjustedTimePoint, namesOfRaceColumnsForWhichToLoadLegDetails,
+                        addOverallDetails, waitForLatestAnalyses, trackedRegattaRegistry, baseDomainFactory,
+                        /* fillTotalPointsUncorrected */ false));
         logger.fine("getLeaderboardByName("+leaderboard.getName()+", "+adjustedTimePoint+", "+namesOfRaceColumnsForWhichToLoadLegDetails+") took "+
                 (System.currentTimeMillis()-startOfRequestHandling)+"ms");
         return result;
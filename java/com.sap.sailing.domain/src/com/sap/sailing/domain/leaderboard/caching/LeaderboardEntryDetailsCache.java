@@ -0,0 +1,201 @@
+package com.sap.sailing.domain.leaderboard.caching;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.common.dto.LeaderboardEntryDTO;
+import com.sap.sailing.domain.leaderboard.Leaderboard;
+import com.sap.sailing.domain.tracking.RaceChangeListener;
+import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sailing.domain.tracking.impl.AbstractRaceChangeListener;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.Util;
+
+/**
+ * Remembers the race details of the {@link LeaderboardEntryDTO}s computed for the competitors of each
+ * {@link TrackedRace} of a {@link Leaderboard}, so that a subsequent
+ * {@link Leaderboard#computeDTO(TimePoint, Collection, boolean, boolean, com.sap.sailing.domain.tracking.TrackedRegattaRegistry, com.sap.sailing.domain.base.DomainFactory, boolean)
+ * leaderboard computation} only needs to re-compute the details of the races that have changed. The race details are
+ * the expensive parts of an entry that depend on the tracking data only, such as the leg details, the cross track
+ * errors and the start analysis. The scores, including corrections and discards, are not kept here; they are computed
+ * for each leaderboard computation.
+ * <p>
+ *
+ * The details of a race are keyed by a {@link Fingerprint} of their inputs: the race's {@link TrackedRace#getUpdateCount()
+ * update count}, the time point for which they were computed and whether the computation waited for the latest
+ * analyses. When a leaderboard computation {@link #getDetails(TrackedRace, Fingerprint) asks} for the details of a
+ * race with a different fingerprint, the details remembered so far are dropped. After the
+ * {@link TrackedRace#getEndOfTracking() end of tracking}, the race details are considered final, just like those
+ * cached for the end of tracking by the leaderboard itself, so all time points after the end of tracking share the same
+ * fingerprint.
+ * <p>
+ *
+ * Not all changes of a race are reflected by its update count; course changes, for example, are not. Therefore, the
+ * details of a race are additionally dropped as soon as the race {@link RaceChangeListener notifies} about any change,
+ * much like the leaderboard's own cache invalidation does it.
+ * <p>
+ *
+ * This class is thread-safe.
+ */
+public class LeaderboardEntryDetailsCache {
+    /**
+     * Describes the inputs of the race details computed for a {@link TrackedRace}
+     */
+    public static class Fingerprint {
+        private final long updateCount;
+        private final TimePoint timePoint;
+        private final boolean waitForLatestAnalyses;
+
+        public Fingerprint(long updateCount, TimePoint timePoint, boolean waitForLatestAnalyses) {
+            this.updateCount = updateCount;
+            this.timePoint = timePoint;
+            this.waitForLatestAnalyses = waitForLatestAnalyses;
+        }
+
+        /**
+         * Fetches the current {@link TrackedRace#getUpdateCount() update count} of the {@code trackedRace} and maps
+         * {@code timePoint} to the {@link TrackedRace#getEndOfTracking() end of tracking} if it is later.
+         */
+        public static Fingerprint of(TrackedRace trackedRace, TimePoint timePoint, boolean waitForLatestAnalyses) {
+            final long updateCount = trackedRace.getUpdateCount();
+            final TimePoint endOfTracking = trackedRace.getEndOfTracking();
+            return new Fingerprint(updateCount,
+                    endOfTracking != null && endOfTracking.before(timePoint) ? endOfTracking : timePoint,
+                    waitForLatestAnalyses);
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + ((timePoint == null) ? 0 : timePoint.hashCode());
+            result = prime * result + (int) (updateCount ^ (updateCount >>> 32));
+            result = prime * result + (waitForLatestAnalyses ? 1231 : 1237);
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            final Fingerprint other = (Fingerprint) obj;
+            return updateCount == other.updateCount && waitForLatestAnalyses == other.waitForLatestAnalyses
+                    && Util.equalsWithNull(timePoint, other.timePoint);
+        }
+
+        @Override
+        public String toString() {
+            return "[updateCount=" + updateCount + ", timePoint=" + timePoint + ", waitForLatestAnalyses="
+                    + waitForLatestAnalyses + "]";
+        }
+    }
+
+    /**
+     * Listens on the race whose details it holds and drops itself from the cache upon the first change notification
+     */
+    private class DetailsOfRace extends AbstractRaceChangeListener {
+        private final TrackedRace trackedRace;
+        private final Fingerprint fingerprint;
+        private final ConcurrentMap<Competitor, LeaderboardEntryDTO> entriesByCompetitor;
+
+        DetailsOfRace(TrackedRace trackedRace, Fingerprint fingerprint) {
+            this.trackedRace = trackedRace;
+            this.fingerprint = fingerprint;
+            this.entriesByCompetitor = new ConcurrentHashMap<>();
+        }
+
+        @Override
+        protected void defaultAction() {
+            detailsByRace.remove(trackedRace, this);
+            trackedRace.removeListener(this);
+        }
+    }
+
+    private final ConcurrentMap<TrackedRace, DetailsOfRace> detailsByRace;
+
+    private final AtomicLong reuseCount;
+
+    private final AtomicLong recomputationCount;
+
+    public LeaderboardEntryDetailsCache() {
+        this.detailsByRace = new ConcurrentHashMap<>();
+        this.reuseCount = new AtomicLong();
+        this.recomputationCount = new AtomicLong();
+    }
+
+    /**
+     * Returns the entries whose race details have been computed for {@code trackedRace} with inputs matching the
+     * {@code fingerprint}, keyed by competitor. If the details remembered for the race have a different fingerprint,
+     * they are replaced by an empty map for the new fingerprint. Entries computed for the fingerprint are to be added
+     * to the map returned; their race detail fields must not be modified afterwards.
+     */
+    public ConcurrentMap<Competitor, LeaderboardEntryDTO> getDetails(TrackedRace trackedRace, Fingerprint fingerprint) {
+        final DetailsOfRace existing = detailsByRace.get(trackedRace);
+        final DetailsOfRace result;
+        if (existing != null && existing.fingerprint.equals(fingerprint)) {
+            reuseCount.incrementAndGet();
+            result = existing;
+        } else {
+            recomputationCount.incrementAndGet();
+            result = new DetailsOfRace(trackedRace, fingerprint);
+            // listen before publishing so that no change of the race can get lost
+            trackedRace.addListener(result);
+            final DetailsOfRace replaced = detailsByRace.put(trackedRace, result);
+            if (replaced != null) {
+                trackedRace.removeListener(replaced);
+            }
+        }
+        return result.entriesByCompetitor;
+    }
+
+    /**
+     * Forgets the details of all races other than the ones given, e.g., after races have been detached from the
+     * leaderboard.
+     */
+    public void retainAll(Iterable<TrackedRace> trackedRaces) {
+        final Collection<TrackedRace> toRetain = Util.asSet(trackedRaces);
+        for (final DetailsOfRace details : detailsByRace.values()) {
+            if (!toRetain.contains(details.trackedRace)) {
+                details.defaultAction();
+            }
+        }
+    }
+
+    /**
+     * Forgets the details of all races and detaches the listeners registered on the races for them, so that the races
+     * don't keep referencing this cache; to be called, e.g., when the leaderboard is removed.
+     */
+    public void clear() {
+        for (final DetailsOfRace details : detailsByRace.values()) {
+            detailsByRace.remove(details.trackedRace, details);
+            details.trackedRace.removeListener(details);
+        }
+    }
+
+    /**
+     * @return the number of races for which details are remembered and listeners are registered
+     */
+    public int getNumberOfRaces() {
+        return detailsByRace.size();
+    }
+
+    /**
+     * @return how often the details of a race could be reused by {@link #getDetails(TrackedRace, Fingerprint)}
+     */
+    public long getReuseCount() {
+        return reuseCount.get();
+    }
+
+    /**
+     * @return how often the details of a race had to be re-computed because nothing or details with a different
+     *         fingerprint were remembered
+     */
+    public long getRecomputationCount() {
+        return recomputationCount.get();
+    }
+}
@@ -0,0 +1,22 @@
+package com.sap.sailing.domain.leaderboard.caching;
+
+import com.sap.sailing.domain.common.dto.LeaderboardDTO;
+
+/**
+ * Notified by a {@link LiveLeaderboardUpdater} each time it has computed a new live leaderboard. Registering a
+ * listener keeps the updater running, so listeners receive one update per updater cycle without having to poll.
+ */
+public interface LiveLeaderboardUpdateListener {
+    /**
+     * Called on the updater's thread; implementations shall return quickly and must not modify {@code leaderboard}
+     * because the same object is handed out to all clients of the updater.
+     */
+    void liveLeaderboardUpdated(LeaderboardDTO leaderboard);
+
+    /**
+     * Called once when the leaderboard has been removed; the listener has already been removed from the updater and
+     * won't receive any further updates.
+     */
+    default void leaderboardRemoved() {
+    }
+}
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -17,6 +18,7 @@ import com.sap.sailing.domain.leaderboard.Leaderboard;
 import com.sap.sailing.domain.sharding.ShardingContext;
 import com.sap.sailing.domain.tracking.TrackedRegattaRegistry;
 import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.Util.Pair;
 import com.sap.sse.common.impl.MillisecondsTimePoint;
 
 /**
@@ -39,6 +41,11 @@ import com.sap.sse.common.impl.MillisecondsTimePoint;
  * leaderboard for which this updater is responsible has been received. Then it terminates in a "synchronized way." It can
  * be re-activated. Re-activating it works using the same synchronization facility so that no two threads for this updater
  * are running at the same time.
+ * <p>
+ * 
+ * {@link LiveLeaderboardUpdateListener Listeners} can be {@link #addListener added} to be notified about each new
+ * result. While at least one listener is registered, the listener's requests are renewed on each cycle, so the updater
+ * doesn't time out.
  * 
  * @author Axel Uhl (D043530)
  *
@@ -121,6 +128,18 @@ public class LiveLeaderboardUpdater implements Runnable {
     private TrackedRegattaRegistry trackedRegattaRegistry;
 
     private DomainFactory baseDomainFactory;
+
+    /**
+     * The listeners to notify about each new result, with the column names for which each listener wants the details
+     * and whether it wants the overall details
+     */
+    private final Map<LiveLeaderboardUpdateListener, Pair<Collection<String>, Boolean>> listeners;
+
+    /**
+     * Set by {@link #removeAllListeners()} when the leaderboard has been removed; listeners added later are not
+     * registered anymore. Only accessed while holding this object's monitor.
+     */
+    private boolean leaderboardRemoved;
     
     public LiveLeaderboardUpdater(Leaderboard leaderboard, TrackedRegattaRegistry trackedRegattaRegistry, DomainFactory baseDomainFactory) {
         this.leaderboard = leaderboard;
@@ -128,6 +147,57 @@ public class LiveLeaderboardUpdater implements Runnable {
         this.baseDomainFactory = baseDomainFactory;
         this.timePointOfLastRequestForColumnDetails = new HashMap<String, TimePoint>();
         this.columnNamesForWhichCurrentLiveLeaderboardHasTheDetails = new HashSet<String>();
+        this.listeners = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Registers a listener to be notified about each new live leaderboard computed, and makes sure the updater is
+     * running. The updater will keep computing the details of the columns named by
+     * {@code namesOfRaceColumnsForWhichToLoadLegDetails}, and the overall details if {@code addOverallDetails}, until
+     * the listener is {@link #removeListener removed}. If the listener was already registered, its requested details
+     * are replaced.
+     */
+    public void addListener(LiveLeaderboardUpdateListener listener,
+            Collection<String> namesOfRaceColumnsForWhichToLoadLegDetails, boolean addOverallDetails) {
+        final boolean added;
+        synchronized (this) {
+            added = !leaderboardRemoved;
+            if (added) {
+                listeners.put(listener, new Pair<>(new HashSet<>(namesOfRaceColumnsForWhichToLoadLegDetails), addOverallDetails));
+            }
+        }
+        if (added) {
+            updateRequestTimes(namesOfRaceColumnsForWhichToLoadLegDetails, addOverallDetails);
+            ensureRunning();
+        } else {
+            listener.leaderboardRemoved();
+        }
+    }
+
+    public void removeListener(LiveLeaderboardUpdateListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * To be called when the leaderboard has been removed. All listeners are removed and
+     * {@link LiveLeaderboardUpdateListener#leaderboardRemoved() notified}, and listeners added later are notified right
+     * away instead of being registered. Without listeners renewing their requests, the updater thread ends after
+     * {@link #UPDATE_TIMEOUT_IN_MILLIS} milliseconds.
+     */
+    public void removeAllListeners() {
+        final Set<LiveLeaderboardUpdateListener> removedListeners;
+        synchronized (this) {
+            leaderboardRemoved = true;
+            removedListeners = new HashSet<>(listeners.keySet());
+            listeners.clear();
+        }
+        for (final LiveLeaderboardUpdateListener listener : removedListeners) {
+            try {
+                listener.leaderboardRemoved();
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Exception notifying listener "+listener+" about removal of leaderboard "+leaderboard.getName(), e);
+            }
+        }
     }
     
     private Leaderboard getLeaderboard() {
@@ -284,6 +354,9 @@ public class LiveLeaderboardUpdater implements Runnable {
                 TimePoint now = MillisecondsTimePoint.now();
                 final Long delayToLiveInMillis = getLeaderboard().getDelayToLiveInMillis();
                 TimePoint timePoint = delayToLiveInMillis == null ? now : now.minus(delayToLiveInMillis);
+                for (final Pair<Collection<String>, Boolean> listenerRequest : listeners.values()) {
+                    updateRequestTimes(listenerRequest.getA(), listenerRequest.getB());
+                }
                 synchronized (this) {
                     if (timePoint.asMillis() - lastRequest.asMillis() >= UPDATE_TIMEOUT_IN_MILLIS) {
                         running = false;
@@ -300,6 +373,7 @@ public class LiveLeaderboardUpdater implements Runnable {
                             namesOfRaceColumnsForWhichToLoadLegDetails, addOverallDetails,
                             /* waitForLatestAnalyses */false, trackedRegattaRegistry, baseDomainFactory, /* fillTotalPointsUncorrected */ false);
                     updateCacheContents(namesOfRaceColumnsForWhichToLoadLegDetails, addOverallDetails, newCacheValue);
+                    notifyListeners(newCacheValue);
                 } catch (NoWindException e) {
                     logger.log(Level.SEVERE, "Exception during re-calculating the live leaderboard "+leaderboard.getName(), e);
                     try {
@@ -334,6 +408,16 @@ public class LiveLeaderboardUpdater implements Runnable {
         }
     }
 
+    private void notifyListeners(LeaderboardDTO newCacheValue) {
+        for (final LiveLeaderboardUpdateListener listener : listeners.keySet()) {
+            try {
+                listener.liveLeaderboardUpdated(newCacheValue);
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Exception notifying listener "+listener+" about live leaderboard update for "+leaderboard.getName(), e);
+            }
+        }
+    }
+
     /**
      * Determines based on {@link #timePointOfLastRequestForOverallDetails} and the <code>timePoint</code> parameter
      * if the duration between then is less than {@link #UPDATE_TIMEOUT_IN_MILLIS} in which case overall details are to
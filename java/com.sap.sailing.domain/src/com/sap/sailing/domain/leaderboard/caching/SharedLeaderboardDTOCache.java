@@ -0,0 +1,413 @@
+package com.sap.sailing.domain.leaderboard.caching;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sap.sailing.domain.common.dto.LeaderboardDTO;
+import com.sap.sailing.domain.common.dto.LeaderboardEntryDTO;
+import com.sap.sailing.domain.common.dto.LeaderboardRowDTO;
+import com.sap.sailing.domain.leaderboard.LeaderboardCacheManager;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.Util;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+import com.sap.sse.util.impl.FutureTaskWithTracingGet;
+
+/**
+ * A server-wide cache for {@link LeaderboardDTO}s, shared by the {@link LeaderboardDTOCache}s of all leaderboards.
+ * Instead of a fixed number of entries per leaderboard, the cache has a memory budget for all entries together. The
+ * size of each result is estimated from its number of rows, race columns and leg details once computed. When the sum
+ * of all estimates exceeds the budget, the least recently used entries are evicted, regardless of the leaderboard
+ * they belong to, until the estimated size has dropped to {@link #LOW_WATERMARK} of the budget.
+ * <p>
+ *
+ * Many clients ask for a leaderboard at time points differing only by a few milliseconds, e.g., when replaying a race.
+ * To let them share results, the time points of requests can be {@link #quantize(TimePoint) quantized} before they are
+ * used as part of the cache key and as the time point for the computation.
+ * <p>
+ *
+ * Concurrent requests for the same key share a single computation which is run in the thread that caused the cache
+ * miss. Entries are removed for one leaderboard at a time by {@link #invalidate(LeaderboardCache)}, usually triggered
+ * through the {@link LeaderboardCacheManager} listeners of the {@link LeaderboardDTOCache} owning the entries. When a
+ * leaderboard is removed, its {@link LeaderboardDTOCache} has to {@link #removeOwner(LeaderboardCache) remove itself}
+ * so that this cache doesn't keep referencing it.
+ * <p>
+ *
+ * The memory budget and the time quantum of the {@link #getInstance() server-wide instance} can be configured using the
+ * system properties {@link #MEMORY_BUDGET_IN_MB_SYSTEM_PROPERTY_NAME} and
+ * {@link #TIME_QUANTUM_IN_MILLIS_SYSTEM_PROPERTY_NAME}.
+ */
+public class SharedLeaderboardDTOCache {
+    private static final Logger logger = Logger.getLogger(SharedLeaderboardDTOCache.class.getName());
+
+    public static final String MEMORY_BUDGET_IN_MB_SYSTEM_PROPERTY_NAME = "com.sap.sailing.domain.leaderboard.caching.memoryBudgetInMB";
+
+    public static final String TIME_QUANTUM_IN_MILLIS_SYSTEM_PROPERTY_NAME = "com.sap.sailing.domain.leaderboard.caching.timeQuantumInMillis";
+
+    private static final long DEFAULT_MEMORY_BUDGET_IN_MB = 256;
+
+    private static final long DEFAULT_TIME_QUANTUM_IN_MILLIS = 1000;
+
+    /**
+     * When evicting, entries are removed until the estimated size has dropped to this fraction of the memory budget,
+     * so that not each new entry of an exhausted cache triggers another eviction run.
+     */
+    static final double LOW_WATERMARK = 0.9;
+
+    /**
+     * Rough estimates of the heap consumed by the parts of a {@link LeaderboardDTO}, including the objects they refer
+     * to, such as the race column map entries, boxed numbers and competitor and race DTOs.
+     */
+    static final long ESTIMATED_BYTES_PER_LEADERBOARD = 4096;
+    static final long ESTIMATED_BYTES_PER_ROW = 512;
+    static final long ESTIMATED_BYTES_PER_ENTRY = 768;
+    static final long ESTIMATED_BYTES_PER_LEG_DETAIL = 512;
+
+    private static SharedLeaderboardDTOCache instance;
+
+    private final long memoryBudgetInBytes;
+
+    private final long timeQuantumInMillis;
+
+    /**
+     * The entries, grouped by the {@link LeaderboardCache} owning them, so that all entries of a leaderboard can be
+     * removed at once. Owners whose entries have all been evicted are removed, too.
+     */
+    private final ConcurrentMap<LeaderboardCache, ConcurrentMap<Key, Entry>> entriesByOwner;
+
+    /**
+     * The sum of the {@link Entry#estimatedSizeInBytes estimated sizes} of the completed entries; guarded by the
+     * monitor of this object, as are all structural changes of {@link #entriesByOwner} other than adding an entry
+     */
+    private long estimatedSizeInBytes;
+
+    private final AtomicLong accessClock;
+
+    private final AtomicLong hitCount;
+
+    private final AtomicLong missCount;
+
+    private final AtomicLong evictionCount;
+
+    private final AtomicLong invalidationCount;
+
+    private static class Key {
+        private final TimePoint timePoint;
+        private final Collection<String> namesOfRaceColumnsForWhichToLoadLegDetails;
+        private final boolean addOverallDetails;
+
+        Key(TimePoint timePoint, Collection<String> namesOfRaceColumnsForWhichToLoadLegDetails, boolean addOverallDetails) {
+            this.timePoint = timePoint;
+            this.namesOfRaceColumnsForWhichToLoadLegDetails = namesOfRaceColumnsForWhichToLoadLegDetails;
+            this.addOverallDetails = addOverallDetails;
+        }
+
+        @Override
+        public int hashCode() {
+            final int prime = 31;
+            int result = 1;
+            result = prime * result + (addOverallDetails ? 1231 : 1237);
+            result = prime * result + ((namesOfRaceColumnsForWhichToLoadLegDetails == null) ? 0 : namesOfRaceColumnsForWhichToLoadLegDetails.hashCode());
+            result = prime * result + ((timePoint == null) ? 0 : timePoint.hashCode());
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (obj == null || getClass() != obj.getClass())
+                return false;
+            final Key other = (Key) obj;
+            return addOverallDetails == other.addOverallDetails
+                    && Util.equalsWithNull(namesOfRaceColumnsForWhichToLoadLegDetails, other.namesOfRaceColumnsForWhichToLoadLegDetails)
+                    && Util.equalsWithNull(timePoint, other.timePoint);
+        }
+
+        @Override
+        public String toString() {
+            return "[" + timePoint + ", " + namesOfRaceColumnsForWhichToLoadLegDetails + ", " + addOverallDetails + "]";
+        }
+    }
+
+    private static class Entry {
+        private final LeaderboardCache owner;
+        private final Key key;
+        private final FutureTask<LeaderboardDTO> future;
+        private volatile long lastAccess;
+        /**
+         * Set when the computation has completed and the entry's size has been added to
+         * {@link SharedLeaderboardDTOCache#estimatedSizeInBytes}; guarded by the monitor of the cache
+         */
+        private boolean accounted;
+        private long estimatedSizeInBytes;
+
+        Entry(LeaderboardCache owner, Key key, FutureTask<LeaderboardDTO> future, long lastAccess) {
+            this.owner = owner;
+            this.key = key;
+            this.future = future;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * @return the server-wide instance, configured by the system properties
+     *         {@link #MEMORY_BUDGET_IN_MB_SYSTEM_PROPERTY_NAME} and {@link #TIME_QUANTUM_IN_MILLIS_SYSTEM_PROPERTY_NAME}
+     */
+    public static synchronized SharedLeaderboardDTOCache getInstance() {
+        if (instance == null) {
+            final long memoryBudgetInMB = Long.valueOf(System.getProperty(MEMORY_BUDGET_IN_MB_SYSTEM_PROPERTY_NAME, ""+DEFAULT_MEMORY_BUDGET_IN_MB));
+            final long timeQuantumInMillis = Long.valueOf(System.getProperty(TIME_QUANTUM_IN_MILLIS_SYSTEM_PROPERTY_NAME, ""+DEFAULT_TIME_QUANTUM_IN_MILLIS));
+            logger.info("Using a shared leaderboard cache with a memory budget of " + memoryBudgetInMB
+                    + "MB and a time quantum of " + timeQuantumInMillis + "ms");
+            instance = new SharedLeaderboardDTOCache(memoryBudgetInMB * 1024 * 1024, timeQuantumInMillis);
+        }
+        return instance;
+    }
+
+    /**
+     * @param timeQuantumInMillis
+     *            time points of requests are rounded down to a multiple of this many milliseconds; {@code 0} or less
+     *            means that time points are used as is
+     */
+    public SharedLeaderboardDTOCache(long memoryBudgetInBytes, long timeQuantumInMillis) {
+        this.memoryBudgetInBytes = memoryBudgetInBytes;
+        this.timeQuantumInMillis = timeQuantumInMillis;
+        this.entriesByOwner = new ConcurrentHashMap<>();
+        this.accessClock = new AtomicLong();
+        this.hitCount = new AtomicLong();
+        this.missCount = new AtomicLong();
+        this.evictionCount = new AtomicLong();
+        this.invalidationCount = new AtomicLong();
+    }
+
+    /**
+     * Rounds {@code timePoint} down to a multiple of the time quantum, so that requests for time points close to each
+     * other can share a cache entry.
+     */
+    public TimePoint quantize(TimePoint timePoint) {
+        final TimePoint result;
+        if (timeQuantumInMillis <= 0 || timePoint.asMillis() % timeQuantumInMillis == 0) {
+            result = timePoint;
+        } else {
+            result = new MillisecondsTimePoint(Math.floorDiv(timePoint.asMillis(), timeQuantumInMillis) * timeQuantumInMillis);
+        }
+        return result;
+    }
+
+    /**
+     * Looks up the result for the key given in the entries of {@code owner}. On a cache miss, {@code computation} is
+     * run in the calling thread, and concurrent requests for the same key wait for its result. The time point is used
+     * as is; callers wanting to share entries across nearby time points {@link #quantize(TimePoint) quantize} it first
+     * and pass the quantized time point to the computation, too.
+     *
+     * @param description
+     *            describes the computation for tracing and logging
+     */
+    public LeaderboardDTO get(LeaderboardCache owner, TimePoint timePoint,
+            Collection<String> namesOfRaceColumnsForWhichToLoadLegDetails, boolean addOverallDetails,
+            String description, Callable<LeaderboardDTO> computation) throws InterruptedException, ExecutionException {
+        final Key key = new Key(timePoint, namesOfRaceColumnsForWhichToLoadLegDetails, addOverallDetails);
+        final ConcurrentMap<Key, Entry> entries = entriesByOwner.computeIfAbsent(owner, o -> new ConcurrentHashMap<>());
+        final Entry newEntry = new Entry(owner, key,
+                new FutureTaskWithTracingGet<LeaderboardDTO>(description, computation), accessClock.incrementAndGet());
+        final Entry existingEntry = entries.putIfAbsent(key, newEntry);
+        final Entry entry;
+        if (existingEntry == null) {
+            missCount.incrementAndGet();
+            entry = newEntry;
+            entry.future.run(); // execute in calling thread as it is fetched a few instructions later using future.get() anyway
+            completed(entries, entry);
+        } else {
+            hitCount.incrementAndGet();
+            entry = existingEntry;
+            entry.lastAccess = accessClock.incrementAndGet();
+            logger.fine(() -> "Cache hit for " + description + " at " + key);
+        }
+        if (logger.isLoggable(Level.FINE)) {
+            logger.fine("Shared leaderboard cache statistics: " + this);
+        }
+        return entry.future.get();
+    }
+
+    /**
+     * Accounts for the size of a completed entry, unless it has been invalidated or failed in the meantime, and evicts
+     * entries if the memory budget is exceeded.
+     */
+    private synchronized void completed(ConcurrentMap<Key, Entry> entries, Entry entry) {
+        if (entriesByOwner.get(entry.owner) == entries && entries.get(entry.key) == entry) {
+            LeaderboardDTO result = null;
+            try {
+                result = entry.future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                // don't keep failed computations; the next request shall try again
+                entries.remove(entry.key, entry);
+            }
+            if (result != null) {
+                entry.estimatedSizeInBytes = estimateSizeInBytes(result);
+                entry.accounted = true;
+                estimatedSizeInBytes += entry.estimatedSizeInBytes;
+                if (estimatedSizeInBytes > memoryBudgetInBytes) {
+                    evict();
+                }
+            }
+        }
+    }
+
+    private void evict() {
+        assert Thread.holdsLock(this);
+        final List<Entry> candidates = new ArrayList<>();
+        for (final Map<Key, Entry> entries : entriesByOwner.values()) {
+            for (final Entry entry : entries.values()) {
+                if (entry.accounted) {
+                    candidates.add(entry);
+                }
+            }
+        }
+        candidates.sort(Comparator.comparingLong(e -> e.lastAccess));
+        final long sizeToReach = (long) (LOW_WATERMARK * memoryBudgetInBytes);
+        int evicted = 0;
+        for (final Entry entry : candidates) {
+            if (estimatedSizeInBytes <= sizeToReach) {
+                break;
+            }
+            final Map<Key, Entry> entries = entriesByOwner.get(entry.owner);
+            if (entries != null && entries.remove(entry.key, entry)) {
+                estimatedSizeInBytes -= entry.estimatedSizeInBytes;
+                evicted++;
+                if (entries.isEmpty()) {
+                    // a request adding to the map concurrently still gets its result; it only isn't cached
+                    entriesByOwner.remove(entry.owner, entries);
+                }
+            }
+        }
+        evictionCount.addAndGet(evicted);
+        logger.fine(() -> "Evicted leaderboard cache entries; " + this);
+    }
+
+    /**
+     * Removes all entries of {@code owner}. Computations still running complete for the clients waiting for them, but
+     * their results are not cached.
+     */
+    public synchronized void invalidate(LeaderboardCache owner) {
+        invalidationCount.addAndGet(removeEntries(owner));
+    }
+
+    /**
+     * Removes all entries of {@code owner} and any reference to it, e.g., when the leaderboard owning the entries has
+     * been removed. Unlike {@link #invalidate(LeaderboardCache)}, the entries removed are not counted as
+     * invalidations. Should {@code owner} request entries afterwards, they are cached as for a new owner.
+     */
+    public synchronized void removeOwner(LeaderboardCache owner) {
+        removeEntries(owner);
+    }
+
+    /**
+     * @return the number of entries removed
+     */
+    private int removeEntries(LeaderboardCache owner) {
+        assert Thread.holdsLock(this);
+        final Map<Key, Entry> entries = entriesByOwner.remove(owner);
+        final int result;
+        if (entries == null) {
+            result = 0;
+        } else {
+            for (final Entry entry : entries.values()) {
+                if (entry.accounted) {
+                    estimatedSizeInBytes -= entry.estimatedSizeInBytes;
+                }
+            }
+            result = entries.size();
+        }
+        return result;
+    }
+
+
+    /**
+     * Estimates the heap consumed by {@code leaderboardDTO} from the number of its rows, their entries and the leg
+     * details of the entries.
+     */
+    public static long estimateSizeInBytes(LeaderboardDTO leaderboardDTO) {
+        long result = ESTIMATED_BYTES_PER_LEADERBOARD;
+        if (leaderboardDTO.rows != null) {
+            for (final LeaderboardRowDTO row : leaderboardDTO.rows.values()) {
+                result += ESTIMATED_BYTES_PER_ROW;
+                if (row.fieldsByRaceColumnName != null) {
+                    for (final LeaderboardEntryDTO entry : row.fieldsByRaceColumnName.values()) {
+                        result += ESTIMATED_BYTES_PER_ENTRY;
+                        if (entry.legDetails != null) {
+                            result += entry.legDetails.size() * ESTIMATED_BYTES_PER_LEG_DETAIL;
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public long getMemoryBudgetInBytes() {
+        return memoryBudgetInBytes;
+    }
+
+    public long getTimeQuantumInMillis() {
+        return timeQuantumInMillis;
+    }
+
+    public synchronized long getEstimatedSizeInBytes() {
+        return estimatedSizeInBytes;
+    }
+
+    public int getNumberOfEntries() {
+        int result = 0;
+        for (final Map<Key, Entry> entries : entriesByOwner.values()) {
+            result += entries.size();
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of {@link LeaderboardCache}s for which entries are held
+     */
+    public int getNumberOfOwners() {
+        return entriesByOwner.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return the number of entries removed to stay within the memory budget
+     */
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    /**
+     * @return the number of entries removed by {@link #invalidate(LeaderboardCache)}
+     */
+    public long getInvalidationCount() {
+        return invalidationCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [" + getNumberOfEntries() + " entries, ~" + getEstimatedSizeInBytes() / 1024
+                + "kB of " + memoryBudgetInBytes / 1024 + "kB, hits/misses/evictions/invalidations: " + getHitCount()
+                + "/" + getMissCount() + "/" + getEvictionCount() + "/" + getInvalidationCount() + "]";
+    }
+}
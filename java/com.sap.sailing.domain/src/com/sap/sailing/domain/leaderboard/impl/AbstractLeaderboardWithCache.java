@@ -79,6 +79,8 @@ import com.sap.sailing.domain.leaderboard.ScoreCorrectionMapping;
 import com.sap.sailing.domain.leaderboard.ThresholdBasedResultDiscardingRule;
 import com.sap.sailing.domain.leaderboard.caching.LeaderboardDTOCache;
 import com.sap.sailing.domain.leaderboard.caching.LeaderboardDTOCalculationReuseCache;
+import com.sap.sailing.domain.leaderboard.caching.LeaderboardEntryDetailsCache;
+import com.sap.sailing.domain.leaderboard.caching.LiveLeaderboardUpdateListener;
 import com.sap.sailing.domain.leaderboard.caching.LiveLeaderboardUpdater;
 import com.sap.sailing.domain.leaderboard.meta.MetaLeaderboardColumn;
 import com.sap.sailing.domain.orc.impl.ORCPerformanceCurveByImpliedWindRankingMetric;
@@ -121,6 +123,12 @@ public abstract class AbstractLeaderboardWithCache implements Leaderboard {
     protected static final ExecutorService executor = ThreadPoolUtil.INSTANCE.getDefaultForegroundTaskThreadPoolExecutor();
     private transient LeaderboardDTOCache leaderboardDTOCache;
     private transient Map<com.sap.sse.common.Util.Pair<TrackedRace, Competitor>, RunnableFuture<RaceDetails>> raceDetailsAtEndOfTrackingCache;
+    
+    /**
+     * Remembers the race details of the entries computed by {@link #computeDTO} per tracked race, so that only the
+     * details of races that have changed since need to be re-computed.
+     */
+    private transient LeaderboardEntryDetailsCache entryDetailsCache;
 
     /** the display name of the leaderboard */
     private String displayName;
@@ -242,6 +250,7 @@ public abstract class AbstractLeaderboardWithCache implements Leaderboard {
 
     private void initTransientFields() {
         this.raceDetailsAtEndOfTrackingCache = new HashMap<>();
+        this.entryDetailsCache = new LeaderboardEntryDetailsCache();
         this.cacheInvalidationListeners = new HashSet<>();
         this.leaderboardChangeListeners = new HashSet<>();
         this.timingStats = createTimingStats();
@@ -373,6 +382,22 @@ public abstract class AbstractLeaderboardWithCache implements Leaderboard {
         return liveLeaderboardUpdater.getLiveLeaderboard(namesOfRaceColumnsForWhichToLoadLegDetails, addOverallDetails);
     }
 
+    @Override
+    public void addLiveLeaderboardUpdateListener(LiveLeaderboardUpdateListener listener,
+            Collection<String> namesOfRaceColumnsForWhichToLoadLegDetails, boolean addOverallDetails,
+            TrackedRegattaRegistry trackedRegattaRegistry, DomainFactory baseDomainFactory) {
+        getLiveLeaderboardUpdater(trackedRegattaRegistry, baseDomainFactory).addListener(listener,
+                namesOfRaceColumnsForWhichToLoadLegDetails, addOverallDetails);
+    }
+
+    @Override
+    public void removeLiveLeaderboardUpdateListener(LiveLeaderboardUpdateListener listener) {
+        final LiveLeaderboardUpdater liveLeaderboardUpdater = this.liveLeaderboardUpdater;
+        if (liveLeaderboardUpdater != null) {
+            liveLeaderboardUpdater.removeListener(listener);
+        }
+    }
+
     private LiveLeaderboardUpdater getLiveLeaderboardUpdater(TrackedRegattaRegistry trackedRegattaRegistry,
             DomainFactory baseDomainFactory) {
         LiveLeaderboardUpdater result = this.liveLeaderboardUpdater;
@@ -484,14 +509,24 @@ public abstract class AbstractLeaderboardWithCache implements Leaderboard {
             // invalidating the ranks cache in TrackedLegImpl. The problem then is that the sorting based on wind data is repeated for
             // each competitor, leading to square effort. We therefore need to compute the leg ranks for those races where leg
             // details are requested only once and pass them into getLeaderboardEntryDTO
+            // The race details of races that haven't changed since a previous computation are re-used from the
+            // entryDetailsCache; only for the other races the details need to be computed, and only for those the leg
+            // ranks are required.
             final Map<Leg, LinkedHashMap<Competitor, Integer>> legRanksCache = new HashMap<Leg, LinkedHashMap<Competitor, Integer>>();
+            final Map<TrackedRace, ConcurrentMap<Competitor, LeaderboardEntryDTO>> entryDetailsByRace = new HashMap<>();
             for (final RaceColumn raceColumn : this.getRaceColumns()) {
                 // if details for the column are requested, cache the leg's ranks
                 if (namesOfRaceColumnsForWhichToLoadLegDetails != null
                         && namesOfRaceColumnsForWhichToLoadLegDetails.contains(raceColumn.getName())) {
                     for (Fleet fleet : raceColumn.getFleets()) {
                         TrackedRace trackedRace = raceColumn.getTrackedRace(fleet);
-                        if (trackedRace != null) {
+                        if (trackedRace != null && !entryDetailsByRace.containsKey(trackedRace)) {
+                            final ConcurrentMap<Competitor, LeaderboardEntryDTO> entryDetails = entryDetailsCache.getDetails(trackedRace,
+                                    LeaderboardEntryDetailsCache.Fingerprint.of(trackedRace, timePoint, waitForLatestAnalyses));
+                            entryDetailsByRace.put(trackedRace, entryDetails);
+                            if (entryDetails.size() >= Util.size(trackedRace.getRace().getCompetitors())) {
+                                continue; // all details can be re-used; no leg ranks required
+                            }
                             trackedRace.getRace().getCourse().lockForRead();
                             try {
                                 for (TrackedLeg trackedLeg : trackedRace.getTrackedLegs()) {
@@ -528,16 +563,19 @@ public abstract class AbstractLeaderboardWithCache implements Leaderboard {
                     final boolean computeLegDetails = namesOfRaceColumnsForWhichToLoadLegDetails != null &&
                             namesOfRaceColumnsForWhichToLoadLegDetails.contains(raceColumn.getName());
                     Future<LeaderboardEntryDTO> future = executor.submit(() -> {
-                        // if leg details are to be requested, the ranking info needs to be provided:
+                        final TrackedRace trackedRace = computeLegDetails ? raceColumn.getTrackedRace(competitor) : null;
+                        final ConcurrentMap<Competitor, LeaderboardEntryDTO> entryDetails = trackedRace == null ? null : entryDetailsByRace.get(trackedRace);
+                        final boolean computeRaceDetails = computeLegDetails && (entryDetails == null || !entryDetails.containsKey(competitor));
+                        // if leg details are to be computed, the ranking info needs to be provided:
                         // TODO bug5143 (performance): shouldn't the rankingInfoCache be passed on because detail computations need them all?
-                        final RankingInfo rankingInfo = computeLegDetails ? rankingInfoCache.computeIfAbsent(new Pair<>(raceColumn, competitor),
+                        final RankingInfo rankingInfo = computeRaceDetails ? rankingInfoCache.computeIfAbsent(new Pair<>(raceColumn, competitor),
                                 raceColumnAndCompetitor->{
-                                    final TrackedRace trackedRace = raceColumnAndCompetitor.getA().getTrackedRace(raceColumnAndCompetitor.getB());
-                                    return trackedRace==null?null:trackedRace.getRankingMetric().getRankingInfo(timePoint, cache);
+                                    final TrackedRace trackedRaceOfCompetitor = raceColumnAndCompetitor.getA().getTrackedRace(raceColumnAndCompetitor.getB());
+                                    return trackedRaceOfCompetitor==null?null:trackedRaceOfCompetitor.getRankingMetric().getRankingInfo(timePoint, cache);
                                 }) : null;
                         Entry entry = AbstractLeaderboardWithCache.this.getEntry(competitor, raceColumn, timePoint, discardedRaceColumns, cache);
                         return getLeaderboardEntryDTO(entry, raceColumn, competitor, timePoint, computeLegDetails,
-                                rankingInfo, waitForLatestAnalyses, legRanksCache, baseDomainFactory,
+                                rankingInfo, waitForLatestAnalyses, legRanksCache, entryDetails, baseDomainFactory,
                                 fillTotalPointsUncorrected, cache);
                     });
                     futuresForCompetitorAndColumnName.put(new Pair<>(competitor, raceColumn.getName()), new Pair<>(row, future));
@@ -582,6 +620,7 @@ public abstract class AbstractLeaderboardWithCache implements Leaderboard {
                                     + ". Leaving empty.", e);
                 }
             }
+            entryDetailsCache.retainAll(getTrackedRaces()); // forget about races no longer attached
             final Duration computeTime = startOfRequestHandling.until(MillisecondsTimePoint.now());
             logger.info("computeLeaderboardByName(" + this.getName() + ", " + timePoint + ", "
                     + namesOfRaceColumnsForWhichToLoadLegDetails + ", addOverallDetails=" + addOverallDetails + ") took "
@@ -646,7 +685,8 @@ public abstract class AbstractLeaderboardWithCache implements Leaderboard {
 
     /**
      * @param rankingInfo
-     *            must be provided when {@code addLegDetails} is {@code true}; it may, however, be the case that there
+     *            must be provided when {@code addLegDetails} is {@code true} and the race details for the
+     *            {@code competitor} are not found in {@code entryDetails}; it may, however, be the case that there
      *            is no {@link TrackedRace} for the {@code competitor} for which this entry shall be computed; in such
      *            cases it is permissible to pass {@code null} for this parameter despite {@code addLegDetails} being
      *            set.
@@ -654,6 +694,10 @@ public abstract class AbstractLeaderboardWithCache implements Leaderboard {
      *            if <code>false</code>, this method is allowed to read the maneuver analysis results from a cache that
      *            may not reflect all data already received; otherwise, the method will always block for the latest
      *            cache updates to have happened before returning.
+     * @param entryDetails
+     *            entries whose race details were computed for the same inputs before, keyed by competitor, as obtained
+     *            from the {@link #entryDetailsCache}; if an entry for {@code competitor} is found, its race details are
+     *            copied instead of computing them; otherwise, the entry computed is added. May be {@code null}.
      * @param fillTotalPointsUncorrected
      *            tells if {@link LeaderboardEntryDTO#totalPointsUncorrected} shall be filled; filling it is rather
      *            expensive, especially when compared to simply retrieving a score correction, and particularly if in a
@@ -663,7 +707,8 @@ public abstract class AbstractLeaderboardWithCache implements Leaderboard {
      */
     private LeaderboardEntryDTO getLeaderboardEntryDTO(Entry entry, RaceColumn raceColumn, Competitor competitor,
             TimePoint timePoint, boolean addLegDetails, RankingInfo rankingInfo, boolean waitForLatestAnalyses,
-            Map<Leg, LinkedHashMap<Competitor, Integer>> legRanksCache, DomainFactory baseDomainFactory,
+            Map<Leg, LinkedHashMap<Competitor, Integer>> legRanksCache,
+            ConcurrentMap<Competitor, LeaderboardEntryDTO> entryDetails, DomainFactory baseDomainFactory,
             boolean fillTotalPointsUncorrected, WindLegTypeAndLegBearingAndORCPerformanceCurveCache cache)
             throws NotEnoughDataHasBeenAddedException {
         final LeaderboardEntryDTO entryDTO = new LeaderboardEntryDTO();
@@ -697,110 +742,118 @@ public abstract class AbstractLeaderboardWithCache implements Leaderboard {
             entryDTO.averageRideHeightInMeters = averageRideHeight == null ? null : averageRideHeight.getMeters();
         }
         if (addLegDetails && trackedRace != null) {
-            try {
-                RaceDetails raceDetails = getRaceDetails(trackedRace, competitor, timePoint, waitForLatestAnalyses,
-                        legRanksCache, rankingInfo, cache);
-                entryDTO.legDetails = raceDetails.getLegDetails();
-                entryDTO.windwardDistanceToCompetitorFarthestAheadInMeters = raceDetails.getWindwardDistanceToCompetitorFarthestAhead() == null ? null
-                        : raceDetails.getWindwardDistanceToCompetitorFarthestAhead().getMeters();
-                entryDTO.gapToLeaderInOwnTime = trackedRace.getRankingMetric().getGapToLeaderInOwnTime(rankingInfo, competitor, cache);
-                entryDTO.averageAbsoluteCrossTrackErrorInMeters = raceDetails.getAverageAbsoluteCrossTrackError() == null ? null
-                        : raceDetails.getAverageAbsoluteCrossTrackError().getMeters();
-                entryDTO.averageSignedCrossTrackErrorInMeters = raceDetails.getAverageSignedCrossTrackError() == null ? null
-                        : raceDetails.getAverageSignedCrossTrackError().getMeters();
-                entryDTO.timeSailedSinceRaceStart = raceDetails.getTimeSailedSinceRaceStart();
-                entryDTO.calculatedTime = raceDetails.getCorrectedTime();
-                if (trackedRace != null && trackedRace.getRankingMetric() instanceof ORCPerformanceCurveByImpliedWindRankingMetric) {
-                        entryDTO.impliedWind = ((ORCPerformanceCurveByImpliedWindRankingMetric) trackedRace.getRankingMetric()).getImpliedWind(competitor, timePoint, cache);
-                }
-                entryDTO.calculatedTimeAtEstimatedArrivalAtCompetitorFarthestAhead = raceDetails.getCorrectedTimeAtEstimatedArrivalAtCompetitorFarthestAhead();
-                entryDTO.gapToLeaderInOwnTime = raceDetails.getGapToLeaderInOwnTime();
-                entryDTO.percentTargetBoatSpeed = raceDetails.getPercentTargetBoatSpeed();
+            final LeaderboardEntryDTO entryWithRaceDetails = entryDetails == null ? null : entryDetails.get(competitor);
+            if (entryWithRaceDetails != null) {
+                copyRaceDetails(entryWithRaceDetails, entryDTO);
+            } else {
                 try {
-                    BravoFixTrack<Competitor> sensorTrack = trackedRace.getSensorTrack(competitor, BravoFixTrack.TRACK_NAME);
-                    if (sensorTrack != null) {
-                        final BravoFix bravoFix = sensorTrack.getFirstFixAtOrAfter(timePoint);
-                        entryDTO.heel = bravoFix == null ? null : bravoFix.getHeel();
-                        entryDTO.pitch = bravoFix == null ? null : bravoFix.getPitch();
-                        if (sensorTrack.hasExtendedFixes() && bravoFix instanceof BravoExtendedFix) {
-                            BravoExtendedFix fix = (BravoExtendedFix) bravoFix;
-                            entryDTO.setExpeditionAWA(fix.getExpeditionAWA());
-                            entryDTO.setExpeditionAWS(fix.getExpeditionAWS());
-                            entryDTO.setExpeditionTWA(fix.getExpeditionTWA());
-                            entryDTO.setExpeditionTWS(fix.getExpeditionTWS());
-                            entryDTO.setExpeditionTWD(fix.getExpeditionTWD());
-                            entryDTO.setExpeditionBoatSpeed(fix.getExpeditionBSP());
-                            entryDTO.setExpeditionTargBoatSpeed(fix.getExpeditionBSP_TR());
-                            entryDTO.setExpeditionSOG(fix.getExpeditionSOG());
-                            entryDTO.setExpeditionCOG(fix.getExpeditionCOG());
-                            entryDTO.setExpeditionForestayLoad(fix.getExpeditionForestayLoad());
-                            entryDTO.setExpeditionRake(fix.getExpeditionRake());
-                            entryDTO.setExpeditionHeading(fix.getExpeditionHDG());
-                            entryDTO.setExpeditionHeel(fix.getExpeditionHeel());
-                            entryDTO.setExpeditionTargetHeel(fix.getExpeditionTG_Heell());
-                            entryDTO.setExpeditionTimeToGunInSeconds(fix.getExpeditionTmToGunInSeconds());
-                            entryDTO.setExpeditionTimeToBurnToLineInSeconds(fix.getExpeditionTmToBurnInSeconds());
-                            entryDTO.setExpeditionDistanceBelowLineInMeters(fix.getExpeditionBelowLnInMeters());
-                            entryDTO.setExpeditionCourseDetail(fix.getExpeditionCourse());
-                            entryDTO.setExpeditionBaro(fix.getExpeditionBARO());
-                            entryDTO.setExpeditionLoadP(fix.getExpeditionLoadP());
-                            entryDTO.setExpeditionLoadS(fix.getExpeditionLoadS());
-                            entryDTO.setExpeditionJibCarPort(fix.getExpeditionJibCarPort());
-                            entryDTO.setExpeditionJibCarStbd(fix.getExpeditionJibCarStbd());
-                            entryDTO.setExpeditionMastButt(fix.getExpeditionMastButt());
-                            entryDTO.setExpeditionRateOfTurn(fix.getExpeditionRateOfTurn());
-                        }
+                    RaceDetails raceDetails = getRaceDetails(trackedRace, competitor, timePoint, waitForLatestAnalyses,
+                            legRanksCache, rankingInfo, cache);
+                    entryDTO.legDetails = raceDetails.getLegDetails();
+                    entryDTO.windwardDistanceToCompetitorFarthestAheadInMeters = raceDetails.getWindwardDistanceToCompetitorFarthestAhead() == null ? null
+                            : raceDetails.getWindwardDistanceToCompetitorFarthestAhead().getMeters();
+                    entryDTO.gapToLeaderInOwnTime = trackedRace.getRankingMetric().getGapToLeaderInOwnTime(rankingInfo, competitor, cache);
+                    entryDTO.averageAbsoluteCrossTrackErrorInMeters = raceDetails.getAverageAbsoluteCrossTrackError() == null ? null
+                            : raceDetails.getAverageAbsoluteCrossTrackError().getMeters();
+                    entryDTO.averageSignedCrossTrackErrorInMeters = raceDetails.getAverageSignedCrossTrackError() == null ? null
+                            : raceDetails.getAverageSignedCrossTrackError().getMeters();
+                    entryDTO.timeSailedSinceRaceStart = raceDetails.getTimeSailedSinceRaceStart();
+                    entryDTO.calculatedTime = raceDetails.getCorrectedTime();
+                    if (trackedRace != null && trackedRace.getRankingMetric() instanceof ORCPerformanceCurveByImpliedWindRankingMetric) {
+                            entryDTO.impliedWind = ((ORCPerformanceCurveByImpliedWindRankingMetric) trackedRace.getRankingMetric()).getImpliedWind(competitor, timePoint, cache);
                     }
-                } catch (Exception e) {
-                   logger.log(Level.WARNING, "There was an error determining expedition or extended data", e);
-                }
-                final TimePoint startOfRace = trackedRace.getStartOfRace();
-                if (startOfRace != null) {
-                    Waypoint startWaypoint = trackedRace.getRace().getCourse().getFirstWaypoint();
-                    NavigableSet<MarkPassing> competitorMarkPassings = trackedRace.getMarkPassings(competitor);
-                    trackedRace.lockForRead(competitorMarkPassings);
+                    entryDTO.calculatedTimeAtEstimatedArrivalAtCompetitorFarthestAhead = raceDetails.getCorrectedTimeAtEstimatedArrivalAtCompetitorFarthestAhead();
+                    entryDTO.gapToLeaderInOwnTime = raceDetails.getGapToLeaderInOwnTime();
+                    entryDTO.percentTargetBoatSpeed = raceDetails.getPercentTargetBoatSpeed();
                     try {
-                        if (!competitorMarkPassings.isEmpty()) {
-                            final MarkPassing firstMarkPassing = competitorMarkPassings.iterator().next();
-                            if (firstMarkPassing.getWaypoint() == startWaypoint) {
-                                Distance distanceToStartLineFiveSecondsBeforeStartOfRace = trackedRace.getDistanceToStartLine(competitor, /*milliseconds before start*/ 5000);
-                                entryDTO.distanceToStartLineFiveSecondsBeforeStartInMeters = distanceToStartLineFiveSecondsBeforeStartOfRace == null ? null
-                                        : distanceToStartLineFiveSecondsBeforeStartOfRace.getMeters();
-                                Speed speedFiveSecondsBeforeStartOfRace = trackedRace.getSpeed(competitor, /*milliseconds before start*/ 5000);
-                                entryDTO.speedOverGroundFiveSecondsBeforeStartInKnots = speedFiveSecondsBeforeStartOfRace == null ? null
-                                        : speedFiveSecondsBeforeStartOfRace.getKnots();
-                                Distance distanceToStartLineAtStartOfRace = trackedRace.getDistanceToStartLine(
-                                        competitor, startOfRace);
-                                entryDTO.distanceToStartLineAtStartOfRaceInMeters = distanceToStartLineAtStartOfRace == null ? null
-                                        : distanceToStartLineAtStartOfRace.getMeters();
-                                Speed speedAtStartTime = track == null ? null : track.getEstimatedSpeed(startOfRace);
-                                entryDTO.speedOverGroundAtStartOfRaceInKnots = speedAtStartTime == null ? null
-                                        : speedAtStartTime.getKnots();
-                                TimePoint competitorStartTime = firstMarkPassing.getTimePoint();
-                                entryDTO.timeBetweenRaceStartAndCompetitorStartInSeconds = startOfRace.until(competitorStartTime).asSeconds();
-                                Speed competitorSpeedWhenPassingStart = track == null ? null : track
-                                        .getEstimatedSpeed(competitorStartTime);
-                                entryDTO.speedOverGroundAtPassingStartWaypointInKnots = competitorSpeedWhenPassingStart == null ? null
-                                        : competitorSpeedWhenPassingStart.getKnots();
-                                try {
-                                    entryDTO.startTack = trackedRace.getTack(competitor, competitorStartTime);
-                                } catch (NoWindException nwe) {
-                                    entryDTO.startTack = null; // leave empty in case no wind information is available
+                        BravoFixTrack<Competitor> sensorTrack = trackedRace.getSensorTrack(competitor, BravoFixTrack.TRACK_NAME);
+                        if (sensorTrack != null) {
+                            final BravoFix bravoFix = sensorTrack.getFirstFixAtOrAfter(timePoint);
+                            entryDTO.heel = bravoFix == null ? null : bravoFix.getHeel();
+                            entryDTO.pitch = bravoFix == null ? null : bravoFix.getPitch();
+                            if (sensorTrack.hasExtendedFixes() && bravoFix instanceof BravoExtendedFix) {
+                                BravoExtendedFix fix = (BravoExtendedFix) bravoFix;
+                                entryDTO.setExpeditionAWA(fix.getExpeditionAWA());
+                                entryDTO.setExpeditionAWS(fix.getExpeditionAWS());
+                                entryDTO.setExpeditionTWA(fix.getExpeditionTWA());
+                                entryDTO.setExpeditionTWS(fix.getExpeditionTWS());
+                                entryDTO.setExpeditionTWD(fix.getExpeditionTWD());
+                                entryDTO.setExpeditionBoatSpeed(fix.getExpeditionBSP());
+                                entryDTO.setExpeditionTargBoatSpeed(fix.getExpeditionBSP_TR());
+                                entryDTO.setExpeditionSOG(fix.getExpeditionSOG());
+                                entryDTO.setExpeditionCOG(fix.getExpeditionCOG());
+                                entryDTO.setExpeditionForestayLoad(fix.getExpeditionForestayLoad());
+                                entryDTO.setExpeditionRake(fix.getExpeditionRake());
+                                entryDTO.setExpeditionHeading(fix.getExpeditionHDG());
+                                entryDTO.setExpeditionHeel(fix.getExpeditionHeel());
+                                entryDTO.setExpeditionTargetHeel(fix.getExpeditionTG_Heell());
+                                entryDTO.setExpeditionTimeToGunInSeconds(fix.getExpeditionTmToGunInSeconds());
+                                entryDTO.setExpeditionTimeToBurnToLineInSeconds(fix.getExpeditionTmToBurnInSeconds());
+                                entryDTO.setExpeditionDistanceBelowLineInMeters(fix.getExpeditionBelowLnInMeters());
+                                entryDTO.setExpeditionCourseDetail(fix.getExpeditionCourse());
+                                entryDTO.setExpeditionBaro(fix.getExpeditionBARO());
+                                entryDTO.setExpeditionLoadP(fix.getExpeditionLoadP());
+                                entryDTO.setExpeditionLoadS(fix.getExpeditionLoadS());
+                                entryDTO.setExpeditionJibCarPort(fix.getExpeditionJibCarPort());
+                                entryDTO.setExpeditionJibCarStbd(fix.getExpeditionJibCarStbd());
+                                entryDTO.setExpeditionMastButt(fix.getExpeditionMastButt());
+                                entryDTO.setExpeditionRateOfTurn(fix.getExpeditionRateOfTurn());
+                            }
+                        }
+                    } catch (Exception e) {
+                       logger.log(Level.WARNING, "There was an error determining expedition or extended data", e);
+                    }
+                    final TimePoint startOfRace = trackedRace.getStartOfRace();
+                    if (startOfRace != null) {
+                        Waypoint startWaypoint = trackedRace.getRace().getCourse().getFirstWaypoint();
+                        NavigableSet<MarkPassing> competitorMarkPassings = trackedRace.getMarkPassings(competitor);
+                        trackedRace.lockForRead(competitorMarkPassings);
+                        try {
+                            if (!competitorMarkPassings.isEmpty()) {
+                                final MarkPassing firstMarkPassing = competitorMarkPassings.iterator().next();
+                                if (firstMarkPassing.getWaypoint() == startWaypoint) {
+                                    Distance distanceToStartLineFiveSecondsBeforeStartOfRace = trackedRace.getDistanceToStartLine(competitor, /*milliseconds before start*/ 5000);
+                                    entryDTO.distanceToStartLineFiveSecondsBeforeStartInMeters = distanceToStartLineFiveSecondsBeforeStartOfRace == null ? null
+                                            : distanceToStartLineFiveSecondsBeforeStartOfRace.getMeters();
+                                    Speed speedFiveSecondsBeforeStartOfRace = trackedRace.getSpeed(competitor, /*milliseconds before start*/ 5000);
+                                    entryDTO.speedOverGroundFiveSecondsBeforeStartInKnots = speedFiveSecondsBeforeStartOfRace == null ? null
+                                            : speedFiveSecondsBeforeStartOfRace.getKnots();
+                                    Distance distanceToStartLineAtStartOfRace = trackedRace.getDistanceToStartLine(
+                                            competitor, startOfRace);
+                                    entryDTO.distanceToStartLineAtStartOfRaceInMeters = distanceToStartLineAtStartOfRace == null ? null
+                                            : distanceToStartLineAtStartOfRace.getMeters();
+                                    Speed speedAtStartTime = track == null ? null : track.getEstimatedSpeed(startOfRace);
+                                    entryDTO.speedOverGroundAtStartOfRaceInKnots = speedAtStartTime == null ? null
+                                            : speedAtStartTime.getKnots();
+                                    TimePoint competitorStartTime = firstMarkPassing.getTimePoint();
+                                    entryDTO.timeBetweenRaceStartAndCompetitorStartInSeconds = startOfRace.until(competitorStartTime).asSeconds();
+                                    Speed competitorSpeedWhenPassingStart = track == null ? null : track
+                                            .getEstimatedSpeed(competitorStartTime);
+                                    entryDTO.speedOverGroundAtPassingStartWaypointInKnots = competitorSpeedWhenPassingStart == null ? null
+                                            : competitorSpeedWhenPassingStart.getKnots();
+                                    try {
+                                        entryDTO.startTack = trackedRace.getTack(competitor, competitorStartTime);
+                                    } catch (NoWindException nwe) {
+                                        entryDTO.startTack = null; // leave empty in case no wind information is available
+                                    }
+                                    Distance distanceFromStarboardSideOfStartLineWhenPassingStart = trackedRace
+                                            .getDistanceFromStarboardSideOfStartLineWhenPassingStart(competitor);
+                                    entryDTO.distanceToStarboardSideOfStartLineInMeters = distanceFromStarboardSideOfStartLineWhenPassingStart == null ? null
+                                            : distanceFromStarboardSideOfStartLineWhenPassingStart.getMeters();
                                 }
-                                Distance distanceFromStarboardSideOfStartLineWhenPassingStart = trackedRace
-                                        .getDistanceFromStarboardSideOfStartLineWhenPassingStart(competitor);
-                                entryDTO.distanceToStarboardSideOfStartLineInMeters = distanceFromStarboardSideOfStartLineWhenPassingStart == null ? null
-                                        : distanceFromStarboardSideOfStartLineWhenPassingStart.getMeters();
                             }
+                        } finally {
+                            trackedRace.unlockAfterRead(competitorMarkPassings);
                         }
-                    } finally {
-                        trackedRace.unlockAfterRead(competitorMarkPassings);
                     }
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                } catch (ExecutionException | MaxIterationsExceededException | FunctionEvaluationException e) {
+                    throw new RuntimeException(e); // the future used to calculate the leg details was interrupted; escalate as runtime exception
+                }
+                if (entryDetails != null) {
+                    entryDetails.put(competitor, entryDTO);
                 }
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
-            } catch (ExecutionException | MaxIterationsExceededException | FunctionEvaluationException e) {
-                throw new RuntimeException(e); // the future used to calculate the leg details was interrupted; escalate as runtime exception
             }
         }
         final Fleet fleet = entry.getFleet();
@@ -808,6 +861,34 @@ public abstract class AbstractLeaderboardWithCache implements Leaderboard {
         return entryDTO;
     }
 
+    /**
+     * Copies the fields that {@link #getLeaderboardEntryDTO} fills from the race details, i.e., if leg details are
+     * requested, from one entry to another. The objects referenced, such as the leg details, are shared.
+     */
+    private static void copyRaceDetails(LeaderboardEntryDTO from, LeaderboardEntryDTO to) {
+        to.legDetails = from.legDetails;
+        to.windwardDistanceToCompetitorFarthestAheadInMeters = from.windwardDistanceToCompetitorFarthestAheadInMeters;
+        to.gapToLeaderInOwnTime = from.gapToLeaderInOwnTime;
+        to.averageAbsoluteCrossTrackErrorInMeters = from.averageAbsoluteCrossTrackErrorInMeters;
+        to.averageSignedCrossTrackErrorInMeters = from.averageSignedCrossTrackErrorInMeters;
+        to.timeSailedSinceRaceStart = from.timeSailedSinceRaceStart;
+        to.calculatedTime = from.calculatedTime;
+        to.impliedWind = from.impliedWind;
+        to.calculatedTimeAtEstimatedArrivalAtCompetitorFarthestAhead = from.calculatedTimeAtEstimatedArrivalAtCompetitorFarthestAhead;
+        to.percentTargetBoatSpeed = from.percentTargetBoatSpeed;
+        to.heel = from.heel;
+        to.pitch = from.pitch;
+        to.expeditionDataHolder = from.expeditionDataHolder;
+        to.distanceToStartLineFiveSecondsBeforeStartInMeters = from.distanceToStartLineFiveSecondsBeforeStartInMeters;
+        to.speedOverGroundFiveSecondsBeforeStartInKnots = from.speedOverGroundFiveSecondsBeforeStartInKnots;
+        to.distanceToStartLineAtStartOfRaceInMeters = from.distanceToStartLineAtStartOfRaceInMeters;
+        to.speedOverGroundAtStartOfRaceInKnots = from.speedOverGroundAtStartOfRaceInKnots;
+        to.timeBetweenRaceStartAndCompetitorStartInSeconds = from.timeBetweenRaceStartAndCompetitorStartInSeconds;
+        to.speedOverGroundAtPassingStartWaypointInKnots = from.speedOverGroundAtPassingStartWaypointInKnots;
+        to.startTack = from.startTack;
+        to.distanceToStarboardSideOfStartLineInMeters = from.distanceToStarboardSideOfStartLineInMeters;
+    }
+
     private Boat getBoatOfCompetitor(Competitor competitor, RaceColumn raceColumn) {
         final Boat boat;
         if (competitor.hasBoat()) {
@@ -1221,6 +1302,7 @@ public abstract class AbstractLeaderboardWithCache implements Leaderboard {
             synchronized (raceDetailsAtEndOfTrackingCache) {
                 raceDetailsAtEndOfTrackingCache.clear();
             }
+            entryDetailsCache.clear();
         }
     }
     
@@ -1380,6 +1462,15 @@ public abstract class AbstractLeaderboardWithCache implements Leaderboard {
         for (CacheInvalidationListener cacheInvalidationListener : cacheInvalidationListeners) {
             cacheInvalidationListener.removeFromTrackedRace();
         }
+        final LeaderboardDTOCache dtoCache = this.leaderboardDTOCache;
+        if (dtoCache != null) {
+            dtoCache.destroy();
+        }
+        entryDetailsCache.clear();
+        final LiveLeaderboardUpdater liveLeaderboardUpdater = this.liveLeaderboardUpdater;
+        if (liveLeaderboardUpdater != null) {
+            liveLeaderboardUpdater.removeAllListeners();
+        }
     }
 
     @Override
@@ -26,6 +26,12 @@ import com.sap.sailing.domain.tracking.Maneuver;
  *
  */
 public interface ManeuverDetector {
+    /**
+     * Indicates the version of the maneuver detection and must be changed manually whenever a change to the detection
+     * changes the maneuvers detected, so that maneuvers stored together with a fingerprint of their race get computed
+     * again. It should be changed by adding +1.
+     */
+    int DETECTOR_VERSION = 1;
 
     /**
      * Detects maneuvers performed within a GPS-track of the competitor associated with this
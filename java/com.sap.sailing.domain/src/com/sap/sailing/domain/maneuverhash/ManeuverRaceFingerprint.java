@@ -0,0 +1,40 @@
+package com.sap.sailing.domain.maneuverhash;
+
+import org.json.simple.JSONObject;
+
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.markpassinghash.MarkPassingRaceFingerprint;
+import com.sap.sailing.domain.tracking.Maneuver;
+import com.sap.sailing.domain.tracking.TrackedRace;
+
+/**
+ * An instance of this class represents a composite fingerprint of those components of a {@link TrackedRace} that are
+ * relevant for detecting the {@link TrackedRace#getManeuvers(Competitor, boolean) maneuvers} of its competitors. In
+ * addition to what a {@link MarkPassingRaceFingerprint} covers, these are the mark passings themselves, the wind
+ * fixes, the competitors' boat classes and the version of the maneuver detection. It can be
+ * {@link #matches(TrackedRace) matched} against a {@link TrackedRace} instance to see whether the {@link TrackedRace}
+ * will produce the same {@link Maneuver}s as the {@link TrackedRace} from which this fingerprint was produced.
+ * <p>
+ * 
+ * To produce a fingerprint from a {@link TrackedRace} or from a JSON representation use
+ * {@link ManeuverRaceFingerprintFactory}.
+ * <p>
+ * 
+ * The {@link #equals(Object)} and {@link #hashCode()} methods are defined based on the contents of this fingerprint.
+ */
+public interface ManeuverRaceFingerprint {
+    /**
+     * Returns a {@link JSONObject} of the hash values.
+     */
+    JSONObject toJson();
+
+    /**
+     * Incrementally computes the composite fingerprint of the {@code trackedRace} and compares to this fingerprint
+     * component by component, in ascending order of computational complexity. Like
+     * {@link MarkPassingRaceFingerprint#matches(TrackedRace)}, this may require the race's course read lock.
+     * 
+     * @return {@code true} if the {@code trackedRace} produces a fingerprint equal to this one if passed to
+     *         {@link ManeuverRaceFingerprintFactory#createFingerprint(TrackedRace)}
+     */
+    boolean matches(TrackedRace trackedRace);
+}
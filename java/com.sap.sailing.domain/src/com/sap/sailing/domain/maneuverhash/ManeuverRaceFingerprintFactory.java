@@ -0,0 +1,24 @@
+package com.sap.sailing.domain.maneuverhash;
+
+import org.json.simple.JSONObject;
+
+import com.sap.sailing.domain.maneuverhash.impl.ManeuverRaceFingerprintFactoryImpl;
+import com.sap.sailing.domain.tracking.TrackedRace;
+
+/**
+ * Factory for the creation of a {@link ManeuverRaceFingerprint}.
+ */
+public interface ManeuverRaceFingerprintFactory {
+    ManeuverRaceFingerprintFactory INSTANCE = new ManeuverRaceFingerprintFactoryImpl();
+
+    /**
+     * Creates a {@link ManeuverRaceFingerprint} out of a given {@link TrackedRace}.
+     */
+    ManeuverRaceFingerprint createFingerprint(TrackedRace trackedRace);
+
+    /**
+     * Creates a {@link ManeuverRaceFingerprint} out of a given {@link JSONObject}, as produced by
+     * {@link ManeuverRaceFingerprint#toJson()}.
+     */
+    ManeuverRaceFingerprint fromJson(JSONObject json);
+}
@@ -0,0 +1,49 @@
+package com.sap.sailing.domain.maneuverhash;
+
+import java.util.List;
+import java.util.Map;
+
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.common.RaceIdentifier;
+import com.sap.sailing.domain.markpassinghash.MarkPassingRaceFingerprintRegistry;
+import com.sap.sailing.domain.tracking.Maneuver;
+import com.sap.sailing.domain.tracking.TrackedRace;
+
+/**
+ * A registry for the maneuvers of races, stored together with the {@link ManeuverRaceFingerprint} of the race at the
+ * time the maneuvers were detected. This works like the {@link MarkPassingRaceFingerprintRegistry} does for mark
+ * passings: when a race is restored, its maneuvers can be {@link #loadManeuvers(RaceIdentifier, TrackedRace) loaded}
+ * instead of detected if the fingerprint {@link ManeuverRaceFingerprint#matches(TrackedRace) matches} the restored
+ * race; otherwise, after they have been detected, they can be
+ * {@link #storeManeuvers(RaceIdentifier, ManeuverRaceFingerprint, Map, TrackedRace) stored} for the next time.
+ */
+public interface ManeuverRaceFingerprintRegistry {
+    /**
+     * @param trackedRace
+     *            the race the maneuvers were detected for; used to resolve the waypoints of the maneuvers' mark
+     *            passings
+     */
+    void storeManeuvers(RaceIdentifier raceIdentifier, ManeuverRaceFingerprint fingerprint,
+            Map<Competitor, List<Maneuver>> maneuvers, TrackedRace trackedRace);
+
+    /**
+     * Looks for a fingerprint for which maneuvers have been stored for the race identified by {@code raceIdentifier}.
+     * 
+     * @return {@code null} if no maneuvers have been stored in this registry for the race identified by
+     *         {@code raceIdentifier}, otherwise the race fingerprint representing the state of the race at which the
+     *         maneuvers stored in this registry were detected.
+     */
+    ManeuverRaceFingerprint getManeuverRaceFingerprint(RaceIdentifier raceIdentifier);
+
+    /**
+     * <b>Precondition</b>: {@link #getManeuverRaceFingerprint(RaceIdentifier)} for {@code raceIdentifier}
+     * {@link ManeuverRaceFingerprint#matches(TrackedRace) matches} {@code trackedRace}.
+     * <p>
+     * 
+     * @return the maneuvers stored for the race, with their mark passings resolved against the {@code trackedRace};
+     *         {@code null} if no maneuvers are stored for the race or they can't be read
+     */
+    Map<Competitor, List<Maneuver>> loadManeuvers(RaceIdentifier raceIdentifier, TrackedRace trackedRace);
+
+    void removeStoredManeuvers(RaceIdentifier raceIdentifier);
+}
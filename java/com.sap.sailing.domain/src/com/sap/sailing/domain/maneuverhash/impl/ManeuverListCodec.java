@@ -0,0 +1,329 @@
+package com.sap.sailing.domain.maneuverhash.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.base.Course;
+import com.sap.sailing.domain.base.Waypoint;
+import com.sap.sailing.domain.common.ManeuverType;
+import com.sap.sailing.domain.common.Position;
+import com.sap.sailing.domain.common.SpeedWithBearing;
+import com.sap.sailing.domain.common.Tack;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedImpl;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.impl.MeterDistance;
+import com.sap.sailing.domain.tracking.Maneuver;
+import com.sap.sailing.domain.tracking.ManeuverCurveBoundaries;
+import com.sap.sailing.domain.tracking.ManeuverLoss;
+import com.sap.sailing.domain.tracking.MarkPassing;
+import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sailing.domain.tracking.impl.ManeuverCurveBoundariesImpl;
+import com.sap.sailing.domain.tracking.impl.ManeuverWithCoarseGrainedBoundariesImpl;
+import com.sap.sailing.domain.tracking.impl.ManeuverWithMainCurveBoundariesImpl;
+import com.sap.sailing.domain.tracking.impl.ManeuverWithStableSpeedAndCourseBoundariesImpl;
+import com.sap.sailing.domain.tracking.impl.MarkPassingImpl;
+import com.sap.sse.common.Bearing;
+import com.sap.sse.common.Distance;
+import com.sap.sse.common.Duration;
+import com.sap.sse.common.Speed;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.Util;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsDurationImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+/**
+ * Encodes the maneuvers of one competitor into a compact binary form and decodes them again. Time points, positions,
+ * speeds, bearings, distances and durations are written as primitive values; a maneuver's mark passing is written as
+ * the index of its waypoint in the course and its time point and resolved against the race's mark passings when
+ * decoding. Decoding produces maneuvers of the same implementation classes with equal values, so that a decoded list
+ * can be served in place of detecting the maneuvers again.
+ * <p>
+ *
+ * The format starts with a version byte; data of an unknown version is rejected with an {@link IOException}.
+ */
+public class ManeuverListCodec {
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final byte MAIN_CURVE_BOUNDARIES = 0;
+    private static final byte STABLE_SPEED_AND_COURSE_BOUNDARIES = 1;
+    private static final byte COARSE_GRAINED_BOUNDARIES = 2;
+
+    private static final int HAS_NEW_TACK = 1;
+    private static final int HAS_POSITION = 1 << 1;
+    private static final int HAS_STABLE_SPEED_AND_COURSE_BOUNDARIES = 1 << 2;
+    private static final int HAS_MARK_PASSING = 1 << 3;
+    private static final int HAS_MANEUVER_LOSS = 1 << 4;
+
+    /**
+     * @param course
+     *            the course of the race the maneuvers were detected for; the caller should hold its read lock
+     */
+    public byte[] encode(List<Maneuver> maneuvers, Course course) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(16 + 256 * maneuvers.size());
+        final DataOutputStream out = new DataOutputStream(bos);
+        out.writeByte(FORMAT_VERSION);
+        out.writeInt(maneuvers.size());
+        for (final Maneuver maneuver : maneuvers) {
+            writeManeuver(maneuver, course, out);
+        }
+        out.flush();
+        return bos.toByteArray();
+    }
+
+    /**
+     * @param trackedRace
+     *            the race whose course and mark passings are used to resolve the maneuvers' mark passings; the caller
+     *            should hold its course's read lock
+     */
+    public List<Maneuver> decode(byte[] encodedManeuvers, Competitor competitor, TrackedRace trackedRace) throws IOException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(encodedManeuvers));
+        final byte version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unknown maneuver format version " + version);
+        }
+        final int size = in.readInt();
+        final List<Maneuver> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(readManeuver(competitor, trackedRace, in));
+        }
+        return result;
+    }
+
+    private void writeManeuver(Maneuver maneuver, Course course, DataOutput out) throws IOException {
+        final byte kind;
+        if (maneuver instanceof ManeuverWithStableSpeedAndCourseBoundariesImpl) {
+            kind = STABLE_SPEED_AND_COURSE_BOUNDARIES;
+        } else if (maneuver instanceof ManeuverWithCoarseGrainedBoundariesImpl) {
+            kind = COARSE_GRAINED_BOUNDARIES;
+        } else if (maneuver instanceof ManeuverWithMainCurveBoundariesImpl) {
+            kind = MAIN_CURVE_BOUNDARIES;
+        } else {
+            throw new IOException("Can't encode maneuver of type " + maneuver.getClass().getName());
+        }
+        final MarkPassing markPassing = maneuver.getMarkPassing();
+        final int waypointIndex = markPassing == null ? -1 : course.getIndexOfWaypoint(markPassing.getWaypoint());
+        if (markPassing != null && waypointIndex < 0) {
+            throw new IOException("Waypoint of mark passing " + markPassing + " not found in course");
+        }
+        final int flags = (maneuver.getNewTack() == null ? 0 : HAS_NEW_TACK)
+                | (maneuver.getPosition() == null ? 0 : HAS_POSITION)
+                | (maneuver.getManeuverCurveWithStableSpeedAndCourseBoundaries() == null ? 0 : HAS_STABLE_SPEED_AND_COURSE_BOUNDARIES)
+                | (markPassing == null ? 0 : HAS_MARK_PASSING)
+                | (maneuver.getManeuverLoss() == null ? 0 : HAS_MANEUVER_LOSS);
+        out.writeByte(kind);
+        out.writeByte(flags);
+        out.writeUTF(maneuver.getType().name());
+        if (maneuver.getNewTack() != null) {
+            out.writeUTF(maneuver.getNewTack().name());
+        }
+        if (maneuver.getPosition() != null) {
+            writePosition(maneuver.getPosition(), out);
+        }
+        out.writeLong(maneuver.getTimePoint().asMillis());
+        out.writeDouble(maneuver.getMaxTurningRateInDegreesPerSecond());
+        writeBoundaries(maneuver.getMainCurveBoundaries(), out);
+        if (maneuver.getManeuverCurveWithStableSpeedAndCourseBoundaries() != null) {
+            writeBoundaries(maneuver.getManeuverCurveWithStableSpeedAndCourseBoundaries(), out);
+        }
+        if (markPassing != null) {
+            out.writeInt(waypointIndex);
+            out.writeLong(markPassing.getTimePoint().asMillis());
+        }
+        if (maneuver.getManeuverLoss() != null) {
+            writeManeuverLoss(maneuver.getManeuverLoss(), out);
+        }
+    }
+
+    private Maneuver readManeuver(Competitor competitor, TrackedRace trackedRace, DataInput in) throws IOException {
+        final byte kind = in.readByte();
+        final int flags = in.readByte();
+        final ManeuverType type = readEnum(ManeuverType.class, in);
+        final Tack newTack = (flags & HAS_NEW_TACK) != 0 ? readEnum(Tack.class, in) : null;
+        final Position position = (flags & HAS_POSITION) != 0 ? readPosition(in) : null;
+        final TimePoint timePoint = new MillisecondsTimePoint(in.readLong());
+        final double maxTurningRateInDegreesPerSecond = in.readDouble();
+        final ManeuverCurveBoundaries mainCurveBoundaries = readBoundaries(in);
+        final ManeuverCurveBoundaries stableSpeedAndCourseBoundaries = (flags & HAS_STABLE_SPEED_AND_COURSE_BOUNDARIES) != 0
+                ? readBoundaries(in) : null;
+        final MarkPassing markPassing = (flags & HAS_MARK_PASSING) != 0 ? readMarkPassing(competitor, trackedRace, in) : null;
+        final ManeuverLoss maneuverLoss = (flags & HAS_MANEUVER_LOSS) != 0 ? readManeuverLoss(in) : null;
+        final Maneuver result;
+        switch (kind) {
+        case MAIN_CURVE_BOUNDARIES:
+            result = new ManeuverWithMainCurveBoundariesImpl(type, newTack, position, timePoint, mainCurveBoundaries,
+                    stableSpeedAndCourseBoundaries, maxTurningRateInDegreesPerSecond, markPassing, maneuverLoss);
+            break;
+        case STABLE_SPEED_AND_COURSE_BOUNDARIES:
+            result = new ManeuverWithStableSpeedAndCourseBoundariesImpl(type, newTack, position, timePoint, mainCurveBoundaries,
+                    stableSpeedAndCourseBoundaries, maxTurningRateInDegreesPerSecond, markPassing, maneuverLoss);
+            break;
+        case COARSE_GRAINED_BOUNDARIES:
+            result = new ManeuverWithCoarseGrainedBoundariesImpl(type, newTack, position, timePoint, mainCurveBoundaries);
+            break;
+        default:
+            throw new IOException("Unknown maneuver kind " + kind);
+        }
+        return result;
+    }
+
+    /**
+     * Uses the race's mark passing for the waypoint if it is still the same as the one stored, so that the maneuver
+     * refers to the same object as the race
+     */
+    private MarkPassing readMarkPassing(Competitor competitor, TrackedRace trackedRace, DataInput in) throws IOException {
+        final int waypointIndex = in.readInt();
+        final TimePoint timePoint = new MillisecondsTimePoint(in.readLong());
+        final Course course = trackedRace.getRace().getCourse();
+        if (waypointIndex < 0 || waypointIndex >= course.getNumberOfWaypoints()) {
+            throw new IOException("Waypoint #" + waypointIndex + " of maneuver mark passing not found in course");
+        }
+        final Waypoint waypoint = Util.get(course.getWaypoints(), waypointIndex);
+        final MarkPassing raceMarkPassing = trackedRace.getMarkPassing(competitor, waypoint);
+        return raceMarkPassing != null && raceMarkPassing.getTimePoint().equals(timePoint) ? raceMarkPassing
+                : new MarkPassingImpl(timePoint, waypoint, competitor);
+    }
+
+    private void writeBoundaries(ManeuverCurveBoundaries boundaries, DataOutput out) throws IOException {
+        out.writeLong(boundaries.getTimePointBefore().asMillis());
+        out.writeLong(boundaries.getTimePointAfter().asMillis());
+        writeSpeedWithBearing(boundaries.getSpeedWithBearingBefore(), out);
+        writeSpeedWithBearing(boundaries.getSpeedWithBearingAfter(), out);
+        out.writeDouble(boundaries.getDirectionChangeInDegrees());
+        writeSpeed(boundaries.getLowestSpeed(), out);
+        writeSpeed(boundaries.getHighestSpeed(), out);
+    }
+
+    private ManeuverCurveBoundaries readBoundaries(DataInput in) throws IOException {
+        final TimePoint timePointBefore = new MillisecondsTimePoint(in.readLong());
+        final TimePoint timePointAfter = new MillisecondsTimePoint(in.readLong());
+        final SpeedWithBearing speedWithBearingBefore = readSpeedWithBearing(in);
+        final SpeedWithBearing speedWithBearingAfter = readSpeedWithBearing(in);
+        final double directionChangeInDegrees = in.readDouble();
+        final Speed lowestSpeed = readSpeed(in);
+        final Speed highestSpeed = readSpeed(in);
+        return new ManeuverCurveBoundariesImpl(timePointBefore, timePointAfter, speedWithBearingBefore,
+                speedWithBearingAfter, directionChangeInDegrees, lowestSpeed, highestSpeed);
+    }
+
+    private void writeManeuverLoss(ManeuverLoss maneuverLoss, DataOutput out) throws IOException {
+        writeDistance(maneuverLoss.getDistanceSailedProjectedOnMiddleManeuverAngle(), out);
+        writeDistance(maneuverLoss.getDistanceSailedIfNotManeuveringProjectedOnMiddleManeuverAngle(), out);
+        writeNullablePosition(maneuverLoss.getManeuverStartPosition(), out);
+        writeNullablePosition(maneuverLoss.getManeuverEndPosition(), out);
+        final Duration duration = maneuverLoss.getManeuverDuration();
+        out.writeBoolean(duration != null);
+        if (duration != null) {
+            out.writeLong(duration.asMillis());
+        }
+        writeSpeedWithBearing(maneuverLoss.getSpeedWithBearingBefore(), out);
+        writeBearing(maneuverLoss.getMiddleManeuverAngle(), out);
+    }
+
+    private ManeuverLoss readManeuverLoss(DataInput in) throws IOException {
+        final Distance distanceSailedProjectedOnMiddleManeuverAngle = readDistance(in);
+        final Distance distanceSailedIfNotManeuveringProjectedOnMiddleManeuverAngle = readDistance(in);
+        final Position maneuverStartPosition = readNullablePosition(in);
+        final Position maneuverEndPosition = readNullablePosition(in);
+        final Duration maneuverDuration = in.readBoolean() ? new MillisecondsDurationImpl(in.readLong()) : null;
+        final SpeedWithBearing speedWithBearingBefore = readSpeedWithBearing(in);
+        final Bearing middleManeuverAngle = readBearing(in);
+        return new ManeuverLoss(distanceSailedProjectedOnMiddleManeuverAngle,
+                distanceSailedIfNotManeuveringProjectedOnMiddleManeuverAngle, maneuverStartPosition,
+                maneuverEndPosition, maneuverDuration, speedWithBearingBefore, middleManeuverAngle);
+    }
+
+    private <E extends Enum<E>> E readEnum(Class<E> enumType, DataInput in) throws IOException {
+        final String name = in.readUTF();
+        try {
+            return Enum.valueOf(enumType, name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown " + enumType.getSimpleName() + " " + name, e);
+        }
+    }
+
+    private void writePosition(Position position, DataOutput out) throws IOException {
+        out.writeDouble(position.getLatDeg());
+        out.writeDouble(position.getLngDeg());
+    }
+
+    private Position readPosition(DataInput in) throws IOException {
+        final double latDeg = in.readDouble();
+        return new DegreePosition(latDeg, in.readDouble());
+    }
+
+    private void writeNullablePosition(Position position, DataOutput out) throws IOException {
+        out.writeBoolean(position != null);
+        if (position != null) {
+            writePosition(position, out);
+        }
+    }
+
+    private Position readNullablePosition(DataInput in) throws IOException {
+        return in.readBoolean() ? readPosition(in) : null;
+    }
+
+    /**
+     * {@code null} is written as {@link Double#NaN}
+     */
+    private void writeSpeed(Speed speed, DataOutput out) throws IOException {
+        out.writeDouble(speed == null ? Double.NaN : speed.getKnots());
+    }
+
+    private Speed readSpeed(DataInput in) throws IOException {
+        final double knots = in.readDouble();
+        return Double.isNaN(knots) ? null : new KnotSpeedImpl(knots);
+    }
+
+    /**
+     * {@code null} is written as {@link Double#NaN}
+     */
+    private void writeBearing(Bearing bearing, DataOutput out) throws IOException {
+        out.writeDouble(bearing == null ? Double.NaN : bearing.getDegrees());
+    }
+
+    private Bearing readBearing(DataInput in) throws IOException {
+        final double degrees = in.readDouble();
+        return Double.isNaN(degrees) ? null : new DegreeBearingImpl(degrees);
+    }
+
+    private void writeSpeedWithBearing(SpeedWithBearing speedWithBearing, DataOutput out) throws IOException {
+        out.writeBoolean(speedWithBearing != null);
+        if (speedWithBearing != null) {
+            out.writeDouble(speedWithBearing.getKnots());
+            writeBearing(speedWithBearing.getBearing(), out);
+        }
+    }
+
+    private SpeedWithBearing readSpeedWithBearing(DataInput in) throws IOException {
+        final SpeedWithBearing result;
+        if (in.readBoolean()) {
+            final double knots = in.readDouble();
+            result = new KnotSpeedWithBearingImpl(knots, readBearing(in));
+        } else {
+            result = null;
+        }
+        return result;
+    }
+
+    /**
+     * {@code null} is written as {@link Double#NaN}
+     */
+    private void writeDistance(Distance distance, DataOutput out) throws IOException {
+        out.writeDouble(distance == null ? Double.NaN : distance.getMeters());
+    }
+
+    private Distance readDistance(DataInput in) throws IOException {
+        final double meters = in.readDouble();
+        return Double.isNaN(meters) ? null : new MeterDistance(meters);
+    }
+}
@@ -0,0 +1,199 @@
+package com.sap.sailing.domain.maneuverhash.impl;
+
+import java.util.Set;
+
+import org.json.simple.JSONObject;
+
+import com.sap.sailing.domain.base.Boat;
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.base.Course;
+import com.sap.sailing.domain.common.Position;
+import com.sap.sailing.domain.common.Wind;
+import com.sap.sailing.domain.common.WindSource;
+import com.sap.sailing.domain.maneuverdetection.ManeuverDetector;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprint;
+import com.sap.sailing.domain.markpassinghash.MarkPassingRaceFingerprint;
+import com.sap.sailing.domain.markpassinghash.impl.MarkPassingRaceFingerprintImpl;
+import com.sap.sailing.domain.tracking.MarkPassing;
+import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sailing.domain.tracking.WindTrack;
+import com.sap.sse.common.Util;
+
+/**
+ * Composes a {@link MarkPassingRaceFingerprint}, which covers the competitors, their and the marks' GPS fixes, the
+ * waypoints and the timing of the race, with hashes of what additionally goes into maneuver detection: the mark
+ * passings, the fixes of all wind sources that {@link com.sap.sailing.domain.common.WindSourceType#canBeStored() can
+ * be stored} and aren't excluded, and the competitors' boat classes. Wind sources that can't be stored are estimated
+ * from the data already covered.
+ */
+public class ManeuverRaceFingerprintImpl implements ManeuverRaceFingerprint {
+    private final int detectorVersion;
+    private final MarkPassingRaceFingerprint markPassingRaceFingerprint;
+    private final int boatClassesHash;
+    private final int markPassingsHash;
+    private final int numberOfWindFixes;
+    private final int windFixesHash;
+
+    private static enum JSON_FIELDS {
+        DETECTOR_VERSION, MARK_PASSING_RACE_FINGERPRINT, BOAT_CLASSES_HASH, MARK_PASSINGS_HASH, NUMBER_OF_WIND_FIXES,
+        WIND_FIXES_HASH
+    };
+
+    public ManeuverRaceFingerprintImpl(TrackedRace trackedRace) {
+        this.detectorVersion = ManeuverDetector.DETECTOR_VERSION;
+        this.markPassingRaceFingerprint = new MarkPassingRaceFingerprintImpl(trackedRace);
+        this.boatClassesHash = calculateHashForBoatClasses(trackedRace);
+        this.markPassingsHash = calculateHashForMarkPassings(trackedRace);
+        this.numberOfWindFixes = calculateNumberOfWindFixes(trackedRace);
+        this.windFixesHash = calculateHashForWindFixes(trackedRace);
+    }
+
+    public ManeuverRaceFingerprintImpl(JSONObject json) {
+        this.detectorVersion = ((Number) json.get(JSON_FIELDS.DETECTOR_VERSION.name())).intValue();
+        this.markPassingRaceFingerprint = new MarkPassingRaceFingerprintImpl(
+                (JSONObject) json.get(JSON_FIELDS.MARK_PASSING_RACE_FINGERPRINT.name()));
+        this.boatClassesHash = ((Number) json.get(JSON_FIELDS.BOAT_CLASSES_HASH.name())).intValue();
+        this.markPassingsHash = ((Number) json.get(JSON_FIELDS.MARK_PASSINGS_HASH.name())).intValue();
+        this.numberOfWindFixes = ((Number) json.get(JSON_FIELDS.NUMBER_OF_WIND_FIXES.name())).intValue();
+        this.windFixesHash = ((Number) json.get(JSON_FIELDS.WIND_FIXES_HASH.name())).intValue();
+    }
+
+    @Override
+    public JSONObject toJson() {
+        JSONObject result = new JSONObject();
+        result.put(JSON_FIELDS.DETECTOR_VERSION.name(), detectorVersion);
+        result.put(JSON_FIELDS.MARK_PASSING_RACE_FINGERPRINT.name(), markPassingRaceFingerprint.toJson());
+        result.put(JSON_FIELDS.BOAT_CLASSES_HASH.name(), boatClassesHash);
+        result.put(JSON_FIELDS.MARK_PASSINGS_HASH.name(), markPassingsHash);
+        result.put(JSON_FIELDS.NUMBER_OF_WIND_FIXES.name(), numberOfWindFixes);
+        result.put(JSON_FIELDS.WIND_FIXES_HASH.name(), windFixesHash);
+        return result;
+    }
+
+    @Override
+    public boolean matches(TrackedRace trackedRace) {
+        final boolean result;
+        if (detectorVersion != ManeuverDetector.DETECTOR_VERSION) {
+            result = false;
+        } else if (boatClassesHash != calculateHashForBoatClasses(trackedRace)) {
+            result = false;
+        } else if (markPassingsHash != calculateHashForMarkPassings(trackedRace)) {
+            result = false;
+        } else if (numberOfWindFixes != calculateNumberOfWindFixes(trackedRace)) {
+            result = false;
+        } else if (!markPassingRaceFingerprint.matches(trackedRace)) {
+            result = false;
+        } else if (windFixesHash != calculateHashForWindFixes(trackedRace)) {
+            result = false;
+        } else {
+            result = true;
+        }
+        return result;
+    }
+
+    private int calculateHashForBoatClasses(TrackedRace trackedRace) {
+        int res = 1023;
+        for (final Competitor competitor : trackedRace.getRace().getCompetitors()) {
+            final Boat boat = trackedRace.getRace().getBoatOfCompetitor(competitor);
+            if (boat != null && boat.getBoatClass() != null) {
+                res = res ^ (31 * competitor.getId().hashCode() + boat.getBoatClass().getName().hashCode());
+            }
+        }
+        return res;
+    }
+
+    private int calculateHashForMarkPassings(TrackedRace trackedRace) {
+        int res = 511;
+        final Course course = trackedRace.getRace().getCourse();
+        for (final Competitor competitor : trackedRace.getRace().getCompetitors()) {
+            final Iterable<MarkPassing> markPassings = trackedRace.getMarkPassings(competitor);
+            trackedRace.lockForRead(markPassings); // also obtains the course's read lock
+            try {
+                for (final MarkPassing markPassing : markPassings) {
+                    res = res ^ (31 * (31 * competitor.getId().hashCode() + course.getIndexOfWaypoint(markPassing.getWaypoint()))
+                            + markPassing.getTimePoint().hashCode());
+                }
+            } finally {
+                trackedRace.unlockAfterRead(markPassings);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * @return the wind tracks that may influence the maneuvers and aren't estimated from other data covered by this
+     *         fingerprint
+     */
+    private Iterable<WindTrack> getWindTracks(TrackedRace trackedRace) {
+        final Set<WindSource> windSourcesToExclude = trackedRace.getWindSourcesToExclude();
+        return Util.map(Util.filter(trackedRace.getWindSources(),
+                windSource -> windSource.getType().canBeStored() && !windSourcesToExclude.contains(windSource)),
+                trackedRace::getOrCreateWindTrack);
+    }
+
+    private int calculateNumberOfWindFixes(TrackedRace trackedRace) {
+        int count = 0;
+        for (final WindTrack windTrack : getWindTracks(trackedRace)) {
+            count += windTrack.size();
+        }
+        return count;
+    }
+
+    private int calculateHashForWindFixes(TrackedRace trackedRace) {
+        int res = 255;
+        for (final WindTrack windTrack : getWindTracks(trackedRace)) {
+            windTrack.lockForRead();
+            try {
+                for (final Wind wind : windTrack.getRawFixes()) {
+                    res = res ^ wind.getTimePoint().hashCode();
+                    final Position position = wind.getPosition();
+                    if (position != null) {
+                        res = res ^ position.hashCode();
+                    }
+                    res = res ^ wind.getBearing().hashCode();
+                    res = res ^ Double.hashCode(wind.getKnots());
+                }
+            } finally {
+                windTrack.unlockAfterRead();
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + detectorVersion;
+        result = prime * result + markPassingRaceFingerprint.hashCode();
+        result = prime * result + boatClassesHash;
+        result = prime * result + markPassingsHash;
+        result = prime * result + numberOfWindFixes;
+        result = prime * result + windFixesHash;
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (obj == null)
+            return false;
+        if (getClass() != obj.getClass())
+            return false;
+        ManeuverRaceFingerprintImpl other = (ManeuverRaceFingerprintImpl) obj;
+        if (detectorVersion != other.detectorVersion)
+            return false;
+        if (!markPassingRaceFingerprint.equals(other.markPassingRaceFingerprint))
+            return false;
+        if (boatClassesHash != other.boatClassesHash)
+            return false;
+        if (markPassingsHash != other.markPassingsHash)
+            return false;
+        if (numberOfWindFixes != other.numberOfWindFixes)
+            return false;
+        if (windFixesHash != other.windFixesHash)
+            return false;
+        return true;
+    }
+}
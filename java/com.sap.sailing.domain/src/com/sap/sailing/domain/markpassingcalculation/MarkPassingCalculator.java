@@ -151,18 +151,8 @@ public class MarkPassingCalculator {
             listen = null;
         }
         Thread t = new Thread(() -> {
-            final Set<Callable<Void>> tasks = new HashSet<>();
-            for (Competitor c : race.getRace().getCompetitors()) {
-                tasks.add(race.getTrackedRegatta().cpuMeterCallable(() -> {
-                    Util.Pair<Iterable<Candidate>, Iterable<Candidate>> allCandidates = finder.getAllCandidates(c);
-                    chooser.calculateMarkPassDeltas(c, allCandidates.getA(), allCandidates.getB());
-                    return null;
-                }, CPUMeteringType.MARK_PASSINGS.name()));
-            }
-            ThreadPoolUtil.INSTANCE.invokeAllAndLogExceptions(executor, Level.SEVERE,
-                    "Error trying to compute initial set of mark passings for race " + race.getRace().getName()
-                            + ": %s",
-                    tasks);
+            calculateAllMarkPassings("Error trying to compute initial set of mark passings for race "
+                    + race.getRace().getName() + ": %s");
             if (listener != null) {
                 synchronized (MarkPassingCalculator.this) {
                     if (listenerThread == null) {
@@ -664,13 +654,32 @@ public class MarkPassingCalculator {
         enqueueUpdate(endMarker);
     }
 
+    /**
+     * Computes all candidates and the resulting mark passings for all competitors using the current {@link #finder}
+     * and {@link #chooser}, one task per competitor in the {@link #executor}. The competitors don't share any state in
+     * the finder and the chooser, so these tasks don't contend with each other. Returns when all tasks have completed.
+     * 
+     * @param errorMessageFormat
+     *            used to log exceptions thrown by a task; the {@code %s} placeholder is replaced by the exception
+     */
+    private void calculateAllMarkPassings(String errorMessageFormat) {
+        final CandidateFinder theFinder = finder;
+        final CandidateChooser theChooser = chooser;
+        final Set<Callable<Void>> tasks = new HashSet<>();
+        for (Competitor c : race.getRace().getCompetitors()) {
+            tasks.add(race.getTrackedRegatta().cpuMeterCallable(() -> {
+                Util.Pair<Iterable<Candidate>, Iterable<Candidate>> allCandidates = theFinder.getAllCandidates(c);
+                theChooser.calculateMarkPassDeltas(c, allCandidates.getA(), allCandidates.getB());
+                return null;
+            }, CPUMeteringType.MARK_PASSINGS.name()));
+        }
+        ThreadPoolUtil.INSTANCE.invokeAllAndLogExceptions(executor, Level.SEVERE, errorMessageFormat, tasks);
+    }
+
     public void recalculateEverything() {
         finder = new CandidateFinderImpl(race, executor);
         chooser = new CandidateChooserImpl(race);
-        for (Competitor c : race.getRace().getCompetitors()) {
-            Util.Pair<Iterable<Candidate>, Iterable<Candidate>> allCandidates = finder.getAllCandidates(c);
-            chooser.calculateMarkPassDeltas(c, allCandidates.getA(), allCandidates.getB());
-        }
+        calculateAllMarkPassings("Error trying to recalculate all mark passings for race " + race.getRace().getName() + ": %s");
     }
 
     public MarkPassingUpdateListener getListener() {
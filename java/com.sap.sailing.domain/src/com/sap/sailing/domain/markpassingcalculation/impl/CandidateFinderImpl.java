@@ -35,6 +35,8 @@ import com.sap.sailing.domain.common.tracking.GPSFix;
 import com.sap.sailing.domain.common.tracking.GPSFixMoving;
 import com.sap.sailing.domain.markpassingcalculation.Candidate;
 import com.sap.sailing.domain.markpassingcalculation.CandidateFinder;
+import com.sap.sailing.domain.markpassingcalculation.impl.WaypointDistancesPerFixCache.WaypointDistances;
+import com.sap.sailing.domain.markpassingcalculation.impl.WaypointDistancesPerFixCache.WaypointDistancesBuilder;
 import com.sap.sailing.domain.shared.tracking.impl.TimedComparator;
 import com.sap.sailing.domain.tracking.DynamicGPSFixTrack;
 import com.sap.sailing.domain.tracking.DynamicTrackedRace;
@@ -126,11 +128,38 @@ public class CandidateFinderImpl implements CandidateFinder {
     private static final Logger logger = Logger.getLogger(CandidateFinderImpl.class.getName());
 
     
-    private Map<Competitor, LinkedHashMap<GPSFix, Map<Waypoint, List<Distance>>>> distanceCache = new LinkedHashMap<>();
-    private Map<Competitor, LinkedHashMap<GPSFix, Map<Waypoint, List<Distance>>>> xteCache = new LinkedHashMap<>();
+    /**
+     * The number of fixes per competitor for which the {@link #distanceCache distances} and {@link #xteCache
+     * cross-track errors} are cached. Candidates are determined by comparing a fix with its neighbors, so when the fixes
+     * are analyzed in their temporal order, each fix's values are needed for about three consecutive fixes.
+     */
+    private static final int NUMBER_OF_FIXES_TO_CACHE_PER_COMPETITOR = 25;
+
+    /**
+     * For each competitor, the distances of its recently analyzed fixes to the marks of all waypoints, as computed by
+     * {@link #calculateDistance(Position, Waypoint, TimePoint, MarkPositionAtTimePointCache)}
+     */
+    private final Map<Competitor, WaypointDistancesPerFixCache> distanceCache = new HashMap<>();
+
+    /**
+     * For each competitor, the cross-track errors of its recently analyzed fixes to the lines to be crossed when passing
+     * the waypoints; see {@link #getXTE(Competitor, GPSFix, Waypoint[])}
+     */
+    private final Map<Competitor, WaypointDistancesPerFixCache> xteCache = new HashMap<>();
+
+    /**
+     * The candidates per competitor and waypoint. The maps for all competitors are created by the constructor. The
+     * per-competitor maps are concurrent so that the tasks analyzing different competitors in parallel don't have to
+     * synchronize on a common monitor; the maps per waypoint are used only by the task for their competitor.
+     */
+    private final Map<Competitor, ConcurrentMap<Waypoint, Map<List<GPSFix>, Candidate>>> xteCandidates = new HashMap<>();
+    private final Map<Competitor, ConcurrentMap<Waypoint, Map<GPSFix, Candidate>>> distanceCandidates = new HashMap<>();
 
-    private Map<Competitor, Map<Waypoint, Map<List<GPSFix>, Candidate>>> xteCandidates = new HashMap<>();
-    private Map<Competitor, Map<Waypoint, Map<GPSFix, Candidate>>> distanceCandidates = new HashMap<>();
+    /**
+     * The waypoints of the course as last returned by {@link #getCourseWaypoints()}; as long as the course doesn't
+     * change, the same array is returned so that the cached values computed for it can be identified quickly
+     */
+    private volatile Waypoint[] courseWaypoints = new Waypoint[0];
     private final DynamicTrackedRace race;
     
     /**
@@ -164,10 +193,10 @@ public class CandidateFinderImpl implements CandidateFinder {
                 getTimePointWhenToFinishConsideringCandidates(race.getFinishedTime()));
         final RaceDefinition raceDefinition = race.getRace();
         for (Competitor c : raceDefinition.getCompetitors()) {
-            xteCache.put(c, new LimitedLinkedHashMap<GPSFix, Map<Waypoint, List<Distance>>>(25));
-            distanceCache.put(c, new LimitedLinkedHashMap<GPSFix, Map<Waypoint, List<Distance>>>(25));
-            xteCandidates.put(c, new HashMap<Waypoint, Map<List<GPSFix>, Candidate>>());
-            distanceCandidates.put(c, new HashMap<Waypoint, Map<GPSFix, Candidate>>());
+            xteCache.put(c, new WaypointDistancesPerFixCache(NUMBER_OF_FIXES_TO_CACHE_PER_COMPETITOR));
+            distanceCache.put(c, new WaypointDistancesPerFixCache(NUMBER_OF_FIXES_TO_CACHE_PER_COMPETITOR));
+            xteCandidates.put(c, new ConcurrentHashMap<Waypoint, Map<List<GPSFix>, Candidate>>());
+            distanceCandidates.put(c, new ConcurrentHashMap<Waypoint, Map<GPSFix, Candidate>>());
         }
     }
 
@@ -255,8 +284,8 @@ public class CandidateFinderImpl implements CandidateFinder {
      */
     private <K> void removeCandidatesInTimeRange(final TimeRange timeRangeToRemoveCandidatesFrom,
             final Map<Competitor, Set<Candidate>> candidatesRemovedPerCompetitor,
-            Map<Competitor, Map<Waypoint, Map<K, Candidate>>> candidatePerWaypointPerCompetitor) {
-        for (final Entry<Competitor, Map<Waypoint, Map<K, Candidate>>> e : candidatePerWaypointPerCompetitor.entrySet()) {
+            Map<Competitor, ? extends Map<Waypoint, Map<K, Candidate>>> candidatePerWaypointPerCompetitor) {
+        for (final Entry<Competitor, ? extends Map<Waypoint, Map<K, Candidate>>> e : candidatePerWaypointPerCompetitor.entrySet()) {
             Set<Candidate> candidatesRemoved = candidatesRemovedPerCompetitor.get(e.getKey());
             if (candidatesRemoved == null) {
                 candidatesRemoved = new HashSet<>();
@@ -274,32 +303,13 @@ public class CandidateFinderImpl implements CandidateFinder {
         }
     }
 
-    private class LimitedLinkedHashMap<K, V> extends LinkedHashMap<K, V> {
-        private static final long serialVersionUID = 1L;
-        private int limit;
-
-        public LimitedLinkedHashMap(int limit) {
-            super();
-            this.limit = limit;
-        }
-
-        @Override
-        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
-            return this.size() > limit;
-        }
-    }
-
     @Override
     public Util.Pair<Iterable<Candidate>, Iterable<Candidate>> getAllCandidates(Competitor c) {
         Iterable<GPSFixMoving> fixes = getAllFixes(c);
         distanceCache.get(c).clear();
         xteCache.get(c).clear();
-        synchronized (xteCandidates) {
-            xteCandidates.get(c).clear();
-        }
-        synchronized (distanceCandidates) {
-            distanceCandidates.get(c).clear();
-        }
+        xteCandidates.get(c).clear();
+        distanceCandidates.get(c).clear();
         return getCandidateDeltas(c, fixes);
     }
 
@@ -469,13 +479,9 @@ public class CandidateFinderImpl implements CandidateFinder {
                 Competitor c = entry.getKey();
                 List<Candidate> badCans = entry.getValue();
                 badCans.addAll(getXteCandidates(c, w).values());
-                synchronized (xteCandidates) {
-                    xteCandidates.get(c).remove(w);
-                }
+                xteCandidates.get(c).remove(w);
                 badCans.addAll(getDistanceCandidates(c, w).values());
-                synchronized (distanceCandidates) {
-                    distanceCandidates.get(c).remove(w);
-                }
+                distanceCandidates.get(c).remove(w);
             }
         }
         return result;
@@ -486,14 +492,7 @@ public class CandidateFinderImpl implements CandidateFinder {
      *         waypoint {@code w}.
      */
     private Map<GPSFix, Candidate> getDistanceCandidates(Competitor c, Waypoint w) {
-        synchronized (distanceCandidates) {
-            Map<GPSFix, Candidate> result = distanceCandidates.get(c).get(w);
-            if (result == null) {
-                result = new HashMap<>();
-                distanceCandidates.get(c).put(w, result);
-            }
-            return result;
-        }
+        return distanceCandidates.get(c).computeIfAbsent(w, k->new HashMap<>());
     }
 
     /**
@@ -501,14 +500,31 @@ public class CandidateFinderImpl implements CandidateFinder {
      *         waypoint {@code w}.
      */
     private Map<List<GPSFix>, Candidate> getXteCandidates(Competitor c, Waypoint w) {
-        synchronized (xteCandidates) {
-            Map<List<GPSFix>, Candidate> result = xteCandidates.get(c).get(w);
-            if (result == null) {
-                result = new HashMap<>();
-                xteCandidates.get(c).put(w, result);
-            }
-            return result;
+        return xteCandidates.get(c).computeIfAbsent(w, k->new HashMap<>());
+    }
+
+    /**
+     * @return the waypoints of the current course; the same array as returned by the previous call if the waypoints
+     *         haven't changed since
+     */
+    private Waypoint[] getCourseWaypoints() {
+        final Waypoint[] newCourseWaypoints;
+        final Course course = race.getRace().getCourse();
+        course.lockForRead();
+        try {
+            newCourseWaypoints = Util.toArray(course.getWaypoints(), new Waypoint[0]);
+        } finally {
+            course.unlockAfterRead();
+        }
+        final Waypoint[] previousCourseWaypoints = courseWaypoints;
+        final Waypoint[] result;
+        if (Arrays.equals(newCourseWaypoints, previousCourseWaypoints)) {
+            result = previousCourseWaypoints;
+        } else {
+            courseWaypoints = newCourseWaypoints;
+            result = newCourseWaypoints;
         }
+        return result;
     }
 
     private PassingInstruction determinePassingInstructions(Waypoint w) {
@@ -564,6 +580,7 @@ public class CandidateFinderImpl implements CandidateFinder {
                 new ArrayList<Candidate>(), new ArrayList<Candidate>());
         TreeSet<GPSFixMoving> affectedFixes = new TreeSet<GPSFixMoving>(comp);
         final GPSFixTrack<Competitor, GPSFixMoving> track = race.getTrack(c);
+        final Waypoint[] courseWaypoints = getCourseWaypoints();
         // remember last fixes to avoid expensive searches (bug4221)
         GPSFixMoving lastIterationFix = null;
         GPSFixMoving lastIterationAfterFix = null;
@@ -655,9 +672,9 @@ public class CandidateFinderImpl implements CandidateFinder {
             }
             if (fixBefore != null && fixAfter != null) {
                 TimePoint t = null;
-                Map<Waypoint, List<Distance>> fixDistances = getDistances(c, fix); // TODO bug4831 consider interpolating between fixBefore/fix/fixAfter to handle small sampling rates better
-                Map<Waypoint, List<Distance>> fixDistancesBefore = getDistances(c, fixBefore);
-                Map<Waypoint, List<Distance>> fixDistancesAfter = getDistances(c, fixAfter);
+                final WaypointDistances fixDistances = getDistances(c, fix, courseWaypoints); // TODO bug4831 consider interpolating between fixBefore/fix/fixAfter to handle small sampling rates better
+                final WaypointDistances fixDistancesBefore = getDistances(c, fixBefore, courseWaypoints);
+                final WaypointDistances fixDistancesAfter = getDistances(c, fixAfter, courseWaypoints);
                 for (Waypoint w : waypoints) {
                     Boolean wasCan = false;
                     Boolean isCan = false;
@@ -666,28 +683,30 @@ public class CandidateFinderImpl implements CandidateFinder {
                     Distance distance = null;
                     Double startProbabilityBasedOnOtherCompetitors = null;
                     double onCorrectSideOfWaypoint = 0.8;
-                    List<Distance> waypointDistances = fixDistances.get(w);
-                    List<Distance> waypointDistancesBefore = fixDistancesBefore.get(w);
-                    List<Distance> waypointDistancesAfter = fixDistancesAfter.get(w);
+                    final int waypointIndex = fixDistances.indexOf(w);
+                    final int waypointIndexBefore = fixDistancesBefore.indexOf(w);
+                    final int waypointIndexAfter = fixDistancesAfter.indexOf(w);
                     // due to course changes, waypoints that exist in the waypoints collection may not have a corresponding
                     // key in passingInstructions' key set which is the basis for the waypoints for which getDistances(...)
-                    // computes results; so we have to check for null here:
-                    if (waypointDistances != null && waypointDistancesBefore != null && waypointDistancesAfter != null) {
-                        Iterator<Distance> disIter = waypointDistances.iterator();
-                        Iterator<Distance> disBeforeIter = waypointDistancesBefore.iterator();
-                        Iterator<Distance> disAfterIter = waypointDistancesAfter.iterator();
+                    // computes results; so we have to check for their presence here:
+                    if (waypointIndex >= 0 && waypointIndexBefore >= 0 && waypointIndexAfter >= 0) {
+                        final int numberOfDistances = Math.min(fixDistances.size(waypointIndex),
+                                Math.min(fixDistancesBefore.size(waypointIndexBefore), fixDistancesAfter.size(waypointIndexAfter)));
                         boolean portMark = true;
-                        while (disIter.hasNext() && disBeforeIter.hasNext() && disAfterIter.hasNext()) {
-                            Distance dis = disIter.next();
-                            Distance disBefore = disBeforeIter.next();
-                            Distance disAfter = disAfterIter.next();
-                            if (dis != null && disBefore != null && disAfter != null) {
-                                if (Math.abs(dis.getMeters()) < Math.abs(disBefore.getMeters())
-                                        && Math.abs(dis.getMeters()) < Math.abs(disAfter.getMeters())) {
-                                    t = fix.getTimePoint();
-                                    final MarkPositionAtTimePointCache markPositionCache = new MarkPositionAtTimePointCacheImpl(race, t);
-                                    p = fix.getPosition();
-                                    Double newProbability = getDistanceBasedProbability(w, t, dis, markPositionCache, race.getBoatOfCompetitor(c).getBoatClass().getHullLength());
+                        for (int i=0; i<numberOfDistances; i++) {
+                            // unknown distances are NaN which fails all comparisons
+                            final double dis = fixDistances.getMeters(waypointIndex, i);
+                            final double disBefore = fixDistancesBefore.getMeters(waypointIndexBefore, i);
+                            final double disAfter = fixDistancesAfter.getMeters(waypointIndexAfter, i);
+                            if (Math.abs(dis) < Math.abs(disBefore) && Math.abs(dis) < Math.abs(disAfter)) {
+                                t = fix.getTimePoint();
+                                final MarkPositionAtTimePointCache markPositionCache = new MarkPositionAtTimePointCacheImpl(race, t);
+                                p = fix.getPosition();
+                                // the cache only holds the meters; the local minimum being rare, compute the Distance object again
+                                final List<Distance> distancesToWaypoint = calculateDistance(p, w, t, markPositionCache);
+                                final Distance disAsDistance = distancesToWaypoint.size() > i ? distancesToWaypoint.get(i) : null;
+                                if (disAsDistance != null) {
+                                    Double newProbability = getDistanceBasedProbability(w, t, disAsDistance, markPositionCache, race.getBoatOfCompetitor(c).getBoatClass().getHullLength());
                                     if (newProbability != null) {
                                         // FIXME why not generate the candidate here where we have all information at hand?
                                         final double newOnCorrectSideOfWaypointPenalty = getSidePenalty(w, p, t, portMark, markPositionCache);
@@ -706,7 +725,7 @@ public class CandidateFinderImpl implements CandidateFinder {
                                             isCan = true;
                                             probability = newProbability;
                                             onCorrectSideOfWaypoint = newOnCorrectSideOfWaypointPenalty;
-                                            distance = dis;
+                                            distance = disAsDistance;
                                             startProbabilityBasedOnOtherCompetitors = newStartProbabilityBasedOnOtherCompetitors;
                                         }
                                     }
@@ -742,24 +761,29 @@ public class CandidateFinderImpl implements CandidateFinder {
         return result;
     }
 
-    private Map<Waypoint, List<Distance>> getDistances(Competitor c, GPSFix fix) {
+    /**
+     * @param courseWaypoints
+     *            the waypoints of the course as obtained from {@link #getCourseWaypoints()}
+     */
+    private WaypointDistances getDistances(Competitor c, GPSFix fix, Waypoint[] courseWaypoints) {
         // TODO Possibly for specific waypoints
-        Map<Waypoint, List<Distance>> result = distanceCache.get(c).get(fix);
-        final MarkPositionAtTimePointCache markPositionCache = new MarkPositionAtTimePointCacheImpl(race, fix.getTimePoint());
+        final WaypointDistancesPerFixCache cache = distanceCache.get(c);
+        WaypointDistances result = cache.get(fix);
         if (result == null) {
             // Else calculate distances and put them into the cache
-            result = new LinkedHashMap<>();
+            final MarkPositionAtTimePointCache markPositionCache = new MarkPositionAtTimePointCacheImpl(race, fix.getTimePoint());
+            final WaypointDistancesBuilder builder = new WaypointDistancesBuilder(courseWaypoints.length);
             Course course = race.getRace().getCourse();
             course.lockForRead();
             try {
-                for (Waypoint w : course.getWaypoints()) {
-                    List<Distance> distances = calculateDistance(fix.getPosition(), w, fix.getTimePoint(), markPositionCache);
-                    result.put(w, distances);
+                for (Waypoint w : courseWaypoints) {
+                    builder.add(w, calculateDistance(fix.getPosition(), w, fix.getTimePoint(), markPositionCache));
                 }
             } finally {
                 course.unlockAfterRead();
             }
-            distanceCache.get(c).put(fix, result);
+            result = builder.build(courseWaypoints);
+            cache.put(fix, result);
         }
         return result;
     }
@@ -775,6 +799,7 @@ public class CandidateFinderImpl implements CandidateFinder {
         Util.Pair<List<Candidate>, List<Candidate>> result = new Util.Pair<List<Candidate>, List<Candidate>>(
                 new ArrayList<Candidate>(), new ArrayList<Candidate>());
         final DynamicGPSFixTrack<Competitor, GPSFixMoving> track = race.getTrack(c);
+        final Waypoint[] courseWaypoints = getCourseWaypoints();
         // remember last fixes to avoid expensive searches (bug4221)
         GPSFixMoving lastIterationFix = null;
         GPSFixMoving lastIterationAfterFix = null;
@@ -813,19 +838,19 @@ public class CandidateFinderImpl implements CandidateFinder {
                     track.unlockAfterRead();
                 }
                 if (fixIsValid) {
-                    Map<Waypoint, List<Distance>> xtesBefore = null;
-                    Map<Waypoint, List<Distance>> xtesAfter = null;
+                    WaypointDistances xtesBefore = null;
+                    WaypointDistances xtesAfter = null;
                     TimePoint tBefore = null;
                     TimePoint tAfter = null;
                     if (fixBefore != null) {
-                        xtesBefore = getXTE(c, fixBefore);
+                        xtesBefore = getXTE(c, fixBefore, courseWaypoints);
                         tBefore = fixBefore.getTimePoint();
                     }
                     if (fixAfter != null) {
-                        xtesAfter = getXTE(c, fixAfter);
+                        xtesAfter = getXTE(c, fixAfter, courseWaypoints);
                         tAfter = fixAfter.getTimePoint();
                     }
-                    Map<Waypoint, List<Distance>> xtes = getXTE(c, fix);
+                    final WaypointDistances xtes = getXTE(c, fix, courseWaypoints);
                     for (Waypoint w : waypoints) {
                         List<List<GPSFix>> oldCandidates = new ArrayList<>();
                         Map<List<GPSFix>, Candidate> newCandidates = new HashMap<List<GPSFix>, Candidate>();
@@ -835,22 +860,24 @@ public class CandidateFinderImpl implements CandidateFinder {
                                 oldCandidates.add(fixPair);
                             }
                         }
-                        List<Distance> wayPointXTEs = xtes.get(w);
-                        final int size = wayPointXTEs == null ? 0 : wayPointXTEs.size();
+                        final int waypointIndex = xtes.indexOf(w);
+                        final int waypointIndexBefore = xtesBefore == null ? -1 : xtesBefore.indexOf(w);
+                        final int waypointIndexAfter = xtesAfter == null ? -1 : xtesAfter.indexOf(w);
+                        final int size = xtes.size(waypointIndex);
                         if (size > 0) {
-                            Double xte = wayPointXTEs.get(0).getMeters();
+                            final double xte = xtes.getMeters(waypointIndex, 0);
                             if (xte == 0) {
                                 newCandidates.put(Arrays.asList(fix, fix), createCandidate(c, 0, 0, t, t, w, true));
                             } else {
-                                if (fixAfter != null && xtesAfter != null && xtesAfter.get(w) != null && !xtesAfter.get(w).isEmpty()) {
-                                    Double xteAfter = xtesAfter.get(w).get(0).getMeters();
-                                    if (xteAfter != null && xte < 0 != xteAfter <= 0) {
+                                if (fixAfter != null && xtesAfter.size(waypointIndexAfter) > 0) {
+                                    final double xteAfter = xtesAfter.getMeters(waypointIndexAfter, 0);
+                                    if (xte < 0 != xteAfter <= 0) {
                                         newCandidates.put(Arrays.asList(fix, fixAfter),
                                                 createCandidate(c, xte, xteAfter, t, tAfter, w, true));
                                     }
                                 }
-                                if (fixBefore != null && xtesBefore.get(w) != null && !xtesBefore.get(w).isEmpty()) {
-                                    Double xteBefore = xtesBefore.get(w).get(0).getMeters();
+                                if (fixBefore != null && xtesBefore.size(waypointIndexBefore) > 0) {
+                                    final double xteBefore = xtesBefore.getMeters(waypointIndexBefore, 0);
                                     if (xte < 0 != xteBefore <= 0) {
                                         newCandidates.put(Arrays.asList(fixBefore, fix),
                                                 createCandidate(c, xteBefore, xte, tBefore, t, w, true));
@@ -859,20 +886,20 @@ public class CandidateFinderImpl implements CandidateFinder {
                             }
                         }
                         if (size > 1) {
-                            Double xte = wayPointXTEs.get(1).getMeters();
+                            final double xte = xtes.getMeters(waypointIndex, 1);
                             if (xte == 0) {
                                 newCandidates.put(Arrays.asList(fix, fix), createCandidate(c, 0, 0, t, t, w, false));
                             } else {
-                                if (fixAfter != null && xtesAfter != null && xtesAfter.get(w).size() >= 2) {
-                                    Double xteAfter = xtesAfter.get(w).get(1).getMeters();
+                                if (fixAfter != null && xtesAfter.size(waypointIndexAfter) >= 2) {
+                                    final double xteAfter = xtesAfter.getMeters(waypointIndexAfter, 1);
                                     if (xte < 0 != xteAfter <= 0) {
                                         newCandidates.put(Arrays.asList(fix, fixAfter),
                                                 createCandidate(c, xte, xteAfter, t, tAfter, w,
                                                         /* still portMark in case of single-mark waypoint */ Util.size(w.getMarks()) < 2));
                                     }
                                 }
-                                if (fixBefore != null && xtesBefore.get(w).size() >= 2) {
-                                    Double xteBefore = xtesBefore.get(w).get(1).getMeters();
+                                if (fixBefore != null && xtesBefore.size(waypointIndexBefore) >= 2) {
+                                    final double xteBefore = xtesBefore.getMeters(waypointIndexBefore, 1);
                                     if (xte < 0 != xteBefore <= 0) {
                                         newCandidates.put(Arrays.asList(fixBefore, fix),
                                                 createCandidate(c, xteBefore, xte, tBefore, t, w,
@@ -916,41 +943,45 @@ public class CandidateFinderImpl implements CandidateFinder {
     }
 
     /**
-     * Returns a non-{@code null} mapping from the waypoints currently in the course, telling the {@code fix}'s
-     * cross-track error for each waypoint. There may be "excess" entries from older waypoints that have already
-     * been removed from the course which may be reflected only by a later call to {@link #invalidateAfterCourseChange(int)}.
-     * See also bug 5021.
+     * Returns the {@code fix}'s cross-track errors for all waypoints currently in the course. There may be "excess"
+     * entries from older waypoints that have already been removed from the course which may be reflected only by a
+     * later call to {@link #invalidateAfterCourseChange(int)}. See also bug 5021.
      * 
-     * @return if for a waypoint the mark positions are known, the resulting map will contain a non-empty list that for
-     *         each way of passing the waypoint (e.g., for a gate the competitor can round the left or the right mark) the
-     *         cross track error of the {@code fix} to the virtual line that must be crossed is contained; if the mark
-     *         positions are not known, that waypoint's value will be an empty list.
+     * @param courseWaypoints
+     *            the waypoints of the course as obtained from {@link #getCourseWaypoints()}
+     * @return if for a waypoint the mark positions are known, the result will contain for each way of passing the
+     *         waypoint (e.g., for a gate the competitor can round the left or the right mark) the cross track error of
+     *         the {@code fix} to the virtual line that must be crossed; if the mark positions are not known, the result
+     *         will contain no cross track errors for that waypoint.
      */
-    private Map<Waypoint, List<Distance>> getXTE(Competitor c, GPSFix fix) {
-        Map<Waypoint, List<Distance>> result = xteCache.get(c).get(fix);
-        Course course = race.getRace().getCourse();
-        course.lockForRead();
-        try {
-            if (result == null) {
-                result = new HashMap<>();
-                xteCache.get(c).put(fix, result);
-            }
+    private WaypointDistances getXTE(Competitor c, GPSFix fix, Waypoint[] courseWaypoints) {
+        final WaypointDistancesPerFixCache cache = xteCache.get(c);
+        WaypointDistances result = cache.get(fix);
+        if (result == null || !result.containsAll(courseWaypoints)) { // bug5021: calculate in case waypoint was added since last call
+            final WaypointDistancesBuilder builder = result == null ? new WaypointDistancesBuilder(courseWaypoints.length)
+                    : new WaypointDistancesBuilder(result, /* expectedNumberOfAdditionalWaypoints */ 1);
             final Position p = fix.getPosition();
             final TimePoint t = fix.getTimePoint();
             final MarkPositionAtTimePointCache markPositionCache = new MarkPositionAtTimePointCacheImpl(race, t);
-            for (Waypoint w : course.getWaypoints()) {
-                if (!result.containsKey(w)) { // bug5021: calculate in case waypoint was added since last call
-                    List<Distance> distances = new ArrayList<>();
-                    result.put(w, distances);
-                    for (Util.Pair<Position, Bearing> crossingInfo : getCrossingInformation(w, t, markPositionCache)) {
-                        if (crossingInfo.getA() != null && crossingInfo.getB() != null) {
-                            distances.add(p.crossTrackError(crossingInfo.getA(), crossingInfo.getB()));
+            Course course = race.getRace().getCourse();
+            course.lockForRead();
+            try {
+                for (Waypoint w : courseWaypoints) {
+                    if (result == null || result.indexOf(w) < 0) {
+                        List<Distance> distances = new ArrayList<>();
+                        for (Util.Pair<Position, Bearing> crossingInfo : getCrossingInformation(w, t, markPositionCache)) {
+                            if (crossingInfo.getA() != null && crossingInfo.getB() != null) {
+                                distances.add(p.crossTrackError(crossingInfo.getA(), crossingInfo.getB()));
+                            }
                         }
+                        builder.add(w, distances);
                     }
                 }
+            } finally {
+                course.unlockAfterRead();
             }
-        } finally {
-            course.unlockAfterRead();
+            result = builder.build(courseWaypoints);
+            cache.put(fix, result);
         }
         return result;
     }
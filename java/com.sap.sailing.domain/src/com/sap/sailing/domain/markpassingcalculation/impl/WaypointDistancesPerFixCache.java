@@ -0,0 +1,194 @@
+package com.sap.sailing.domain.markpassingcalculation.impl;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sap.sailing.domain.base.Waypoint;
+import com.sap.sailing.domain.common.tracking.GPSFix;
+import com.sap.sse.common.Distance;
+
+/**
+ * Caches, for a limited number of a competitor's fixes, the distances in meters of each fix to each of a set of
+ * waypoints, such as the distances to the marks of the waypoints or the cross-track errors to their passing lines. The
+ * distances of a fix are kept in a single {@link WaypointDistances} object that stores them in primitive arrays instead
+ * of maps and lists of {@link Distance} objects, keeping the number of objects retained per fix small.
+ * <p>
+ *
+ * When more than the limit of fixes are cached, the fix added first is evicted. Like the {@link CandidateFinderImpl}
+ * using it, this class is not thread-safe; callers have to ensure that only one thread at a time uses the cache for a
+ * competitor.
+ */
+class WaypointDistancesPerFixCache {
+    private final Map<GPSFix, WaypointDistances> distancesPerFix;
+
+    /**
+     * The distances of one fix to a set of waypoints. For each waypoint there may be any number of distances, e.g., one
+     * for each mark of a gate; a {@code null} distance is represented as {@link Double#NaN}. Immutable.
+     */
+    static class WaypointDistances {
+        private final Waypoint[] waypoints;
+
+        /**
+         * The distances for {@code waypoints[i]} are stored in {@link #meters} starting at {@code offsets[i]} and
+         * ending before {@code offsets[i+1]}
+         */
+        private final int[] offsets;
+
+        private final double[] meters;
+
+        private WaypointDistances(Waypoint[] waypoints, int[] offsets, double[] meters) {
+            this.waypoints = waypoints;
+            this.offsets = offsets;
+            this.meters = meters;
+        }
+
+        /**
+         * @return the index of {@code waypoint} to be used for {@link #size(int)} and {@link #getMeters(int, int)}, or
+         *         -1 if no distances are known for {@code waypoint}
+         */
+        int indexOf(Waypoint waypoint) {
+            for (int i = 0; i < waypoints.length; i++) {
+                if (waypoints[i] == waypoint) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * @return the number of distances known for the waypoint at {@code waypointIndex}; 0 if {@code waypointIndex}
+         *         is -1
+         */
+        int size(int waypointIndex) {
+            return waypointIndex < 0 ? 0 : offsets[waypointIndex + 1] - offsets[waypointIndex];
+        }
+
+        /**
+         * @return the {@code i}-th distance in meters for the waypoint at {@code waypointIndex}, or {@link Double#NaN}
+         *         if that distance is not known
+         */
+        double getMeters(int waypointIndex, int i) {
+            return meters[offsets[waypointIndex] + i];
+        }
+
+        /**
+         * @return {@code true} if distances are known for all {@code waypoints}
+         */
+        boolean containsAll(Waypoint[] waypoints) {
+            boolean result = true;
+            if (waypoints != this.waypoints) {
+                for (final Waypoint waypoint : waypoints) {
+                    if (indexOf(waypoint) < 0) {
+                        result = false;
+                        break;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Assembles a {@link WaypointDistances} object from the distances {@link #add(Waypoint, List) added} for each
+     * waypoint.
+     */
+    static class WaypointDistancesBuilder {
+        private Waypoint[] waypoints;
+        private int[] offsets;
+        private double[] meters;
+        private int numberOfWaypoints;
+
+        WaypointDistancesBuilder(int expectedNumberOfWaypoints) {
+            waypoints = new Waypoint[expectedNumberOfWaypoints];
+            offsets = new int[expectedNumberOfWaypoints + 1];
+            meters = new double[2 * expectedNumberOfWaypoints];
+        }
+
+        /**
+         * Starts with the distances of {@code distances}, for adding those for further waypoints
+         */
+        WaypointDistancesBuilder(WaypointDistances distances, int expectedNumberOfAdditionalWaypoints) {
+            numberOfWaypoints = distances.waypoints.length;
+            waypoints = Arrays.copyOf(distances.waypoints, numberOfWaypoints + expectedNumberOfAdditionalWaypoints);
+            offsets = Arrays.copyOf(distances.offsets, numberOfWaypoints + expectedNumberOfAdditionalWaypoints + 1);
+            meters = Arrays.copyOf(distances.meters, distances.meters.length + 2 * expectedNumberOfAdditionalWaypoints);
+        }
+
+        /**
+         * @param distances
+         *            the distances to {@code waypoint}; {@code null} elements are recorded as unknown distances
+         */
+        WaypointDistancesBuilder add(Waypoint waypoint, List<Distance> distances) {
+            if (numberOfWaypoints == waypoints.length) {
+                waypoints = Arrays.copyOf(waypoints, 2 * numberOfWaypoints + 1);
+                offsets = Arrays.copyOf(offsets, 2 * numberOfWaypoints + 2);
+            }
+            int offset = offsets[numberOfWaypoints];
+            if (offset + distances.size() > meters.length) {
+                meters = Arrays.copyOf(meters, Math.max(2 * meters.length, offset + distances.size()));
+            }
+            for (final Distance distance : distances) {
+                meters[offset++] = distance == null ? Double.NaN : distance.getMeters();
+            }
+            waypoints[numberOfWaypoints++] = waypoint;
+            offsets[numberOfWaypoints] = offset;
+            return this;
+        }
+
+        private boolean hasSameWaypoints(Waypoint[] waypoints) {
+            boolean result = waypoints.length == numberOfWaypoints;
+            for (int i = 0; result && i < numberOfWaypoints; i++) {
+                result = waypoints[i] == this.waypoints[i];
+            }
+            return result;
+        }
+
+        /**
+         * @param waypoints
+         *            if it has the same contents as the waypoints added, the array is shared with the object returned,
+         *            so that {@link WaypointDistances#containsAll(Waypoint[])} will recognize it quickly; must not be
+         *            modified afterwards
+         * @return the distances added; the builder must not be used anymore afterwards
+         */
+        WaypointDistances build(Waypoint[] waypoints) {
+            final int numberOfDistances = offsets[numberOfWaypoints];
+            return new WaypointDistances(
+                    hasSameWaypoints(waypoints) ? waypoints : Arrays.copyOf(this.waypoints, numberOfWaypoints),
+                    numberOfWaypoints + 1 == offsets.length ? offsets : Arrays.copyOf(offsets, numberOfWaypoints + 1),
+                    numberOfDistances == meters.length ? meters : Arrays.copyOf(meters, numberOfDistances));
+        }
+    }
+
+    /**
+     * @param limit
+     *            the maximum number of fixes for which to cache the distances
+     */
+    WaypointDistancesPerFixCache(int limit) {
+        distancesPerFix = new LinkedHashMap<GPSFix, WaypointDistances>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<GPSFix, WaypointDistances> eldest) {
+                return size() > limit;
+            }
+        };
+    }
+
+    WaypointDistances get(GPSFix fix) {
+        return distancesPerFix.get(fix);
+    }
+
+    void put(GPSFix fix, WaypointDistances distances) {
+        distancesPerFix.put(fix, distances);
+    }
+
+    void remove(GPSFix fix) {
+        distancesPerFix.remove(fix);
+    }
+
+    void clear() {
+        distancesPerFix.clear();
+    }
+}
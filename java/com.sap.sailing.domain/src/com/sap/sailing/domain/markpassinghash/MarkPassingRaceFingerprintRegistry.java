@@ -7,6 +7,7 @@ import com.sap.sailing.domain.base.Course;
 import com.sap.sailing.domain.base.Waypoint;
 import com.sap.sailing.domain.common.RaceIdentifier;
 import com.sap.sailing.domain.common.TrackedRaceStatusEnum;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprintRegistry;
 import com.sap.sailing.domain.tracking.DynamicTrackedRace;
 import com.sap.sailing.domain.tracking.MarkPassing;
 import com.sap.sailing.domain.tracking.TrackedRace;
@@ -53,4 +54,13 @@ public interface MarkPassingRaceFingerprintRegistry {
     Map<Competitor, Map<Waypoint, MarkPassing>> loadMarkPassings(RaceIdentifier raceIdentifier, Course course);
     
     void removeStoredMarkPassings(RaceIdentifier raceIdentifier);
+
+    /**
+     * Races whose mark passings are managed by this registry may also store their maneuvers in the registry returned.
+     * 
+     * @return {@code null} if maneuvers are not to be stored; this default implementation always returns {@code null}
+     */
+    default ManeuverRaceFingerprintRegistry getManeuverRaceFingerprintRegistry() {
+        return null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+package com.sap.sailing.domain.orc.impl;
+
+import com.sap.sailing.domain.orc.ORCPerformanceCurve;
+import com.sap.sse.common.util.CubicSpline;
+
+/**
+ * Inverts the spline of an {@link ORCPerformanceCurve} that maps the true wind speed to the average speed predicted
+ * for the course, answering the implied wind for an average speed sailed. When constructed, the spline is sampled at
+ * {@link #SAMPLES_PER_TRUE_WIND_SPEED_INTERVAL} points between each two of the certificate's true wind speeds. A lookup
+ * then finds the two samples enclosing the average speed by binary search, interpolates linearly between them and
+ * refines the result with at most {@link #MAX_REFINEMENT_STEPS} Newton steps on the spline itself, falling back to
+ * bisection where a Newton step would leave the enclosing interval. No objects are allocated by a lookup.
+ * <p>
+ *
+ * The table inversion requires the average speed to grow strictly with the true wind speed, as it does for all
+ * certificates seen so far. Use {@link #isMonotone()} to find out whether this holds for the samples taken; if it
+ * doesn't, the caller has to solve for the implied wind some other way.
+ * <p>
+ *
+ * Instances are immutable and may be used concurrently.
+ */
+public class ORCImpliedWindSolver {
+    /**
+     * The number of intervals into which the range between two adjacent true wind speeds from the certificate is split
+     * for the lookup table
+     */
+    static final int SAMPLES_PER_TRUE_WIND_SPEED_INTERVAL = 8;
+
+    static final int MAX_REFINEMENT_STEPS = 8;
+
+    /**
+     * Refinement stops when a Newton step changes the implied wind by less than this many knots; this is the same
+     * absolute accuracy the {@link org.apache.commons.math3.analysis.solvers.NewtonRaphsonSolver} was used with.
+     */
+    static final double ACCURACY_IN_KNOTS = 0.0000000001;
+
+    private final CubicSpline averageSpeedInKnotsByTrueWindSpeedInKnots;
+
+    /**
+     * Ascending true wind speeds at which the spline was sampled; the first and the last element are the lowest and the
+     * highest true wind speed of the certificate
+     */
+    private final double[] trueWindSpeedsInKnots;
+
+    /**
+     * The spline's values at the {@link #trueWindSpeedsInKnots}
+     */
+    private final double[] averageSpeedsInKnots;
+
+    private final boolean monotone;
+
+    /**
+     * @param certificateTrueWindSpeedsInKnots
+     *            the certificate's true wind speeds in ascending order; at least one
+     */
+    public ORCImpliedWindSolver(CubicSpline averageSpeedInKnotsByTrueWindSpeedInKnots, double[] certificateTrueWindSpeedsInKnots) {
+        this.averageSpeedInKnotsByTrueWindSpeedInKnots = averageSpeedInKnotsByTrueWindSpeedInKnots;
+        final int numberOfSamples = (certificateTrueWindSpeedsInKnots.length - 1) * SAMPLES_PER_TRUE_WIND_SPEED_INTERVAL + 1;
+        trueWindSpeedsInKnots = new double[numberOfSamples];
+        averageSpeedsInKnots = new double[numberOfSamples];
+        boolean isMonotone = true;
+        for (int i = 0; i < numberOfSamples; i++) {
+            final int interval = i / SAMPLES_PER_TRUE_WIND_SPEED_INTERVAL;
+            final int sampleInInterval = i % SAMPLES_PER_TRUE_WIND_SPEED_INTERVAL;
+            final double tws;
+            if (sampleInInterval == 0) {
+                tws = certificateTrueWindSpeedsInKnots[interval]; // hit the certificate's values exactly
+            } else {
+                final double intervalStart = certificateTrueWindSpeedsInKnots[interval];
+                tws = intervalStart + (certificateTrueWindSpeedsInKnots[interval + 1] - intervalStart) * sampleInInterval
+                        / SAMPLES_PER_TRUE_WIND_SPEED_INTERVAL;
+            }
+            trueWindSpeedsInKnots[i] = tws;
+            averageSpeedsInKnots[i] = averageSpeedInKnotsByTrueWindSpeedInKnots.interpolate(tws);
+            if (i > 0 && averageSpeedsInKnots[i] <= averageSpeedsInKnots[i - 1]) {
+                isMonotone = false;
+            }
+        }
+        monotone = isMonotone;
+    }
+
+    /**
+     * @return {@code true} if the average speeds sampled grow strictly with the true wind speed; only then does
+     *         {@link #getImpliedWindInKnots(double)} answer correctly
+     */
+    public boolean isMonotone() {
+        return monotone;
+    }
+
+    /**
+     * Finds the true wind speed at which the boat is predicted to sail the course at the {@code averageSpeedInKnots}.
+     * Like the ORC PCS, the result is capped to the certificate's lowest and highest true wind speed.
+     *
+     * @return the implied wind in knots
+     */
+    public double getImpliedWindInKnots(double averageSpeedInKnots) {
+        final int last = averageSpeedsInKnots.length - 1;
+        final double result;
+        if (averageSpeedInKnots >= averageSpeedsInKnots[last]) {
+            result = trueWindSpeedsInKnots[last];
+        } else if (averageSpeedInKnots <= averageSpeedsInKnots[0]) {
+            result = trueWindSpeedsInKnots[0];
+        } else {
+            // find i such that averageSpeedsInKnots[i] < averageSpeedInKnots <= averageSpeedsInKnots[i+1]
+            int low = 0;
+            int high = last;
+            while (high - low > 1) {
+                final int middle = (low + high) >>> 1;
+                if (averageSpeedsInKnots[middle] < averageSpeedInKnots) {
+                    low = middle;
+                } else {
+                    high = middle;
+                }
+            }
+            result = refine(averageSpeedInKnots, trueWindSpeedsInKnots[low], averageSpeedsInKnots[low],
+                    trueWindSpeedsInKnots[high], averageSpeedsInKnots[high]);
+        }
+        return result;
+    }
+
+    /**
+     * Starting with the linear interpolation between the two samples, applies Newton steps to the spline, keeping the
+     * result between {@code lowerTws} and {@code upperTws} whose average speeds enclose {@code averageSpeedInKnots}.
+     */
+    private double refine(double averageSpeedInKnots, double lowerTws, double averageSpeedAtLowerTws, double upperTws,
+            double averageSpeedAtUpperTws) {
+        double low = lowerTws;
+        double high = upperTws;
+        double tws = low + (high - low) * (averageSpeedInKnots - averageSpeedAtLowerTws)
+                / (averageSpeedAtUpperTws - averageSpeedAtLowerTws);
+        for (int step = 0; step < MAX_REFINEMENT_STEPS; step++) {
+            final double difference = averageSpeedInKnotsByTrueWindSpeedInKnots.interpolate(tws) - averageSpeedInKnots;
+            if (difference == 0) {
+                break;
+            }
+            if (difference < 0) {
+                low = tws;
+            } else {
+                high = tws;
+            }
+            final double derivative = averageSpeedInKnotsByTrueWindSpeedInKnots.differentiate(tws);
+            double next = tws - difference / derivative;
+            if (!(next > low && next < high)) { // also catches a NaN resulting from a zero derivative
+                next = (low + high) / 2;
+            }
+            final boolean converged = Math.abs(next - tws) < ACCURACY_IN_KNOTS;
+            tws = next;
+            if (converged) {
+                break;
+            }
+        }
+        return tws;
+    }
+}
@@ -75,6 +75,13 @@ public class ORCPerformanceCurveImpl implements Serializable, ORCPerformanceCurv
      */
     private final UnivariateDifferentiableFunction functionImpliedWindInKnotsToAverageSpeedInKnotsForCourse;
     
+    /**
+     * Inverts {@link #functionImpliedWindInKnotsToAverageSpeedInKnotsForCourse} by a lookup table computed once when
+     * this performance curve is created; used by {@link #getImpliedWind(Duration)} unless the average speeds don't
+     * grow strictly with the true wind speed.
+     */
+    private final ORCImpliedWindSolver impliedWindSolver;
+    
     /**
      * The {@link ORCCertificate#getTrueWindAngles()} from the certificate
      */
@@ -99,7 +106,21 @@ public class ORCPerformanceCurveImpl implements Serializable, ORCPerformanceCurv
         this.course = course;
         this.trueWindAngles = certificate.getTrueWindAngles();
         this.trueWindSpeeds = certificate.getTrueWindSpeeds();
-        functionImpliedWindInKnotsToAverageSpeedInKnotsForCourse = createPerformanceCurve(certificate, cache);
+        final CubicSpline performanceCurve = createPerformanceCurve(certificate, cache);
+        functionImpliedWindInKnotsToAverageSpeedInKnotsForCourse = new UnivariateDifferentiableFunction() {
+            @Override
+            public double value(double x) {
+                return performanceCurve.interpolate(x);
+            }
+
+            @Override
+            public DerivativeStructure value(DerivativeStructure t) throws DimensionMismatchException {
+                return new DerivativeStructure(t.getFreeParameters(), t.getOrder(), performanceCurve.interpolate(t.getValue()),
+                        performanceCurve.differentiate(t.getValue()));
+            }
+        };
+        impliedWindSolver = new ORCImpliedWindSolver(performanceCurve,
+                Arrays.stream(trueWindSpeeds).mapToDouble(Speed::getKnots).toArray());
     }
 
     /**
@@ -118,7 +139,7 @@ public class ORCPerformanceCurveImpl implements Serializable, ORCPerformanceCurv
      * assumed at 10000kts true wind speed is the same as for the highest wind speed from the original list.
      * <p>
      */
-    private UnivariateDifferentiableFunction createPerformanceCurve(ORCCertificate certificate,
+    private CubicSpline createPerformanceCurve(ORCCertificate certificate,
             ORCPerformanceCurveCache cache) throws FunctionEvaluationException {
         final Map<Speed, Duration> allowancesForCoursePerTrueWindSpeed = createAllowancesPerCourse(certificate, cache);
         double[] xs = new double[certificate.getTrueWindSpeeds().length+2];
@@ -134,22 +155,9 @@ public class ORCPerformanceCurveImpl implements Serializable, ORCPerformanceCurv
         }
         xs[i] = 10000;   // see original Pascal code; the last "knot" is at 10000 knots of true wind speed
         ys[i] = ys[i-1]; // and repeats the last allowance, probably to flatten the curve at its end
-        final CubicSpline interpolator = CubicSpline.interpolateBoundariesSorted(xs, ys,
+        return CubicSpline.interpolateBoundariesSorted(xs, ys,
                 SplineBoundaryCondition.ParabolicallyTerminated, /* leftBoundary */ 0,
                 SplineBoundaryCondition.ParabolicallyTerminated, /* rightBoundary */ 0);
-        final UnivariateDifferentiableFunction splineFunction = new UnivariateDifferentiableFunction() {
-            @Override
-            public double value(double x) {
-                return interpolator.interpolate(x);
-            }
-
-            @Override
-            public DerivativeStructure value(DerivativeStructure t) throws DimensionMismatchException {
-                return new DerivativeStructure(t.getFreeParameters(), t.getOrder(), interpolator.interpolate(t.getValue()),
-                        interpolator.differentiate(t.getValue()));
-            }
-        };
-        return splineFunction;
     }
 
     /**
@@ -268,7 +276,26 @@ public class ORCPerformanceCurveImpl implements Serializable, ORCPerformanceCurv
     }
 
     @Override
-    public Speed getImpliedWind(Duration durationToCompleteCourse) throws MaxIterationsExceededException, FunctionEvaluationException{
+    public Speed getImpliedWind(Duration durationToCompleteCourse) throws MaxIterationsExceededException, FunctionEvaluationException {
+        final Speed result;
+        if (impliedWindSolver.isMonotone()) {
+            result = new KnotSpeedImpl(impliedWindSolver.getImpliedWindInKnots(
+                    getCourse().getTotalLength().inTime(durationToCompleteCourse).getKnots()));
+        } else {
+            result = getImpliedWindUsingNewtonRaphson(durationToCompleteCourse);
+        }
+        return result;
+    }
+
+    /**
+     * Solves for the implied wind by applying a {@link NewtonRaphsonSolver} to the performance curve. Slower than the
+     * table-based {@link ORCImpliedWindSolver} but doesn't require the average speed to grow strictly with the true
+     * wind speed.
+     * <p>
+     * 
+     * public accessibility needed for tests, not part of the ORCPerformanceCurve contract
+     */
+    public Speed getImpliedWindUsingNewtonRaphson(Duration durationToCompleteCourse) throws MaxIterationsExceededException, FunctionEvaluationException {
         final Speed averageSpeedOnCourse = getCourse().getTotalLength().inTime(durationToCompleteCourse);
         final double[] predictedSpeedsInKnotsForTotalCourseByTrueWindSpeed = Arrays.stream(trueWindSpeeds).mapToDouble
                 (tws->{ return functionImpliedWindInKnotsToAverageSpeedInKnotsForCourse.value(tws.getKnots()); }).toArray();
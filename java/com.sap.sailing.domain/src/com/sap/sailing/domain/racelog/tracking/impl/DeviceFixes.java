@@ -0,0 +1,269 @@
+package com.sap.sailing.domain.racelog.tracking.impl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sap.sailing.domain.racelog.tracking.impl.SensorFixSegment.RecordVisitor;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.TimeRange;
+import com.sap.sse.common.Timed;
+import com.sap.sse.common.TransformationException;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+import com.sap.sse.common.impl.TimeRangeImpl;
+import com.sap.sse.concurrent.LockUtil;
+import com.sap.sse.concurrent.NamedReentrantReadWriteLock;
+
+/**
+ * The fixes of one device as stored by the {@link FileSensorFixStoreImpl} in a directory of its own. The fixes are
+ * distributed across {@link SensorFixSegment segments} by time partitions of a fixed duration; the segment for the
+ * partition starting at time point <code>t</code> is stored in the file <code>t.fixes</code>. Since the partitions
+ * don't overlap, visiting the segments in partition order visits the fixes in time order. Additionally, the youngest
+ * fix received is kept in the file {@link #LAST_RECEIVED_FILE_NAME}, like the MongoDB-based store keeps the youngest fix
+ * of each batch stored in its metadata.
+ */
+class DeviceFixes implements Closeable {
+    private static final Logger logger = Logger.getLogger(DeviceFixes.class.getName());
+
+    private static final String SEGMENT_FILE_NAME_SUFFIX = ".fixes";
+
+    static final String LAST_RECEIVED_FILE_NAME = "lastReceived.fix";
+
+    private final File directory;
+
+    private final long partitionDurationInMillis;
+
+    private final NamedReentrantReadWriteLock lock;
+
+    /**
+     * Keyed by the start of the time partition in milliseconds since the epoch
+     */
+    private final NavigableMap<Long, SensorFixSegment> segments;
+
+    private final OpenSegmentFiles openSegmentFiles;
+
+    private final File lastReceivedFile;
+
+    private Timed lastReceived;
+
+    DeviceFixes(File directory, long partitionDurationInMillis, OpenSegmentFiles openSegmentFiles) throws IOException {
+        this.directory = directory;
+        this.partitionDurationInMillis = partitionDurationInMillis;
+        this.openSegmentFiles = openSegmentFiles;
+        this.lock = new NamedReentrantReadWriteLock("Fixes of device in " + directory, /* fair */ false);
+        this.segments = new TreeMap<>();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Could not create directory " + directory);
+        }
+        final File[] segmentFiles = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_FILE_NAME_SUFFIX));
+        if (segmentFiles != null) {
+            for (final File segmentFile : segmentFiles) {
+                final String name = segmentFile.getName();
+                final long partitionStart;
+                try {
+                    partitionStart = Long.parseLong(name.substring(0, name.length() - SEGMENT_FILE_NAME_SUFFIX.length()));
+                } catch (NumberFormatException e) {
+                    logger.log(Level.WARNING, "Ignoring unexpected file " + segmentFile);
+                    continue;
+                }
+                segments.put(partitionStart, new SensorFixSegment(segmentFile, openSegmentFiles));
+            }
+        }
+        lastReceivedFile = new File(directory, LAST_RECEIVED_FILE_NAME);
+        lastReceived = readLastReceived();
+    }
+
+    private Timed readLastReceived() throws IOException {
+        Timed result = null;
+        if (lastReceivedFile.exists()) {
+            try (FileChannel lastReceivedChannel = FileChannel.open(lastReceivedFile.toPath(), StandardOpenOption.READ)) {
+                final long size = lastReceivedChannel.size();
+                if (size > 0) {
+                    final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                    while (buffer.hasRemaining() && lastReceivedChannel.read(buffer, buffer.position()) >= 0);
+                    if (size < SensorFixCodec.LENGTH_FIELD_SIZE || SensorFixCodec.readRecordSize(buffer, 0) != size) {
+                        logger.log(Level.WARNING, "Ignoring incomplete last received fix in " + directory);
+                    } else {
+                        result = SensorFixCodec.read(buffer, 0);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the contents of {@link #lastReceivedFile} by {@code fix}; the file is only opened for this purpose, so
+     * the devices don't keep a file open each
+     */
+    private void writeLastReceived(Timed fix) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(SensorFixCodec.getEncodedSize(fix));
+        SensorFixCodec.write(fix, buffer);
+        buffer.flip();
+        try (FileChannel lastReceivedChannel = FileChannel.open(lastReceivedFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            while (buffer.hasRemaining()) {
+                position += lastReceivedChannel.write(buffer, position);
+            }
+        }
+        lastReceived = fix;
+    }
+
+    /**
+     * Appends the fixes to the segments of their time partitions. The youngest of them becomes the fix received last
+     * unless a younger fix was received before; only then the {@link #LAST_RECEIVED_FILE_NAME} file is written.
+     */
+    void store(Iterable<? extends Timed> fixes) throws IOException {
+        final Map<Long, List<Timed>> fixesByPartition = new TreeMap<>();
+        Timed youngest = null;
+        for (final Timed fix : fixes) {
+            final long partitionStart = Math.floorDiv(fix.getTimePoint().asMillis(), partitionDurationInMillis) * partitionDurationInMillis;
+            fixesByPartition.computeIfAbsent(partitionStart, p -> new ArrayList<>()).add(fix);
+            if (youngest == null || youngest.getTimePoint().before(fix.getTimePoint())) {
+                youngest = fix;
+            }
+        }
+        LockUtil.lockForWrite(lock);
+        try {
+            for (final Map.Entry<Long, List<Timed>> e : fixesByPartition.entrySet()) {
+                SensorFixSegment segment = segments.get(e.getKey());
+                if (segment == null) {
+                    segment = new SensorFixSegment(new File(directory, e.getKey() + SEGMENT_FILE_NAME_SUFFIX), openSegmentFiles);
+                    segments.put(e.getKey(), segment);
+                }
+                segment.append(e.getValue());
+            }
+            if (youngest != null && (lastReceived == null || lastReceived.getTimePoint().before(youngest.getTimePoint()))) {
+                writeLastReceived(youngest);
+            }
+        } finally {
+            LockUtil.unlockAfterWrite(lock);
+        }
+    }
+
+    /**
+     * Decodes the fixes in the time range given and passes them to the {@code consumer} in ascending or descending
+     * order of their time points. Like with the MongoDB-based store, a fix of a type the {@code consumer} doesn't
+     * expect is logged and skipped instead of failing the whole load.
+     *
+     * @param onlyOne
+     *            if {@code true}, loading stops after the first fix
+     * @return whether at least one fix was passed to the consumer
+     */
+    <FixT extends Timed> boolean load(Consumer<FixT> consumer, TimePoint from, TimePoint to, boolean toIsInclusive,
+            boolean ascending, boolean onlyOne, BooleanSupplier isPreemptiveStopped, Consumer<Double> progressConsumer)
+            throws TransformationException {
+        final long fromMillis = from.asMillis();
+        final long toMillis = to.asMillis();
+        final boolean[] fixLoaded = new boolean[1];
+        final RecordVisitor visitor = (records, offset) -> {
+            @SuppressWarnings("unchecked")
+            final FixT fix = (FixT) SensorFixCodec.read(records, offset);
+            boolean continueVisiting = true;
+            try {
+                consumer.accept(fix);
+                fixLoaded[0] = true;
+                continueVisiting = !onlyOne;
+            } catch (ClassCastException e) {
+                logger.log(Level.WARNING, "Unexpected fix type (" + fix.getClass().getSimpleName()
+                        + ") encountered when trying to load fixes from " + directory);
+            }
+            return continueVisiting;
+        };
+        LockUtil.lockForRead(lock);
+        try {
+            final Collection<SensorFixSegment> segmentsToVisit = new ArrayList<>();
+            for (final SensorFixSegment segment : ascending ? segments.values() : segments.descendingMap().values()) {
+                if (segment.getNumberOfFixes() > 0 && segment.getMinTimePointAsMillis() <= toMillis
+                        && segment.getMaxTimePointAsMillis() >= fromMillis) {
+                    segmentsToVisit.add(segment);
+                }
+            }
+            int segmentsVisited = 0;
+            for (final SensorFixSegment segment : segmentsToVisit) {
+                if (!segment.visit(fromMillis, toMillis, toIsInclusive, ascending, visitor)) {
+                    break;
+                }
+                progressConsumer.accept((double) ++segmentsVisited / (double) segmentsToVisit.size());
+                if (isPreemptiveStopped.getAsBoolean()) {
+                    logger.log(Level.WARNING, "Exiting because of preemptive stop requested while loading fixes from " + directory);
+                    break;
+                }
+            }
+        } catch (TransformationException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new TransformationException("Could not read fixes from " + directory, e);
+        } finally {
+            LockUtil.unlockAfterRead(lock);
+        }
+        return fixLoaded[0];
+    }
+
+    long getNumberOfFixes() {
+        LockUtil.lockForRead(lock);
+        try {
+            long result = 0;
+            for (final SensorFixSegment segment : segments.values()) {
+                result += segment.getNumberOfFixes();
+            }
+            return result;
+        } finally {
+            LockUtil.unlockAfterRead(lock);
+        }
+    }
+
+    /**
+     * @return {@code null} if there are no fixes for the device
+     */
+    TimeRange getTimeRangeCoveredByFixes() {
+        LockUtil.lockForRead(lock);
+        try {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            for (final SensorFixSegment segment : segments.values()) {
+                min = Math.min(min, segment.getMinTimePointAsMillis());
+                max = Math.max(max, segment.getMaxTimePointAsMillis());
+            }
+            return min > max ? null
+                    : new TimeRangeImpl(new MillisecondsTimePoint(min), new MillisecondsTimePoint(max), /* toIsInclusive */ true);
+        } finally {
+            LockUtil.unlockAfterRead(lock);
+        }
+    }
+
+    Timed getLastReceived() {
+        LockUtil.lockForRead(lock);
+        try {
+            return lastReceived;
+        } finally {
+            LockUtil.unlockAfterRead(lock);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        LockUtil.lockForWrite(lock);
+        try {
+            for (final SensorFixSegment segment : segments.values()) {
+                segment.close();
+            }
+        } finally {
+            LockUtil.unlockAfterWrite(lock);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.sap.sailing.domain.racelog.tracking.impl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sap.sailing.domain.common.DeviceIdentifier;
+import com.sap.sailing.domain.common.RegattaAndRaceIdentifier;
+import com.sap.sailing.domain.racelog.tracking.FixReceivedListener;
+import com.sap.sailing.domain.racelog.tracking.SensorFixStore;
+import com.sap.sse.common.Duration;
+import com.sap.sse.common.NoCorrespondingServiceRegisteredException;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.TimeRange;
+import com.sap.sse.common.Timed;
+import com.sap.sse.common.TransformationException;
+import com.sap.sse.common.Util;
+import com.sap.sse.common.Util.Triple;
+import com.sap.sse.concurrent.LockUtil;
+import com.sap.sse.concurrent.NamedReentrantReadWriteLock;
+
+/**
+ * A {@link SensorFixStore} that keeps the fixes in the local file system instead of a database. Each device gets a
+ * directory of its own below the store's base directory (see {@link DeviceFixes}) in which the fixes are appended to
+ * binary segment files, one per time partition (see {@link SensorFixSegment}). The segments are read through
+ * memory-mapping, and a sparse time index per segment lets range queries as well as the lookup of the oldest and
+ * youngest fix in a time range skip the fixes outside the range without decoding them.
+ * <p>
+ *
+ * The number of fixes, the time range covered and the fix received last are derived from the segments when a device's
+ * directory is first accessed and are then maintained in memory, so no separate metadata needs to be kept consistent.
+ * <p>
+ *
+ * The fix types supported are those of {@link SensorFixCodec}: {@link com.sap.sailing.domain.common.tracking.GPSFix},
+ * {@link com.sap.sailing.domain.common.tracking.GPSFixMoving} and
+ * {@link com.sap.sailing.domain.common.tracking.DoubleVectorFix}. Other fix types are rejected with a log message,
+ * similar to fix types for which no handler is registered with the MongoDB-based store.
+ * <p>
+ *
+ * To bound the number of open files and memory mappings, at most a {@link #DEFAULT_MAX_OPEN_SEGMENTS configurable
+ * number} of segments keep their file open across all devices; see {@link OpenSegmentFiles}.
+ * <p>
+ *
+ * The partition duration is fixed for a base directory when the store is first created there and is recorded in the
+ * file {@link #STORE_PROPERTIES_FILE_NAME}; later instances use the recorded duration.
+ */
+public class FileSensorFixStoreImpl implements SensorFixStore, Closeable {
+    private static final Logger logger = Logger.getLogger(FileSensorFixStoreImpl.class.getName());
+
+    public static final Duration DEFAULT_PARTITION_DURATION = Duration.ONE_DAY;
+
+    public static final int DEFAULT_MAX_OPEN_SEGMENTS = 256;
+
+    static final String STORE_PROPERTIES_FILE_NAME = "store.properties";
+
+    private static final String PARTITION_DURATION_IN_MILLIS_PROPERTY_NAME = "partitionDurationInMillis";
+
+    private final File baseDirectory;
+
+    private final long partitionDurationInMillis;
+
+    private final ConcurrentMap<DeviceIdentifier, DeviceFixes> deviceFixes;
+
+    private final OpenSegmentFiles openSegmentFiles;
+
+    /**
+     * Lock object to be used when accessing {@link #listeners}.
+     */
+    private final NamedReentrantReadWriteLock listenersLock = new NamedReentrantReadWriteLock("Listeners collection lock of " + FileSensorFixStoreImpl.class.getName(), false);
+    private final Map<DeviceIdentifier, Set<FixReceivedListener<? extends Timed>>> listeners = new HashMap<>();
+
+    public FileSensorFixStoreImpl(File baseDirectory) throws IOException {
+        this(baseDirectory, DEFAULT_PARTITION_DURATION);
+    }
+
+    /**
+     * @param partitionDuration
+     *            used only if the store is created in {@code baseDirectory}; an existing store keeps the partition
+     *            duration it was created with
+     */
+    public FileSensorFixStoreImpl(File baseDirectory, Duration partitionDuration) throws IOException {
+        this(baseDirectory, partitionDuration, DEFAULT_MAX_OPEN_SEGMENTS);
+    }
+
+    /**
+     * @param partitionDuration
+     *            used only if the store is created in {@code baseDirectory}; an existing store keeps the partition
+     *            duration it was created with
+     * @param maxOpenSegments
+     *            the number of segments that keep their file open and mapped at most, across all devices
+     */
+    public FileSensorFixStoreImpl(File baseDirectory, Duration partitionDuration, int maxOpenSegments) throws IOException {
+        this.baseDirectory = baseDirectory;
+        if (!baseDirectory.isDirectory() && !baseDirectory.mkdirs()) {
+            throw new IOException("Could not create sensor fix store directory " + baseDirectory);
+        }
+        this.partitionDurationInMillis = readOrWritePartitionDuration(partitionDuration);
+        this.deviceFixes = new ConcurrentHashMap<>();
+        this.openSegmentFiles = new OpenSegmentFiles(maxOpenSegments);
+        logger.info("Using file-based sensor fix store in " + baseDirectory + " with partition duration of "
+                + partitionDurationInMillis + "ms");
+    }
+
+    private long readOrWritePartitionDuration(Duration partitionDuration) throws IOException {
+        final File propertiesFile = new File(baseDirectory, STORE_PROPERTIES_FILE_NAME);
+        final Properties properties = new Properties();
+        final long result;
+        if (propertiesFile.exists()) {
+            try (InputStream is = new FileInputStream(propertiesFile)) {
+                properties.load(is);
+            }
+            result = Long.parseLong(properties.getProperty(PARTITION_DURATION_IN_MILLIS_PROPERTY_NAME));
+        } else {
+            result = partitionDuration.asMillis();
+            if (result <= 0) {
+                throw new IllegalArgumentException("Partition duration must be positive but was " + partitionDuration);
+            }
+            properties.setProperty(PARTITION_DURATION_IN_MILLIS_PROPERTY_NAME, Long.toString(result));
+            try (OutputStream os = new FileOutputStream(propertiesFile)) {
+                properties.store(os, "File-based sensor fix store");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The directory name is derived from the device's identifier type and string representation such that it is a
+     * valid file name on all platforms, regardless of the characters used by the identifier.
+     */
+    private File getDirectory(DeviceIdentifier device) {
+        final String type = device.getIdentifierType().replaceAll("[^A-Za-z0-9._-]", "_");
+        final StringBuilder name = new StringBuilder(type).append('-');
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (final byte b : digest.digest((device.getIdentifierType() + "\n" + device.getStringRepresentation()).getBytes(StandardCharsets.UTF_8))) {
+                name.append(String.format("%02x", b));
+            }
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e); // SHA-256 is required to be supported by every Java platform
+        }
+        return new File(baseDirectory, name.toString());
+    }
+
+    /**
+     * @param create
+     *            if {@code false} and nothing has been stored for the device yet, {@code null} is returned
+     */
+    private DeviceFixes getDeviceFixes(DeviceIdentifier device, boolean create) throws IOException {
+        DeviceFixes result = deviceFixes.get(device);
+        if (result == null) {
+            final File directory = getDirectory(device);
+            if (create || directory.isDirectory()) {
+                synchronized (deviceFixes) {
+                    result = deviceFixes.get(device);
+                    if (result == null) {
+                        result = new DeviceFixes(directory, partitionDurationInMillis, openSegmentFiles);
+                        deviceFixes.put(device, result);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private DeviceFixes getExistingDeviceFixes(DeviceIdentifier device) throws TransformationException {
+        try {
+            return getDeviceFixes(device, /* create */ false);
+        } catch (TransformationException e) {
+            throw e;
+        } catch (IOException e) {
+            throw new TransformationException("Could not open fixes of device " + device, e);
+        }
+    }
+
+    @Override
+    public <FixT extends Timed> boolean loadOldestFix(Consumer<FixT> consumer, DeviceIdentifier device, TimeRange timeRangeToLoad) throws NoCorrespondingServiceRegisteredException, TransformationException {
+        return loadFixes(consumer, device, timeRangeToLoad.from(), timeRangeToLoad.to(), /* inclusive */ false, () -> false, (d) -> {
+        }, /* ascending */ true, /* only one result */ true);
+    }
+
+    @Override
+    public <FixT extends Timed> boolean loadYoungestFix(Consumer<FixT> consumer, DeviceIdentifier device, TimeRange timeRangeToLoad) throws NoCorrespondingServiceRegisteredException, TransformationException {
+        return loadFixes(consumer, device, timeRangeToLoad.from(), timeRangeToLoad.to(), /* inclusive */ false, () -> false, (d) -> {
+        }, /* ascending */ false, /* only one result */ true);
+    }
+
+    @Override
+    public <FixT extends Timed> void loadFixes(Consumer<FixT> consumer, DeviceIdentifier device, TimePoint from,
+            TimePoint to, boolean inclusive) throws NoCorrespondingServiceRegisteredException, TransformationException {
+        loadFixes(consumer, device, from, to, inclusive, () -> false, /* progress consumer */ d -> {});
+    }
+
+    @Override
+    public <FixT extends Timed> void loadFixes(Consumer<FixT> consumer, DeviceIdentifier device, TimePoint from,
+            TimePoint to, boolean inclusive, BooleanSupplier isPreemptiveStopped, Consumer<Double> progressConsumer)
+                    throws NoCorrespondingServiceRegisteredException, TransformationException {
+        loadFixes(consumer, device, from, to, inclusive, isPreemptiveStopped, progressConsumer, /* ascending */ true, /* only one result */ false);
+    }
+
+    private <FixT extends Timed> boolean loadFixes(Consumer<FixT> consumer, DeviceIdentifier device, TimePoint from,
+            TimePoint to, boolean inclusive, BooleanSupplier isPreemptiveStopped, Consumer<Double> progressConsumer,
+            boolean ascending, boolean onlyOneResult) throws TransformationException {
+        progressConsumer.accept(0d);
+        final boolean result;
+        final DeviceFixes fixes = getExistingDeviceFixes(device);
+        if (fixes == null) {
+            result = false;
+        } else {
+            final TimePoint loadFixesFrom = from == null ? TimePoint.BeginningOfTime : from;
+            final TimePoint loadFixesTo = to == null ? TimePoint.EndOfTime : to;
+            result = fixes.load(consumer, loadFixesFrom, loadFixesTo, inclusive, ascending, onlyOneResult,
+                    isPreemptiveStopped, progressConsumer);
+        }
+        progressConsumer.accept(1d);
+        return result;
+    }
+
+    @Override
+    public <FixT extends Timed> Iterable<Triple<RegattaAndRaceIdentifier, Boolean, Duration>> storeFixes(DeviceIdentifier device,
+            Iterable<FixT> fixes, boolean returnManeuverChanges, boolean returnLiveDelay) {
+        final Set<Triple<RegattaAndRaceIdentifier, Boolean, Duration>> racesWithManeuverChangesOrLiveDelay = new HashSet<>();
+        if (!Util.isEmpty(fixes)) {
+            try {
+                getDeviceFixes(device, /* create */ true).store(fixes);
+            } catch (IOException e) {
+                logger.log(Level.WARNING, "Could not store fixes of device " + device + " in " + baseDirectory, e);
+            }
+            Util.addAll(notifyListeners(device, fixes, returnManeuverChanges, returnLiveDelay), racesWithManeuverChangesOrLiveDelay);
+        }
+        return racesWithManeuverChangesOrLiveDelay;
+    }
+
+    @Override
+    public <FixT extends Timed> void storeFix(DeviceIdentifier device, FixT fix) {
+        storeFixes(device, Collections.singletonList(fix), /* returnManeuverUpdate */ false, /* returnLiveDelay */ false);
+    }
+
+    private <FixT extends Timed> Iterable<Triple<RegattaAndRaceIdentifier, Boolean, Duration>> notifyListeners(DeviceIdentifier device,
+            Iterable<FixT> fixes, boolean returnManeuverChanges, boolean returnLiveDelay) {
+        final Set<Triple<RegattaAndRaceIdentifier, Boolean, Duration>> raceWithChangedManeuver = new HashSet<>();
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        final Map<DeviceIdentifier, Set<FixReceivedListener<FixT>>> listenersWithFixType = (Map) listeners;
+        final Set<FixReceivedListener<FixT>> listenersToInform = LockUtil.executeWithReadLockAndResult(listenersLock, () -> {
+            return new HashSet<>(Util.<DeviceIdentifier, Set<FixReceivedListener<FixT>>> get(
+                    listenersWithFixType, device, Collections.emptySet()));
+        });
+        for (FixT fix : fixes) {
+            for (FixReceivedListener<FixT> listener : listenersToInform) {
+                final Iterable<Triple<RegattaAndRaceIdentifier, Boolean, Duration>> racesWithManeuverChangeFromListener = listener.fixReceived(device, fix, returnManeuverChanges, returnLiveDelay);
+                Util.addAll(racesWithManeuverChangeFromListener, raceWithChangedManeuver);
+            }
+        }
+        return raceWithChangedManeuver;
+    }
+
+    @Override
+    public void addListener(FixReceivedListener<? extends Timed> listener, DeviceIdentifier device) {
+        LockUtil.executeWithWriteLock(listenersLock, () -> Util.addToValueSet(listeners, device, listener));
+    }
+
+    @Override
+    public void removeListener(FixReceivedListener<? extends Timed> listener) {
+        LockUtil.executeWithWriteLock(listenersLock, () -> Util.removeFromAllValueSets(listeners, listener));
+    }
+
+    @Override
+    public void removeListener(FixReceivedListener<? extends Timed> listener, DeviceIdentifier device) {
+        LockUtil.executeWithWriteLock(listenersLock, () -> Util.removeFromValueSet(listeners, device, listener));
+    }
+
+    @Override
+    public TimeRange getTimeRangeCoveredByFixes(DeviceIdentifier device)
+            throws TransformationException, NoCorrespondingServiceRegisteredException {
+        final DeviceFixes fixes = getExistingDeviceFixes(device);
+        return fixes == null ? null : fixes.getTimeRangeCoveredByFixes();
+    }
+
+    @Override
+    public long getNumberOfFixes(DeviceIdentifier device)
+            throws TransformationException, NoCorrespondingServiceRegisteredException {
+        final DeviceFixes fixes = getExistingDeviceFixes(device);
+        return fixes == null ? 0 : fixes.getNumberOfFixes();
+    }
+
+    @Override
+    public <FixT extends Timed> Map<DeviceIdentifier, FixT> getFixLastReceived(Iterable<DeviceIdentifier> forDevices)
+            throws TransformationException, NoCorrespondingServiceRegisteredException {
+        final Map<DeviceIdentifier, FixT> result = new HashMap<>();
+        for (final DeviceIdentifier device : forDevices) {
+            final DeviceFixes fixes = getExistingDeviceFixes(device);
+            if (fixes != null) {
+                @SuppressWarnings("unchecked")
+                final FixT lastReceived = (FixT) fixes.getLastReceived();
+                if (lastReceived != null) {
+                    result.put(device, lastReceived);
+                }
+            }
+        }
+        return result;
+    }
+
+    int getNumberOfOpenSegments() {
+        return openSegmentFiles.getNumberOfOpenSegments();
+    }
+
+    /**
+     * Closes the files of all devices accessed so far; the store must not be used afterwards.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (deviceFixes) {
+            for (final DeviceFixes fixes : deviceFixes.values()) {
+                fixes.close();
+            }
+            deviceFixes.clear();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.sap.sailing.domain.racelog.tracking.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounds the number of {@link SensorFixSegment segments} of a {@link FileSensorFixStoreImpl} that hold an open file
+ * channel and a memory mapping at the same time. Segments report each access to their file; when more than the
+ * maximum number of segments have been accessed, the files of the least recently accessed segments are
+ * {@link SensorFixSegment#releaseFiles() released}. A released segment re-opens and re-maps its file on its next
+ * access.
+ * <p>
+ *
+ * The segments are released after the lock of this object was given up, so segments may report their accesses while
+ * holding their own monitor without risking a deadlock with the release of another segment.
+ */
+class OpenSegmentFiles {
+    private static final Logger logger = Logger.getLogger(OpenSegmentFiles.class.getName());
+
+    private final int maxOpenSegments;
+
+    /**
+     * In access order, so the eldest entry is the segment accessed least recently
+     */
+    private final LinkedHashMap<SensorFixSegment, Boolean> openSegments;
+
+    OpenSegmentFiles(int maxOpenSegments) {
+        if (maxOpenSegments < 1) {
+            throw new IllegalArgumentException("At least one segment must be allowed to be open but was " + maxOpenSegments);
+        }
+        this.maxOpenSegments = maxOpenSegments;
+        this.openSegments = new LinkedHashMap<>(16, 0.75f, /* accessOrder */ true);
+    }
+
+    /**
+     * To be called after {@code segment} has opened or used its file, but not while holding the segment's monitor
+     */
+    void accessed(SensorFixSegment segment) {
+        final List<SensorFixSegment> segmentsToRelease = new ArrayList<>();
+        synchronized (openSegments) {
+            openSegments.put(segment, Boolean.TRUE);
+            final Iterator<SensorFixSegment> eldestFirst = openSegments.keySet().iterator();
+            while (openSegments.size() > maxOpenSegments) {
+                segmentsToRelease.add(eldestFirst.next());
+                eldestFirst.remove();
+            }
+        }
+        for (final SensorFixSegment segmentToRelease : segmentsToRelease) {
+            release(segmentToRelease);
+        }
+    }
+
+    /**
+     * To be called when {@code segment} has released its files by itself
+     */
+    void released(SensorFixSegment segment) {
+        synchronized (openSegments) {
+            openSegments.remove(segment);
+        }
+    }
+
+    int getNumberOfOpenSegments() {
+        synchronized (openSegments) {
+            return openSegments.size();
+        }
+    }
+
+    private void release(SensorFixSegment segment) {
+        try {
+            segment.releaseFiles();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not close " + segment, e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.sap.sailing.domain.racelog.tracking.impl;
+
+import java.nio.ByteBuffer;
+
+import com.sap.sailing.domain.common.Position;
+import com.sap.sailing.domain.common.SpeedWithBearing;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.tracking.DoubleVectorFix;
+import com.sap.sailing.domain.common.tracking.GPSFix;
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.common.tracking.impl.DoubleVectorFixImpl;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixImpl;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixMovingImpl;
+import com.sap.sse.common.Bearing;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.Timed;
+import com.sap.sse.common.TransformationException;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+/**
+ * Binary representation of the fix types that the {@link FileSensorFixStoreImpl} can store. Each fix is written as a
+ * self-describing record:
+ *
+ * <pre>
+ * int    length of the remainder of the record in bytes
+ * long   time point in milliseconds since the epoch
+ * byte   fix type, one of the <code>TYPE_...</code> constants
+ * ...    type-specific payload
+ * </pre>
+ *
+ * The time point is at a fixed position so that the record sequence of a segment can be scanned and indexed without
+ * decoding the fixes; see {@link #readTimePointAsMillis(ByteBuffer, int)}.
+ */
+final class SensorFixCodec {
+    /**
+     * The size of the length field preceding each record
+     */
+    static final int LENGTH_FIELD_SIZE = Integer.BYTES;
+
+    private static final int TIME_POINT_OFFSET = LENGTH_FIELD_SIZE;
+
+    private static final int HEADER_SIZE = LENGTH_FIELD_SIZE + Long.BYTES + Byte.BYTES;
+
+    private static final byte TYPE_GPS_FIX = 1;
+
+    private static final byte TYPE_GPS_FIX_MOVING = 2;
+
+    private static final byte TYPE_DOUBLE_VECTOR_FIX = 3;
+
+    private SensorFixCodec() {
+    }
+
+    /**
+     * @return the number of bytes {@link #write(Timed, ByteBuffer)} will need for {@code fix}
+     * @throws TransformationException
+     *             in case the fix is of a type not supported by this codec
+     */
+    static int getEncodedSize(Timed fix) throws TransformationException {
+        final int payloadSize;
+        if (fix instanceof GPSFixMoving) {
+            payloadSize = 5 * Double.BYTES;
+        } else if (fix instanceof GPSFix) {
+            payloadSize = 2 * Double.BYTES;
+        } else if (fix instanceof DoubleVectorFix) {
+            payloadSize = Integer.BYTES + ((DoubleVectorFix) fix).get().length * Double.BYTES;
+        } else {
+            throw new TransformationException("Fix type " + fix.getClass().getName() + " not supported for file-based storage");
+        }
+        return HEADER_SIZE + payloadSize;
+    }
+
+    /**
+     * Appends the record for {@code fix} at the buffer's current position which has to have at least
+     * {@link #getEncodedSize(Timed)} bytes remaining.
+     */
+    static void write(Timed fix, ByteBuffer buffer) throws TransformationException {
+        buffer.putInt(getEncodedSize(fix) - LENGTH_FIELD_SIZE);
+        buffer.putLong(fix.getTimePoint().asMillis());
+        if (fix instanceof GPSFixMoving) {
+            final GPSFixMoving gpsFixMoving = (GPSFixMoving) fix;
+            buffer.put(TYPE_GPS_FIX_MOVING);
+            writePosition(gpsFixMoving.getPosition(), buffer);
+            final SpeedWithBearing speed = gpsFixMoving.getSpeed();
+            buffer.putDouble(speed == null ? Double.NaN : speed.getKnots());
+            buffer.putDouble(speed == null || speed.getBearing() == null ? Double.NaN : speed.getBearing().getDegrees());
+            final Bearing optionalTrueHeading = gpsFixMoving.getOptionalTrueHeading();
+            buffer.putDouble(optionalTrueHeading == null ? Double.NaN : optionalTrueHeading.getDegrees());
+        } else if (fix instanceof GPSFix) {
+            buffer.put(TYPE_GPS_FIX);
+            writePosition(((GPSFix) fix).getPosition(), buffer);
+        } else {
+            buffer.put(TYPE_DOUBLE_VECTOR_FIX);
+            final Double[] values = ((DoubleVectorFix) fix).get();
+            buffer.putInt(values.length);
+            for (final Double value : values) {
+                buffer.putDouble(value == null ? Double.NaN : value);
+            }
+        }
+    }
+
+    private static void writePosition(Position position, ByteBuffer buffer) {
+        buffer.putDouble(position.getLatDeg());
+        buffer.putDouble(position.getLngDeg());
+    }
+
+    /**
+     * @return the total size of the record starting at {@code offset}, including the length field
+     */
+    static int readRecordSize(ByteBuffer buffer, int offset) {
+        return LENGTH_FIELD_SIZE + buffer.getInt(offset);
+    }
+
+    static long readTimePointAsMillis(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + TIME_POINT_OFFSET);
+    }
+
+    /**
+     * Decodes the record starting at {@code offset}; the buffer's position is not used and not changed.
+     * {@link Double#NaN} values written for {@code null} components are mapped back to {@code null}.
+     */
+    static Timed read(ByteBuffer buffer, int offset) throws TransformationException {
+        final TimePoint timePoint = new MillisecondsTimePoint(readTimePointAsMillis(buffer, offset));
+        final byte type = buffer.get(offset + TIME_POINT_OFFSET + Long.BYTES);
+        int pos = offset + HEADER_SIZE;
+        final Timed result;
+        switch (type) {
+        case TYPE_GPS_FIX_MOVING:
+            final Position position = new DegreePosition(buffer.getDouble(pos), buffer.getDouble(pos + Double.BYTES));
+            pos += 2 * Double.BYTES;
+            final double knots = buffer.getDouble(pos);
+            final double bearingDeg = buffer.getDouble(pos + Double.BYTES);
+            final double trueHeadingDeg = buffer.getDouble(pos + 2 * Double.BYTES);
+            final SpeedWithBearing speed = Double.isNaN(knots) ? null
+                    : new KnotSpeedWithBearingImpl(knots, Double.isNaN(bearingDeg) ? null : new DegreeBearingImpl(bearingDeg));
+            result = new GPSFixMovingImpl(position, timePoint, speed,
+                    Double.isNaN(trueHeadingDeg) ? null : new DegreeBearingImpl(trueHeadingDeg));
+            break;
+        case TYPE_GPS_FIX:
+            result = new GPSFixImpl(new DegreePosition(buffer.getDouble(pos), buffer.getDouble(pos + Double.BYTES)), timePoint);
+            break;
+        case TYPE_DOUBLE_VECTOR_FIX:
+            final Double[] values = new Double[buffer.getInt(pos)];
+            pos += Integer.BYTES;
+            for (int i=0; i<values.length; i++) {
+                final double value = buffer.getDouble(pos + i * Double.BYTES);
+                values[i] = Double.isNaN(value) ? null : value;
+            }
+            result = new DoubleVectorFixImpl(timePoint, values);
+            break;
+        default:
+            throw new TransformationException("Unknown fix type " + type + " in record at offset " + offset);
+        }
+        return result;
+    }
+}
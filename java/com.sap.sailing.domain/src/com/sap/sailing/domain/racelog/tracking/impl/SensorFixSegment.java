@@ -0,0 +1,378 @@
+package com.sap.sailing.domain.racelog.tracking.impl;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sap.sse.common.Timed;
+import com.sap.sse.common.TransformationException;
+
+/**
+ * An append-only file holding the {@link SensorFixCodec records} of the fixes of one device that fall into one time
+ * partition. Records are appended through a {@link FileChannel} and read through a read-only memory mapping of the
+ * file that is re-established when the file has grown since the last mapping. Channel and mapping are only established
+ * when the segment is accessed, and the {@link OpenSegmentFiles} of the store releases them again when too many
+ * segments are open; the statistics and the index described below are kept in memory in the meantime.
+ * <p>
+ *
+ * As long as fixes are appended in ascending time order, which is the usual case, the segment is <em>sorted</em> and
+ * keeps a sparse index with the time point and offset of every {@link #INDEX_INTERVAL}th record. This allows for
+ * positioning a range query by binary search and for visiting records in descending order block by block. Once a fix
+ * is appended that is older than the youngest fix in the segment, the index isn't maintained anymore, and range
+ * queries scan the record headers of the whole segment and sort the matches by time.
+ * <p>
+ *
+ * The index and the segment statistics are not persisted; they are re-built when the segment is opened, scanning only
+ * the record headers. An incomplete record at the end of the file, as may be left by a crash while appending, is
+ * truncated at that time.
+ * <p>
+ *
+ * This class is not thread-safe; callers synchronize through the lock of the {@link DeviceFixes} owning the segment.
+ * Only the channel and the mapping are additionally guarded by the segment's monitor because the
+ * {@link OpenSegmentFiles} may release them from any thread.
+ */
+class SensorFixSegment implements Closeable {
+    private static final Logger logger = Logger.getLogger(SensorFixSegment.class.getName());
+
+    /**
+     * Every how many records an entry is added to the sparse index
+     */
+    private static final int INDEX_INTERVAL = 128;
+
+    @FunctionalInterface
+    interface RecordVisitor {
+        /**
+         * @return {@code false} to stop visiting further records
+         */
+        boolean visit(ByteBuffer records, int offset) throws TransformationException;
+    }
+
+    private final File file;
+
+    private final OpenSegmentFiles openSegmentFiles;
+
+    /**
+     * {@code null} while the files of this segment are released
+     */
+    private FileChannel channel;
+
+    /**
+     * Number of bytes of complete records in the file
+     */
+    private int size;
+
+    /**
+     * A read-only mapping of the file; may cover less than {@link #size} bytes after appends, or be {@code null}
+     */
+    private MappedByteBuffer mapping;
+
+    private int numberOfFixes;
+
+    private long minTimePointAsMillis = Long.MAX_VALUE;
+
+    private long maxTimePointAsMillis = Long.MIN_VALUE;
+
+    private boolean sorted = true;
+
+    private long[] indexTimePointsAsMillis = new long[16];
+
+    private int[] indexOffsets = new int[16];
+
+    private int indexSize;
+
+    SensorFixSegment(File file, OpenSegmentFiles openSegmentFiles) throws IOException {
+        this.file = file;
+        this.openSegmentFiles = openSegmentFiles;
+        scan();
+    }
+
+    private void scan() throws IOException {
+        final long fileSize;
+        synchronized (this) {
+            fileSize = getChannel().size();
+        }
+        if (fileSize > Integer.MAX_VALUE) {
+            throw new IOException("Segment file " + file + " exceeds maximum segment size");
+        }
+        size = (int) fileSize;
+        final ByteBuffer records = getRecords();
+        int offset = 0;
+        while (offset < size) {
+            final int recordSize;
+            if (size - offset < SensorFixCodec.LENGTH_FIELD_SIZE
+                    || (recordSize = SensorFixCodec.readRecordSize(records, offset)) > size - offset
+                    || recordSize <= SensorFixCodec.LENGTH_FIELD_SIZE) {
+                logger.log(Level.WARNING, "Truncating incomplete record at offset " + offset + " of " + file
+                        + " with size " + size);
+                synchronized (this) {
+                    getChannel().truncate(offset);
+                    mapping = null;
+                }
+                size = offset;
+            } else {
+                recordAppended(offset, SensorFixCodec.readTimePointAsMillis(records, offset));
+                offset += recordSize;
+            }
+        }
+    }
+
+    private void recordAppended(int offset, long timePointAsMillis) {
+        if (timePointAsMillis < maxTimePointAsMillis) {
+            sorted = false;
+        } else if (sorted && numberOfFixes % INDEX_INTERVAL == 0) {
+            if (indexSize == indexOffsets.length) {
+                indexOffsets = Arrays.copyOf(indexOffsets, 2 * indexSize);
+                indexTimePointsAsMillis = Arrays.copyOf(indexTimePointsAsMillis, 2 * indexSize);
+            }
+            indexOffsets[indexSize] = offset;
+            indexTimePointsAsMillis[indexSize] = timePointAsMillis;
+            indexSize++;
+        }
+        numberOfFixes++;
+        minTimePointAsMillis = Math.min(minTimePointAsMillis, timePointAsMillis);
+        maxTimePointAsMillis = Math.max(maxTimePointAsMillis, timePointAsMillis);
+    }
+
+    /**
+     * Appends the fixes in the order given. Nothing is appended if one of the fixes cannot be encoded.
+     */
+    void append(Iterable<? extends Timed> fixes) throws IOException {
+        long batchSize = 0;
+        for (final Timed fix : fixes) {
+            batchSize += SensorFixCodec.getEncodedSize(fix);
+        }
+        if (size + batchSize > Integer.MAX_VALUE) {
+            throw new IOException("Appending " + batchSize + " bytes would exceed the maximum segment size of " + file);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) batchSize);
+        for (final Timed fix : fixes) {
+            SensorFixCodec.write(fix, buffer);
+        }
+        buffer.flip();
+        synchronized (this) {
+            final FileChannel appendChannel = getChannel();
+            long position = size;
+            while (buffer.hasRemaining()) {
+                position += appendChannel.write(buffer, position);
+            }
+        }
+        openSegmentFiles.accessed(this);
+        int offset = size;
+        for (final Timed fix : fixes) {
+            recordAppended(offset, fix.getTimePoint().asMillis());
+            offset += SensorFixCodec.getEncodedSize(fix);
+        }
+        size = offset;
+    }
+
+    /**
+     * Opens the file if it was released; to be called while holding this segment's monitor
+     */
+    private FileChannel getChannel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+        return channel;
+    }
+
+    /**
+     * @return a read-only buffer whose contents from index 0 to {@link #size} are the records of this segment; the
+     *         buffer stays valid when the files of this segment are released concurrently
+     */
+    private ByteBuffer getRecords() throws IOException {
+        final ByteBuffer result;
+        synchronized (this) {
+            if (mapping == null || mapping.capacity() < size) {
+                mapping = getChannel().map(MapMode.READ_ONLY, 0, size);
+            }
+            result = mapping.duplicate();
+        }
+        openSegmentFiles.accessed(this);
+        return result;
+    }
+
+    /**
+     * Closes the channel and drops the mapping of this segment's file; Java doesn't offer to unmap a file explicitly,
+     * so the mapping is unmapped once the buffers obtained from it have been garbage-collected. The file is re-opened
+     * on the next access.
+     */
+    synchronized void releaseFiles() throws IOException {
+        mapping = null;
+        if (channel != null) {
+            final FileChannel channelToClose = channel;
+            channel = null;
+            channelToClose.close();
+        }
+    }
+
+    /**
+     * Visits the records with time points in the range given in ascending or descending order of their time points
+     * until the {@code visitor} asks to stop.
+     *
+     * @return {@code false} if the visitor asked to stop, {@code true} otherwise
+     */
+    boolean visit(long fromMillis, long toMillis, boolean toIsInclusive, boolean ascending, RecordVisitor visitor)
+            throws IOException {
+        final boolean result;
+        if (numberOfFixes == 0 || fromMillis > maxTimePointAsMillis || toMillis < minTimePointAsMillis) {
+            result = true;
+        } else if (!sorted) {
+            result = visitUnsorted(fromMillis, toMillis, toIsInclusive, ascending, visitor);
+        } else if (ascending) {
+            result = visitAscending(fromMillis, toMillis, toIsInclusive, visitor);
+        } else {
+            result = visitDescending(fromMillis, toMillis, toIsInclusive, visitor);
+        }
+        return result;
+    }
+
+    private static boolean isInRange(long timePointAsMillis, long fromMillis, long toMillis, boolean toIsInclusive) {
+        return timePointAsMillis >= fromMillis && (toIsInclusive ? timePointAsMillis <= toMillis : timePointAsMillis < toMillis);
+    }
+
+    private boolean visitAscending(long fromMillis, long toMillis, boolean toIsInclusive, RecordVisitor visitor) throws IOException {
+        final ByteBuffer records = getRecords();
+        // the first index entry that is not before fromMillis; the range may start in the block before it
+        final int firstBlock = Math.max(0, lowerBound(fromMillis) - 1);
+        int offset = indexOffsets[firstBlock];
+        while (offset < size) {
+            final long timePointAsMillis = SensorFixCodec.readTimePointAsMillis(records, offset);
+            if (timePointAsMillis > toMillis || (!toIsInclusive && timePointAsMillis == toMillis)) {
+                break;
+            }
+            if (timePointAsMillis >= fromMillis && !visitor.visit(records, offset)) {
+                return false;
+            }
+            offset += SensorFixCodec.readRecordSize(records, offset);
+        }
+        return true;
+    }
+
+    private boolean visitDescending(long fromMillis, long toMillis, boolean toIsInclusive, RecordVisitor visitor) throws IOException {
+        final ByteBuffer records = getRecords();
+        final int[] offsetsInBlock = new int[INDEX_INTERVAL];
+        // the last block starting at or before toMillis
+        for (int block = upperBound(toMillis) - 1; block >= 0; block--) {
+            final int blockEnd = block + 1 < indexSize ? indexOffsets[block + 1] : size;
+            int count = 0;
+            for (int offset = indexOffsets[block]; offset < blockEnd; offset += SensorFixCodec.readRecordSize(records, offset)) {
+                if (isInRange(SensorFixCodec.readTimePointAsMillis(records, offset), fromMillis, toMillis, toIsInclusive)) {
+                    offsetsInBlock[count++] = offset;
+                }
+            }
+            for (int i = count - 1; i >= 0; i--) {
+                if (!visitor.visit(records, offsetsInBlock[i])) {
+                    return false;
+                }
+            }
+            if (indexTimePointsAsMillis[block] < fromMillis) {
+                break; // earlier blocks only contain earlier fixes
+            }
+        }
+        return true;
+    }
+
+    private boolean visitUnsorted(long fromMillis, long toMillis, boolean toIsInclusive, boolean ascending,
+            RecordVisitor visitor) throws IOException {
+        final ByteBuffer records = getRecords();
+        long[] timePointsAsMillis = new long[64];
+        Integer[] offsets = new Integer[64];
+        int count = 0;
+        for (int offset = 0; offset < size; offset += SensorFixCodec.readRecordSize(records, offset)) {
+            final long timePointAsMillis = SensorFixCodec.readTimePointAsMillis(records, offset);
+            if (isInRange(timePointAsMillis, fromMillis, toMillis, toIsInclusive)) {
+                if (count == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, 2 * count);
+                    timePointsAsMillis = Arrays.copyOf(timePointsAsMillis, 2 * count);
+                }
+                timePointsAsMillis[count] = timePointAsMillis;
+                offsets[count] = offset;
+                count++;
+            }
+        }
+        final long[] finalTimePointsAsMillis = timePointsAsMillis;
+        final Integer[] indices = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            indices[i] = i;
+        }
+        // stable sort, so fixes with equal time points keep their order of arrival
+        Arrays.sort(indices, (i1, i2) -> Long.compare(finalTimePointsAsMillis[i1], finalTimePointsAsMillis[i2]));
+        for (int i = 0; i < count; i++) {
+            if (!visitor.visit(records, offsets[indices[ascending ? i : count - 1 - i]])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the index of the first sparse index entry whose time point is not before {@code timePointAsMillis}
+     */
+    private int lowerBound(long timePointAsMillis) {
+        int low = 0;
+        int high = indexSize;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (indexTimePointsAsMillis[mid] < timePointAsMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the index of the first sparse index entry whose time point is after {@code timePointAsMillis}
+     */
+    private int upperBound(long timePointAsMillis) {
+        int low = 0;
+        int high = indexSize;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (indexTimePointsAsMillis[mid] <= timePointAsMillis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    int getNumberOfFixes() {
+        return numberOfFixes;
+    }
+
+    /**
+     * @return {@link Long#MAX_VALUE} if the segment is empty
+     */
+    long getMinTimePointAsMillis() {
+        return minTimePointAsMillis;
+    }
+
+    /**
+     * @return {@link Long#MIN_VALUE} if the segment is empty
+     */
+    long getMaxTimePointAsMillis() {
+        return maxTimePointAsMillis;
+    }
+
+    @Override
+    public void close() throws IOException {
+        releaseFiles();
+        openSegmentFiles.released(this);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " " + file + " (" + numberOfFixes + " fixes" + (sorted ? "" : ", unsorted") + ")";
+    }
+}
@@ -26,6 +26,31 @@ public interface DynamicGPSFixTrack<ItemType, FixType extends GPSFix> extends GP
      */
     boolean addGPSFix(FixType gpsFix);
 
+    /**
+     * Adds all {@code gpsFixes} like {@link #addGPSFix(GPSFix)} would. Implementations are expected to insert the fixes
+     * under a single acquisition of the track's write lock, which is considerably cheaper for batches of fixes
+     * received together than adding them one by one. This default implementation simply adds one fix after the
+     * other.
+     *
+     * @return the number of fixes actually added to the track
+     */
+    default int addGPSFixes(Iterable<FixType> gpsFixes) {
+        int result = 0;
+        for (final FixType gpsFix : gpsFixes) {
+            if (addGPSFix(gpsFix)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
     void setMillisecondsOverWhichToAverage(long millisecondsOverWhichToAverage);
 
+    /**
+     * Removes all fixes from this track and invalidates all caches derived from them, e.g., to release the memory of
+     * a race that is no longer used and whose fixes can be loaded again from a persistent store. Listeners are not
+     * notified.
+     */
+    void removeAllFixes();
+
 }
@@ -18,4 +18,11 @@ public interface DynamicSensorFixTrack<ItemType extends WithID & Serializable, F
      * containing {@link TrackedRace}. This default implementation does nothing.
      */
     default void addedToTrackedRace(TrackedRace trackedRace) {}
+
+    /**
+     * Removes all fixes from this track and invalidates all caches derived from them. Listeners are not notified.
+     * 
+     * @see DynamicGPSFixTrack#removeAllFixes()
+     */
+    void removeAllFixes();
 }
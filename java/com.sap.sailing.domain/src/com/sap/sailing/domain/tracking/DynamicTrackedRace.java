@@ -54,6 +54,35 @@ public interface DynamicTrackedRace extends TrackedRace {
      */
     void recordFix(Mark mark, GPSFix fix, boolean onlyWhenInTrackingTimeInterval);
 
+    /**
+     * Records a batch of fixes for a competitor, dropping those that are not within this race's
+     * {@link #getStartOfTracking() start} and {@link #getEndOfTracking() end} of tracking time interval. Other than
+     * calling {@link #recordFix(Competitor, GPSFixMoving)} for each fix, this allows the competitor's track to insert
+     * all fixes under a single lock acquisition; see {@link DynamicGPSFixTrack#addGPSFixes(Iterable)}.
+     * 
+     * @return the number of fixes actually added to the competitor's track
+     */
+    default int recordFixes(Competitor competitor, Iterable<GPSFixMoving> fixes) {
+        int result = 0;
+        for (final GPSFixMoving fix : fixes) {
+            if (recordFix(competitor, fix)) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records a batch of fixes for a mark, dropping those that are not within this race's
+     * {@link #getStartOfTracking() start} and {@link #getEndOfTracking() end} of tracking time interval; see also
+     * {@link #recordFixes(Competitor, Iterable)}.
+     */
+    default void recordFixes(Mark mark, Iterable<GPSFix> fixes) {
+        for (final GPSFix fix : fixes) {
+            recordFix(mark, fix);
+        }
+    }
+
     /**
      * Inserts a <code>wind</code> fix into a {@link WindTrack} for the <code>windSource</code> if the current filtering
      * rules accept the wind fix. Filtering applies based upon timing considerations, assuming that wind fixes are not
@@ -238,4 +267,40 @@ public interface DynamicTrackedRace extends TrackedRace {
      * @see #getDynamicSensorTrack(Competitor, String)
      */
     void addSensorTrack(Competitor trackedItem, String trackName, DynamicSensorFixTrack<Competitor, ?> track);
+
+    /**
+     * Registers the component that can load this race's fixes again after the race has been {@link #hibernate()
+     * hibernated}. Races without a rematerializer, e.g., those whose fixes are streamed by a tracking provider and
+     * cannot be loaded again on demand, never hibernate.
+     * 
+     * @param rematerializer
+     *            {@code null} to prevent this race from hibernating from now on
+     */
+    void setRematerializer(TrackedRaceRematerializer rematerializer);
+
+    /**
+     * Releases the memory held by this race's competitor and sensor tracks and the caches derived from them, keeping
+     * the race definition, mark tracks, wind tracks and mark passings. The next access to a competitor or sensor track
+     * or to the maneuvers of a competitor {@link TrackedRaceRematerializer#rematerialize() rematerializes} the race.
+     * 
+     * @return {@code true} if the race has been hibernated; {@code false} if it was already hibernated, has no
+     *         {@link #setRematerializer(TrackedRaceRematerializer) rematerializer} or is currently loading
+     */
+    boolean hibernate();
+
+    boolean isHibernated();
+
+    /**
+     * Tells whether this race is loading its fixes again after having been {@link #hibernate() hibernated}. The fixes
+     * and status changes listeners receive during this phase have been seen before, e.g., by the polar data service,
+     * replicas, or the persistent stores, and should not be processed again. Remains {@code true} while listeners are
+     * notified about the end of loading.
+     */
+    boolean isRematerializing();
+
+    /**
+     * @return the approximate time point at which the competitor or sensor tracks or the maneuvers of this race were
+     *         last requested; used to decide whether the race is idle enough to {@link #hibernate() hibernate}
+     */
+    TimePoint getTimePointOfLastAccess();
 }
@@ -8,6 +8,7 @@ import com.sap.sailing.domain.base.Series;
 import com.sap.sailing.domain.leaderboard.LeaderboardGroupResolver;
 import com.sap.sailing.domain.markpassinghash.MarkPassingRaceFingerprintRegistry;
 import com.sap.sailing.domain.racelog.RaceLogAndTrackedRaceResolver;
+import com.sap.sse.common.TimePoint;
 
 /**
  * Different tracking providers require different sets of arguments to start tracking a race.
@@ -82,4 +83,22 @@ public interface RaceTrackingConnectivityParameters extends Serializable {
     void setTrackWind(boolean trackWind);
     
     boolean isCorrectWindDirectionByMagneticDeclination();
+
+    /**
+     * A time point telling when the race tracked with these parameters took place, or {@code null} if this isn't known
+     * before the tracker has been created. When restoring many races during server start-up, the races whose time point
+     * is closest to now are restored first, so that live and recent races become available before the archive.
+     */
+    default TimePoint getTimePointForRestorePriority() {
+        return null;
+    }
+
+    /**
+     * The name of the regatta to which the race tracked with these parameters will be added, or {@code null} if this
+     * isn't known before the tracker has been created. When a race of a regatta is requested while races are still
+     * being restored during server start-up, the pending races of that regatta are restored first.
+     */
+    default String getRegattaNameForRestorePriority() {
+        return null;
+    }
 }
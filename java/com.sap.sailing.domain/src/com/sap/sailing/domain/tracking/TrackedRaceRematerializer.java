@@ -0,0 +1,16 @@
+package com.sap.sailing.domain.tracking;
+
+/**
+ * Loads the fixes of a {@link DynamicTrackedRace#hibernate() hibernated} race again, typically from the persistent
+ * store the race was loaded from in the first place. Registered with the race by the component that loaded its fixes,
+ * using {@link DynamicTrackedRace#setRematerializer(TrackedRaceRematerializer)}.
+ */
+@FunctionalInterface
+public interface TrackedRaceRematerializer {
+    /**
+     * Called when a hibernated race is accessed again. Implementations are expected to start loading the race's fixes
+     * in the background and to set the race's status to {@link com.sap.sailing.domain.common.TrackedRaceStatusEnum#LOADING
+     * LOADING} while doing so, as when the race was loaded initially.
+     */
+    void rematerialize();
+}
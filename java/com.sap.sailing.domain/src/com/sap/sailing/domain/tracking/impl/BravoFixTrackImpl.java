@@ -189,6 +189,17 @@ public class BravoFixTrackImpl<ItemType extends WithID & Serializable> extends S
         initCaches(getTrackedItem());
     }
 
+    @Override
+    public void removeAllFixes() {
+        lockForWrite();
+        try {
+            super.removeAllFixes();
+            initCaches(getTrackedItem());
+        } finally {
+            unlockAfterWrite();
+        }
+    }
+
     @Override
     public Distance getRideHeight(TimePoint timePoint) {
         return getValueFromBravoFixSkippingNullValues(timePoint, BravoFix::getRideHeight,
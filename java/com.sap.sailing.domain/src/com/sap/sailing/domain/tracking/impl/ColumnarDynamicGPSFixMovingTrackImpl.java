@@ -0,0 +1,60 @@
+package com.sap.sailing.domain.tracking.impl;
+
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.shared.tracking.impl.TimedComparator;
+import com.sap.sse.common.Speed;
+import com.sap.sse.common.Timed;
+import com.sap.sse.shared.util.impl.ArrayListNavigableSet;
+
+/**
+ * A {@link DynamicGPSFixMovingTrackImpl} that stores its fixes in a {@link ColumnarGPSFixMovingList} instead of
+ * one compact object per fix. Fixes are therefore compacted by the list when they are added, and the per-fix objects
+ * handed out by the {@link com.sap.sailing.domain.shared.tracking.Track} API are views materialized on demand.
+ * Compaction is always lossy (see {@link com.sap.sailing.domain.common.tracking.impl.CompactPositionHelper}), with
+ * a per-fix fallback to lossless compaction where lossy compaction is not possible.
+ */
+public class ColumnarDynamicGPSFixMovingTrackImpl<ItemType> extends DynamicGPSFixMovingTrackImpl<ItemType> {
+    private static final long serialVersionUID = -1786519393655335541L;
+
+    public ColumnarDynamicGPSFixMovingTrackImpl(ItemType trackedItem, long millisecondsOverWhichToAverage) {
+        this(trackedItem, millisecondsOverWhichToAverage, DEFAULT_MAX_SPEED_FOR_SMOOTHING);
+    }
+
+    /**
+     * @param maxSpeedForSmoothening
+     *            pass <code>null</code> if you don't want speed-based smoothening
+     */
+    public ColumnarDynamicGPSFixMovingTrackImpl(ItemType trackedItem, long millisecondsOverWhichToAverage, Speed maxSpeedForSmoothening) {
+        this(trackedItem, millisecondsOverWhichToAverage, maxSpeedForSmoothening, /* optimisticReads */ false);
+    }
+
+    /**
+     * @param maxSpeedForSmoothening
+     *            pass <code>null</code> if you don't want speed-based smoothening
+     * @param optimisticReads
+     *            see {@link DynamicGPSFixMovingTrackImpl#DynamicGPSFixMovingTrackImpl(Object, long, Speed, boolean, boolean)}
+     */
+    public ColumnarDynamicGPSFixMovingTrackImpl(ItemType trackedItem, long millisecondsOverWhichToAverage, Speed maxSpeedForSmoothening,
+            boolean optimisticReads) {
+        super(trackedItem, new ArrayListNavigableSet<Timed>(new ColumnarGPSFixMovingList(), TimedComparator.INSTANCE),
+                millisecondsOverWhichToAverage, maxSpeedForSmoothening, /* losslessCompaction */ false, optimisticReads);
+    }
+
+    /**
+     * The {@link ColumnarGPSFixMovingList} writes its volatile size only after the new fix's column values, so readers
+     * that don't hold the lock never observe a partially appended fix.
+     */
+    @Override
+    protected boolean isAppendSafeForOptimisticReaders() {
+        return true;
+    }
+
+    /**
+     * The {@link ColumnarGPSFixMovingList} compacts the fix when storing it; creating an intermediate compact object
+     * would only produce garbage.
+     */
+    @Override
+    protected GPSFixMoving compact(GPSFixMoving fix) {
+        return fix;
+    }
+}
@@ -0,0 +1,585 @@
+package com.sap.sailing.domain.tracking.impl;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sap.sailing.domain.common.Position;
+import com.sap.sailing.domain.common.SpeedWithBearing;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.common.tracking.impl.AbstractCompactGPSFixMovingImpl;
+import com.sap.sailing.domain.common.tracking.impl.CompactPositionHelper;
+import com.sap.sailing.domain.common.tracking.impl.CompactionNotPossibleException;
+import com.sap.sailing.domain.common.tracking.impl.PreciseCompactGPSFixMovingImpl;
+import com.sap.sailing.domain.common.tracking.impl.VeryCompactGPSFixMovingImpl;
+import com.sap.sse.common.Bearing;
+import com.sap.sse.common.Timed;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+import com.sap.sse.shared.util.impl.ArrayListNavigableSet;
+
+/**
+ * A "struct of arrays" representation of a time-ordered sequence of {@link GPSFixMoving} fixes, meant to be used as
+ * the backing list of an {@link ArrayListNavigableSet} (see
+ * {@link ArrayListNavigableSet#ArrayListNavigableSet(List, java.util.Comparator)}). Instead of one object per fix, all
+ * attributes are stored in primitive arrays, one array per attribute, using the same lossy encoding that
+ * {@link VeryCompactGPSFixMovingImpl} uses (see {@link CompactPositionHelper}). This saves the object header and the
+ * reference per fix and keeps the data of consecutive fixes adjacent in memory, which helps sequential scans.
+ * <p>
+ *
+ * Elements are materialized on demand by {@link #get(int)} as immutable fix views. The validity and estimated speed
+ * caches of such a view (see {@link GPSFixMoving#cacheValidity(boolean)} and
+ * {@link GPSFixMoving#cacheEstimatedSpeed(SpeedWithBearing)}) write through to this list so that they survive the
+ * view. Views obtained before fixes were inserted in the middle of or removed from the list re-locate their fix
+ * by its time point. The list is not thread-safe; like with the other fix sets it is the owning track's lock that
+ * protects it. Cache updates by views obtained under a read lock are, like for the object-based compact fixes,
+ * benign races on single array elements.
+ * <p>
+ *
+ * Binary searches and iterations of the {@link ArrayListNavigableSet} call {@link #get(int)} for the same indices
+ * over and over again; the most recently materialized views are therefore kept in a small
+ * {@link #VIEW_CACHE_SIZE direct-mapped cache} and handed out again as long as no fix has changed its index since.
+ * <p>
+ *
+ * Fixes whose speed exceeds the range supported by the lossy encoding are kept as
+ * {@link PreciseCompactGPSFixMovingImpl} objects in an additional column that is only allocated when the first
+ * such fix is added.
+ * <p>
+ *
+ * The list is {@link RandomAccess} and tuned for appending; inserting or removing elements in the middle shifts all
+ * columns, just like {@link java.util.ArrayList} does.
+ */
+public class ColumnarGPSFixMovingList extends AbstractList<Timed> implements RandomAccess, Serializable {
+    private static final long serialVersionUID = -3366128421766017542L;
+
+    private static final Logger logger = Logger.getLogger(ColumnarGPSFixMovingList.class.getName());
+
+    private static final int DEFAULT_INITIAL_CAPACITY = 16;
+
+    /**
+     * Number of slots of the {@link #viewCache}; must be a power of two. The view for index {@code i} goes to slot
+     * <code>i &amp; (VIEW_CACHE_SIZE-1)</code>, so that the views of a sequential scan and the views of the first
+     * levels of a binary search, which are the same for all searches as long as the size doesn't change, can be
+     * found again.
+     */
+    private static final int VIEW_CACHE_SIZE = 64;
+
+    /**
+     * Bit mask for {@link #flags}, telling whether the fix has a true heading
+     */
+    private static final byte TRUE_HEADING_SET = 1<<0;
+
+    /**
+     * Bit mask for {@link #flags}, telling whether validity is currently cached
+     */
+    private static final byte IS_VALIDITY_CACHED = 1<<1;
+
+    /**
+     * Bit mask for {@link #flags}, telling the validity of the fix; only relevant if
+     * <code>{@link #flags}&amp;{@link #IS_VALIDITY_CACHED} != 0</code>
+     */
+    private static final byte VALIDITY = 1<<2;
+
+    /**
+     * Bit mask for {@link #flags}, telling whether the estimated speed is currently cached
+     */
+    private static final byte IS_ESTIMATED_SPEED_CACHED = 1<<3;
+
+    /**
+     * Written only after the columns for a newly appended fix have been written, so that a reader not holding the
+     * track's lock that observes the new size also observes the new fix's column values.
+     */
+    private volatile int size;
+
+    private long[] timePointsAsMillis;
+
+    /**
+     * See {@link CompactPositionHelper}
+     */
+    private int[] latDegScaled;
+
+    /**
+     * See {@link CompactPositionHelper}
+     */
+    private int[] lngDegScaled;
+
+    /**
+     * See {@link CompactPositionHelper}
+     */
+    private short[] speedInKnotsScaled;
+
+    /**
+     * See {@link CompactPositionHelper}
+     */
+    private short[] degreeBearingScaled;
+
+    /**
+     * See {@link CompactPositionHelper}; valid for index {@code i} if and only if
+     * <code>{@link #flags}[i]&amp;{@link #TRUE_HEADING_SET} != 0</code>
+     */
+    private short[] trueHeadingDegreesScaled;
+
+    /**
+     * See {@link #TRUE_HEADING_SET}, {@link #IS_VALIDITY_CACHED}, {@link #VALIDITY} and
+     * {@link #IS_ESTIMATED_SPEED_CACHED}
+     */
+    private byte[] flags;
+
+    private short[] cachedEstimatedSpeedInKnotsScaled;
+
+    private short[] cachedEstimatedSpeedBearingInDegreesScaled;
+
+    /**
+     * {@code null} until the first fix is added that cannot be compacted in a lossy way; from then on, it has the
+     * same length as the other columns, and a non-{@code null} entry at index {@code i} is the fix to use in place
+     * of the column values at index {@code i}.
+     */
+    private GPSFixMoving[] preciseFixes;
+
+    /**
+     * Incremented each time fixes change their index, which is the case for inserts other than appends and for
+     * removals. Views compare this with the value at their creation time to tell whether their index is still valid.
+     * It is written only after the columns have been changed and is read by views before they read the columns, so
+     * that a view created by a reader not holding the track's lock while fixes are being shifted is tagged with the
+     * count from before the shift and will therefore never be handed out from the {@link #viewCache} afterwards.
+     */
+    private transient volatile int shiftCount;
+
+    /**
+     * Views recently materialized by {@link #get(int)}, see {@link #VIEW_CACHE_SIZE}. Allocated lazily, also after
+     * de-serialization. Concurrent readers may overwrite each other's slots, which is harmless because a slot is
+     * only used if the view's {@link ColumnarGPSFixMoving#indexAtCreation index} and
+     * {@link ColumnarGPSFixMoving#shiftCountAtCreation shift count} at creation, both final, match.
+     */
+    private transient ColumnarGPSFixMoving[] viewCache;
+
+    /**
+     * An on-demand view of the fix at a given index. The position, speed and heading are copied from the columns
+     * upon creation; the caches write through to the columns. Views may be shared between threads through the
+     * {@link #viewCache}, so their re-located index is kept, together with the shift count it is valid for, in a
+     * single volatile field.
+     */
+    private class ColumnarGPSFixMoving extends AbstractCompactGPSFixMovingImpl {
+        private static final long serialVersionUID = 8412563271734528733L;
+        private final long timePointAsMillis;
+        private final int latDegScaled;
+        private final int lngDegScaled;
+        private final short speedInKnotsScaled;
+        private final short degreeBearingScaled;
+        private final short trueHeadingDegreesScaled;
+        private final boolean trueHeadingDegreesSet;
+        private final int indexAtCreation;
+        private final int shiftCountAtCreation;
+
+        /**
+         * The index found by the last re-location in the lower 32 bits and the {@link #shiftCount} it is valid for
+         * in the upper 32 bits
+         */
+        private volatile long relocatedIndexAndShiftCount;
+
+        /**
+         * The scaled cached estimated speed in the lower and its scaled bearing in the upper 16 bits, as last seen
+         * by {@link #isEstimatedSpeedCached()}; it keeps {@link #getCachedEstimatedSpeed()} valid if the fix is
+         * removed from the list in between.
+         */
+        private volatile int lastSeenCachedEstimatedSpeed;
+
+        /**
+         * @param shiftCount
+         *            the {@link ColumnarGPSFixMovingList#shiftCount} read before reading the columns
+         */
+        private ColumnarGPSFixMoving(int index, int shiftCount) {
+            super(new MillisecondsTimePoint(timePointsAsMillis[index]));
+            this.timePointAsMillis = timePointsAsMillis[index];
+            this.latDegScaled = ColumnarGPSFixMovingList.this.latDegScaled[index];
+            this.lngDegScaled = ColumnarGPSFixMovingList.this.lngDegScaled[index];
+            this.speedInKnotsScaled = ColumnarGPSFixMovingList.this.speedInKnotsScaled[index];
+            this.degreeBearingScaled = ColumnarGPSFixMovingList.this.degreeBearingScaled[index];
+            this.trueHeadingDegreesScaled = ColumnarGPSFixMovingList.this.trueHeadingDegreesScaled[index];
+            this.trueHeadingDegreesSet = (flags[index] & TRUE_HEADING_SET) != 0;
+            this.indexAtCreation = index;
+            this.shiftCountAtCreation = shiftCount;
+            this.relocatedIndexAndShiftCount = pack(index, shiftCount);
+        }
+
+        /**
+         * @return the current index of this fix in the enclosing list, or -1 if the fix is no longer contained
+         */
+        private int getIndex() {
+            final int currentShiftCount = shiftCount;
+            final int result;
+            if (currentShiftCount == shiftCountAtCreation) {
+                result = indexAtCreation;
+            } else {
+                final long relocated = relocatedIndexAndShiftCount;
+                if ((int) (relocated >>> 32) == currentShiftCount) {
+                    result = (int) relocated;
+                } else {
+                    result = binarySearch(timePointAsMillis);
+                    relocatedIndexAndShiftCount = pack(result, currentShiftCount);
+                }
+            }
+            return result;
+        }
+
+        private boolean isValidAt(int index, int shiftCount) {
+            return indexAtCreation == index && shiftCountAtCreation == shiftCount;
+        }
+
+        @Override
+        public Position getPosition() {
+            return new DegreePosition(CompactPositionHelper.getLatDeg(latDegScaled), CompactPositionHelper.getLngDeg(lngDegScaled));
+        }
+
+        @Override
+        public SpeedWithBearing getSpeed() {
+            return new KnotSpeedWithBearingImpl(CompactPositionHelper.getKnotSpeed(speedInKnotsScaled),
+                    new DegreeBearingImpl(CompactPositionHelper.getDegreeBearing(degreeBearingScaled)));
+        }
+
+        @Override
+        public Bearing getOptionalTrueHeading() {
+            return trueHeadingDegreesSet ? new DegreeBearingImpl(CompactPositionHelper.getDegreeBearing(trueHeadingDegreesScaled)) : null;
+        }
+
+        @Override
+        public boolean isValidityCached() {
+            final int i = getIndex();
+            return i >= 0 && (flags[i] & IS_VALIDITY_CACHED) != 0;
+        }
+
+        @Override
+        public boolean isValidCached() {
+            assert isValidityCached();
+            final int i = getIndex();
+            return i >= 0 && (flags[i] & VALIDITY) != 0;
+        }
+
+        @Override
+        public void invalidateCache() {
+            final int i = getIndex();
+            if (i >= 0) {
+                flags[i] &= ~IS_VALIDITY_CACHED;
+            }
+        }
+
+        @Override
+        public void cacheValidity(boolean isValid) {
+            final int i = getIndex();
+            if (i >= 0) {
+                if (isValid) {
+                    flags[i] |= IS_VALIDITY_CACHED | VALIDITY;
+                } else {
+                    flags[i] |= IS_VALIDITY_CACHED;
+                    flags[i] &= ~VALIDITY;
+                }
+            }
+        }
+
+        @Override
+        public boolean isEstimatedSpeedCached() {
+            final int i = getIndex();
+            final boolean result = i >= 0 && (flags[i] & IS_ESTIMATED_SPEED_CACHED) != 0;
+            if (result) {
+                lastSeenCachedEstimatedSpeed = (cachedEstimatedSpeedInKnotsScaled[i] & 0xffff)
+                        | cachedEstimatedSpeedBearingInDegreesScaled[i] << 16;
+            }
+            return result;
+        }
+
+        /**
+         * Returns a valid result if {@link #isEstimatedSpeedCached()} returned {@code true} before, also if the fix
+         * has been removed from the list since; the speed last seen by {@link #isEstimatedSpeedCached()} is returned
+         * in this case.
+         */
+        @Override
+        public SpeedWithBearing getCachedEstimatedSpeed() {
+            assert isEstimatedSpeedCached() || getIndex() < 0;
+            final int i = getIndex();
+            final short speedInKnotsScaled;
+            final short bearingInDegreesScaled;
+            if (i >= 0) {
+                speedInKnotsScaled = cachedEstimatedSpeedInKnotsScaled[i];
+                bearingInDegreesScaled = cachedEstimatedSpeedBearingInDegreesScaled[i];
+            } else {
+                final int lastSeen = lastSeenCachedEstimatedSpeed;
+                speedInKnotsScaled = (short) lastSeen;
+                bearingInDegreesScaled = (short) (lastSeen >>> 16);
+            }
+            return new KnotSpeedWithBearingImpl(CompactPositionHelper.getKnotSpeed(speedInKnotsScaled),
+                    new DegreeBearingImpl(CompactPositionHelper.getDegreeBearing(bearingInDegreesScaled)));
+        }
+
+        @Override
+        public void invalidateEstimatedSpeedCache() {
+            final int i = getIndex();
+            if (i >= 0) {
+                flags[i] &= ~IS_ESTIMATED_SPEED_CACHED;
+            }
+        }
+
+        /**
+         * Like {@link VeryCompactGPSFixMovingImpl#cacheEstimatedSpeed(SpeedWithBearing)}, a speed that cannot be
+         * compacted remains uncached.
+         */
+        @Override
+        public void cacheEstimatedSpeed(SpeedWithBearing estimatedSpeed) {
+            final int i = getIndex();
+            if (i >= 0) {
+                try {
+                    cachedEstimatedSpeedInKnotsScaled[i] = CompactPositionHelper.getKnotSpeedScaled(estimatedSpeed);
+                    cachedEstimatedSpeedBearingInDegreesScaled[i] = CompactPositionHelper.getDegreeBearingScaled(estimatedSpeed.getBearing());
+                    flags[i] |= IS_ESTIMATED_SPEED_CACHED;
+                } catch (CompactionNotPossibleException e) {
+                    logger.log(Level.FINER, "Cannot cache estimated speed "+estimatedSpeed+" in columnar fix:", e);
+                }
+            }
+        }
+
+        /**
+         * Views must not drag the entire list into a serialization stream; they are replaced by a stand-alone copy.
+         */
+        private Object writeReplace() {
+            return detach(this);
+        }
+    }
+
+    public ColumnarGPSFixMovingList() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public ColumnarGPSFixMovingList(int initialCapacity) {
+        timePointsAsMillis = new long[initialCapacity];
+        latDegScaled = new int[initialCapacity];
+        lngDegScaled = new int[initialCapacity];
+        speedInKnotsScaled = new short[initialCapacity];
+        degreeBearingScaled = new short[initialCapacity];
+        trueHeadingDegreesScaled = new short[initialCapacity];
+        flags = new byte[initialCapacity];
+        cachedEstimatedSpeedInKnotsScaled = new short[initialCapacity];
+        cachedEstimatedSpeedBearingInDegreesScaled = new short[initialCapacity];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Hands out the view from the {@link #viewCache} if the fix at {@code index} has not changed its index since the
+     * view was created; otherwise a new view is created and cached.
+     */
+    @Override
+    public Timed get(int index) {
+        final int currentShiftCount = shiftCount;
+        checkIndex(index, size);
+        final Timed result;
+        if (preciseFixes != null && preciseFixes[index] != null) {
+            result = preciseFixes[index];
+        } else {
+            ColumnarGPSFixMoving[] views = viewCache;
+            if (views == null) {
+                views = new ColumnarGPSFixMoving[VIEW_CACHE_SIZE];
+                viewCache = views;
+            }
+            final int slot = index & (VIEW_CACHE_SIZE-1);
+            final ColumnarGPSFixMoving cachedView = views[slot];
+            if (cachedView != null && cachedView.isValidAt(index, currentShiftCount)) {
+                result = cachedView;
+            } else {
+                final ColumnarGPSFixMoving view = new ColumnarGPSFixMoving(index, currentShiftCount);
+                views[slot] = view;
+                result = view;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param element
+     *            must be a {@link GPSFixMoving}; the caller is responsible for maintaining the time point order
+     */
+    @Override
+    public void add(int index, Timed element) {
+        checkIndex(index, size+1);
+        if (!(element instanceof GPSFixMoving)) {
+            throw new IllegalArgumentException("Only GPSFixMoving objects can be stored in a "+getClass().getSimpleName()+", got "+element);
+        }
+        final GPSFixMoving fix = (GPSFixMoving) element;
+        ensureCapacity(size+1);
+        final boolean shift = index < size;
+        if (shift) {
+            shiftColumns(index, index+1, size-index);
+        }
+        write(index, fix);
+        modCount++;
+        size++;
+        if (shift) {
+            shiftCount++;
+        }
+    }
+
+    @Override
+    public Timed remove(int index) {
+        checkIndex(index, size);
+        final GPSFixMoving result = detach(index);
+        removeRange(index, index+1);
+        return result;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < toIndex) {
+            shiftColumns(toIndex, fromIndex, size-toIndex);
+            if (preciseFixes != null) {
+                Arrays.fill(preciseFixes, size-(toIndex-fromIndex), size, null);
+            }
+            size -= toIndex-fromIndex;
+            modCount++;
+            shiftCount++;
+        }
+    }
+
+    /**
+     * Removes all fixes and shrinks the columns back to their initial capacity
+     */
+    @Override
+    public void clear() {
+        preciseFixes = null;
+        size = 0;
+        resize(DEFAULT_INITIAL_CAPACITY);
+        viewCache = null;
+        modCount++;
+        shiftCount++;
+    }
+
+    /**
+     * Releases the capacity not currently used, e.g., after a track has finished loading.
+     */
+    public void trimToSize() {
+        resize(size);
+    }
+
+    /**
+     * Finds the index of the fix with time point {@code timePointAsMillis}.
+     *
+     * @return the index, or -1 if no fix with that time point is contained
+     */
+    private int binarySearch(long timePointAsMillis) {
+        final int pos = Arrays.binarySearch(timePointsAsMillis, 0, size, timePointAsMillis);
+        return pos >= 0 ? pos : -1;
+    }
+
+    private static long pack(int index, int shiftCount) {
+        return (long) shiftCount << 32 | (index & 0xffffffffL);
+    }
+
+    private void write(int index, GPSFixMoving fix) {
+        timePointsAsMillis[index] = fix.getTimePoint().asMillis();
+        final Position position = fix.getPosition();
+        latDegScaled[index] = CompactPositionHelper.getLatDegScaled(position);
+        lngDegScaled[index] = CompactPositionHelper.getLngDegScaled(position);
+        final SpeedWithBearing speed = fix.getSpeed();
+        GPSFixMoving preciseFix = null;
+        if (speed == null) {
+            speedInKnotsScaled[index] = 0;
+            degreeBearingScaled[index] = 0;
+        } else {
+            try {
+                speedInKnotsScaled[index] = CompactPositionHelper.getKnotSpeedScaled(speed);
+                degreeBearingScaled[index] = CompactPositionHelper.getDegreeBearingScaled(speed.getBearing());
+            } catch (CompactionNotPossibleException e) {
+                logger.log(Level.FINE, "Couldn't compact fix "+fix+" into columns. Using losslessly-compacted fix instead.", e);
+                preciseFix = new PreciseCompactGPSFixMovingImpl(fix);
+            }
+        }
+        final Bearing optionalTrueHeading = fix.getOptionalTrueHeading();
+        if (optionalTrueHeading == null) {
+            trueHeadingDegreesScaled[index] = 0;
+            flags[index] = 0;
+        } else {
+            trueHeadingDegreesScaled[index] = CompactPositionHelper.getDegreeBearingScaled(optionalTrueHeading);
+            flags[index] = TRUE_HEADING_SET;
+        }
+        if (preciseFix != null) {
+            if (preciseFixes == null) {
+                preciseFixes = new GPSFixMoving[timePointsAsMillis.length];
+            }
+            preciseFixes[index] = preciseFix;
+        } else if (preciseFixes != null) {
+            preciseFixes[index] = null;
+        }
+    }
+
+    /**
+     * Creates a stand-alone copy of the fix at {@code index} that does not reference this list
+     */
+    private GPSFixMoving detach(int index) {
+        final GPSFixMoving result;
+        if (preciseFixes != null && preciseFixes[index] != null) {
+            result = preciseFixes[index];
+        } else {
+            result = detach(new ColumnarGPSFixMoving(index, shiftCount));
+        }
+        return result;
+    }
+
+    private GPSFixMoving detach(ColumnarGPSFixMoving view) {
+        GPSFixMoving result;
+        try {
+            result = new VeryCompactGPSFixMovingImpl(view);
+        } catch (CompactionNotPossibleException e) {
+            result = new PreciseCompactGPSFixMovingImpl(view);
+        }
+        return result;
+    }
+
+    private void shiftColumns(int from, int to, int length) {
+        System.arraycopy(timePointsAsMillis, from, timePointsAsMillis, to, length);
+        System.arraycopy(latDegScaled, from, latDegScaled, to, length);
+        System.arraycopy(lngDegScaled, from, lngDegScaled, to, length);
+        System.arraycopy(speedInKnotsScaled, from, speedInKnotsScaled, to, length);
+        System.arraycopy(degreeBearingScaled, from, degreeBearingScaled, to, length);
+        System.arraycopy(trueHeadingDegreesScaled, from, trueHeadingDegreesScaled, to, length);
+        System.arraycopy(flags, from, flags, to, length);
+        System.arraycopy(cachedEstimatedSpeedInKnotsScaled, from, cachedEstimatedSpeedInKnotsScaled, to, length);
+        System.arraycopy(cachedEstimatedSpeedBearingInDegreesScaled, from, cachedEstimatedSpeedBearingInDegreesScaled, to, length);
+        if (preciseFixes != null) {
+            System.arraycopy(preciseFixes, from, preciseFixes, to, length);
+        }
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        final int capacity = timePointsAsMillis.length;
+        if (minCapacity > capacity) {
+            resize(Math.max(minCapacity, capacity + (capacity >> 1) + 1));
+        }
+    }
+
+    private void resize(int newCapacity) {
+        timePointsAsMillis = Arrays.copyOf(timePointsAsMillis, newCapacity);
+        latDegScaled = Arrays.copyOf(latDegScaled, newCapacity);
+        lngDegScaled = Arrays.copyOf(lngDegScaled, newCapacity);
+        speedInKnotsScaled = Arrays.copyOf(speedInKnotsScaled, newCapacity);
+        degreeBearingScaled = Arrays.copyOf(degreeBearingScaled, newCapacity);
+        trueHeadingDegreesScaled = Arrays.copyOf(trueHeadingDegreesScaled, newCapacity);
+        flags = Arrays.copyOf(flags, newCapacity);
+        cachedEstimatedSpeedInKnotsScaled = Arrays.copyOf(cachedEstimatedSpeedInKnotsScaled, newCapacity);
+        cachedEstimatedSpeedBearingInDegreesScaled = Arrays.copyOf(cachedEstimatedSpeedBearingInDegreesScaled, newCapacity);
+        if (preciseFixes != null) {
+            preciseFixes = Arrays.copyOf(preciseFixes, newCapacity);
+        }
+    }
+
+    private void checkIndex(int index, int bound) {
+        if (index < 0 || index >= bound) {
+            throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+        }
+    }
+}
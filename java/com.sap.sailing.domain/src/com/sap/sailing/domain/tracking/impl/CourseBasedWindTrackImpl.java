@@ -39,6 +39,14 @@ public class CourseBasedWindTrackImpl extends WindTrackImpl {
         this.trackedRace = trackedRace;
     }
 
+    /**
+     * The fixes of this track are computed from the course and change without being added to or removed from the track
+     */
+    @Override
+    protected boolean isAveragingFromFixArraysPossible() {
+        return false;
+    }
+
     @Override
     protected NavigableSet<Wind> getInternalRawFixes() {
         assertReadLock();
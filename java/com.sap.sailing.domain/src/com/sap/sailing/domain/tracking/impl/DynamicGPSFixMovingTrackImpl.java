@@ -26,12 +26,15 @@ import com.sap.sailing.domain.common.tracking.impl.CompactPositionHelper;
 import com.sap.sailing.domain.common.tracking.impl.CompactionNotPossibleException;
 import com.sap.sailing.domain.common.tracking.impl.PreciseCompactGPSFixMovingImpl;
 import com.sap.sailing.domain.common.tracking.impl.VeryCompactGPSFixMovingImpl;
+import com.sap.sailing.domain.shared.tracking.impl.TimedComparator;
 import com.sap.sailing.domain.tracking.DynamicGPSFixTrack;
 import com.sap.sse.common.Bearing;
 import com.sap.sse.common.Distance;
 import com.sap.sse.common.Speed;
 import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.Timed;
 import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.shared.util.impl.ArrayListNavigableSet;
 
 public class DynamicGPSFixMovingTrackImpl<ItemType> extends GPSFixTrackImpl<ItemType, GPSFixMoving> implements DynamicGPSFixTrack<ItemType, GPSFixMoving> {
     private static final Logger logger = Logger.getLogger(DynamicGPSFixMovingTrackImpl.class.getName());
@@ -88,6 +91,30 @@ public class DynamicGPSFixMovingTrackImpl<ItemType> extends GPSFixTrackImpl<Item
         super(trackedItem, millisecondsOverWhichToAverage, losslessCompaction);
     }
 
+    /**
+     * @param maxSpeedForSmoothening
+     *            pass <code>null</code> if you don't want speed-based smoothening
+     * @param optimisticReads
+     *            if {@code true}, single-fix lookups on the raw fixes don't acquire the read lock and are retried if
+     *            the fixes were modified concurrently; as the plain fix set used here doesn't publish appends safely,
+     *            every modification including an append makes concurrent readers retry; see
+     *            {@link com.sap.sailing.domain.shared.tracking.impl.TrackImpl#TrackImpl(ArrayListNavigableSet, String, boolean)}
+     */
+    public DynamicGPSFixMovingTrackImpl(ItemType trackedItem, long millisecondsOverWhichToAverage, Speed maxSpeedForSmoothening,
+            boolean losslessCompaction, boolean optimisticReads) {
+        this(trackedItem, new ArrayListNavigableSet<Timed>(TimedComparator.INSTANCE), millisecondsOverWhichToAverage,
+                maxSpeedForSmoothening, losslessCompaction, optimisticReads);
+    }
+
+    /**
+     * Lets subclasses provide the set that stores the fixes; see
+     * {@link GPSFixTrackImpl#GPSFixTrackImpl(Object, ArrayListNavigableSet, long, Speed, boolean, boolean)}.
+     */
+    protected DynamicGPSFixMovingTrackImpl(ItemType trackedItem, ArrayListNavigableSet<Timed> fixes,
+            long millisecondsOverWhichToAverage, Speed maxSpeedForSmoothening, boolean losslessCompaction, boolean optimisticReads) {
+        super(trackedItem, fixes, millisecondsOverWhichToAverage, maxSpeedForSmoothening, losslessCompaction, optimisticReads);
+    }
+
     /**
      * This redefinition packs the <code>gpsFix</code> into a more compact representation that conserves
      * memory compared to the original, "naive" implementation. It gets along with a single object.
@@ -98,7 +125,16 @@ public class DynamicGPSFixMovingTrackImpl<ItemType> extends GPSFixTrackImpl<Item
     public boolean addGPSFix(GPSFixMoving gpsFix) {
         return add(gpsFix, /* replace */ true);
     }
-    
+
+    @Override
+    public int addGPSFixes(Iterable<GPSFixMoving> gpsFixes) {
+        final List<GPSFixMoving> compactFixes = new ArrayList<>();
+        for (final GPSFixMoving gpsFix : gpsFixes) {
+            compactFixes.add(compact(gpsFix));
+        }
+        return addAll(compactFixes, /* replace */ true);
+    }
+
     @Override
     public boolean add(GPSFixMoving fix) {
         return super.add(fix); // ends up calling this.add(fix, false) where conversion in CompactGPSFixMovingImpl will happen
@@ -106,6 +142,16 @@ public class DynamicGPSFixMovingTrackImpl<ItemType> extends GPSFixTrackImpl<Item
 
     @Override
     public boolean add(GPSFixMoving fix, boolean replace) {
+        return super.add(compact(fix), replace);
+    }
+
+    /**
+     * Produces the representation of {@code fix} that is handed to the underlying fix set. This default
+     * implementation creates a {@link VeryCompactGPSFixMovingImpl} or, with {@link #isLosslessCompaction() lossless
+     * compaction} or if the fix cannot be compacted in a lossy way, a {@link PreciseCompactGPSFixMovingImpl}.
+     * Subclasses whose fix set does its own compaction may return {@code fix} unchanged.
+     */
+    protected GPSFixMoving compact(GPSFixMoving fix) {
         GPSFixMoving compactFix;
         try {
             compactFix = isLosslessCompaction() ? new PreciseCompactGPSFixMovingImpl(fix) : new VeryCompactGPSFixMovingImpl(fix);
@@ -113,7 +159,7 @@ public class DynamicGPSFixMovingTrackImpl<ItemType> extends GPSFixTrackImpl<Item
             logger.log(Level.FINE, "Couldn't compact fix "+fix+" for track for "+getTrackedItem()+". Using losslessly-compacted fix instead.", e);
             compactFix = new PreciseCompactGPSFixMovingImpl(fix);
         }
-        return super.add(compactFix, replace);
+        return compactFix;
     }
 
     /**
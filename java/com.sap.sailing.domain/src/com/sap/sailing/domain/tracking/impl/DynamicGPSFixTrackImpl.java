@@ -1,5 +1,8 @@
 package com.sap.sailing.domain.tracking.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.sap.sailing.domain.common.tracking.GPSFix;
 import com.sap.sailing.domain.common.tracking.impl.CompactPositionHelper;
 import com.sap.sailing.domain.common.tracking.impl.PreciseCompactGPSFixImpl;
@@ -23,7 +26,16 @@ public class DynamicGPSFixTrackImpl<ItemType> extends GPSFixTrackImpl<ItemType,
     public boolean addGPSFix(GPSFix gpsFix) {
         return add(gpsFix, /* replace */ true);
     }
-    
+
+    @Override
+    public int addGPSFixes(Iterable<GPSFix> gpsFixes) {
+        final List<GPSFix> compactFixes = new ArrayList<>();
+        for (final GPSFix gpsFix : gpsFixes) {
+            compactFixes.add(isLosslessCompaction() ? new PreciseCompactGPSFixImpl(gpsFix) : new VeryCompactGPSFixImpl(gpsFix));
+        }
+        return addAll(compactFixes, /* replace */ true);
+    }
+
     @Override
     public boolean add(GPSFix fix) {
         return super.add(fix); // ends up calling this.add(fix, false) where conversion in CompactGPSFixImpl will happen
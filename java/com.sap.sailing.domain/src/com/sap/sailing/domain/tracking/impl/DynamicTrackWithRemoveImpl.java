@@ -23,11 +23,21 @@ public class DynamicTrackWithRemoveImpl<FixType extends Timed> extends DynamicTr
 
     @Override
     public boolean remove(FixType fix) {
-        return getInternalFixes().remove(fix);
+        beginStructuralModification();
+        try {
+            return getInternalFixes().remove(fix);
+        } finally {
+            endStructuralModification();
+        }
     }
     
     @Override
     public void removeAllUpToExcluding(FixType fix) {
-        getInternalFixes().removeAllLessThan(fix);
+        beginStructuralModification();
+        try {
+            getInternalFixes().removeAllLessThan(fix);
+        } finally {
+            endStructuralModification();
+        }
     }
 }
@@ -240,6 +240,7 @@ DynamicTrackedRace, GPSTrackListener<Competitor, GPSFixMoving> {
         TrackedRaceStatus oldStatus = getStatus();
         super.setStatus(newStatus);
         notifyListeners(newStatus, oldStatus);
+        endRematerializingUnlessLoading();
     }
     
     @Override
@@ -314,6 +315,40 @@ DynamicTrackedRace, GPSTrackListener<Competitor, GPSFixMoving> {
         }
     }
 
+    @Override
+    public int recordFixes(Competitor competitor, Iterable<GPSFixMoving> fixes) {
+        final int result;
+        final DynamicGPSFixTrack<Competitor, GPSFixMoving> track = getTrack(competitor);
+        if (track != null) {
+            final List<GPSFixMoving> fixesWithinTrackingInterval = new ArrayList<>();
+            for (final GPSFixMoving fix : fixes) {
+                if (isWithinStartAndEndOfTracking(fix.getTimePoint())) {
+                    fixesWithinTrackingInterval.add(fix);
+                }
+            }
+            result = fixesWithinTrackingInterval.isEmpty() ? 0 : track.addGPSFixes(fixesWithinTrackingInterval);
+        } else {
+            result = 0;
+        }
+        return result;
+    }
+
+    @Override
+    public void recordFixes(Mark mark, Iterable<GPSFix> fixes) {
+        final List<GPSFix> fixesWithinTrackingInterval = new ArrayList<>();
+        for (final GPSFix fix : fixes) {
+            if (isWithinStartAndEndOfTracking(fix.getTimePoint())) {
+                fixesWithinTrackingInterval.add(fix);
+            } else {
+                logger.finer(() -> "Dropped fix " + fix + " because it is outside the tracking interval "
+                        + getStartOfTracking() + ".." + getEndOfTracking());
+            }
+        }
+        if (!fixesWithinTrackingInterval.isEmpty()) {
+            getOrCreateTrack(mark).addGPSFixes(fixesWithinTrackingInterval);
+        }
+    }
+
     /**
      * A time point is considered "in" if a non-{@code null} {@link #getStartOfTracking()} has been defined and the
      * {@code fixTimePoint} is at or after that time point and {@link #getEndOfTracking()}.
@@ -38,6 +38,7 @@ import com.sap.sailing.domain.shared.tracking.Track;
 import com.sap.sailing.domain.shared.tracking.impl.MappedTrackImpl;
 import com.sap.sailing.domain.shared.tracking.impl.PartialNavigableSetView;
 import com.sap.sailing.domain.shared.tracking.impl.TimeRangeCache;
+import com.sap.sailing.domain.shared.tracking.impl.TimedComparator;
 import com.sap.sailing.domain.tracking.GPSFixTrack;
 import com.sap.sailing.domain.tracking.GPSTrackListener;
 import com.sap.sailing.domain.tracking.SpeedWithBearingStep;
@@ -160,8 +161,26 @@ public abstract class GPSFixTrackImpl<ItemType, FixType extends GPSFix> extends
      */
     protected GPSFixTrackImpl(ItemType trackedItem, long millisecondsOverWhichToAverage, Speed maxSpeedForSmoothening,
             boolean losslessCompaction) {
-        super(trackedItem, /* nameForReadWriteLock */ GPSFixTrackImpl.class.getSimpleName()
-                + (trackedItem == null ? "" : (" for " + trackedItem.toString())));
+        this(trackedItem, new ArrayListNavigableSet<Timed>(TimedComparator.INSTANCE), millisecondsOverWhichToAverage,
+                maxSpeedForSmoothening, losslessCompaction, /* optimisticReads */ false);
+    }
+
+    /**
+     * Lets subclasses choose the data structure in which the fixes are stored, e.g., an {@link ArrayListNavigableSet}
+     * backed by a columnar list such as {@link ColumnarGPSFixMovingList}.
+     * 
+     * @param fixes
+     *            an empty set ordered by the fixes' time points
+     * @param maxSpeedForSmoothening
+     *            if <code>null</code>, any fix speed will be accepted as long as fix-provided speed (if any) and
+     *            inferred speed can be matched.
+     * @param optimisticReads
+     *            see {@link com.sap.sailing.domain.shared.tracking.impl.TrackImpl#TrackImpl(ArrayListNavigableSet, String, boolean)}
+     */
+    protected GPSFixTrackImpl(ItemType trackedItem, ArrayListNavigableSet<Timed> fixes, long millisecondsOverWhichToAverage,
+            Speed maxSpeedForSmoothening, boolean losslessCompaction, boolean optimisticReads) {
+        super(trackedItem, fixes, /* nameForReadWriteLock */ GPSFixTrackImpl.class.getSimpleName()
+                + (trackedItem == null ? "" : (" for " + trackedItem.toString())), optimisticReads);
         this.millisecondsOverWhichToAverage = millisecondsOverWhichToAverage;
         this.maxSpeedForSmoothing = maxSpeedForSmoothening;
         this.listeners = new TrackListenerCollection<ItemType, FixType, GPSTrackListener<ItemType, FixType>>();
@@ -196,6 +215,26 @@ public abstract class GPSFixTrackImpl<ItemType, FixType extends GPSFix> extends
         getDistanceCache().clear();
     }
 
+    /**
+     * Makes the superclass method public so that {@link com.sap.sailing.domain.tracking.DynamicGPSFixTrack}
+     * implementations expose it. Replaces the max speed cache and clears the distance cache as these would otherwise
+     * keep referencing the fixes removed.
+     */
+    @Override
+    public void removeAllFixes() {
+        lockForWrite();
+        try {
+            super.removeAllFixes();
+            if (!validityCachingSuspended) {
+                removeListener(maxSpeedCache);
+                maxSpeedCache = createMaxSpeedCache();
+            }
+            getDistanceCache().clear();
+        } finally {
+            unlockAfterWrite();
+        }
+    }
+
     protected MaxSpeedCache<ItemType, FixType> createMaxSpeedCache() {
         return new MaxSpeedCache<ItemType, FixType>(this);
     }
@@ -933,6 +972,15 @@ public abstract class GPSFixTrackImpl<ItemType, FixType extends GPSFix> extends
         return millisecondsOverWhichToAverage;
     }
 
+    /**
+     * The smoothened view returned by {@link #getInternalFixes()} evaluates and caches fix validity which requires the
+     * read lock.
+     */
+    @Override
+    protected boolean isInternalFixesReadableOptimistically() {
+        return false;
+    }
+
     /**
      * Smoothens the track based on a max-speed assumption.
      */
@@ -1160,6 +1208,42 @@ public abstract class GPSFixTrackImpl<ItemType, FixType extends GPSFix> extends
         return result;
     }
 
+    /**
+     * Like {@link #add(GPSFix, boolean)} for each of the {@code fixes}, but obtains the write lock only once for all of
+     * them, so that readers are not interleaved with the insertion of a batch of fixes and the lock isn't handed over
+     * once per fix. The listeners are notified after the write lock has been released, in the order in which the
+     * fixes were added.
+     *
+     * @return the number of fixes that were added or replaced
+     */
+    protected int addAll(Iterable<FixType> fixes, boolean replace) {
+        final List<FixType> fixesAdded = new ArrayList<>();
+        final List<AddResult> addResults = new ArrayList<>();
+        final boolean firstFixInTrack;
+        lockForWrite();
+        try {
+            firstFixInTrack = getRawFixes().isEmpty();
+            for (final FixType fix : fixes) {
+                final AddResult addResult = addWithoutLocking(fix, replace);
+                if (addResult != AddResult.NOT_ADDED) {
+                    if (!validityCachingSuspended) {
+                        invalidateValidityAndEstimatedSpeedAndDistanceCaches(fix);
+                    }
+                    fixesAdded.add(fix);
+                    addResults.add(addResult);
+                }
+            }
+        } finally {
+            unlockAfterWrite();
+        }
+        for (int i=0; i<fixesAdded.size(); i++) {
+            for (GPSTrackListener<ItemType, FixType> listener : getListeners()) {
+                listener.gpsFixReceived(fixesAdded.get(i), getTrackedItem(), firstFixInTrack && i == 0, addResults.get(i));
+            }
+        }
+        return fixesAdded.size();
+    }
+
     protected void setMillisecondsOverWhichToAverage(long millisecondsOverWhichToAverage) {
         long oldMillis = getMillisecondsOverWhichToAverage();
         this.millisecondsOverWhichToAverage = millisecondsOverWhichToAverage;
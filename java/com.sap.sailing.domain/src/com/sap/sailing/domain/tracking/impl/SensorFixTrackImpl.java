@@ -53,6 +53,11 @@ public class SensorFixTrackImpl<ItemType extends WithID & Serializable, FixT ext
         return result;
     }
     
+    @Override
+    public void removeAllFixes() {
+        super.removeAllFixes();
+    }
+
     protected void notifyListeners(Consumer<SensorFixTrackListener<ItemType, FixT>> notification) {
         listeners.getListeners().forEach(notification);
     }
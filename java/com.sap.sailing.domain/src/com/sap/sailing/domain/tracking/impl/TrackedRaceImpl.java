@@ -1,6 +1,7 @@
 package com.sap.sailing.domain.tracking.impl;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
@@ -35,6 +36,7 @@ import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.logging.Level;
@@ -134,6 +136,9 @@ import com.sap.sailing.domain.maneuverdetection.ManeuverDetector;
 import com.sap.sailing.domain.maneuverdetection.ShortTimeAfterLastHitCache;
 import com.sap.sailing.domain.maneuverdetection.impl.IncrementalManeuverDetectorImpl;
 import com.sap.sailing.domain.markpassingcalculation.MarkPassingCalculator;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprint;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprintFactory;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprintRegistry;
 import com.sap.sailing.domain.markpassinghash.MarkPassingRaceFingerprintRegistry;
 import com.sap.sailing.domain.orc.ORCPerformanceCurveRankingMetric;
 import com.sap.sailing.domain.polars.PolarDataService;
@@ -149,6 +154,7 @@ import com.sap.sailing.domain.shared.tracking.impl.LineDetailsImpl;
 import com.sap.sailing.domain.shared.tracking.impl.TimedComparator;
 import com.sap.sailing.domain.ranking.RankingMetricConstructor;
 import com.sap.sailing.domain.tracking.BravoFixTrack;
+import com.sap.sailing.domain.tracking.DynamicGPSFixTrack;
 import com.sap.sailing.domain.tracking.DynamicSensorFixTrack;
 import com.sap.sailing.domain.tracking.GPSFixTrack;
 import com.sap.sailing.domain.tracking.GPSTrackListener;
@@ -163,6 +169,7 @@ import com.sap.sailing.domain.tracking.TrackFactory;
 import com.sap.sailing.domain.tracking.TrackedLeg;
 import com.sap.sailing.domain.tracking.TrackedLegOfCompetitor;
 import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sailing.domain.tracking.TrackedRaceRematerializer;
 import com.sap.sailing.domain.tracking.TrackedRaceStatus;
 import com.sap.sailing.domain.tracking.TrackedRaceWithWindEssentials;
 import com.sap.sailing.domain.tracking.TrackedRegatta;
@@ -193,6 +200,7 @@ import com.sap.sse.util.IdentityWrapper;
 import com.sap.sse.util.SmartFutureCache;
 import com.sap.sse.util.SmartFutureCache.AbstractCacheUpdater;
 import com.sap.sse.util.SmartFutureCache.EmptyUpdateInterval;
+import com.sap.sse.util.ThreadPoolUtil;
 import com.sap.sse.util.impl.FutureTaskWithTracingGet;
 
 import difflib.DiffUtils;
@@ -219,12 +227,60 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
 
     public static final Duration EXTRA_LONG_TIME_BEFORE_START_TO_TRACK_WIND_MILLIS = Duration.ONE_HOUR;
 
+    /**
+     * If the system property with this name is set to {@code true}, competitor tracks are created as
+     * {@link ColumnarDynamicGPSFixMovingTrackImpl}s which store their fixes in primitive arrays instead of one object
+     * per fix.
+     */
+    public static final String COLUMNAR_COMPETITOR_TRACKS_SYSTEM_PROPERTY_NAME = "com.sap.sailing.domain.tracking.columnarCompetitorTracks";
+
+    private static final boolean USE_COLUMNAR_COMPETITOR_TRACKS = Boolean.valueOf(System.getProperty(COLUMNAR_COMPETITOR_TRACKS_SYSTEM_PROPERTY_NAME, "false"));
+
+    /**
+     * If the system property with this name is set to {@code true} together with the one named
+     * {@link #COLUMNAR_COMPETITOR_TRACKS_SYSTEM_PROPERTY_NAME}, competitor tracks look up single raw fixes without
+     * acquiring their read lock, retrying only if fixes were inserted out of order or removed concurrently. Only the
+     * columnar fix list publishes appends safely to such readers; therefore, the property has no effect otherwise.
+     */
+    public static final String OPTIMISTIC_COMPETITOR_TRACK_READS_SYSTEM_PROPERTY_NAME = "com.sap.sailing.domain.tracking.optimisticCompetitorTrackReads";
+
+    private static final boolean USE_OPTIMISTIC_COMPETITOR_TRACK_READS = Boolean.valueOf(System.getProperty(OPTIMISTIC_COMPETITOR_TRACK_READS_SYSTEM_PROPERTY_NAME, "false"));
+
     private TrackedRaceStatus status;
 
     private final TrackingConnectorInfo trackingConnectorInfo;
 
     private final Object statusNotifier;
 
+    /**
+     * Loads the competitor and sensor fixes again after this race has been {@link #hibernate() hibernated};
+     * {@code null} if this race must not hibernate
+     */
+    private transient volatile TrackedRaceRematerializer rematerializer;
+
+    /**
+     * Set while the competitor and sensor tracks of this race have been emptied by {@link #hibernate()}; reset
+     * before the {@link #rematerializer} is asked to load them again
+     */
+    private transient AtomicBoolean hibernated;
+
+    /**
+     * Set from the time a hibernated race starts to be rematerialized until it has finished loading again; see
+     * {@link #isRematerializing()}
+     */
+    private transient volatile boolean rematerializing;
+
+    /**
+     * Serializes {@link #hibernate() hibernating} and rematerializing this race
+     */
+    private transient Object hibernationLock;
+
+    /**
+     * Updated with the {@link ApproximateTime approximate} current time when the tracks or maneuvers of this race are
+     * requested
+     */
+    private transient volatile TimePoint timePointOfLastAccess;
+
     /**
      * By default, all wind sources are used, none are excluded. However, e.g., for performance reasons, particular wind
      * sources such as the track-based estimation wind source, may be excluded by adding them to this set.
@@ -342,6 +398,20 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
      */
     private transient SmartFutureCache<Competitor, List<Maneuver>, EmptyUpdateInterval> maneuverCache;
 
+    /**
+     * Stores the maneuvers of this race persistently together with a fingerprint of the race, so that they can be
+     * loaded instead of detected again when the race is restored; {@code null} if maneuvers are not to be stored, as
+     * on a replica which detects the maneuvers on its own.
+     */
+    private transient ManeuverRaceFingerprintRegistry maneuverRaceFingerprintRegistry;
+
+    /**
+     * Maneuvers {@link #loadManeuversFromRegistry() loaded} from the {@link #maneuverRaceFingerprintRegistry}; the next
+     * update of the {@link #maneuverCache} for a competitor takes the competitor's maneuvers from here instead of
+     * detecting them.
+     */
+    private transient ConcurrentMap<Competitor, List<Maneuver>> maneuversLoadedFromRegistry;
+
     /**
      * The values of this map are used by the {@link #approximate(Competitor, Distance, TimePoint, TimePoint)} method and
      * maintain state to accelerate the {@link #approximate(Competitor, Distance, TimePoint, TimePoint)} method, also in
@@ -535,6 +605,9 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
         attachedRaceExecutionOrderProviders = new ConcurrentHashMap<>();
         this.status = new TrackedRaceStatusImpl(TrackedRaceStatusEnum.PREPARED, 0.0);
         this.statusNotifier = new Object[0];
+        this.hibernated = new AtomicBoolean();
+        this.hibernationLock = new Object();
+        this.timePointOfLastAccess = MillisecondsTimePoint.now();
         this.loadingFromWindStoreLock = new NamedReentrantReadWriteLock("Loading from wind store lock for tracked race "
                 + race.getName(), /* fair */ false);
         this.loadingFromGPSFixStoreLock = new NamedReentrantReadWriteLock("Loading from GPSFix store lock for tracked race "
@@ -548,6 +621,9 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
         this.startToNextMarkCacheInvalidationListeners = new ConcurrentHashMap<Mark, TrackedRaceImpl.StartToNextMarkCacheInvalidationListener>();
         this.maneuverDetectorPerCompetitorCache = createManeuverDetectorCache();
         this.maneuverCache = createManeuverCache();
+        this.maneuverRaceFingerprintRegistry = markPassingRaceFingerprintRegistry == null ? null
+                : markPassingRaceFingerprintRegistry.getManeuverRaceFingerprintRegistry();
+        this.maneuversLoadedFromRegistry = new ConcurrentHashMap<>();
         this.markTracks = new ConcurrentHashMap<Mark, GPSFixTrack<Mark, GPSFix>>();
         int i = 0;
         for (Waypoint waypoint : race.getCourse().getWaypoints()) {
@@ -583,7 +659,11 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
         maneuverApproximators = new HashMap<>();
         for (Competitor competitor : race.getCompetitors()) {
             markPassingsForCompetitor.put(competitor, new ConcurrentSkipListSet<MarkPassing>(MarkPassingByTimeComparator.INSTANCE));
-            final DynamicGPSFixMovingTrackImpl<Competitor> track = new DynamicGPSFixMovingTrackImpl<Competitor>(competitor, millisecondsOverWhichToAverageSpeed);
+            final DynamicGPSFixMovingTrackImpl<Competitor> track = USE_COLUMNAR_COMPETITOR_TRACKS
+                    ? new ColumnarDynamicGPSFixMovingTrackImpl<Competitor>(competitor, millisecondsOverWhichToAverageSpeed,
+                            GPSFixTrack.DEFAULT_MAX_SPEED_FOR_SMOOTHING, USE_OPTIMISTIC_COMPETITOR_TRACK_READS)
+                    : new DynamicGPSFixMovingTrackImpl<Competitor>(competitor, millisecondsOverWhichToAverageSpeed,
+                            GPSFixTrack.DEFAULT_MAX_SPEED_FOR_SMOOTHING, /* losslessCompaction */ false, /* optimisticReads */ false);
             tracks.put(competitor, track);
             maneuverApproximators.put(competitor, new CourseChangeBasedTrackApproximation(track, race.getBoatOfCompetitor(competitor).getBoatClass()));
         }
@@ -746,23 +826,54 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
 
     /**
      * Object serialization obtains a read lock for the course so that in cannot change while serializing this object.
+     * A {@link #hibernate() hibernated} race is rematerialized first, and serialization waits until its fixes have
+     * been loaded again; the receiving side, e.g., a replica, has no means to load them and would keep the emptied
+     * tracks for good. {@link #hibernate()} can't empty the tracks while the race is being serialized.
      */
     private void writeObject(ObjectOutputStream s) throws IOException {
         // obtain the course's read lock because a course change during serialization could lead to
         // trackedLegs being inconsistent with getRace().getCourse().getLegs()
         getRace().getCourse().lockForRead();
         try {
-            LockUtil.lockForWrite(getSerializationLock());
-            try {
-                s.defaultWriteObject();
-            } finally {
-                LockUtil.unlockAfterWrite(getSerializationLock());
+            boolean written = false;
+            while (!written) {
+                waitUntilRematerialized();
+                LockUtil.lockForWrite(getSerializationLock());
+                try {
+                    // the race may have been hibernated again before the lock was obtained
+                    if (!hibernated.get() && !rematerializing) {
+                        s.defaultWriteObject();
+                        written = true;
+                    }
+                } finally {
+                    LockUtil.unlockAfterWrite(getSerializationLock());
+                }
             }
         } finally {
             getRace().getCourse().unlockAfterRead();
         }
     }
 
+    /**
+     * Rematerializes this race if it is {@link #isHibernated() hibernated} and waits until all its fixes have been
+     * loaded again. Must not be called by the threads loading the fixes.
+     */
+    private void waitUntilRematerialized() throws InterruptedIOException {
+        accessed();
+        synchronized (getStatusNotifier()) {
+            while (rematerializing) {
+                try {
+                    // the end of rematerializing is flagged after the status change was notified; check periodically
+                    getStatusNotifier().wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for race " + getRace().getName()
+                            + " to be loaded again for serialization");
+                }
+            }
+        }
+    }
+
     /**
      * Deserialization has to be maintained in lock-step with {@link #writeObject(ObjectOutputStream) serialization}.
      * When de-serializing, a possibly remote {@link #windStore} is ignored because it is transient. Instead, an
@@ -790,6 +901,10 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
         directionFromStartToNextMarkCache = new ConcurrentHashMap<>();
         maneuverDetectorPerCompetitorCache = createManeuverDetectorCache();
         maneuverCache = createManeuverCache();
+        maneuversLoadedFromRegistry = new ConcurrentHashMap<>();
+        hibernated = new AtomicBoolean();
+        hibernationLock = new Object();
+        timePointOfLastAccess = MillisecondsTimePoint.now();
         logger.info("Deserialized race " + getRace().getName());
     }
     
@@ -857,6 +972,10 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
                     @Override
                     public List<Maneuver> computeCacheUpdate(Competitor competitor, EmptyUpdateInterval updateInterval)
                             throws NoWindException {
+                        final List<Maneuver> loadedManeuvers = maneuversLoadedFromRegistry.remove(competitor);
+                        if (loadedManeuvers != null) {
+                            return loadedManeuvers;
+                        }
                         return getTrackedRegatta().callWithCPUMeterWithException(()->{
                             Duration averageIntervalBetweenRawFixes = getTrack(competitor).getAverageIntervalBetweenRawFixes();
                             if (averageIntervalBetweenRawFixes != null) {
@@ -1482,6 +1601,7 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
 
     @Override
     public GPSFixTrack<Competitor, GPSFixMoving> getTrack(Competitor competitor) {
+        accessed();
         return tracks.get(competitor);
     }
 
@@ -2932,6 +3052,7 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
      */
     @Override
     public Iterable<Maneuver> getManeuvers(Competitor competitor, TimePoint from, TimePoint to, boolean waitForLatest) {
+        accessed();
         List<Maneuver> allManeuvers = maneuverCache.get(competitor, waitForLatest);
         List<Maneuver> result;
         if (allManeuvers == null) {
@@ -2944,6 +3065,7 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
 
     @Override
     public Iterable<Maneuver> getManeuvers(Competitor competitor, boolean waitForLatest) {
+        accessed();
         List<Maneuver> allManeuvers = maneuverCache.get(competitor, waitForLatest);
         List<Maneuver> result;
         if (allManeuvers == null) {
@@ -3109,6 +3231,140 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
         }
     }
 
+    public void setRematerializer(TrackedRaceRematerializer rematerializer) {
+        this.rematerializer = rematerializer;
+    }
+
+    public boolean isHibernated() {
+        return hibernated.get();
+    }
+
+    public TimePoint getTimePointOfLastAccess() {
+        return timePointOfLastAccess;
+    }
+
+    public boolean isRematerializing() {
+        return rematerializing;
+    }
+
+    /**
+     * Ends the {@link #isRematerializing() rematerialization} unless this race is still loading. Called after the
+     * listeners have been notified about a status change so that they can tell the end of loading the race again from
+     * the end of loading it initially. Results that readers computed from the emptied or partially reloaded tracks
+     * in the meantime are dropped from the caches filled on demand.
+     */
+    protected void endRematerializingUnlessLoading() {
+        if (rematerializing && getStatus().getStatus() != TrackedRaceStatusEnum.LOADING) {
+            rematerializing = false;
+            clearCachesDerivedFromCompetitorTracks();
+        }
+    }
+
+    /**
+     * Records the access for {@link #getTimePointOfLastAccess()} and rematerializes this race if it is
+     * {@link #isHibernated() hibernated}. Cheap enough to be called on each access to a track.
+     * <p>
+     *
+     * This doesn't wait for the fixes to be loaded again because the loading threads access the tracks through the
+     * same methods. As during the initial load, the race is in status {@link TrackedRaceStatusEnum#LOADING LOADING}
+     * when this method returns until all fixes have been loaded again, and the caches not updating while loading are
+     * suspended in the meantime.
+     */
+    private void accessed() {
+        final TimePoint now = ApproximateTime.approximateNow();
+        if (timePointOfLastAccess != now) {
+            timePointOfLastAccess = now;
+        }
+        if (hibernated.get()) {
+            rematerialize();
+        }
+    }
+
+    private void rematerialize() {
+        synchronized (hibernationLock) {
+            if (hibernated.compareAndSet(true, false)) {
+                final TrackedRaceRematerializer currentRematerializer = rematerializer;
+                logger.info("Rematerializing hibernated race " + getRace().getName());
+                if (currentRematerializer != null) {
+                    rematerializing = true;
+                    currentRematerializer.rematerialize();
+                    endRematerializingUnlessLoading(); // in case there was nothing to load
+                }
+                if (cachesSuspended && getStatus().getStatus() != TrackedRaceStatusEnum.LOADING) {
+                    // suspended by hibernate(); the status change at the end of loading resumes them otherwise
+                    resumeAllCachesNotUpdatingWhileLoading();
+                }
+            }
+        }
+    }
+
+    /**
+     * Empties the competitor and sensor tracks and drops the caches derived from them. Mark tracks, wind tracks and
+     * mark passings are kept; so are the maneuvers stored in the fingerprint registry, which is why the maneuvers
+     * won't have to be detected again when the race is {@link #rematerialize() rematerialized}. Only caches that
+     * are filled on demand are dropped; invalidating caches that update themselves in the background, such as the
+     * {@link #crossTrackErrorCache}, would access the tracks and rematerialize the race right away. Those are
+     * suspended as while loading instead, so they don't compute results from the emptied tracks, and resumed when the
+     * race has been loaded again.
+     * <p>
+     *
+     * Readers that obtained a track before may see it emptied. Whatever they compute from it and put into a cache
+     * filled on demand is dropped again when the {@link #isRematerializing() rematerialization} ends.
+     */
+    public boolean hibernate() {
+        final boolean result;
+        // keeps the tracks from being emptied while the race is serialized, e.g., for the initial load of a replica
+        LockUtil.lockForRead(getSerializationLock());
+        try {
+            result = hibernateWhileSerializationIsLockedOut();
+        } finally {
+            LockUtil.unlockAfterRead(getSerializationLock());
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean hibernateWhileSerializationIsLockedOut() {
+        final boolean result;
+        synchronized (hibernationLock) {
+            if (rematerializer == null || getStatus().getStatus() == TrackedRaceStatusEnum.LOADING
+                    || !hibernated.compareAndSet(false, true)) {
+                result = false;
+            } else {
+                logger.info("Hibernating race " + getRace().getName());
+                suspendAllCachesNotUpdatingWhileLoading();
+                for (final Entry<Competitor, GPSFixTrack<Competitor, GPSFixMoving>> competitorAndTrack : tracks.entrySet()) {
+                    final Competitor competitor = competitorAndTrack.getKey();
+                    final GPSFixTrack<Competitor, GPSFixMoving> track = competitorAndTrack.getValue();
+                    if (track instanceof DynamicGPSFixTrack<?, ?>) {
+                        ((DynamicGPSFixTrack<Competitor, GPSFixMoving>) track).removeAllFixes();
+                    }
+                    // the approximation observes the track's fixes incrementally; start over for the fixes loaded again
+                    track.removeListener(maneuverApproximators.get(competitor));
+                    maneuverApproximators.put(competitor, new CourseChangeBasedTrackApproximation(track,
+                            getRace().getBoatOfCompetitor(competitor).getBoatClass()));
+                    maneuverCache.remove(competitor);
+                }
+                LockUtil.executeWithReadLock(sensorTracksLock, () -> {
+                    for (final DynamicSensorFixTrack<Competitor, ?> sensorTrack : sensorTracks.values()) {
+                        sensorTrack.removeAllFixes();
+                    }
+                });
+                clearCachesDerivedFromCompetitorTracks();
+                result = true;
+            }
+        }
+        return result;
+    }
+
+    private void clearCachesDerivedFromCompetitorTracks() {
+        maneuverDetectorPerCompetitorCache.clearCache();
+        shortTimeWindCache.clearCache();
+        distancesFromStarboardSideOfStartLineProjectedOntoLineCache.clear();
+        distancesFromStarboardSideOfStartLineProjectedOntoLineCacheLastAccessTimes.clear();
+        clearAllCachesExceptManeuvers();
+    }
+
     private void suspendAllCachesNotUpdatingWhileLoading() {
         cachesSuspended = true;
         for (GPSFixTrack<Competitor, GPSFixMoving> competitorTrack : tracks.values()) {
@@ -3137,10 +3393,64 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
             markPassingCalculator.resume();
         }
         crossTrackErrorCache.resume();
-        if (triggerManeuverCacheInvalidationForAllCompetitors) {
+        final boolean maneuversLoaded = loadManeuversFromRegistry();
+        if (triggerManeuverCacheInvalidationForAllCompetitors || maneuversLoaded) {
             triggerManeuverCacheRecalculationForAllCompetitors();
         }
         maneuverCache.resume();
+        if (!maneuversLoaded) {
+            storeManeuversInRegistryWhenDetected();
+        }
+    }
+
+    /**
+     * If the {@link #maneuverRaceFingerprintRegistry} has maneuvers stored for this race with a fingerprint that
+     * matches this race, the maneuvers are loaded into {@link #maneuversLoadedFromRegistry} from where the next update
+     * of the {@link #maneuverCache} takes them. This relies on the mark passings having been loaded or computed
+     * already; otherwise the fingerprint won't match.
+     * 
+     * @return {@code true} if maneuvers were loaded for all competitors
+     */
+    private boolean loadManeuversFromRegistry() {
+        boolean result = false;
+        if (maneuverRaceFingerprintRegistry != null) {
+            final ManeuverRaceFingerprint fingerprint = maneuverRaceFingerprintRegistry.getManeuverRaceFingerprint(getRaceIdentifier());
+            if (fingerprint != null && fingerprint.matches(this)) {
+                final Map<Competitor, List<Maneuver>> maneuvers = maneuverRaceFingerprintRegistry.loadManeuvers(getRaceIdentifier(), this);
+                if (maneuvers != null && Util.containsAll(maneuvers.keySet(), getRace().getCompetitors())) {
+                    logger.info("Found stored maneuvers for race " + getRace().getName() + " with matching fingerprint; loading instead of detecting");
+                    maneuversLoadedFromRegistry.putAll(maneuvers);
+                    result = true;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Waits in a task of the default background thread pool for the mark passings and then the maneuvers of all competitors to be computed
+     * and stores the maneuvers in the {@link #maneuverRaceFingerprintRegistry}, if any. The fingerprint is taken before
+     * the maneuvers are fetched; if the race changes in between, the fingerprint won't match the race anymore, and the
+     * maneuvers stored won't be used.
+     */
+    private void storeManeuversInRegistryWhenDetected() {
+        final ManeuverRaceFingerprintRegistry registry = maneuverRaceFingerprintRegistry;
+        if (registry != null) {
+            ThreadPoolUtil.INSTANCE.getDefaultBackgroundTaskThreadPoolExecutor().execute(() -> {
+                try {
+                    getMarkPassings(/* waitForLatestUpdates */ true);
+                    final ManeuverRaceFingerprint fingerprint = ManeuverRaceFingerprintFactory.INSTANCE.createFingerprint(this);
+                    final Map<Competitor, List<Maneuver>> maneuvers = new HashMap<>();
+                    for (final Competitor competitor : getRace().getCompetitors()) {
+                        final List<Maneuver> maneuversOfCompetitor = maneuverCache.get(competitor, /* waitForLatest */ true);
+                        maneuvers.put(competitor, maneuversOfCompetitor == null ? Collections.emptyList() : maneuversOfCompetitor);
+                    }
+                    registry.storeManeuvers(getRaceIdentifier(), fingerprint, maneuvers, this);
+                } catch (Exception e) {
+                    logger.log(Level.WARNING, "Exception trying to store the maneuvers of race " + getRace().getName(), e);
+                }
+            });
+        }
     }
 
     /**
@@ -4133,6 +4443,7 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
 
     public <FixT extends SensorFix, TrackT extends SensorFixTrack<Competitor, FixT>> TrackT getSensorTrack(
             Competitor competitor, String trackName) {
+        accessed();
         Pair<Competitor, String> key = new Pair<>(competitor, trackName);
         LockUtil.lockForRead(sensorTracksLock);
         try {
@@ -4145,6 +4456,7 @@ public abstract class TrackedRaceImpl extends TrackedRaceWithWindEssentials impl
     @Override
     public <FixT extends SensorFix, TrackT extends SensorFixTrack<Competitor, FixT>> Iterable<TrackT> getSensorTracks(
             String trackName) {
+        accessed();
         return LockUtil.<Iterable<TrackT>>executeWithReadLockAndResult(sensorTracksLock, () -> {
             final Set<TrackT> result = new HashSet<>();
             for (Competitor competitor : tracks.keySet()) {
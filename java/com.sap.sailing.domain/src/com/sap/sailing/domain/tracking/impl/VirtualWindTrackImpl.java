@@ -32,6 +32,14 @@ public abstract class VirtualWindTrackImpl extends WindTrackImpl {
         return trackedRace;
     }
     
+    /**
+     * The fixes of virtual tracks are computed and change without being added to or removed from the track
+     */
+    @Override
+    protected boolean isAveragingFromFixArraysPossible() {
+        return false;
+    }
+
     @Override
     protected NavigableSet<Wind> getInternalFixes() {
         return new PartialNavigableSetView<Wind>(getInternalRawFixes()) {
@@ -0,0 +1,290 @@
+package com.sap.sailing.domain.tracking.impl;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.ToDoubleFunction;
+
+import com.sap.sailing.domain.common.Position;
+import com.sap.sailing.domain.common.Wind;
+import com.sap.sailing.domain.common.confidence.impl.LazyDividedScaledPosition;
+import com.sap.sailing.domain.common.confidence.impl.PositionAndTimePointWeigher;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.impl.WindImpl;
+import com.sap.sailing.domain.common.scalablevalue.impl.ScalablePosition;
+import com.sap.sailing.domain.common.scalablevalue.impl.ScalableSpeedWithBearing;
+import com.sap.sailing.domain.confidence.impl.ConfidenceBasedWindAveragerImpl;
+import com.sap.sailing.domain.tracking.WindWithConfidence;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.Util.Pair;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+/**
+ * The fixes of a {@link WindTrackImpl} decomposed into primitive arrays: the time points, the base confidences, the
+ * speed and the sine and cosine of the bearing, the position as a unit vector and in degrees. This is the
+ * representation from which {@link #getAveragedWind} computes the same average that
+ * {@link WindTrackImpl#getAveragedWindWithConfidence(Position, TimePoint)} computes using a
+ * {@link ConfidenceBasedWindAveragerImpl} over {@link WindWithConfidence} objects. The averaging window is found by
+ * binary search, and the fixes in the window are weighed and summed up without constructing any intermediate objects.
+ * <p>
+ *
+ * The weights of the fixes depend on their time and space distance to the time point and position for which the average
+ * is requested, see {@link PositionAndTimePointWeigher}. Therefore, the weighted sums can't be pre-computed, e.g., as
+ * prefix sums, but have to be computed per request.
+ * <p>
+ *
+ * Objects of this class are effectively immutable: {@link #append(Collection, long, long, ToDoubleFunction)} writes only
+ * beyond the {@link #size()} of this object, and the object returned, if it shares the arrays with this object, is
+ * published only after the new elements have been written. Readers holding on to this object therefore aren't
+ * affected.
+ */
+public class WindFixArrays {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int size;
+
+    /**
+     * The {@link WindTrackImpl}'s count of structural modifications at the time the fixes were copied; if it changed
+     * since, the fixes have to be copied again. Appending fixes doesn't count as a structural modification.
+     */
+    private final long structuralModificationCount;
+
+    /**
+     * The {@link WindTrackImpl}'s count of all modifications, appends included, at the time the fixes were copied; as
+     * long as it is unchanged, these arrays hold exactly the fixes of the track
+     */
+    private final long modificationCount;
+
+    /**
+     * The last fix copied into these arrays; fixes appended to the track since come after this fix
+     */
+    private final Wind lastFix;
+
+    private final long[] timeMillis;
+    private final double[] confidence;
+    private final double[] knots;
+    private final double[] sin;
+    private final double[] cos;
+    private final boolean[] hasPosition;
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final double[] latDeg;
+    private final double[] lngDeg;
+
+    private WindFixArrays(int capacity, long structuralModificationCount, long modificationCount) {
+        this(0, structuralModificationCount, modificationCount, /* lastFix */ null, new long[capacity], new double[capacity],
+                new double[capacity], new double[capacity], new double[capacity], new boolean[capacity],
+                new double[capacity], new double[capacity], new double[capacity], new double[capacity],
+                new double[capacity]);
+    }
+
+    private WindFixArrays(int size, long structuralModificationCount, long modificationCount, Wind lastFix, long[] timeMillis,
+            double[] confidence, double[] knots, double[] sin, double[] cos, boolean[] hasPosition, double[] x,
+            double[] y, double[] z, double[] latDeg, double[] lngDeg) {
+        this.size = size;
+        this.structuralModificationCount = structuralModificationCount;
+        this.modificationCount = modificationCount;
+        this.lastFix = lastFix;
+        this.timeMillis = timeMillis;
+        this.confidence = confidence;
+        this.knots = knots;
+        this.sin = sin;
+        this.cos = cos;
+        this.hasPosition = hasPosition;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.latDeg = latDeg;
+        this.lngDeg = lngDeg;
+    }
+
+    /**
+     * @param fixes
+     *            the fixes in the order of the track
+     * @param confidenceOfFix
+     *            computes the base confidence of each fix
+     */
+    public static WindFixArrays create(Collection<Wind> fixes, long structuralModificationCount, long modificationCount,
+            ToDoubleFunction<Wind> confidenceOfFix) {
+        return new WindFixArrays(Math.max(INITIAL_CAPACITY, fixes.size()), structuralModificationCount, modificationCount)
+                .append(fixes, structuralModificationCount, modificationCount, confidenceOfFix);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getStructuralModificationCount() {
+        return structuralModificationCount;
+    }
+
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    public Wind getLastFix() {
+        return lastFix;
+    }
+
+    /**
+     * @param fixesToAppend
+     *            fixes that all come after {@link #getLastFix()} in the order of the track, in that order
+     * @return an object that contains the fixes of this object followed by {@code fixesToAppend}
+     */
+    public WindFixArrays append(Collection<Wind> fixesToAppend, long structuralModificationCount, long modificationCount,
+            ToDoubleFunction<Wind> confidenceOfFix) {
+        final int newSize = size + fixesToAppend.size();
+        final WindFixArrays target;
+        if (newSize <= timeMillis.length) {
+            target = this;
+        } else {
+            final int newCapacity = Math.max(newSize, timeMillis.length + (timeMillis.length >> 1));
+            target = new WindFixArrays(size, structuralModificationCount, modificationCount, lastFix,
+                    Arrays.copyOf(timeMillis, newCapacity), Arrays.copyOf(confidence, newCapacity),
+                    Arrays.copyOf(knots, newCapacity), Arrays.copyOf(sin, newCapacity), Arrays.copyOf(cos, newCapacity),
+                    Arrays.copyOf(hasPosition, newCapacity), Arrays.copyOf(x, newCapacity), Arrays.copyOf(y, newCapacity),
+                    Arrays.copyOf(z, newCapacity), Arrays.copyOf(latDeg, newCapacity), Arrays.copyOf(lngDeg, newCapacity));
+        }
+        int i = size;
+        Wind newLastFix = lastFix;
+        for (final Wind fix : fixesToAppend) {
+            target.set(i++, fix, confidenceOfFix.applyAsDouble(fix));
+            newLastFix = fix;
+        }
+        return new WindFixArrays(newSize, structuralModificationCount, modificationCount, newLastFix, target.timeMillis,
+                target.confidence, target.knots, target.sin, target.cos, target.hasPosition, target.x, target.y,
+                target.z, target.latDeg, target.lngDeg);
+    }
+
+    /**
+     * Decomposes the {@code fix} the same way {@link ScalableSpeedWithBearing#ScalableSpeedWithBearing(com.sap.sailing.domain.common.SpeedWithBearing)}
+     * and {@link ScalablePosition#ScalablePosition(Position)} do
+     */
+    private void set(int i, Wind fix, double fixConfidence) {
+        timeMillis[i] = fix.getTimePoint().asMillis();
+        confidence[i] = fixConfidence;
+        knots[i] = fix.getKnots();
+        final double bearingRad = fix.getBearing().getRadians();
+        sin[i] = Math.sin(bearingRad);
+        cos[i] = Math.cos(bearingRad);
+        final Position position = fix.getPosition();
+        hasPosition[i] = position != null;
+        if (position != null) {
+            final double latRad = position.getLatRad();
+            final double lngRad = position.getLngRad();
+            x[i] = Math.cos(latRad) * Math.cos(lngRad);
+            y[i] = Math.cos(latRad) * Math.sin(lngRad);
+            z[i] = Math.sin(latRad);
+            latDeg[i] = position.getLatDeg();
+            lngDeg[i] = position.getLngDeg();
+        }
+    }
+
+    /**
+     * @return the index of the first fix at or after {@code millis}, or {@link #size()} if there is no such fix
+     */
+    private int getIndexOfFirstFixAtOrAfter(long millis) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (timeMillis[mid] < millis) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Computes the same result as {@link WindTrackImpl#getAveragedWindWithConfidence(Position, TimePoint)} for a track
+     * with these fixes: starting with the last fix before {@code at}, the fixes up to half of
+     * {@code millisecondsOverWhichToAverage} before that fix are used; starting with the first fix at or after
+     * {@code at}, the fixes up to half of {@code millisecondsOverWhichToAverage} after that fix are used. The fixes are
+     * summed up in the same order as by {@link WindTrackImpl} so that even the rounding errors are the same.
+     *
+     * @return {@code null} if there are no fixes or the sum of their weights is 0
+     */
+    public WindWithConfidence<Pair<Position, TimePoint>> getAveragedWind(Position p, TimePoint at,
+            long millisecondsOverWhichToAverage, PositionAndTimePointWeigher weigher, boolean useSpeed) {
+        final long atMillis = at.asMillis();
+        final long halfInterval = millisecondsOverWhichToAverage / 2;
+        final int firstAtOrAfter = getIndexOfFirstFixAtOrAfter(atMillis);
+        // the fixes before at, descending, followed by the fixes at or after at, ascending
+        final int lastBefore = firstAtOrAfter - 1;
+        int from = Math.max(lastBefore, 0);
+        if (lastBefore >= 0) {
+            while (from > 0 && timeMillis[lastBefore] - timeMillis[from - 1] <= halfInterval) {
+                from--;
+            }
+        }
+        int to = firstAtOrAfter;
+        if (firstAtOrAfter < size) {
+            while (to < size - 1 && timeMillis[to + 1] - timeMillis[firstAtOrAfter] <= halfInterval) {
+                to++;
+            }
+        }
+        final WindWithConfidence<Pair<Position, TimePoint>> result;
+        if (size == 0) {
+            result = null;
+        } else {
+            final Sums sums = new Sums();
+            for (int i = lastBefore; i >= from; i--) {
+                sums.add(i, p, atMillis, weigher);
+            }
+            for (int i = firstAtOrAfter; i <= to && i < size; i++) {
+                sums.add(i, p, atMillis, weigher);
+            }
+            result = sums.getAverage(p, at, useSpeed);
+        }
+        return result;
+    }
+
+    /**
+     * Accumulates the weighted fixes like {@link ConfidenceBasedWindAveragerImpl#getAverage(java.util.Iterator, Object)}
+     */
+    private class Sums {
+        private int count;
+        private double confidenceSum;
+        private double knotSum;
+        private double sinSum;
+        private double cosSum;
+        private double timeMillisSum;
+        private boolean positionSumValid;
+        private double xSum;
+        private double ySum;
+        private double zSum;
+
+        private void add(int i, Position p, long atMillis, PositionAndTimePointWeigher weigher) {
+            final double weight = weigher.getConfidence(hasPosition[i], latDeg[i], lngDeg[i], timeMillis[i], p, atMillis) * confidence[i];
+            confidenceSum += weight;
+            knotSum += weight * knots[i];
+            sinSum += weight * sin[i];
+            cosSum += weight * cos[i];
+            timeMillisSum += weight * timeMillis[i];
+            if (hasPosition[i]) {
+                positionSumValid = true;
+                xSum += weight * x[i];
+                ySum += weight * y[i];
+                zSum += weight * z[i];
+            }
+            count++;
+        }
+
+        private WindWithConfidence<Pair<Position, TimePoint>> getAverage(Position p, TimePoint at, boolean useSpeed) {
+            final WindWithConfidence<Pair<Position, TimePoint>> result;
+            if (confidenceSum == 0) {
+                result = null;
+            } else {
+                final Position position = positionSumValid ? new LazyDividedScaledPosition(new ScalablePosition(xSum, ySum, zSum), confidenceSum) : null;
+                final TimePoint timePoint = new MillisecondsTimePoint((long) (timeMillisSum / confidenceSum));
+                // the speed sum is the same as the separate sum ConfidenceBasedWindAveragerImpl keeps for fixes that use their speed
+                final Wind wind = new WindImpl(position, timePoint, new KnotSpeedWithBearingImpl(knotSum / confidenceSum,
+                        new ScalableSpeedWithBearing(knotSum, sinSum, cosSum).divide(confidenceSum).getBearing()));
+                result = new WindWithConfidenceImpl<>(wind, confidenceSum / count, new Pair<>(p, at), useSpeed);
+            }
+            return result;
+        }
+    }
+}
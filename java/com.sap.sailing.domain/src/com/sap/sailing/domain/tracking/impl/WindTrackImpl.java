@@ -7,6 +7,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NavigableSet;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -23,6 +24,7 @@ import com.sap.sailing.domain.common.tracking.impl.PreciseCompactWindImpl;
 import com.sap.sailing.domain.common.tracking.impl.VeryCompactWindImpl;
 import com.sap.sailing.domain.confidence.ConfidenceBasedWindAverager;
 import com.sap.sailing.domain.confidence.ConfidenceFactory;
+import com.sap.sailing.domain.shared.tracking.AddResult;
 import com.sap.sailing.domain.shared.tracking.impl.TrackImpl;
 import com.sap.sailing.domain.tracking.WindListener;
 import com.sap.sailing.domain.tracking.WindTrack;
@@ -74,6 +76,33 @@ public class WindTrackImpl extends TrackImpl<Wind> implements WindTrack {
      */
     private final boolean losslessCompaction;
 
+    /**
+     * The fixes of this track in primitive arrays from which {@link #getAveragedWindUnsynchronized(Position, TimePoint)}
+     * computes averages if {@link #isAveragingFromFixArraysPossible()}. Created lazily and updated by the readers, under
+     * the {@link #fixArraysMonitor}, when they find the arrays outdated. Fixes appended to the track are appended to the
+     * arrays; other modifications, counted by {@link #structuralModificationCount}, require copying all fixes again.
+     * As long as the arrays' {@link WindFixArrays#getModificationCount() modification count} equals
+     * {@link #modificationCount}, readers use them without acquiring the read lock.
+     */
+    private transient volatile WindFixArrays fixArrays;
+
+    private transient Object fixArraysMonitor;
+
+    /**
+     * Counts the modifications of the fixes other than appending a fix at the end. Modified while holding the write
+     * lock, read while holding the read lock.
+     */
+    private transient long structuralModificationCount;
+
+    /**
+     * Counts all modifications of the fixes, appends included. Incremented while holding the write lock by
+     * {@link #endStructuralModification()}: an {@link ArrayListNavigableSet} doesn't publish appends safely to readers
+     * not holding the lock (see {@link #isAppendSafeForOptimisticReaders()}), so each modification of the fixes of
+     * this track is bracketed as a structural modification. Read without locking to tell whether the {@link #fixArrays}
+     * are still up to date.
+     */
+    private transient volatile long modificationCount;
+
     public WindTrackImpl(long millisecondsOverWhichToAverage, boolean useSpeed, String nameForReadWriteLock) {
         this(millisecondsOverWhichToAverage, DEFAULT_BASE_CONFIDENCE, useSpeed, nameForReadWriteLock);
     }
@@ -114,11 +143,13 @@ public class WindTrackImpl extends TrackImpl<Wind> implements WindTrack {
         this.useSpeed = useSpeed;
         this.losslessCompaction = losslessCompaction;
         this.weigher = createPositionAndTimePointWeigher();
+        this.fixArraysMonitor = new Object();
     }
     
     private void readObject(ObjectInputStream ois) throws ClassNotFoundException, IOException {
         ois.defaultReadObject();
         listeners = new HashSet<WindListener>();
+        fixArraysMonitor = new Object();
     }
     
     /**
@@ -174,6 +205,38 @@ public class WindTrackImpl extends TrackImpl<Wind> implements WindTrack {
         return result;
     }
 
+    @Override
+    protected AddResult addWithoutLocking(Wind fix, boolean replace) {
+        if (isAveragingFromFixArraysPossible()) {
+            final NavigableSet<Wind> rawFixes = getInternalRawFixes();
+            if (!rawFixes.isEmpty() && WindComparator.INSTANCE.compare(fix, rawFixes.last()) <= 0) {
+                structuralModificationCount++;
+            }
+        }
+        return super.addWithoutLocking(fix, replace);
+    }
+
+    /**
+     * Counts the removal as a structural modification so that the {@link #fixArrays} aren't extended by the fixes
+     * added afterwards
+     */
+    @Override
+    protected void removeAllFixes() {
+        lockForWrite();
+        try {
+            structuralModificationCount++;
+            super.removeAllFixes();
+        } finally {
+            unlockAfterWrite();
+        }
+    }
+
+    @Override
+    protected void endStructuralModification() {
+        modificationCount++;
+        super.endStructuralModification();
+    }
+
     private Wind compactify(Wind wind) {
         Wind compactWind;
         try {
@@ -279,6 +342,19 @@ public class WindTrackImpl extends TrackImpl<Wind> implements WindTrack {
      *            <code>p</code> is used as the result's position and may be used for confidence determination.
      */
     protected WindWithConfidence<Pair<Position, TimePoint>> getAveragedWindUnsynchronized(Position p, TimePoint at) {
+        if (isAveragingFromFixArraysPossible() && weigher instanceof PositionAndTimePointWeigher) {
+            WindFixArrays arrays = fixArrays;
+            if (arrays == null || arrays.getModificationCount() != modificationCount) {
+                lockForRead();
+                try {
+                    arrays = getFixArrays();
+                } finally {
+                    unlockAfterRead();
+                }
+            }
+            return arrays.getAveragedWind(p, at, getMillisecondsOverWhichToAverageWind(),
+                    (PositionAndTimePointWeigher) weigher, useSpeed);
+        }
         lockForRead();
         try {
             List<WindWithConfidence<Pair<Position, TimePoint>>> windFixesToAverage = new ArrayList<WindWithConfidence<Util.Pair<Position, TimePoint>>>();
@@ -302,6 +378,44 @@ public class WindTrackImpl extends TrackImpl<Wind> implements WindTrack {
         }
     }
 
+    /**
+     * Tells whether {@link #getAveragedWindUnsynchronized(Position, TimePoint)} may compute the average from the
+     * {@link WindFixArrays primitive arrays} holding the {@link #getInternalFixes() fixes} of this track instead of
+     * using {@link #getInternalFixesLimitedHeadSetDescendingIterator(TimePoint)} and
+     * {@link #getInternalFixesLimitedTailSetIterator(TimePoint)}. This is the case for tracks storing their fixes with
+     * a confidence that doesn't change as long as the fix is in the track. Subclasses that compute their fixes, that
+     * redefine the fix iterators used for averaging or whose {@link #getConfidenceOfInternalWindFixUnsynchronized(Wind)
+     * confidences} may change have to redefine this method to return {@code false}.
+     */
+    protected boolean isAveragingFromFixArraysPossible() {
+        return true;
+    }
+
+    /**
+     * To be called while holding the read lock; no modification can happen then, so the {@link #modificationCount}
+     * doesn't change while the arrays are brought up to date
+     */
+    private WindFixArrays getFixArrays() {
+        final NavigableSet<Wind> fixes = getInternalFixes();
+        final long currentModificationCount = modificationCount;
+        WindFixArrays result = fixArrays;
+        if (result == null || result.getModificationCount() != currentModificationCount) {
+            synchronized (fixArraysMonitor) {
+                result = fixArrays;
+                if (result != null && result.getStructuralModificationCount() == structuralModificationCount
+                        && result.size() <= fixes.size()) {
+                    result = result.append(result.getLastFix() == null ? fixes : fixes.tailSet(result.getLastFix(), /* inclusive */ false),
+                            structuralModificationCount, currentModificationCount, this::getConfidenceOfInternalWindFixUnsynchronized);
+                } else if (result == null || result.getModificationCount() != currentModificationCount) {
+                    result = WindFixArrays.create(fixes, structuralModificationCount, currentModificationCount,
+                            this::getConfidenceOfInternalWindFixUnsynchronized);
+                }
+                fixArrays = result;
+            }
+        }
+        return result;
+    }
+
     protected Iterator<WindWithConfidence<Pair<Position, TimePoint>>> getInternalFixesLimitedHeadSetDescendingIterator(TimePoint endingAt) {
         return new MappingIterator<>(getInternalFixes().headSet(new DummyWind(endingAt), /* inclusive */false).descendingIterator(), wind->createWindWithConfidence(wind));
     }
@@ -525,8 +639,14 @@ public class WindTrackImpl extends TrackImpl<Wind> implements WindTrack {
     public void remove(Wind wind) {
         lockForWrite();
         try {
-            // map through "compactify" to account for possible rounding / accuracy differences and still achieve "equals"
-            getInternalRawFixes().remove(compactify(wind));
+            beginStructuralModification();
+            try {
+                // map through "compactify" to account for possible rounding / accuracy differences and still achieve "equals"
+                getInternalRawFixes().remove(compactify(wind));
+                structuralModificationCount++;
+            } finally {
+                endStructuralModification();
+            }
         } finally {
             unlockAfterWrite();
         }
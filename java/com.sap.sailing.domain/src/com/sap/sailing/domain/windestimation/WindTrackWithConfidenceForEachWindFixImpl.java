@@ -36,6 +36,14 @@ public class WindTrackWithConfidenceForEachWindFixImpl extends WindTrackImpl {
             (super.getConfidenceOfInternalWindFixUnsynchronized(windFix) * windWithConfidence.getConfidence());
     }
 
+    /**
+     * The confidences are looked up in a map that may change independently of the fixes of this track
+     */
+    @Override
+    protected boolean isAveragingFromFixArraysPossible() {
+        return false;
+    }
+
     @Override
     public void lockForWrite() {
         super.lockForWrite();
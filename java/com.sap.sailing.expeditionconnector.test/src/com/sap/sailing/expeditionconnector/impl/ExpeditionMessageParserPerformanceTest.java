@@ -0,0 +1,167 @@
+package com.sap.sailing.expeditionconnector.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.DatagramPacket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.expeditionconnector.ExpeditionMessage;
+import com.sap.sailing.expeditionconnector.UDPExpeditionReceiver;
+
+/**
+ * Parses the datagrams of a recorded Expedition stream, comparing the results with those of the regular expression
+ * based parsing the {@link ExpeditionMessageParser} used to do, and measures the throughput of both.
+ */
+public class ExpeditionMessageParserPerformanceTest {
+    private static final Logger logger = Logger.getLogger(ExpeditionMessageParserPerformanceTest.class.getName());
+
+    private static final int ROUNDS = 500;
+
+    private static final Pattern COMPLETE_LINE_PATTERN = Pattern
+            .compile("#([0-9]*)((,([0-9][0-9]*),(-?[0-9]*(\\.[0-9]*)?))*)\\*X?([0-9a-fA-F][0-9a-fA-F]*)");
+
+    private UDPExpeditionReceiver receiver;
+
+    private ExpeditionMessageParser parser;
+
+    private List<DatagramPacket> packets;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        receiver = new UDPExpeditionReceiver(/* listening on port */ 0);
+        parser = new ExpeditionMessageParser(receiver);
+        packets = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new InputStreamReader(
+                getClass().getResourceAsStream("/Expedition_28Oct17_0820.txt"), StandardCharsets.ISO_8859_1))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                final byte[] bytes = line.getBytes(StandardCharsets.ISO_8859_1);
+                packets.add(new DatagramPacket(bytes, bytes.length));
+            }
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws SocketException, IOException {
+        receiver.stop();
+    }
+
+    /**
+     * The way {@link ExpeditionMessageParser} used to parse a packet, producing the boat ID, the values and the
+     * validity of the message, or {@code null} if the packet can't be parsed
+     */
+    private Map<Integer, Double> parseWithRegularExpression(String packetAsString, int[] boatIDAndValid) {
+        final Matcher m = COMPLETE_LINE_PATTERN.matcher(packetAsString);
+        if (!m.matches()) {
+            return null;
+        }
+        boatIDAndValid[0] = Integer.valueOf(m.group(1));
+        final String[] variablesAndValuesInterleaved = m.group(2).trim().substring(",".length()).split(",");
+        final Map<Integer, Double> values = new HashMap<>();
+        for (int i = 0; i < variablesAndValuesInterleaved.length; i++) {
+            values.put(Integer.valueOf(variablesAndValuesInterleaved[i++]), Double.valueOf(variablesAndValuesInterleaved[i]));
+        }
+        boatIDAndValid[1] = Integer.valueOf(m.group(m.groupCount()), 16) == parser.computeChecksum(packetAsString) ? 1 : 0;
+        return values;
+    }
+
+    private static String getPacketAsString(DatagramPacket p) {
+        return new String(p.getData(), p.getOffset(), p.getLength(), StandardCharsets.ISO_8859_1).trim().replaceAll(" ", "");
+    }
+
+    @Test
+    public void testSameResultsAsRegularExpressionParsing() {
+        int numberOfValidMessages = 0;
+        for (final DatagramPacket p : packets) {
+            final String packetAsString = getPacketAsString(p);
+            final int[] boatIDAndValid = new int[2];
+            final Map<Integer, Double> expectedValues = parseWithRegularExpression(packetAsString, boatIDAndValid);
+            final ExpeditionMessage message = parser.parse(p);
+            if (expectedValues == null) {
+                assertNull(message, packetAsString);
+            } else {
+                assertNotNull(message, packetAsString);
+                assertEquals(boatIDAndValid[0], message.getBoatID());
+                assertEquals(boatIDAndValid[1] == 1, message.isValid(), packetAsString);
+                assertEquals(expectedValues.keySet(), message.getVariableIDs());
+                for (final Map.Entry<Integer, Double> e : expectedValues.entrySet()) {
+                    assertEquals(e.getValue().doubleValue(), message.getValue(e.getKey()), 0.0, packetAsString);
+                }
+                assertEquals(packetAsString, message.getOriginalMessage());
+                if (message.isValid()) {
+                    numberOfValidMessages++;
+                }
+            }
+        }
+        assertTrue(numberOfValidMessages > 0);
+    }
+
+    @Test
+    public void testUnparsableAndEmptyPackets() {
+        assertNull(parser.parse(packet(" \r\n")));
+        assertNull(parser.parse(packet("#L,P,45.327781,-0.775225*07")));
+        assertNull(parser.parse(packet("#0,1,abc*00")));
+        assertNull(parser.parse(packet("#0,1*00")));
+        final ExpeditionMessage message = parser.parse(packet("#0,1,2.5,1,3.5*00"));
+        assertFalse(message.isValid());
+        assertEquals(3.5, message.getValue(1), 0.0);
+        assertEquals(1, message.getVariableIDs().size());
+    }
+
+    private static DatagramPacket packet(String s) {
+        final byte[] bytes = s.getBytes(StandardCharsets.ISO_8859_1);
+        return new DatagramPacket(bytes, bytes.length);
+    }
+
+    @Test
+    public void testParsingThroughput() {
+        long regularExpressionNanos = 0;
+        long scannerNanos = 0;
+        double regularExpressionChecksum = 0;
+        double scannerChecksum = 0;
+        final int[] boatIDAndValid = new int[2];
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (final DatagramPacket p : packets) {
+                final Map<Integer, Double> values = parseWithRegularExpression(getPacketAsString(p), boatIDAndValid);
+                if (values != null && values.containsKey(ExpeditionMessage.ID_GPS_LAT)) {
+                    regularExpressionChecksum += values.get(ExpeditionMessage.ID_GPS_LAT);
+                }
+            }
+            regularExpressionNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            for (final DatagramPacket p : packets) {
+                final ExpeditionMessage message = parser.parse(p);
+                if (message != null && message.hasValue(ExpeditionMessage.ID_GPS_LAT)) {
+                    scannerChecksum += message.getValue(ExpeditionMessage.ID_GPS_LAT);
+                }
+            }
+            scannerNanos += System.nanoTime() - start;
+        }
+        assertEquals(regularExpressionChecksum, scannerChecksum, 0.0);
+        final long numberOfPackets = (long) ROUNDS * packets.size();
+        logger.info("Parsing " + numberOfPackets + " Expedition packets took " + regularExpressionNanos / 1000000
+                + "ms using regular expressions (" + numberOfPackets * 1000000000l / Math.max(1, regularExpressionNanos)
+                + " packets/s) and " + scannerNanos / 1000000 + "ms scanning the bytes (" + numberOfPackets * 1000000000l
+                / Math.max(1, scannerNanos) + " packets/s)");
+    }
+}
@@ -0,0 +1,125 @@
+package com.sap.sailing.expeditionconnector.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.udpconnector.SentenceScanner;
+import com.sap.sailing.udpconnector.SentenceScanner.Format;
+
+public class SentenceScannerTest {
+    private static ByteBuffer bytes(String s) {
+        return ByteBuffer.wrap(s.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static String checksum(String s) {
+        int checksum = 0;
+        for (final byte b : s.getBytes(StandardCharsets.ISO_8859_1)) {
+            checksum ^= b;
+        }
+        return Integer.toHexString(checksum).toUpperCase();
+    }
+
+    @Test
+    public void testNmeaSentence() {
+        final SentenceScanner scanner = new SentenceScanner(Format.NMEA);
+        assertTrue(scanner.reset(bytes("$GPGLL,4916.45,N,12311.12,W,225444,A,*1D\r\n")));
+        assertTrue(scanner.isChecksumValid());
+        assertTrue(scanner.nextField());
+        assertTrue(scanner.fieldEquals("GPGLL"));
+        assertTrue(scanner.nextField());
+        assertEquals(4916.45, scanner.getFieldAsDouble(), 0.0);
+        assertTrue(scanner.nextField());
+        assertTrue(scanner.fieldEquals("N"));
+        assertTrue(scanner.nextField());
+        assertTrue(scanner.nextField());
+        assertTrue(scanner.nextField());
+        assertEquals(225444, scanner.getFieldAsNonNegativeInt());
+        assertTrue(scanner.nextField());
+        assertTrue(scanner.fieldEquals("A"));
+        assertTrue(scanner.nextField());
+        assertTrue(scanner.isFieldEmpty());
+        assertTrue(Double.isNaN(scanner.getFieldAsDouble()));
+        assertFalse(scanner.nextField());
+        assertEquals("$GPGLL,4916.45,N,12311.12,W,225444,A,*1D", scanner.getSentence());
+    }
+
+    @Test
+    public void testNmeaChecksumMismatch() {
+        final SentenceScanner scanner = new SentenceScanner(Format.NMEA);
+        assertTrue(scanner.reset(bytes("$GPGLL,4916.45,N,12311.12,W,225444,A,*1E")));
+        assertFalse(scanner.isChecksumValid());
+    }
+
+    @Test
+    public void testExpeditionSentenceWithBlanks() {
+        final SentenceScanner scanner = new SentenceScanner(Format.EXPEDITION);
+        // blanks are not part of the checksum
+        assertTrue(scanner.reset(bytes("\t# 0,1, 0.000,2,- 129.8 *" + checksum("#0,1,0.000,2,-129.8") + " \r\n")));
+        assertTrue(scanner.isChecksumValid());
+        assertEquals("#0,1,0.000,2,-129.8*" + checksum("#0,1,0.000,2,-129.8"), scanner.getSentence());
+        assertTrue(scanner.nextField());
+        assertEquals(0, scanner.getFieldAsNonNegativeInt());
+        assertTrue(scanner.nextField());
+        assertEquals(1, scanner.getFieldAsNonNegativeInt());
+        assertTrue(scanner.nextField());
+        assertEquals(0.0, scanner.getFieldAsDouble(), 0.0);
+        assertTrue(scanner.nextField());
+        assertTrue(scanner.nextField());
+        assertEquals(-129.8, scanner.getFieldAsDouble(), 0.0);
+        assertFalse(scanner.nextField());
+    }
+
+    @Test
+    public void testExpeditionChecksumIncludingAsterisk() {
+        final SentenceScanner scanner = new SentenceScanner(Format.EXPEDITION);
+        assertTrue(scanner.reset(bytes("#0,1,2.5*X" + checksum("#0,1,2.5*"))));
+        assertTrue(scanner.isChecksumValid());
+        assertTrue(scanner.reset(bytes("#0,1,2.5*" + checksum("#0,1,2.5*"))));
+        assertFalse(scanner.isChecksumValid());
+    }
+
+    @Test
+    public void testNoSentence() {
+        final SentenceScanner scanner = new SentenceScanner(Format.EXPEDITION);
+        assertFalse(scanner.reset(bytes("  \r\n")));
+        assertTrue(scanner.isBlank());
+        assertFalse(scanner.reset(bytes("$GPGLL,4916.45*1D")));
+        assertFalse(scanner.isBlank());
+        assertFalse(scanner.reset(bytes("#0,1,2.5")));
+        assertFalse(scanner.reset(bytes("#0,1,2.5*")));
+        assertFalse(scanner.reset(bytes("#0,1,2.5*G1")));
+        assertFalse(scanner.reset(bytes("#0,1,\t2.5*11")));
+    }
+
+    @Test
+    public void testRespectsPositionAndLimit() {
+        final ByteBuffer buffer = bytes("garbage#0,1,2.5*00garbage");
+        buffer.position(7).limit(18);
+        final SentenceScanner scanner = new SentenceScanner(Format.EXPEDITION);
+        assertTrue(scanner.reset(buffer));
+        assertEquals("#0,1,2.5*00", scanner.getSentence());
+    }
+
+    @Test
+    public void testDoublesParsedLikeDoubleParseDouble() {
+        final SentenceScanner scanner = new SentenceScanner(Format.NMEA);
+        for (final String number : new String[] { "0", "-0", "-0.0", "1.", ".5", "-.5", "18.419951", "-33.907350",
+                "0.347763", "294.957", "0.1", "0.3", "123456789.123456789", "9007199254740993",
+                "0.000000000000000000000000001", "179.99999999999999" }) {
+            assertTrue(scanner.reset(bytes("$" + number + "*00")));
+            assertTrue(scanner.nextField());
+            assertEquals(Double.doubleToLongBits(Double.parseDouble(number)), Double.doubleToLongBits(scanner.getFieldAsDouble()), number);
+        }
+        for (final String notANumber : new String[] { "", "-", ".", "1.2.3", "1e5", "+1", "0x1", "1-" }) {
+            assertTrue(scanner.reset(bytes("$" + notANumber + "*00")));
+            assertTrue(scanner.nextField());
+            assertTrue(Double.isNaN(scanner.getFieldAsDouble()), notANumber);
+        }
+    }
+}
@@ -2,11 +2,12 @@ package com.sap.sailing.expeditionconnector.impl;
 
 import java.io.IOException;
 import java.text.ParseException;
-import java.util.Calendar;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.GregorianCalendar;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.TreeSet;
@@ -30,9 +31,20 @@ import com.sap.sse.common.impl.MillisecondsTimePoint;
 public class ExpeditionMessageImpl implements ExpeditionMessage {
     private static final Logger logger = Logger.getLogger(ExpeditionMessageImpl.class.getName());
 
-    private final String originalMessage;
+    /**
+     * The original message as received; decoded into {@link #originalMessage} only when {@link #getOriginalMessage()
+     * requested} because that rarely happens
+     */
+    private final byte[] originalMessageBytes;
+    private String originalMessage;
     private final int boatID;
-    private final Map<Integer, Double> values;
+
+    /**
+     * The IDs of the variables for which this message has values, and the values at the same indices. A message
+     * carries only a few dozen values, so a linear search is cheaper than boxing the values into a map.
+     */
+    private final int[] variableIDs;
+    private final double[] values;
     private final boolean valid;
     private final long createdAtMillis;
     private final TimePoint timePoint;
@@ -40,8 +52,16 @@ public class ExpeditionMessageImpl implements ExpeditionMessage {
     private static final TimeZone UTC = TimeZone.getTimeZone("UTC") == null ? TimeZone.getTimeZone("GMT") : TimeZone.getTimeZone("UTC");
     private static final GregorianCalendar cal = new GregorianCalendar(UTC);
     
+    private static final long MILLIS_PER_DAY = 24l*3600l*1000l;
+    
+    /**
+     * The time point of {@link #cal}, computed once instead of for each message
+     */
+    private static final long EPOCH_MILLIS;
+    
     static {
         cal.set(1899, 11, 30, 0, 0, 0);
+        EPOCH_MILLIS = cal.getTimeInMillis();
     }
 
     /**
@@ -50,7 +70,7 @@ public class ExpeditionMessageImpl implements ExpeditionMessage {
      * {@link #getTimePoint() time point}.
      */
     public ExpeditionMessageImpl(int boatID, Map<Integer, Double> values, boolean valid, String originalMessage) {
-        this(boatID, values, valid, /* defaultTimePoint */ null, originalMessage, /* unused */ true);
+        this(boatID, getVariableIDs(values), getValues(values), valid, /* defaultTimePoint */ null, /* originalMessageBytes */ null, originalMessage);
     }
     
     /**
@@ -59,33 +79,47 @@ public class ExpeditionMessageImpl implements ExpeditionMessage {
      *            stamp
      */
     public ExpeditionMessageImpl(int boatID, Map<Integer, Double> values, boolean valid, TimePoint defaultTimePoint, String originalMessage) {
-        this(boatID, values, valid, defaultTimePoint, originalMessage, /* unused */ true);
+        this(boatID, getVariableIDs(values), getValues(values), valid, defaultTimePoint, /* originalMessageBytes */ null, originalMessage);
         if (defaultTimePoint == null) {
             throw new IllegalArgumentException("defaultTimePoint for this ExpeditionMessageImpl constructor must not be null");
         }
     }
-    
-    private ExpeditionMessageImpl(int boatID, Map<Integer, Double> values, boolean valid, TimePoint defaultTimePoint, String originalMessage, boolean unused) {
+
+    /**
+     * Creates a message from the first {@code numberOfValues} elements of {@code variableIDs} and {@code values} which
+     * are copied, so the caller may re-use the arrays for the next message.
+     * 
+     * @param variableIDs
+     *            must not contain duplicates within the first {@code numberOfValues} elements
+     * @param defaultTimePoint
+     *            the time point to use in case the message received does not carry a time stamp; if {@code null}, the
+     *            {@link System#currentTimeMillis() current time} is used
+     * @param originalMessageBytes
+     *            the ISO-8859-1 encoded original message; not copied
+     */
+    public ExpeditionMessageImpl(int boatID, int[] variableIDs, double[] values, int numberOfValues, boolean valid,
+            TimePoint defaultTimePoint, byte[] originalMessageBytes) {
+        this(boatID, Arrays.copyOf(variableIDs, numberOfValues), Arrays.copyOf(values, numberOfValues), valid,
+                defaultTimePoint, originalMessageBytes, /* originalMessage */ null);
+    }
+
+    private ExpeditionMessageImpl(int boatID, int[] variableIDs, double[] values, boolean valid, TimePoint defaultTimePoint,
+            byte[] originalMessageBytes, String originalMessage) {
         this.boatID = boatID;
-        // ensure that nobody can manipulate the map used by this message object from outside
-        this.values = new HashMap<Integer, Double>(values);
+        this.variableIDs = variableIDs;
+        this.values = values;
         this.valid = valid;
+        this.originalMessageBytes = originalMessageBytes;
         this.originalMessage = originalMessage;
         this.createdAtMillis = System.currentTimeMillis();
         if (hasValue(ID_GPS_TIME)) {
             final double gpsTimeValue = getValue(ID_GPS_TIME);
             final long referenceTime;
             if (gpsTimeValue <= 1.0) { // "Phoenix" law: if between 0 and 1 then it's likely a day-relative time point
-                // so add the millis of today midnight UTC
-                Calendar todayMidnightUTC = new GregorianCalendar();
-                todayMidnightUTC.setTimeZone(TimeZone.getTimeZone("UTC"));
-                todayMidnightUTC.set(Calendar.HOUR_OF_DAY, 0);
-                todayMidnightUTC.set(Calendar.MINUTE, 0);
-                todayMidnightUTC.set(Calendar.SECOND, 0);
-                todayMidnightUTC.set(Calendar.MILLISECOND, 0);
-                referenceTime = todayMidnightUTC.getTimeInMillis();
+                // so add the millis of today midnight UTC; UTC days have a fixed number of milliseconds in Java
+                referenceTime = createdAtMillis - Math.floorMod(createdAtMillis, MILLIS_PER_DAY);
             } else {
-                referenceTime = cal.getTimeInMillis();
+                referenceTime = EPOCH_MILLIS;
             }
             timePoint = new MillisecondsTimePoint((long)
                     (gpsTimeValue*24*3600*1000) +   // this is the milliseconds since 31.12.1899 0:00:00 UTC
@@ -97,8 +131,33 @@ public class ExpeditionMessageImpl implements ExpeditionMessage {
         }
     }
     
+    private static int[] getVariableIDs(Map<Integer, Double> values) {
+        final int[] result = new int[values.size()];
+        int i = 0;
+        for (final Integer variableID : values.keySet()) {
+            result[i++] = variableID;
+        }
+        return result;
+    }
+
+    /**
+     * @return the values of {@code values} in the iteration order of its entries, matching {@link #getVariableIDs(Map)}
+     */
+    private static double[] getValues(Map<Integer, Double> values) {
+        final double[] result = new double[values.size()];
+        int i = 0;
+        for (final Entry<Integer, Double> e : values.entrySet()) {
+            result[i++] = e.getValue();
+        }
+        return result;
+    }
+
     @Override
     public String getOriginalMessage() {
+        if (originalMessage == null && originalMessageBytes != null) {
+            // benign race: concurrent callers would decode equal strings
+            originalMessage = new String(originalMessageBytes, StandardCharsets.ISO_8859_1);
+        }
         return originalMessage;
     }
     
@@ -114,20 +173,34 @@ public class ExpeditionMessageImpl implements ExpeditionMessage {
 
     @Override
     public Set<Integer> getVariableIDs() {
-        return Collections.unmodifiableSet(values.keySet());
+        final Set<Integer> result = new TreeSet<>();
+        for (final int variableID : variableIDs) {
+            result.add(variableID);
+        }
+        return Collections.unmodifiableSet(result);
+    }
+
+    private int indexOf(int variableID) {
+        for (int i=0; i<variableIDs.length; i++) {
+            if (variableIDs[i] == variableID) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     @Override
     public boolean hasValue(int variableID) {
-        return values.containsKey(variableID);
+        return indexOf(variableID) >= 0;
     }
 
     @Override
     public double getValue(int variableID) {
-        if (!hasValue(variableID)) {
+        final int index = indexOf(variableID);
+        if (index < 0) {
             throw new IllegalArgumentException("Variable ID "+variableID+" not present in message");
         }
-        return values.get(variableID);
+        return values[index];
     }
 
     @Override
@@ -236,9 +309,8 @@ public class ExpeditionMessageImpl implements ExpeditionMessage {
         StringBuilder result = new StringBuilder("Boat #");
         result.append(getBoatID());
         result.append(": ");
-        TreeSet<Integer> ids = new TreeSet<Integer>(values.keySet());
         boolean first = true;
-        for (Integer id : ids) {
+        for (Integer id : getVariableIDs()) {
             if (!first) {
                 result.append(", ");
             } else {
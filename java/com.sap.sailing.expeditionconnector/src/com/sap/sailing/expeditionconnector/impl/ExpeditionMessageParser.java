@@ -1,80 +1,127 @@
 package com.sap.sailing.expeditionconnector.impl;
 
 import java.net.DatagramPacket;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.logging.Logger;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.sap.sailing.expeditionconnector.ExpeditionMessage;
 import com.sap.sailing.expeditionconnector.UDPExpeditionReceiver;
+import com.sap.sailing.udpconnector.SentenceScanner;
 import com.sap.sailing.udpconnector.UDPMessageParser;
 import com.sap.sse.common.TimePoint;
 import com.sap.sse.common.impl.MillisecondsTimePoint;
 
+/**
+ * Parses Expedition sentences of the form {@code #<boatID>(,<variableID>,<value>)*\*X?<hex checksum>}, ignoring any
+ * blanks. The bytes of the datagram are read in place by a {@link SentenceScanner}, and the variable IDs and values are
+ * collected in primitive arrays re-used across packets, so the only objects created per packet are the resulting
+ * {@link ExpeditionMessage} and the copy of the original message it keeps.
+ * <p>
+ *
+ * Calls to {@link #parse(DatagramPacket)} are serialized because of the state re-used across packets; in practice only
+ * the receiver's thread calls it anyway.
+ */
 public class ExpeditionMessageParser implements UDPMessageParser<ExpeditionMessage> {
     private static final Logger logger = Logger.getLogger(ExpeditionMessageParser.class.getName());
 
+    private static final int INITIAL_VALUES_CAPACITY = 64;
+
     private UDPExpeditionReceiver receiver;
 
+    private final SentenceScanner scanner;
+
+    /**
+     * Wraps the array of the packet last parsed; re-created only if a packet with a different array is passed
+     */
+    private ByteBuffer buffer;
+
+    private int[] variableIDs;
+
+    private double[] values;
+
     public ExpeditionMessageParser(UDPExpeditionReceiver receiver) {
         this.receiver = receiver;
+        this.scanner = new SentenceScanner(SentenceScanner.Format.EXPEDITION);
+        this.variableIDs = new int[INITIAL_VALUES_CAPACITY];
+        this.values = new double[INITIAL_VALUES_CAPACITY];
     }
 
     @Override
-    public ExpeditionMessage parse(DatagramPacket p) {
-        String packetAsString = new String(p.getData(), p.getOffset(), p.getLength()).trim().replaceAll(" ", "");
-        if (packetAsString.length() > 0) {
-            Pattern completeLinePattern = Pattern
-                    .compile("#([0-9]*)((,([0-9][0-9]*),(-?[0-9]*(\\.[0-9]*)?))*)\\*X?([0-9a-fA-F][0-9a-fA-F]*)");
-            Matcher m = completeLinePattern.matcher(packetAsString);
-            boolean valid = m.matches();
-            if (valid) {
-                int boatID = Integer.valueOf(m.group(1));
-                String variableValuePairs = m.group(2).trim().substring(",".length()); // skip the leading ","
-                Map<Integer, Double> values = new HashMap<Integer, Double>();
-                String[] variablesAndValuesInterleaved = variableValuePairs.split(",");
-                long now = System.currentTimeMillis();
-                Long diff = receiver.getLastKnownMessageDelayInMillis(boatID);
-                TimePoint defaultForMessageTimePoint;
-                if (diff != null) {
-                    // compute a reasonable default for a time stamp in case message doesn't provide one
-                    // by subtracting the last diff from now
-                    defaultForMessageTimePoint = new MillisecondsTimePoint(now - diff);
-                } else {
-                    defaultForMessageTimePoint = null;
-                }
-                for (int i = 0; i < variablesAndValuesInterleaved.length; i++) {
-                    int variableID = Integer.valueOf(variablesAndValuesInterleaved[i++]);
-                    double variableValue = Double.valueOf(variablesAndValuesInterleaved[i]);
-                    values.put(variableID, variableValue);
-                }
-                int checksum = Integer.valueOf(m.group(m.groupCount()), 16);
-                valid = valid && checksumOk(checksum, packetAsString);
-                ExpeditionMessage result;
-                if (defaultForMessageTimePoint == null) {
-                    result = new ExpeditionMessageImpl(boatID, values, valid, packetAsString);
-                } else {
-                    result = new ExpeditionMessageImpl(boatID, values, valid, defaultForMessageTimePoint, packetAsString);
-                }
-                if (result.hasValue(ExpeditionMessage.ID_GPS_TIME)) {
-                    // an original GPS time stamp; then remember the difference between now and the time stamp
-                    receiver.updateLastKnownMessageDelay(boatID, now - result.getTimePoint().asMillis());
-                }
-                return result;
-            } else {
-                logger.warning("Unparsable expedition message: " + packetAsString);
-                return null; // couldn't even parse
-            }
-        } else {
+    public synchronized ExpeditionMessage parse(DatagramPacket p) {
+        if (buffer == null || buffer.array() != p.getData()) {
+            buffer = ByteBuffer.wrap(p.getData());
+        }
+        buffer.limit(p.getOffset() + p.getLength()).position(p.getOffset());
+        final boolean parsed = scanner.reset(buffer);
+        if (!parsed && scanner.isBlank()) {
             return null; // empty package
         }
+        final int boatID;
+        final int numberOfValues;
+        if (parsed && scanner.nextField()) {
+            boatID = scanner.getFieldAsNonNegativeInt();
+            numberOfValues = boatID < 0 ? -1 : parseVariablesAndValues();
+        } else {
+            boatID = -1;
+            numberOfValues = -1;
+        }
+        if (numberOfValues < 0) {
+            logger.warning("Unparsable expedition message: " + scanner.getSentence());
+            return null; // couldn't even parse
+        }
+        final long now = System.currentTimeMillis();
+        final Long diff = receiver.getLastKnownMessageDelayInMillis(boatID);
+        final TimePoint defaultForMessageTimePoint;
+        if (diff != null) {
+            // compute a reasonable default for a time stamp in case message doesn't provide one
+            // by subtracting the last diff from now
+            defaultForMessageTimePoint = new MillisecondsTimePoint(now - diff);
+        } else {
+            defaultForMessageTimePoint = null;
+        }
+        final ExpeditionMessage result = new ExpeditionMessageImpl(boatID, variableIDs, values, numberOfValues,
+                scanner.isChecksumValid(), defaultForMessageTimePoint, scanner.copySentence());
+        if (result.hasValue(ExpeditionMessage.ID_GPS_TIME)) {
+            // an original GPS time stamp; then remember the difference between now and the time stamp
+            receiver.updateLastKnownMessageDelay(boatID, now - result.getTimePoint().asMillis());
+        }
+        return result;
     }
 
-    private boolean checksumOk(int checksum, String packetAsString) {
-        int b = computeChecksum(packetAsString);
-        return b == checksum;
+    /**
+     * Reads the remaining fields of the sentence the {@link #scanner} is positioned at as pairs of variable ID and
+     * value into {@link #variableIDs} and {@link #values}, growing them as needed. Like a map would, a later value for
+     * the same variable ID replaces an earlier one.
+     * 
+     * @return the number of distinct variables read, or {@code -1} if the fields don't form a sequence of
+     *         variable/value pairs
+     */
+    private int parseVariablesAndValues() {
+        int numberOfValues = 0;
+        while (scanner.nextField()) {
+            final int variableID = scanner.getFieldAsNonNegativeInt();
+            if (variableID < 0 || !scanner.nextField()) {
+                return -1;
+            }
+            final double value = scanner.getFieldAsDouble();
+            if (Double.isNaN(value)) {
+                return -1;
+            }
+            int i = 0;
+            while (i < numberOfValues && variableIDs[i] != variableID) {
+                i++;
+            }
+            if (i == numberOfValues) {
+                if (numberOfValues == variableIDs.length) {
+                    variableIDs = Arrays.copyOf(variableIDs, 2 * numberOfValues);
+                    values = Arrays.copyOf(values, 2 * numberOfValues);
+                }
+                variableIDs[numberOfValues++] = variableID;
+            }
+            values[i] = value;
+        }
+        return numberOfValues;
     }
 
     int computeChecksum(String packetAsString) {
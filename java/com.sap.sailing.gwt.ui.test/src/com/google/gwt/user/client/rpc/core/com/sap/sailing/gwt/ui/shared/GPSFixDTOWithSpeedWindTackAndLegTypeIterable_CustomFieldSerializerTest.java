@@ -0,0 +1,131 @@
+package com.google.gwt.user.client.rpc.core.com.sap.sailing.gwt.ui.shared;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import com.google.gwt.user.client.rpc.SerializationException;
+import com.google.gwt.user.client.rpc.SerializationStreamReader;
+import com.google.gwt.user.client.rpc.SerializationStreamWriter;
+import com.sap.sailing.domain.common.LegType;
+import com.sap.sailing.domain.common.Tack;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.gwt.ui.shared.GPSFixDTOWithSpeedWindTackAndLegType;
+import com.sap.sailing.gwt.ui.shared.GPSFixDTOWithSpeedWindTackAndLegTypeIterable;
+import com.sap.sailing.gwt.ui.shared.SpeedWithBearingDTO;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+
+public class GPSFixDTOWithSpeedWindTackAndLegTypeIterable_CustomFieldSerializerTest {
+    private static final double POSITION_PRECISION_IN_DEGREES = 1E-7;
+
+    /**
+     * Writes the values to {@code stream} in the order written, and reads them back in that order
+     */
+    private SerializationStreamWriter createWriter(Deque<Object> stream) throws SerializationException {
+        final SerializationStreamWriter writer = mock(SerializationStreamWriter.class);
+        final Answer<Void> write = invocation -> {
+            stream.add(invocation.getArgument(0));
+            return null;
+        };
+        doAnswer(write).when(writer).writeInt(anyInt());
+        doAnswer(write).when(writer).writeLong(anyLong());
+        doAnswer(write).when(writer).writeDouble(anyDouble());
+        doAnswer(write).when(writer).writeBoolean(anyBoolean());
+        return writer;
+    }
+
+    private SerializationStreamReader createReader(Deque<Object> stream) throws SerializationException {
+        final SerializationStreamReader reader = mock(SerializationStreamReader.class);
+        when(reader.readInt()).thenAnswer(invocation -> (Integer) stream.remove());
+        when(reader.readLong()).thenAnswer(invocation -> (Long) stream.remove());
+        when(reader.readDouble()).thenAnswer(invocation -> (Double) stream.remove());
+        when(reader.readBoolean()).thenAnswer(invocation -> (Boolean) stream.remove());
+        return reader;
+    }
+
+    private List<GPSFixDTOWithSpeedWindTackAndLegType> roundTrip(List<GPSFixDTOWithSpeedWindTackAndLegType> fixes) throws SerializationException {
+        final Deque<Object> stream = new ArrayDeque<>();
+        GPSFixDTOWithSpeedWindTackAndLegTypeIterable_CustomFieldSerializer.serialize(createWriter(stream),
+                new GPSFixDTOWithSpeedWindTackAndLegTypeIterable(fixes));
+        final GPSFixDTOWithSpeedWindTackAndLegTypeIterable result = GPSFixDTOWithSpeedWindTackAndLegTypeIterable_CustomFieldSerializer
+                .instantiate(createReader(stream));
+        assertEquals(0, stream.size());
+        final List<GPSFixDTOWithSpeedWindTackAndLegType> resultList = new ArrayList<>();
+        for (final Iterator<GPSFixDTOWithSpeedWindTackAndLegType> i = result.iterator(); i.hasNext();) {
+            resultList.add(i.next());
+        }
+        return resultList;
+    }
+
+    private GPSFixDTOWithSpeedWindTackAndLegType fix(long timeMillis, double latDeg, double lngDeg) {
+        return new GPSFixDTOWithSpeedWindTackAndLegType(new Date(timeMillis), new DegreePosition(latDeg, lngDeg),
+                new SpeedWithBearingDTO(7.5, 123.4), new DegreeBearingImpl(120.5), /* degreesBoatToTheWind */ -42.0,
+                Tack.PORT, LegType.UPWIND, /* extrapolated */ false, /* detailValue */ 3.25);
+    }
+
+    @Test
+    public void testRoundTripWithNegativeDeltasAndExtremeCoordinates() throws SerializationException {
+        final List<GPSFixDTOWithSpeedWindTackAndLegType> fixes = Arrays.asList(
+                fix(1700000000000l, 90, 180),
+                // the longitude difference of 360 degrees overflows an int at the scale used
+                fix(1699999999000l, -90, -180),
+                fix(-1000, 89.9999999, 179.9999999),
+                fix(0, -0.0000001, -179.9999999),
+                fix(Long.MAX_VALUE / 2, 0, 0),
+                fix(Long.MIN_VALUE / 2, 54.4302112, 10.1876543));
+        final List<GPSFixDTOWithSpeedWindTackAndLegType> result = roundTrip(fixes);
+        assertEquals(fixes.size(), result.size());
+        for (int i = 0; i < fixes.size(); i++) {
+            final GPSFixDTOWithSpeedWindTackAndLegType expected = fixes.get(i);
+            final GPSFixDTOWithSpeedWindTackAndLegType actual = result.get(i);
+            assertEquals(expected.timepoint, actual.timepoint);
+            assertEquals(expected.position.getLatDeg(), actual.position.getLatDeg(), POSITION_PRECISION_IN_DEGREES);
+            assertEquals(expected.position.getLngDeg(), actual.position.getLngDeg(), POSITION_PRECISION_IN_DEGREES);
+            assertEquals(expected.speedWithBearing.speedInKnots, actual.speedWithBearing.speedInKnots, 0);
+            assertEquals(expected.speedWithBearing.bearingInDegrees, actual.speedWithBearing.bearingInDegrees, 0);
+            assertEquals(expected.optionalTrueHeading.getDegrees(), actual.optionalTrueHeading.getDegrees(), 0);
+            assertEquals(expected.degreesBoatToTheWind, actual.degreesBoatToTheWind);
+            assertEquals(expected.tack, actual.tack);
+            assertEquals(expected.legType, actual.legType);
+            assertEquals(expected.extrapolated, actual.extrapolated);
+            assertEquals(expected.detailValue, actual.detailValue);
+        }
+    }
+
+    @Test
+    public void testRoundTripOfFixWithoutOptionalValues() throws SerializationException {
+        final List<GPSFixDTOWithSpeedWindTackAndLegType> result = roundTrip(Arrays.asList(
+                new GPSFixDTOWithSpeedWindTackAndLegType(new Date(-5000), new DegreePosition(-33.5, -70.25),
+                        /* speedWithBearing */ null, /* optionalTrueHeading */ null, /* degreesBoatToTheWind */ (Double) null,
+                        /* tack */ null, /* legType */ null, /* extrapolated */ true, /* detailValue */ null)));
+        assertEquals(1, result.size());
+        final GPSFixDTOWithSpeedWindTackAndLegType actual = result.get(0);
+        assertEquals(new Date(-5000), actual.timepoint);
+        assertEquals(-33.5, actual.position.getLatDeg(), POSITION_PRECISION_IN_DEGREES);
+        assertEquals(-70.25, actual.position.getLngDeg(), POSITION_PRECISION_IN_DEGREES);
+        assertNull(actual.speedWithBearing);
+        assertNull(actual.optionalTrueHeading);
+        assertNull(actual.degreesBoatToTheWind);
+        assertNull(actual.tack);
+        assertNull(actual.legType);
+        assertNull(actual.detailValue);
+        assertEquals(true, actual.extrapolated);
+    }
+}
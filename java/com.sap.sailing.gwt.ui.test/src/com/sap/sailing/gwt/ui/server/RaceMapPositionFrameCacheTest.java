@@ -0,0 +1,220 @@
+package com.sap.sailing.gwt.ui.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.base.Mark;
+import com.sap.sailing.domain.common.Wind;
+import com.sap.sailing.domain.common.WindSource;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.tracking.GPSFix;
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixMovingImpl;
+import com.sap.sailing.domain.shared.tracking.AddResult;
+import com.sap.sailing.domain.tracking.GPSFixTrack;
+import com.sap.sailing.domain.tracking.RaceChangeListener;
+import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sailing.gwt.ui.shared.GPSFixDTOWithSpeedWindTackAndLegType;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+public class RaceMapPositionFrameCacheTest {
+    private static final long FRAME = 5000;
+
+    private SailingServiceImpl service;
+    private TrackedRace trackedRace;
+    private Competitor competitor;
+    private Competitor otherCompetitor;
+    private GPSFixTrack<Competitor, GPSFixMoving> track;
+    private GPSFixTrack<Competitor, GPSFixMoving> otherTrack;
+    private List<GPSFixMoving> fixes;
+    private AtomicReference<RaceChangeListener> listener;
+    private AtomicBoolean failNextComputation;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    public void setUp() {
+        service = mock(SailingServiceImpl.class);
+        when(service.createGPSFixDTO(any(), any(), any(), any(), any(), any(), anyBoolean(), any())).thenCallRealMethod();
+        trackedRace = mock(TrackedRace.class);
+        competitor = mock(Competitor.class);
+        otherCompetitor = mock(Competitor.class);
+        fixes = new ArrayList<>();
+        for (final long timeMillis : new long[] { 0, 1000, FRAME-1, FRAME, 2*FRAME-1, 2*FRAME, 3*FRAME+1 }) {
+            fixes.add(fix(timeMillis));
+        }
+        failNextComputation = new AtomicBoolean();
+        track = mockTrack(fixes);
+        otherTrack = mockTrack(fixes);
+        when(trackedRace.getTrack(competitor)).thenReturn(track);
+        when(trackedRace.getTrack(otherCompetitor)).thenReturn(otherTrack);
+        listener = new AtomicReference<>();
+        doAnswer(invocation -> {
+            listener.set(invocation.getArgument(0));
+            return null;
+        }).when(trackedRace).addListener(any(RaceChangeListener.class));
+    }
+
+    private GPSFixMoving fix(long timeMillis) {
+        return new GPSFixMovingImpl(new DegreePosition(54.4, 10.2 + timeMillis / 1E6), new MillisecondsTimePoint(timeMillis),
+                /* speed */ null, /* optionalTrueHeading */ null);
+    }
+
+    /**
+     * The track returns those of {@code trackFixes} in the time range requested; if {@link #failNextComputation} is
+     * set, the next request fails
+     */
+    @SuppressWarnings("unchecked")
+    private GPSFixTrack<Competitor, GPSFixMoving> mockTrack(List<GPSFixMoving> trackFixes) {
+        final GPSFixTrack<Competitor, GPSFixMoving> result = mock(GPSFixTrack.class);
+        when(result.getFixesIterator(any(TimePoint.class), eq(true), any(TimePoint.class), eq(false))).thenAnswer(invocation -> {
+            if (failNextComputation.getAndSet(false)) {
+                throw new IllegalStateException("computation failure for test");
+            }
+            final TimePoint from = invocation.getArgument(0);
+            final TimePoint to = invocation.getArgument(2);
+            final List<GPSFixMoving> fixesInRange = new ArrayList<>();
+            for (final GPSFixMoving fix : trackFixes) {
+                if (!fix.getTimePoint().before(from) && fix.getTimePoint().before(to)) {
+                    fixesInRange.add(fix);
+                }
+            }
+            return fixesInRange.iterator();
+        });
+        return result;
+    }
+
+    private List<Long> getFixTimes(RaceMapPositionFrameCache cache, Competitor c, long fromMillis, long toMillis, boolean toInclusive) {
+        final List<Long> result = new ArrayList<>();
+        final Iterator<GPSFixDTOWithSpeedWindTackAndLegType> i = cache.getFixes(trackedRace, c, /* detailType */ null,
+                /* leaderboardName */ null, /* leaderboardGroupName */ null, /* leaderboardGroupId */ null,
+                new MillisecondsTimePoint(fromMillis), new MillisecondsTimePoint(toMillis), toInclusive);
+        while (i.hasNext()) {
+            result.add(i.next().timepoint.getTime());
+        }
+        return result;
+    }
+
+    private void verifyFrameComputed(GPSFixTrack<Competitor, GPSFixMoving> t, long frameIndex, int times) {
+        verify(t, times(times)).getFixesIterator(eq(new MillisecondsTimePoint(frameIndex*FRAME)), eq(true),
+                eq(new MillisecondsTimePoint((frameIndex+1)*FRAME)), eq(false));
+    }
+
+    /**
+     * Requests frames 0 to 3 of the competitor and frame 0 of the other competitor
+     */
+    private void requestAllFrames(RaceMapPositionFrameCache cache) {
+        getFixTimes(cache, competitor, 0, 4*FRAME, /* toInclusive */ false);
+        getFixTimes(cache, otherCompetitor, 0, FRAME, /* toInclusive */ false);
+    }
+
+    @Test
+    public void testFrameIteratorRangeBoundaries() {
+        final RaceMapPositionFrameCache cache = new RaceMapPositionFrameCache(service);
+        assertEquals(Arrays.asList(1000l, FRAME-1), getFixTimes(cache, competitor, 1000, FRAME, /* toInclusive */ false));
+        assertEquals(Arrays.asList(1000l, FRAME-1, FRAME), getFixTimes(cache, competitor, 1000, FRAME, /* toInclusive */ true));
+        assertEquals(Arrays.asList(FRAME-1, FRAME, 2*FRAME-1, 2*FRAME), getFixTimes(cache, competitor, FRAME-1, 2*FRAME, /* toInclusive */ true));
+        assertEquals(Arrays.asList(FRAME), getFixTimes(cache, competitor, FRAME, FRAME, /* toInclusive */ true));
+        assertEquals(Collections.emptyList(), getFixTimes(cache, competitor, FRAME, FRAME, /* toInclusive */ false));
+        assertEquals(Collections.emptyList(), getFixTimes(cache, competitor, FRAME+1, 2*FRAME-1, /* toInclusive */ false));
+        // frame 2 has no fix after 2*FRAME, frame 3 none before 3*FRAME+1
+        assertEquals(Arrays.asList(2*FRAME, 3*FRAME+1), getFixTimes(cache, competitor, 2*FRAME, 4*FRAME, /* toInclusive */ false));
+        assertEquals(Collections.emptyList(), getFixTimes(cache, competitor, 2*FRAME, 1000, /* toInclusive */ true));
+    }
+
+    @Test
+    public void testFramesAreComputedOnceAndSharedAcrossRequests() {
+        final RaceMapPositionFrameCache cache = new RaceMapPositionFrameCache(service);
+        requestAllFrames(cache);
+        requestAllFrames(cache);
+        getFixTimes(cache, competitor, 1000, 2*FRAME, /* toInclusive */ true);
+        for (long frameIndex = 0; frameIndex < 4; frameIndex++) {
+            verifyFrameComputed(track, frameIndex, 1);
+        }
+        verifyFrameComputed(otherTrack, 0, 1);
+        verify(trackedRace, times(1)).addListener(any(RaceChangeListener.class));
+    }
+
+    @Test
+    public void testPositionChangeInvalidatesFrameAndItsNeighboursOfThatCompetitorOnly() {
+        final RaceMapPositionFrameCache cache = new RaceMapPositionFrameCache(service);
+        requestAllFrames(cache);
+        listener.get().competitorPositionChanged(fix(FRAME+1), competitor, AddResult.ADDED);
+        requestAllFrames(cache);
+        verifyFrameComputed(track, 0, 2);
+        verifyFrameComputed(track, 1, 2);
+        verifyFrameComputed(track, 2, 2);
+        verifyFrameComputed(track, 3, 1);
+        verifyFrameComputed(otherTrack, 0, 1);
+    }
+
+    @Test
+    public void testMarkPassingChangeInvalidatesAllFramesOfThatCompetitorOnly() {
+        final RaceMapPositionFrameCache cache = new RaceMapPositionFrameCache(service);
+        requestAllFrames(cache);
+        listener.get().markPassingReceived(competitor, Collections.emptyMap(), Collections.emptySet());
+        requestAllFrames(cache);
+        for (long frameIndex = 0; frameIndex < 4; frameIndex++) {
+            verifyFrameComputed(track, frameIndex, 2);
+        }
+        verifyFrameComputed(otherTrack, 0, 1);
+    }
+
+    @Test
+    public void testWindAndMarkChangesDoNotInvalidateFramesBeforeTheyExpire() throws InterruptedException {
+        final long maxFrameAgeInMillis = 200;
+        final RaceMapPositionFrameCache cache = new RaceMapPositionFrameCache(service, maxFrameAgeInMillis);
+        getFixTimes(cache, competitor, 0, FRAME, /* toInclusive */ false);
+        listener.get().windDataReceived(mock(Wind.class), mock(WindSource.class));
+        listener.get().markPositionChanged(mock(GPSFix.class), mock(Mark.class), /* firstInTrack */ false, AddResult.ADDED);
+        getFixTimes(cache, competitor, 0, FRAME, /* toInclusive */ false);
+        verifyFrameComputed(track, 0, 1);
+        Thread.sleep(2*maxFrameAgeInMillis);
+        getFixTimes(cache, competitor, 0, FRAME, /* toInclusive */ false);
+        verifyFrameComputed(track, 0, 2);
+    }
+
+    @Test
+    public void testFailedFrameIsComputedAgainOnNextRequest() {
+        final RaceMapPositionFrameCache cache = new RaceMapPositionFrameCache(service);
+        failNextComputation.set(true);
+        assertEquals(Collections.emptyList(), getFixTimes(cache, competitor, 0, FRAME, /* toInclusive */ false));
+        assertEquals(Arrays.asList(0l, 1000l, FRAME-1), getFixTimes(cache, competitor, 0, FRAME, /* toInclusive */ false));
+        assertEquals(Arrays.asList(0l, 1000l, FRAME-1), getFixTimes(cache, competitor, 0, FRAME, /* toInclusive */ false));
+        verifyFrameComputed(track, 0, 2);
+    }
+
+    @Test
+    public void testListenerIsRegisteredBeforeFramesAreComputed() {
+        final AtomicBoolean listenerRegisteredWhenComputing = new AtomicBoolean();
+        doAnswer(invocation -> {
+            listenerRegisteredWhenComputing.set(listener.get() != null);
+            return Collections.<GPSFixMoving>emptyIterator();
+        }).when(track).getFixesIterator(any(TimePoint.class), eq(true), any(TimePoint.class), eq(false));
+        final RaceMapPositionFrameCache cache = new RaceMapPositionFrameCache(service);
+        getFixTimes(cache, competitor, 0, FRAME, /* toInclusive */ false);
+        assertTrue(listenerRegisteredWhenComputing.get());
+        verify(trackedRace, never()).removeListener(any(RaceChangeListener.class));
+    }
+}
@@ -23,6 +23,12 @@ import com.sap.sse.common.impl.DegreeBearingImpl;
  * stream, thus avoiding that the {@link SerializationStreamWriter} has to hold on to all those DTOs for
  * back-references, so that the DTOs can be short-lived as the iterable produces them. Upon de-serializing, the full
  * set of objects will be constructed from the data in the stream. The client will need it anyhow.
+ * <p>
+ * 
+ * Consecutive fixes of a track are close to each other in time and space. Time points are therefore written as the
+ * difference to the previous fix's time point, and positions as the differences of latitude and longitude to those of
+ * the previous fix, in units of {@link #POSITION_DEGREES_SCALE 10<sup>-7</sup>} degrees (about one centimeter). The
+ * small {@code int} deltas are much more compact in the RPC payload than full {@code double} coordinates.
  * 
  * @author Axel Uhl (d043530)
  *
@@ -36,6 +42,13 @@ public class GPSFixDTOWithSpeedWindTackAndLegTypeIterable_CustomFieldSerializer
     private static final int MASK_HAS_POSITION                 = 1 << 5;
     private static final int MASK_HAS_TIMEPOINT                = 1 << 6;
     private static final int MASK_HAS_TRUE_HEADING             = 1 << 7;
+
+    /**
+     * Positions are transmitted as integer multiples of 1/{@link #POSITION_DEGREES_SCALE} degrees. Longitudes of up to
+     * 180 degrees fit into an {@code int} at this scale; differences between coordinates may overflow, but since
+     * they are added up again using the same {@code int} arithmetic, the result is exact nevertheless.
+     */
+    private static final double POSITION_DEGREES_SCALE = 1E7;
     
     @Override
     public void serializeInstance(SerializationStreamWriter streamWriter, GPSFixDTOWithSpeedWindTackAndLegTypeIterable instance)
@@ -45,6 +58,9 @@ public class GPSFixDTOWithSpeedWindTackAndLegTypeIterable_CustomFieldSerializer
     
     public static void serialize(SerializationStreamWriter streamWriter, GPSFixDTOWithSpeedWindTackAndLegTypeIterable instance)
             throws SerializationException {
+        long previousTimeMillis = 0;
+        int previousScaledLatDeg = 0;
+        int previousScaledLngDeg = 0;
         for (final GPSFixDTOWithSpeedWindTackAndLegType fix : instance) {
             streamWriter.writeInt(mask(fix));
             if (fix.degreesBoatToTheWind != null) {
@@ -65,11 +81,17 @@ public class GPSFixDTOWithSpeedWindTackAndLegTypeIterable_CustomFieldSerializer
                 streamWriter.writeInt(fix.tack.ordinal());
             }
             if (fix.position != null) {
-                streamWriter.writeDouble(fix.position.getLatDeg());
-                streamWriter.writeDouble(fix.position.getLngDeg());
+                final int scaledLatDeg = scale(fix.position.getLatDeg());
+                final int scaledLngDeg = scale(fix.position.getLngDeg());
+                streamWriter.writeInt(scaledLatDeg - previousScaledLatDeg);
+                streamWriter.writeInt(scaledLngDeg - previousScaledLngDeg);
+                previousScaledLatDeg = scaledLatDeg;
+                previousScaledLngDeg = scaledLngDeg;
             }
             if (fix.timepoint != null) {
-                streamWriter.writeLong(fix.timepoint.getTime());
+                final long timeMillis = fix.timepoint.getTime();
+                streamWriter.writeLong(timeMillis - previousTimeMillis);
+                previousTimeMillis = timeMillis;
             }
             if (fix.optionalTrueHeading != null) {
                 streamWriter.writeDouble(fix.optionalTrueHeading.getDegrees());
@@ -81,6 +103,9 @@ public class GPSFixDTOWithSpeedWindTackAndLegTypeIterable_CustomFieldSerializer
     public static GPSFixDTOWithSpeedWindTackAndLegTypeIterable instantiate(SerializationStreamReader streamReader)
             throws SerializationException {
         final List<GPSFixDTOWithSpeedWindTackAndLegType> list = new LinkedList<>();
+        long previousTimeMillis = 0;
+        int previousScaledLatDeg = 0;
+        int previousScaledLngDeg = 0;
         int mask;
         while ((mask = streamReader.readInt()) != -1) {
             final Double degreesBoatToTheWind;
@@ -118,15 +143,16 @@ public class GPSFixDTOWithSpeedWindTackAndLegTypeIterable_CustomFieldSerializer
             }
             final Position position;
             if ((mask & MASK_HAS_POSITION) != 0) {
-                final double latDeg = streamReader.readDouble();
-                final double lngDeg = streamReader.readDouble();
-                position = new DegreePosition(latDeg, lngDeg);
+                previousScaledLatDeg += streamReader.readInt();
+                previousScaledLngDeg += streamReader.readInt();
+                position = new DegreePosition(previousScaledLatDeg / POSITION_DEGREES_SCALE, previousScaledLngDeg / POSITION_DEGREES_SCALE);
             } else {
                 position = null;
             }
             final Date timepoint;
             if ((mask & MASK_HAS_TIMEPOINT) != 0) {
-                timepoint = new Date(streamReader.readLong());
+                previousTimeMillis += streamReader.readLong();
+                timepoint = new Date(previousTimeMillis);
             } else {
                 timepoint = null;
             }
@@ -141,6 +167,10 @@ public class GPSFixDTOWithSpeedWindTackAndLegTypeIterable_CustomFieldSerializer
         return new GPSFixDTOWithSpeedWindTackAndLegTypeIterable(list);
     }
 
+    private static int scale(double degrees) {
+        return (int) Math.round(degrees * POSITION_DEGREES_SCALE);
+    }
+
     private static int mask(GPSFixDTOWithSpeedWindTackAndLegType fix) {
         return 0
                 | (fix.degreesBoatToTheWind == null ? 0 : MASK_HAS_DEGREES_BOAT_TO_THE_WIND)
@@ -0,0 +1,522 @@
+package com.sap.sailing.gwt.ui.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.commons.math.FunctionEvaluationException;
+import org.apache.commons.math.MaxIterationsExceededException;
+
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.base.Leg;
+import com.sap.sailing.domain.base.Mark;
+import com.sap.sailing.domain.base.Waypoint;
+import com.sap.sailing.domain.common.DetailType;
+import com.sap.sailing.domain.common.LegType;
+import com.sap.sailing.domain.common.NoWindException;
+import com.sap.sailing.domain.common.SpeedWithBearing;
+import com.sap.sailing.domain.common.Tack;
+import com.sap.sailing.domain.common.Wind;
+import com.sap.sailing.domain.common.WindSource;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.polars.NotEnoughDataHasBeenAddedException;
+import com.sap.sailing.domain.common.tracking.GPSFix;
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.common.tracking.SensorFix;
+import com.sap.sailing.domain.leaderboard.caching.LeaderboardDTOCalculationReuseCache;
+import com.sap.sailing.domain.shared.tracking.AddResult;
+import com.sap.sailing.domain.tracking.GPSFixTrack;
+import com.sap.sailing.domain.tracking.MarkPassing;
+import com.sap.sailing.domain.tracking.TrackedLegOfCompetitor;
+import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sailing.domain.tracking.impl.AbstractRaceChangeListener;
+import com.sap.sailing.gwt.ui.shared.GPSFixDTOWithSpeedWindTackAndLegType;
+import com.sap.sailing.gwt.ui.shared.GPSFixDTOWithSpeedWindTackAndLegTypeIterable;
+import com.sap.sailing.gwt.ui.shared.SpeedWithBearingDTO;
+import com.sap.sailing.gwt.ui.shared.WindDTO;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.Util.Pair;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+/**
+ * Hundreds of viewers of the same live race ask the race map for almost the same boat positions. Computing wind, tack,
+ * leg type and detail values for each fix is expensive, so instead of doing this per request, the fixes of each
+ * competitor's track are grouped into time-quantized frames of {@link #FRAME_DURATION_IN_MILLIS} which are computed once
+ * and then served to all clients requesting time ranges overlapping the frame. A frame stores its fixes as primitive
+ * arrays; the {@link GPSFixDTOWithSpeedWindTackAndLegType} objects are created on the fly while iterating, as expected
+ * by {@link GPSFixDTOWithSpeedWindTackAndLegTypeIterable}. This way the CPU spent for the race map grows with the
+ * number of races and fixes, not with the number of viewers.
+ * <p>
+ *
+ * Frames are discarded when a fix is added to or replaced in the competitor's track within or next to the frame's time
+ * range (outlier removal and speed estimation consider the neighboring fixes), when the competitor's mark passings
+ * change (leg types), and for all competitors of the race on other changes such as start time or course changes. Wind
+ * and mark position changes do not discard frames, but no frame is used longer than {@link #MAX_FRAME_AGE_IN_MILLIS}
+ * after its computation, so wind-dependent values converge to the results of a fresh computation.
+ * <p>
+ *
+ * Races are held weakly; the frames of a race that is no longer referenced elsewhere are garbage-collected.
+ */
+public class RaceMapPositionFrameCache {
+    private static final Logger logger = Logger.getLogger(RaceMapPositionFrameCache.class.getName());
+
+    public static final String FRAME_DURATION_IN_MILLIS_SYSTEM_PROPERTY_NAME = "com.sap.sailing.gwt.ui.server.raceMapPositionFrameDurationInMillis";
+
+    public static final String MAX_FRAME_AGE_IN_MILLIS_SYSTEM_PROPERTY_NAME = "com.sap.sailing.gwt.ui.server.raceMapPositionMaxFrameAgeInMillis";
+
+    private static final long FRAME_DURATION_IN_MILLIS = Long.getLong(FRAME_DURATION_IN_MILLIS_SYSTEM_PROPERTY_NAME, 5000l);
+
+    private static final long MAX_FRAME_AGE_IN_MILLIS = Long.getLong(MAX_FRAME_AGE_IN_MILLIS_SYSTEM_PROPERTY_NAME, 30000l);
+
+    /**
+     * After this many frames were computed for a race, the frames of the race that have exceeded their maximum age are
+     * removed
+     */
+    private static final int FRAMES_COMPUTED_BETWEEN_EXPIRY_SWEEPS = 1000;
+
+    private static final long LEG_TYPE_RESOLUTION_IN_MILLIS = 60000;
+
+    private final SailingServiceImpl service;
+
+    private final long maxFrameAgeInMillis;
+
+    private final Map<TrackedRace, RaceFrames> framesByRace;
+
+    public RaceMapPositionFrameCache(SailingServiceImpl service) {
+        this(service, MAX_FRAME_AGE_IN_MILLIS);
+    }
+
+    RaceMapPositionFrameCache(SailingServiceImpl service, long maxFrameAgeInMillis) {
+        this.service = service;
+        this.maxFrameAgeInMillis = maxFrameAgeInMillis;
+        this.framesByRace = Collections.synchronizedMap(new WeakHashMap<>());
+    }
+
+    /**
+     * Produces the DTOs for the fixes of {@code competitor}'s track in the time range requested, as computed by
+     * {@link #createFixDTO}. The detail value is only computed if {@code detailType} is not {@code null}; the caller is
+     * responsible for having checked that the current user may see it.
+     *
+     * @param toInclusive
+     *            whether a fix at exactly {@code to} shall be returned
+     */
+    public Iterator<GPSFixDTOWithSpeedWindTackAndLegType> getFixes(TrackedRace trackedRace, Competitor competitor,
+            DetailType detailType, String leaderboardName, String leaderboardGroupName, UUID leaderboardGroupId,
+            TimePoint from, TimePoint to, boolean toInclusive) {
+        final DetailContext detailContext = detailType == null ? DetailContext.NONE
+                : new DetailContext(detailType, leaderboardName, leaderboardGroupName, leaderboardGroupId);
+        final RaceFrames raceFrames = getOrCreateRaceFrames(trackedRace);
+        final long fromMillis = from.asMillis();
+        final long toMillis = to.asMillis();
+        final List<PositionFrame> frames = new ArrayList<>();
+        if (fromMillis < toMillis || (toInclusive && fromMillis == toMillis)) {
+            for (long frameIndex = getFrameIndex(fromMillis); frameIndex <= getFrameIndex(toMillis); frameIndex++) {
+                frames.add(raceFrames.getFrame(trackedRace, competitor, frameIndex, detailContext));
+            }
+        }
+        return new FrameIterator(frames, fromMillis, toMillis, toInclusive);
+    }
+
+    /**
+     * Computes the DTO for a single fix of {@code competitor}, including wind, tack, leg type and, if
+     * {@code detailType} is not {@code null}, the detail value at the fix's time point
+     *
+     * @param legTypeCache
+     *            leg types are cached in this map with a resolution of one minute
+     */
+    public GPSFixDTOWithSpeedWindTackAndLegType createFixDTO(TrackedRace trackedRace, Competitor competitor,
+            GPSFixTrack<Competitor, GPSFixMoving> track, GPSFixMoving fix, DetailType detailType,
+            String leaderboardName, String leaderboardGroupName, UUID leaderboardGroupId,
+            Map<Pair<Leg, TimePoint>, LegType> legTypeCache, boolean extrapolated) {
+        final Wind wind = trackedRace.getWind(fix.getPosition(), fix.getTimePoint());
+        final SpeedWithBearing estimatedSpeed = track.getEstimatedSpeed(fix.getTimePoint());
+        Tack tack = wind == null? null : trackedRace.getTack(estimatedSpeed, wind, fix.getTimePoint());
+        final TrackedLegOfCompetitor trackedLegOfCompetitor = trackedRace.getTrackedLeg(competitor,
+                fix.getTimePoint());
+        LegType legType;
+        if (trackedLegOfCompetitor != null && trackedLegOfCompetitor.getLeg() != null) {
+            TimePoint quantifiedTimePoint = new MillisecondsTimePoint(
+                    fix.getTimePoint().asMillis() / LEG_TYPE_RESOLUTION_IN_MILLIS * LEG_TYPE_RESOLUTION_IN_MILLIS);
+            Pair<Leg, TimePoint> cacheKey = new Pair<Leg, TimePoint>(trackedLegOfCompetitor.getLeg(), quantifiedTimePoint);
+            legType = legTypeCache.get(cacheKey);
+            if (legType == null) {
+                try {
+                    legType = trackedRace.getTrackedLeg(trackedLegOfCompetitor.getLeg()).getLegType(fix.getTimePoint());
+                    legTypeCache.put(cacheKey, legType);
+                } catch (NoWindException nwe) {
+                    // without wind, leave the leg type null, meaning "unknown"
+                    legType = null;
+                }
+            }
+        } else {
+            legType = null;
+        }
+        // frames are shared by requests for different time ranges, so the wind's request time point is the fix's; only
+        // the wind's bearing, taken at the fix's time point, is used for the fix DTO anyhow
+        WindDTO windDTO = wind == null ? null : service.createWindDTOFromAlreadyAveraged(wind, fix.getTimePoint());
+        Double detailValue = null;
+        if (detailType != null) {
+            try {
+                detailValue = service.getCompetitorRaceDataEntry(detailType, trackedRace, competitor,
+                        fix.getTimePoint(), leaderboardGroupName, leaderboardGroupId, leaderboardName,
+                        new LeaderboardDTOCalculationReuseCache(fix.getTimePoint()));
+            } catch (NoWindException | NotEnoughDataHasBeenAddedException | MaxIterationsExceededException | FunctionEvaluationException nwe) {
+                detailValue = null;
+            }
+        }
+        return service.createGPSFixDTO(fix, estimatedSpeed, fix.getOptionalTrueHeading(), windDTO,
+                tack, legType, extrapolated, detailValue);
+    }
+
+    static long getFrameIndex(long timeMillis) {
+        return Math.floorDiv(timeMillis, FRAME_DURATION_IN_MILLIS);
+    }
+
+    /**
+     * The listener of new frames is registered with the race before the frames are published, so that no frame can
+     * be computed without the changes to the race that follow being noticed. If another thread published frames for
+     * the race in the meantime, these are used, and the listener of the frames created here is removed again.
+     */
+    private RaceFrames getOrCreateRaceFrames(TrackedRace trackedRace) {
+        RaceFrames result = framesByRace.get(trackedRace);
+        if (result == null) {
+            final RaceFrames newRaceFrames = new RaceFrames();
+            // the listener must not reference the race; the race references the listener, and the listener the frames
+            trackedRace.addListener(newRaceFrames.listener);
+            synchronized (framesByRace) {
+                result = framesByRace.get(trackedRace);
+                if (result == null) {
+                    result = newRaceFrames;
+                    framesByRace.put(trackedRace, result);
+                }
+            }
+            if (result != newRaceFrames) {
+                trackedRace.removeListener(newRaceFrames.listener);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Identifies the context in which detail values are computed; {@link #NONE} if no detail values are requested
+     */
+    private static final class DetailContext {
+        private static final DetailContext NONE = new DetailContext(null, null, null, null);
+
+        private final DetailType detailType;
+        private final String leaderboardName;
+        private final String leaderboardGroupName;
+        private final UUID leaderboardGroupId;
+
+        private DetailContext(DetailType detailType, String leaderboardName, String leaderboardGroupName, UUID leaderboardGroupId) {
+            this.detailType = detailType;
+            this.leaderboardName = leaderboardName;
+            this.leaderboardGroupName = leaderboardGroupName;
+            this.leaderboardGroupId = leaderboardGroupId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(detailType, leaderboardName, leaderboardGroupName, leaderboardGroupId);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final DetailContext other = (DetailContext) obj;
+            return detailType == other.detailType && Objects.equals(leaderboardName, other.leaderboardName)
+                    && Objects.equals(leaderboardGroupName, other.leaderboardGroupName)
+                    && Objects.equals(leaderboardGroupId, other.leaderboardGroupId);
+        }
+    }
+
+    /**
+     * The frames of one race, by competitor, frame index and detail context. The frame futures are entered before
+     * computing the frame, so that concurrent requests for the same frame wait for the one computation, and so that a
+     * fix arriving while the frame is being computed removes the frame that may not have seen the fix.
+     */
+    private class RaceFrames {
+        private final ConcurrentMap<Competitor, ConcurrentMap<Long, ConcurrentMap<DetailContext, FutureTask<PositionFrame>>>> frames;
+
+        private final AtomicInteger framesComputedSinceLastSweep;
+
+        private final AbstractRaceChangeListener listener;
+
+        private RaceFrames() {
+            frames = new ConcurrentHashMap<>();
+            framesComputedSinceLastSweep = new AtomicInteger();
+            listener = new AbstractRaceChangeListener() {
+                @Override
+                protected void defaultAction() {
+                    frames.clear();
+                }
+
+                @Override
+                public void competitorPositionChanged(GPSFixMoving fix, Competitor item, AddResult addedOrReplaced) {
+                    final ConcurrentMap<Long, ConcurrentMap<DetailContext, FutureTask<PositionFrame>>> framesOfCompetitor = frames.get(item);
+                    if (framesOfCompetitor != null) {
+                        final long frameIndex = getFrameIndex(fix.getTimePoint().asMillis());
+                        framesOfCompetitor.remove(frameIndex - 1);
+                        framesOfCompetitor.remove(frameIndex);
+                        framesOfCompetitor.remove(frameIndex + 1);
+                    }
+                }
+
+                @Override
+                public void markPassingReceived(Competitor competitor, Map<Waypoint, MarkPassing> oldMarkPassings,
+                        Iterable<MarkPassing> markPassings) {
+                    frames.remove(competitor);
+                }
+
+                @Override
+                public void windDataReceived(Wind wind, WindSource windSource) {
+                    // frames expire after their maximum age
+                }
+
+                @Override
+                public void windDataRemoved(Wind wind, WindSource windSource) {
+                    // frames expire after their maximum age
+                }
+
+                @Override
+                public void markPositionChanged(GPSFix fix, Mark mark, boolean firstInTrack, AddResult addedOrReplaced) {
+                    // frames expire after their maximum age
+                }
+
+                @Override
+                public void competitorSensorFixAdded(Competitor competitor, String trackName, SensorFix fix, AddResult addedOrReplaced) {
+                    // frames expire after their maximum age
+                }
+
+                @Override
+                public void delayToLiveChanged(long delayToLiveInMillis) {
+                    // doesn't affect any fix
+                }
+            };
+        }
+
+        private PositionFrame getFrame(TrackedRace trackedRace, Competitor competitor, long frameIndex, DetailContext detailContext) {
+            final ConcurrentMap<DetailContext, FutureTask<PositionFrame>> framesByDetailContext = frames
+                    .computeIfAbsent(competitor, c -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(frameIndex, i -> new ConcurrentHashMap<>());
+            final long now = System.currentTimeMillis();
+            FutureTask<PositionFrame> future = framesByDetailContext.get(detailContext);
+            if (future != null && future.isDone() && getFrame(future).isExpired(now, maxFrameAgeInMillis)) {
+                framesByDetailContext.remove(detailContext, future);
+                future = null;
+            }
+            if (future == null) {
+                final FutureTask<PositionFrame> newFuture = new FutureTask<>(
+                        () -> computeFrame(trackedRace, competitor, frameIndex, detailContext));
+                future = framesByDetailContext.putIfAbsent(detailContext, newFuture);
+                if (future == null) {
+                    future = newFuture;
+                    newFuture.run();
+                    if (framesComputedSinceLastSweep.incrementAndGet() >= FRAMES_COMPUTED_BETWEEN_EXPIRY_SWEEPS) {
+                        framesComputedSinceLastSweep.set(0);
+                        removeExpiredFrames(now);
+                    }
+                }
+            }
+            return getFrame(framesByDetailContext, detailContext, future);
+        }
+
+        /**
+         * Like {@link #getFrame(FutureTask)}, but a frame whose computation failed is removed from the cache right
+         * away, so that the next request computes it again
+         */
+        private PositionFrame getFrame(ConcurrentMap<DetailContext, FutureTask<PositionFrame>> framesByDetailContext,
+                DetailContext detailContext, FutureTask<PositionFrame> future) {
+            final PositionFrame result = getFrame(future);
+            if (result == PositionFrame.EMPTY) {
+                framesByDetailContext.remove(detailContext, future);
+            }
+            return result;
+        }
+
+        private void removeExpiredFrames(long now) {
+            for (final ConcurrentMap<Long, ConcurrentMap<DetailContext, FutureTask<PositionFrame>>> framesOfCompetitor : frames.values()) {
+                for (final Iterator<ConcurrentMap<DetailContext, FutureTask<PositionFrame>>> i = framesOfCompetitor.values().iterator(); i.hasNext();) {
+                    final ConcurrentMap<DetailContext, FutureTask<PositionFrame>> framesByDetailContext = i.next();
+                    framesByDetailContext.values().removeIf(future -> future.isDone() && getFrame(future).isExpired(now, maxFrameAgeInMillis));
+                    if (framesByDetailContext.isEmpty()) {
+                        i.remove();
+                    }
+                }
+            }
+        }
+
+        private PositionFrame getFrame(FutureTask<PositionFrame> future) {
+            try {
+                return future.get();
+            } catch (InterruptedException | ExecutionException e) {
+                logger.log(Level.WARNING, "Problem computing race map position frame", e);
+                return PositionFrame.EMPTY;
+            }
+        }
+    }
+
+    private PositionFrame computeFrame(TrackedRace trackedRace, Competitor competitor, long frameIndex, DetailContext detailContext) {
+        final long computedAtMillis = System.currentTimeMillis();
+        final TimePoint frameStart = new MillisecondsTimePoint(frameIndex * FRAME_DURATION_IN_MILLIS);
+        final TimePoint frameEnd = new MillisecondsTimePoint((frameIndex + 1) * FRAME_DURATION_IN_MILLIS);
+        final GPSFixTrack<Competitor, GPSFixMoving> track = trackedRace.getTrack(competitor);
+        // copy the fixes while holding the lock; then release it to avoid deadlocks during wind estimations
+        final List<GPSFixMoving> fixes = new ArrayList<>();
+        track.lockForRead();
+        try {
+            final Iterator<GPSFixMoving> fixIter = track.getFixesIterator(frameStart, /* inclusive */ true, frameEnd, /* inclusive */ false);
+            while (fixIter.hasNext()) {
+                fixes.add(fixIter.next());
+            }
+        } finally {
+            track.unlockAfterRead();
+        }
+        final PositionFrame frame = new PositionFrame(fixes.size(), computedAtMillis);
+        final Map<Pair<Leg, TimePoint>, LegType> legTypeCache = new HashMap<>();
+        for (final GPSFixMoving fix : fixes) {
+            frame.add(createFixDTO(trackedRace, competitor, track, fix, detailContext.detailType,
+                    detailContext.leaderboardName, detailContext.leaderboardGroupName, detailContext.leaderboardGroupId,
+                    legTypeCache, /* extrapolated */ false));
+        }
+        return frame;
+    }
+
+    /**
+     * The fixes of one competitor in one frame, in chronological order, stored column-wise in primitive arrays.
+     * {@code null} values are represented by {@link Double#NaN} and {@code -1}, respectively.
+     */
+    private static class PositionFrame {
+        /**
+         * Stands in for a frame whose computation failed; computed at the beginning of the epoch, it is always
+         * {@link #isExpired(long, long) expired}, so that the failed computation is not served from the cache
+         */
+        private static final PositionFrame EMPTY = new PositionFrame(0, /* computedAtMillis */ 0);
+
+        private final long computedAtMillis;
+        private final long[] timeMillis;
+        private final double[] latDeg;
+        private final double[] lngDeg;
+        private final double[] speedInKnots;
+        private final double[] bearingInDegrees;
+        private final double[] trueHeadingInDegrees;
+        private final double[] degreesBoatToTheWind;
+        private final double[] detailValue;
+        private final byte[] tackOrdinal;
+        private final byte[] legTypeOrdinal;
+        private int size;
+
+        private PositionFrame(int capacity, long computedAtMillis) {
+            this.computedAtMillis = computedAtMillis;
+            timeMillis = new long[capacity];
+            latDeg = new double[capacity];
+            lngDeg = new double[capacity];
+            speedInKnots = new double[capacity];
+            bearingInDegrees = new double[capacity];
+            trueHeadingInDegrees = new double[capacity];
+            degreesBoatToTheWind = new double[capacity];
+            detailValue = new double[capacity];
+            tackOrdinal = new byte[capacity];
+            legTypeOrdinal = new byte[capacity];
+        }
+
+        private boolean isExpired(long now, long maxFrameAgeInMillis) {
+            return now - computedAtMillis > maxFrameAgeInMillis;
+        }
+
+        private void add(GPSFixDTOWithSpeedWindTackAndLegType dto) {
+            timeMillis[size] = dto.timepoint.getTime();
+            latDeg[size] = dto.position.getLatDeg();
+            lngDeg[size] = dto.position.getLngDeg();
+            speedInKnots[size] = dto.speedWithBearing == null ? Double.NaN : dto.speedWithBearing.speedInKnots;
+            bearingInDegrees[size] = dto.speedWithBearing == null ? Double.NaN : dto.speedWithBearing.bearingInDegrees;
+            trueHeadingInDegrees[size] = dto.optionalTrueHeading == null ? Double.NaN : dto.optionalTrueHeading.getDegrees();
+            degreesBoatToTheWind[size] = dto.degreesBoatToTheWind == null ? Double.NaN : dto.degreesBoatToTheWind;
+            detailValue[size] = dto.detailValue == null ? Double.NaN : dto.detailValue;
+            tackOrdinal[size] = (byte) (dto.tack == null ? -1 : dto.tack.ordinal());
+            legTypeOrdinal[size] = (byte) (dto.legType == null ? -1 : dto.legType.ordinal());
+            size++;
+        }
+
+        private GPSFixDTOWithSpeedWindTackAndLegType get(int i) {
+            return new GPSFixDTOWithSpeedWindTackAndLegType(new Date(timeMillis[i]), new DegreePosition(latDeg[i], lngDeg[i]),
+                    Double.isNaN(speedInKnots[i]) ? null : new SpeedWithBearingDTO(speedInKnots[i], bearingInDegrees[i]),
+                    Double.isNaN(trueHeadingInDegrees[i]) ? null : new DegreeBearingImpl(trueHeadingInDegrees[i]),
+                    toNullable(degreesBoatToTheWind[i]), tackOrdinal[i] == -1 ? null : Tack.values()[tackOrdinal[i]],
+                    legTypeOrdinal[i] == -1 ? null : LegType.values()[legTypeOrdinal[i]], /* extrapolated */ false,
+                    toNullable(detailValue[i]));
+        }
+
+        private static Double toNullable(double d) {
+            return Double.isNaN(d) ? null : d;
+        }
+
+        /**
+         * @return the index of the first fix at or after {@code timeMillis}
+         */
+        private int indexOf(long timeMillis) {
+            final int index = Arrays.binarySearch(this.timeMillis, 0, size, timeMillis);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    /**
+     * Iterates the fixes of a sequence of consecutive frames in the time range requested
+     */
+    private static class FrameIterator implements Iterator<GPSFixDTOWithSpeedWindTackAndLegType> {
+        private final Iterator<PositionFrame> frames;
+        private final long toMillis;
+        private final boolean toInclusive;
+        private PositionFrame frame;
+        private int index;
+
+        private FrameIterator(List<PositionFrame> frames, long fromMillis, long toMillis, boolean toInclusive) {
+            this.frames = frames.iterator();
+            this.toMillis = toMillis;
+            this.toInclusive = toInclusive;
+            if (this.frames.hasNext()) {
+                frame = this.frames.next();
+                index = frame.indexOf(fromMillis);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (frame != null && index >= frame.size) {
+                frame = frames.hasNext() ? frames.next() : null;
+                index = 0;
+            }
+            return frame != null && (frame.timeMillis[index] < toMillis || (toInclusive && frame.timeMillis[index] == toMillis));
+        }
+
+        @Override
+        public GPSFixDTOWithSpeedWindTackAndLegType next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return frame.get(index++);
+        }
+    }
+}
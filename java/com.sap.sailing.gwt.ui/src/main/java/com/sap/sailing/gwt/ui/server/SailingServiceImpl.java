@@ -606,10 +606,13 @@ public class SailingServiceImpl extends ResultCachingProxiedRemoteServiceServlet
 
     private final QuickRanksLiveCache quickRanksLiveCache;
 
+    private final RaceMapPositionFrameCache raceMapPositionFrameCache;
+
     public SailingServiceImpl() {
         BundleContext context = Activator.getDefault();
         Activator activator = Activator.getInstance();
         quickRanksLiveCache = new QuickRanksLiveCache(this);
+        raceMapPositionFrameCache = new RaceMapPositionFrameCache(this);
         replicationServiceTracker = ServiceTrackerFactory.createAndOpen(context, ReplicationService.class);
         racingEventServiceTracker = FullyInitializedReplicableTracker.createAndOpen(context, RacingEventService.class);
         aiAgentTracker = ServiceTrackerFactory.createAndOpen(context,  AIAgent.class);
@@ -1940,6 +1943,10 @@ public class SailingServiceImpl extends ResultCachingProxiedRemoteServiceServlet
                 .getBearing().getDegrees());
     }
 
+    public RaceMapPositionFrameCache getRaceMapPositionFrameCache() {
+        return raceMapPositionFrameCache;
+    }
+
     public GPSFixDTOWithSpeedWindTackAndLegType createGPSFixDTO(GPSFix fix, SpeedWithBearing speedWithBearing,
             Bearing optionalTrueHeading, WindDTO windDTO, Tack tack, LegType legType, boolean extrapolated, Double detailValue) {
         return new GPSFixDTOWithSpeedWindTackAndLegType(fix.getTimePoint().asDate(), fix.getPosition()==null?null:fix.getPosition(),
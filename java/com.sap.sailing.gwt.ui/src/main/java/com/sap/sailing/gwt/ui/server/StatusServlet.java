@@ -66,6 +66,9 @@ public class StatusServlet extends HttpServlet {
             result.put("numberofracesrestoreddoneloading", numberOfTrackedRacesRestoredDoneLoading);
             final int numberOfTrackedRacesStillLoading = service.getNumberOfTrackedRacesStillLoading();
             result.put("numberofracesstillloading", numberOfTrackedRacesStillLoading);
+            result.put("numberofracespendingrestore", service.getNumberOfTrackedRacesPendingRestore());
+            result.put("numberofracesrestoring", service.getNumberOfTrackedRacesRestoring());
+            result.put("numberofracesfailedtorestore", service.getNumberOfTrackedRacesFailedToRestore());
             result.put("mongoDbConfiguration", getMongoDBReplicaSetNodes());
             final ReplicationService replicationService = getReplicationService(servletContext);
             final ReplicationStatus replicationStatus = replicationService == null ? null : replicationService.getStatus();
@@ -1,21 +1,15 @@
 package com.sap.sailing.gwt.ui.shared;
 
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
-import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import org.apache.commons.math.FunctionEvaluationException;
-import org.apache.commons.math.MaxIterationsExceededException;
-
 import com.google.gwt.core.shared.GwtIncompatible;
 import com.google.gwt.user.client.rpc.IsSerializable;
 import com.google.gwt.user.client.rpc.core.com.sap.sailing.gwt.ui.shared.GPSFixDTOWithSpeedWindTackAndLegTypeIterable_CustomFieldSerializer;
@@ -28,14 +22,12 @@ import com.sap.sailing.domain.common.Position;
 import com.sap.sailing.domain.common.SpeedWithBearing;
 import com.sap.sailing.domain.common.Tack;
 import com.sap.sailing.domain.common.Wind;
-import com.sap.sailing.domain.common.polars.NotEnoughDataHasBeenAddedException;
 import com.sap.sailing.domain.common.tracking.GPSFixMoving;
 import com.sap.sailing.domain.common.tracking.impl.GPSFixMovingImpl;
-import com.sap.sailing.domain.leaderboard.caching.LeaderboardDTOCalculationReuseCache;
 import com.sap.sailing.domain.tracking.GPSFixTrack;
 import com.sap.sailing.domain.tracking.TrackedLegOfCompetitor;
 import com.sap.sailing.domain.tracking.TrackedRace;
-import com.sap.sailing.domain.tracking.WindLegTypeAndLegBearingAndORCPerformanceCurveCache;
+import com.sap.sailing.gwt.ui.server.RaceMapPositionFrameCache;
 import com.sap.sailing.gwt.ui.server.SailingServiceImpl;
 import com.sap.sse.common.TimePoint;
 import com.sap.sse.common.Util;
@@ -176,42 +168,27 @@ public class GPSFixDTOWithSpeedWindTackAndLegTypeIterable implements IsSerializa
     
     /**
      * Assuming that this iterable is in "proxy" state ({@link GPSFixDTOWithSpeedWindTackAndLegTypeIterable#list} being {@code null}),
-     * computes the fixes on the fly based on the proxy parameters.
+     * obtains the fixes from the {@link RaceMapPositionFrameCache} which shares them with all other clients requesting
+     * the same competitor's fixes, and computes an extrapolated fix on the fly if requested.
      * 
      * @author Axel Uhl (d043530)
      */
     @GwtIncompatible
     private class ProxyIterator implements Iterator<GPSFixDTOWithSpeedWindTackAndLegType> {
-        private final Iterator<GPSFixMoving> fixIter;
-        private final Set<GPSFixMoving> extrapolatedFixes;
+        private final Iterator<GPSFixDTOWithSpeedWindTackAndLegType> fixIter;
         private final Map<Pair<Leg, TimePoint>, LegType> legTypeCache;
-        private final ConcurrentHashMap<TimePoint, WindLegTypeAndLegBearingAndORCPerformanceCurveCache> cachesByTimePoint;
-        private GPSFixMoving lastFix;
-        private GPSFixMoving fix;
+        private GPSFixDTOWithSpeedWindTackAndLegType lastFix;
+        private GPSFixDTOWithSpeedWindTackAndLegType fix;
         
         ProxyIterator() {
             legTypeCache = new HashMap<>();
-            cachesByTimePoint = new ConcurrentHashMap<>();
-            // copy the fixes into a list while holding the monitor; then release the monitor to avoid deadlocks
-            // during wind estimations required for tack determination
-            List<GPSFixMoving> fixes = new ArrayList<GPSFixMoving>();
-            track.lockForRead();
-            try {
-                Iterator<GPSFixMoving> fixIter = track.getFixesIterator(fromTimePoint, /* inclusive */true);
-                while (fixIter.hasNext()) {
-                    GPSFixMoving fix = fixIter.next();
-                    if (fix.getTimePoint().before(toTimePointExcluding) ||
-                            (extrapolate && fix.getTimePoint().equals(toTimePointExcluding))) {
-                        logger.finest(()->""+competitor.getName()+": " + fix);
-                        fixes.add(fix);
-                    } else {
-                        break;
-                    }
-                }
-            } finally {
-                track.unlockAfterRead();
-            }
-            if (fixes.isEmpty()) {
+            final RaceMapPositionFrameCache frameCache = sailingService.getRaceMapPositionFrameCache();
+            final Iterator<GPSFixDTOWithSpeedWindTackAndLegType> cachedFixIter = frameCache.getFixes(trackedRace,
+                    competitor, detailType, leaderboardName, leaderboardGroupName, leaderboardGroupId, fromTimePoint,
+                    toTimePointExcluding, /* toInclusive */ extrapolate);
+            if (cachedFixIter.hasNext()) {
+                fixIter = cachedFixIter;
+            } else {
                 // then there was no (smoothened) fix between fromTimePoint and toTimePointExcluding; estimate...
                 TimePoint middle = new MillisecondsTimePoint((toTimePointExcluding.asMillis()+fromTimePoint.asMillis())/2);
                 Position estimatedPosition = track.getEstimatedPosition(middle, extrapolate);
@@ -221,15 +198,13 @@ public class GPSFixDTOWithSpeedWindTackAndLegTypeIterable implements IsSerializa
                     if (logger.getLevel() != null && logger.getLevel().equals(Level.FINEST)) {
                         logger.finest(""+competitor.getName()+": " + estimatedFix+" (estimated)");
                     }
-                    fixes.add(estimatedFix);
-                    extrapolatedFixes = Collections.singleton(estimatedFix);
+                    fixIter = Collections.singleton(frameCache.createFixDTO(trackedRace, competitor, track,
+                            estimatedFix, detailType, leaderboardName, leaderboardGroupName, leaderboardGroupId,
+                            legTypeCache, /* extrapolated */ true)).iterator();
                 } else {
-                    extrapolatedFixes = Collections.emptySet();
+                    fixIter = Collections.emptyIterator();
                 }
-            } else {
-                extrapolatedFixes = Collections.emptySet();
             }
-            fixIter = fixes.iterator();
             if (fixIter.hasNext()) {
                 fix = fixIter.next();
             } else {
@@ -239,8 +214,8 @@ public class GPSFixDTOWithSpeedWindTackAndLegTypeIterable implements IsSerializa
         
         @Override
         public boolean hasNext() {
-            return (fix != null && (fix.getTimePoint().before(toTimePointExcluding) ||
-                    (fix.getTimePoint().equals(toTimePointExcluding) && toTimePointExcluding.equals(fromTimePoint))))
+            return (fix != null && (fix.timepoint.getTime() < toTimePointExcluding.asMillis() ||
+                    (fix.timepoint.getTime() == toTimePointExcluding.asMillis() && toTimePointExcluding.equals(fromTimePoint))))
                 || isExtrapolate();
         }
 
@@ -248,48 +223,10 @@ public class GPSFixDTOWithSpeedWindTackAndLegTypeIterable implements IsSerializa
         public GPSFixDTOWithSpeedWindTackAndLegType next() {
             final GPSFixDTOWithSpeedWindTackAndLegType result;
             if (fix != null) {
-                final Wind wind = trackedRace.getWind(fix.getPosition(), fix.getTimePoint());
-                final SpeedWithBearing estimatedSpeed = track.getEstimatedSpeed(fix.getTimePoint());
-                Tack tack = wind == null? null : trackedRace.getTack(estimatedSpeed, wind, fix.getTimePoint());
-                final TrackedLegOfCompetitor trackedLegOfCompetitor = trackedRace.getTrackedLeg(competitor,
-                        fix.getTimePoint());
-                LegType legType;
-                if (trackedLegOfCompetitor != null && trackedLegOfCompetitor.getLeg() != null) {
-                    TimePoint quantifiedTimePoint = quantifyTimePointWithResolution(fix.getTimePoint(), /* resolutionInMilliseconds */60000);
-                    Pair<Leg, TimePoint> cacheKey = new Pair<Leg, TimePoint>(trackedLegOfCompetitor.getLeg(), quantifiedTimePoint);
-                    legType = legTypeCache.get(cacheKey);
-                    if (legType == null) {
-                        try {
-                            legType = trackedRace.getTrackedLeg(trackedLegOfCompetitor.getLeg()).getLegType(fix.getTimePoint());
-                            legTypeCache.put(cacheKey, legType);
-                        } catch (NoWindException nwe) {
-                            // without wind, leave the leg type null, meaning "unknown"
-                            legType = null;
-                        }
-                    }
-                } else {
-                    legType = null;
-                }
-                WindDTO windDTO = wind == null ? null : sailingService.createWindDTOFromAlreadyAveraged(wind, toTimePointExcluding);
-                Double detailValue = null;
-                if (detailType != null) {
-                    MillisecondsTimePoint time = new MillisecondsTimePoint(fix.getTimePoint().asMillis());
-                    WindLegTypeAndLegBearingAndORCPerformanceCurveCache cache = cachesByTimePoint.get(time);
-                    if (cache == null) {
-                        cache = new LeaderboardDTOCalculationReuseCache(time);
-                        cachesByTimePoint.put(time, cache);
-                    }
-                    try {
-                        detailValue = sailingService.getCompetitorRaceDataEntry(detailType, trackedRace, competitor,
-                                fix.getTimePoint(), leaderboardGroupName, leaderboardGroupId, leaderboardName, cache);
-                    } catch (NoWindException | NotEnoughDataHasBeenAddedException | MaxIterationsExceededException | FunctionEvaluationException nwe) {
-                        detailValue = null;
-                    }
-                }
-                result = sailingService.createGPSFixDTO(fix, estimatedSpeed, fix.getOptionalTrueHeading(), windDTO,
-                        tack, legType, /* extrapolate */ extrapolatedFixes.contains(fix), detailValue);
+                result = fix;
             } else if (isExtrapolate()) {
-                final TrackedLegOfCompetitor trackedLegOfCompetitor = trackedRace.getTrackedLeg(competitor, lastFix.getTimePoint());
+                final TimePoint lastFixTimePoint = new MillisecondsTimePoint(lastFix.timepoint);
+                final TrackedLegOfCompetitor trackedLegOfCompetitor = trackedRace.getTrackedLeg(competitor, lastFixTimePoint);
                 Position position = track.getEstimatedPosition(toTimePointExcluding, extrapolate);
                 Wind wind2 = trackedRace.getWind(position, toTimePointExcluding);
                 SpeedWithBearing estimatedSpeed2 = track.getEstimatedSpeed(toTimePointExcluding);
@@ -297,14 +234,14 @@ public class GPSFixDTOWithSpeedWindTackAndLegTypeIterable implements IsSerializa
                 LegType legType2;
                 if (trackedLegOfCompetitor != null && trackedLegOfCompetitor.getLeg() != null) {
                     TimePoint quantifiedTimePoint = quantifyTimePointWithResolution(
-                            lastFix.getTimePoint(), /* resolutionInMilliseconds */
+                            lastFixTimePoint, /* resolutionInMilliseconds */
                             60000);
                     Pair<Leg, TimePoint> cacheKey = new Pair<Leg, TimePoint>(
                             trackedLegOfCompetitor.getLeg(), quantifiedTimePoint);
                     legType2 = legTypeCache.get(cacheKey);
                     if (legType2 == null) {
                         try {
-                            legType2 = trackedRace.getTrackedLeg(trackedLegOfCompetitor.getLeg()).getLegType(lastFix.getTimePoint());
+                            legType2 = trackedRace.getTrackedLeg(trackedLegOfCompetitor.getLeg()).getLegType(lastFixTimePoint);
                             legTypeCache.put(cacheKey, legType2);
                         } catch (NoWindException nwe) {
                             // no wind information; leave leg type null, meaning "unknown"
@@ -332,7 +269,7 @@ public class GPSFixDTOWithSpeedWindTackAndLegTypeIterable implements IsSerializa
         }
         
         private boolean isExtrapolate() {
-            return lastFix != null && !lastFix.getTimePoint().equals(toTimePointExcluding) && extrapolate;
+            return lastFix != null && lastFix.timepoint.getTime() != toTimePointExcluding.asMillis() && extrapolate;
         }
     }
 
@@ -0,0 +1,85 @@
+package com.sap.sailing.server.gateway.serialization.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.base.RaceDefinition;
+import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sailing.server.gateway.serialization.impl.AbstractTrackedRaceDataJsonSerializer;
+import com.sap.sailing.server.gateway.serialization.impl.CompetitorTrackWithEstimationDataJsonSerializer;
+import com.sap.sse.security.SecurityService;
+import com.sap.sse.security.shared.impl.SecuredSecurityTypes;
+import com.sap.sse.shared.json.JsonStreamWriter;
+
+public class CompetitorTrackWithEstimationDataJsonSerializerTest {
+    private SecurityService securityService;
+    private TrackedRace trackedRace;
+    private Competitor readable;
+    private Competitor notReadable;
+    private CompetitorTrackWithEstimationDataJsonSerializer serializer;
+
+    private void whenReadPermissionCheckedFor(Competitor competitor, Boolean result) {
+        when(securityService.hasCurrentUserOneOfExplicitPermissions(competitor,
+                SecuredSecurityTypes.PublicReadableActions.READ_AND_READ_PUBLIC_ACTIONS)).thenReturn(result);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        securityService = mock(SecurityService.class);
+        trackedRace = mock(TrackedRace.class);
+        final RaceDefinition race = mock(RaceDefinition.class);
+        readable = mock(Competitor.class);
+        notReadable = mock(Competitor.class);
+        when(trackedRace.getRace()).thenReturn(race);
+        when(race.getCompetitors()).thenReturn(Arrays.asList(notReadable, readable));
+        when(trackedRace.getWindSources()).thenReturn(Collections.emptySet());
+        whenReadPermissionCheckedFor(readable, true);
+        whenReadPermissionCheckedFor(notReadable, false);
+        serializer = new CompetitorTrackWithEstimationDataJsonSerializer(/* polarDataService */ null, securityService,
+                /* boatClassJsonSerializer */ null, /* elementsJsonSerializer */ null, null, null, null, null);
+    }
+
+    @Test
+    public void testOnlyReadableCompetitorsAreSerialized() {
+        assertEquals(Collections.singletonList(readable), serializer.getCompetitorsReadableByCurrentUser(trackedRace));
+    }
+
+    @Test
+    public void testStreamingWithoutReadableCompetitors() throws IOException {
+        final StringWriter out = new StringWriter();
+        final JsonStreamWriter writer = new JsonStreamWriter(out);
+        serializer.serialize(trackedRace, Collections.emptyList(), writer);
+        writer.flush();
+        final JSONObject result = (JSONObject) JSONValue.parse(out.toString());
+        assertEquals(0, ((JSONArray) result.get(AbstractTrackedRaceDataJsonSerializer.BYCOMPETITOR)).size());
+    }
+
+    /**
+     * A permission check failing for any competitor must fail before anything has been written, so that the failure
+     * can still be reported with the proper response status instead of truncating a successful response
+     */
+    @Test
+    public void testPermissionFailureBeforeFirstToken() {
+        when(securityService.hasCurrentUserOneOfExplicitPermissions(readable,
+                SecuredSecurityTypes.PublicReadableActions.READ_AND_READ_PUBLIC_ACTIONS))
+                .thenThrow(new IllegalStateException("permission check failure for test"));
+        final StringWriter out = new StringWriter();
+        final JsonStreamWriter writer = new JsonStreamWriter(out);
+        assertThrows(IllegalStateException.class, () -> serializer.serialize(trackedRace, writer));
+        assertEquals("", out.toString());
+    }
+}
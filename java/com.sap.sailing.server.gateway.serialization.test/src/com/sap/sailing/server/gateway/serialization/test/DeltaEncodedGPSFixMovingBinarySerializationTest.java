@@ -0,0 +1,106 @@
+package com.sap.sailing.server.gateway.serialization.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixMovingImpl;
+import com.sap.sailing.server.gateway.deserialization.impl.DeltaEncodedGPSFixMovingBinaryDeserializer;
+import com.sap.sailing.server.gateway.serialization.impl.DeltaEncodedGPSFixMovingBinarySerializer;
+import com.sap.sse.common.Util.Pair;
+
+public class DeltaEncodedGPSFixMovingBinarySerializationTest {
+    private static final UUID DEVICE_1 = UUID.fromString("af855a56-9726-4a9c-a77e-da955bd289bf");
+    private static final UUID DEVICE_2 = UUID.fromString("0d1b2c3d-4e5f-6071-8293-a4b5c6d7e8f9");
+
+    private static List<GPSFixMoving> createFixes(int count, double startLatDeg, double startLonDeg) {
+        final List<GPSFixMoving> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(GPSFixMovingImpl.create(startLonDeg + i * 0.00001234, startLatDeg - i * 0.0000071, 1414416008000l + i * 1000,
+                    /* speedInKnots */ 5.5 + (i % 10) * 0.1, /* bearingDeg */ (i * 7.31) % 360, i % 2 == 0 ? null : (i * 3.17) % 360));
+        }
+        return result;
+    }
+
+    private static void assertFixesEqual(List<GPSFixMoving> expected, List<GPSFixMoving> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            final GPSFixMoving e = expected.get(i);
+            final GPSFixMoving a = actual.get(i);
+            assertEquals(e.getTimePoint(), a.getTimePoint());
+            assertEquals(e.getPosition().getLatDeg(), a.getPosition().getLatDeg(), 1E-7);
+            assertEquals(e.getPosition().getLngDeg(), a.getPosition().getLngDeg(), 1E-7);
+            assertEquals(e.getSpeed().getKnots(), a.getSpeed().getKnots(), 0.002);
+            assertEquals(e.getSpeed().getBearing().getDegrees(), a.getSpeed().getBearing().getDegrees(), 0.01);
+            if (e.getOptionalTrueHeading() == null) {
+                assertNull(a.getOptionalTrueHeading());
+            } else {
+                assertEquals(e.getOptionalTrueHeading().getDegrees(), a.getOptionalTrueHeading().getDegrees(), 0.01);
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTripForSeveralDevices() throws IOException {
+        final List<GPSFixMoving> fixes1 = createFixes(1000, 54.325246, 10.148556);
+        final List<GPSFixMoving> fixes2 = createFixes(3, -67.672456, -2.03456);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final DeltaEncodedGPSFixMovingBinarySerializer serializer = new DeltaEncodedGPSFixMovingBinarySerializer(bos);
+        serializer.writeDeviceBlock(DEVICE_1, fixes1);
+        serializer.writeDeviceBlock(DEVICE_2, fixes2);
+        serializer.writeDeviceBlock(DEVICE_2, new ArrayList<>());
+        // deltas of consecutive fixes take roughly a dozen bytes per fix
+        assertTrue(bos.size() < 15 * 1003, "" + bos.size());
+        final DeltaEncodedGPSFixMovingBinaryDeserializer deserializer = new DeltaEncodedGPSFixMovingBinaryDeserializer(
+                new ByteArrayInputStream(bos.toByteArray()));
+        final Pair<UUID, List<GPSFixMoving>> block1 = deserializer.readNextDeviceBlock();
+        assertEquals(DEVICE_1, block1.getA());
+        assertFixesEqual(fixes1, block1.getB());
+        final Pair<UUID, List<GPSFixMoving>> block2 = deserializer.readNextDeviceBlock();
+        assertEquals(DEVICE_2, block2.getA());
+        assertFixesEqual(fixes2, block2.getB());
+        final Pair<UUID, List<GPSFixMoving>> block3 = deserializer.readNextDeviceBlock();
+        assertEquals(DEVICE_2, block3.getA());
+        assertTrue(block3.getB().isEmpty());
+        assertNull(deserializer.readNextDeviceBlock());
+    }
+
+    @Test
+    public void testNegativeBearingsAreNormalized() throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final DeltaEncodedGPSFixMovingBinarySerializer serializer = new DeltaEncodedGPSFixMovingBinarySerializer(bos);
+        serializer.startDeviceBlock(DEVICE_1, 1);
+        serializer.writeFix(1000, 1, 2, 3, -10, -20.0);
+        final GPSFixMoving fix = new DeltaEncodedGPSFixMovingBinaryDeserializer(new ByteArrayInputStream(bos.toByteArray()))
+                .readNextDeviceBlock().getB().get(0);
+        assertEquals(350, fix.getSpeed().getBearing().getDegrees(), 0.000001);
+        assertEquals(340, fix.getOptionalTrueHeading().getDegrees(), 0.000001);
+    }
+
+    @Test
+    public void testMalformedStreams() throws IOException {
+        assertThrows(StreamCorruptedException.class, () -> new DeltaEncodedGPSFixMovingBinaryDeserializer(
+                new ByteArrayInputStream(new byte[0])).readNextDeviceBlock());
+        assertThrows(StreamCorruptedException.class, () -> new DeltaEncodedGPSFixMovingBinaryDeserializer(
+                new ByteArrayInputStream(new byte[] { 42 })).readNextDeviceBlock());
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        new DeltaEncodedGPSFixMovingBinarySerializer(bos).writeDeviceBlock(DEVICE_1, createFixes(10, 0, 0));
+        final byte[] truncated = Arrays.copyOf(bos.toByteArray(), bos.size() - 1);
+        assertThrows(EOFException.class, () -> new DeltaEncodedGPSFixMovingBinaryDeserializer(
+                new ByteArrayInputStream(truncated)).readNextDeviceBlock());
+    }
+}
@@ -0,0 +1,142 @@
+package com.sap.sailing.server.gateway.deserialization.impl;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import com.sap.sailing.domain.common.impl.MeterPerSecondSpeedImpl;
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixMovingImpl;
+import com.sap.sailing.server.gateway.serialization.impl.DeltaEncodedGPSFixMovingBinarySerializer;
+import com.sap.sse.common.Util.Pair;
+
+/**
+ * Reads GPS fixes for smartphone UUID-identified devices from a compact binary stream, as a high-volume alternative to
+ * the JSON documents read by {@link FlatSmartphoneUuidAndGPSFixMovingJsonDeserializer}. The bytes are decoded directly
+ * from the {@link InputStream} without materializing any intermediate strings. The stream is written by
+ * {@link DeltaEncodedGPSFixMovingBinarySerializer} and has the following structure:
+ *
+ * <pre>
+ * stream       := version:byte deviceBlock*
+ * deviceBlock  := uuidMostSignificantBits:int64 uuidLeastSignificantBits:int64 numberOfFixes:varint fix{numberOfFixes}
+ * fix          := timeMillisDelta:zigzag latE7Delta:zigzag lonE7Delta:zigzag speedMillimetersPerSecond:varint
+ *                 courseCentiDegrees:varint trueHeadingCentiDegreesPlusOne:varint
+ * </pre>
+ *
+ * {@code int64} values are big-endian. A {@code varint} is an unsigned integer of up to 64 bits, written in groups of
+ * seven bits, least significant group first, with the most significant bit of each byte telling whether another byte
+ * follows. A {@code zigzag} is a signed integer mapped to a {@code varint} such that small absolute values use few
+ * bytes. Time points are in milliseconds since the epoch, positions in 10<sup>-7</sup> degrees; time points and positions
+ * are encoded as the difference to those of the previous fix of the same device block, starting at {@code 0}. A true
+ * heading of {@code 0} means that the fix has no true heading.
+ * <p>
+ *
+ * A device block's {@link #readNextDeviceBlock() fixes} are returned as one list so that they can be stored in one
+ * batch. Instances are not thread-safe.
+ */
+public class DeltaEncodedGPSFixMovingBinaryDeserializer {
+    public static final byte VERSION = 1;
+
+    public static final double LAT_LON_FACTOR = 1E7;
+
+    public static final double SPEED_FACTOR = 1000;
+
+    public static final double BEARING_FACTOR = 100;
+
+    /**
+     * Limits the list pre-allocated for a device block whose number of fixes is announced by the stream
+     */
+    private static final int MAX_INITIAL_CAPACITY = 10000;
+
+    private final InputStream in;
+
+    private boolean versionRead;
+
+    public DeltaEncodedGPSFixMovingBinaryDeserializer(InputStream in) {
+        this.in = in instanceof BufferedInputStream ? in : new BufferedInputStream(in);
+    }
+
+    /**
+     * @return the next device's UUID and fixes, or {@code null} if the stream has ended
+     * @throws StreamCorruptedException
+     *             if the stream was written using an unsupported version or is otherwise malformed
+     * @throws EOFException
+     *             if the stream ended in the middle of a device block
+     */
+    public Pair<UUID, List<GPSFixMoving>> readNextDeviceBlock() throws IOException {
+        if (!versionRead) {
+            final int version = in.read();
+            if (version != VERSION) {
+                throw new StreamCorruptedException(version == -1 ? "Empty stream" : "Unsupported version " + version);
+            }
+            versionRead = true;
+        }
+        final int firstByte = in.read();
+        if (firstByte == -1) {
+            return null;
+        }
+        final long mostSignificantBits = ((long) firstByte << 56) | readInt64Remaining7Bytes();
+        final UUID device = new UUID(mostSignificantBits, readInt64());
+        final long numberOfFixes = readVarint();
+        if (numberOfFixes < 0 || numberOfFixes > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("Invalid number of fixes " + numberOfFixes + " for device " + device);
+        }
+        final List<GPSFixMoving> fixes = new ArrayList<>((int) Math.min(numberOfFixes, MAX_INITIAL_CAPACITY));
+        long timeMillis = 0;
+        long latE7 = 0;
+        long lonE7 = 0;
+        for (long i = 0; i < numberOfFixes; i++) {
+            timeMillis += readZigzag();
+            latE7 += readZigzag();
+            lonE7 += readZigzag();
+            final double speedInKnots = new MeterPerSecondSpeedImpl(readVarint() / SPEED_FACTOR).getKnots();
+            final double courseDeg = readVarint() / BEARING_FACTOR;
+            final long trueHeadingPlusOne = readVarint();
+            fixes.add(GPSFixMovingImpl.create(lonE7 / LAT_LON_FACTOR, latE7 / LAT_LON_FACTOR, timeMillis, speedInKnots,
+                    courseDeg, trueHeadingPlusOne == 0 ? null : (trueHeadingPlusOne - 1) / BEARING_FACTOR));
+        }
+        return new Pair<>(device, fixes);
+    }
+
+    private int readByte() throws IOException {
+        final int result = in.read();
+        if (result == -1) {
+            throw new EOFException("Stream ended in the middle of a device block");
+        }
+        return result;
+    }
+
+    private long readInt64() throws IOException {
+        return ((long) readByte() << 56) | readInt64Remaining7Bytes();
+    }
+
+    private long readInt64Remaining7Bytes() throws IOException {
+        long result = 0;
+        for (int i = 0; i < 7; i++) {
+            result = (result << 8) | readByte();
+        }
+        return result;
+    }
+
+    private long readVarint() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new StreamCorruptedException("Variable-length integer exceeds 64 bits");
+    }
+
+    private long readZigzag() throws IOException {
+        final long zigzag = readVarint();
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -1,11 +1,14 @@
 package com.sap.sailing.server.gateway.serialization.impl;
 
+import java.io.IOException;
+
 import org.json.simple.JSONArray;
 
 import com.sap.sailing.domain.base.Competitor;
 import com.sap.sailing.domain.maneuverdetection.TrackTimeInfo;
 import com.sap.sailing.domain.tracking.TrackedRace;
 import com.sap.sse.common.TimePoint;
+import com.sap.sse.shared.json.JsonStreamWriter;
 
 /**
  * 
@@ -17,4 +20,13 @@ public interface CompetitorTrackElementsJsonSerializer {
     JSONArray serialize(TrackedRace trackedRace, Competitor competitor, TimePoint from, TimePoint to,
             TrackTimeInfo trackTimeInfo);
 
+    /**
+     * Writes the same array that {@link #serialize(TrackedRace, Competitor, TimePoint, TimePoint, TrackTimeInfo)}
+     * returns. Implementations with many elements per competitor should override this to write element by element.
+     */
+    default void serialize(TrackedRace trackedRace, Competitor competitor, TimePoint from, TimePoint to,
+            TrackTimeInfo trackTimeInfo, JsonStreamWriter writer) throws IOException {
+        writer.value(serialize(trackedRace, competitor, from, to, trackTimeInfo));
+    }
+
 }
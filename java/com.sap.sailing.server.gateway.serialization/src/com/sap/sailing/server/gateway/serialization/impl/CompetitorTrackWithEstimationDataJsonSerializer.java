@@ -1,5 +1,9 @@
 package com.sap.sailing.server.gateway.serialization.impl;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.NavigableSet;
 
 import org.json.simple.JSONArray;
@@ -23,13 +27,16 @@ import com.sap.sse.common.Util;
 import com.sap.sse.common.impl.MillisecondsDurationImpl;
 import com.sap.sse.security.SecurityService;
 import com.sap.sse.security.shared.impl.SecuredSecurityTypes;
+import com.sap.sse.shared.json.JsonStreamWriter;
+import com.sap.sse.shared.json.StreamingJsonSerializer;
 
 /**
  * 
  * @author Vladislav Chumak (D069712)
  *
  */
-public class CompetitorTrackWithEstimationDataJsonSerializer extends AbstractTrackedRaceDataJsonSerializer {
+public class CompetitorTrackWithEstimationDataJsonSerializer extends AbstractTrackedRaceDataJsonSerializer
+        implements StreamingJsonSerializer<TrackedRace> {
     public static final String ELEMENTS = "elements";
     public static final String BOAT_CLASS = "boatClass";
     public static final String COMPETITOR_NAME = "competitorName";
@@ -70,6 +77,77 @@ public class CompetitorTrackWithEstimationDataJsonSerializer extends AbstractTra
     public JSONObject serialize(TrackedRace trackedRace) {
         final JSONObject result = new JSONObject();
         JSONArray byCompetitorJson = new JSONArray();
+        result.put(WIND_QUALITY, getWindQuality(trackedRace));
+        result.put(BYCOMPETITOR, byCompetitorJson);
+        for (Competitor competitor : getCompetitorsReadableByCurrentUser(trackedRace)) {
+            ManeuverDetectorImpl maneuverDetector = new ManeuverDetectorImpl(trackedRace, competitor);
+            TrackTimeInfo trackTimeInfo = maneuverDetector.getTrackTimeInfo();
+            if (trackTimeInfo != null) {
+                final JSONObject forCompetitorJson = serializeCompetitorWithoutElements(trackedRace, competitor, trackTimeInfo);
+                byCompetitorJson.add(forCompetitorJson);
+                forCompetitorJson.put(ELEMENTS, elementsJsonSerializer.serialize(trackedRace, competitor,
+                        getFrom(trackTimeInfo), getTo(trackTimeInfo), trackTimeInfo));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks the current user's permissions for all competitors of the race. Callers that stream the response should
+     * do this before the response status is sent, so that a permission problem can still be reported as such, and pass
+     * the result to {@link #serialize(TrackedRace, Iterable, JsonStreamWriter)}.
+     *
+     * @return the competitors of the race that the current user may read
+     */
+    public List<Competitor> getCompetitorsReadableByCurrentUser(TrackedRace trackedRace) {
+        final List<Competitor> result = new ArrayList<>();
+        for (Competitor competitor : trackedRace.getRace().getCompetitors()) {
+            if (securityService.hasCurrentUserOneOfExplicitPermissions(competitor,
+                    SecuredSecurityTypes.PublicReadableActions.READ_AND_READ_PUBLIC_ACTIONS)) {
+                result.add(competitor);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Produces the same document as {@link #serialize(TrackedRace)}, letting the {@link CompetitorTrackElementsJsonSerializer}
+     * stream the elements of each competitor. The permissions are checked for all competitors before the first token
+     * is written.
+     */
+    @Override
+    public void serialize(TrackedRace trackedRace, JsonStreamWriter writer) throws IOException {
+        serialize(trackedRace, getCompetitorsReadableByCurrentUser(trackedRace), writer);
+    }
+
+    /**
+     * Like {@link #serialize(TrackedRace, JsonStreamWriter)}, but for the {@code competitors} as obtained earlier from
+     * {@link #getCompetitorsReadableByCurrentUser(TrackedRace)}; no permissions are checked while writing.
+     */
+    public void serialize(TrackedRace trackedRace, Iterable<Competitor> competitors, JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writer.field(WIND_QUALITY, getWindQuality(trackedRace));
+        writer.name(BYCOMPETITOR);
+        writer.beginArray();
+        for (Competitor competitor : competitors) {
+            ManeuverDetectorImpl maneuverDetector = new ManeuverDetectorImpl(trackedRace, competitor);
+            TrackTimeInfo trackTimeInfo = maneuverDetector.getTrackTimeInfo();
+            if (trackTimeInfo != null) {
+                writer.beginObject();
+                for (final Map.Entry<?, ?> e : serializeCompetitorWithoutElements(trackedRace, competitor, trackTimeInfo).entrySet()) {
+                    writer.field(e.getKey().toString(), e.getValue());
+                }
+                writer.name(ELEMENTS);
+                elementsJsonSerializer.serialize(trackedRace, competitor, getFrom(trackTimeInfo), getTo(trackTimeInfo),
+                        trackTimeInfo, writer);
+                writer.endObject();
+            }
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+
+    private int getWindQuality(TrackedRace trackedRace) {
         int windQuality = 0;
         for (WindSource windSource : trackedRace.getWindSources()) {
             if (windSource.getType() == WindSourceType.EXPEDITION) {
@@ -80,64 +158,63 @@ public class CompetitorTrackWithEstimationDataJsonSerializer extends AbstractTra
                 windQuality = 1;
             }
         }
-        result.put(WIND_QUALITY, windQuality);
-        result.put(BYCOMPETITOR, byCompetitorJson);
-        for (Competitor competitor : trackedRace.getRace().getCompetitors()) {
-            if (securityService.hasCurrentUserOneOfExplicitPermissions(competitor,
-                    SecuredSecurityTypes.PublicReadableActions.READ_AND_READ_PUBLIC_ACTIONS)) {
-                ManeuverDetectorImpl maneuverDetector = new ManeuverDetectorImpl(trackedRace, competitor);
-                TrackTimeInfo trackTimeInfo = maneuverDetector.getTrackTimeInfo();
-                if (trackTimeInfo != null) {
-                    TimePoint from = null;
-                    TimePoint to = null;
-                    if (startBeforeStartLineInSeconds != null) {
-                        from = trackTimeInfo.getTrackStartTimePoint()
-                                .minus(new MillisecondsDurationImpl(startBeforeStartLineInSeconds * 1000L));
-                    } else if (startAfterFinishLineInSeconds != null) {
-                        from = trackTimeInfo.getTrackEndTimePoint()
-                                .plus(new MillisecondsDurationImpl(startAfterFinishLineInSeconds * 1000L));
-                    } else {
-                        from = trackTimeInfo.getTrackStartTimePoint();
-                    }
-                    if (endAfterFinishLineInSeconds != null) {
-                        to = trackTimeInfo.getTrackEndTimePoint()
-                                .plus(new MillisecondsDurationImpl(endAfterFinishLineInSeconds * 1000L));
-                    } else if (endBeforeStartLineInSeconds != null) {
-                        to = trackTimeInfo.getTrackStartTimePoint()
-                                .minus(new MillisecondsDurationImpl(endBeforeStartLineInSeconds * 1000L));
-                    } else {
-                        to = trackTimeInfo.getTrackEndTimePoint();
-                    }
-                    final JSONObject forCompetitorJson = new JSONObject();
-                    byCompetitorJson.add(forCompetitorJson);
-                    forCompetitorJson.put(COMPETITOR_NAME, competitor.getName());
-                    forCompetitorJson.put(BOAT_CLASS, boatClassJsonSerializer
-                            .serialize(trackedRace.getRace().getBoatOfCompetitor(competitor).getBoatClass()));
-                    forCompetitorJson.put(FIXES_COUNT_FOR_POLARS, getFixesCountForPolars(trackedRace, competitor));
-                    Duration averageIntervalBetweenFixes = trackedRace.getTrack(competitor)
-                            .getAverageIntervalBetweenFixes();
-                    forCompetitorJson.put(AVG_INTERVAL_BETWEEN_FIXES_IN_SECONDS,
-                            averageIntervalBetweenFixes == null ? 0 : averageIntervalBetweenFixes.asSeconds());
-                    GPSFixTrack<Competitor, GPSFixMoving> track = trackedRace.getTrack(competitor);
-                    Double distanceTravelledInMeters = null;
-                    if (trackTimeInfo.getTrackStartTimePoint() != null
-                            && trackTimeInfo.getTrackEndTimePoint() != null) {
-                        distanceTravelledInMeters = track.getDistanceTraveled(trackTimeInfo.getTrackStartTimePoint(),
-                                trackTimeInfo.getTrackEndTimePoint()).getMeters();
-                    }
-                    forCompetitorJson.put(DISTANCE_TRAVELLED_IN_METERS, distanceTravelledInMeters);
-                    forCompetitorJson.put(START_TIME_POINT, trackTimeInfo.getTrackStartTimePoint() == null ? null
-                            : trackTimeInfo.getTrackStartTimePoint().asMillis());
-                    forCompetitorJson.put(END_TIME_POINT, trackTimeInfo.getTrackEndTimePoint() == null ? null
-                            : trackTimeInfo.getTrackEndTimePoint().asMillis());
-                    forCompetitorJson.put(MARK_PASSINGS_COUNT, getMarkPassingsCount(trackedRace, competitor));
-                    forCompetitorJson.put(WAYPOINTS_COUNT, getWaypointsCount(trackedRace));
-                    forCompetitorJson.put(ELEMENTS,
-                            elementsJsonSerializer.serialize(trackedRace, competitor, from, to, trackTimeInfo));
-                }
-            }
+        return windQuality;
+    }
+
+    private TimePoint getFrom(TrackTimeInfo trackTimeInfo) {
+        final TimePoint from;
+        if (startBeforeStartLineInSeconds != null) {
+            from = trackTimeInfo.getTrackStartTimePoint()
+                    .minus(new MillisecondsDurationImpl(startBeforeStartLineInSeconds * 1000L));
+        } else if (startAfterFinishLineInSeconds != null) {
+            from = trackTimeInfo.getTrackEndTimePoint()
+                    .plus(new MillisecondsDurationImpl(startAfterFinishLineInSeconds * 1000L));
+        } else {
+            from = trackTimeInfo.getTrackStartTimePoint();
         }
-        return result;
+        return from;
+    }
+
+    private TimePoint getTo(TrackTimeInfo trackTimeInfo) {
+        final TimePoint to;
+        if (endAfterFinishLineInSeconds != null) {
+            to = trackTimeInfo.getTrackEndTimePoint()
+                    .plus(new MillisecondsDurationImpl(endAfterFinishLineInSeconds * 1000L));
+        } else if (endBeforeStartLineInSeconds != null) {
+            to = trackTimeInfo.getTrackStartTimePoint()
+                    .minus(new MillisecondsDurationImpl(endBeforeStartLineInSeconds * 1000L));
+        } else {
+            to = trackTimeInfo.getTrackEndTimePoint();
+        }
+        return to;
+    }
+
+    private JSONObject serializeCompetitorWithoutElements(TrackedRace trackedRace, Competitor competitor,
+            TrackTimeInfo trackTimeInfo) {
+        final JSONObject forCompetitorJson = new JSONObject();
+        forCompetitorJson.put(COMPETITOR_NAME, competitor.getName());
+        forCompetitorJson.put(BOAT_CLASS, boatClassJsonSerializer
+                .serialize(trackedRace.getRace().getBoatOfCompetitor(competitor).getBoatClass()));
+        forCompetitorJson.put(FIXES_COUNT_FOR_POLARS, getFixesCountForPolars(trackedRace, competitor));
+        Duration averageIntervalBetweenFixes = trackedRace.getTrack(competitor)
+                .getAverageIntervalBetweenFixes();
+        forCompetitorJson.put(AVG_INTERVAL_BETWEEN_FIXES_IN_SECONDS,
+                averageIntervalBetweenFixes == null ? 0 : averageIntervalBetweenFixes.asSeconds());
+        GPSFixTrack<Competitor, GPSFixMoving> track = trackedRace.getTrack(competitor);
+        Double distanceTravelledInMeters = null;
+        if (trackTimeInfo.getTrackStartTimePoint() != null
+                && trackTimeInfo.getTrackEndTimePoint() != null) {
+            distanceTravelledInMeters = track.getDistanceTraveled(trackTimeInfo.getTrackStartTimePoint(),
+                    trackTimeInfo.getTrackEndTimePoint()).getMeters();
+        }
+        forCompetitorJson.put(DISTANCE_TRAVELLED_IN_METERS, distanceTravelledInMeters);
+        forCompetitorJson.put(START_TIME_POINT, trackTimeInfo.getTrackStartTimePoint() == null ? null
+                : trackTimeInfo.getTrackStartTimePoint().asMillis());
+        forCompetitorJson.put(END_TIME_POINT, trackTimeInfo.getTrackEndTimePoint() == null ? null
+                : trackTimeInfo.getTrackEndTimePoint().asMillis());
+        forCompetitorJson.put(MARK_PASSINGS_COUNT, getMarkPassingsCount(trackedRace, competitor));
+        forCompetitorJson.put(WAYPOINTS_COUNT, getWaypointsCount(trackedRace));
+        return forCompetitorJson;
     }
 
     private int getMarkPassingsCount(TrackedRace trackedRace, Competitor competitor) {
@@ -1,5 +1,6 @@
 package com.sap.sailing.server.gateway.serialization.impl;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 
@@ -8,9 +9,11 @@ import org.json.simple.JSONObject;
 
 import com.sap.sailing.domain.common.Wind;
 import com.sap.sailing.domain.common.WindSource;
+import com.sap.sailing.domain.shared.tracking.impl.ChunkedFixesIterator;
 import com.sap.sailing.domain.tracking.WindTrack;
 import com.sap.sse.common.TimePoint;
 import com.sap.sse.common.util.RoundingUtil;
+import com.sap.sse.shared.json.JsonStreamWriter;
 
 public class DefaultWindTrackJsonSerializer implements WindTrackJsonSerializer {
     public static final String FIELD_ID = "id";
@@ -46,29 +49,60 @@ public class DefaultWindTrackJsonSerializer implements WindTrackJsonSerializer {
             int count = 0;
             while ((maxNumberOfFixes == -1 || count<maxNumberOfFixes) && windIter.hasNext()) {
                 fixes.add(windIter.next());
+                count++;
             }
         } finally {
             windTrack.unlockAfterRead();
         }
         for (Wind wind : fixes) {
-            JSONObject jsonWind = new JSONObject();
-            jsonWind.put("trueBearing-deg", RoundingUtil.bearingDecimalFormatter.format(wind.getBearing().getDegrees()));
-            jsonWind.put("speed-kts", RoundingUtil.speedDecimalFormatter.format(wind.getKnots()));
-            jsonWind.put("speed-m/s", RoundingUtil.speedDecimalFormatter.format(wind.getMetersPerSecond()));
-            if (wind.getTimePoint() != null) {
-                jsonWind.put("timepoint-ms", wind.getTimePoint().asMillis());
-                final Wind averagedWind = windTrack.getAveragedWind(wind.getPosition(), wind.getTimePoint());
-                jsonWind.put("dampenedTrueBearing-deg", RoundingUtil.bearingDecimalFormatter.format(averagedWind.getBearing().getDegrees()));
-                jsonWind.put("dampenedSpeed-kts", RoundingUtil.speedDecimalFormatter.format(averagedWind.getKnots()));
-                jsonWind.put("dampenedSpeed-m/s", RoundingUtil.speedDecimalFormatter.format(averagedWind.getMetersPerSecond()));
-            }
-            if (wind.getPosition() != null) {
-                jsonWind.put("lat-deg", RoundingUtil.latLngDecimalFormatter.format(wind.getPosition().getLatDeg()));
-                jsonWind.put("lng-deg", RoundingUtil.latLngDecimalFormatter.format(wind.getPosition().getLngDeg()));
-            }
-            jsonWindFixes.add(jsonWind);
+            jsonWindFixes.add(serializeWind(windTrack, wind));
         }
-        result.put(windSource.getType() + (windSource.getId() != null ? "-"+windSource.getId().toString() : ""), jsonWindFixes);
+        result.put(getFieldName(), jsonWindFixes);
         return result;
     }
-}
\ No newline at end of file
+
+    /**
+     * Produces the same document as {@link #serialize(WindTrack)} without ever holding all fixes in memory. The track is
+     * read in chunks, holding the track's read lock only while copying a chunk.
+     */
+    @Override
+    public void serialize(WindTrack windTrack, JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name(getFieldName());
+        writer.beginArray();
+        final Iterator<Wind> windIter = new ChunkedFixesIterator<>(windTrack, /* raw */ false, fromTime,
+                /* fromInclusive */ true, toTime, /* toInclusive */ false,
+                maxNumberOfFixes == -1 ? ChunkedFixesIterator.DEFAULT_CHUNK_SIZE
+                        : Math.max(1, Math.min(maxNumberOfFixes, ChunkedFixesIterator.DEFAULT_CHUNK_SIZE)));
+        int count = 0;
+        while ((maxNumberOfFixes == -1 || count<maxNumberOfFixes) && windIter.hasNext()) {
+            writer.value(serializeWind(windTrack, windIter.next()));
+            count++;
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+
+    private String getFieldName() {
+        return windSource.getType() + (windSource.getId() != null ? "-"+windSource.getId().toString() : "");
+    }
+
+    private JSONObject serializeWind(final WindTrack windTrack, Wind wind) {
+        JSONObject jsonWind = new JSONObject();
+        jsonWind.put("trueBearing-deg", RoundingUtil.bearingDecimalFormatter.format(wind.getBearing().getDegrees()));
+        jsonWind.put("speed-kts", RoundingUtil.speedDecimalFormatter.format(wind.getKnots()));
+        jsonWind.put("speed-m/s", RoundingUtil.speedDecimalFormatter.format(wind.getMetersPerSecond()));
+        if (wind.getTimePoint() != null) {
+            jsonWind.put("timepoint-ms", wind.getTimePoint().asMillis());
+            final Wind averagedWind = windTrack.getAveragedWind(wind.getPosition(), wind.getTimePoint());
+            jsonWind.put("dampenedTrueBearing-deg", RoundingUtil.bearingDecimalFormatter.format(averagedWind.getBearing().getDegrees()));
+            jsonWind.put("dampenedSpeed-kts", RoundingUtil.speedDecimalFormatter.format(averagedWind.getKnots()));
+            jsonWind.put("dampenedSpeed-m/s", RoundingUtil.speedDecimalFormatter.format(averagedWind.getMetersPerSecond()));
+        }
+        if (wind.getPosition() != null) {
+            jsonWind.put("lat-deg", RoundingUtil.latLngDecimalFormatter.format(wind.getPosition().getLatDeg()));
+            jsonWind.put("lng-deg", RoundingUtil.latLngDecimalFormatter.format(wind.getPosition().getLngDeg()));
+        }
+        return jsonWind;
+    }
+}
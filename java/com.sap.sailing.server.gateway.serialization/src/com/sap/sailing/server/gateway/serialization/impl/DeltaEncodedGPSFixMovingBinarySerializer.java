@@ -0,0 +1,117 @@
+package com.sap.sailing.server.gateway.serialization.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.UUID;
+
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.server.gateway.deserialization.impl.DeltaEncodedGPSFixMovingBinaryDeserializer;
+import com.sap.sse.common.Bearing;
+
+/**
+ * Writes GPS fixes of smartphone UUID-identified devices in the binary format described and read by
+ * {@link DeltaEncodedGPSFixMovingBinaryDeserializer}. Only primitive values are required by
+ * {@link #writeFix(long, double, double, double, double, Double)}, so that clients not having any {@link GPSFixMoving}
+ * implementation at hand can easily port this class.
+ * <p>
+ *
+ * Usage: for each device, call {@link #startDeviceBlock(UUID, int)}, followed by exactly as many calls to
+ * {@link #writeFix(long, double, double, double, double, Double) writeFix} as announced. Instances are not thread-safe.
+ * The output stream is neither flushed nor closed by this serializer.
+ */
+public class DeltaEncodedGPSFixMovingBinarySerializer {
+    private final OutputStream out;
+
+    private boolean versionWritten;
+
+    private int remainingFixesInDeviceBlock;
+
+    private long lastTimeMillis;
+
+    private long lastLatE7;
+
+    private long lastLonE7;
+
+    public DeltaEncodedGPSFixMovingBinarySerializer(OutputStream out) {
+        this.out = out;
+    }
+
+    public void startDeviceBlock(UUID device, int numberOfFixes) throws IOException {
+        if (remainingFixesInDeviceBlock != 0) {
+            throw new IllegalStateException(remainingFixesInDeviceBlock + " fixes are missing in the previous device block");
+        }
+        if (!versionWritten) {
+            out.write(DeltaEncodedGPSFixMovingBinaryDeserializer.VERSION);
+            versionWritten = true;
+        }
+        writeInt64(device.getMostSignificantBits());
+        writeInt64(device.getLeastSignificantBits());
+        writeVarint(numberOfFixes);
+        remainingFixesInDeviceBlock = numberOfFixes;
+        lastTimeMillis = 0;
+        lastLatE7 = 0;
+        lastLonE7 = 0;
+    }
+
+    /**
+     * @param courseDeg
+     *            normalized to the range {@code [0, 360)}
+     * @param optionalTrueHeadingDeg
+     *            {@code null} if the fix has no true heading; normalized to the range {@code [0, 360)} otherwise
+     */
+    public void writeFix(long timeMillis, double latDeg, double lonDeg, double speedInMetersPerSecond, double courseDeg,
+            Double optionalTrueHeadingDeg) throws IOException {
+        if (remainingFixesInDeviceBlock <= 0) {
+            throw new IllegalStateException("More fixes written than announced for the device block");
+        }
+        remainingFixesInDeviceBlock--;
+        final long latE7 = Math.round(latDeg * DeltaEncodedGPSFixMovingBinaryDeserializer.LAT_LON_FACTOR);
+        final long lonE7 = Math.round(lonDeg * DeltaEncodedGPSFixMovingBinaryDeserializer.LAT_LON_FACTOR);
+        writeZigzag(timeMillis - lastTimeMillis);
+        writeZigzag(latE7 - lastLatE7);
+        writeZigzag(lonE7 - lastLonE7);
+        writeVarint(Math.max(0, Math.round(speedInMetersPerSecond * DeltaEncodedGPSFixMovingBinaryDeserializer.SPEED_FACTOR)));
+        writeVarint(toCentiDegrees(courseDeg));
+        writeVarint(optionalTrueHeadingDeg == null ? 0 : toCentiDegrees(optionalTrueHeadingDeg) + 1);
+        lastTimeMillis = timeMillis;
+        lastLatE7 = latE7;
+        lastLonE7 = lonE7;
+    }
+
+    /**
+     * Writes a complete device block for {@code fixes}
+     */
+    public void writeDeviceBlock(UUID device, Collection<? extends GPSFixMoving> fixes) throws IOException {
+        startDeviceBlock(device, fixes.size());
+        for (final GPSFixMoving fix : fixes) {
+            final Bearing optionalTrueHeading = fix.getOptionalTrueHeading();
+            writeFix(fix.getTimePoint().asMillis(), fix.getPosition().getLatDeg(), fix.getPosition().getLngDeg(),
+                    fix.getSpeed().getMetersPerSecond(), fix.getSpeed().getBearing().getDegrees(),
+                    optionalTrueHeading == null ? null : optionalTrueHeading.getDegrees());
+        }
+    }
+
+    private static long toCentiDegrees(double deg) {
+        final long centiDegreesPerCircle = Math.round(360 * DeltaEncodedGPSFixMovingBinaryDeserializer.BEARING_FACTOR);
+        return Math.floorMod(Math.round(deg * DeltaEncodedGPSFixMovingBinaryDeserializer.BEARING_FACTOR), centiDegreesPerCircle);
+    }
+
+    private void writeInt64(long value) throws IOException {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+
+    private void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private void writeZigzag(long value) throws IOException {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+}
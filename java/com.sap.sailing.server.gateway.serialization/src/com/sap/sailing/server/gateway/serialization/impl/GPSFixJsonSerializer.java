@@ -1,13 +1,17 @@
 package com.sap.sailing.server.gateway.serialization.impl;
 
+import java.io.IOException;
+
 import org.json.simple.JSONObject;
 
 import com.sap.sailing.domain.common.tracking.GPSFix;
 import com.sap.sailing.server.gateway.deserialization.TypeBasedJsonDeserializer;
 import com.sap.sailing.server.gateway.deserialization.impl.GPSFixJsonDeserializer;
 import com.sap.sse.shared.json.JsonSerializer;
+import com.sap.sse.shared.json.JsonStreamWriter;
+import com.sap.sse.shared.json.StreamingJsonSerializer;
 
-public class GPSFixJsonSerializer implements JsonSerializer<GPSFix> {
+public class GPSFixJsonSerializer implements JsonSerializer<GPSFix>, StreamingJsonSerializer<GPSFix> {
     @Override
     public JSONObject serialize(GPSFix object) {
         JSONObject result = new JSONObject();
@@ -19,4 +23,21 @@ public class GPSFixJsonSerializer implements JsonSerializer<GPSFix> {
 
         return result;
     }
+
+    @Override
+    public void serialize(GPSFix object, JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writer.field(TypeBasedJsonDeserializer.FIELD_TYPE, GPSFixJsonDeserializer.TYPE);
+        writeFields(object, writer);
+        writer.endObject();
+    }
+
+    /**
+     * Writes the members of {@code object} except for the type into the currently open object of {@code writer}
+     */
+    void writeFields(GPSFix object, JsonStreamWriter writer) throws IOException {
+        writer.field(GPSFixJsonDeserializer.FIELD_LAT_DEG, object.getPosition().getLatDeg());
+        writer.field(GPSFixJsonDeserializer.FIELD_LON_DEG, object.getPosition().getLngDeg());
+        writer.field(GPSFixJsonDeserializer.FIELD_TIME, object.getTimePoint().asMillis());
+    }
 }
@@ -1,5 +1,7 @@
 package com.sap.sailing.server.gateway.serialization.impl;
 
+import java.io.IOException;
+
 import org.json.simple.JSONObject;
 
 import com.sap.sailing.domain.common.SpeedWithBearing;
@@ -7,8 +9,11 @@ import com.sap.sailing.domain.common.tracking.GPSFixMoving;
 import com.sap.sailing.server.gateway.deserialization.TypeBasedJsonDeserializer;
 import com.sap.sailing.server.gateway.deserialization.impl.GPSFixMovingJsonDeserializer;
 import com.sap.sse.shared.json.JsonSerializer;
+import com.sap.sse.shared.json.JsonStreamWriter;
+import com.sap.sse.shared.json.StreamingJsonSerializer;
 
-public class GPSFixMovingJsonSerializer implements JsonSerializer<GPSFixMoving> {
+public class GPSFixMovingJsonSerializer implements JsonSerializer<GPSFixMoving>, StreamingJsonSerializer<GPSFixMoving> {
+    private final GPSFixJsonSerializer gpsFixJsonSerializer = new GPSFixJsonSerializer();
 
     @Override
     public JSONObject serialize(GPSFixMoving object) {
@@ -26,4 +31,25 @@ public class GPSFixMovingJsonSerializer implements JsonSerializer<GPSFixMoving>
         }
         return result;
     }
+
+    @Override
+    public void serialize(GPSFixMoving object, JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writeFields(object, object.getSpeed(), writer);
+        writer.endObject();
+    }
+
+    /**
+     * Writes all members of {@code object}, using {@code speedWithCourse} for speed and course, into the currently open
+     * object of {@code writer}. This way callers can add more members to the fix's object.
+     */
+    public void writeFields(GPSFixMoving object, SpeedWithBearing speedWithCourse, JsonStreamWriter writer) throws IOException {
+        writer.field(TypeBasedJsonDeserializer.FIELD_TYPE, GPSFixMovingJsonDeserializer.TYPE);
+        gpsFixJsonSerializer.writeFields(object, writer);
+        writer.field(GPSFixMovingJsonDeserializer.FIELD_BEARING_DEG, speedWithCourse.getBearing().getDegrees());
+        writer.field(GPSFixMovingJsonDeserializer.FIELD_SPEED_KNOTS, speedWithCourse.getKnots());
+        if (object.getOptionalTrueHeading() != null) {
+            writer.field(GPSFixMovingJsonDeserializer.FIELD_TRUE_HEADING_DEG.toString(), object.getOptionalTrueHeading().getDegrees());
+        }
+    }
 }
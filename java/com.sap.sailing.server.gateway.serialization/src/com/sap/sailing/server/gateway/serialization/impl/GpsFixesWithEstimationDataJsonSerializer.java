@@ -1,5 +1,8 @@
 package com.sap.sailing.server.gateway.serialization.impl;
 
+import java.io.IOException;
+import java.util.Iterator;
+
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
@@ -10,11 +13,13 @@ import com.sap.sailing.domain.common.tracking.GPSFixMoving;
 import com.sap.sailing.domain.maneuverdetection.TrackTimeInfo;
 import com.sap.sailing.domain.maneuverdetection.impl.ManeuverDetectorImpl;
 import com.sap.sailing.domain.maneuverdetection.impl.ManeuverDetectorWithEstimationDataSupportDecoratorImpl;
+import com.sap.sailing.domain.shared.tracking.impl.ChunkedFixesIterator;
 import com.sap.sailing.domain.tracking.GPSFixTrack;
 import com.sap.sailing.domain.tracking.TrackedRace;
 import com.sap.sse.common.Bearing;
 import com.sap.sse.common.Distance;
 import com.sap.sse.common.TimePoint;
+import com.sap.sse.shared.json.JsonStreamWriter;
 
 
 /**
@@ -89,4 +94,43 @@ public class GpsFixesWithEstimationDataJsonSerializer implements CompetitorTrack
         return gpsFixesWithEstimationData;
     }
 
+    /**
+     * Writes the fixes one by one, reading them from the competitor's track in chunks so that the track's read lock
+     * isn't held while writing to a possibly slow client
+     */
+    @Override
+    public void serialize(TrackedRace trackedRace, Competitor competitor, TimePoint from, TimePoint to,
+            TrackTimeInfo trackTimeInfo, JsonStreamWriter writer) throws IOException {
+        ManeuverDetectorImpl maneuverDetector = new ManeuverDetectorImpl(trackedRace, competitor);
+        ManeuverDetectorWithEstimationDataSupportDecoratorImpl estimationDataSupportDecoratorImpl = new ManeuverDetectorWithEstimationDataSupportDecoratorImpl(
+                maneuverDetector, null);
+        final GPSFixTrack<Competitor, GPSFixMoving> track = trackedRace.getTrack(competitor);
+        writer.beginArray();
+        final Iterator<GPSFixMoving> fixesIterator = new ChunkedFixesIterator<>(track, /* raw */ false, from, to);
+        while (fixesIterator.hasNext()) {
+            final GPSFixMoving gpsFix = fixesIterator.next();
+            SpeedWithBearing speedWithBearing = smoothFixes ? track.getEstimatedSpeed(gpsFix.getTimePoint())
+                    : gpsFix.getSpeed();
+            writer.beginObject();
+            gpsFixMovingJsonSerializer.writeFields(gpsFix, speedWithBearing, writer);
+            if (addWind) {
+                Wind wind = trackedRace.getWind(gpsFix.getPosition(), gpsFix.getTimePoint());
+                writer.field(WIND, wind == null ? null : windJsonSerializer.serialize(wind));
+            }
+            if (addNextWaypoint) {
+                Distance closestDistanceToMark = estimationDataSupportDecoratorImpl
+                        .getClosestDistanceToMark(gpsFix.getTimePoint());
+                Bearing relativeBearingToNextMark = speedWithBearing == null ? null
+                        : estimationDataSupportDecoratorImpl.getRelativeBearingToNextMark(gpsFix.getTimePoint(),
+                                speedWithBearing.getBearing());
+                writer.field(CLOSEST_DISTANCE_TO_MARK,
+                        closestDistanceToMark == null ? null : closestDistanceToMark.getMeters());
+                writer.field(RELATIVE_BEARING_TO_NEXT_MARK,
+                        relativeBearingToNextMark == null ? null : relativeBearingToNextMark.getDegrees());
+            }
+            writer.endObject();
+        }
+        writer.endArray();
+    }
+
 }
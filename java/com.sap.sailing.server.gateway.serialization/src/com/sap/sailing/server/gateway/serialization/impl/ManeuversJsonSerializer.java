@@ -1,5 +1,7 @@
 package com.sap.sailing.server.gateway.serialization.impl;
 
+import java.io.IOException;
+
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
@@ -7,8 +9,11 @@ import com.sap.sailing.domain.base.Competitor;
 import com.sap.sailing.domain.tracking.Maneuver;
 import com.sap.sse.common.Util.Pair;
 import com.sap.sse.shared.json.JsonSerializer;
+import com.sap.sse.shared.json.JsonStreamWriter;
+import com.sap.sse.shared.json.StreamingJsonSerializer;
 
-public class ManeuversJsonSerializer implements JsonSerializer<Iterable<Pair<Competitor, Iterable<Maneuver>>>> {
+public class ManeuversJsonSerializer implements JsonSerializer<Iterable<Pair<Competitor, Iterable<Maneuver>>>>,
+        StreamingJsonSerializer<Iterable<Pair<Competitor, Iterable<Maneuver>>>> {
     public final static String MANEUVERS = "maneuvers";
     private final ManeuverJsonSerializer maneuverSerializer;
 
@@ -34,4 +39,24 @@ public class ManeuversJsonSerializer implements JsonSerializer<Iterable<Pair<Com
         }
         return result;
     }
+
+    @Override
+    public void serialize(Iterable<Pair<Competitor, Iterable<Maneuver>>> data, JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writer.name(AbstractTrackedRaceDataJsonSerializer.BYCOMPETITOR);
+        writer.beginArray();
+        for (Pair<Competitor, Iterable<Maneuver>> singleCompetitorData : data) {
+            writer.beginObject();
+            writer.field(AbstractTrackedRaceDataJsonSerializer.COMPETITOR, String.valueOf(singleCompetitorData.getA().getId()));
+            writer.name(MANEUVERS);
+            writer.beginArray();
+            for (final Maneuver maneuver : singleCompetitorData.getB()) {
+                writer.value(maneuverSerializer.serialize(maneuver));
+            }
+            writer.endArray();
+            writer.endObject();
+        }
+        writer.endArray();
+        writer.endObject();
+    }
 }
@@ -1,5 +1,6 @@
 package com.sap.sailing.server.gateway.serialization.impl;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
@@ -13,8 +14,10 @@ import com.sap.sailing.domain.common.impl.WindSourceImpl;
 import com.sap.sailing.domain.tracking.TrackedRace;
 import com.sap.sailing.domain.tracking.WindTrack;
 import com.sap.sse.shared.json.JsonSerializer;
+import com.sap.sse.shared.json.JsonStreamWriter;
+import com.sap.sse.shared.json.StreamingJsonSerializer;
 
-public class TrackedRaceJsonSerializer implements JsonSerializer<TrackedRace> {
+public class TrackedRaceJsonSerializer implements JsonSerializer<TrackedRace>, StreamingJsonSerializer<TrackedRace> {
     public static final String FIELD_ID = "id";
     public static final String FIELD_NAME = "name";
     public static final String FIELD_REGATTA = "regatta";
@@ -40,19 +43,9 @@ public class TrackedRaceJsonSerializer implements JsonSerializer<TrackedRace> {
         if (windTrackSerializerProducer != null) {
             JSONArray windTracks = new JSONArray();
             List<WindSource> windSources = getAvailableWindSources(trackedRace);
-            JSONArray jsonWindSourcesDisplayed = new JSONArray();
+            jsonRace.put("availableWindSources", serializeAvailableWindSources(windSources));
             for (WindSource windSource : windSources) {
-                JSONObject windSourceInformation = new JSONObject();
-                windSourceInformation.put("typeName", windSource.getType().name());
-                windSourceInformation.put("id", windSource.getId() != null ? windSource.getId().toString() : "");
-                jsonWindSourcesDisplayed.add(windSourceInformation);
-            }
-            jsonRace.put("availableWindSources", jsonWindSourcesDisplayed);
-            for (WindSource windSource : windSources) {
-                if (ALL_WINDSOURCES.equals(windSourceToSerialize) || windSource.getType().name().equalsIgnoreCase(windSourceToSerialize)) {
-                    if (windSourceIdToSerialize != null && windSource.getId() != null && !windSource.getId().toString().equalsIgnoreCase(windSourceIdToSerialize)) {
-                        continue;
-                    }
+                if (isToSerialize(windSource)) {
                     WindTrack windTrack = trackedRace.getOrCreateWindTrack(windSource);
                     JSONObject jsonWindTrack = windTrackSerializerProducer.apply(windSource).serialize(windTrack);
                     windTracks.add(jsonWindTrack);
@@ -63,6 +56,48 @@ public class TrackedRaceJsonSerializer implements JsonSerializer<TrackedRace> {
         return jsonRace;
     }
 
+    /**
+     * Produces the same document as {@link #serialize(TrackedRace)}, streaming the wind tracks using
+     * {@link WindTrackJsonSerializer#serialize(WindTrack, JsonStreamWriter)}
+     */
+    @Override
+    public void serialize(TrackedRace trackedRace, JsonStreamWriter writer) throws IOException {
+        writer.beginObject();
+        writer.field(FIELD_NAME, trackedRace.getRace().getName());
+        writer.field(FIELD_REGATTA, trackedRace.getRaceIdentifier().getRegattaName());
+        if (windTrackSerializerProducer != null) {
+            List<WindSource> windSources = getAvailableWindSources(trackedRace);
+            writer.field("availableWindSources", serializeAvailableWindSources(windSources));
+            writer.name(FIELD_WINDSOURCES);
+            writer.beginArray();
+            for (WindSource windSource : windSources) {
+                if (isToSerialize(windSource)) {
+                    WindTrack windTrack = trackedRace.getOrCreateWindTrack(windSource);
+                    windTrackSerializerProducer.apply(windSource).serialize(windTrack, writer);
+                }
+            }
+            writer.endArray();
+        }
+        writer.endObject();
+    }
+
+    private JSONArray serializeAvailableWindSources(List<WindSource> windSources) {
+        JSONArray jsonWindSourcesDisplayed = new JSONArray();
+        for (WindSource windSource : windSources) {
+            JSONObject windSourceInformation = new JSONObject();
+            windSourceInformation.put("typeName", windSource.getType().name());
+            windSourceInformation.put("id", windSource.getId() != null ? windSource.getId().toString() : "");
+            jsonWindSourcesDisplayed.add(windSourceInformation);
+        }
+        return jsonWindSourcesDisplayed;
+    }
+
+    private boolean isToSerialize(WindSource windSource) {
+        return (ALL_WINDSOURCES.equals(windSourceToSerialize) || windSource.getType().name().equalsIgnoreCase(windSourceToSerialize))
+                && (windSourceIdToSerialize == null || windSource.getId() == null
+                        || windSource.getId().toString().equalsIgnoreCase(windSourceIdToSerialize));
+    }
+
     private List<WindSource> getAvailableWindSources(TrackedRace trackedRace) {
         List<WindSource> windSources = new ArrayList<WindSource>();
         for (WindSource windSource : trackedRace.getWindSources()) {
@@ -2,6 +2,7 @@ package com.sap.sailing.server.gateway.serialization.impl;
 
 import com.sap.sailing.domain.tracking.WindTrack;
 import com.sap.sse.shared.json.JsonSerializer;
+import com.sap.sse.shared.json.StreamingJsonSerializer;
 
-public interface WindTrackJsonSerializer extends JsonSerializer<WindTrack> {
+public interface WindTrackJsonSerializer extends JsonSerializer<WindTrack>, StreamingJsonSerializer<WindTrack> {
 }
@@ -0,0 +1,192 @@
+package com.sap.sailing.server.gateway.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletResponse;
+import javax.servlet.WriteListener;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.server.gateway.impl.push.PushChannel;
+import com.sap.sailing.server.gateway.impl.push.PushChannelRegistry;
+
+public class PushChannelTest {
+    private static final String KEY = "test";
+
+    private PushChannelRegistry registry;
+
+    private static final Object SUBJECT = new Object();
+
+    private CountingChannel channel;
+
+    private static class CountingChannel extends PushChannel {
+        private final Object subject;
+        private int activations;
+        private int deactivations;
+
+        CountingChannel(String key, PushChannelRegistry registry, Object subject) {
+            super(key, "test", registry);
+            this.subject = subject;
+        }
+
+        @Override
+        protected Object getSubject() {
+            return subject;
+        }
+
+        @Override
+        protected void close() {
+            super.close();
+        }
+
+        @Override
+        protected void activate() {
+            activations++;
+        }
+
+        @Override
+        protected void deactivate() {
+            deactivations++;
+        }
+
+        void publishValue(long value) {
+            publish(writer->writer.beginObject().field("value", value).endObject());
+        }
+    }
+
+    /**
+     * An output stream that behaves like a non-blocking servlet output stream whose client can be made slow
+     */
+    private static class ClientOutputStream extends ServletOutputStream {
+        private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        private boolean ready = true;
+        private WriteListener writeListener;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.writeListener = writeListener;
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!ready) {
+                throw new IllegalStateException("not ready");
+            }
+            received.write(b);
+        }
+
+        void catchUp() throws IOException {
+            ready = true;
+            writeListener.onWritePossible();
+        }
+
+        String getReceived() {
+            return new String(received.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private ClientOutputStream subscribe() throws IOException {
+        return subscribe(SUBJECT, new ClientOutputStream());
+    }
+
+    private ClientOutputStream subscribe(Object subject, ClientOutputStream out) throws IOException {
+        final ServletResponse response = mock(ServletResponse.class);
+        when(response.getOutputStream()).thenReturn(out);
+        final AsyncContext asyncContext = mock(AsyncContext.class);
+        when(asyncContext.getResponse()).thenReturn(response);
+        registry.subscribe(KEY, subject, key->{
+            channel = new CountingChannel(key, registry, subject);
+            return channel;
+        }, asyncContext);
+        return out;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        registry = new PushChannelRegistry();
+    }
+
+    @Test
+    public void testAllSubscribersReceiveSameEvent() throws IOException {
+        final ClientOutputStream out1 = subscribe();
+        final ClientOutputStream out2 = subscribe();
+        assertEquals(1, channel.activations);
+        assertEquals(2, registry.getNumberOfSubscribers(KEY));
+        channel.publishValue(42);
+        final String expected = "id: 1\nevent: test\ndata: {\"value\":42}\n\n";
+        assertEquals(expected, out1.getReceived());
+        assertEquals(expected, out2.getReceived());
+    }
+
+    @Test
+    public void testSlowSubscriberOnlyReceivesLatestEvent() throws IOException {
+        final ClientOutputStream fast = subscribe();
+        final ClientOutputStream slow = subscribe();
+        slow.ready = false;
+        for (int i = 1; i <= 3; i++) {
+            channel.publishValue(i);
+        }
+        assertEquals("", slow.getReceived());
+        slow.catchUp();
+        assertEquals("id: 3\nevent: test\ndata: {\"value\":3}\n\n", slow.getReceived());
+        assertEquals(3, fast.getReceived().split("\n\n").length);
+    }
+
+    @Test
+    public void testChannelOfReplacedSubjectIsReplaced() throws IOException {
+        subscribe();
+        final CountingChannel oldChannel = channel;
+        subscribe(new Object(), new ClientOutputStream());
+        assertNotSame(oldChannel, channel);
+        assertEquals(1, oldChannel.deactivations);
+        assertEquals(1, channel.activations);
+        assertEquals(1, registry.getNumberOfSubscribers(KEY));
+    }
+
+    @Test
+    public void testCloseEndsAllSubscriptions() throws IOException {
+        subscribe();
+        subscribe();
+        channel.close();
+        assertEquals(1, channel.deactivations);
+        assertEquals(0, registry.getNumberOfSubscribers(KEY));
+        subscribe();
+        assertEquals(1, registry.getNumberOfSubscribers(KEY));
+    }
+
+    @Test
+    public void testSubscriberFailingToStartIsNotAdded() throws IOException {
+        subscribe();
+        final ClientOutputStream failing = new ClientOutputStream() {
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new IllegalStateException("response already committed");
+            }
+        };
+        assertThrows(IllegalStateException.class, ()->subscribe(SUBJECT, failing));
+        assertEquals(1, registry.getNumberOfSubscribers(KEY));
+        channel.publishValue(1);
+        assertEquals("", failing.getReceived());
+    }
+}
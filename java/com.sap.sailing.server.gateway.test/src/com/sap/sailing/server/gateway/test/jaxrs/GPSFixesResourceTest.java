@@ -3,6 +3,9 @@ package com.sap.sailing.server.gateway.test.jaxrs;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.util.UUID;
 
 import javax.ws.rs.core.Response;
@@ -15,6 +18,7 @@ import com.sap.sailing.domain.common.DeviceIdentifier;
 import com.sap.sailing.domain.racelog.tracking.test.mock.MockSmartphoneUuidServiceFinderFactory;
 import com.sap.sailing.domain.racelogtracking.impl.SmartphoneUUIDIdentifierImpl;
 import com.sap.sailing.server.gateway.jaxrs.api.GPSFixesResource;
+import com.sap.sailing.server.gateway.serialization.impl.DeltaEncodedGPSFixMovingBinarySerializer;
 import com.sap.sailing.server.impl.RacingEventServiceImpl;
 import com.sap.sailing.server.interfaces.RacingEventService;
 import com.sap.sse.common.NoCorrespondingServiceRegisteredException;
@@ -62,4 +66,28 @@ public class GPSFixesResourceTest {
         DeviceIdentifier device = new SmartphoneUUIDIdentifierImpl(UUID.fromString("af855a56-9726-4a9c-a77e-da955bd289bf"));
         assertThat("all fixes stored", service.getSensorFixStore().getNumberOfFixes(device), equalTo(2L));
     }
+
+    @Test
+    public void deserializeBinary() throws IOException {
+        GPSFixesResource resource = new GPSFixesResource() {
+            public RacingEventService getService() {
+                return service;
+            };
+        };
+        final UUID uuid1 = UUID.fromString("af855a56-9726-4a9c-a77e-da955bd289bf");
+        final UUID uuid2 = UUID.fromString("0d1b2c3d-4e5f-6071-8293-a4b5c6d7e8f9");
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final DeltaEncodedGPSFixMovingBinarySerializer serializer = new DeltaEncodedGPSFixMovingBinarySerializer(bos);
+        serializer.startDeviceBlock(uuid1, 2);
+        serializer.writeFix(14144160080000l, 54.325246, 10.148556, 3.61, 258.11, null);
+        serializer.writeFix(14144168490000l, 55.12456, 8.03456, 5.1, 14.2, 13.5);
+        serializer.startDeviceBlock(uuid2, 1);
+        serializer.writeFix(14144160080000l, 54.325246, 10.148556, 3.61, 258.11, null);
+        Response response = resource.postBinaryFixes(new ByteArrayInputStream(bos.toByteArray()), /* receive maneuvers */ false, /* get live delays */ false);
+        assertThat("response is ok", response.getStatus(), equalTo(Response.Status.OK.getStatusCode()));
+        assertThat("all fixes stored", service.getSensorFixStore().getNumberOfFixes(new SmartphoneUUIDIdentifierImpl(uuid1)), equalTo(2L));
+        assertThat("all fixes stored", service.getSensorFixStore().getNumberOfFixes(new SmartphoneUUIDIdentifierImpl(uuid2)), equalTo(1L));
+        Response badResponse = resource.postBinaryFixes(new ByteArrayInputStream(new byte[] { 42 }), false, false);
+        assertThat("bad request", badResponse.getStatus(), equalTo(Response.Status.BAD_REQUEST.getStatusCode()));
+    }
 }
@@ -0,0 +1,143 @@
+package com.sap.sailing.server.gateway.impl.push;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+/**
+ * A client connected to a {@link PushChannel} through a long-running {@code text/event-stream} response. The events
+ * are written using the non-blocking servlet output API, so a slow client never blocks the thread publishing the
+ * events.
+ * <p>
+ *
+ * Back-pressure for slow clients is handled by conflation: each event published by a channel is a complete snapshot,
+ * so a subscriber only keeps the latest event not yet written. If the client can't keep up, events published while the
+ * previous one is still being written replace each other, and the client receives the most recent state as soon as it
+ * is ready again. The memory held per subscriber is therefore bounded by one event, regardless of the client's speed.
+ */
+public class EventStreamSubscriber implements WriteListener, AsyncListener {
+    private static final Logger logger = Logger.getLogger(EventStreamSubscriber.class.getName());
+
+    private final AsyncContext asyncContext;
+
+    private final ServletOutputStream outputStream;
+
+    private final PushChannel channel;
+
+    /**
+     * The latest event not yet written to the {@link #outputStream}; {@code null} if all events have been written
+     */
+    private final AtomicReference<byte[]> pendingEvent;
+
+    private final AtomicBoolean closed;
+
+    /**
+     * Set after writing an event; the output stream may aggregate small writes, so it needs to be flushed for the event
+     * to reach the client. Only accessed while holding this object's monitor.
+     */
+    private boolean flushNeeded;
+
+    EventStreamSubscriber(AsyncContext asyncContext, PushChannel channel) throws IOException {
+        this.asyncContext = asyncContext;
+        this.channel = channel;
+        this.outputStream = asyncContext.getResponse().getOutputStream();
+        this.pendingEvent = new AtomicReference<>();
+        this.closed = new AtomicBoolean();
+    }
+
+    /**
+     * Starts writing events; to be called once, before the subscriber is added to its channel. Check
+     * {@link #isClosed()} afterwards because the subscriber is closed if the client can't be written to.
+     */
+    void start() {
+        asyncContext.addListener(this);
+        outputStream.setWriteListener(this);
+    }
+
+    /**
+     * Sends {@code event} to the client as soon as the client is ready to receive it, replacing any event that has not
+     * yet been written
+     */
+    void offer(byte[] event) {
+        if (!closed.get()) {
+            pendingEvent.set(event);
+            writePendingEvent();
+        }
+    }
+
+    @Override
+    public void onWritePossible() {
+        writePendingEvent();
+    }
+
+    private synchronized void writePendingEvent() {
+        try {
+            // isReady() returning false registers for a call to onWritePossible() once the client has caught up
+            while (!closed.get() && outputStream.isReady()) {
+                if (flushNeeded) {
+                    flushNeeded = false;
+                    outputStream.flush();
+                } else {
+                    final byte[] event = pendingEvent.getAndSet(null);
+                    if (event == null) {
+                        break;
+                    }
+                    outputStream.write(event);
+                    flushNeeded = true;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.log(Level.FINE, "Problem writing event to subscriber of push channel " + channel.getKey() + "; closing", e);
+            close();
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        logger.log(Level.FINE, "Subscriber of push channel " + channel.getKey() + " disconnected", t);
+        close();
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        close();
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        onError(event.getThrowable());
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    void close() {
+        if (closed.compareAndSet(false, true)) {
+            pendingEvent.set(null);
+            channel.removeSubscriber(this);
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                // already completed by the container, e.g., after the client disconnected
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.sap.sailing.server.gateway.impl.push;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import com.sap.sailing.domain.base.DomainFactory;
+import com.sap.sailing.domain.common.MaxPointsReason;
+import com.sap.sailing.domain.common.dto.CompetitorDTO;
+import com.sap.sailing.domain.common.dto.LeaderboardDTO;
+import com.sap.sailing.domain.common.dto.LeaderboardEntryDTO;
+import com.sap.sailing.domain.common.dto.LeaderboardRowDTO;
+import com.sap.sailing.domain.leaderboard.Leaderboard;
+import com.sap.sailing.domain.leaderboard.caching.LiveLeaderboardUpdateListener;
+import com.sap.sailing.domain.leaderboard.caching.LiveLeaderboardUpdater;
+import com.sap.sailing.domain.tracking.TrackedRegattaRegistry;
+import com.sap.sse.shared.json.JsonStreamWriter;
+
+/**
+ * Publishes each live leaderboard computed by the leaderboard's {@link LiveLeaderboardUpdater} to all subscribers, so
+ * that the leaderboard is computed once per updater cycle no matter how many clients are watching. No race column
+ * details are requested; the event contains the ranks and points per competitor and race column. The channel is
+ * closed when the leaderboard is removed.
+ */
+public class LeaderboardPushChannel extends PushChannel implements LiveLeaderboardUpdateListener {
+    public static final String EVENT_NAME = "leaderboard";
+
+    private final Leaderboard leaderboard;
+
+    private final TrackedRegattaRegistry trackedRegattaRegistry;
+
+    private final DomainFactory baseDomainFactory;
+
+    public LeaderboardPushChannel(String key, PushChannelRegistry registry, Leaderboard leaderboard,
+            TrackedRegattaRegistry trackedRegattaRegistry, DomainFactory baseDomainFactory) {
+        super(key, EVENT_NAME, registry);
+        this.leaderboard = leaderboard;
+        this.trackedRegattaRegistry = trackedRegattaRegistry;
+        this.baseDomainFactory = baseDomainFactory;
+    }
+
+    @Override
+    protected Object getSubject() {
+        return leaderboard;
+    }
+
+    @Override
+    protected void activate() {
+        leaderboard.addLiveLeaderboardUpdateListener(this, /* namesOfRaceColumnsForWhichToLoadLegDetails */ Collections.emptySet(),
+                /* addOverallDetails */ false, trackedRegattaRegistry, baseDomainFactory);
+    }
+
+    @Override
+    protected void deactivate() {
+        leaderboard.removeLiveLeaderboardUpdateListener(this);
+    }
+
+    @Override
+    public void liveLeaderboardUpdated(LeaderboardDTO leaderboardDTO) {
+        publish(writer->writeLeaderboard(writer, leaderboardDTO));
+    }
+
+    @Override
+    public void leaderboardRemoved() {
+        close();
+    }
+
+    private void writeLeaderboard(JsonStreamWriter writer, LeaderboardDTO leaderboardDTO) throws IOException {
+        writer.beginObject();
+        writer.field("name", leaderboard.getName());
+        writer.field("timepoint-ms", leaderboardDTO.getTimePoint() == null ? null : leaderboardDTO.getTimePoint().getTime());
+        writer.name("competitors").beginArray();
+        for (final CompetitorDTO competitor : leaderboardDTO.competitors) {
+            final LeaderboardRowDTO row = leaderboardDTO.rows.get(competitor);
+            writer.beginObject();
+            writer.field("id", competitor.getIdAsString());
+            writer.field("name", competitor.getName());
+            writer.field("overallRank", leaderboardDTO.getTotalRank(competitor));
+            if (row != null) {
+                writer.field("netPoints", row.netPoints);
+                writer.name("columns").beginObject();
+                for (final Map.Entry<String, LeaderboardEntryDTO> e : row.fieldsByRaceColumnName.entrySet()) {
+                    final LeaderboardEntryDTO entry = e.getValue();
+                    writer.name(e.getKey()).beginObject();
+                    writer.field("fleet", entry.fleet == null ? null : entry.fleet.getName());
+                    writer.field("totalPoints", entry.totalPoints);
+                    writer.field("netPoints", entry.netPoints);
+                    final MaxPointsReason maxPointsReason = entry.reasonForMaxPoints;
+                    writer.field("maxPointsReason", maxPointsReason == null ? null : maxPointsReason.toString());
+                    writer.field("isDiscarded", entry.discarded);
+                    writer.endObject();
+                }
+                writer.endObject();
+            }
+            writer.endObject();
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+}
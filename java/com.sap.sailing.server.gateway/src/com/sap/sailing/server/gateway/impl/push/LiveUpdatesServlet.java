@@ -0,0 +1,106 @@
+package com.sap.sailing.server.gateway.impl.push;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.sap.sailing.domain.common.RegattaNameAndRaceName;
+import com.sap.sailing.domain.leaderboard.Leaderboard;
+import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sailing.server.gateway.SailingServerHttpServlet;
+import com.sap.sailing.server.interfaces.RacingEventService;
+
+/**
+ * Pushes live updates to clients as <a href="https://html.spec.whatwg.org/multipage/server-sent-events.html">server-sent
+ * events</a> instead of having each client poll for them. Two kinds of streams are offered:
+ * <ul>
+ * <li>{@code /live/leaderboard?leaderboardname=...} publishes each live leaderboard computed by the leaderboard's
+ * {@code LiveLeaderboardUpdater} as a {@value LeaderboardPushChannel#EVENT_NAME} event</li>
+ * <li>{@code /live/race?regattaname=...&racename=...} publishes the current competitor positions of the race as a
+ * {@value RacePushChannel#EVENT_NAME} event once per second</li>
+ * </ul>
+ * All clients subscribed to the same leaderboard or race share one {@link PushChannel} which computes and serializes
+ * each update once. Read permission for the leaderboard or race is checked when subscribing. The response stays open
+ * until the client disconnects; browsers' {@code EventSource} reconnects automatically.
+ */
+public class LiveUpdatesServlet extends SailingServerHttpServlet {
+    private static final long serialVersionUID = -2497366830216575301L;
+
+    public static final String PARAM_NAME_LEADERBOARDNAME = "leaderboardname";
+
+    private static final String PATH_LEADERBOARD = "/leaderboard";
+
+    private static final String PATH_RACE = "/race";
+
+    private final PushChannelRegistry registry;
+
+    public LiveUpdatesServlet() {
+        registry = new PushChannelRegistry();
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        final RacingEventService service = getService();
+        final String pathInfo = req.getPathInfo();
+        if (PATH_LEADERBOARD.equals(pathInfo)) {
+            final String leaderboardName = req.getParameter(PARAM_NAME_LEADERBOARDNAME);
+            if (leaderboardName == null) {
+                resp.sendError(HttpServletResponse.SC_BAD_REQUEST, String.format("Missing parameter '%s'.", PARAM_NAME_LEADERBOARDNAME));
+                return;
+            }
+            final Leaderboard leaderboard = service.getLeaderboardByName(leaderboardName);
+            if (leaderboard == null) {
+                resp.sendError(HttpServletResponse.SC_NOT_FOUND, "No such leaderboard found.");
+                return;
+            }
+            getSecurityService().checkCurrentUserReadPermission(leaderboard);
+            subscribe(req, resp, "leaderboard:" + leaderboardName, leaderboard, key -> new LeaderboardPushChannel(key, registry,
+                    leaderboard, service, service.getBaseDomainFactory()));
+        } else if (PATH_RACE.equals(pathInfo)) {
+            final String regattaName = req.getParameter(PARAM_NAME_REGATTANAME);
+            final String raceName = req.getParameter(PARAM_NAME_RACENAME);
+            if (regattaName == null || raceName == null) {
+                resp.sendError(HttpServletResponse.SC_BAD_REQUEST, String.format("Missing parameter '%s' or '%s'.",
+                        PARAM_NAME_REGATTANAME, PARAM_NAME_RACENAME));
+                return;
+            }
+            final RegattaNameAndRaceName raceIdentifier = new RegattaNameAndRaceName(regattaName, raceName);
+            final TrackedRace trackedRace = service.getExistingTrackedRace(raceIdentifier);
+            if (trackedRace == null) {
+                resp.sendError(HttpServletResponse.SC_NOT_FOUND, "No such race found.");
+                return;
+            }
+            getSecurityService().checkCurrentUserReadPermission(trackedRace);
+            subscribe(req, resp, "race:" + raceIdentifier, trackedRace,
+                    key -> new RacePushChannel(key, registry, trackedRace, raceIdentifier, service));
+        } else {
+            resp.sendError(HttpServletResponse.SC_NOT_FOUND, "Use " + PATH_LEADERBOARD + " or " + PATH_RACE);
+        }
+    }
+
+    private void subscribe(HttpServletRequest req, HttpServletResponse resp, String key, Object subject,
+            Function<String, PushChannel> channelFactory) throws IOException {
+        final AsyncContext asyncContext = startEventStream(req, resp);
+        try {
+            registry.subscribe(key, subject, channelFactory, asyncContext);
+        } catch (IOException | RuntimeException e) {
+            asyncContext.complete();
+            throw e;
+        }
+    }
+
+    private AsyncContext startEventStream(HttpServletRequest req, HttpServletResponse resp) {
+        resp.setContentType("text/event-stream");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setHeader("Cache-Control", "no-cache");
+        // tell reverse proxies such as nginx not to buffer the stream
+        resp.setHeader("X-Accel-Buffering", "no");
+        final AsyncContext asyncContext = req.startAsync();
+        asyncContext.setTimeout(0); // the stream ends when the client disconnects
+        return asyncContext;
+    }
+}
@@ -0,0 +1,147 @@
+package com.sap.sailing.server.gateway.impl.push;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.servlet.AsyncContext;
+
+import com.sap.sse.shared.json.JsonStreamWriter;
+
+/**
+ * A topic of live updates, such as the live leaderboard or the boat positions of a race, to which any number of
+ * {@link EventStreamSubscriber clients} can subscribe. Each update is computed and serialized exactly once, then the
+ * same bytes are {@link #publish published} to all subscribers. The channel is {@link #activate() activated} when the
+ * first subscriber arrives and {@link #deactivate() deactivated} when the last one leaves, so no updates are computed
+ * for topics nobody is listening to.
+ * <p>
+ *
+ * A channel is bound to its {@link #getSubject() subject}, e.g., the leaderboard or race object. When the subject is
+ * removed or replaced by another object for the same key, the channel is {@link #close() closed}, ending the streams of
+ * all its subscribers; their reconnects then get a new channel for the current subject.
+ */
+public abstract class PushChannel {
+    private static final Logger logger = Logger.getLogger(PushChannel.class.getName());
+
+    /**
+     * Identifies the channel in its {@link PushChannelRegistry}
+     */
+    private final String key;
+
+    private final String eventName;
+
+    private final Set<EventStreamSubscriber> subscribers;
+
+    private final PushChannelRegistry registry;
+
+    private long eventId;
+
+    protected PushChannel(String key, String eventName, PushChannelRegistry registry) {
+        this.key = key;
+        this.eventName = eventName;
+        this.registry = registry;
+        this.subscribers = new CopyOnWriteArraySet<>();
+    }
+
+    /**
+     * Adds a subscriber writing to the response of {@code asyncContext} and activates the channel if this is its
+     * first subscriber.
+     *
+     * @return {@code false} if the channel has been closed in the meantime because its last subscriber left; then
+     *         the caller has to obtain a new channel from the registry
+     */
+    synchronized boolean subscribe(AsyncContext asyncContext) throws IOException {
+        if (registry.isClosed(this)) {
+            return false;
+        }
+        final EventStreamSubscriber subscriber = new EventStreamSubscriber(asyncContext, this);
+        // start before adding, so a subscriber that fails to start is never published to and doesn't keep the channel active
+        subscriber.start();
+        if (!subscriber.isClosed()) {
+            final boolean first = subscribers.isEmpty();
+            subscribers.add(subscriber);
+            if (first) {
+                activate();
+            }
+        }
+        return true;
+    }
+
+    synchronized void removeSubscriber(EventStreamSubscriber subscriber) {
+        if (subscribers.remove(subscriber) && subscribers.isEmpty()) {
+            registry.close(this);
+            deactivate();
+        }
+    }
+
+    /**
+     * Removes this channel from its registry and ends the streams of all its subscribers, deactivating the channel
+     * when the last one has been removed
+     */
+    protected synchronized void close() {
+        registry.close(this);
+        for (final EventStreamSubscriber subscriber : subscribers) {
+            subscriber.close();
+        }
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    int getNumberOfSubscribers() {
+        return subscribers.size();
+    }
+
+    /**
+     * @return the domain object this channel publishes updates for, as resolved when the channel was created
+     */
+    protected abstract Object getSubject();
+
+    /**
+     * Starts producing updates, e.g., by registering a listener or scheduling a periodic task
+     */
+    protected abstract void activate();
+
+    /**
+     * Stops producing updates
+     */
+    protected abstract void deactivate();
+
+    /**
+     * Writes the event's {@code data} as a JSON document
+     */
+    protected interface EventDataWriter {
+        void write(JsonStreamWriter writer) throws IOException;
+    }
+
+    /**
+     * Serializes one event and passes it on to all current subscribers
+     */
+    protected void publish(EventDataWriter eventDataWriter) {
+        final StringWriter data = new StringWriter();
+        try {
+            final JsonStreamWriter writer = new JsonStreamWriter(data);
+            eventDataWriter.write(writer);
+            writer.flush();
+        } catch (Exception e) {
+            logger.log(Level.WARNING, "Problem computing update for push channel " + key, e);
+            return;
+        }
+        final StringBuilder event = new StringBuilder(data.getBuffer().length() + eventName.length() + 32);
+        synchronized (this) {
+            event.append("id: ").append(++eventId).append('\n');
+        }
+        event.append("event: ").append(eventName).append('\n');
+        // JSON written by the stream writer doesn't contain line breaks; strings have them escaped
+        event.append("data: ").append(data.getBuffer()).append("\n\n");
+        final byte[] eventBytes = event.toString().getBytes(StandardCharsets.UTF_8);
+        for (final EventStreamSubscriber subscriber : subscribers) {
+            subscriber.offer(eventBytes);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.sap.sailing.server.gateway.impl.push;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+import javax.servlet.AsyncContext;
+
+/**
+ * Manages the {@link PushChannel}s that currently have subscribers, by key. A channel is created with its first
+ * subscriber and removed from the registry when its last subscriber leaves; a later subscriber for the same key then
+ * gets a new channel. A channel whose {@link PushChannel#getSubject() subject} is not the object resolved for a new
+ * subscriber anymore, e.g., because the leaderboard has been removed and re-created under the same name, is closed and
+ * replaced.
+ */
+public class PushChannelRegistry {
+    private final ConcurrentMap<String, PushChannel> channels;
+
+    public PushChannelRegistry() {
+        channels = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Subscribes the client whose response is held by {@code asyncContext} to the channel with key {@code key},
+     * creating the channel using {@code channelFactory} if no channel with that key exists yet or if the existing
+     * channel's {@link PushChannel#getSubject() subject} is not {@code subject}.
+     *
+     * @param subject
+     *            the domain object just resolved for {@code key}; {@code channelFactory} has to create channels for
+     *            this object
+     */
+    public void subscribe(String key, Object subject, Function<String, PushChannel> channelFactory, AsyncContext asyncContext) throws IOException {
+        boolean subscribed = false;
+        while (!subscribed) {
+            final PushChannel channel = channels.computeIfAbsent(key, channelFactory);
+            if (channel.getSubject() != subject) {
+                channel.close();
+            } else {
+                subscribed = channel.subscribe(asyncContext);
+            }
+        }
+    }
+
+    boolean isClosed(PushChannel channel) {
+        return channels.get(channel.getKey()) != channel;
+    }
+
+    void close(PushChannel channel) {
+        channels.remove(channel.getKey(), channel);
+    }
+
+    /**
+     * @return the number of subscribers of the channel with key {@code key}, or 0 if no such channel exists
+     */
+    public int getNumberOfSubscribers(String key) {
+        final PushChannel channel = channels.get(key);
+        return channel == null ? 0 : channel.getNumberOfSubscribers();
+    }
+}
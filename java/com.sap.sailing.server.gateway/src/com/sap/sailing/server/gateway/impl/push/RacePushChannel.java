@@ -0,0 +1,106 @@
+package com.sap.sailing.server.gateway.impl.push;
+
+import java.io.IOException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.common.Position;
+import com.sap.sailing.domain.common.RegattaAndRaceIdentifier;
+import com.sap.sailing.domain.common.SpeedWithBearing;
+import com.sap.sailing.domain.common.TrackedRaceStatusEnum;
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.tracking.GPSFixTrack;
+import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sailing.server.interfaces.RacingEventService;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+import com.sap.sse.common.util.RoundingUtil;
+import com.sap.sse.shared.json.JsonStreamWriter;
+import com.sap.sse.util.ThreadPoolUtil;
+
+/**
+ * Publishes the estimated positions, speeds and courses of all competitors of a live race at "now" minus the race's
+ * delay to live, once every {@link #UPDATE_INTERVAL_IN_MILLIS} milliseconds. The positions are computed and serialized
+ * once per interval for all subscribers, replacing the per-client polling of the race map. The channel is closed as
+ * soon as the race is no longer the one registered under its identifier, e.g., because it has been removed or
+ * re-loaded.
+ */
+public class RacePushChannel extends PushChannel {
+    public static final String EVENT_NAME = "positions";
+
+    public static final String UPDATE_INTERVAL_IN_MILLIS_SYSTEM_PROPERTY_NAME = "com.sap.sailing.server.gateway.push.raceUpdateIntervalInMillis";
+
+    private static final long UPDATE_INTERVAL_IN_MILLIS = Long.getLong(UPDATE_INTERVAL_IN_MILLIS_SYSTEM_PROPERTY_NAME, 1000l);
+
+    private final TrackedRace trackedRace;
+
+    private final RegattaAndRaceIdentifier raceIdentifier;
+
+    private final RacingEventService service;
+
+    private ScheduledFuture<?> updateTask;
+
+    public RacePushChannel(String key, PushChannelRegistry registry, TrackedRace trackedRace,
+            RegattaAndRaceIdentifier raceIdentifier, RacingEventService service) {
+        super(key, EVENT_NAME, registry);
+        this.trackedRace = trackedRace;
+        this.raceIdentifier = raceIdentifier;
+        this.service = service;
+    }
+
+    @Override
+    protected Object getSubject() {
+        return trackedRace;
+    }
+
+    @Override
+    protected synchronized void activate() {
+        updateTask = ThreadPoolUtil.INSTANCE.getDefaultBackgroundTaskThreadPoolExecutor().scheduleWithFixedDelay(
+                this::update, /* initialDelay */ 0, UPDATE_INTERVAL_IN_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private void update() {
+        if (service.getExistingTrackedRace(raceIdentifier) != trackedRace
+                || trackedRace.getStatus().getStatus() == TrackedRaceStatusEnum.REMOVED) {
+            close();
+        } else {
+            publish(this::writePositions);
+        }
+    }
+
+    @Override
+    protected synchronized void deactivate() {
+        if (updateTask != null) {
+            updateTask.cancel(/* mayInterruptIfRunning */ false);
+            updateTask = null;
+        }
+    }
+
+    private void writePositions(JsonStreamWriter writer) throws IOException {
+        final TimePoint timePoint = MillisecondsTimePoint.now().minus(trackedRace.getDelayToLiveInMillis());
+        writer.beginObject();
+        writer.field("regatta", trackedRace.getTrackedRegatta().getRegatta().getName());
+        writer.field("race", trackedRace.getRace().getName());
+        writer.field("timepoint-ms", timePoint.asMillis());
+        writer.name("competitors").beginArray();
+        for (final Competitor competitor : trackedRace.getRace().getCompetitors()) {
+            final GPSFixTrack<Competitor, GPSFixMoving> track = trackedRace.getTrack(competitor);
+            final Position position = track.getEstimatedPosition(timePoint, /* extrapolate */ false);
+            if (position != null) {
+                writer.beginObject();
+                writer.field("id", competitor.getId().toString());
+                writer.field("lat-deg", RoundingUtil.latLngDecimalFormatter.format(position.getLatDeg()));
+                writer.field("lng-deg", RoundingUtil.latLngDecimalFormatter.format(position.getLngDeg()));
+                final SpeedWithBearing speed = track.getEstimatedSpeed(timePoint);
+                if (speed != null) {
+                    writer.field("truebearing-deg", speed.getBearing().getDegrees());
+                    writer.field("speed-kts", RoundingUtil.knotsDecimalFormatter.format(speed.getKnots()));
+                }
+                writer.endObject();
+            }
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+}
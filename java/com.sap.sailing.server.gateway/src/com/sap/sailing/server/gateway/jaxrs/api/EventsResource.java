@@ -397,12 +397,11 @@ public class EventsResource extends AbstractSailingServerResource {
                 new TrackingConnectorInfoJsonSerializer());
         JSONArray result = new JSONArray();
         Iterable<Event> events = getService().getEventsSelectively(include, eventIds);
-        for (Event event : events) {
-            if (getSecurityService().hasCurrentUserReadPermission(event)
-                    && ((showNonPublic != null && Boolean.valueOf(showNonPublic)) || event.isPublic())) {
+        getSecurityService().filterObjectsWithPermissionForCurrentUser(DefaultActions.READ, events, event -> {
+            if ((showNonPublic != null && Boolean.valueOf(showNonPublic)) || event.isPublic()) {
                 result.add(eventSerializer.serialize(event));
             }
-        }
+        });
         return Response.ok(streamingOutput(result)).build();
     }
 
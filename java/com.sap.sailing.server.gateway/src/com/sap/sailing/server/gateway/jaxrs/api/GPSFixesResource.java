@@ -1,5 +1,7 @@
 package com.sap.sailing.server.gateway.jaxrs.api;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 import java.util.logging.Level;
@@ -24,6 +26,7 @@ import com.sap.sailing.domain.common.DeviceIdentifier;
 import com.sap.sailing.domain.common.RegattaAndRaceIdentifier;
 import com.sap.sailing.domain.common.tracking.GPSFixMoving;
 import com.sap.sailing.domain.racelogtracking.impl.SmartphoneUUIDIdentifierImpl;
+import com.sap.sailing.server.gateway.deserialization.impl.DeltaEncodedGPSFixMovingBinaryDeserializer;
 import com.sap.sailing.server.gateway.deserialization.impl.FlatSmartphoneUuidAndGPSFixMovingJsonDeserializer;
 import com.sap.sailing.server.gateway.deserialization.impl.Helpers;
 import com.sap.sailing.shared.server.gateway.jaxrs.AbstractSailingServerResource;
@@ -60,14 +63,54 @@ public class GPSFixesResource extends AbstractSailingServerResource {
             logger.warning(String.format("Exception while parsing post request:\n%s", e.toString()));
             return Response.status(Status.BAD_REQUEST).entity("Invalid JSON body in request").type(MediaType.TEXT_PLAIN).build();
         }
-        DeviceIdentifier device = new SmartphoneUUIDIdentifierImpl(data.getA());
-        List<GPSFixMoving> fixes = data.getB();
         JSONObject answer = new JSONObject();
+        storeFixes(data.getA(), data.getB(), returnManeuverUpdate, returnLiveDelay, received, answer);
+        return Response.ok(streamingOutput(answer)).build();
+    }
+
+    /**
+     * High-volume alternative to {@link #postFixes(String, Boolean, Boolean)}: reads the fixes of any number of devices
+     * from the binary, delta-encoded format described by {@link DeltaEncodedGPSFixMovingBinaryDeserializer}, decoding
+     * them directly from the request body. The fixes of each device block are stored in one batch. The response is the
+     * same as for the JSON variant, listing the races affected by all device blocks.
+     */
+    @POST
+    @Consumes(MediaType.APPLICATION_OCTET_STREAM)
+    @Produces("application/json;charset=UTF-8")
+    public Response postBinaryFixes(InputStream body, @QueryParam("returnManeuverUpdate") @DefaultValue("false") Boolean returnManeuverUpdate,
+            @QueryParam("returnLiveDelay") @DefaultValue("false") Boolean returnLiveDelay) {
+        final TimePoint received = MillisecondsTimePoint.now();
+        final DeltaEncodedGPSFixMovingBinaryDeserializer binaryDeserializer = new DeltaEncodedGPSFixMovingBinaryDeserializer(body);
+        final JSONObject answer = new JSONObject();
+        try {
+            Pair<UUID, List<GPSFixMoving>> data;
+            while ((data = binaryDeserializer.readNextDeviceBlock()) != null) {
+                storeFixes(data.getA(), data.getB(), returnManeuverUpdate, returnLiveDelay, received, answer);
+            }
+        } catch (IOException e) {
+            // device blocks read before the problem occurred have been stored already
+            logger.warning(String.format("Exception while reading binary fixes from post request:\n%s", e.toString()));
+            return Response.status(Status.BAD_REQUEST).entity("Invalid binary body in request").type(MediaType.TEXT_PLAIN).build();
+        }
+        return Response.ok(streamingOutput(answer)).build();
+    }
+
+    /**
+     * Stores the {@code fixes} for the smartphone device identified by {@code deviceUuid} and adds the races with
+     * changed maneuvers and live delays reported by the sensor fix store to the {@code "maneuverchanged"} array of
+     * {@code answer}, creating the array if needed.
+     */
+    private void storeFixes(UUID deviceUuid, List<GPSFixMoving> fixes, boolean returnManeuverUpdate,
+            boolean returnLiveDelay, TimePoint received, JSONObject answer) {
+        DeviceIdentifier device = new SmartphoneUUIDIdentifierImpl(deviceUuid);
         try {
             Iterable<Triple<RegattaAndRaceIdentifier, Boolean, Duration>> racesWithManeuverChangedAndLiveDelay = getService().getSensorFixStore().storeFixes(device, fixes, returnManeuverUpdate, returnLiveDelay);
             if (!Util.isEmpty(racesWithManeuverChangedAndLiveDelay)) {
-                JSONArray changed = new JSONArray();
-                answer.put("maneuverchanged", changed);
+                JSONArray changed = (JSONArray) answer.get("maneuverchanged");
+                if (changed == null) {
+                    changed = new JSONArray();
+                    answer.put("maneuverchanged", changed);
+                }
                 for (Triple<RegattaAndRaceIdentifier, Boolean, Duration> raceWithManeuverChangedAndLiveDelay : racesWithManeuverChangedAndLiveDelay) {
                     JSONObject singleRaceRegatta = new JSONObject();
                     singleRaceRegatta.put("regattaName", raceWithManeuverChangedAndLiveDelay.getA().getRegattaName());
@@ -82,6 +125,5 @@ public class GPSFixesResource extends AbstractSailingServerResource {
         } catch (NoCorrespondingServiceRegisteredException e) {
             logger.log(Level.WARNING, "Could not store fix for device " + device);
         }
-        return Response.ok(streamingOutput(answer)).build();
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.sap.sailing.server.gateway.jaxrs.api;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -116,6 +117,7 @@ import com.sap.sailing.domain.racelogtracking.impl.SmartphoneUUIDIdentifierImpl;
 import com.sap.sailing.domain.ranking.RankingMetric.RankingInfo;
 import com.sap.sailing.domain.sharding.ShardingContext;
 import com.sap.sailing.domain.shared.tracking.LineDetails;
+import com.sap.sailing.domain.shared.tracking.impl.ChunkedFixesIterator;
 import com.sap.sailing.domain.tracking.DynamicTrackedRace;
 import com.sap.sailing.domain.tracking.GPSFixTrack;
 import com.sap.sailing.domain.tracking.Maneuver;
@@ -201,6 +203,8 @@ import com.sap.sse.security.shared.impl.SecuredSecurityTypes;
 import com.sap.sse.security.shared.impl.User;
 import com.sap.sse.shared.json.JsonDeserializationException;
 import com.sap.sse.shared.json.JsonSerializer;
+import com.sap.sse.shared.json.JsonStreamWriter;
+import com.sap.sse.shared.json.StreamingJsonSerializer;
 import com.sap.sse.shared.util.impl.UUIDHelper;
 import com.sap.sse.util.HttpRequestUtils;
 import com.sap.sse.util.SingleCalculationPerSubjectCache;
@@ -1030,92 +1034,45 @@ public class RegattasResource extends AbstractSailingServerResource {
                     return Response.status(Status.INTERNAL_SERVER_ERROR).entity("Could not parse the 'to' time.")
                             .type(MediaType.TEXT_PLAIN).build();
                 }
-                JSONObject jsonRace = new JSONObject();
-                jsonRace.put("name", trackedRace.getRace().getName());
-                jsonRace.put("regatta", regatta.getName());
-                JSONArray jsonCompetitors = new JSONArray();
+                final List<Competitor> competitorsToSerialize = new ArrayList<>();
                 for (Competitor competitor : trackedRace.getRace().getCompetitors()) {
                     if (getSecurityService().hasCurrentUserOneOfExplicitPermissions(competitor,
                             SecuredSecurityTypes.PublicReadableActions.READ_AND_READ_PUBLIC_ACTIONS)) {
                         if (competitorIds == null || competitorIds.isEmpty()
                                 || competitorIds.contains(competitor.getId().toString())) {
-                            JSONObject jsonCompetitor = new JSONObject();
-                            jsonCompetitor.put("id", competitor.getId() != null ? competitor.getId().toString() : null);
-                            jsonCompetitor.put("name", competitor.getName());
-                            jsonCompetitor.put("sailNumber", trackedRace.getBoatOfCompetitor(competitor).getSailID());
-                            jsonCompetitor.put("color",
-                                    competitor.getColor() != null ? competitor.getColor().getAsHtml() : null);
-                            if (competitor.getFlagImage() != null) {
-                                jsonCompetitor.put("flagImage", competitor.getFlagImage().toString());
-                            }
-                            final GPSFixTrack<Competitor, GPSFixMoving> track = trackedRace.getTrack(competitor);
-                            JSONArray jsonFixes = new JSONArray();
-                            track.lockForRead();
-                            try {
-                                Iterator<GPSFixMoving> fixIter;
-                                if (from == null) {
-                                    fixIter = raw?track.getRawFixes().iterator():track.getFixes().iterator();
-                                } else {
-                                    fixIter = raw?track.getRawFixesIterator(from, /* inclusive */true):track.getFixesIterator(from, /* inclusive */true);
-                                }
-                                GPSFixMoving fix = null;
-                                boolean lastAdded = false;
-                                while (fixIter.hasNext()) {
-                                    fix = fixIter.next();
-                                    if (to != null && fix.getTimePoint() != null
-                                            && to.compareTo(fix.getTimePoint()) < 0) {
-                                        lastAdded = false;
-                                        break;
-                                    }
-                                    Tack tack = null;
-                                    if (withTack != null && withTack) {
-                                        try {
-                                            tack = trackedRace.getTack(competitor, fix.getTimePoint());
-                                        } catch (NoWindException e) {
-                                            // don't output tack
-                                        }
-                                    }
-                                    addCompetitorFixToJsonFixes(jsonFixes, fix, tack);
-                                    lastAdded = true;
-                                }
-
-                                if (addLastKnown && !lastAdded) {
-                                    // find a fix earlier than the interval requested:
-                                    Iterator<GPSFixMoving> earlierFixIter = raw ?
-                                        track.getRawFixesDescendingIterator(from, /* inclusive */false) :
-                                            track.getFixesDescendingIterator(from, /* inclusive */false);
-                                    final GPSFixMoving earlierFix;
-                                    if (earlierFixIter.hasNext()) {
-                                        earlierFix = earlierFixIter.next();
-                                    } else {
-                                        earlierFix = null;
-                                    }
-                                    Tack tack = null;
-                                    if (withTack != null && withTack) {
-                                        try {
-                                            tack = trackedRace.getTack(competitor, fix.getTimePoint());
-                                        } catch (NoWindException e) {
-                                            // don't output tack
-                                        }
-                                    }
-                                    if (earlierFix != null && (fix == null || earlierFix.getTimePoint().until(from)
-                                            .compareTo(to.until(fix.getTimePoint())) <= 0)) {
-                                        // the earlier fix is closer to the interval's beginning than fix is to its end
-                                        addCompetitorFixToJsonFixes(jsonFixes, earlierFix, tack);
-                                    } else if (fix != null) {
-                                        addCompetitorFixToJsonFixes(jsonFixes, fix, tack);
-                                    }
-                                }
-                            } finally {
-                                track.unlockAfterRead();
-                            }
-                            jsonCompetitor.put("track", jsonFixes);
-                            jsonCompetitors.add(jsonCompetitor);
+                            competitorsToSerialize.add(competitor);
                         }
                     }
                 }
-                jsonRace.put("competitors", jsonCompetitors);
-                response = Response.ok(streamingOutput(jsonRace)).build();
+                final TimePoint finalFrom = from;
+                final TimePoint finalTo = to;
+                // the fixes are written while the response is sent; the tracks are read in chunks so that neither the
+                // fixes need to be held in memory nor the tracks' read locks while writing to the client
+                final StreamingJsonSerializer<TrackedRace> serializer = (tr, writer) -> {
+                    writer.beginObject();
+                    writer.field("name", tr.getRace().getName());
+                    writer.field("regatta", regatta.getName());
+                    writer.name("competitors");
+                    writer.beginArray();
+                    for (Competitor competitor : competitorsToSerialize) {
+                        writer.beginObject();
+                        writer.field("id", competitor.getId() != null ? competitor.getId().toString() : null);
+                        writer.field("name", competitor.getName());
+                        writer.field("sailNumber", tr.getBoatOfCompetitor(competitor).getSailID());
+                        writer.field("color", competitor.getColor() != null ? competitor.getColor().getAsHtml() : null);
+                        if (competitor.getFlagImage() != null) {
+                            writer.field("flagImage", competitor.getFlagImage().toString());
+                        }
+                        writer.name("track");
+                        writer.beginArray();
+                        writeCompetitorFixes(writer, tr, competitor, finalFrom, finalTo, raw, withTack, addLastKnown);
+                        writer.endArray();
+                        writer.endObject();
+                    }
+                    writer.endArray();
+                    writer.endObject();
+                };
+                response = Response.ok(streamingOutput(trackedRace, serializer)).build();
             }
         }
         return response;
@@ -1134,24 +1091,68 @@ public class RegattasResource extends AbstractSailingServerResource {
         }
     }
 
-    private JSONObject addCompetitorFixToJsonFixes(JSONArray jsonFixes, GPSFixMoving fix, Tack tack) {
-        JSONObject jsonFix = new JSONObject();
-        jsonFix.put("timepoint-ms", fix.getTimePoint().asMillis());
-        jsonFix.put("lat-deg", RoundingUtil.latLngDecimalFormatter.format(fix
+    private void writeCompetitorFixes(JsonStreamWriter writer, TrackedRace trackedRace, Competitor competitor,
+            TimePoint from, TimePoint to, boolean raw, Boolean withTack, boolean addLastKnown) throws IOException {
+        final GPSFixTrack<Competitor, GPSFixMoving> track = trackedRace.getTrack(competitor);
+        final Iterator<GPSFixMoving> fixIter = new ChunkedFixesIterator<>(track, raw, from, /* to */ null);
+        GPSFixMoving fix = null;
+        boolean lastAdded = false;
+        while (fixIter.hasNext()) {
+            fix = fixIter.next();
+            if (to != null && fix.getTimePoint() != null
+                    && to.compareTo(fix.getTimePoint()) < 0) {
+                lastAdded = false;
+                break;
+            }
+            Tack tack = null;
+            if (withTack != null && withTack) {
+                try {
+                    tack = trackedRace.getTack(competitor, fix.getTimePoint());
+                } catch (NoWindException e) {
+                    // don't output tack
+                }
+            }
+            writeCompetitorFix(writer, fix, tack);
+            lastAdded = true;
+        }
+        if (addLastKnown && !lastAdded) {
+            // find a fix earlier than the interval requested:
+            final GPSFixMoving earlierFix = raw ? track.getLastRawFixBefore(from) : track.getLastFixBefore(from);
+            Tack tack = null;
+            if (withTack != null && withTack) {
+                try {
+                    tack = trackedRace.getTack(competitor, fix.getTimePoint());
+                } catch (NoWindException e) {
+                    // don't output tack
+                }
+            }
+            if (earlierFix != null && (fix == null || earlierFix.getTimePoint().until(from)
+                    .compareTo(to.until(fix.getTimePoint())) <= 0)) {
+                // the earlier fix is closer to the interval's beginning than fix is to its end
+                writeCompetitorFix(writer, earlierFix, tack);
+            } else if (fix != null) {
+                writeCompetitorFix(writer, fix, tack);
+            }
+        }
+    }
+
+    private void writeCompetitorFix(JsonStreamWriter writer, GPSFixMoving fix, Tack tack) throws IOException {
+        writer.beginObject();
+        writer.field("timepoint-ms", fix.getTimePoint().asMillis());
+        writer.field("lat-deg", RoundingUtil.latLngDecimalFormatter.format(fix
                 .getPosition().getLatDeg()));
-        jsonFix.put("lng-deg", RoundingUtil.latLngDecimalFormatter.format(fix
+        writer.field("lng-deg", RoundingUtil.latLngDecimalFormatter.format(fix
                 .getPosition().getLngDeg()));
-        jsonFix.put("truebearing-deg", fix.getSpeed().getBearing().getDegrees());
-        jsonFix.put("speed-kts",
+        writer.field("truebearing-deg", fix.getSpeed().getBearing().getDegrees());
+        writer.field("speed-kts",
                 RoundingUtil.knotsDecimalFormatter.format(fix.getSpeed().getKnots()));
         if (tack != null) {
-            jsonFix.put("tack", tack.name());
+            writer.field("tack", tack.name());
         }
         if (fix.getOptionalTrueHeading() != null) {
-            jsonFix.put("trueheading-deg", fix.getOptionalTrueHeading().getDegrees());
+            writer.field("trueheading-deg", fix.getOptionalTrueHeading().getDegrees());
         }
-        jsonFixes.add(jsonFix);
-        return jsonFix;
+        writer.endObject();
     }
 
     /**
@@ -1202,10 +1203,6 @@ public class RegattasResource extends AbstractSailingServerResource {
             return Response.status(Status.INTERNAL_SERVER_ERROR).entity("Could not parse the 'to' time.")
                     .type(MediaType.TEXT_PLAIN).build();
         }
-        JSONObject jsonRace = new JSONObject();
-        jsonRace.put("name", trackedRace.getRace().getName());
-        jsonRace.put("regatta", regatta.getName());
-        JSONArray jsonMarks = new JSONArray();
         Set<Mark> marks = new HashSet<Mark>();
         Course course = trackedRace.getRace().getCourse();
         for (Waypoint waypoint : course.getWaypoints()) {
@@ -1213,65 +1210,63 @@ public class RegattasResource extends AbstractSailingServerResource {
                 marks.add(mark);
             }
         }
-        for (Mark mark : marks) {
-            JSONObject jsonMark = new JSONObject();
-            jsonMark.put("name", mark.getName());
-            jsonMark.put("id", mark.getId() != null ? mark.getId().toString() : null);
-            final GPSFixTrack<Mark, GPSFix> track = trackedRace.getOrCreateTrack(mark);
-            JSONArray jsonFixes = new JSONArray();
-            track.lockForRead();
-            try {
-                Iterator<GPSFix> fixIter;
-                if (from == null) {
-                    fixIter = track.getFixes().iterator();
-                } else {
-                    fixIter = track.getFixesIterator(from, /* inclusive */true);
-                }
-                GPSFix fix = null;
-                boolean lastAdded = false;
-                while (fixIter.hasNext()) {
-                    fix = fixIter.next();
-                    if (to != null && fix.getTimePoint() != null && to.compareTo(fix.getTimePoint()) < 0) {
-                        lastAdded = false;
-                        break;
-                    }
-                    addMarkFixToJsonFixes(jsonFixes, fix);
-                    lastAdded = true;
-                }
-                if (addLastKnown && !lastAdded) {
-                    // find a fix earlier than the interval requested:
-                    Iterator<GPSFix> earlierFixIter = track.getFixesDescendingIterator(from, /* inclusive */false);
-                    final GPSFix earlierFix;
-                    if (earlierFixIter.hasNext()) {
-                        earlierFix = earlierFixIter.next();
-                    } else {
-                        earlierFix = null;
-                    }
-                    if (earlierFix != null && (fix == null || earlierFix.getTimePoint().until(from).compareTo(to.until(fix.getTimePoint())) <= 0)) {
-                        addMarkFixToJsonFixes(jsonFixes, earlierFix); // the earlier fix is closer to the interval's beginning than fix is to its end
-                    } else if (fix != null) {
-                        addMarkFixToJsonFixes(jsonFixes, fix);
-                    }
-                }
-            } finally {
-                track.unlockAfterRead();
-            }
-            jsonMark.put("track", jsonFixes);
-            jsonMarks.add(jsonMark);
-        }
-        jsonRace.put("marks", jsonMarks);
-        return Response.ok(streamingOutput(jsonRace)).build();
-    }
-
-    private JSONObject addMarkFixToJsonFixes(JSONArray jsonFixes, GPSFix fix) {
-        JSONObject jsonFix = new JSONObject();
-        jsonFix.put("timepoint-ms", fix.getTimePoint().asMillis());
-        jsonFix.put("lat-deg",
+        final TimePoint finalFrom = from;
+        final TimePoint finalTo = to;
+        final StreamingJsonSerializer<TrackedRace> serializer = (tr, writer) -> {
+            writer.beginObject();
+            writer.field("name", tr.getRace().getName());
+            writer.field("regatta", regatta.getName());
+            writer.name("marks");
+            writer.beginArray();
+            for (Mark mark : marks) {
+                writer.beginObject();
+                writer.field("name", mark.getName());
+                writer.field("id", mark.getId() != null ? mark.getId().toString() : null);
+                writer.name("track");
+                writer.beginArray();
+                writeMarkFixes(writer, tr.getOrCreateTrack(mark), finalFrom, finalTo, addLastKnown);
+                writer.endArray();
+                writer.endObject();
+            }
+            writer.endArray();
+            writer.endObject();
+        };
+        return Response.ok(streamingOutput(trackedRace, serializer)).build();
+    }
+
+    private void writeMarkFixes(JsonStreamWriter writer, GPSFixTrack<Mark, GPSFix> track, TimePoint from, TimePoint to,
+            boolean addLastKnown) throws IOException {
+        final Iterator<GPSFix> fixIter = new ChunkedFixesIterator<>(track, /* raw */ false, from, /* to */ null);
+        GPSFix fix = null;
+        boolean lastAdded = false;
+        while (fixIter.hasNext()) {
+            fix = fixIter.next();
+            if (to != null && fix.getTimePoint() != null && to.compareTo(fix.getTimePoint()) < 0) {
+                lastAdded = false;
+                break;
+            }
+            writeMarkFix(writer, fix);
+            lastAdded = true;
+        }
+        if (addLastKnown && !lastAdded) {
+            // find a fix earlier than the interval requested:
+            final GPSFix earlierFix = track.getLastFixBefore(from);
+            if (earlierFix != null && (fix == null || earlierFix.getTimePoint().until(from).compareTo(to.until(fix.getTimePoint())) <= 0)) {
+                writeMarkFix(writer, earlierFix); // the earlier fix is closer to the interval's beginning than fix is to its end
+            } else if (fix != null) {
+                writeMarkFix(writer, fix);
+            }
+        }
+    }
+
+    private void writeMarkFix(JsonStreamWriter writer, GPSFix fix) throws IOException {
+        writer.beginObject();
+        writer.field("timepoint-ms", fix.getTimePoint().asMillis());
+        writer.field("lat-deg",
                 RoundingUtil.latLngDecimalFormatter.format(fix.getPosition().getLatDeg()));
-        jsonFix.put("lng-deg",
+        writer.field("lng-deg",
                 RoundingUtil.latLngDecimalFormatter.format(fix.getPosition().getLngDeg()));
-        jsonFixes.add(jsonFix);
-        return jsonFix;
+        writer.endObject();
     }
 
     /**
@@ -1834,9 +1829,7 @@ public class RegattasResource extends AbstractSailingServerResource {
                             ws -> new DefaultWindTrackJsonSerializer(/* maxNumberOfFixes */ 10000, finalFrom, finalTo,
                                     ws),
                             windSource, windSourceId);
-
-                    final JSONObject jsonWindTracks = serializer.serialize(trackedRace);
-                    response = Response.ok(streamingOutput(jsonWindTracks)).build();
+                    response = Response.ok(streamingOutput(trackedRace, serializer)).build();
                 }
             }
         }
@@ -2050,14 +2043,23 @@ public class RegattasResource extends AbstractSailingServerResource {
 
                     ManeuversJsonSerializer serializer = new ManeuversJsonSerializer(
                             new ManeuverJsonSerializer(new GPSFixJsonSerializer(), new DistanceJsonSerializer()));
-                    JSONObject jsonMarkPassings = serializer.serialize(data);
-                    return Response.ok(streamingOutput(jsonMarkPassings)).build();
+                    return Response.ok(streamingOutput(data, serializer)).build();
                 }
             }
         }
         return response;
     }
 
+    /**
+     * Checks the permissions for all competitors before the response status is sent and then streams the tracks of
+     * the competitors the current user may read
+     */
+    private Response streamCompetitorTracksWithEstimationData(TrackedRace trackedRace,
+            CompetitorTrackWithEstimationDataJsonSerializer serializer) {
+        final List<Competitor> competitors = serializer.getCompetitorsReadableByCurrentUser(trackedRace);
+        return Response.ok(streamingOutput(trackedRace, (race, writer) -> serializer.serialize(race, competitors, writer))).build();
+    }
+
     @GET
     @Produces("application/json;charset=UTF-8")
     @Path("{regattaname}/races/{racename}/completeManeuverCurvesWithEstimationData")
@@ -2097,8 +2099,7 @@ public class RegattasResource extends AbstractSailingServerResource {
                         getNullableValueFromDefault(endBeforeStartLineInSeconds),
                         getNullableValueFromDefault(startAfterFinishLineInSeconds),
                         getNullableValueFromDefault(endAfterFinishLineInSeconds));
-                JSONObject jsonMarkPassings = serializer.serialize(trackedRace);
-                return Response.ok(streamingOutput(jsonMarkPassings)).build();
+                return streamCompetitorTracksWithEstimationData(trackedRace, serializer);
             }
         }
         return response;
@@ -2142,8 +2143,7 @@ public class RegattasResource extends AbstractSailingServerResource {
                         getNullableValueFromDefault(endBeforeStartLineInSeconds),
                         getNullableValueFromDefault(startAfterFinishLineInSeconds),
                         getNullableValueFromDefault(endAfterFinishLineInSeconds));
-                JSONObject jsonMarkPassings = serializer.serialize(trackedRace);
-                return Response.ok(streamingOutput(jsonMarkPassings)).build();
+                return streamCompetitorTracksWithEstimationData(trackedRace, serializer);
             }
         }
         return response;
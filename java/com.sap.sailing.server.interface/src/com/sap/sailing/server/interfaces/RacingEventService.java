@@ -85,6 +85,7 @@ import com.sap.sailing.domain.leaderboard.RegattaLeaderboardWithEliminations;
 import com.sap.sailing.domain.leaderboard.RegattaLeaderboardWithOtherTieBreakingLeaderboard;
 import com.sap.sailing.domain.leaderboard.ScoringScheme;
 import com.sap.sailing.domain.leaderboard.impl.DelegatingRegattaLeaderboardWithCompetitorElimination;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprintRegistry;
 import com.sap.sailing.domain.markpassinghash.MarkPassingRaceFingerprintRegistry;
 import com.sap.sailing.domain.persistence.DomainObjectFactory;
 import com.sap.sailing.domain.persistence.MongoObjectFactory;
@@ -157,7 +158,7 @@ import com.sap.sse.shared.media.VideoDescriptor;
  *
  */
 public interface RacingEventService extends TrackedRegattaRegistry, RegattaFetcher, RegattaRegistry, MarkPassingRaceFingerprintRegistry,
-        RaceFetcher, LeaderboardRegistry, EventResolver, LeaderboardGroupResolver, TrackerManager,
+        ManeuverRaceFingerprintRegistry, RaceFetcher, LeaderboardRegistry, EventResolver, LeaderboardGroupResolver, TrackerManager,
         Searchable<LeaderboardSearchResult, KeywordQueryWithOptionalEventQualification>,
         ReplicableWithObjectInputStream<RacingEventService, RacingEventServiceOperation<?>>, RaceLogAndTrackedRaceResolver,
         SensorFixStoreSupplier, WindFinderReviewedSpotsCollectionIdProvider {
@@ -851,6 +852,26 @@ public interface RacingEventService extends TrackedRegattaRegistry, RegattaFetch
      */
     int getNumberOfTrackedRacesRestored();
 
+    /**
+     * When restoring tracked races was requested upon creation of this service, this method tells the number of races
+     * whose connectivity parameters have been loaded but whose loading process hasn't been triggered yet. Otherwise, it
+     * returns 0.
+     */
+    int getNumberOfTrackedRacesPendingRestore();
+
+    /**
+     * When restoring tracked races was requested upon creation of this service, this method tells the number of races
+     * whose trackers are currently being created and whose race definitions are awaited. Otherwise, it returns 0.
+     */
+    int getNumberOfTrackedRacesRestoring();
+
+    /**
+     * When restoring tracked races was requested upon creation of this service, this method tells the number of races
+     * whose restore failed and which have therefore been removed from the list of races to restore. Otherwise, it
+     * returns 0.
+     */
+    int getNumberOfTrackedRacesFailedToRestore();
+
     /**
      * Provides {@link Statistics statistic information} for every year which is covered by the local
      * server.
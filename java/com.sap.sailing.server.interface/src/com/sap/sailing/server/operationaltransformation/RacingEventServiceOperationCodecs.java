@@ -0,0 +1,324 @@
+package com.sap.sailing.server.operationaltransformation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.UUID;
+
+import com.sap.sailing.domain.common.Position;
+import com.sap.sailing.domain.common.RegattaAndRaceIdentifier;
+import com.sap.sailing.domain.common.RegattaNameAndRaceName;
+import com.sap.sailing.domain.common.SpeedWithBearing;
+import com.sap.sailing.domain.common.Wind;
+import com.sap.sailing.domain.common.WindSource;
+import com.sap.sailing.domain.common.WindSourceType;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.impl.WindImpl;
+import com.sap.sailing.domain.common.impl.WindSourceImpl;
+import com.sap.sailing.domain.common.impl.WindSourceWithAdditionalID;
+import com.sap.sailing.domain.common.tracking.GPSFix;
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixImpl;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixMovingImpl;
+import com.sap.sse.common.Bearing;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+import com.sap.sse.replication.OperationCodec;
+import com.sap.sse.replication.OperationCodecRegistry;
+
+/**
+ * Binary {@link OperationCodec}s for the {@link RacingEventServiceOperation}s replicated most frequently, namely those
+ * recording competitor GPS fixes, mark GPS fixes and wind fixes. The codecs only handle the common implementation
+ * classes of the objects referenced by these operations, such as {@link RegattaNameAndRaceName},
+ * {@link GPSFixMovingImpl} or {@link DegreePosition}, and {@link UUID} or {@link String} IDs; operations referencing
+ * anything else are {@link OperationCodec#canEncode(com.sap.sse.replication.OperationWithResult) rejected} and hence
+ * replicated using Java serialization.
+ * <p>
+ *
+ * The codec IDs are part of the replication protocol; once assigned, they must not be re-used for a different format.
+ */
+public class RacingEventServiceOperationCodecs {
+    private static final byte UUID_ID = 1;
+    private static final byte STRING_ID = 2;
+    private static final byte GPS_FIX = 1;
+    private static final byte GPS_FIX_MOVING = 2;
+
+    private static final OperationCodecRegistry REGISTRY = new OperationCodecRegistry(
+            new RecordCompetitorGPSFixCodec(), new RecordMarkGPSFixForExistingTrackCodec(), new RecordWindFixCodec());
+
+    /**
+     * @return the codecs to use for replicating the operations of the {@code RacingEventService}
+     */
+    public static OperationCodecRegistry getRegistry() {
+        return REGISTRY;
+    }
+
+    private static class RecordCompetitorGPSFixCodec implements OperationCodec<RecordCompetitorGPSFix> {
+        @Override
+        public short getCodecId() {
+            return 1;
+        }
+
+        @Override
+        public Class<RecordCompetitorGPSFix> getOperationType() {
+            return RecordCompetitorGPSFix.class;
+        }
+
+        @Override
+        public boolean canEncode(RecordCompetitorGPSFix operation) {
+            return canEncodeRaceIdentifier(operation.getRaceIdentifier()) && canEncodeId(operation.getCompetitorID())
+                    && operation.getGpsFix() != null && operation.getGpsFix().getClass() == GPSFixMovingImpl.class
+                    && canEncodeFix(operation.getGpsFix());
+        }
+
+        @Override
+        public void encode(RecordCompetitorGPSFix operation, DataOutput out) throws IOException {
+            writeRaceIdentifier(operation.getRaceIdentifier(), out);
+            writeId(operation.getCompetitorID(), out);
+            writeFix(operation.getGpsFix(), out);
+        }
+
+        @Override
+        public RecordCompetitorGPSFix decode(DataInput in) throws IOException {
+            return new RecordCompetitorGPSFix(readRaceIdentifier(in), readId(in), (GPSFixMoving) readFix(in));
+        }
+    }
+
+    private static class RecordMarkGPSFixForExistingTrackCodec implements OperationCodec<RecordMarkGPSFixForExistingTrack> {
+        @Override
+        public short getCodecId() {
+            return 2;
+        }
+
+        @Override
+        public Class<RecordMarkGPSFixForExistingTrack> getOperationType() {
+            return RecordMarkGPSFixForExistingTrack.class;
+        }
+
+        @Override
+        public boolean canEncode(RecordMarkGPSFixForExistingTrack operation) {
+            return canEncodeRaceIdentifier(operation.getRaceIdentifier()) && canEncodeId(operation.getMarkId())
+                    && operation.getFix() != null && canEncodeFix(operation.getFix());
+        }
+
+        @Override
+        public void encode(RecordMarkGPSFixForExistingTrack operation, DataOutput out) throws IOException {
+            writeRaceIdentifier(operation.getRaceIdentifier(), out);
+            writeId(operation.getMarkId(), out);
+            writeFix(operation.getFix(), out);
+        }
+
+        @Override
+        public RecordMarkGPSFixForExistingTrack decode(DataInput in) throws IOException {
+            return new RecordMarkGPSFixForExistingTrack(readRaceIdentifier(in), readId(in), readFix(in));
+        }
+    }
+
+    private static class RecordWindFixCodec implements OperationCodec<RecordWindFix> {
+        @Override
+        public short getCodecId() {
+            return 3;
+        }
+
+        @Override
+        public Class<RecordWindFix> getOperationType() {
+            return RecordWindFix.class;
+        }
+
+        @Override
+        public boolean canEncode(RecordWindFix operation) {
+            final WindSource windSource = operation.getWindSource();
+            final Wind wind = operation.getWind();
+            return canEncodeRaceIdentifier(operation.getRaceIdentifier()) && windSource != null
+                    && (windSource.getClass() == WindSourceImpl.class || (windSource.getClass() == WindSourceWithAdditionalID.class
+                            && ((WindSourceWithAdditionalID) windSource).getId() != null))
+                    && wind != null && wind.getClass() == WindImpl.class && canEncodePosition(wind.getPosition())
+                    && canEncodeTimePoint(wind.getTimePoint()) && canEncodeBearing(wind.getBearing());
+        }
+
+        @Override
+        public void encode(RecordWindFix operation, DataOutput out) throws IOException {
+            writeRaceIdentifier(operation.getRaceIdentifier(), out);
+            final WindSource windSource = operation.getWindSource();
+            out.writeUTF(windSource.getType().name());
+            writeString(windSource instanceof WindSourceWithAdditionalID ? ((WindSourceWithAdditionalID) windSource).getId() : null, out);
+            final Wind wind = operation.getWind();
+            writePosition(wind.getPosition(), out);
+            writeTimePoint(wind.getTimePoint(), out);
+            out.writeDouble(wind.getKnots());
+            writeBearing(wind.getBearing(), out);
+        }
+
+        @Override
+        public RecordWindFix decode(DataInput in) throws IOException {
+            final RegattaAndRaceIdentifier raceIdentifier = readRaceIdentifier(in);
+            final WindSourceType windSourceType = WindSourceType.valueOf(in.readUTF());
+            final String windSourceId = readString(in);
+            final WindSource windSource = windSourceId == null ? new WindSourceImpl(windSourceType)
+                    : new WindSourceWithAdditionalID(windSourceType, windSourceId);
+            final Position position = readPosition(in);
+            final TimePoint timePoint = readTimePoint(in);
+            final double knots = in.readDouble();
+            final Bearing bearing = readBearing(in);
+            return new RecordWindFix(raceIdentifier, windSource, new WindImpl(position, timePoint, new KnotSpeedWithBearingImpl(knots, bearing)));
+        }
+    }
+
+    private static boolean canEncodeRaceIdentifier(RegattaAndRaceIdentifier raceIdentifier) {
+        return raceIdentifier != null && raceIdentifier.getClass() == RegattaNameAndRaceName.class;
+    }
+
+    private static void writeRaceIdentifier(RegattaAndRaceIdentifier raceIdentifier, DataOutput out) throws IOException {
+        writeString(raceIdentifier.getRegattaName(), out);
+        writeString(raceIdentifier.getRaceName(), out);
+    }
+
+    private static RegattaAndRaceIdentifier readRaceIdentifier(DataInput in) throws IOException {
+        final String regattaName = readString(in);
+        final String raceName = readString(in);
+        return new RegattaNameAndRaceName(regattaName, raceName);
+    }
+
+    private static boolean canEncodeId(Serializable id) {
+        return id instanceof UUID || id instanceof String;
+    }
+
+    private static void writeId(Serializable id, DataOutput out) throws IOException {
+        if (id instanceof UUID) {
+            out.writeByte(UUID_ID);
+            out.writeLong(((UUID) id).getMostSignificantBits());
+            out.writeLong(((UUID) id).getLeastSignificantBits());
+        } else {
+            out.writeByte(STRING_ID);
+            out.writeUTF((String) id);
+        }
+    }
+
+    private static Serializable readId(DataInput in) throws IOException {
+        final byte type = in.readByte();
+        final Serializable result;
+        switch (type) {
+        case UUID_ID:
+            result = new UUID(in.readLong(), in.readLong());
+            break;
+        case STRING_ID:
+            result = in.readUTF();
+            break;
+        default:
+            throw new IOException("Unknown ID type " + type);
+        }
+        return result;
+    }
+
+    private static void writeString(String s, DataOutput out) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) {
+            out.writeUTF(s);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static boolean canEncodeFix(GPSFix fix) {
+        final boolean result;
+        if (fix.getClass() == GPSFixImpl.class) {
+            result = canEncodePosition(fix.getPosition()) && canEncodeTimePoint(fix.getTimePoint());
+        } else if (fix.getClass() == GPSFixMovingImpl.class) {
+            final GPSFixMoving fixMoving = (GPSFixMoving) fix;
+            final SpeedWithBearing speed = fixMoving.getSpeed();
+            result = canEncodePosition(fix.getPosition()) && canEncodeTimePoint(fix.getTimePoint())
+                    && (speed == null || (speed.getClass() == KnotSpeedWithBearingImpl.class && canEncodeBearing(speed.getBearing())))
+                    && canEncodeBearing(fixMoving.getOptionalTrueHeading());
+        } else {
+            result = false;
+        }
+        return result;
+    }
+
+    private static void writeFix(GPSFix fix, DataOutput out) throws IOException {
+        final boolean moving = fix.getClass() == GPSFixMovingImpl.class;
+        out.writeByte(moving ? GPS_FIX_MOVING : GPS_FIX);
+        writePosition(fix.getPosition(), out);
+        writeTimePoint(fix.getTimePoint(), out);
+        if (moving) {
+            final GPSFixMoving fixMoving = (GPSFixMoving) fix;
+            final SpeedWithBearing speed = fixMoving.getSpeed();
+            out.writeBoolean(speed != null);
+            if (speed != null) {
+                out.writeDouble(speed.getKnots());
+                writeBearing(speed.getBearing(), out);
+            }
+            writeBearing(fixMoving.getOptionalTrueHeading(), out);
+        }
+    }
+
+    private static GPSFix readFix(DataInput in) throws IOException {
+        final byte type = in.readByte();
+        final Position position = readPosition(in);
+        final TimePoint timePoint = readTimePoint(in);
+        final GPSFix result;
+        switch (type) {
+        case GPS_FIX:
+            result = new GPSFixImpl(position, timePoint);
+            break;
+        case GPS_FIX_MOVING:
+            final SpeedWithBearing speed = in.readBoolean() ? new KnotSpeedWithBearingImpl(in.readDouble(), readBearing(in)) : null;
+            result = new GPSFixMovingImpl(position, timePoint, speed, readBearing(in));
+            break;
+        default:
+            throw new IOException("Unknown fix type " + type);
+        }
+        return result;
+    }
+
+    private static boolean canEncodePosition(Position position) {
+        return position == null || position.getClass() == DegreePosition.class;
+    }
+
+    private static void writePosition(Position position, DataOutput out) throws IOException {
+        out.writeBoolean(position != null);
+        if (position != null) {
+            out.writeDouble(position.getLatDeg());
+            out.writeDouble(position.getLngDeg());
+        }
+    }
+
+    private static Position readPosition(DataInput in) throws IOException {
+        return in.readBoolean() ? new DegreePosition(in.readDouble(), in.readDouble()) : null;
+    }
+
+    private static boolean canEncodeTimePoint(TimePoint timePoint) {
+        return timePoint == null || timePoint.getClass() == MillisecondsTimePoint.class;
+    }
+
+    private static void writeTimePoint(TimePoint timePoint, DataOutput out) throws IOException {
+        out.writeBoolean(timePoint != null);
+        if (timePoint != null) {
+            out.writeLong(timePoint.asMillis());
+        }
+    }
+
+    private static TimePoint readTimePoint(DataInput in) throws IOException {
+        return in.readBoolean() ? new MillisecondsTimePoint(in.readLong()) : null;
+    }
+
+    private static boolean canEncodeBearing(Bearing bearing) {
+        return bearing == null || bearing.getClass() == DegreeBearingImpl.class;
+    }
+
+    private static void writeBearing(Bearing bearing, DataOutput out) throws IOException {
+        out.writeBoolean(bearing != null);
+        if (bearing != null) {
+            out.writeDouble(bearing.getDegrees());
+        }
+    }
+
+    private static Bearing readBearing(DataInput in) throws IOException {
+        return in.readBoolean() ? new DegreeBearingImpl(in.readDouble()) : null;
+    }
+}
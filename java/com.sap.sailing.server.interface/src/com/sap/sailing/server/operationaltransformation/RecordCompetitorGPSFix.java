@@ -15,11 +15,23 @@ public class RecordCompetitorGPSFix extends AbstractRaceOperation<Void> {
     private final GPSFixMoving gpsFix;
     
     public RecordCompetitorGPSFix(RegattaAndRaceIdentifier raceIdentifier, Competitor competitor, GPSFixMoving gpsFix) {
+        this(raceIdentifier, competitor.getId(), gpsFix);
+    }
+
+    RecordCompetitorGPSFix(RegattaAndRaceIdentifier raceIdentifier, Serializable competitorID, GPSFixMoving gpsFix) {
         super(raceIdentifier);
-        this.competitorID = competitor.getId();
+        this.competitorID = competitorID;
         this.gpsFix = gpsFix;
     }
 
+    Serializable getCompetitorID() {
+        return competitorID;
+    }
+
+    GPSFixMoving getGpsFix() {
+        return gpsFix;
+    }
+
     /**
      * Operations of this type can be run in parallel to other operations; subsequent operations do not have to wait
      * for this operation's completion.
@@ -15,8 +15,16 @@ public class RecordMarkGPSFixForExistingTrack extends RecordMarkGPSFix {
     private final Serializable markId;
 
     public RecordMarkGPSFixForExistingTrack(RegattaAndRaceIdentifier raceIdentifier, Mark mark, GPSFix fix) {
+        this(raceIdentifier, mark.getId(), fix);
+    }
+
+    RecordMarkGPSFixForExistingTrack(RegattaAndRaceIdentifier raceIdentifier, Serializable markId, GPSFix fix) {
         super(raceIdentifier, fix);
-        this.markId = mark.getId();
+        this.markId = markId;
+    }
+
+    Serializable getMarkId() {
+        return markId;
     }
     
     private Mark getMarkById(DynamicTrackedRace trackedRace) {
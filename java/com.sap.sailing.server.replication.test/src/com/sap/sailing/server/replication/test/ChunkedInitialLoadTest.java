@@ -0,0 +1,213 @@
+package com.sap.sailing.server.replication.test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import com.sap.sse.replication.Replicable;
+import com.sap.sse.replication.impl.ChunkedInitialLoadReader;
+import com.sap.sse.replication.impl.ChunkedInitialLoadWriter;
+
+@Timeout(value = 20, unit = TimeUnit.SECONDS)
+public class ChunkedInitialLoadTest {
+    private static final int CHUNK_SIZE = 1000;
+
+    private ExecutorService executor;
+    private Map<Object, byte[]> restored;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+        restored = new ConcurrentHashMap<>();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static byte[] createContent(int seed, int length) {
+        final byte[] result = new byte[length];
+        new Random(seed).nextBytes(result);
+        return result;
+    }
+
+    /**
+     * A replicable that writes {@code content} as its initial load, or fails if {@code content} is {@code null}, and
+     * records what it read from an initial load in {@link #restored}
+     */
+    private Replicable<?, ?> createReplicable(String id, byte[] content) throws Exception {
+        final Replicable<?, ?> replicable = mock(Replicable.class);
+        when(replicable.getId()).thenReturn(id);
+        doAnswer(invocation -> {
+            if (content == null) {
+                throw new IOException("Simulated failure serializing " + id);
+            }
+            final OutputStream os = invocation.getArgument(0);
+            // write in odd portions to exercise splitting into chunks
+            for (int i = 0; i < content.length; i += 777) {
+                os.write(content, i, Math.min(777, content.length - i));
+            }
+            os.flush();
+            return null;
+        }).when(replicable).serializeForInitialReplication(any(OutputStream.class));
+        doAnswer(invocation -> {
+            final InputStream is = invocation.getArgument(0);
+            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            int b;
+            while ((b = is.read()) != -1) {
+                bos.write(b);
+            }
+            restored.put(id, bos.toByteArray());
+            return null;
+        }).when(replicable).initiallyFillFrom(any(InputStream.class));
+        return replicable;
+    }
+
+    private byte[] write(List<Replicable<?, ?>> replicables, Class<? extends Exception> expectedException) throws Exception {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final ChunkedInitialLoadWriter writer = new ChunkedInitialLoadWriter(bos, CHUNK_SIZE);
+        if (expectedException == null) {
+            writer.write(replicables, executor);
+        } else {
+            assertThrows(expectedException, () -> writer.write(replicables, executor));
+        }
+        return bos.toByteArray();
+    }
+
+    @Test
+    public void testReplicablesAreRestoredFromInterleavedChunks() throws Exception {
+        final byte[] a = createContent(1, 50000);
+        final byte[] b = createContent(2, 0);
+        final byte[] c = createContent(3, 12345);
+        final List<Replicable<?, ?>> replicables = Arrays.asList(createReplicable("a", a), createReplicable("b", b), createReplicable("c", c));
+        final byte[] initialLoad = write(replicables, null);
+        final Map<Object, Long> progress = new ConcurrentHashMap<>();
+        // allow only a single queued chunk per replicable to exercise the back-pressure
+        new ChunkedInitialLoadReader(new ByteArrayInputStream(initialLoad), /* maximumNumberOfQueuedChunksPerReplicable */ 1,
+                (replicable, bytesReceived) -> progress.put(replicable.getId(), bytesReceived)).read(replicables, executor);
+        assertArrayEquals(a, restored.get("a"));
+        assertArrayEquals(b, restored.get("b"));
+        assertArrayEquals(c, restored.get("c"));
+        assertEquals(a.length, progress.get("a").longValue());
+        assertEquals(c.length, progress.get("c").longValue());
+    }
+
+    @Test
+    public void testFailureToSerializeOneReplicableDoesNotAffectTheOthers() throws Exception {
+        final byte[] a = createContent(1, 5000);
+        final byte[] c = createContent(3, 7000);
+        final List<Replicable<?, ?>> replicables = new ArrayList<>(Arrays.asList(createReplicable("a", a),
+                createReplicable("b", /* fail */ null), createReplicable("c", c)));
+        final byte[] initialLoad = write(replicables, ExecutionException.class);
+        final ExecutionException e = assertThrows(ExecutionException.class,
+                () -> new ChunkedInitialLoadReader(new ByteArrayInputStream(initialLoad), (replicable, bytesReceived) -> {})
+                    .read(replicables, executor));
+        assertTrue(e.getCause() instanceof IOException);
+        assertArrayEquals(a, restored.get("a"));
+        assertArrayEquals(c, restored.get("c"));
+    }
+
+    @Test
+    public void testTruncatedStreamAbortsAllReplicables() throws Exception {
+        final List<Replicable<?, ?>> replicables = Arrays.asList(createReplicable("a", createContent(1, 5000)),
+                createReplicable("b", createContent(2, 5000)));
+        final byte[] initialLoad = write(replicables, null);
+        assertThrows(IOException.class,
+                () -> new ChunkedInitialLoadReader(new ByteArrayInputStream(Arrays.copyOf(initialLoad, initialLoad.length / 2)),
+                        (replicable, bytesReceived) -> {}).read(replicables, executor));
+        assertTrue(restored.isEmpty());
+    }
+
+    @Test
+    public void testErrorWhileReadingReleasesAllReplicables() throws Exception {
+        final List<Replicable<?, ?>> replicables = Arrays.asList(createReplicable("a", createContent(1, 50000)),
+                createReplicable("b", createContent(2, 50000)));
+        final byte[] initialLoad = write(replicables, null);
+        assertThrows(OutOfMemoryError.class,
+                () -> new ChunkedInitialLoadReader(new ByteArrayInputStream(initialLoad), /* maximumNumberOfQueuedChunksPerReplicable */ 1,
+                        (replicable, bytesReceived) -> {
+                            throw new OutOfMemoryError("Simulated error while reading the initial load");
+                        }).read(replicables, executor));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(restored.isEmpty());
+    }
+
+    @Test
+    public void testInterruptWhileWaitingForReplicableReleasesItAndKeepsInterruptFlag() throws Exception {
+        final byte[] content = createContent(1, 50000);
+        final Replicable<?, ?> slowReplicable = mock(Replicable.class);
+        when(slowReplicable.getId()).thenReturn("slow");
+        final CountDownLatch firstByteRead = new CountDownLatch(1);
+        final CountDownLatch proceed = new CountDownLatch(1);
+        final AtomicReference<Exception> replicableFailure = new AtomicReference<>();
+        doAnswer(invocation -> {
+            final InputStream is = invocation.getArgument(0);
+            is.read();
+            firstByteRead.countDown();
+            proceed.await();
+            try {
+                while (is.read() != -1);
+            } catch (IOException e) {
+                replicableFailure.set(e);
+                throw e;
+            }
+            return null;
+        }).when(slowReplicable).initiallyFillFrom(any(InputStream.class));
+        final List<Replicable<?, ?>> replicables = Arrays.asList(createReplicable("slow", content));
+        final byte[] initialLoad = write(replicables, null);
+        final AtomicReference<Throwable> readerFailure = new AtomicReference<>();
+        final AtomicBoolean interruptFlagSet = new AtomicBoolean();
+        final Thread readerThread = new Thread(() -> {
+            try {
+                new ChunkedInitialLoadReader(new ByteArrayInputStream(initialLoad), /* maximumNumberOfQueuedChunksPerReplicable */ 1,
+                        (replicable, bytesReceived) -> {}).read(Arrays.asList(slowReplicable), executor);
+            } catch (Throwable e) {
+                readerFailure.set(e);
+                interruptFlagSet.set(Thread.currentThread().isInterrupted());
+            }
+        });
+        readerThread.start();
+        assertTrue(firstByteRead.await(10, TimeUnit.SECONDS));
+        // give the reader time to fill the queue of the replicable and block
+        Thread.sleep(200);
+        readerThread.interrupt();
+        readerThread.join(10000);
+        assertTrue(readerFailure.get() instanceof InterruptedException);
+        assertTrue(interruptFlagSet.get());
+        proceed.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(replicableFailure.get() instanceof IOException);
+    }
+}
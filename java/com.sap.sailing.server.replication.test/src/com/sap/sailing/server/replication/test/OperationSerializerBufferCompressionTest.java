@@ -0,0 +1,145 @@
+package com.sap.sailing.server.replication.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Timer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import com.sap.sailing.domain.common.RegattaNameAndRaceName;
+import com.sap.sailing.domain.common.WindSourceType;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.impl.WindImpl;
+import com.sap.sailing.domain.common.impl.WindSourceImpl;
+import com.sap.sailing.server.interfaces.RacingEventService;
+import com.sap.sailing.server.interfaces.RacingEventServiceOperation;
+import com.sap.sailing.server.operationaltransformation.RacingEventServiceOperationCodecs;
+import com.sap.sailing.server.operationaltransformation.RecordWindFix;
+import com.sap.sse.common.Duration;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+import com.sap.sse.replication.Replicable;
+import com.sap.sse.replication.ReplicationReceiver;
+import com.sap.sse.replication.impl.OperationSerializerBufferImpl;
+import com.sap.sse.replication.impl.ReplicationMessageCompression;
+
+import net.jpountz.lz4.LZ4BlockInputStream;
+
+@Timeout(value = 10, unit = TimeUnit.SECONDS)
+public class OperationSerializerBufferCompressionTest {
+    private Timer timer;
+    private BlockingQueue<byte[]> messages;
+    private Replicable<RacingEventService, RacingEventServiceOperation<?>> replicable;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    public void setUp() {
+        timer = new Timer(/* isDaemon */ true);
+        messages = new LinkedBlockingQueue<>();
+        replicable = mock(Replicable.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        when(replicable.getId()).thenReturn("Replicable");
+        when(replicable.getOperationCodecRegistry()).thenReturn(RacingEventServiceOperationCodecs.getRegistry());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        timer.cancel();
+    }
+
+    private List<RecordWindFix> createOperations(int count) {
+        final List<RecordWindFix> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(new RecordWindFix(new RegattaNameAndRaceName("Regatta", "Race"), new WindSourceImpl(WindSourceType.WEB),
+                    new WindImpl(new DegreePosition(54, 10), new MillisecondsTimePoint(i * 1000),
+                            new KnotSpeedWithBearingImpl(12, new DegreeBearingImpl(270)))));
+        }
+        return result;
+    }
+
+    private byte[] send(ReplicationMessageCompression compression, List<RecordWindFix> operations) throws Exception {
+        final OperationSerializerBufferImpl buffer = new OperationSerializerBufferImpl(
+                (message, typesInMessage) -> messages.add(message), Duration.ofMillis(500), 1024 * 1024, timer, compression);
+        for (final RecordWindFix operation : operations) {
+            buffer.write(operation, replicable);
+        }
+        return messages.take();
+    }
+
+    private List<RacingEventServiceOperation<?>> receive(byte[] message) throws Exception {
+        final InputStream is = ReplicationMessageCompression.createUncompressingInputStream(message);
+        final DataInputStream dis = new DataInputStream(is);
+        assertEquals(ReplicationReceiver.VERSION_INDICATOR, dis.readUTF());
+        assertEquals(3, dis.read());
+        assertEquals("Replicable", dis.readUTF());
+        final ObjectInputStream ois = new ObjectInputStream(is);
+        final List<RacingEventServiceOperation<?>> result = new ArrayList<>();
+        try {
+            while (true) {
+                result.add(replicable.readEncodedOperationFromObjectInputStream(ois));
+            }
+        } catch (EOFException e) {
+            // expected at the end of the message
+        }
+        return result;
+    }
+
+    private static boolean startsWithLZ4Magic(byte[] message) {
+        return new String(Arrays.copyOf(message, 8), StandardCharsets.US_ASCII).equals("LZ4Block");
+    }
+
+    @Test
+    public void testLargeMessageIsCompressed() throws Exception {
+        final byte[] message = send(ReplicationMessageCompression.LZ4, createOperations(1000));
+        assertTrue(startsWithLZ4Magic(message));
+        assertEquals(1000, receive(message).size());
+    }
+
+    @Test
+    public void testSmallMessageIsSentUncompressed() throws Exception {
+        final byte[] message = send(ReplicationMessageCompression.LZ4, createOperations(1));
+        assertTrue(message.length < ReplicationMessageCompression.getMinimumMessageSizeForCompressionInBytes());
+        assertTrue(!startsWithLZ4Magic(message));
+        final List<RacingEventServiceOperation<?>> received = receive(message);
+        assertEquals(1, received.size());
+        assertSame(RecordWindFix.class, received.get(0).getClass());
+    }
+
+    @Test
+    public void testNoCompression() throws Exception {
+        final byte[] message = send(ReplicationMessageCompression.NONE, createOperations(1000));
+        assertTrue(!startsWithLZ4Magic(message));
+        assertEquals(1000, receive(message).size());
+    }
+
+    @Test
+    public void testSmallMessageIsCompressedForOldReplicas() throws Exception {
+        final byte[] message = send(ReplicationMessageCompression.LZ4_ALWAYS, createOperations(1));
+        assertTrue(startsWithLZ4Magic(message));
+        assertEquals(1, receive(message).size());
+        // replicas that don't know ReplicationMessageCompression yet read each message through an LZ4 stream
+        final DataInputStream dis = new DataInputStream(new LZ4BlockInputStream(new ByteArrayInputStream(message)));
+        assertEquals(ReplicationReceiver.VERSION_INDICATOR, dis.readUTF());
+    }
+}
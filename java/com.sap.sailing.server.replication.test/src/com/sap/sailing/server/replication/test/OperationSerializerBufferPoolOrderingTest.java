@@ -0,0 +1,162 @@
+package com.sap.sailing.server.replication.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Timer;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import com.sap.sse.common.Duration;
+import com.sap.sse.replication.OperationWithResult;
+import com.sap.sse.replication.Replicable;
+import com.sap.sse.replication.ReplicationReceiver;
+import com.sap.sse.replication.impl.OperationSerializerBufferPool;
+import com.sap.sse.replication.impl.ReplicationMessageCompression;
+
+/**
+ * The {@link OperationSerializerBufferPool} serializes operations on several threads in parallel; the operations of
+ * one replicable that have equal {@link OperationWithResult#getKeyForAsynchronousExecution() keys} must still reach
+ * the replicas in the order in which they were written to the pool.
+ */
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+public class OperationSerializerBufferPoolOrderingTest {
+    private static final int NUMBER_OF_KEYS = 20;
+    private static final int OPERATIONS_PER_KEY = 2000;
+
+    private Timer timer;
+    private List<byte[]> messages;
+    private OperationSerializerBufferPool pool;
+    private Replicable<Object, SequencedOperation> replicable;
+    private Replicable<Object, SequencedOperation> otherReplicable;
+
+    private static class SequencedOperation implements OperationWithResult<Object, Void> {
+        private static final long serialVersionUID = -2919707707311870934L;
+        private final String key;
+        private final int sequenceNumber;
+
+        private SequencedOperation(String key, int sequenceNumber) {
+            this.key = key;
+            this.sequenceNumber = sequenceNumber;
+        }
+
+        @Override
+        public Void internalApplyTo(Object toState) {
+            return null;
+        }
+
+        @Override
+        public boolean requiresSynchronousExecution() {
+            return false;
+        }
+
+        @Override
+        public Object getKeyForAsynchronousExecution() {
+            return key;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Replicable<Object, SequencedOperation> createReplicable(String id) {
+        final Replicable<Object, SequencedOperation> result = mock(Replicable.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        when(result.getId()).thenReturn(id);
+        return result;
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        timer = new Timer(/* isDaemon */ true);
+        messages = new ArrayList<>();
+        replicable = createReplicable("Replicable");
+        otherReplicable = createReplicable("Other Replicable");
+        // a small maximum message size makes each buffer send many messages, from its pool thread and from the timer
+        pool = new OperationSerializerBufferPool((message, typesInMessage) -> {
+            synchronized (messages) {
+                messages.add(message);
+            }
+        }, Duration.ofMillis(5), /* maximumBufferSizeInBytes */ 4096, timer);
+        pool.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.stop();
+        timer.cancel();
+    }
+
+    /**
+     * Adds the operations of the {@code message} to {@code sequenceNumbersByReplicableAndKey}, grouped by the replicable
+     * ID and operation key
+     */
+    private int receive(byte[] message, Map<String, List<Integer>> sequenceNumbersByReplicableAndKey) throws Exception {
+        final InputStream is = ReplicationMessageCompression.createUncompressingInputStream(message);
+        final DataInputStream dis = new DataInputStream(is);
+        assertEquals(ReplicationReceiver.VERSION_INDICATOR, dis.readUTF());
+        dis.read(); // protocol version
+        final String replicableId = dis.readUTF();
+        final ObjectInputStream ois = new ObjectInputStream(is);
+        int count = 0;
+        try {
+            while (true) {
+                final SequencedOperation operation = replicable.readEncodedOperationFromObjectInputStream(ois);
+                sequenceNumbersByReplicableAndKey.computeIfAbsent(replicableId + "/" + operation.key, k -> new ArrayList<>())
+                        .add(operation.sequenceNumber);
+                count++;
+            }
+        } catch (EOFException e) {
+            // expected at the end of the message
+        }
+        return count;
+    }
+
+    @Test
+    public void testOperationsWithEqualKeysArriveInOrder() throws Exception {
+        for (int sequenceNumber = 0; sequenceNumber < OPERATIONS_PER_KEY; sequenceNumber++) {
+            for (int key = 0; key < NUMBER_OF_KEYS; key++) {
+                pool.write(new SequencedOperation("Key " + key, sequenceNumber), replicable);
+                pool.write(new SequencedOperation("Key " + key, sequenceNumber), otherReplicable);
+            }
+        }
+        final int expectedNumberOfOperations = 2 * NUMBER_OF_KEYS * OPERATIONS_PER_KEY;
+        final Map<String, List<Integer>> sequenceNumbersByReplicableAndKey = new HashMap<>();
+        int received = 0;
+        int nextMessage = 0;
+        while (received < expectedNumberOfOperations) {
+            final List<byte[]> newMessages;
+            synchronized (messages) {
+                newMessages = new ArrayList<>(messages.subList(nextMessage, messages.size()));
+            }
+            nextMessage += newMessages.size();
+            for (final byte[] message : newMessages) {
+                received += receive(message, sequenceNumbersByReplicableAndKey);
+            }
+            if (newMessages.isEmpty()) {
+                Thread.sleep(10);
+            }
+        }
+        assertEquals(expectedNumberOfOperations, received);
+        assertEquals(2 * NUMBER_OF_KEYS, sequenceNumbersByReplicableAndKey.size());
+        for (final Map.Entry<String, List<Integer>> e : sequenceNumbersByReplicableAndKey.entrySet()) {
+            final List<Integer> sequenceNumbers = e.getValue();
+            assertEquals(OPERATIONS_PER_KEY, sequenceNumbers.size(), e.getKey());
+            for (int i = 0; i < OPERATIONS_PER_KEY; i++) {
+                assertEquals(i, (int) sequenceNumbers.get(i), "Operation out of order for " + e.getKey());
+            }
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.sap.sailing.server.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.base.Competitor;
+import com.sap.sailing.domain.base.Mark;
+import com.sap.sailing.domain.base.RaceDefinition;
+import com.sap.sailing.domain.common.RegattaAndRaceIdentifier;
+import com.sap.sailing.domain.common.RegattaNameAndRaceName;
+import com.sap.sailing.domain.common.Wind;
+import com.sap.sailing.domain.common.WindSource;
+import com.sap.sailing.domain.common.WindSourceType;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.domain.common.impl.WindImpl;
+import com.sap.sailing.domain.common.impl.WindSourceWithAdditionalID;
+import com.sap.sailing.domain.common.tracking.GPSFix;
+import com.sap.sailing.domain.common.tracking.GPSFixMoving;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixImpl;
+import com.sap.sailing.domain.common.tracking.impl.GPSFixMovingImpl;
+import com.sap.sailing.domain.tracking.DynamicTrackedRace;
+import com.sap.sailing.server.interfaces.RacingEventService;
+import com.sap.sailing.server.interfaces.RacingEventServiceOperation;
+import com.sap.sailing.server.operationaltransformation.RacingEventServiceOperationCodecs;
+import com.sap.sailing.server.operationaltransformation.RecordCompetitorGPSFix;
+import com.sap.sailing.server.operationaltransformation.RecordMarkGPSFixForExistingTrack;
+import com.sap.sailing.server.operationaltransformation.RecordWindFix;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+import com.sap.sse.replication.OperationCodecRegistry;
+
+public class RacingEventServiceOperationCodecsTest {
+    private final OperationCodecRegistry registry = RacingEventServiceOperationCodecs.getRegistry();
+    private final RegattaAndRaceIdentifier raceIdentifier = new RegattaNameAndRaceName("Regatta", "Race");
+    private RacingEventService service;
+    private DynamicTrackedRace trackedRace;
+    private Competitor competitor;
+    private Mark mark;
+
+    @BeforeEach
+    public void setUp() {
+        competitor = mock(Competitor.class);
+        when(competitor.getId()).thenReturn(UUID.randomUUID());
+        mark = mock(Mark.class);
+        when(mark.getId()).thenReturn("Mark ID");
+        final RaceDefinition race = mock(RaceDefinition.class);
+        when(race.getCompetitorById(competitor.getId())).thenReturn(competitor);
+        trackedRace = mock(DynamicTrackedRace.class);
+        when(trackedRace.getRace()).thenReturn(race);
+        when(trackedRace.getMarks()).thenReturn(Arrays.asList(mark));
+        service = mock(RacingEventService.class);
+        when(service.getExistingTrackedRace(raceIdentifier)).thenReturn(trackedRace);
+    }
+
+    private byte[] write(RacingEventServiceOperation<?>... operations) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (final ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            for (final RacingEventServiceOperation<?> operation : operations) {
+                registry.writeOperation(operation, oos);
+            }
+        }
+        return bos.toByteArray();
+    }
+
+    private RacingEventServiceOperation<?> read(ObjectInputStream ois) throws IOException, ClassNotFoundException {
+        final short codecId = ois.readShort();
+        return (RacingEventServiceOperation<?>) (codecId == OperationCodecRegistry.JAVA_SERIALIZATION ? ois.readObject()
+                : registry.decode(codecId, ois));
+    }
+
+    @Test
+    public void testFixOperationsRoundTripInterleavedWithJavaSerialization() throws Exception {
+        final GPSFixMoving competitorFix = new GPSFixMovingImpl(new DegreePosition(54.4, 10.2),
+                new MillisecondsTimePoint(1234567), new KnotSpeedWithBearingImpl(7.5, new DegreeBearingImpl(123)),
+                /* optionalTrueHeading */ new DegreeBearingImpl(120));
+        final GPSFix markFix = new GPSFixImpl(new DegreePosition(54.5, 10.3), new MillisecondsTimePoint(1234568));
+        final WindSource windSource = new WindSourceWithAdditionalID(WindSourceType.EXPEDITION, "Boat 1");
+        final Wind wind = new WindImpl(/* position */ null, new MillisecondsTimePoint(1234569),
+                new KnotSpeedWithBearingImpl(12, new DegreeBearingImpl(270)));
+        final RecordCompetitorGPSFix competitorFixOperation = new RecordCompetitorGPSFix(raceIdentifier, competitor, competitorFix);
+        final RecordMarkGPSFixForExistingTrack markFixOperation = new RecordMarkGPSFixForExistingTrack(raceIdentifier, mark, markFix);
+        final RecordWindFix windFixOperation = new RecordWindFix(raceIdentifier, windSource, wind);
+        final Competitor competitorWithUnsupportedId = mock(Competitor.class);
+        when(competitorWithUnsupportedId.getId()).thenReturn(42l);
+        final RecordCompetitorGPSFix operationWithUnsupportedId = new RecordCompetitorGPSFix(raceIdentifier, competitorWithUnsupportedId, competitorFix);
+        assertTrue(registry.getCodecFor(competitorFixOperation).canEncode(competitorFixOperation));
+        assertTrue(!registry.getCodecFor(operationWithUnsupportedId).canEncode(operationWithUnsupportedId));
+        final byte[] bytes = write(competitorFixOperation, operationWithUnsupportedId, markFixOperation, windFixOperation);
+        try (final ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            read(ois).internalApplyTo(service);
+            verify(trackedRace).recordFix(competitor, competitorFix, /* onlyWhenInTrackingTimeInterval */ false);
+            assertEquals(RecordCompetitorGPSFix.class, read(ois).getClass());
+            read(ois).internalApplyTo(service);
+            verify(trackedRace).recordFix(mark, markFix, /* onlyWhenInTrackingTimeInterval */ false);
+            read(ois).internalApplyTo(service);
+            verify(trackedRace).recordWind(wind, windSource, /* applyFilter */ false);
+            assertThrows(EOFException.class, () -> ois.readShort());
+        }
+    }
+
+    @Test
+    public void testBinaryEncodingIsSmallerThanJavaSerialization() throws Exception {
+        final RecordCompetitorGPSFix operation = new RecordCompetitorGPSFix(raceIdentifier, competitor,
+                new GPSFixMovingImpl(new DegreePosition(54.4, 10.2), new MillisecondsTimePoint(1234567),
+                        new KnotSpeedWithBearingImpl(7.5, new DegreeBearingImpl(123)), /* optionalTrueHeading */ null));
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (final ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+            oos.writeObject(operation);
+        }
+        final int javaSerializationSize = bos.size();
+        final int binarySize = write(operation).length;
+        assertTrue(binarySize * 4 < javaSerializationSize, "Expected binary encoding of " + binarySize
+                + " bytes to be much smaller than Java serialization with " + javaSerializationSize + " bytes");
+    }
+
+    @Test
+    public void testDuplicateCodecIdsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new OperationCodecRegistry(
+                registry.getCodec((short) 1), registry.getCodec((short) 1)));
+    }
+}
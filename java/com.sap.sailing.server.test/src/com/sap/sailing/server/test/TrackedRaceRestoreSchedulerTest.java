@@ -0,0 +1,210 @@
+package com.sap.sailing.server.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.common.TrackedRaceStatusEnum;
+import com.sap.sailing.domain.tracking.RaceChangeListener;
+import com.sap.sailing.domain.tracking.RaceTrackingConnectivityParameters;
+import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sailing.domain.tracking.impl.TrackedRaceStatusImpl;
+import com.sap.sailing.server.impl.TrackedRaceRestoreScheduler;
+import com.sap.sse.common.Duration;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+public class TrackedRaceRestoreSchedulerTest {
+    private static RaceTrackingConnectivityParameters createParams(String name, TimePoint timePoint, String regattaName) {
+        final RaceTrackingConnectivityParameters params = mock(RaceTrackingConnectivityParameters.class);
+        when(params.getTimePointForRestorePriority()).thenReturn(timePoint);
+        when(params.getRegattaNameForRestorePriority()).thenReturn(regattaName);
+        when(params.toString()).thenReturn(name);
+        return params;
+    }
+
+    private static class RecordingRestorer implements TrackedRaceRestoreScheduler.RaceRestorer {
+        private final List<String> restored = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public boolean restore(RaceTrackingConnectivityParameters params, Runnable doneLoading) {
+            restored.add(params.toString());
+            doneLoading.run();
+            return true;
+        }
+
+        @Override
+        public void restoreFailed(RaceTrackingConnectivityParameters params, Exception e) {
+        }
+    }
+
+    @Test
+    public void testRecentAndRequestedRacesAreRestoredFirst() {
+        final TimePoint now = MillisecondsTimePoint.now();
+        final RecordingRestorer restorer = new RecordingRestorer();
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final TrackedRaceRestoreScheduler scheduler = new TrackedRaceRestoreScheduler(restorer, tasks::add,
+                /* parallelism */ 1, /* maxRacesLoading */ 1);
+        scheduler.schedule(createParams("unknown", null, null));
+        scheduler.schedule(createParams("lastYear", now.minus(Duration.ONE_WEEK.times(52)), "A"));
+        scheduler.schedule(createParams("yesterday", now.minus(Duration.ONE_DAY), "B"));
+        scheduler.schedule(createParams("lastMonth", now.minus(Duration.ONE_WEEK.times(4)), "C"));
+        scheduler.schedule(createParams("lastYearToo", now.minus(Duration.ONE_WEEK.times(53)), "A"));
+        assertEquals(5, scheduler.getNumberOfRacesPending());
+        scheduler.prioritizeRegatta("A");
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+        assertEquals(Arrays.asList("lastYear", "lastYearToo", "yesterday", "lastMonth", "unknown"), restorer.restored);
+        assertEquals(0, scheduler.getNumberOfRacesPending());
+        assertEquals(5, scheduler.getNumberOfRacesRestored());
+        assertEquals(0, scheduler.getNumberOfRacesLoading());
+    }
+
+    @Test
+    public void testFailedRaceDoesNotBlockOthers() {
+        final List<RaceTrackingConnectivityParameters> failed = new ArrayList<>();
+        final Queue<Runnable> tasks = new ArrayDeque<>();
+        final TrackedRaceRestoreScheduler scheduler = new TrackedRaceRestoreScheduler(new TrackedRaceRestoreScheduler.RaceRestorer() {
+            @Override
+            public boolean restore(RaceTrackingConnectivityParameters params, Runnable doneLoading) throws Exception {
+                throw new Exception("cannot connect");
+            }
+
+            @Override
+            public void restoreFailed(RaceTrackingConnectivityParameters params, Exception e) {
+                failed.add(params);
+            }
+        }, tasks::add, /* parallelism */ 1, /* maxRacesLoading */ 1);
+        scheduler.schedule(createParams("first", null, null));
+        scheduler.schedule(createParams("second", null, null));
+        while (!tasks.isEmpty()) {
+            tasks.poll().run();
+        }
+        assertEquals(2, failed.size());
+        assertEquals(2, scheduler.getNumberOfRacesFailed());
+        assertEquals(0, scheduler.getNumberOfRacesLoading());
+    }
+
+    @Test
+    public void testNoMoreRacesStartedWhileMaximumNumberIsLoading() throws InterruptedException {
+        final List<Runnable> doneLoadingCallbacks = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch twoStarted = new CountDownLatch(2);
+        final CountDownLatch threeStarted = new CountDownLatch(3);
+        final ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final TrackedRaceRestoreScheduler scheduler = new TrackedRaceRestoreScheduler(new TrackedRaceRestoreScheduler.RaceRestorer() {
+                @Override
+                public boolean restore(RaceTrackingConnectivityParameters params, Runnable doneLoading) {
+                    // the race shows up but keeps loading its fixes until told otherwise
+                    doneLoadingCallbacks.add(doneLoading);
+                    twoStarted.countDown();
+                    threeStarted.countDown();
+                    return true;
+                }
+
+                @Override
+                public void restoreFailed(RaceTrackingConnectivityParameters params, Exception e) {
+                }
+            }, executor, /* parallelism */ 2, /* maxRacesLoading */ 2);
+            for (int i = 0; i < 3; i++) {
+                scheduler.schedule(createParams("race" + i, null, null));
+            }
+            assertTrue(twoStarted.await(10, TimeUnit.SECONDS));
+            assertFalse(threeStarted.await(200, TimeUnit.MILLISECONDS));
+            assertEquals(2, scheduler.getNumberOfRacesLoading());
+            assertEquals(1, scheduler.getNumberOfRacesPending());
+            doneLoadingCallbacks.get(0).run();
+            assertTrue(threeStarted.await(10, TimeUnit.SECONDS));
+            assertEquals(0, scheduler.getNumberOfRacesPending());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRaceFailingToLoadReleasesItsPermit() throws InterruptedException {
+        final List<RaceChangeListener> raceListeners = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch firstStarted = new CountDownLatch(1);
+        final CountDownLatch secondStarted = new CountDownLatch(2);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final TrackedRaceRestoreScheduler scheduler = new TrackedRaceRestoreScheduler(new TrackedRaceRestoreScheduler.RaceRestorer() {
+                @Override
+                public boolean restore(RaceTrackingConnectivityParameters params, Runnable doneLoading) {
+                    // the race shows up and starts loading; runWhenDoneLoading would only call back when done
+                    final TrackedRace trackedRace = mock(TrackedRace.class);
+                    when(trackedRace.getStatus()).thenReturn(new TrackedRaceStatusImpl(TrackedRaceStatusEnum.LOADING, 0.5));
+                    doAnswer(invocation->raceListeners.add(invocation.getArgument(0))).when(trackedRace).addListener(any(RaceChangeListener.class));
+                    TrackedRaceRestoreScheduler.runWhenDoneOrFailedLoading(trackedRace, doneLoading);
+                    firstStarted.countDown();
+                    secondStarted.countDown();
+                    return true;
+                }
+
+                @Override
+                public void restoreFailed(RaceTrackingConnectivityParameters params, Exception e) {
+                }
+            }, executor, /* parallelism */ 1, /* maxRacesLoading */ 1, timer, /* loadingTimeoutInMillis */ 3600000);
+            scheduler.schedule(createParams("failing", null, null));
+            scheduler.schedule(createParams("next", null, null));
+            assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+            assertFalse(secondStarted.await(200, TimeUnit.MILLISECONDS));
+            assertEquals(1, raceListeners.size());
+            raceListeners.get(0).statusChanged(new TrackedRaceStatusImpl(TrackedRaceStatusEnum.ERROR, 0.5),
+                    new TrackedRaceStatusImpl(TrackedRaceStatusEnum.LOADING, 0.5));
+            assertTrue(secondStarted.await(10, TimeUnit.SECONDS));
+            assertEquals(0, scheduler.getNumberOfRacesPending());
+        } finally {
+            executor.shutdownNow();
+            timer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRaceNotFinishingToLoadReleasesItsPermitAfterTimeout() throws InterruptedException {
+        final CountDownLatch twoStarted = new CountDownLatch(2);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        try {
+            final TrackedRaceRestoreScheduler scheduler = new TrackedRaceRestoreScheduler(new TrackedRaceRestoreScheduler.RaceRestorer() {
+                @Override
+                public boolean restore(RaceTrackingConnectivityParameters params, Runnable doneLoading) {
+                    // the race shows up but never reports that it has finished loading
+                    twoStarted.countDown();
+                    return true;
+                }
+
+                @Override
+                public void restoreFailed(RaceTrackingConnectivityParameters params, Exception e) {
+                }
+            }, executor, /* parallelism */ 1, /* maxRacesLoading */ 1, timer, /* loadingTimeoutInMillis */ 100);
+            scheduler.schedule(createParams("stuck", null, null));
+            scheduler.schedule(createParams("next", null, null));
+            assertTrue(twoStarted.await(10, TimeUnit.SECONDS));
+            assertEquals(0, scheduler.getNumberOfRacesPending());
+        } finally {
+            executor.shutdownNow();
+            timer.shutdownNow();
+        }
+    }
+}
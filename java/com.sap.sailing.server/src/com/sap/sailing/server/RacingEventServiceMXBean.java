@@ -16,6 +16,9 @@ public interface RacingEventServiceMXBean {
     public int getNumberOfLeaderboards();
     public long getNumberOfTrackedRacesToRestore();
     public int getNumberOfTrackedRacesRestored();
+    public int getNumberOfTrackedRacesPendingRestore();
+    public int getNumberOfTrackedRacesRestoring();
+    public int getNumberOfTrackedRacesFailedToRestore();
     ObjectName[] getLeaderboards() throws MalformedObjectNameException;
     ComputationTimeAverage getLeaderboardComputationStatisticsYoung();
     ComputationTimeAverage getLeaderboardComputationStatisticsMedium();
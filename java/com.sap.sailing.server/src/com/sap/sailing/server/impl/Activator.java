@@ -1,5 +1,7 @@
 package com.sap.sailing.server.impl;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.management.ManagementFactory;
 import java.net.MalformedURLException;
 import java.nio.charset.Charset;
@@ -45,6 +47,7 @@ import com.sap.sailing.domain.persistence.racelog.tracking.impl.GPSFixMongoHandl
 import com.sap.sailing.domain.persistence.racelog.tracking.impl.GPSFixMovingMongoHandlerImpl;
 import com.sap.sailing.domain.polars.PolarDataService;
 import com.sap.sailing.domain.racelog.tracking.SensorFixStoreSupplier;
+import com.sap.sailing.domain.racelog.tracking.impl.FileSensorFixStoreImpl;
 import com.sap.sailing.domain.tracking.TrackedRegattaListener;
 import com.sap.sailing.domain.windestimation.WindEstimationFactoryService;
 import com.sap.sailing.resultimport.ResultUrlRegistry;
@@ -94,6 +97,18 @@ public class Activator implements BundleActivator {
     
     private static final String RESTORE_TRACKED_RACES_PROPERTY_NAME = "restore.tracked.races";
 
+    /**
+     * If set, sensor fixes are stored in a {@link FileSensorFixStoreImpl} in the directory specified by this system
+     * property instead of the MongoDB.
+     */
+    private static final String SENSOR_FIX_STORE_DIRECTORY_PROPERTY_NAME = "sensorfixstore.directory";
+
+    /**
+     * The number of segment files the {@link FileSensorFixStoreImpl} keeps open and mapped at most; defaults to
+     * {@link FileSensorFixStoreImpl#DEFAULT_MAX_OPEN_SEGMENTS}
+     */
+    private static final String SENSOR_FIX_STORE_MAX_OPEN_SEGMENTS_PROPERTY_NAME = "sensorfixstore.maxOpenSegments";
+
     private static ExtenderBundleTracker extenderBundleTracker;
 
     private static BundleContext context;
@@ -102,6 +117,12 @@ public class Activator implements BundleActivator {
 
     private RacingEventServiceImpl racingEventService;
 
+    /**
+     * {@code null} unless the {@link #SENSOR_FIX_STORE_DIRECTORY_PROPERTY_NAME} property is set; closed when the bundle
+     * stops
+     */
+    private FileSensorFixStoreImpl fileSensorFixStore;
+
     private final boolean clearPersistentCompetitors;
     
     private final boolean restoreTrackedRaces;
@@ -225,10 +246,14 @@ public class Activator implements BundleActivator {
         securityServiceTracker.close();
         MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
         mbs.unregisterMBean(mBeanName);
+        if (fileSensorFixStore != null) {
+            fileSensorFixStore.close();
+            fileSensorFixStore = null;
+        }
     }
 
     private void internalStartBundle(BundleContext context) throws MalformedURLException, MalformedObjectNameException,
-            InstanceAlreadyExistsException, MBeanRegistrationException, NotCompliantMBeanException, InterruptedException {
+            InstanceAlreadyExistsException, MBeanRegistrationException, NotCompliantMBeanException, InterruptedException, IOException {
         mailQueue = new ExecutorMailQueue(mailServiceTracker);
         notificationService = new SailingNotificationServiceImpl(context, mailQueue);
         trackedRegattaListener = new OSGiBasedTrackedRegattaListener(context);
@@ -289,8 +314,12 @@ public class Activator implements BundleActivator {
                 ServiceTrackerFactory.createAndOpen(context, CompetitorProvider.class);
         ServiceTracker<ResultUrlRegistry, ResultUrlRegistry> resultUrlRegistryServiceTracker = ServiceTrackerFactory
                 .createAndOpen(context, ResultUrlRegistry.class);
+        final String sensorFixStoreDirectory = System.getProperty(SENSOR_FIX_STORE_DIRECTORY_PROPERTY_NAME);
+        fileSensorFixStore = sensorFixStoreDirectory == null ? null
+                : new FileSensorFixStoreImpl(new File(sensorFixStoreDirectory), FileSensorFixStoreImpl.DEFAULT_PARTITION_DURATION,
+                        Integer.getInteger(SENSOR_FIX_STORE_MAX_OPEN_SEGMENTS_PROPERTY_NAME, FileSensorFixStoreImpl.DEFAULT_MAX_OPEN_SEGMENTS));
         racingEventService = new RacingEventServiceImpl(clearPersistentCompetitors,
-                /* sensorFixStore */ null, serviceFinderFactory, trackedRegattaListener,
+                fileSensorFixStore, serviceFinderFactory, trackedRegattaListener,
                 notificationService, trackedRaceStatisticsCache, restoreTrackedRaces, securityServiceTracker,
                 sharedSailingDataTracker, replicationServiceTracker, scoreCorrectionProviderServiceTracker, competitorProviderServiceTracker, resultUrlRegistryServiceTracker);
         notificationService.setRacingEventService(racingEventService);
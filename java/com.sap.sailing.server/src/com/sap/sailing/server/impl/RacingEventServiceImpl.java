@@ -36,6 +36,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -196,6 +197,8 @@ import com.sap.sailing.domain.leaderboard.impl.RegattaLeaderboardImpl;
 import com.sap.sailing.domain.leaderboard.impl.RegattaLeaderboardWithOtherTieBreakingLeaderboardImpl;
 import com.sap.sailing.domain.leaderboard.impl.ThresholdBasedResultDiscardingRuleImpl;
 import com.sap.sailing.domain.leaderboard.meta.LeaderboardGroupMetaLeaderboard;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprint;
+import com.sap.sailing.domain.maneuverhash.ManeuverRaceFingerprintRegistry;
 import com.sap.sailing.domain.markpassinghash.MarkPassingRaceFingerprint;
 import com.sap.sailing.domain.markpassinghash.MarkPassingRaceFingerprintRegistry;
 import com.sap.sailing.domain.orc.ORCPerformanceCurveRankingMetric;
@@ -231,6 +234,7 @@ import com.sap.sailing.domain.tracking.DynamicSensorFixTrack;
 import com.sap.sailing.domain.tracking.DynamicTrackedRace;
 import com.sap.sailing.domain.tracking.DynamicTrackedRegatta;
 import com.sap.sailing.domain.tracking.GPSFixTrack;
+import com.sap.sailing.domain.tracking.Maneuver;
 import com.sap.sailing.domain.tracking.MarkPassing;
 import com.sap.sailing.domain.tracking.RaceChangeListener;
 import com.sap.sailing.domain.tracking.RaceHandle;
@@ -294,6 +298,7 @@ import com.sap.sailing.server.operationaltransformation.CreateOrUpdateDataImport
 import com.sap.sailing.server.operationaltransformation.CreateOrUpdateDeviceConfiguration;
 import com.sap.sailing.server.operationaltransformation.CreateTrackedRace;
 import com.sap.sailing.server.operationaltransformation.DataImportFailed;
+import com.sap.sailing.server.operationaltransformation.RacingEventServiceOperationCodecs;
 import com.sap.sailing.server.operationaltransformation.RecordCompetitorGPSFix;
 import com.sap.sailing.server.operationaltransformation.RecordCompetitorSensorFix;
 import com.sap.sailing.server.operationaltransformation.RecordCompetitorSensorFixTrack;
@@ -354,6 +359,7 @@ import com.sap.sse.pairinglist.PairingList;
 import com.sap.sse.pairinglist.PairingListTemplate;
 import com.sap.sse.pairinglist.PairingListTemplateFactory;
 import com.sap.sse.replication.FullyInitializedReplicableTracker;
+import com.sap.sse.replication.OperationCodecRegistry;
 import com.sap.sse.replication.ReplicationMasterDescriptor;
 import com.sap.sse.replication.ReplicationService;
 import com.sap.sse.replication.interfaces.impl.AbstractReplicableWithObjectInputStream;
@@ -472,6 +478,8 @@ Replicator {
 
     private final ConcurrentHashMap<RaceIdentifier, MarkPassingRaceFingerprint> markPassingRaceFingerprints;
 
+    private final ConcurrentHashMap<RaceIdentifier, ManeuverRaceFingerprint> maneuverRaceFingerprints;
+
     /**
      * See {@link #leaderboardsByNameLock}
      */
@@ -587,6 +595,11 @@ Replicator {
 
     private final AtomicInteger numberOfTrackedRacesStillLoading;
 
+    /**
+     * Set when restoring tracked races was requested upon creation of this service; {@code null} otherwise
+     */
+    private volatile TrackedRaceRestoreScheduler trackedRaceRestoreScheduler;
+
     private final ServiceTracker<ResultUrlRegistry, ResultUrlRegistry> resultUrlRegistryServiceTracker;
 
     private final ServiceTracker<ScoreCorrectionProvider, ScoreCorrectionProvider> scoreCorrectionProviderServiceTracker;
@@ -906,6 +919,7 @@ Replicator {
         leaderboardsByName = new ConcurrentHashMap<>();
         leaderboardsByNameLock = new NamedReentrantReadWriteLock("leaderboardsByName for " + this, /* fair */false);
         markPassingRaceFingerprints = new ConcurrentHashMap<>();
+        maneuverRaceFingerprints = new ConcurrentHashMap<>();
         courseListeners = new ConcurrentHashMap<>();
         persistentRegattasForRaceIDs = new ConcurrentHashMap<>();
         simulationService = SimulationServiceFactory.INSTANCE.getService(simulatorExecutor, this);
@@ -937,6 +951,7 @@ Replicator {
         loadStoredDeviceConfigurations();
         loadAllRemoteSailingServersAndSchedulePeriodicEventCacheRefresh();
         loadMarkPassingRaceFingerprints();
+        loadManeuverRaceFingerprints();
         // Stores all events which run through a data migration
         // Remark: must be called after loadLinksFromEventsToLeaderboardGroups(), otherwise would loose the Event -> LeaderboardGroup relation
         for (Pair<Event, Boolean> eventAndRequireStoreFlag : loadedEventsWithRequireStoreFlag) {
@@ -956,6 +971,26 @@ Replicator {
         if (anniversaryRaceDeterminator.isEnabled()) {
             this.trackedRegattaListener.addListener(raceChangeObserverForAnniversaryDetection);
         }
+        if (TrackedRaceHibernator.IDLE_TIME_IN_MILLIS != null) {
+            scheduleHibernationOfIdleRaces(new TrackedRaceHibernator(Duration.ofMillis(TrackedRaceHibernator.IDLE_TIME_IN_MILLIS)));
+        }
+    }
+
+    private void scheduleHibernationOfIdleRaces(final TrackedRaceHibernator hibernator) {
+        logger.info("Hibernating finished races not accessed for " + hibernator.getIdleTime());
+        final long checkIntervalInMillis = hibernator.getCheckInterval().asMillis();
+        ThreadPoolUtil.INSTANCE.getDefaultBackgroundTaskThreadPoolExecutor().scheduleWithFixedDelay(() -> {
+            final List<DynamicTrackedRace> trackedRaces = new ArrayList<>();
+            for (final DynamicTrackedRegatta trackedRegatta : regattaTrackingCache.values()) {
+                trackedRegatta.lockTrackedRacesForRead();
+                try {
+                    Util.addAll(trackedRegatta.getTrackedRaces(), trackedRaces);
+                } finally {
+                    trackedRegatta.unlockTrackedRacesAfterRead();
+                }
+            }
+            hibernator.hibernateIdleRaces(trackedRaces, MillisecondsTimePoint.now());
+        }, checkIntervalInMillis, checkIntervalInMillis, TimeUnit.MILLISECONDS);
     }
 
     private void loadMarkPassingRaceFingerprints() {
@@ -991,6 +1026,44 @@ Replicator {
         return result;
     }
 
+    private void loadManeuverRaceFingerprints() {
+        maneuverRaceFingerprints.putAll(domainObjectFactory.loadFingerprintsForManeuverHashes());
+    }
+
+    @Override
+    public ManeuverRaceFingerprintRegistry getManeuverRaceFingerprintRegistry() {
+        return this;
+    }
+
+    @Override
+    public void storeManeuvers(RaceIdentifier raceIdentifier, ManeuverRaceFingerprint fingerprint,
+            Map<Competitor, List<Maneuver>> maneuvers, TrackedRace trackedRace) {
+        maneuverRaceFingerprints.put(raceIdentifier, fingerprint);
+        mongoObjectFactory.storeManeuvers(raceIdentifier, fingerprint, maneuvers, trackedRace);
+    }
+
+    @Override
+    public ManeuverRaceFingerprint getManeuverRaceFingerprint(RaceIdentifier raceIdentifier) {
+        return maneuverRaceFingerprints.get(raceIdentifier);
+    }
+
+    @Override
+    public void removeStoredManeuvers(RaceIdentifier raceIdentifier) {
+        maneuverRaceFingerprints.remove(raceIdentifier);
+        mongoObjectFactory.removeManeuvers(raceIdentifier);
+    }
+
+    @Override
+    public Map<Competitor, List<Maneuver>> loadManeuvers(RaceIdentifier raceIdentifier, TrackedRace trackedRace) {
+        final Map<Competitor, List<Maneuver>> result;
+        if (maneuverRaceFingerprints.containsKey(raceIdentifier)) {
+            result = domainObjectFactory.loadManeuvers(raceIdentifier, trackedRace);
+        } else {
+            result = null;
+        }
+        return result;
+    }
+
     public ClassLoaderRegistry getMasterDataClassLoaders() {
         return masterDataClassLoaders;
     }
@@ -1042,11 +1115,16 @@ Replicator {
         }
     }
 
+    /**
+     * Restores the races remembered for restore in the background, concurrent to any remaining server startup
+     * activities. The races are handed to a {@link TrackedRaceRestoreScheduler} as their connectivity parameters are
+     * loaded, which restores live and recent races first and limits the number of races loading at the same time.
+     */
     private void restoreTrackedRaces() {
-        // restore the races by calling addRace one by one, but in a background thread, therefore concurrent to any remaining
-        // server startup activities happening
-        numberOfTrackedRacesToRestore = getDomainObjectFactory().loadConnectivityParametersForRacesToRestore(params -> {
-            try {
+        final TrackedRaceRestoreScheduler scheduler = new TrackedRaceRestoreScheduler(new TrackedRaceRestoreScheduler.RaceRestorer() {
+            @Override
+            public boolean restore(RaceTrackingConnectivityParameters params, Runnable doneLoading) throws Exception {
+                final AtomicBoolean trackedRaceCreated = new AtomicBoolean();
                 final RaceHandle handle = addRace(/* addToRegatta==null means "default regatta" */ null, params, /* no timeout during mass loading */ -1,
                     new DefaultRaceTrackingHandler() {
                         @Override
@@ -1063,8 +1141,9 @@ Replicator {
                                             millisecondsOverWhichToAverageSpeed, raceDefinitionSetToUpdate,
                                             useMarkPassingCalculator, raceLogResolver, threadLocalTransporter, trackingConnectorInfo, markPassingRaceFingerprintRegistry);
                             getSecurityService().migrateOwnership(trackedRace);
-                            trackedRace.runWhenDoneLoading(
-                                    ()->numberOfTrackedRacesRestoredDoneLoading.incrementAndGet());
+                            trackedRace.runWhenDoneLoading(()->numberOfTrackedRacesRestoredDoneLoading.incrementAndGet());
+                            TrackedRaceRestoreScheduler.runWhenDoneOrFailedLoading(trackedRace, doneLoading);
+                            trackedRaceCreated.set(true);
                             return trackedRace;
                         }
                     });
@@ -1080,7 +1159,22 @@ Replicator {
                 }
                 int newNumberOfTrackedRacesRestored = numberOfTrackedRacesRestored.incrementAndGet();
                 logger.info("Added race to restore #"+newNumberOfTrackedRacesRestored+"/"+numberOfTrackedRacesToRestore);
-            } catch (Exception e) {
+                if (race != null && !trackedRaceCreated.get()) {
+                    // e.g., addRace returned a tracker that existed already, so the handler above won't be asked to
+                    // create a tracked race; wait for the one that exists, if any, or else don't count the race as loading
+                    final DynamicTrackedRace existingTrackedRace = handle.getTrackedRegatta() == null ? null
+                            : handle.getTrackedRegatta().getExistingTrackedRace(race);
+                    if (existingTrackedRace == null) {
+                        logger.info("No tracked race was created for restoring " + params + "; not waiting for it to load");
+                        return false;
+                    }
+                    TrackedRaceRestoreScheduler.runWhenDoneOrFailedLoading(existingTrackedRace, doneLoading);
+                }
+                return race != null;
+            }
+
+            @Override
+            public void restoreFailed(RaceTrackingConnectivityParameters params, Exception e) {
                 logger.log(Level.SEVERE, "Exception trying to restore race "+params+
                         ". Removing from the restore list. This server will no longer try to load this race automatically upon server restart.", e);
                 try {
@@ -1090,7 +1184,24 @@ Replicator {
                             params+" from restore list", e1);
                 }
             }
-        }).getNumberOfParametersToLoad();
+        }, ThreadPoolUtil.INSTANCE.createBackgroundTaskThreadPoolExecutor(TrackedRaceRestoreScheduler.PARALLELISM, "Tracked race restore"),
+                TrackedRaceRestoreScheduler.PARALLELISM, TrackedRaceRestoreScheduler.MAX_RACES_LOADING);
+        logger.info("Restoring tracked races with parallelism " + scheduler.getParallelism()
+                + " and at most " + scheduler.getMaxRacesLoading() + " races loading at a time");
+        trackedRaceRestoreScheduler = scheduler;
+        numberOfTrackedRacesToRestore = getDomainObjectFactory().loadConnectivityParametersForRacesToRestore(scheduler::schedule)
+                .getNumberOfParametersToLoad();
+    }
+
+    /**
+     * If tracked races are still being restored, makes sure that the races of the regatta identified by
+     * {@code raceIdentifier} are restored before others because a client is waiting for one of them.
+     */
+    private void prioritizeRestoreOf(RegattaAndRaceIdentifier raceIdentifier) {
+        final TrackedRaceRestoreScheduler scheduler = trackedRaceRestoreScheduler;
+        if (scheduler != null && scheduler.getNumberOfRacesPending() > 0) {
+            scheduler.prioritizeRegatta(raceIdentifier.getRegattaName());
+        }
     }
 
     @Override
@@ -2408,6 +2519,14 @@ Replicator {
         }
     }
 
+    /**
+     * Fixes received by a race {@link DynamicTrackedRace#isRematerializing() rematerializing} after hibernation have
+     * been seen before and must not be counted again
+     */
+    private static boolean isRematerializing(TrackedRace trackedRace) {
+        return trackedRace instanceof DynamicTrackedRace && ((DynamicTrackedRace) trackedRace).isRematerializing();
+    }
+
     private class PolarFixCacheUpdater extends AbstractRaceChangeListener {
 
         private final TrackedRace race;
@@ -2418,14 +2537,14 @@ Replicator {
 
         @Override
         public void competitorPositionChanged(GPSFixMoving fix, Competitor item, AddResult addedOrReplaced) {
-            if (polarDataService != null) {
+            if (polarDataService != null && !isRematerializing(race)) {
                 polarDataService.competitorPositionChanged(fix, item, race);
             }
         }
 
         @Override
         public void statusChanged(TrackedRaceStatus newStatus, TrackedRaceStatus oldStatus) {
-            if (oldStatus.getStatus() == TrackedRaceStatusEnum.LOADING
+            if (oldStatus.getStatus() == TrackedRaceStatusEnum.LOADING && !isRematerializing(race)
                     && newStatus.getStatus() != TrackedRaceStatusEnum.LOADING && newStatus.getStatus() != TrackedRaceStatusEnum.REMOVED) {
                 if (polarDataService != null) {
                     polarDataService.raceFinishedLoading(race);
@@ -2538,12 +2657,17 @@ Replicator {
 
         @Override
         public void competitorPositionChanged(GPSFixMoving fix, Competitor competitor, AddResult addedOrReplaced) {
-            replicate(new RecordCompetitorGPSFix(getRaceIdentifier(), competitor, fix));
+            if (!isRematerializing(trackedRace)) {
+                replicate(new RecordCompetitorGPSFix(getRaceIdentifier(), competitor, fix));
+            }
         }
 
         @Override
         public void statusChanged(TrackedRaceStatus newStatus, TrackedRaceStatus oldStatus) {
-            replicate(new UpdateTrackedRaceStatus(getRaceIdentifier(), newStatus));
+            // replicas keep the fixes of races hibernated here; they needn't go through loading them again
+            if (!isRematerializing(trackedRace)) {
+                replicate(new UpdateTrackedRaceStatus(getRaceIdentifier(), newStatus));
+            }
         }
 
         @Override
@@ -3055,6 +3179,7 @@ Replicator {
         TrackedRace trackedRace = getExistingTrackedRace(regatta, race);
         if (trackedRace != null) {
             removeStoredMarkPassings(trackedRace.getRaceIdentifier());
+            removeStoredManeuvers(trackedRace.getRaceIdentifier());
             TrackedRegatta trackedRegatta = getTrackedRegatta(regatta);
             final boolean isTrackedRacesBecameEmpty;
             if (trackedRegatta != null) {
@@ -3260,6 +3385,9 @@ Replicator {
                 }
             }
         }
+        if (result == null) {
+            prioritizeRestoreOf(raceIdentifier);
+        }
         return result;
     }
 
@@ -3271,6 +3399,9 @@ Replicator {
             RaceDefinition race = regatta.getRaceByName(raceIdentifier.getRaceName());
             trackedRace = getOrCreateTrackedRegatta(regatta).getExistingTrackedRace(race);
         }
+        if (trackedRace == null) {
+            prioritizeRestoreOf(raceIdentifier);
+        }
         return trackedRace;
     }
 
@@ -3500,6 +3631,14 @@ Replicator {
         return masterDataClassLoaders.getCombinedMasterDataClassLoader();
     }
 
+    /**
+     * Fix-recording operations are replicated in a compact binary format; see {@link RacingEventServiceOperationCodecs}
+     */
+    @Override
+    public OperationCodecRegistry getOperationCodecRegistry() {
+        return RacingEventServiceOperationCodecs.getRegistry();
+    }
+
     @Override
     public void serializeForInitialReplicationInternal(ObjectOutputStream oos) throws IOException {
         StringBuffer logoutput = new StringBuffer();
@@ -4805,6 +4944,24 @@ Replicator {
         return numberOfTrackedRacesRestored.get();
     }
 
+    @Override
+    public int getNumberOfTrackedRacesPendingRestore() {
+        final TrackedRaceRestoreScheduler scheduler = trackedRaceRestoreScheduler;
+        return scheduler == null ? 0 : scheduler.getNumberOfRacesPending();
+    }
+
+    @Override
+    public int getNumberOfTrackedRacesRestoring() {
+        final TrackedRaceRestoreScheduler scheduler = trackedRaceRestoreScheduler;
+        return scheduler == null ? 0 : scheduler.getNumberOfRacesRestoring();
+    }
+
+    @Override
+    public int getNumberOfTrackedRacesFailedToRestore() {
+        final TrackedRaceRestoreScheduler scheduler = trackedRaceRestoreScheduler;
+        return scheduler == null ? 0 : scheduler.getNumberOfRacesFailed();
+    }
+
     @Override
     public Map<Integer, Statistics> getLocalStatisticsByYear() {
         final Map<Integer, StatisticsCalculator> calculators = new HashMap<>();
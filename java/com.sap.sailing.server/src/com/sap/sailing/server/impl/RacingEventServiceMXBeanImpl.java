@@ -43,6 +43,21 @@ public class RacingEventServiceMXBeanImpl implements RacingEventServiceMXBean {
     public int getNumberOfTrackedRacesRestored() {
         return getRacingEventService().getNumberOfTrackedRacesRestored();
     }
+
+    @Override
+    public int getNumberOfTrackedRacesPendingRestore() {
+        return getRacingEventService().getNumberOfTrackedRacesPendingRestore();
+    }
+
+    @Override
+    public int getNumberOfTrackedRacesRestoring() {
+        return getRacingEventService().getNumberOfTrackedRacesRestoring();
+    }
+
+    @Override
+    public int getNumberOfTrackedRacesFailedToRestore() {
+        return getRacingEventService().getNumberOfTrackedRacesFailedToRestore();
+    }
     
     @Override
     public ObjectName[] getLeaderboards() throws MalformedObjectNameException {
@@ -0,0 +1,84 @@
+package com.sap.sailing.server.impl;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sap.sailing.domain.common.TrackedRaceStatusEnum;
+import com.sap.sailing.domain.tracking.DynamicTrackedRace;
+import com.sap.sse.common.Duration;
+import com.sap.sse.common.TimePoint;
+
+/**
+ * Periodically {@link DynamicTrackedRace#hibernate() hibernates} finished races that nobody has looked at for a
+ * configurable time, releasing the memory held by their competitor and sensor tracks. A hibernated race keeps its
+ * race definition, marks, wind and mark passings, so leaderboards can still be computed for it; the first request
+ * for one of its tracks or maneuvers loads the fixes again.
+ * <p>
+ *
+ * Hibernation is disabled unless the system property {@value #IDLE_TIME_IN_MILLIS_SYSTEM_PROPERTY_NAME} is set. Only
+ * races whose fixes can be loaded again from the sensor fix store, as is the case for races tracked through the race
+ * log, have a rematerializer and can hibernate.
+ */
+public class TrackedRaceHibernator {
+    private static final Logger logger = Logger.getLogger(TrackedRaceHibernator.class.getName());
+
+    public static final String IDLE_TIME_IN_MILLIS_SYSTEM_PROPERTY_NAME = "com.sap.sailing.server.hibernation.idleTimeInMillis";
+
+    /**
+     * The time for which a finished race must not have been accessed before it is hibernated; {@code null} if
+     * hibernation is disabled, which is the default
+     */
+    public static final Long IDLE_TIME_IN_MILLIS = Long.getLong(IDLE_TIME_IN_MILLIS_SYSTEM_PROPERTY_NAME);
+
+    private final Duration idleTime;
+
+    public TrackedRaceHibernator(Duration idleTime) {
+        this.idleTime = idleTime;
+    }
+
+    public Duration getIdleTime() {
+        return idleTime;
+    }
+
+    /**
+     * @return the interval at which {@link #hibernateIdleRaces(Iterable, TimePoint)} should be run; half the
+     *         {@link #getIdleTime() idle time}, but at most a minute
+     */
+    public Duration getCheckInterval() {
+        final Duration halfIdleTime = idleTime.divide(2);
+        return halfIdleTime.compareTo(Duration.ONE_MINUTE) < 0 ? halfIdleTime : Duration.ONE_MINUTE;
+    }
+
+    /**
+     * A race is considered idle if its tracking ended and it wasn't accessed for at least the {@link #getIdleTime()
+     * idle time} and it is neither live nor loading.
+     */
+    public boolean isIdle(DynamicTrackedRace trackedRace, TimePoint now) {
+        final TimePoint endOfTracking = trackedRace.getEndOfTracking();
+        final TimePoint timePointOfLastAccess = trackedRace.getTimePointOfLastAccess();
+        final TimePoint idleSince = now.minus(idleTime);
+        return !trackedRace.isHibernated() && endOfTracking != null && endOfTracking.before(idleSince)
+                && timePointOfLastAccess != null && timePointOfLastAccess.before(idleSince)
+                && trackedRace.getStatus().getStatus() != TrackedRaceStatusEnum.LOADING && !trackedRace.isLive(now);
+    }
+
+    /**
+     * @return the number of races hibernated by this call
+     */
+    public int hibernateIdleRaces(Iterable<DynamicTrackedRace> trackedRaces, TimePoint now) {
+        int result = 0;
+        for (final DynamicTrackedRace trackedRace : trackedRaces) {
+            try {
+                if (isIdle(trackedRace, now) && trackedRace.hibernate()) {
+                    result++;
+                }
+            } catch (Exception e) {
+                logger.log(Level.WARNING, "Exception trying to hibernate race " + trackedRace.getRaceIdentifier(), e);
+            }
+        }
+        if (result > 0) {
+            logger.info("Hibernated " + result + " races idle for more than " + idleTime);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,366 @@
+package com.sap.sailing.server.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sap.sailing.domain.common.TrackedRaceStatusEnum;
+import com.sap.sailing.domain.tracking.RaceTrackingConnectivityParameters;
+import com.sap.sailing.domain.tracking.TrackedRace;
+import com.sap.sailing.domain.tracking.TrackedRaceStatus;
+import com.sap.sailing.domain.tracking.impl.AbstractRaceChangeListener;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+import com.sap.sse.util.ThreadPoolUtil;
+
+/**
+ * Restores the races remembered for restore during server start-up in order of priority, using a bounded number of
+ * races restored in parallel.
+ * <p>
+ *
+ * Races are {@link #schedule(RaceTrackingConnectivityParameters) scheduled} as their connectivity parameters are
+ * loaded from the persistent store. Each of the {@link #getParallelism() parallel} restore slots picks the pending race
+ * with the highest priority:
+ * <ol>
+ * <li>races of a regatta for which a race was {@link #prioritizeRegatta(String) requested} while restoring</li>
+ * <li>races whose {@link RaceTrackingConnectivityParameters#getTimePointForRestorePriority() time point} is closest
+ * to now, making live and recent races available first</li>
+ * <li>all other races, in the order they were scheduled</li>
+ * </ol>
+ *
+ * Restoring a race consists of two phases: creating the tracker and waiting for the race definition to show up, which
+ * is mostly bounded by the connection to the tracking provider; and loading the race's stored fixes, which happens in
+ * the background afterwards and puts load on the database. To not flood the fix store, at most
+ * {@link #getMaxRacesLoading()} races may be in either phase at any time; a slot will not start the next race before a
+ * race has finished loading. A race that neither finishes nor fails loading within {@link #LOADING_TIMEOUT_IN_MILLIS}
+ * milliseconds after it showed up no longer counts as loading, so a race stuck in loading can't block the restore
+ * for good.
+ */
+public class TrackedRaceRestoreScheduler {
+    private static final Logger logger = Logger.getLogger(TrackedRaceRestoreScheduler.class.getName());
+
+    public static final String PARALLELISM_SYSTEM_PROPERTY_NAME = "com.sap.sailing.server.restore.parallelism";
+
+    public static final String MAX_RACES_LOADING_SYSTEM_PROPERTY_NAME = "com.sap.sailing.server.restore.maxRacesLoading";
+
+    /**
+     * The number of races whose trackers are created in parallel; defaults to half the number of available processors,
+     * but at least two.
+     */
+    public static final int PARALLELISM = Integer.getInteger(PARALLELISM_SYSTEM_PROPERTY_NAME,
+            Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+
+    /**
+     * The number of restored races that may be loading their stored data at the same time; defaults to twice the
+     * {@link #PARALLELISM}.
+     */
+    public static final int MAX_RACES_LOADING = Integer.getInteger(MAX_RACES_LOADING_SYSTEM_PROPERTY_NAME, 2 * PARALLELISM);
+
+    public static final String LOADING_TIMEOUT_IN_MILLIS_SYSTEM_PROPERTY_NAME = "com.sap.sailing.server.restore.loadingTimeoutInMillis";
+
+    /**
+     * The time after which a restored race that showed up but hasn't finished loading yet stops counting as loading;
+     * defaults to 30 minutes.
+     */
+    public static final long LOADING_TIMEOUT_IN_MILLIS = Long.getLong(LOADING_TIMEOUT_IN_MILLIS_SYSTEM_PROPERTY_NAME, 30l * 60l * 1000l);
+
+    /**
+     * Does the actual work of restoring a single race
+     */
+    public interface RaceRestorer {
+        /**
+         * Creates the tracker for the race described by {@code params} and waits for the race to show up.
+         *
+         * @param doneLoading
+         *            to be run once the tracked race has finished or failed loading its stored data, see
+         *            {@link TrackedRaceRestoreScheduler#runWhenDoneOrFailedLoading(TrackedRace, Runnable)}; may be run
+         *            more than once
+         * @return {@code true} if the race showed up and {@code doneLoading} will be run when it has loaded;
+         *         {@code false} if it didn't show up within the time the restorer was willing to wait or if no tracked
+         *         race was created for it, e.g., because a tracker for the race existed already, in which case it
+         *         doesn't count as loading anymore
+         */
+        boolean restore(RaceTrackingConnectivityParameters params, Runnable doneLoading) throws Exception;
+
+        /**
+         * Called if {@link #restore} threw an exception
+         */
+        void restoreFailed(RaceTrackingConnectivityParameters params, Exception e);
+    }
+
+    private static class PendingRace {
+        private final RaceTrackingConnectivityParameters params;
+
+        private final long sequenceNumber;
+
+        /**
+         * The distance in milliseconds between the race's time point and the time the race was scheduled;
+         * {@link Long#MAX_VALUE} if the race's time point is not known
+         */
+        private final long distanceFromNowInMillis;
+
+        private boolean prioritized;
+
+        PendingRace(RaceTrackingConnectivityParameters params, long sequenceNumber, TimePoint now) {
+            this.params = params;
+            this.sequenceNumber = sequenceNumber;
+            final TimePoint timePoint = params.getTimePointForRestorePriority();
+            this.distanceFromNowInMillis = timePoint == null ? Long.MAX_VALUE : Math.abs(now.asMillis() - timePoint.asMillis());
+        }
+    }
+
+    private static final Comparator<PendingRace> PRIORITY = Comparator
+            .comparing((PendingRace pendingRace) -> !pendingRace.prioritized)
+            .thenComparingLong(pendingRace -> pendingRace.distanceFromNowInMillis)
+            .thenComparingLong(pendingRace -> pendingRace.sequenceNumber);
+
+    private final RaceRestorer restorer;
+
+    private final Executor executor;
+
+    /**
+     * Runs the {@link #loadingTimeoutInMillis loading timeouts}
+     */
+    private final ScheduledExecutorService timer;
+
+    private final int parallelism;
+
+    private final int maxRacesLoading;
+
+    private final long loadingTimeoutInMillis;
+
+    /**
+     * Guarded by its own monitor
+     */
+    private final PriorityQueue<PendingRace> pendingRaces;
+
+    private long nextSequenceNumber;
+
+    private final Set<String> prioritizedRegattaNames;
+
+    private final Semaphore loadingPermits;
+
+    private final AtomicInteger numberOfRacesRestoring;
+
+    private final AtomicInteger numberOfRacesLoading;
+
+    private final AtomicInteger numberOfRacesRestored;
+
+    private final AtomicInteger numberOfRacesFailed;
+
+    /**
+     * @param executor
+     *            runs the restore tasks; must provide at least {@code parallelism} threads and should not be shared
+     *            with tasks that the restored races depend on, as the tasks may block waiting for races to load
+     */
+    public TrackedRaceRestoreScheduler(RaceRestorer restorer, Executor executor, int parallelism, int maxRacesLoading) {
+        this(restorer, executor, parallelism, maxRacesLoading, ThreadPoolUtil.INSTANCE.getDefaultBackgroundTaskThreadPoolExecutor(),
+                LOADING_TIMEOUT_IN_MILLIS);
+    }
+
+    /**
+     * @param timer
+     *            used to stop counting a race as loading if it hasn't finished loading after
+     *            {@code loadingTimeoutInMillis} milliseconds
+     */
+    public TrackedRaceRestoreScheduler(RaceRestorer restorer, Executor executor, int parallelism, int maxRacesLoading,
+            ScheduledExecutorService timer, long loadingTimeoutInMillis) {
+        this.restorer = restorer;
+        this.executor = executor;
+        this.timer = timer;
+        this.loadingTimeoutInMillis = loadingTimeoutInMillis;
+        this.parallelism = parallelism;
+        this.maxRacesLoading = Math.max(parallelism, maxRacesLoading);
+        this.pendingRaces = new PriorityQueue<>(PRIORITY);
+        this.prioritizedRegattaNames = ConcurrentHashMap.newKeySet();
+        this.loadingPermits = new Semaphore(this.maxRacesLoading);
+        this.numberOfRacesRestoring = new AtomicInteger();
+        this.numberOfRacesLoading = new AtomicInteger();
+        this.numberOfRacesRestored = new AtomicInteger();
+        this.numberOfRacesFailed = new AtomicInteger();
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getMaxRacesLoading() {
+        return maxRacesLoading;
+    }
+
+    /**
+     * Enqueues the race described by {@code params} for restoring; may be called from any thread
+     */
+    public void schedule(RaceTrackingConnectivityParameters params) {
+        final PendingRace pendingRace;
+        synchronized (pendingRaces) {
+            pendingRace = new PendingRace(params, nextSequenceNumber++, MillisecondsTimePoint.now());
+            final String regattaName = params.getRegattaNameForRestorePriority();
+            pendingRace.prioritized = regattaName != null && prioritizedRegattaNames.contains(regattaName);
+            pendingRaces.add(pendingRace);
+        }
+        executor.execute(this::restoreNext);
+    }
+
+    /**
+     * Restores the pending races of the regatta named {@code regattaName} before all other pending races, e.g., because
+     * a client has requested one of them. Pending races whose regatta isn't known in advance are not affected.
+     */
+    public void prioritizeRegatta(String regattaName) {
+        if (regattaName != null && prioritizedRegattaNames.add(regattaName)) {
+            synchronized (pendingRaces) {
+                final List<PendingRace> racesToPrioritize = new ArrayList<>();
+                for (final Iterator<PendingRace> i = pendingRaces.iterator(); i.hasNext();) {
+                    final PendingRace pendingRace = i.next();
+                    if (!pendingRace.prioritized && regattaName.equals(pendingRace.params.getRegattaNameForRestorePriority())) {
+                        i.remove();
+                        racesToPrioritize.add(pendingRace);
+                    }
+                }
+                for (final PendingRace pendingRace : racesToPrioritize) {
+                    pendingRace.prioritized = true;
+                    pendingRaces.add(pendingRace);
+                }
+                if (!racesToPrioritize.isEmpty()) {
+                    logger.info("Restoring " + racesToPrioritize.size() + " races of regatta " + regattaName + " first");
+                }
+            }
+        }
+    }
+
+    /**
+     * Executed once per {@link #schedule scheduled} race; restores the pending race with the highest priority at the
+     * time a loading permit becomes available, which is not necessarily the race that caused this task to be scheduled
+     */
+    private void restoreNext() {
+        try {
+            loadingPermits.acquire();
+        } catch (InterruptedException e) {
+            logger.log(Level.WARNING, "Interrupted while waiting to restore the next race", e);
+            Thread.currentThread().interrupt();
+            return;
+        }
+        final PendingRace pendingRace;
+        synchronized (pendingRaces) {
+            pendingRace = pendingRaces.poll();
+        }
+        if (pendingRace == null) {
+            loadingPermits.release();
+        } else {
+            numberOfRacesRestoring.incrementAndGet();
+            numberOfRacesLoading.incrementAndGet();
+            final AtomicBoolean loading = new AtomicBoolean(true);
+            final AtomicReference<ScheduledFuture<?>> loadingTimeout = new AtomicReference<>();
+            final Runnable doneLoading = () -> {
+                if (loading.compareAndSet(true, false)) {
+                    final ScheduledFuture<?> timeout = loadingTimeout.get();
+                    if (timeout != null) {
+                        timeout.cancel(/* mayInterruptIfRunning */ false);
+                    }
+                    numberOfRacesLoading.decrementAndGet();
+                    loadingPermits.release();
+                }
+            };
+            try {
+                if (!restorer.restore(pendingRace.params, doneLoading)) {
+                    doneLoading.run();
+                } else if (loading.get()) {
+                    loadingTimeout.set(timer.schedule(() -> {
+                        if (loading.get()) {
+                            logger.warning("Race " + pendingRace.params + " hasn't finished loading within "
+                                    + loadingTimeoutInMillis + "ms; no longer counting it as loading");
+                            doneLoading.run();
+                        }
+                    }, loadingTimeoutInMillis, TimeUnit.MILLISECONDS));
+                }
+                numberOfRacesRestored.incrementAndGet();
+            } catch (Exception e) {
+                numberOfRacesFailed.incrementAndGet();
+                doneLoading.run();
+                restorer.restoreFailed(pendingRace.params, e);
+            } finally {
+                numberOfRacesRestoring.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Runs {@code doneLoading} once {@code trackedRace} has finished loading, like
+     * {@link TrackedRace#runWhenDoneLoading(Runnable)} does, but also if loading fails because the race goes to status
+     * {@link TrackedRaceStatusEnum#ERROR ERROR}, which {@link TrackedRace#runWhenDoneLoading(Runnable)} doesn't consider
+     * done, or {@link TrackedRaceStatusEnum#REMOVED REMOVED}. {@code doneLoading} may be run more than once.
+     */
+    public static void runWhenDoneOrFailedLoading(TrackedRace trackedRace, Runnable doneLoading) {
+        final AbstractRaceChangeListener failureListener = new AbstractRaceChangeListener() {
+            @Override
+            public void statusChanged(TrackedRaceStatus newStatus, TrackedRaceStatus oldStatus) {
+                if (hasFailedLoading(newStatus)) {
+                    trackedRace.removeListener(this);
+                    doneLoading.run();
+                }
+            }
+        };
+        trackedRace.addListener(failureListener);
+        trackedRace.runWhenDoneLoading(() -> {
+            trackedRace.removeListener(failureListener);
+            doneLoading.run();
+        });
+        if (hasFailedLoading(trackedRace.getStatus())) {
+            trackedRace.removeListener(failureListener);
+            doneLoading.run();
+        }
+    }
+
+    private static boolean hasFailedLoading(TrackedRaceStatus status) {
+        return status != null && (status.getStatus() == TrackedRaceStatusEnum.ERROR || status.getStatus() == TrackedRaceStatusEnum.REMOVED);
+    }
+
+    /**
+     * @return the number of races scheduled but not yet started
+     */
+    public int getNumberOfRacesPending() {
+        synchronized (pendingRaces) {
+            return pendingRaces.size();
+        }
+    }
+
+    /**
+     * @return the number of races whose trackers are being created and whose race definitions are awaited
+     */
+    public int getNumberOfRacesRestoring() {
+        return numberOfRacesRestoring.get();
+    }
+
+    /**
+     * @return the number of races started by this scheduler that haven't finished loading their stored data yet,
+     *         including those {@link #getNumberOfRacesRestoring() still restoring}
+     */
+    public int getNumberOfRacesLoading() {
+        return numberOfRacesLoading.get();
+    }
+
+    /**
+     * @return the number of races whose restore has completed, regardless of whether the race showed up in time
+     */
+    public int getNumberOfRacesRestored() {
+        return numberOfRacesRestored.get();
+    }
+
+    public int getNumberOfRacesFailed() {
+        return numberOfRacesFailed.get();
+    }
+}
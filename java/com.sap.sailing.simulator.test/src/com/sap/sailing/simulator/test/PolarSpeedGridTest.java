@@ -0,0 +1,118 @@
+package com.sap.sailing.simulator.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.simulator.impl.PolarDiagram49;
+import com.sap.sailing.simulator.impl.PolarDiagram49STG;
+import com.sap.sailing.simulator.impl.PolarDiagram505STG;
+import com.sap.sailing.simulator.impl.PolarDiagramBase;
+import com.sap.sailing.simulator.impl.PolarDiagramCSV;
+import com.sap.sse.common.Bearing;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+
+/**
+ * Compares the lookups of {@link PolarDiagramBase} using the compiled {@link com.sap.sailing.simulator.impl.PolarSpeedGrid}
+ * and {@link com.sap.sailing.simulator.impl.CurrentPolarSpeedGrid} with the interpolation in the nested maps they were
+ * compiled from.
+ */
+public class PolarSpeedGridTest {
+    private static final Logger logger = Logger.getLogger(PolarSpeedGridTest.class.getName());
+
+    private static final double DELTA = 0.000000001;
+
+    private List<PolarDiagramBase> getPolarDiagrams() throws IOException {
+        return Arrays.asList(new PolarDiagram49(), new PolarDiagram49STG(), new PolarDiagram505STG(),
+                new PolarDiagramCSV("PolarDiagram49ORC.csv"));
+    }
+
+    @Test
+    public void testSpeedAtBearingMatchesSpeedTable() throws IOException {
+        for (final PolarDiagramBase polarDiagram : getPolarDiagrams()) {
+            // includes wind speeds below and above those of the table and wind directions from all around
+            for (double windSpeed = 0.0; windSpeed <= 30.0; windSpeed += 0.35) {
+                for (double windBearing = -180.0; windBearing < 360.0; windBearing += 47.5) {
+                    polarDiagram.setWind(new KnotSpeedWithBearingImpl(windSpeed, new DegreeBearingImpl(windBearing)));
+                    for (double boatBearing = -360.0; boatBearing <= 360.0; boatBearing += 0.5) {
+                        final Bearing bearing = new DegreeBearingImpl(boatBearing);
+                        assertEquals(polarDiagram.getSpeedAtBearingRawFromSpeedTable(bearing).getKnots(),
+                                polarDiagram.getSpeedAtBearingRaw(bearing).getKnots(), DELTA,
+                                "wind " + windSpeed + "kn from " + windBearing + "°, boat bearing " + boatBearing + "°");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSpeedAtBearingOverGroundMatchesExtendedSpeedTable() throws IOException {
+        final PolarDiagramBase polarDiagram = new PolarDiagram49STG();
+        final NavigableMap<Double, Object> extendedSpeedTable = polarDiagram.extendSpeedMap();
+        polarDiagram.initializeSOGwithCurrent();
+        final double[] values = new double[4];
+        for (double windSpeed = 6.0; windSpeed <= 20.0; windSpeed += 0.7) {
+            for (double currentSpeed = 0.1; currentSpeed <= 2.0; currentSpeed += 0.45) {
+                for (double currentBearing = 0.0; currentBearing < 360.0; currentBearing += 37.0) {
+                    polarDiagram.setCurrent(new KnotSpeedWithBearingImpl(currentSpeed, new DegreeBearingImpl(currentBearing)));
+                    final KnotSpeedWithBearingImpl trueWind = new KnotSpeedWithBearingImpl(windSpeed, new DegreeBearingImpl(195.0));
+                    polarDiagram.setWind(trueWind);
+                    for (double boatBearing = 0.0; boatBearing < 360.0; boatBearing += 1.5) {
+                        final Bearing bearing = new DegreeBearingImpl(boatBearing);
+                        values[0] = windSpeed;
+                        values[1] = currentSpeed;
+                        values[2] = trueWind.getBearing().reverse().getDifferenceTo(new DegreeBearingImpl(currentBearing)).getDegrees();
+                        if (values[2] < 0.0) {
+                            values[2] += 360.0;
+                        }
+                        values[3] = trueWind.getBearing().reverse().getDifferenceTo(bearing).getDegrees();
+                        if (values[3] < 0.0) {
+                            values[3] += 360.0;
+                        }
+                        assertEquals(polarDiagram.interpolate(values, 0, extendedSpeedTable),
+                                polarDiagram.getSpeedAtBearingOverGround(bearing).getKnots(), DELTA);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testPerformanceAgainstSpeedTable() {
+        final PolarDiagramBase polarDiagram = new PolarDiagram49STG();
+        final Bearing[] bearings = new Bearing[720];
+        for (int i = 0; i < bearings.length; i++) {
+            bearings[i] = new DegreeBearingImpl(i * 0.5);
+        }
+        double checksumSpeedTable = 0;
+        double checksumGrid = 0;
+        for (int round = 0; round < 3; round++) { // the first rounds warm up the JIT
+            long start = System.nanoTime();
+            for (double windSpeed = 4.0; windSpeed <= 24.0; windSpeed += 0.1) {
+                polarDiagram.setWind(new KnotSpeedWithBearingImpl(windSpeed, new DegreeBearingImpl(180)));
+                for (final Bearing bearing : bearings) {
+                    checksumSpeedTable += polarDiagram.getSpeedAtBearingRawFromSpeedTable(bearing).getKnots();
+                }
+            }
+            final long speedTableNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (double windSpeed = 4.0; windSpeed <= 24.0; windSpeed += 0.1) {
+                polarDiagram.setWind(new KnotSpeedWithBearingImpl(windSpeed, new DegreeBearingImpl(180)));
+                for (final Bearing bearing : bearings) {
+                    checksumGrid += polarDiagram.getSpeedAtBearingRaw(bearing).getKnots();
+                }
+            }
+            final long gridNanos = System.nanoTime() - start;
+            logger.info("Round " + round + ": boat speed lookups took " + speedTableNanos / 1000000
+                    + "ms using the speed table and " + gridNanos / 1000000 + "ms using the grid");
+        }
+        assertEquals(checksumSpeedTable, checksumGrid, 0.0001);
+    }
+}
@@ -0,0 +1,108 @@
+package com.sap.sailing.simulator.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sailing.domain.common.Position;
+import com.sap.sailing.domain.common.SpeedWithBearing;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.domain.common.impl.KnotSpeedWithBearingImpl;
+import com.sap.sailing.simulator.Path;
+import com.sap.sailing.simulator.SimulationParameters;
+import com.sap.sailing.simulator.TimedPositionWithSpeed;
+import com.sap.sailing.simulator.impl.PathGeneratorTreeGrow360;
+import com.sap.sailing.simulator.impl.PathGeneratorTreeGrowParallel;
+import com.sap.sailing.simulator.impl.PolarDiagram49STG;
+import com.sap.sailing.simulator.impl.RectangularGrid;
+import com.sap.sailing.simulator.impl.SimulationParametersImpl;
+import com.sap.sailing.simulator.impl.SparseSimulationDataException;
+import com.sap.sailing.simulator.util.SailingSimulatorConstants;
+import com.sap.sailing.simulator.windfield.WindControlParameters;
+import com.sap.sailing.simulator.windfield.WindFieldGenerator;
+import com.sap.sailing.simulator.windfield.impl.WindFieldGeneratorOscillationImpl;
+import com.sap.sse.common.Duration;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.impl.DegreeBearingImpl;
+import com.sap.sse.common.impl.MillisecondsDurationImpl;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+/**
+ * Compares the paths found by {@link PathGeneratorTreeGrowParallel} with those found by the sequential
+ * {@link PathGeneratorTreeGrow360} on an upwind leg in oscillating wind. The two prune the isochrones differently, so
+ * only the time needed and the shape of the paths are compared.
+ */
+public class TreeGrowParallelTest {
+    private static final Logger logger = Logger.getLogger(TreeGrowParallelTest.class.getName());
+
+    private SimulationParameters parameters;
+
+    @BeforeEach
+    public void setUp() {
+        final Position start = new DegreePosition(54.001917, 10.82222);
+        final SpeedWithBearing bearNorth = new KnotSpeedWithBearingImpl(6.0, new DegreeBearingImpl(33.0));
+        final Position end = bearNorth.travelTo(start, new MillisecondsTimePoint(0), new MillisecondsTimePoint(30 * 60 * 1000));
+        final List<Position> course = new LinkedList<Position>();
+        course.add(start);
+        course.add(end);
+        final RectangularGrid bd = new RectangularGrid(start, end);
+        final Position[][] positions = bd.generatePositions(10, 10, 0, 0);
+        final WindControlParameters windParameters = new WindControlParameters(12, start.getBearingGreatCircle(end).reverse().getDegrees());
+        final WindFieldGenerator wf = new WindFieldGeneratorOscillationImpl(bd, windParameters);
+        wf.setPositionGrid(positions);
+        final TimePoint startTime = new MillisecondsTimePoint(0);
+        final Duration timeStep = new MillisecondsDurationImpl(20000);
+        wf.generate(startTime, null, timeStep);
+        parameters = new SimulationParametersImpl(course, new PolarDiagram49STG(), wf, null,
+                SailingSimulatorConstants.ModeFreestyle, true, true);
+    }
+
+    private Path getPath(PathGeneratorTreeGrow360 generator, String startDirection, int maxTurns) throws SparseSimulationDataException {
+        generator.setEvaluationParameters(startDirection, maxTurns, null);
+        final long start = System.currentTimeMillis();
+        final Path result = generator.getPath();
+        logger.info(generator.getClass().getSimpleName() + " with start direction " + startDirection + " and at most "
+                + maxTurns + " turns took " + (System.currentTimeMillis() - start) + "ms");
+        return result;
+    }
+
+    private long getDurationMillis(Path path) {
+        final List<TimedPositionWithSpeed> points = path.getPathPoints();
+        return points.get(points.size() - 1).getTimePoint().asMillis() - points.get(0).getTimePoint().asMillis();
+    }
+
+    private void assertSimilar(Path sequential, Path parallel) {
+        assertFalse(parallel.getAlgorithmTimedOut());
+        assertTrue(parallel.getPathPoints().size() > 2);
+        assertEquals(sequential.getPathPoints().get(0).getPosition().getLatDeg(), parallel.getPathPoints().get(0).getPosition().getLatDeg(), 0.0000001);
+        final TimedPositionWithSpeed sequentialEnd = sequential.getPathPoints().get(sequential.getPathPoints().size() - 1);
+        final TimedPositionWithSpeed parallelEnd = parallel.getPathPoints().get(parallel.getPathPoints().size() - 1);
+        assertTrue(sequentialEnd.getPosition().getDistance(parallelEnd.getPosition()).getMeters() < 100.0);
+        final long sequentialDuration = getDurationMillis(sequential);
+        final long parallelDuration = getDurationMillis(parallel);
+        assertEquals(sequentialDuration, parallelDuration, 0.05 * sequentialDuration,
+                "parallel path takes " + parallelDuration + "ms, sequential path " + sequentialDuration + "ms");
+    }
+
+    @Test
+    public void testOmniscientPathMatchesSequentialSearch() throws SparseSimulationDataException {
+        final Path sequential = getPath(new PathGeneratorTreeGrow360(parameters), null, 0);
+        final Path parallel = getPath(new PathGeneratorTreeGrowParallel(parameters), null, 0);
+        assertSimilar(sequential, parallel);
+    }
+
+    @Test
+    public void testOneTurnerPathMatchesSequentialSearch() throws SparseSimulationDataException {
+        final Path sequential = getPath(new PathGeneratorTreeGrow360(parameters), "L", 1);
+        final Path parallel = getPath(new PathGeneratorTreeGrowParallel(parameters), "L", 1);
+        assertSimilar(sequential, parallel);
+        assertEquals(sequential.getMaxTurnTime(), parallel.getMaxTurnTime(), 0.1 * getDurationMillis(sequential));
+    }
+}
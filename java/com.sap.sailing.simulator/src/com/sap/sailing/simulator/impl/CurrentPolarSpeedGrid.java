@@ -0,0 +1,115 @@
+package com.sap.sailing.simulator.impl;
+
+import java.util.Map;
+import java.util.NavigableMap;
+
+/**
+ * The extended speed table built by {@link PolarDiagramBase#extendSpeedMap()} for sailing in water current, mapping
+ * true wind speed, current speed, current bearing relative to the true wind and boat bearing over ground relative to
+ * the true wind to the boat speed over ground, compiled into primitive arrays. Each level of the table becomes one
+ * {@link InterpolationAxis} per node, and the boat speeds of the last level become a {@code double[]}, so a lookup
+ * neither boxes its arguments nor walks any {@link java.util.TreeMap}.
+ * <p>
+ *
+ * The results are exactly those of {@link PolarDiagramBase#interpolate(double[], int, NavigableMap)} on the same table,
+ * including the wrap-around of the two bearing levels at 360 degrees. Where that method would fail because a support
+ * point is missing, an {@link IllegalArgumentException} is thrown. Instances are immutable and may be used
+ * concurrently.
+ */
+public class CurrentPolarSpeedGrid {
+    private static final int NUMBER_OF_LEVELS = 4;
+
+    private static class Node {
+        private final InterpolationAxis axis;
+
+        /**
+         * The nodes of the next level for the support points of the {@link #axis}; {@code null} on the last level
+         */
+        private final Node[] children;
+
+        /**
+         * The boat speeds for the support points of the {@link #axis} on the last level; {@code null} otherwise
+         */
+        private final double[] boatSpeedsInKnots;
+
+        @SuppressWarnings("unchecked")
+        Node(NavigableMap<Double, Object> map, int level) {
+            final double[] keys = new double[map.size()];
+            if (level < NUMBER_OF_LEVELS - 1) {
+                children = new Node[map.size()];
+                boatSpeedsInKnots = null;
+            } else {
+                children = null;
+                boatSpeedsInKnots = new double[map.size()];
+            }
+            int i = 0;
+            for (final Map.Entry<Double, Object> entry : map.entrySet()) {
+                keys[i] = entry.getKey();
+                if (children != null) {
+                    children[i] = new Node((NavigableMap<Double, Object>) entry.getValue(), level + 1);
+                } else {
+                    boatSpeedsInKnots[i] = (Double) entry.getValue();
+                }
+                i++;
+            }
+            axis = new InterpolationAxis(keys);
+        }
+    }
+
+    private final Node root;
+
+    /**
+     * @param extendedSpeedTable
+     *            as built by {@link PolarDiagramBase#extendSpeedMap()}; later changes to the table are not reflected
+     */
+    public CurrentPolarSpeedGrid(NavigableMap<Double, Object> extendedSpeedTable) {
+        root = new Node(extendedSpeedTable, 0);
+    }
+
+    /**
+     * @param currentBearingRelativeToTrueWindInDegrees
+     *            the direction the current flows to relative to the direction the true wind comes from, between 0 and
+     *            360
+     * @param boatBearingRelativeToTrueWindInDegrees
+     *            the boat's course over ground relative to the direction the true wind comes from, between 0 and 360
+     * @return the boat speed over ground
+     */
+    public double getBoatSpeedInKnots(double trueWindSpeedInKnots, double currentSpeedInKnots,
+            double currentBearingRelativeToTrueWindInDegrees, double boatBearingRelativeToTrueWindInDegrees) {
+        return interpolate(root, 0, trueWindSpeedInKnots, currentSpeedInKnots, currentBearingRelativeToTrueWindInDegrees,
+                boatBearingRelativeToTrueWindInDegrees);
+    }
+
+    // see PolarDiagramBase.interpolate(double[], int, NavigableMap)
+    private double interpolate(Node node, int level, double trueWindSpeed, double currentSpeed, double currentBearing,
+            double boatBearing) {
+        final double value = level == 0 ? trueWindSpeed : level == 1 ? currentSpeed : level == 2 ? currentBearing : boatBearing;
+        int hiIndex = node.axis.ceilingIndex(value);
+        if (hiIndex < 0 && (level == 2 || level == 3)) {
+            hiIndex = node.axis.ceilingIndex(value - 360);
+        }
+        if (hiIndex < 0) {
+            hiIndex = node.axis.indexOf(0.0);
+        }
+        int loIndex = node.axis.floorIndex(value);
+        if (loIndex < 0 && level == 3) {
+            loIndex = node.axis.floorIndex(value + 360);
+        }
+        if (hiIndex < 0 || loIndex < 0) {
+            throw new IllegalArgumentException("No polar data to interpolate " + value + " on level " + level);
+        }
+        final double hiValue = node.axis.get(hiIndex);
+        final double loValue = node.axis.get(loIndex);
+        final double hiResult;
+        final double loResult;
+        if (node.children != null) {
+            hiResult = interpolate(node.children[hiIndex], level + 1, trueWindSpeed, currentSpeed, currentBearing, boatBearing);
+            loResult = hiIndex == loIndex ? hiResult
+                    : interpolate(node.children[loIndex], level + 1, trueWindSpeed, currentSpeed, currentBearing, boatBearing);
+        } else {
+            hiResult = node.boatSpeedsInKnots[hiIndex];
+            loResult = node.boatSpeedsInKnots[loIndex];
+        }
+        return hiValue == loValue ? loResult : loResult + (hiResult - loResult) * (value - loValue) / (hiValue - loValue);
+    }
+}
@@ -0,0 +1,98 @@
+package com.sap.sailing.simulator.impl;
+
+/**
+ * The ascending support points of one dimension of a polar diagram, e.g. the true wind speeds or the true wind angles
+ * of one wind speed. The support points enclosing a value are found with the same results as
+ * {@link java.util.NavigableMap#floorKey(Object)} and {@link java.util.NavigableMap#ceilingKey(Object)} on a map with
+ * {@link Double} keys, but without boxing: the axis is divided into as many buckets of equal width as it has support
+ * points, each bucket remembering the greatest support point not greater than where the bucket starts. A lookup
+ * computes the bucket from the value and only has to move over the support points within that bucket.
+ */
+class InterpolationAxis {
+    private final double[] keys;
+
+    private final double min;
+
+    private final double bucketsPerUnit;
+
+    private final int[] floorIndexByBucket;
+
+    /**
+     * @param keys
+     *            strictly ascending; not copied, so the caller must not modify the array afterwards
+     */
+    InterpolationAxis(double[] keys) {
+        this.keys = keys;
+        final int size = keys.length;
+        min = size == 0 ? 0.0 : keys[0];
+        final double range = size < 2 ? 0.0 : keys[size - 1] - keys[0];
+        bucketsPerUnit = range > 0.0 ? size / range : 0.0;
+        floorIndexByBucket = new int[Math.max(1, size)];
+        int index = 0;
+        for (int bucket = 0; bucket < floorIndexByBucket.length; bucket++) {
+            final double bucketStart = bucket == 0 ? min : min + bucket / bucketsPerUnit;
+            while (index + 1 < size && keys[index + 1] <= bucketStart) {
+                index++;
+            }
+            floorIndexByBucket[bucket] = index;
+        }
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    double get(int index) {
+        return keys[index];
+    }
+
+    /**
+     * @return the index of the greatest support point less than or equal to {@code value}, or {@code -1} if there is
+     *         none; like {@link Double#compare(Double, Double)}, {@code NaN} is considered greater than all support
+     *         points
+     */
+    int floorIndex(double value) {
+        final int result;
+        if (keys.length == 0 || value < keys[0]) {
+            result = -1;
+        } else if (Double.isNaN(value)) {
+            result = keys.length - 1;
+        } else {
+            // the bucket is only a hint; rounding may place the value into a neighboring bucket
+            int index = floorIndexByBucket[Math.min(floorIndexByBucket.length - 1, (int) ((value - min) * bucketsPerUnit))];
+            while (index > 0 && keys[index] > value) {
+                index--;
+            }
+            while (index + 1 < keys.length && keys[index + 1] <= value) {
+                index++;
+            }
+            result = index;
+        }
+        return result;
+    }
+
+    /**
+     * @return the index of the least support point greater than or equal to {@code value}, or {@code -1} if there is
+     *         none
+     */
+    int ceilingIndex(double value) {
+        final int floorIndex = floorIndex(value);
+        final int result;
+        if (floorIndex >= 0 && keys[floorIndex] == value) {
+            result = floorIndex;
+        } else if (floorIndex + 1 < keys.length && !Double.isNaN(value)) {
+            result = floorIndex + 1;
+        } else {
+            result = -1;
+        }
+        return result;
+    }
+
+    /**
+     * @return the index of the support point equal to {@code value}, or {@code -1} if there is none
+     */
+    int indexOf(double value) {
+        final int floorIndex = floorIndex(value);
+        return floorIndex >= 0 && keys[floorIndex] == value ? floorIndex : -1;
+    }
+}
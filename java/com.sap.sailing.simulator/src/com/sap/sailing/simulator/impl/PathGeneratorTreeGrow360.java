@@ -112,11 +112,16 @@ public class PathGeneratorTreeGrow360 extends PathGeneratorBase {
     // extended: M - wide left, S - wide right
     TimedPosition getStep(TimedPosition pos, Wind posWind, Position posEnd, long timeStep, long turnLoss, boolean sameBaseDirection,
             char nextDirection) throws SparseSimulationDataException {
+        return getStep(this.parameters.getBoatPolarDiagram(), pos, posWind, posEnd, timeStep, turnLoss, sameBaseDirection, nextDirection);
+    }
+
+    // same as above, but using the polarDiagram passed, e.g. one that is exclusively used by the calling thread
+    TimedPosition getStep(PolarDiagram polarDiagram, TimedPosition pos, Wind posWind, Position posEnd, long timeStep, long turnLoss,
+            boolean sameBaseDirection, char nextDirection) throws SparseSimulationDataException {
 
         TimePoint curTime = pos.getTimePoint();
         Position curPosition = pos.getPosition();
 
-        PolarDiagram polarDiagram = this.parameters.getBoatPolarDiagram();
         polarDiagram.setWind(posWind);
 
         // get beat-angle left and right
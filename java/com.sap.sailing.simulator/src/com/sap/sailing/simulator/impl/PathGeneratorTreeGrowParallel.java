@@ -0,0 +1,636 @@
+package com.sap.sailing.simulator.impl;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import com.sap.sailing.domain.common.LegType;
+import com.sap.sailing.domain.common.Position;
+import com.sap.sailing.domain.common.Wind;
+import com.sap.sailing.domain.common.impl.DegreePosition;
+import com.sap.sailing.simulator.Path;
+import com.sap.sailing.simulator.PointOfSail;
+import com.sap.sailing.simulator.PolarDiagram;
+import com.sap.sailing.simulator.SimulationParameters;
+import com.sap.sailing.simulator.TimedPosition;
+import com.sap.sailing.simulator.TimedPositionWithSpeed;
+import com.sap.sailing.simulator.windfield.WindFieldGenerator;
+import com.sap.sse.common.Bearing;
+import com.sap.sse.common.Distance;
+import com.sap.sse.common.TimePoint;
+import com.sap.sse.common.impl.MillisecondsTimePoint;
+
+/**
+ * Grows the same tree of path candidates as {@link PathGeneratorTreeGrow360}, one isochrone per time step, but
+ * <ul>
+ * <li>expands the candidates of an isochrone in parallel on a {@link ForkJoinPool} dedicated to the simulator, each
+ * task using its own copy of the {@link PolarDiagram} because polar diagrams keep the wind last set as state,</li>
+ * <li>stores the candidates of an isochrone column-wise in primitive arrays, each candidate referring to the one it
+ * was grown from by its index in the previous isochrone instead of copying a path string per step, and</li>
+ * <li>keeps the candidate with the greatest height per cell of a grid across the course instead of sorting the
+ * candidates by their horizontal distance and scanning neighborhoods.</li>
+ * </ul>
+ * The grid cells are as wide as the neighborhoods scanned by {@link PathGeneratorTreeGrow360}, so about as many
+ * candidates survive each step. The paths found are therefore comparable but not necessarily identical.
+ * <p>
+ *
+ * The isochrone files requested by a grid file passed to {@link #setEvaluationParameters(String, int, String)} are
+ * written by {@link PathGeneratorTreeGrow360} only; with a grid file set, this generator delegates to it.
+ */
+public class PathGeneratorTreeGrowParallel extends PathGeneratorTreeGrow360 {
+
+    private static final Logger logger = Logger.getLogger(PathGeneratorTreeGrowParallel.class.getName());
+
+    public static final String PARALLELISM_SYSTEM_PROPERTY_NAME = "com.sap.sailing.simulator.treeGrow.parallelism";
+
+    /**
+     * The number of threads expanding isochrones for all simulations running concurrently; defaults to the number of
+     * available processors
+     */
+    private static final int PARALLELISM = Math.max(1,
+            Integer.getInteger(PARALLELISM_SYSTEM_PROPERTY_NAME, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * Not using the common pool because expanding a candidate asks the wind field for the wind which may have to wait
+     * for locks of the tracked race
+     */
+    private static final ForkJoinPool EXPANSION_POOL = new ForkJoinPool(PARALLELISM);
+
+    private static final int MIN_CANDIDATES_PER_TASK = 16;
+
+    private static final int MAX_CHILDREN_PER_CANDIDATE = 3;
+
+    /**
+     * The path candidates after a number of time steps. Slots whose {@link #direction} is {@code 0} are unused.
+     */
+    static class Isochrone {
+        int size;
+        final double[] latDeg;
+        final double[] lngDeg;
+        final long[] timeMillis;
+        final double[] vrt;
+        final double[] hrz;
+        final int[] turns;
+        final char[] direction;
+        final char[] side;
+        final int[] parent;
+        final boolean[] reached;
+        final Wind[] wind;
+
+        Isochrone(int capacity) {
+            latDeg = new double[capacity];
+            lngDeg = new double[capacity];
+            timeMillis = new long[capacity];
+            vrt = new double[capacity];
+            hrz = new double[capacity];
+            turns = new int[capacity];
+            direction = new char[capacity];
+            side = new char[capacity];
+            parent = new int[capacity];
+            reached = new boolean[capacity];
+            wind = new Wind[capacity];
+        }
+
+        Position getPosition(int idx) {
+            return new DegreePosition(latDeg[idx], lngDeg[idx]);
+        }
+
+        TimedPosition getTimedPosition(int idx) {
+            return new TimedPositionImpl(new MillisecondsTimePoint(timeMillis[idx]), getPosition(idx));
+        }
+
+        void set(int idx, TimedPosition pos, boolean reached, double vrt, double hrz, int turns, char direction, char side,
+                int parent, Wind wind) {
+            this.latDeg[idx] = pos.getPosition().getLatDeg();
+            this.lngDeg[idx] = pos.getPosition().getLngDeg();
+            this.timeMillis[idx] = pos.getTimePoint().asMillis();
+            this.reached[idx] = reached;
+            this.vrt[idx] = vrt;
+            this.hrz[idx] = hrz;
+            this.turns[idx] = turns;
+            this.direction[idx] = direction;
+            this.side[idx] = side;
+            this.parent[idx] = parent;
+            this.wind[idx] = wind;
+        }
+
+        void add(Isochrone other, int idx) {
+            latDeg[size] = other.latDeg[idx];
+            lngDeg[size] = other.lngDeg[idx];
+            timeMillis[size] = other.timeMillis[idx];
+            reached[size] = other.reached[idx];
+            vrt[size] = other.vrt[idx];
+            hrz[size] = other.hrz[idx];
+            turns[size] = other.turns[idx];
+            direction[size] = other.direction[idx];
+            side[size] = other.side[idx];
+            parent[size] = other.parent[idx];
+            wind[size] = other.wind[idx];
+            size++;
+        }
+    }
+
+    // set by getPath before expanding the first isochrone and only read while expanding
+    private Position startPos;
+    private Position endPos;
+    private Position middlePos;
+    private Bearing bearVrt;
+    private Bearing bearVrtReverse;
+    private double tgtHeight;
+    private long turnLoss;
+
+    public PathGeneratorTreeGrowParallel(SimulationParameters params) {
+        super(params);
+    }
+
+    // generate the candidate reached from candidate idx of isochrone "from" by a step into nextDirection;
+    // see PathGeneratorTreeGrow360.getPathCandWind
+    private void setChild(Isochrone from, int idx, TimedPosition pos, PolarDiagram polarDiagram, char nextDirection,
+            Isochrone to, int slot) throws SparseSimulationDataException {
+
+        char prevDirection = from.direction[idx];
+        boolean sameBaseDirection = this.isSameDirection(prevDirection, nextDirection);
+
+        int turnCount = from.turns[idx];
+        if (!sameBaseDirection) {
+            turnCount++;
+        }
+
+        // calculate next path position (taking turn-loss into account)
+        TimedPosition pathPos = this.getStep(polarDiagram, pos, from.wind[idx], endPos, usedTimeStep, turnLoss, sameBaseDirection, nextDirection);
+
+        // determine apparent wind at next path position & time
+        Wind posWind = this.parameters.getWindField().getWind(pathPos);
+
+        // calculate vertical distance as distance of height-position to end
+        Position posHeight = pathPos.getPosition().projectToLineThrough(endPos, bearVrtReverse);
+        Bearing bearHeight = endPos.getBearingGreatCircle(posHeight);
+        double bearHeightSide = bearVrtReverse.getDifferenceTo(bearHeight).getDegrees();
+        double vrtSide = -1.0;
+        if (Math.abs(bearHeightSide) > 170.0) {
+            vrtSide = +1.0;
+        }
+        double vrtDist = vrtSide * Math.round(posHeight.getDistance(endPos).getMeters() * 1000.0) / 1000.0;
+
+        // scale last step to exactly reach height of posEnd (in reference to target) and adjust time correspondingly
+        boolean reachedEnd = false;
+        if ((!from.reached[idx]) && (vrtDist > 0.0)) {
+            Position prevPos = pos.getPosition();
+            TimePoint prevTime = pos.getTimePoint();
+            double heightFrac = from.vrt[idx] / (from.vrt[idx] - vrtDist);
+            Position newPos = prevPos.translateGreatCircle(prevPos.getBearingGreatCircle(pathPos.getPosition()),
+                    prevPos.getDistance(pathPos.getPosition()).scale(heightFrac));
+            long newTimeMillis = Math.round((prevTime.asMillis() + (pathPos.getTimePoint().asMillis() - prevTime
+                    .asMillis()) * heightFrac) / 1000.0) * 1000;
+            pathPos = new TimedPositionImpl(new MillisecondsTimePoint(newTimeMillis), newPos);
+            reachedEnd = true;
+        }
+
+        // calculate horizontal side: left or right in reference to race course
+        double posSide = 1;
+        Bearing posBear = startPos.getBearingGreatCircle(pathPos.getPosition());
+        double posBearDiff = bearVrt.getDifferenceTo(posBear).getDegrees();
+        if ((posBearDiff < 0.0) || (posBearDiff > 180.0)) {
+            posSide = -1;
+        } else if ((posBearDiff == 0.0) || (posBearDiff == 180.0)) {
+            posSide = 0;
+        }
+        // calculate horizontal distance as distance of height-position to current position
+        Position posHeightTrgt = pathPos.getPosition().projectToLineThrough(startPos, bearVrt);
+        double hrzDist = Math.round(posSide * posHeightTrgt.getDistance(pathPos.getPosition()).getMeters() * 1000.0) / 1000.0;
+
+        to.set(slot, pathPos, reachedEnd, vrtDist, hrzDist, turnCount, nextDirection, getBaseDirection(nextDirection), idx, posWind);
+    }
+
+    // generate the candidates grown from candidate idx of isochrone "from" into slots firstSlot, firstSlot+1, ...;
+    // see PathGeneratorTreeGrow360.getPathCandsBeatWind
+    private void expandCandidate(Isochrone from, int idx, Position position, PolarDiagram polarDiagram, Isochrone to,
+            int firstSlot) throws SparseSimulationDataException {
+
+        TimedPosition pos = new TimedPositionImpl(new MillisecondsTimePoint(from.timeMillis[idx]), position);
+        Wind wind = from.wind[idx];
+
+        // determine bearing of target
+        Bearing bearTarget = position.getBearingGreatCircle(endPos);
+        polarDiagram.setWind(wind);
+        // compare target bearing to upwind bearings
+        Bearing[] bearOptimalUpwind = polarDiagram.optimalDirectionsUpwind();
+        Bearing upwindLeftRight = bearOptimalUpwind[0].getDifferenceTo(bearOptimalUpwind[1]);
+        Bearing upwindLeftTarget = bearOptimalUpwind[0].getDifferenceTo(bearTarget);
+        PointOfSail pointOfSail = PointOfSail.REACHING;
+        char reachingSide = ' ';
+        // check whether boat is in "tacking area"
+        if ((upwindLeftTarget.getDegrees() >= -1) && (upwindLeftTarget.getDegrees() <= upwindLeftRight.getDegrees()+1)) {
+            pointOfSail = PointOfSail.TACKING;
+        } else {
+            Bearing[] bearOptimalDownwind = polarDiagram.optimalDirectionsDownwind();
+            Bearing downwindLeftRight = bearOptimalDownwind[0].getDifferenceTo(bearOptimalDownwind[1]);
+            Bearing downwindLeftTarget = bearOptimalDownwind[0].getDifferenceTo(bearTarget);
+            // check whether boat is in "non-sailable area"
+            if ((downwindLeftTarget.getDegrees() >= -1) && (downwindLeftTarget.getDegrees() <= downwindLeftRight.getDegrees()+1)) {
+                pointOfSail = PointOfSail.JIBING;
+            } else {
+                Bearing windBoat = wind.getBearing().getDifferenceTo(bearTarget);
+                if (windBoat.getDegrees() > 0) {
+                    reachingSide = 'D'; // left-sided reaching
+                } else {
+                    reachingSide = 'E'; // right-sided reaching
+                }
+            }
+        }
+
+        char prevDirection = from.direction[idx];
+        // with maxTurns == 0 arbitrarily many turns are allowed
+        boolean mayTurn = (this.maxTurns <= 0) || (from.turns[idx] < this.maxTurns);
+        int slot = firstSlot;
+
+        if (pointOfSail == PointOfSail.TACKING) {
+            if (mayTurn || this.isSameDirection(prevDirection, 'L')) {
+                setChild(from, idx, pos, polarDiagram, 'L', to, slot++);
+            }
+            if (mayTurn || this.isSameDirection(prevDirection, 'R')) {
+                setChild(from, idx, pos, polarDiagram, 'R', to, slot++);
+            }
+        }
+
+        if (pointOfSail == PointOfSail.JIBING) {
+            if (mayTurn || this.isSameDirection(prevDirection, 'l')) {
+                setChild(from, idx, pos, polarDiagram, 'l', to, slot++);
+            }
+            if (mayTurn || this.isSameDirection(prevDirection, 'r')) {
+                setChild(from, idx, pos, polarDiagram, 'r', to, slot++);
+            }
+        }
+
+        if (pointOfSail == PointOfSail.REACHING) {
+            // direct step (to target)
+            if (mayTurn || this.isSameDirection(prevDirection, reachingSide)) {
+                setChild(from, idx, pos, polarDiagram, reachingSide, to, slot++);
+            }
+            // continuing step (may be required to reach target at all)
+            if ((prevDirection != reachingSide) && (prevDirection != '0')) {
+                setChild(from, idx, pos, polarDiagram, prevDirection, to, slot++);
+            }
+            // opposite step (in order to be accurate for symmetric cases)
+            char oppositeDirection = this.getOppositeDirection(prevDirection);
+            if (mayTurn && (oppositeDirection != ' ') && (prevDirection != '0')) {
+                setChild(from, idx, pos, polarDiagram, oppositeDirection, to, slot++);
+            }
+        }
+    }
+
+    private void expandRange(Isochrone from, int fromIdx, int toIdx, PolarDiagram polarDiagram, Isochrone to)
+            throws SparseSimulationDataException {
+        double maxDistFromMiddleMeters = oobFact * tgtHeight;
+        for (int idx = fromIdx; idx < toIdx; idx++) {
+            if (from.reached[idx]) {
+                continue;
+            }
+            Position position = from.getPosition(idx);
+            // ignore candidates *outside* regatta-area
+            if (middlePos.getDistance(position).getMeters() > maxDistFromMiddleMeters) {
+                continue;
+            }
+            expandCandidate(from, idx, position, polarDiagram, to, idx * MAX_CHILDREN_PER_CANDIDATE);
+        }
+    }
+
+    /**
+     * @return all candidates grown from {@code from} in one time step, at up to {@link #MAX_CHILDREN_PER_CANDIDATE}
+     *         slots per candidate of {@code from}, some of them unused
+     */
+    Isochrone expand(Isochrone from) throws SparseSimulationDataException {
+        final Isochrone to = new Isochrone(from.size * MAX_CHILDREN_PER_CANDIDATE);
+        to.size = from.size * MAX_CHILDREN_PER_CANDIDATE;
+        final int numberOfTasks = Math.min(4 * PARALLELISM, from.size / MIN_CANDIDATES_PER_TASK);
+        if (numberOfTasks <= 1) {
+            expandRange(from, 0, from.size, this.parameters.getBoatPolarDiagram(), to);
+        } else {
+            final PolarDiagramBase polarDiagram = (PolarDiagramBase) this.parameters.getBoatPolarDiagram();
+            final List<Callable<Void>> tasks = new ArrayList<>(numberOfTasks);
+            for (int task = 0; task < numberOfTasks; task++) {
+                final int fromIdx = (int) ((long) from.size * task / numberOfTasks);
+                final int toIdx = (int) ((long) from.size * (task + 1) / numberOfTasks);
+                tasks.add(() -> {
+                    expandRange(from, fromIdx, toIdx, new PolarDiagramBase(polarDiagram), to);
+                    return null;
+                });
+            }
+            try {
+                for (final Future<Void> future : EXPANSION_POOL.invokeAll(tasks)) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SparseSimulationDataException("Interrupted while expanding isochrone");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof SparseSimulationDataException) {
+                    throw (SparseSimulationDataException) e.getCause();
+                } else if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else {
+                    throw new RuntimeException(e.getCause());
+                }
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Keeps, separately for the left and the right side, the candidate with the greatest height in each cell of width
+     * {@code hrzCellWidth} across the course. Left candidates come first, each side ordered by horizontal distance.
+     */
+    Isochrone filterCandidates(Isochrone candidates, double hrzCellWidth) {
+        int numberOfCandidates = 0;
+        for (int idx = 0; idx < candidates.size; idx++) {
+            if (candidates.direction[idx] != 0) {
+                numberOfCandidates++;
+            }
+        }
+        final Isochrone result = new Isochrone(numberOfCandidates);
+        for (final char side : new char[] { 'L', 'R' }) {
+            int minCell = Integer.MAX_VALUE;
+            int maxCell = Integer.MIN_VALUE;
+            for (int idx = 0; idx < candidates.size; idx++) {
+                if (candidates.direction[idx] != 0 && candidates.side[idx] == side) {
+                    final int cell = (int) Math.floor(candidates.hrz[idx] / hrzCellWidth);
+                    minCell = Math.min(minCell, cell);
+                    maxCell = Math.max(maxCell, cell);
+                }
+            }
+            if (minCell <= maxCell) {
+                final int[] bestPerCell = new int[maxCell - minCell + 1];
+                for (int cell = 0; cell < bestPerCell.length; cell++) {
+                    bestPerCell[cell] = -1;
+                }
+                for (int idx = 0; idx < candidates.size; idx++) {
+                    if (candidates.direction[idx] != 0 && candidates.side[idx] == side) {
+                        final int cell = (int) Math.floor(candidates.hrz[idx] / hrzCellWidth) - minCell;
+                        if (bestPerCell[cell] < 0 || candidates.vrt[idx] > candidates.vrt[bestPerCell[cell]]) {
+                            bestPerCell[cell] = idx;
+                        }
+                    }
+                }
+                for (final int best : bestPerCell) {
+                    if (best >= 0) {
+                        result.add(candidates, best);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    // same order as PathCandidate.compareTo: earlier arrival first; within a second, fewer turns first
+    private static boolean isBetterTarget(Isochrone isochrone, int idx, int other) {
+        final long time = isochrone.timeMillis[idx];
+        final long otherTime = isochrone.timeMillis[other];
+        final boolean result;
+        if (Math.abs(time - otherTime) <= 1000) {
+            result = isochrone.turns[idx] < isochrone.turns[other];
+        } else {
+            result = time < otherTime;
+        }
+        return result;
+    }
+
+    @Override
+    public Path getPath() throws SparseSimulationDataException {
+        if (this.gridStore) {
+            return super.getPath();
+        }
+        this.algorithmStartTime = MillisecondsTimePoint.now();
+
+        WindFieldGenerator wf = this.parameters.getWindField();
+        PolarDiagram polarDiagram = this.parameters.getBoatPolarDiagram();
+
+        startPos = this.parameters.getCourse().get(0);
+        endPos = this.parameters.getCourse().get(1);
+        bearVrt = startPos.getBearingGreatCircle(endPos);
+
+        List<Position> endLine = this.parameters.getEndLine();
+        if (endLine != null) {
+            Bearing bearEndLine = endLine.get(0).getBearingGreatCircle(endLine.get(1));
+            double diffEndLineVrt = bearVrt.getDifferenceTo(bearEndLine).getDegrees();
+            Position endPositionLeft;
+            Position endPositionRight;
+            if ((diffEndLineVrt > 0) && (diffEndLineVrt < 180)) {
+                endPositionLeft = endLine.get(0);
+                endPositionRight = endLine.get(1);
+            } else {
+                endPositionLeft = endLine.get(1);
+                endPositionRight = endLine.get(0);
+            }
+            if (initPathStr.length() > 1) {
+                if (initPathStr.charAt(1) == 'L') {
+                    endPos = endPositionLeft;
+                } else {
+                    endPos = endPositionRight;
+                }
+                endLineWidth = null;
+            } else {
+                endLineWidth = endPositionLeft.getDistance(endPositionRight);
+            }
+            bearVrt = startPos.getBearingGreatCircle(endPos);
+        }
+        bearVrtReverse = bearVrt.reverse();
+
+        TimePoint startTime = wf.getStartTime();
+        List<TimedPositionWithSpeed> path = new ArrayList<TimedPositionWithSpeed>();
+
+        Distance distStartEnd = startPos.getDistance(endPos);
+        tgtHeight = distStartEnd.getMeters();
+
+        Wind wndStart = wf.getWind(new TimedPositionWithSpeedImpl(startTime, startPos, null));
+        polarDiagram.setWind(wndStart);
+        middlePos = startPos.translateGreatCircle(bearVrt, distStartEnd.scale(0.5));
+
+        if (this.parameters.getLegType() == null) {
+            Bearing bearRCWind = wndStart.getBearing().getDifferenceTo(bearVrt);
+            this.upwindLeg = (Math.abs(bearRCWind.getDegrees()) > 90.0) && (Math.abs(bearRCWind.getDegrees()) < 270.0);
+        } else {
+            this.upwindLeg = this.parameters.getLegType() == LegType.UPWIND;
+        }
+        logger.fine("Leg Direction: " + (this.upwindLeg ? "upwind" : "downwind"));
+
+        turnLoss = polarDiagram.getTurnLoss(); // time lost when doing a turn
+        if (!this.upwindLeg) {
+            turnLoss = turnLoss / 2;
+        }
+
+        if ((this.parameters.getSimuStep() != null) && (this.parameters.getSimuStep().asMillis() > turnLoss + 1000)) {
+            this.usedTimeStep = this.parameters.getSimuStep().asMillis();
+        } else {
+            this.usedTimeStep = turnLoss + 1000; // time-step larger than turn-loss is required
+        }
+        logger.fine("Time step :" + usedTimeStep);
+
+        // calculate initial positions according to initPathStr
+        List<Position> initPositions = new ArrayList<Position>();
+        List<Position> startLine = this.parameters.getStartLine();
+        // check if start-line has two marks as expected; if not fall back to start-position
+        if ((startLine != null) && (startLine.size() > 2)) {
+            startLine = null;
+        }
+        if (startLine == null) {
+            initPositions.add(startPos);
+        } else if (startLine.size() == 2) {
+            Bearing bearLine = startLine.get(0).getBearingGreatCircle(startLine.get(1));
+            double diffLineVrt = bearVrt.getDifferenceTo(bearLine).getDegrees();
+            Position startPositionLeft;
+            Position startPositionRight;
+            if ((diffLineVrt > 0) && (diffLineVrt < 180)) {
+                startPositionLeft = startLine.get(0);
+                startPositionRight = startLine.get(1);
+            } else {
+                startPositionLeft = startLine.get(1);
+                startPositionRight = startLine.get(0);
+            }
+            if ((this.maxTurns == 1) && (initPathStr.length() > 1)) {
+                initPositions.add(initPathStr.charAt(1) == 'L' ? startPositionLeft : startPositionRight);
+            } else {
+                Bearing bearStartLine = startPositionLeft.getBearingGreatCircle(startPositionRight);
+                int nParts = 10;
+                for (int idx = 0; idx <= nParts; idx++) {
+                    Distance deltaStartLine = startPositionLeft.getDistance(startPositionRight).scale(((double) idx) / nParts);
+                    initPositions.add(startPositionLeft.translateGreatCircle(bearStartLine, deltaStartLine));
+                }
+            }
+        }
+        Isochrone isochrone = new Isochrone(initPositions.size());
+        for (Position initPosition : initPositions) {
+            TimedPosition initTimedPosition = new TimedPositionImpl(startTime, initPosition);
+            Wind initWind = initPosition == startPos ? wndStart : wf.getWind(new TimedPositionWithSpeedImpl(startTime, initPosition, null));
+            isochrone.set(isochrone.size++, initTimedPosition, false, 0.0, 0.0, 0, '0', '0', -1, initWind);
+        }
+        final List<Isochrone> isochrones = new ArrayList<>();
+        isochrones.add(isochrone);
+
+        // construct initialization steps, e.g. first left-going step for left-going 1-turner
+        if (initPathStr.length() > 1) {
+            String initPathStrCaps = initPathStr.toUpperCase();
+            if (!this.upwindLeg) {
+                initPathStrCaps = initPathStrCaps.replace('L', 'r');
+                initPathStrCaps = initPathStrCaps.replace('R', 'l');
+            }
+            for (int step = 1; step < initPathStrCaps.length(); step++) {
+                Isochrone next = new Isochrone(isochrone.size);
+                for (int idx = 0; idx < isochrone.size; idx++) {
+                    setChild(isochrone, idx, isochrone.getTimedPosition(idx), polarDiagram, initPathStrCaps.charAt(step), next, idx);
+                }
+                next.size = isochrone.size;
+                isochrone = next;
+                isochrones.add(isochrone);
+            }
+        }
+
+        TimedPosition tstPosition = this.getStep(new TimedPositionImpl(startTime, startPos), wndStart, endPos, usedTimeStep, turnLoss, true, (this.upwindLeg?'L':'l'));
+        double tstDist1 = startPos.getDistance(tstPosition.getPosition()).getMeters();
+        tstPosition = this.getStep(new TimedPositionImpl(startTime, startPos), wndStart, endPos, usedTimeStep, turnLoss, true, (this.upwindLeg?'R':'r'));
+        double tstDist2 = startPos.getDistance(tstPosition.getPosition()).getMeters();
+        double hrzBinSize = (tstDist1 + tstDist2) / 6.0; // horizontal bin size in meters
+
+        if (endLineWidth != null) {
+            endMatchCriterion = ((int)Math.round(endLineWidth.getMeters() / hrzBinSize)) / 2;
+        } else {
+            endMatchCriterion = 0;
+        }
+
+        int bestTarget = -1;
+        boolean reachedEnd = false;
+        while (!reachedEnd) {
+            // generate new candidates (inside regatta-area) and select good candidates
+            isochrone = this.filterCandidates(this.expand(isochrone), hrzBinSize / 2.0);
+            isochrones.add(isochrone);
+            if (isochrone.size > 0) {
+                for (int idx = 0; idx < isochrone.size; idx++) {
+                    // terminate path-search if paths are found that are close enough to target
+                    if (isochrone.reached[idx]) {
+                        int curBin = (int) Math.round(Math.floor((isochrone.hrz[idx] + hrzBinSize / 2.0) / hrzBinSize));
+                        if (Math.abs(curBin) <= endMatchCriterion) {
+                            reachedEnd = true;
+                            if (bestTarget < 0 || isBetterTarget(isochrone, idx, bestTarget)) {
+                                bestTarget = idx;
+                            }
+                        }
+                    }
+                }
+            } else {
+                // terminate path-search as no path inside regatta-area are left
+                reachedEnd = true;
+            }
+            // check for time-out
+            if (this.isTimedOut()) {
+                reachedEnd = true;
+            }
+        }
+
+        // if no target-paths were found, return empty path
+        if (bestTarget < 0) {
+            path.add(new TimedPositionWithSpeedImpl(startTime, startPos, null));
+            return new PathImpl(path, wf, true /* out-of-bounds spatially||timely */, false /* mixed leg */); // return empty path
+        }
+
+        // reconstruct best path by following the candidates back to the start
+        final int numberOfSteps = isochrones.size();
+        final char[] directions = new char[numberOfSteps];
+        final int[] indexes = new int[numberOfSteps];
+        int idx = bestTarget;
+        for (int step = numberOfSteps - 1; step >= 0; step--) {
+            indexes[step] = idx;
+            directions[step] = isochrones.get(step).direction[idx];
+            idx = isochrones.get(step).parent[idx];
+        }
+        final Isochrone last = isochrones.get(numberOfSteps - 1);
+        final Position start = isochrones.get(0).getPosition(indexes[0]);
+        bestCand = new PathCandidate(last.getTimedPosition(bestTarget), last.reached[bestTarget], last.vrt[bestTarget],
+                last.hrz[bestTarget], last.turns[bestTarget], new String(directions), last.side[bestTarget],
+                last.wind[bestTarget], start);
+        long endTime = last.timeMillis[bestTarget];
+        path.add(new TimedPositionWithSpeedImpl(startTime, start, null));
+        for (int step = 1; step < numberOfSteps - 1; step++) {
+            final Isochrone stepIsochrone = isochrones.get(step);
+            if (stepIsochrone.timeMillis[indexes[step]] < endTime) {
+                path.add(new TimedPositionWithSpeedImpl(new MillisecondsTimePoint(stepIsochrone.timeMillis[indexes[step]]),
+                        stepIsochrone.getPosition(indexes[step]), null));
+            }
+        }
+        // add final position (rescaled before to end on height of target)
+        path.add(new TimedPositionWithSpeedImpl(bestCand.pos.getTimePoint(), bestCand.pos.getPosition(), null));
+
+        // identify type of course
+        boolean containsTacks = bestCand.path.contains("L")||bestCand.path.contains("R");
+        boolean containsJibes = bestCand.path.contains("l")||bestCand.path.contains("r");
+
+        // maximum turn time for one-turner simulation, otherwise zero
+        long maxTurnTime = 0;
+        if (this.maxTurns == 1) {
+            int turnMiddle;
+            if (bestCand.path.charAt(1) == (this.upwindLeg?'L':'l')) {
+                turnMiddle = bestCand.getIndexOfTurnLR();
+            } else {
+                turnMiddle = bestCand.getIndexOfTurnRL();
+            }
+            maxTurnTime = turnMiddle * this.usedTimeStep;
+        }
+
+        // logging information about best found course
+        Calendar cal = Calendar.getInstance();
+        cal.setTimeInMillis(bestCand.pos.getTimePoint().asMillis() - startTime.asMillis());
+        SimpleDateFormat racetimeFormat = new SimpleDateFormat("HH:mm:ss:SSS");
+        racetimeFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+        logger.fine("Start Condition: " + this.initPathStr + "\nPath: " + bestCand.path +"\n      Time: "
+                + racetimeFormat.format(cal.getTime()) + ", Distance: "
+                + String.format("%.2f", Math.round(bestCand.pos.getPosition().getDistance(endPos).getMeters() * 100.0) / 100.0) + " meters"
+                + ", " + bestCand.trn + " Turn" + (bestCand.trn>1?"s":""));
+
+        return new PathImpl(path, wf, maxTurnTime, this.algorithmTimedOut, containsTacks&&containsJibes&&(this.maxTurns==1));
+    }
+}
@@ -47,6 +47,17 @@ public class PolarDiagramBase implements PolarDiagram, Serializable {
     protected double scaleBearing = 1.0;
     protected double scaleSpeed = 1.0;
 
+    /**
+     * The {@link #speedTable} compiled for fast lookups; built on the first lookup, so the speed table must not be
+     * changed afterwards
+     */
+    private transient volatile PolarSpeedGrid speedGrid;
+
+    /**
+     * The {@link #extTable} compiled for fast lookups; built on the first lookup
+     */
+    private transient volatile CurrentPolarSpeedGrid currentSpeedGrid;
+
     @Override
     public void setSpeedScale(double scaleSpeed) {
         this.scaleSpeed = scaleSpeed;
@@ -105,6 +116,8 @@ public class PolarDiagramBase implements PolarDiagram, Serializable {
         jibeSOG = pd.jibeSOG;
         current = pd.current;
         extTable = pd.extTable;
+        speedGrid = pd.speedGrid;
+        currentSpeedGrid = pd.currentSpeedGrid;
     }
 
     // a constructor that allows a generic set of parameters
@@ -342,7 +355,7 @@ public class PolarDiagramBase implements PolarDiagram, Serializable {
             if (values[3] < 0.0) {
                 values[3] += 360.0;
             }
-            double boatSpeed = this.interpolate(values, 0, extTable);
+            double boatSpeed = this.getCurrentSpeedGrid().getBoatSpeedInKnots(values[0], values[1], values[2], values[3]);
             return new KnotSpeedWithBearingImpl(boatSpeed*this.scaleSpeed, bearing);
         }
     }
@@ -358,7 +371,38 @@ public class PolarDiagramBase implements PolarDiagram, Serializable {
         }
     }
 
+    private PolarSpeedGrid getSpeedGrid() {
+        PolarSpeedGrid result = speedGrid;
+        if (result == null && PolarSpeedGrid.canCompile(speedTable)) {
+            result = new PolarSpeedGrid(speedTable);
+            speedGrid = result;
+        }
+        return result;
+    }
+
+    private CurrentPolarSpeedGrid getCurrentSpeedGrid() {
+        CurrentPolarSpeedGrid result = currentSpeedGrid;
+        if (result == null) {
+            result = new CurrentPolarSpeedGrid(extTable);
+            currentSpeedGrid = result;
+        }
+        return result;
+    }
+
     public SpeedWithBearing getSpeedAtBearingRaw(Bearing bearing) {
+        final PolarSpeedGrid grid = getSpeedGrid();
+        final SpeedWithBearing result;
+        if (grid == null) {
+            result = getSpeedAtBearingRawFromSpeedTable(bearing);
+        } else {
+            final double trueWindAngle = PolarSpeedGrid.getTrueWindAngleInDegrees(wind.getBearing().getDegrees(), bearing.getDegrees());
+            result = new KnotSpeedWithBearingImpl(grid.getBoatSpeedInKnots(wind.getKnots(), trueWindAngle)*this.scaleSpeed, bearing);
+        }
+        return result;
+    }
+
+    // same as getSpeedAtBearingRaw, but interpolating in the speedTable directly instead of using the speedGrid
+    public SpeedWithBearing getSpeedAtBearingRawFromSpeedTable(Bearing bearing) {
         Bearing relativeBearing = wind.getBearing().reverse().getDifferenceTo(bearing);
         if (relativeBearing.getDegrees() < 0) {
             relativeBearing = relativeBearing.getDifferenceTo(new DegreeBearingImpl(0));
@@ -0,0 +1,193 @@
+package com.sap.sailing.simulator.impl;
+
+import java.util.Map;
+import java.util.NavigableMap;
+
+import com.sap.sse.common.Bearing;
+import com.sap.sse.common.Speed;
+
+/**
+ * The speed table of a {@link PolarDiagramBase}, mapping the true wind speed and the true wind angle to the boat
+ * speed, compiled into primitive arrays. For each true wind speed of the table, the true wind angles are held in an
+ * {@link InterpolationAxis}, and the slope of the boat speed between each two neighboring angles is computed up front.
+ * A lookup thus needs two bucket lookups per wind speed row and a few multiplications, and it allocates nothing.
+ * <p>
+ *
+ * The results are the same as those of {@link PolarDiagramBase#getSpeedAtBearingRawFromSpeedTable(Bearing)}: linear
+ * interpolation between the enclosing wind speed rows, and within each row between the enclosing angles; constant
+ * extrapolation beyond the first and the last angle and wind speed; and for rows without any boat speeds, as the
+ * {@link PolarDiagramGPS} may produce them, extrapolation proportional to the wind speed from the neighboring row.
+ * <p>
+ *
+ * The rows of the speed table have to be ordered by {@link PolarDiagramBase#bearingComparator}, as all polar diagrams
+ * in this bundle do; see {@link #canCompile(NavigableMap)}. Instances are immutable and may be used concurrently.
+ */
+public class PolarSpeedGrid {
+    private final InterpolationAxis windSpeedsInKnots;
+
+    /**
+     * For each wind speed, the true wind angles of the row in degrees as ordered by
+     * {@link PolarDiagramBase#bearingComparator}, i.e., with negative angles moved up by 360 degrees
+     */
+    private final InterpolationAxis[] angles;
+
+    /**
+     * For each wind speed, the true wind angles of the row in radians as used for the interpolation
+     */
+    private final double[][] anglesInRadians;
+
+    /**
+     * For each wind speed, the boat speeds at the {@link #angles}
+     */
+    private final double[][] boatSpeedsInKnots;
+
+    /**
+     * For each wind speed and angle index {@code i}, the change of the boat speed per radian between angle {@code i}
+     * and angle {@code i+1}
+     */
+    private final double[][] boatSpeedSlopes;
+
+    public static boolean canCompile(NavigableMap<Speed, NavigableMap<Bearing, Speed>> speedTable) {
+        boolean result = speedTable != null && !speedTable.isEmpty();
+        if (result) {
+            for (final NavigableMap<Bearing, Speed> row : speedTable.values()) {
+                if (row.comparator() != PolarDiagramBase.bearingComparator) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param speedTable
+     *            must be accepted by {@link #canCompile(NavigableMap)}; later changes to the table are not reflected
+     */
+    public PolarSpeedGrid(NavigableMap<Speed, NavigableMap<Bearing, Speed>> speedTable) {
+        final int numberOfWindSpeeds = speedTable.size();
+        final double[] windSpeeds = new double[numberOfWindSpeeds];
+        angles = new InterpolationAxis[numberOfWindSpeeds];
+        anglesInRadians = new double[numberOfWindSpeeds][];
+        boatSpeedsInKnots = new double[numberOfWindSpeeds][];
+        boatSpeedSlopes = new double[numberOfWindSpeeds][];
+        int windSpeedIndex = 0;
+        for (final Map.Entry<Speed, NavigableMap<Bearing, Speed>> row : speedTable.entrySet()) {
+            windSpeeds[windSpeedIndex] = row.getKey().getKnots();
+            final int numberOfAngles = row.getValue().size();
+            final double[] anglesInDegrees = new double[numberOfAngles];
+            final double[] radians = new double[numberOfAngles];
+            final double[] boatSpeeds = new double[numberOfAngles];
+            final boolean[] sameBoatSpeedAsNext = new boolean[numberOfAngles];
+            Speed previousBoatSpeed = null;
+            int angleIndex = 0;
+            for (final Map.Entry<Bearing, Speed> angleAndBoatSpeed : row.getValue().entrySet()) {
+                final double degrees = angleAndBoatSpeed.getKey().getDegrees();
+                anglesInDegrees[angleIndex] = degrees < 0 ? 360 + degrees : degrees;
+                radians[angleIndex] = angleAndBoatSpeed.getKey().getRadians();
+                boatSpeeds[angleIndex] = angleAndBoatSpeed.getValue().getKnots();
+                if (angleIndex > 0) {
+                    sameBoatSpeedAsNext[angleIndex - 1] = angleAndBoatSpeed.getValue().equals(previousBoatSpeed);
+                }
+                previousBoatSpeed = angleAndBoatSpeed.getValue();
+                angleIndex++;
+            }
+            final double[] slopes = new double[numberOfAngles];
+            for (int i = 0; i + 1 < numberOfAngles; i++) {
+                slopes[i] = sameBoatSpeedAsNext[i] ? 0.0 : (boatSpeeds[i + 1] - boatSpeeds[i]) / (radians[i + 1] - radians[i]);
+            }
+            angles[windSpeedIndex] = new InterpolationAxis(anglesInDegrees);
+            anglesInRadians[windSpeedIndex] = radians;
+            boatSpeedsInKnots[windSpeedIndex] = boatSpeeds;
+            boatSpeedSlopes[windSpeedIndex] = slopes;
+            windSpeedIndex++;
+        }
+        windSpeedsInKnots = new InterpolationAxis(windSpeeds);
+    }
+
+    /**
+     * Computes the absolute angle between the direction the wind comes from and the boat's course the same way
+     * {@link PolarDiagramBase#getSpeedAtBearingRawFromSpeedTable(Bearing)} does with {@link Bearing} objects.
+     *
+     * @param windBearingInDegrees
+     *            the direction the wind blows to
+     * @return the true wind angle in degrees, usually between 0 and 180
+     */
+    public static double getTrueWindAngleInDegrees(double windBearingInDegrees, double boatBearingInDegrees) {
+        final double windFromInDegrees = normalize(windBearingInDegrees >= 180 ? windBearingInDegrees - 180 : windBearingInDegrees + 180);
+        double result = getDifference(windFromInDegrees, boatBearingInDegrees);
+        if (result < 0) {
+            result = getDifference(result, 0);
+        }
+        return result;
+    }
+
+    // see AbstractBearing.getDifferenceTo(Bearing)
+    private static double getDifference(double fromInDegrees, double toInDegrees) {
+        double difference = toInDegrees - fromInDegrees;
+        if (difference < -180) {
+            difference += 360;
+        } else if (difference > 180) {
+            difference -= 360;
+        }
+        return normalize(difference);
+    }
+
+    // see DegreeBearingImpl(double)
+    private static double normalize(double degrees) {
+        return degrees - 360 * (int) (degrees / 360.);
+    }
+
+    /**
+     * @param trueWindAngleInDegrees
+     *            as computed by {@link #getTrueWindAngleInDegrees(double, double)}
+     */
+    public double getBoatSpeedInKnots(double windSpeedInKnots, double trueWindAngleInDegrees) {
+        final double trueWindAngleInRadians = trueWindAngleInDegrees / 180. * Math.PI;
+        final double anglePosition = trueWindAngleInDegrees < 0 ? 360 + trueWindAngleInDegrees : trueWindAngleInDegrees;
+        int floorWind = windSpeedsInKnots.floorIndex(windSpeedInKnots);
+        int ceilingWind = windSpeedsInKnots.ceilingIndex(windSpeedInKnots);
+        if (ceilingWind < 0) {
+            ceilingWind = floorWind;
+        }
+        if (floorWind < 0) {
+            floorWind = ceilingWind;
+        }
+        final boolean floorRowEmpty = angles[floorWind].size() == 0;
+        final boolean ceilingRowEmpty = angles[ceilingWind].size() == 0;
+        double floorSpeed = floorRowEmpty ? 0.0 : getBoatSpeedInRow(floorWind, anglePosition, trueWindAngleInRadians);
+        double ceilingSpeed = ceilingRowEmpty ? 0.0 : getBoatSpeedInRow(ceilingWind, anglePosition, trueWindAngleInRadians);
+        final double floorWindSpeed = windSpeedsInKnots.get(floorWind);
+        final double ceilingWindSpeed = windSpeedsInKnots.get(ceilingWind);
+        if (floorRowEmpty) {
+            floorSpeed = ceilingSpeed * floorWindSpeed / ceilingWindSpeed;
+        }
+        if (ceilingRowEmpty) {
+            ceilingSpeed = floorSpeed * ceilingWindSpeed / floorWindSpeed;
+        }
+        final double result;
+        if (floorWind == ceilingWind) {
+            result = floorSpeed;
+        } else {
+            result = floorSpeed + (windSpeedInKnots - floorWindSpeed) * (ceilingSpeed - floorSpeed) / (ceilingWindSpeed - floorWindSpeed);
+        }
+        return result;
+    }
+
+    private double getBoatSpeedInRow(int windSpeedIndex, double anglePosition, double trueWindAngleInRadians) {
+        final InterpolationAxis rowAngles = angles[windSpeedIndex];
+        final double[] boatSpeeds = boatSpeedsInKnots[windSpeedIndex];
+        final int floorAngle = rowAngles.floorIndex(anglePosition);
+        final int ceilingAngle = rowAngles.ceilingIndex(anglePosition);
+        final double result;
+        if (floorAngle < 0) {
+            result = boatSpeeds[ceilingAngle];
+        } else if (ceilingAngle < 0 || ceilingAngle == floorAngle) {
+            result = boatSpeeds[floorAngle];
+        } else {
+            result = boatSpeeds[floorAngle] + (trueWindAngleInRadians - anglesInRadians[windSpeedIndex][floorAngle])
+                    * boatSpeedSlopes[windSpeedIndex][floorAngle];
+        }
+        return result;
+    }
+}
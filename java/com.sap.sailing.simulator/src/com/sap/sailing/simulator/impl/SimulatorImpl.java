@@ -17,6 +17,14 @@ public class SimulatorImpl implements Simulator {
 
     private static final Logger LOGGER = Logger.getLogger("com.sap.sailing.simulator");
 
+    /**
+     * When set to {@code true}, the omniscient and the one-turner paths are searched by the sequential
+     * {@link PathGeneratorTreeGrow360} instead of the {@link PathGeneratorTreeGrowParallel}
+     */
+    public static final String USE_SEQUENTIAL_TREE_GROW_SYSTEM_PROPERTY_NAME = "com.sap.sailing.simulator.useSequentialTreeGrow";
+
+    private static final boolean USE_SEQUENTIAL_TREE_GROW = Boolean.getBoolean(USE_SEQUENTIAL_TREE_GROW_SYSTEM_PROPERTY_NAME);
+
     private SimulationParameters simulationParameters = null;
     private Path raceCourse = null;
     private PathGeneratorTracTrac pathGenerator = null;
@@ -40,6 +48,16 @@ public class SimulatorImpl implements Simulator {
         return this.simulationParameters;
     }
 
+    private PathGeneratorTreeGrow360 createTreeGrowPathGenerator() {
+        final PathGeneratorTreeGrow360 result;
+        if (USE_SEQUENTIAL_TREE_GROW) {
+            result = new PathGeneratorTreeGrow360(this.simulationParameters);
+        } else {
+            result = new PathGeneratorTreeGrowParallel(this.simulationParameters);
+        }
+        return result;
+    }
+
     @Override
     public Path getPath(PathType pathType) throws SparseSimulationDataException {
         PathGeneratorTreeGrow360 genTreeGrow;
@@ -48,17 +66,17 @@ public class SimulatorImpl implements Simulator {
         try {
             switch (pathType) {
             case OMNISCIENT:
-                genTreeGrow = new PathGeneratorTreeGrow360(this.simulationParameters); // instantiate heuristic searcher
+                genTreeGrow = createTreeGrowPathGenerator(); // instantiate heuristic searcher
                 genTreeGrow.setEvaluationParameters(null, 0, null); // allow for arbitrary many turns
                 path = genTreeGrow.getPath();
                 break;
             case ONE_TURNER_LEFT:
-                genTreeGrow = new PathGeneratorTreeGrow360(this.simulationParameters); // instantiate heuristic searcher
+                genTreeGrow = createTreeGrowPathGenerator(); // instantiate heuristic searcher
                 genTreeGrow.setEvaluationParameters("L", 1, null); // start left and limit to one turn
                 path = genTreeGrow.getPath();
                 break;
             case ONE_TURNER_RIGHT:
-                genTreeGrow = new PathGeneratorTreeGrow360(this.simulationParameters); // instantiate heuristic searcher
+                genTreeGrow = createTreeGrowPathGenerator(); // instantiate heuristic searcher
                 genTreeGrow.setEvaluationParameters("R", 1, null); // start right and limit to one turn
                 path = genTreeGrow.getPath();
                 break;
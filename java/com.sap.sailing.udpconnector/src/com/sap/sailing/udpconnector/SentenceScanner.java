@@ -0,0 +1,345 @@
+package com.sap.sailing.udpconnector;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the comma-separated fields of a line-oriented ASCII sentence, such as an NMEA sentence
+ * ({@code $GPRMC,...*hh}) or an Expedition sentence ({@code #0,1,2.5,...*hh}), directly from the bytes of a
+ * {@link ByteBuffer} without creating any objects. An instance is meant to be reused for all sentences received by one
+ * thread: {@link #reset(ByteBuffer)} it to the bytes of the next sentence, then iterate the fields using
+ * {@link #nextField()} and read them using methods such as {@link #getFieldAsDouble()}.
+ * <p>
+ *
+ * A sentence starts with one of the {@link Format#isStartByte(byte) start bytes} of its {@link Format}, and ends with
+ * a {@code '*'} followed by the hexadecimal checksum which XORs the bytes of the sentence; which bytes are included
+ * depends on the {@link Format}. Whitespace before and after the sentence is ignored. The fields are the
+ * comma-separated parts between the start byte and the {@code '*'}; the first field immediately follows the start
+ * byte, e.g., the talker and sentence ID {@code GPRMC} or the Expedition boat ID.
+ * <p>
+ *
+ * Instances are not thread-safe.
+ */
+public class SentenceScanner {
+    public static enum Format {
+        /**
+         * NMEA 0183: starts with {@code '$'} or {@code '!'}; the checksum covers the bytes between the start byte and
+         * the {@code '*'}, both exclusive.
+         */
+        NMEA,
+
+        /**
+         * Expedition: starts with {@code '#'}; blanks anywhere in the sentence are ignored. The checksum covers the
+         * non-blank bytes from the {@code '#'} up to the {@code '*'} exclusive; if the {@code '*'} is followed by an
+         * {@code 'X'}, the {@code '*'} is included.
+         */
+        EXPEDITION;
+
+        boolean isStartByte(byte b) {
+            return this == NMEA ? b == '$' || b == '!' : b == '#';
+        }
+    }
+
+    private static final byte BLANK = ' ';
+
+    /**
+     * Fraction digits beyond this are not handled by the fast path of {@link #getFieldAsDouble()}
+     */
+    private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+    /**
+     * Mantissas up to this value can be represented exactly by a {@code double}
+     */
+    private static final long MAX_EXACT_MANTISSA = 1l << 53;
+
+    private final Format format;
+
+    private ByteBuffer buffer;
+
+    /**
+     * Index of the first byte after the start byte
+     */
+    private int fieldsStart;
+
+    /**
+     * Index of the {@code '*'} that ends the fields
+     */
+    private int fieldsEnd;
+
+    /**
+     * Index of the first byte of the sentence, which is the start byte, and the index after its last non-whitespace
+     * byte
+     */
+    private int sentenceStart;
+    private int sentenceEnd;
+
+    private boolean checksumValid;
+
+    /**
+     * Start (inclusive) and end (exclusive) index of the current field; {@link #fieldStart} is {@code -1} before the
+     * first call to {@link #nextField()}
+     */
+    private int fieldStart;
+    private int fieldEnd;
+
+    public SentenceScanner(Format format) {
+        this.format = format;
+        this.fieldStart = -1;
+    }
+
+    /**
+     * Prepares reading the sentence held by the bytes between {@code buffer}'s position and limit, which are not
+     * modified. The buffer must not be changed while the sentence is being read.
+     *
+     * @return {@code false} if the bytes don't contain a sentence in this scanner's {@link Format}, e.g., because the
+     *         start byte, the {@code '*'} or the checksum is missing, or because of an unexpected control character;
+     *         whether the checksum matches can be found out using {@link #isChecksumValid()}
+     */
+    public boolean reset(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.fieldStart = -1;
+        this.checksumValid = false;
+        int start = buffer.position();
+        int end = buffer.limit();
+        while (start < end && isWhitespace(buffer.get(start))) {
+            start++;
+        }
+        while (end > start && isWhitespace(buffer.get(end - 1))) {
+            end--;
+        }
+        sentenceStart = start;
+        sentenceEnd = end;
+        if (start == end || !format.isStartByte(buffer.get(start))) {
+            return false;
+        }
+        int asterisk = -1;
+        for (int i = end - 1; i > start; i--) {
+            if (buffer.get(i) == '*') {
+                asterisk = i;
+                break;
+            }
+        }
+        if (asterisk == -1) {
+            return false;
+        }
+        int checksum = format == Format.NMEA ? 0 : buffer.get(start);
+        for (int i = start + 1; i < asterisk; i++) {
+            final byte b = buffer.get(i);
+            if (b == BLANK) {
+                if (format != Format.EXPEDITION) {
+                    checksum ^= b;
+                }
+            } else if (isWhitespace(b)) {
+                return false;
+            } else {
+                checksum ^= b;
+            }
+        }
+        int checksumStart = skipIgnoredBlanks(asterisk + 1, end);
+        if (format == Format.EXPEDITION && checksumStart < end && buffer.get(checksumStart) == 'X') {
+            checksum ^= '*';
+            checksumStart = skipIgnoredBlanks(checksumStart + 1, end);
+        }
+        if (checksumStart == end) {
+            return false;
+        }
+        int expectedChecksum = 0;
+        for (int i = checksumStart; i < end; i = skipIgnoredBlanks(i + 1, end)) {
+            final int digit = Character.digit(buffer.get(i), 16);
+            if (digit < 0) {
+                return false;
+            }
+            expectedChecksum = (expectedChecksum << 4) | digit;
+        }
+        fieldsStart = start + 1;
+        fieldsEnd = asterisk;
+        checksumValid = expectedChecksum == checksum;
+        return true;
+    }
+
+    /**
+     * @return whether the checksum transmitted with the sentence matches the bytes received; only meaningful after
+     *         {@link #reset(ByteBuffer)} has returned {@code true}
+     */
+    public boolean isChecksumValid() {
+        return checksumValid;
+    }
+
+    /**
+     * @return whether there was nothing but whitespace at the time of the last {@link #reset(ByteBuffer)}
+     */
+    public boolean isBlank() {
+        return sentenceStart == sentenceEnd;
+    }
+
+    /**
+     * Advances to the next field; the first call after {@link #reset(ByteBuffer)} advances to the first field.
+     *
+     * @return {@code false} if there are no more fields
+     */
+    public boolean nextField() {
+        if (fieldStart == -1) {
+            fieldStart = fieldsStart;
+        } else if (fieldEnd < fieldsEnd) {
+            fieldStart = fieldEnd + 1;
+        } else {
+            return false;
+        }
+        fieldEnd = fieldStart;
+        while (fieldEnd < fieldsEnd && buffer.get(fieldEnd) != ',') {
+            fieldEnd++;
+        }
+        return true;
+    }
+
+    /**
+     * @return whether the current field has no content other than ignored blanks
+     */
+    public boolean isFieldEmpty() {
+        return skipIgnoredBlanks(fieldStart, fieldEnd) == fieldEnd;
+    }
+
+    /**
+     * Tells whether the current field consists of exactly the ASCII characters of {@code content}
+     */
+    public boolean fieldEquals(CharSequence content) {
+        int i = skipIgnoredBlanks(fieldStart, fieldEnd);
+        for (int j = 0; j < content.length(); j++) {
+            if (i == fieldEnd || buffer.get(i) != content.charAt(j)) {
+                return false;
+            }
+            i = skipIgnoredBlanks(i + 1, fieldEnd);
+        }
+        return i == fieldEnd;
+    }
+
+    /**
+     * @return the non-negative decimal integer in the current field, or {@code -1} if the field is empty, contains
+     *         anything other than decimal digits, or exceeds the {@code int} range
+     */
+    public int getFieldAsNonNegativeInt() {
+        long result = 0;
+        int i = skipIgnoredBlanks(fieldStart, fieldEnd);
+        if (i == fieldEnd) {
+            return -1;
+        }
+        for (; i < fieldEnd; i = skipIgnoredBlanks(i + 1, fieldEnd)) {
+            final byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            result = result * 10 + (b - '0');
+            if (result > Integer.MAX_VALUE) {
+                return -1;
+            }
+        }
+        return (int) result;
+    }
+
+    /**
+     * Reads the current field as a decimal number of the form {@code -?[0-9]*(\.[0-9]*)?} with at least one digit.
+     * The result is the same that {@link Double#parseDouble(String)} returns for the field's content.
+     *
+     * @return the number, or {@link Double#NaN} if the field is empty or doesn't have the form described
+     */
+    public double getFieldAsDouble() {
+        int i = skipIgnoredBlanks(fieldStart, fieldEnd);
+        boolean negative = false;
+        if (i < fieldEnd && buffer.get(i) == '-') {
+            negative = true;
+            i = skipIgnoredBlanks(i + 1, fieldEnd);
+        }
+        long mantissa = 0;
+        int numberOfDigits = 0;
+        int numberOfFractionDigits = 0;
+        boolean inFraction = false;
+        boolean exact = true;
+        for (; i < fieldEnd; i = skipIgnoredBlanks(i + 1, fieldEnd)) {
+            final byte b = buffer.get(i);
+            if (b == '.' && !inFraction) {
+                inFraction = true;
+            } else if (b >= '0' && b <= '9') {
+                numberOfDigits++;
+                if (inFraction) {
+                    numberOfFractionDigits++;
+                }
+                if (mantissa < MAX_EXACT_MANTISSA / 10) {
+                    mantissa = mantissa * 10 + (b - '0');
+                } else {
+                    exact = false;
+                }
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (numberOfDigits == 0) {
+            return Double.NaN;
+        }
+        final double result;
+        if (exact && numberOfFractionDigits < POWERS_OF_TEN.length) {
+            // both operands are exact, so the division is rounded correctly, just like Double.parseDouble does
+            result = mantissa / POWERS_OF_TEN[numberOfFractionDigits];
+        } else {
+            result = Double.parseDouble(getFieldAsString());
+        }
+        return negative ? -result : result;
+    }
+
+    /**
+     * Creates a string from the current field, omitting ignored blanks and a leading minus sign; for rare cases
+     * only as this allocates objects
+     */
+    private String getFieldAsString() {
+        final StringBuilder result = new StringBuilder(fieldEnd - fieldStart);
+        for (int i = skipIgnoredBlanks(fieldStart, fieldEnd); i < fieldEnd; i = skipIgnoredBlanks(i + 1, fieldEnd)) {
+            final byte b = buffer.get(i);
+            if (b != '-') {
+                result.append((char) b);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Copies the sentence, without surrounding whitespace and, for {@link Format#EXPEDITION}, without blanks, into a
+     * new array, e.g., for keeping the original message with a message object created from the sentence
+     */
+    public byte[] copySentence() {
+        int length = 0;
+        for (int i = sentenceStart; i < sentenceEnd; i = skipIgnoredBlanks(i + 1, sentenceEnd)) {
+            length++;
+        }
+        final byte[] result = new byte[length];
+        int j = 0;
+        for (int i = sentenceStart; i < sentenceEnd; i = skipIgnoredBlanks(i + 1, sentenceEnd)) {
+            result[j++] = buffer.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * @return the sentence as a string, as {@link #copySentence() copied}
+     */
+    public String getSentence() {
+        return new String(copySentence(), StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @return the index of the first byte at or after {@code i} and before {@code end} that is not a blank ignored by
+     *         the {@link #format}, or {@code end} if there is none
+     */
+    private int skipIgnoredBlanks(int i, int end) {
+        if (format == Format.EXPEDITION) {
+            while (i < end && buffer.get(i) == BLANK) {
+                i++;
+            }
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        // like String.trim()
+        return b >= 0 && b <= ' ';
+    }
+}
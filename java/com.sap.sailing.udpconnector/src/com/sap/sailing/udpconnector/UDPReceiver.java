@@ -6,9 +6,9 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -47,12 +47,15 @@ public abstract class UDPReceiver<MessageType extends UDPMessage, ListenerType e
     private static final int MAX_PACKET_SIZE = 65536;
     
     private class ToListenerDispatcher extends Thread {
-        private final LinkedBlockingDeque<MessageType> queue;
+        /**
+         * An array-backed queue, unlike a linked one, doesn't allocate a node per message dispatched
+         */
+        private final ArrayBlockingQueue<MessageType> queue;
         private boolean stopped;
         
         public ToListenerDispatcher() {
             super("UDPReceiver ToListenerDispatcher");
-            queue = new LinkedBlockingDeque<MessageType>(/* capacity */ 10000);
+            queue = new ArrayBlockingQueue<MessageType>(/* capacity */ 10000);
             stopped = false;
         }
         
@@ -0,0 +1,116 @@
+package com.sap.sse.datamining.impl.functions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sse.datamining.functions.Function;
+import com.sap.sse.datamining.test.data.impl.DataTypeInterface;
+import com.sap.sse.datamining.test.data.impl.DataTypeWithContext;
+import com.sap.sse.datamining.test.data.impl.DataTypeWithContextImpl;
+import com.sap.sse.datamining.test.data.impl.SimpleClassWithMarkedMethods;
+import com.sap.sse.datamining.test.util.FunctionTestsUtil;
+
+/**
+ * Compares invoking functions through a bound {@link java.lang.invoke.MethodHandle} with invoking them reflectively,
+ * in the way a statistic query invokes its dimension and statistic functions once per data element.
+ */
+public class MethodWrappingFunctionPerformanceTest {
+    private static final Logger logger = Logger.getLogger(MethodWrappingFunctionPerformanceTest.class.getName());
+
+    private static final int NUMBER_OF_ELEMENTS = 100000;
+
+    private static final int ROUNDS = 20;
+
+    private List<DataTypeWithContext> elements;
+
+    @BeforeEach
+    public void setUp() {
+        elements = new ArrayList<>(NUMBER_OF_ELEMENTS);
+        for (int i = 0; i < NUMBER_OF_ELEMENTS; i++) {
+            elements.add(new DataTypeWithContextImpl("Regatta " + (i % 10), "Race " + (i % 100), i % 7));
+        }
+    }
+
+    private <T> Function<T> createFunction(Class<?> declaringClass, String methodName, boolean compile, Class<?>... parameterTypes) {
+        final Method method = FunctionTestsUtil.getMethodFromClass(declaringClass, methodName, parameterTypes);
+        @SuppressWarnings("unchecked")
+        final Function<T> result = new MethodWrappingFunction<T>(method, (Class<T>) method.getReturnType(), compile);
+        return result;
+    }
+
+    @Test
+    public void testCompiledAndReflectiveFunctionsBehaveTheSame() {
+        final Function<Object> compiled = createFunction(SimpleClassWithMarkedMethods.class, "increment", /* compile */ true, int.class);
+        final Function<Object> reflective = createFunction(SimpleClassWithMarkedMethods.class, "increment", /* compile */ false, int.class);
+        assertTrue(((MethodWrappingFunction<?>) compiled).isCompiled());
+        assertFalse(((MethodWrappingFunction<?>) reflective).isCompiled());
+        assertEquals(compiled, reflective);
+        final SimpleClassWithMarkedMethods instance = new SimpleClassWithMarkedMethods();
+        assertEquals(reflective.tryToInvoke(instance, () -> new Object[] { 41 }), compiled.tryToInvoke(instance, () -> new Object[] { 41 }));
+        // missing, null or wrongly typed parameters and instances lead to null for both
+        assertNull(compiled.tryToInvoke(instance));
+        assertNull(compiled.tryToInvoke(instance, () -> new Object[] { null }));
+        assertNull(compiled.tryToInvoke(instance, () -> new Object[] { "41" }));
+        assertNull(compiled.tryToInvoke("Not a SimpleClassWithMarkedMethods", () -> new Object[] { 41 }));
+        assertNull(reflective.tryToInvoke("Not a SimpleClassWithMarkedMethods", () -> new Object[] { 41 }));
+        assertNull(compiled.tryToInvoke(null));
+    }
+
+    public static class ClassWithFailingMethod {
+        public String fail() {
+            throw new AssertionError("failure for test");
+        }
+    }
+
+    /**
+     * {@link Method#invoke(Object, Object...)} wraps errors thrown by the method into an
+     * {@link java.lang.reflect.InvocationTargetException}, so functions have always logged and swallowed them
+     */
+    @Test
+    public void testErrorThrownByMethodLeadsToNull() {
+        final Function<String> compiled = createFunction(ClassWithFailingMethod.class, "fail", /* compile */ true);
+        final Function<String> reflective = createFunction(ClassWithFailingMethod.class, "fail", /* compile */ false);
+        assertTrue(((MethodWrappingFunction<?>) compiled).isCompiled());
+        assertNull(reflective.tryToInvoke(new ClassWithFailingMethod()));
+        assertNull(compiled.tryToInvoke(new ClassWithFailingMethod()));
+    }
+
+    @Test
+    public void testCompiledInvocationPerformance() {
+        final Function<String> compiledDimension = createFunction(DataTypeWithContext.class, "getRegattaName", /* compile */ true);
+        final Function<Integer> compiledStatistic = createFunction(DataTypeInterface.class, "getSpeedInKnots", /* compile */ true);
+        final Function<String> reflectiveDimension = createFunction(DataTypeWithContext.class, "getRegattaName", /* compile */ false);
+        final Function<Integer> reflectiveStatistic = createFunction(DataTypeInterface.class, "getSpeedInKnots", /* compile */ false);
+        long reflectiveNanos = 0;
+        long compiledNanos = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            final long reflectiveChecksum = invokeAll(reflectiveDimension, reflectiveStatistic);
+            reflectiveNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            final long compiledChecksum = invokeAll(compiledDimension, compiledStatistic);
+            compiledNanos += System.nanoTime() - start;
+            assertEquals(reflectiveChecksum, compiledChecksum);
+        }
+        logger.info("Invoking a dimension and a statistic function " + ROUNDS * NUMBER_OF_ELEMENTS + " times took "
+                + reflectiveNanos / 1000000 + "ms reflectively and " + compiledNanos / 1000000 + "ms through method handles");
+    }
+
+    private long invokeAll(Function<String> dimension, Function<Integer> statistic) {
+        long checksum = 0;
+        for (final DataTypeWithContext element : elements) {
+            checksum += dimension.tryToInvoke(element).length() + statistic.tryToInvoke(element);
+        }
+        return checksum;
+    }
+}
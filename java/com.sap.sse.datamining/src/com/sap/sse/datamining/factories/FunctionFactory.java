@@ -11,7 +11,8 @@ import com.sap.sse.datamining.impl.functions.MethodWrappingFunction;
 public class FunctionFactory {
     
     /**
-     * Creates a {@link MethodWrappingFunction} for the given method.<br>
+     * Creates a {@link MethodWrappingFunction} for the given method that invokes the method through a
+     * {@link java.lang.invoke.MethodHandle} bound once at creation time, if possible.<br>
      * Throws a {@link ClassCastException}, if the return type of the method doesn't match the generic <code>ReturnType</code> parameter.
      * 
      * @throws ClassCastException
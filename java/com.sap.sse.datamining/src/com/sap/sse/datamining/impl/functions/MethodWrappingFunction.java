@@ -1,7 +1,11 @@
 package com.sap.sse.datamining.impl.functions;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.Locale;
@@ -13,8 +17,23 @@ import com.sap.sse.datamining.annotations.Statistic;
 import com.sap.sse.datamining.functions.ParameterProvider;
 import com.sap.sse.i18n.ResourceBundleStringMessages;
 
+/**
+ * A {@link com.sap.sse.datamining.functions.Function} that invokes a {@link Method}. By default, the method is bound
+ * once into a {@link MethodHandle} when the function is created, and invocations go through that handle. This avoids
+ * the access checks, argument array copying and argument type checks that {@link Method#invoke(Object, Object...)}
+ * performs for each invocation, which matters because functions are usually invoked once per data element of a query,
+ * i.e., up to many millions of times. If the method cannot be bound, e.g., because it isn't accessible from here,
+ * or if requested explicitly, the function falls back to reflective invocation. Both paths behave the same: errors
+ * raised while invoking the method are logged, and {@code null} is returned.
+ */
 public class MethodWrappingFunction<ReturnType> extends AbstractFunction<ReturnType> {
     private final Method method;
+
+    /**
+     * Accepts the instance as {@link Object} and, if the method has parameters, the parameters as {@code Object[]},
+     * and returns the result as {@link Object}; {@code null} if the method is to be invoked reflectively
+     */
+    private final MethodHandle compiledMethod;
     private final Class<ReturnType> returnType;
     private final AdditionalMethodWrappingFunctionData additionalData;
     private final String simpleName;
@@ -24,9 +43,21 @@ public class MethodWrappingFunction<ReturnType> extends AbstractFunction<ReturnT
      * <code>returnType</code> aren't equal.
      */
     public MethodWrappingFunction(Method method, Class<ReturnType> returnType) throws IllegalArgumentException {
+        this(method, returnType, /* compile */ true);
+    }
+
+    /**
+     * Throws an {@link IllegalArgumentException}, if the return type of the method and the given
+     * <code>returnType</code> aren't equal.
+     * 
+     * @param compile
+     *            if {@code false}, the method is always invoked reflectively; this is mainly useful for comparisons
+     */
+    public MethodWrappingFunction(Method method, Class<ReturnType> returnType, boolean compile) throws IllegalArgumentException {
         super(isMethodADimension(method));
         checkThatReturnTypesMatch(method, returnType);
         this.method = method;
+        this.compiledMethod = compile ? compile(method) : null;
         this.returnType = returnType;
         this.additionalData = initializeAdditionalData();
         final String parametersAsString = parametersAsString();
@@ -35,6 +66,37 @@ public class MethodWrappingFunction<ReturnType> extends AbstractFunction<ReturnT
         this.simpleName = simpleNameBuilder.toString();
     }
 
+    /**
+     * @return {@code null} if the method can't be bound to a {@link MethodHandle}
+     */
+    private MethodHandle compile(Method method) {
+        MethodHandle result;
+        try {
+            MethodHandle handle = MethodHandles.lookup().unreflect(method);
+            if (Modifier.isStatic(method.getModifiers())) {
+                // like Method.invoke, ignore the instance for static methods
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            if (method.getParameterCount() == 0) {
+                result = handle.asType(MethodType.methodType(Object.class, Object.class));
+            } else {
+                result = handle.asSpreader(Object[].class, method.getParameterCount())
+                        .asType(MethodType.methodType(Object.class, Object.class, Object[].class));
+            }
+        } catch (IllegalAccessException | RuntimeException e) {
+            getLogger().log(Level.FINE, "Cannot bind method " + method + "; invoking it reflectively", e);
+            result = null;
+        }
+        return result;
+    }
+
+    /**
+     * @return whether invocations go through a {@link MethodHandle} rather than through reflection
+     */
+    public boolean isCompiled() {
+        return compiledMethod != null;
+    }
+
     private static boolean isMethodADimension(Method method) {
         return method.getAnnotation(Dimension.class) != null;
     }
@@ -119,10 +181,22 @@ public class MethodWrappingFunction<ReturnType> extends AbstractFunction<ReturnT
     // The cast has to work, because the constructor checks, that the return types match
     private ReturnType tryToInvoke(Object instance, Object... parameters) {
         if (instance != null) {
-            try {
-                return (ReturnType) method.invoke(instance, parameters);
-            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                getLogger().log(Level.FINER, "Error invoking the Function " + method.getName(), e);
+            if (compiledMethod != null) {
+                try {
+                    return (ReturnType) (method.getParameterCount() == 0
+                            ? compiledMethod.invokeExact(instance)
+                            : compiledMethod.invokeExact(instance, parameters));
+                } catch (Throwable e) {
+                    // wrong instance or parameter types or counts, or anything thrown by the method, including errors,
+                    // which Method.invoke wraps into an InvocationTargetException
+                    getLogger().log(Level.FINER, "Error invoking the Function " + method.getName(), e);
+                }
+            } else {
+                try {
+                    return (ReturnType) method.invoke(instance, parameters);
+                } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+                    getLogger().log(Level.FINER, "Error invoking the Function " + method.getName(), e);
+                }
             }
         }
         return null;
@@ -0,0 +1,47 @@
+package com.sap.sse.replication;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+
+/**
+ * Encodes and decodes operations of one specific type in a compact, hand-written binary format, as an alternative to
+ * plain Java serialization through an {@link ObjectOutputStream}. This pays off for operation types that are
+ * replicated at high frequencies, such as those recording GPS or wind fixes, where the class descriptors and the
+ * reflective field access of Java serialization dominate the cost of replicating the operation.
+ * <p>
+ *
+ * Codecs are {@link OperationCodecRegistry registered} with the {@link Replicable} whose operations they encode, and
+ * the registry has to be the same on master and replica. The format written by {@link #encode(OperationWithResult,
+ * DataOutput)} must be read completely by {@link #decode(DataInput)}; no length information is recorded, so an
+ * inconsistency between the two methods would corrupt the remainder of the replication message.
+ *
+ * @param <O>
+ *            the type of operations encoded by this codec
+ */
+public interface OperationCodec<O extends OperationWithResult<?, ?>> {
+    /**
+     * Identifies this codec in the replication stream; must be positive and unique within the
+     * {@link OperationCodecRegistry registry} and must never change for a given format because master and replica
+     * have to agree on it. The value {@link OperationCodecRegistry#JAVA_SERIALIZATION} is reserved.
+     */
+    short getCodecId();
+
+    /**
+     * The exact class of the operations this codec can encode; subclasses are not considered by the
+     * {@link OperationCodecRegistry registry}.
+     */
+    Class<O> getOperationType();
+
+    /**
+     * Tells whether the operation can be encoded losslessly by this codec. Operations for which this method returns
+     * {@code false}, e.g., because they reference an object of a type the binary format doesn't cover, are replicated
+     * using Java serialization instead.
+     */
+    boolean canEncode(O operation);
+
+    void encode(O operation, DataOutput out) throws IOException;
+
+    O decode(DataInput in) throws IOException;
+}
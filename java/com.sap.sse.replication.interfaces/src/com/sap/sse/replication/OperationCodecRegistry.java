@@ -0,0 +1,108 @@
+package com.sap.sse.replication;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the {@link OperationCodec}s that a {@link Replicable} offers for its operation types. In a replication message
+ * each operation is prefixed by a {@code short} codec ID which tells the receiving side how to decode the operation:
+ * {@link #JAVA_SERIALIZATION} means the operation follows as a serialized Java object; any other value identifies the
+ * codec that wrote the operation's binary representation. All operation types without a codec, as well as operations
+ * a codec {@link OperationCodec#canEncode(OperationWithResult) cannot encode}, fall back to Java serialization.
+ * <p>
+ *
+ * Instances are immutable and hence thread-safe.
+ *
+ * @see Replicable#getOperationCodecRegistry()
+ * @see Replicable#readEncodedOperationFromObjectInputStream(ObjectInputStream)
+ */
+public class OperationCodecRegistry {
+    /**
+     * The codec ID written for operations that are replicated using Java serialization
+     */
+    public static final short JAVA_SERIALIZATION = 0;
+
+    /**
+     * A registry without any codecs; all operations are replicated using Java serialization
+     */
+    public static final OperationCodecRegistry EMPTY = new OperationCodecRegistry();
+
+    private final Map<Short, OperationCodec<?>> codecsById;
+
+    private final Map<Class<?>, OperationCodec<?>> codecsByOperationType;
+
+    /**
+     * @throws IllegalArgumentException
+     *             in case a codec ID is not positive or two codecs share the same ID or operation type
+     */
+    public OperationCodecRegistry(OperationCodec<?>... codecs) {
+        codecsById = new HashMap<>();
+        codecsByOperationType = new HashMap<>();
+        for (final OperationCodec<?> codec : codecs) {
+            if (codec.getCodecId() <= JAVA_SERIALIZATION) {
+                throw new IllegalArgumentException("Codec ID " + codec.getCodecId() + " of " + codec + " must be positive");
+            }
+            if (codecsById.put(codec.getCodecId(), codec) != null) {
+                throw new IllegalArgumentException("Codec ID " + codec.getCodecId() + " used more than once");
+            }
+            if (codecsByOperationType.put(codec.getOperationType(), codec) != null) {
+                throw new IllegalArgumentException("More than one codec for " + codec.getOperationType().getName());
+            }
+        }
+    }
+
+    /**
+     * @return the codec with the ID given, or {@code null} if no such codec is registered
+     */
+    public OperationCodec<?> getCodec(short codecId) {
+        return codecsById.get(codecId);
+    }
+
+    /**
+     * @return the codec registered for the exact class of the {@code operation}, or {@code null} if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public <O extends OperationWithResult<?, ?>> OperationCodec<O> getCodecFor(O operation) {
+        return (OperationCodec<O>) codecsByOperationType.get(operation.getClass());
+    }
+
+    /**
+     * Writes the codec ID followed by the encoded {@code operation} to the object output stream, using the stream's
+     * {@link java.io.DataOutput} capabilities for the binary codecs and {@link ObjectOutputStream#writeObject(Object)}
+     * for the Java serialization fallback.
+     *
+     * @return the ID of the codec used; {@link #JAVA_SERIALIZATION} in case of the fallback
+     */
+    public <O extends OperationWithResult<?, ?>> short writeOperation(O operation, ObjectOutputStream oos) throws IOException {
+        final OperationCodec<O> codec = getCodecFor(operation);
+        final short codecId;
+        if (codec != null && codec.canEncode(operation)) {
+            codecId = codec.getCodecId();
+            oos.writeShort(codecId);
+            codec.encode(operation, oos);
+        } else {
+            codecId = JAVA_SERIALIZATION;
+            oos.writeShort(codecId);
+            oos.writeObject(operation);
+        }
+        return codecId;
+    }
+
+    /**
+     * Reads an operation's binary representation after its codec ID has been consumed from the stream.
+     *
+     * @throws IOException
+     *             if no codec with the ID given is registered; since the length of the binary representation is
+     *             unknown without the codec, the remainder of the stream cannot be read then
+     */
+    public Object decode(short codecId, ObjectInputStream ois) throws IOException {
+        final OperationCodec<?> codec = getCodec(codecId);
+        if (codec == null) {
+            throw new IOException("Unknown operation codec ID " + codecId);
+        }
+        return codec.decode(ois);
+    }
+}
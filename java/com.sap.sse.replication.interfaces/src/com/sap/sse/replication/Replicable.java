@@ -225,6 +225,33 @@ extends OperationsToMasterSender<S, O>, Replicator<S, O> {
         }
     }
 
+    /**
+     * The codecs used to replicate this replicable's operations in a compact binary format instead of using Java
+     * serialization. The registry must be equal on master and replica. This default implementation returns the
+     * {@link OperationCodecRegistry#EMPTY empty registry}, so all operations are replicated using Java serialization.
+     */
+    default OperationCodecRegistry getOperationCodecRegistry() {
+        return OperationCodecRegistry.EMPTY;
+    }
+
+    /**
+     * Reads an operation written by {@link OperationCodecRegistry#writeOperation(OperationWithResult, ObjectOutputStream)}:
+     * the codec ID tells whether to {@link #readOperationFromObjectInputStream(ObjectInputStream) de-serialize} the
+     * operation or to {@link OperationCodec#decode(java.io.DataInput) decode} it using a codec from this replicable's
+     * {@link #getOperationCodecRegistry() registry}.
+     */
+    @SuppressWarnings("unchecked")
+    default O readEncodedOperationFromObjectInputStream(ObjectInputStream ois) throws ClassNotFoundException, IOException {
+        final short codecId = ois.readShort();
+        final O result;
+        if (codecId == OperationCodecRegistry.JAVA_SERIALIZATION) {
+            result = readOperationFromObjectInputStream(ois);
+        } else {
+            result = (O) getOperationCodecRegistry().decode(codecId, ois);
+        }
+        return result;
+    }
+
     /**
      * From an input stream, reads an operation that can be {@link #apply(OperationWithResult) applied} to this object.
      * Separating reading and applying gives clients an opportunity to queue operations, e.g., in order to wait until
@@ -8,6 +8,7 @@ import java.util.concurrent.TimeoutException;
 
 import com.rabbitmq.client.Channel;
 import com.rabbitmq.client.QueueingConsumer;
+import com.sap.sse.replication.ReplicationServletActions.InitialLoadFormat;
 
 /**
  * Identifies a master server instance from which a replica can obtain an initial load and continuous updates.
@@ -30,6 +31,12 @@ public interface ReplicationMasterDescriptor {
      */
     URL getInitialLoadURL(Iterable<Replicable<?, ?>> replicables) throws MalformedURLException;
 
+    /**
+     * Like {@link #getInitialLoadURL(Iterable)}, but asks the master to send the initial load in the {@code format}
+     * specified. The master confirms the format it actually uses in the line following the queue name.
+     */
+    URL getInitialLoadURL(Iterable<Replicable<?, ?>> replicables, InitialLoadFormat format) throws MalformedURLException;
+
     /**
      * The {@link ReplicationServlet} handles sending an operation for execution from a replica that initiated it to
      * a master where processing and replication along the complete replica tree shall start. This method returns the
@@ -8,6 +8,7 @@ public interface ReplicationServletActions {
     String ADDITIONAL_INFORMATION_PARAMETER_NAME = "additional";
     String REPLICABLES_IDS_AS_STRINGS_COMMA_SEPARATED_PARAMETER_NAME = "replicaIdsAsStringsCommaSeparated";
     String REPLICABLE_ID_AS_STRING_PARAMETER_NAME = "replicaIdAsString";
+    String INITIAL_LOAD_FORMAT_PARAMETER_NAME = "initialLoadFormat";
     
     /**
      * Actions understood by the replication servlet
@@ -16,4 +17,23 @@ public interface ReplicationServletActions {
      *
      */
     public enum Action { REGISTER, INITIAL_LOAD, DEREGISTER, STATUS, STOP_REPLICATING }
+    
+    /**
+     * Formats in which a master can send the initial load. A replica asks for a format using the
+     * {@link ReplicationServletActions#INITIAL_LOAD_FORMAT_PARAMETER_NAME} parameter; the master confirms the format it
+     * uses in the line following the queue name in its response to the {@link Action#INITIAL_LOAD} request. A master
+     * that doesn't confirm any format sends the {@link #SEQUENTIAL} format.
+     */
+    public enum InitialLoadFormat {
+        /**
+         * The initial loads of all replicables are sent one after the other in a single LZ4-compressed stream
+         */
+        SEQUENTIAL,
+        
+        /**
+         * The initial load of each replicable is split into chunks that are interleaved in a single LZ4-compressed
+         * stream, allowing the master to serialize and the replica to de-serialize the replicables in parallel
+         */
+        CHUNKED
+    }
 }
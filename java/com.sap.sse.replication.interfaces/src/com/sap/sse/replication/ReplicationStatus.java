@@ -17,6 +17,7 @@ public interface ReplicationStatus {
     static final String JSON_FIELD_NAME_REPLICABLE_REPLICATEDFROM = "replicatedfrom";
     static final String JSON_FIELD_NAME_REPLICABLE_OPERATIONQUEUELENGTH = "operationqueuelength";
     static final String JSON_FIELD_NAME_REPLICABLE_INITIALLOADRUNNING = "initialloadrunning";
+    static final String JSON_FIELD_NAME_REPLICABLE_INITIALLOADBYTESRECEIVED = "initialloadbytesreceived";
     static final String JSON_FIELD_NAME_REPLICABLE_ID = "id";
     static final String JSON_FIELD_NAME_OUTBOUNDMESSAGINGPORT = "outboundmessagingport";
     static final String JSON_FIELD_NAME_OUTBOUNDMESSAGINGNAME = "outboundmessagingname";
@@ -54,6 +55,16 @@ public interface ReplicationStatus {
      */
     Boolean isInitialLoadRunning(String replicableIdAsString);
     
+    /**
+     * Reports the progress of the initial load for the replicable with ID {@link code replicableIdAsString} if the
+     * master sends it in the {@link ReplicationServletActions.InitialLoadFormat#CHUNKED chunked format}.
+     * 
+     * @return the number of uncompressed bytes of the initial load received so far from the master for the
+     *         replicable with ID {@link code replicableIdAsString}, or {@code null} if no chunked initial load has been
+     *         received for that replicable since this server started
+     */
+    Long getInitialLoadBytesReceived(String replicableIdAsString);
+    
     /**
      * An availability report based on the replication status of the overall service and all of the
      * {@link Replicable}s managed by it. This method reports {@code true} if this server is not a replica,
@@ -21,6 +21,7 @@ public class ReplicationStatusImpl implements ReplicationStatus {
     private final boolean isStopped;
     private final long messageQueueLength;
     private final Map<String, Boolean> isInitialLoadRunning;
+    private final Map<String, Long> initialLoadBytesReceived;
     private final Map<String, Integer> operationQueueLengths;
     private final ReplicationMasterDescriptor masterDescriptor;
     private final Iterable<ReplicaDescriptor> replicaDescriptors;
@@ -29,7 +30,7 @@ public class ReplicationStatusImpl implements ReplicationStatus {
     
     public ReplicationStatusImpl(boolean isReplica, String serverName, boolean isReplicationStarting,
             boolean isSuspended, boolean isStopped, long messageQueueLength, Map<String, Boolean> isInitialLoadRunning,
-            Map<String, Integer> operationQueueLengths, ReplicationMasterDescriptor masterDescriptor,
+            Map<String, Long> initialLoadBytesReceived, Map<String, Integer> operationQueueLengths, ReplicationMasterDescriptor masterDescriptor,
             Iterable<ReplicaDescriptor> replicaDescriptors, String outboundExchangeName, int outboundMessagingPort) {
         super();
         this.isReplica = isReplica;
@@ -39,6 +40,7 @@ public class ReplicationStatusImpl implements ReplicationStatus {
         this.isStopped = isStopped;
         this.messageQueueLength = messageQueueLength;
         this.isInitialLoadRunning = isInitialLoadRunning;
+        this.initialLoadBytesReceived = initialLoadBytesReceived;
         this.operationQueueLengths = operationQueueLengths;
         this.masterDescriptor = masterDescriptor;
         this.replicaDescriptors = replicaDescriptors;
@@ -95,6 +97,11 @@ public class ReplicationStatusImpl implements ReplicationStatus {
         return isInitialLoadRunning.get(replicableIdAsString);
     }
 
+    @Override
+    public Long getInitialLoadBytesReceived(String replicableIdAsString) {
+        return initialLoadBytesReceived.get(replicableIdAsString);
+    }
+
     @Override
     public boolean isAvailable() {
         return !isReplica() || (!isReplicationStarting() && !isInitialLoadRunning());
@@ -130,6 +137,10 @@ public class ReplicationStatusImpl implements ReplicationStatus {
                 final JSONObject replicableJSON = new JSONObject();
                 replicableJSON.put(JSON_FIELD_NAME_REPLICABLE_ID, replicableIdAsString);
                 replicableJSON.put(JSON_FIELD_NAME_REPLICABLE_INITIALLOADRUNNING, initialLoadRunning);
+                final Long bytesReceived = this.getInitialLoadBytesReceived(replicableIdAsString);
+                if (bytesReceived != null) {
+                    replicableJSON.put(JSON_FIELD_NAME_REPLICABLE_INITIALLOADBYTESRECEIVED, bytesReceived);
+                }
                 final Integer operationQueueLength = this.getOperationQueueLength(replicableIdAsString);
                 replicableJSON.put(JSON_FIELD_NAME_REPLICABLE_OPERATIONQUEUELENGTH, operationQueueLength==null?0:operationQueueLength);
                 replicableJSON.put(JSON_FIELD_NAME_REPLICABLE_REPLICATEDFROM, getReplicatedFromAsJSON(replicableIdAsString));
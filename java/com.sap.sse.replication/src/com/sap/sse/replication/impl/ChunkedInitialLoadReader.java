@@ -0,0 +1,286 @@
+package com.sap.sse.replication.impl;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ObjLongConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sap.sse.replication.Replicable;
+import com.sap.sse.replication.ReplicationServletActions.InitialLoadFormat;
+
+/**
+ * Reads an initial load in the {@link InitialLoadFormat#CHUNKED chunked format} as written by a
+ * {@link ChunkedInitialLoadWriter} and restores the {@link Replicable}s concurrently. The calling thread reads the
+ * chunks from the underlying stream and hands each one to the stream of the replicable it belongs to, from which a
+ * separate task {@link Replicable#initiallyFillFrom(InputStream) fills} the replicable.
+ * <p>
+ *
+ * Each replicable's stream buffers at most {@link #getMaximumNumberOfQueuedChunksPerReplicable()} chunks. If a
+ * replicable de-serializes more slowly than its chunks arrive, reading from the underlying stream blocks until the
+ * replicable has caught up. This way the memory required for buffering is bounded, and the back-pressure propagates to
+ * the message queue from which the underlying stream reads.
+ * <p>
+ *
+ * The tasks must not wait for each other, and all of them need to run at the same time; otherwise a replicable whose
+ * task hasn't started yet would block reading the chunks of the others. The {@code executor} passed to
+ * {@link #read(List, ExecutorService)} therefore must have at least as many threads as there are replicables.
+ */
+public class ChunkedInitialLoadReader {
+    private static final Logger logger = Logger.getLogger(ChunkedInitialLoadReader.class.getName());
+
+    /**
+     * The name of the system property specifying the maximum number of chunks buffered for a single replicable before
+     * reading further chunks blocks
+     */
+    public static final String MAXIMUM_NUMBER_OF_QUEUED_CHUNKS_PER_REPLICABLE_SYSTEM_PROPERTY_NAME = "com.sap.sse.replication.maximumNumberOfQueuedInitialLoadChunksPerReplicable";
+
+    private static final int DEFAULT_MAXIMUM_NUMBER_OF_QUEUED_CHUNKS_PER_REPLICABLE = 16;
+
+    private static final long OFFER_TIMEOUT_IN_MILLIS = 100;
+
+    private final DataInputStream in;
+
+    private final int maximumNumberOfQueuedChunksPerReplicable;
+
+    /**
+     * Notified on the calling thread of {@link #read(List, ExecutorService)} about the number of bytes received so far
+     * for a replicable each time a chunk for that replicable has been received
+     */
+    private final ObjLongConsumer<Replicable<?, ?>> progressListener;
+
+    public ChunkedInitialLoadReader(InputStream in, ObjLongConsumer<Replicable<?, ?>> progressListener) {
+        this(in, Integer.getInteger(MAXIMUM_NUMBER_OF_QUEUED_CHUNKS_PER_REPLICABLE_SYSTEM_PROPERTY_NAME,
+                DEFAULT_MAXIMUM_NUMBER_OF_QUEUED_CHUNKS_PER_REPLICABLE), progressListener);
+    }
+
+    public ChunkedInitialLoadReader(InputStream in, int maximumNumberOfQueuedChunksPerReplicable,
+            ObjLongConsumer<Replicable<?, ?>> progressListener) {
+        this.in = new DataInputStream(in);
+        this.maximumNumberOfQueuedChunksPerReplicable = maximumNumberOfQueuedChunksPerReplicable;
+        this.progressListener = progressListener;
+    }
+
+    public int getMaximumNumberOfQueuedChunksPerReplicable() {
+        return maximumNumberOfQueuedChunksPerReplicable;
+    }
+
+    /**
+     * Restores the {@code replicables} from the chunks read from the underlying stream, in the same order in which
+     * they were passed to {@link ChunkedInitialLoadWriter#write(List, ExecutorService)} on the master. Returns after
+     * all replicables have been restored.
+     *
+     * @throws ExecutionException
+     *             if restoring any of the replicables failed, e.g., because the master failed to serialize it; the
+     *             other replicables will still have been restored completely
+     * @throws InterruptedException
+     *             if interrupted while waiting for a replicable to catch up; the interrupt flag of the calling thread
+     *             is set again in this case. Like any other failure reading the underlying stream, this makes all
+     *             replicables not yet received completely fail to restore.
+     */
+    public void read(List<Replicable<?, ?>> replicables, ExecutorService executor) throws IOException, InterruptedException, ExecutionException {
+        final List<ChunkInputStream> streams = new ArrayList<>(replicables.size());
+        final List<Future<Void>> futures = new ArrayList<>(replicables.size());
+        for (final Replicable<?, ?> replicable : replicables) {
+            final ChunkInputStream stream = new ChunkInputStream(replicable);
+            streams.add(stream);
+            futures.add(executor.submit(() -> {
+                logger.info("Starting to receive chunked initial load for " + replicable.getId());
+                try {
+                    replicable.initiallyFillFrom(stream);
+                } catch (Exception e) {
+                    logger.log(Level.SEVERE, "Exception trying to receive initial load for " + replicable.getId(), e);
+                    throw e;
+                } finally {
+                    stream.consumerDone();
+                }
+                logger.info("Done receiving chunked initial load for " + replicable.getId() + " after "
+                        + stream.getBytesReceived() + " bytes");
+                return null;
+            }));
+        }
+        Throwable demultiplexingFailure = null;
+        try {
+            demultiplex(streams);
+        } catch (Throwable e) {
+            demultiplexingFailure = e;
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            throw e;
+        } finally {
+            // whatever happened, no replicable must be left waiting for chunks that will never arrive
+            if (demultiplexingFailure != null) {
+                for (final ChunkInputStream stream : streams) {
+                    stream.abort(demultiplexingFailure);
+                }
+            }
+        }
+        ExecutionException firstException = null;
+        for (final Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (firstException == null) {
+                    firstException = e;
+                }
+            }
+        }
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+
+    private void demultiplex(List<ChunkInputStream> streams) throws IOException, InterruptedException {
+        int numberOfOpenStreams = streams.size();
+        while (numberOfOpenStreams > 0) {
+            final short replicableIndex = in.readShort();
+            final int length = in.readInt();
+            if (replicableIndex < 0 || replicableIndex >= streams.size()) {
+                throw new IOException("Received initial load chunk for unknown replicable #" + replicableIndex);
+            }
+            final ChunkInputStream stream = streams.get(replicableIndex);
+            if (length > 0) {
+                final byte[] chunk = new byte[length];
+                in.readFully(chunk);
+                stream.deliver(chunk);
+                progressListener.accept(stream.getReplicable(), stream.getBytesReceived());
+            } else {
+                stream.deliverEnd(length == ChunkedInitialLoadWriter.REPLICABLE_FAILED);
+                numberOfOpenStreams--;
+            }
+        }
+    }
+
+    /**
+     * The stream from which a replicable is restored; it is fed by the thread reading the underlying stream through a
+     * bounded queue of chunks.
+     */
+    private class ChunkInputStream extends InputStream {
+        private final Replicable<?, ?> replicable;
+        private final BlockingQueue<byte[]> chunks;
+        /**
+         * Written only by the thread reading the underlying stream; tells that the end marker has been queued
+         */
+        private boolean endDelivered;
+        private byte[] currentChunk;
+        private int positionInCurrentChunk;
+        /**
+         * Written only by the thread reading the underlying stream
+         */
+        private volatile long bytesReceived;
+        private boolean endOfStream;
+
+        /**
+         * Tells that the replicable is done reading from this stream, successfully or not, so any further chunks
+         * for it can be dropped instead of waiting for space in {@link #chunks}.
+         */
+        private volatile boolean consumerDone;
+
+        /**
+         * Set if the master failed to serialize the replicable or reading the underlying stream failed
+         */
+        private volatile IOException failure;
+
+        public ChunkInputStream(Replicable<?, ?> replicable) {
+            this.replicable = replicable;
+            this.chunks = new ArrayBlockingQueue<>(maximumNumberOfQueuedChunksPerReplicable);
+        }
+
+        public Replicable<?, ?> getReplicable() {
+            return replicable;
+        }
+
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+
+        public void consumerDone() {
+            consumerDone = true;
+            chunks.clear();
+        }
+
+        private void deliver(byte[] chunk) throws InterruptedException {
+            bytesReceived += chunk.length;
+            while (!consumerDone && !chunks.offer(chunk, OFFER_TIMEOUT_IN_MILLIS, TimeUnit.MILLISECONDS)) {
+                // wait for the replicable to catch up
+            }
+        }
+
+        private void deliverEnd(boolean failed) throws InterruptedException {
+            if (failed) {
+                failure = new IOException("The master failed to serialize the initial load for " + replicable.getId());
+            }
+            deliver(new byte[0]);
+            endDelivered = true;
+        }
+
+        /**
+         * Makes the replicable fail with {@code cause} unless all of its chunks have already been queued
+         */
+        private void abort(Throwable cause) {
+            if (!endDelivered) {
+                failure = new IOException("Reading the initial load for " + replicable.getId() + " failed", cause);
+                chunks.clear();
+                chunks.offer(new byte[0]); // only this thread produces chunks, so after clearing there is space
+            }
+        }
+
+        /**
+         * @return {@code false} if the end of the stream has been reached
+         */
+        private boolean ensureData() throws IOException {
+            while (!endOfStream && (currentChunk == null || positionInCurrentChunk == currentChunk.length)) {
+                try {
+                    currentChunk = chunks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for initial load chunk for " + replicable.getId());
+                }
+                positionInCurrentChunk = 0;
+                if (currentChunk.length == 0) {
+                    endOfStream = true;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return !endOfStream;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return ensureData() ? currentChunk[positionInCurrentChunk++] & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int result;
+            if (len == 0) {
+                result = 0;
+            } else if (!ensureData()) {
+                result = -1;
+            } else {
+                result = Math.min(len, currentChunk.length - positionInCurrentChunk);
+                System.arraycopy(currentChunk, positionInCurrentChunk, b, off, result);
+                positionInCurrentChunk += result;
+            }
+            return result;
+        }
+
+        @Override
+        public int available() {
+            return currentChunk == null ? 0 : currentChunk.length - positionInCurrentChunk;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.sap.sse.replication.impl;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sap.sse.replication.Replicable;
+import com.sap.sse.replication.ReplicationServletActions.InitialLoadFormat;
+import com.sap.sse.util.ThreadPoolUtil;
+
+/**
+ * Writes the initial load of several {@link Replicable}s in the {@link InitialLoadFormat#CHUNKED chunked format}. Each
+ * replicable serializes into its own stream which is cut into chunks of at most {@link #getChunkSize()} bytes. The
+ * chunks of all replicables are interleaved in the underlying output stream, each preceded by the index of the
+ * replicable it belongs to (as a {@code short}) and the chunk's length (as an {@code int}). A chunk length of
+ * {@link #END_OF_REPLICABLE} marks the end of a replicable's initial load, a length of {@link #REPLICABLE_FAILED} tells
+ * the replica that the master failed to serialize that replicable.
+ * <p>
+ *
+ * Since the replicables' streams are independent of each other, the replicables can be serialized concurrently here,
+ * and the {@link ChunkedInitialLoadReader} on the replica can de-serialize them concurrently. Only one chunk per
+ * replicable has to be held in memory here before it is written to the underlying stream.
+ */
+public class ChunkedInitialLoadWriter {
+    private static final Logger logger = Logger.getLogger(ChunkedInitialLoadWriter.class.getName());
+
+    public static final int END_OF_REPLICABLE = 0;
+
+    public static final int REPLICABLE_FAILED = -1;
+
+    /**
+     * The name of the system property specifying the maximum size in bytes of a single chunk
+     */
+    public static final String CHUNK_SIZE_IN_BYTES_SYSTEM_PROPERTY_NAME = "com.sap.sse.replication.initialLoadChunkSizeInBytes";
+
+    private static final int DEFAULT_CHUNK_SIZE_IN_BYTES = 64 * 1024;
+
+    private final DataOutputStream out;
+
+    private final int chunkSize;
+
+    public ChunkedInitialLoadWriter(OutputStream out) {
+        this(out, Integer.getInteger(CHUNK_SIZE_IN_BYTES_SYSTEM_PROPERTY_NAME, DEFAULT_CHUNK_SIZE_IN_BYTES));
+    }
+
+    public ChunkedInitialLoadWriter(OutputStream out, int chunkSize) {
+        this.out = new DataOutputStream(out);
+        this.chunkSize = chunkSize;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Serializes the initial loads of all {@code replicables}, using the {@code executor} to do so concurrently, and
+     * returns after all have been written. The replica has to read the replicables in the same order, using the same
+     * indices. The underlying stream is flushed but not closed.
+     *
+     * @throws ExecutionException
+     *             if serializing any of the replicables failed; the other replicables' initial loads will still have
+     *             been written completely
+     */
+    public void write(List<Replicable<?, ?>> replicables, ExecutorService executor) throws InterruptedException, ExecutionException, IOException {
+        final List<Future<Void>> futures = new ArrayList<>(replicables.size());
+        for (int i = 0; i < replicables.size(); i++) {
+            final Replicable<?, ?> replicable = replicables.get(i);
+            final short replicableIndex = (short) i;
+            final Callable<Void> serializer = () -> {
+                logger.info("Serializing chunked initial load for replicable " + replicable.getId());
+                final ChunkOutputStream chunkOutputStream = new ChunkOutputStream(replicableIndex);
+                try {
+                    replicable.serializeForInitialReplication(chunkOutputStream);
+                } catch (Throwable e) {
+                    logger.log(Level.SEVERE, "Error trying to serialize initial load for replicable " + replicable.getId(), e);
+                    chunkOutputStream.fail();
+                    throw e;
+                }
+                chunkOutputStream.close();
+                logger.info("Done serializing chunked initial load for replicable " + replicable.getId());
+                return null;
+            };
+            futures.add(executor.submit(ThreadPoolUtil.INSTANCE.associateWithSubjectIfAny(serializer)));
+        }
+        ExecutionException firstException = null;
+        for (final Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (firstException == null) {
+                    firstException = e;
+                }
+            }
+        }
+        out.flush();
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+
+    private synchronized void writeChunk(short replicableIndex, byte[] buffer, int length) throws IOException {
+        out.writeShort(replicableIndex);
+        out.writeInt(length);
+        if (length > 0) {
+            out.write(buffer, 0, length);
+        }
+    }
+
+    /**
+     * Collects the bytes written into a chunk buffer; full chunks are written to the underlying stream. Closing this
+     * stream writes the last chunk and the {@link ChunkedInitialLoadWriter#END_OF_REPLICABLE} marker but doesn't close
+     * the underlying stream. {@link #flush()} is a no-op because flushing partial chunks would only produce smaller
+     * chunks and more overhead.
+     */
+    private class ChunkOutputStream extends OutputStream {
+        private final short replicableIndex;
+        private final byte[] buffer;
+        private int count;
+        private boolean closed;
+
+        public ChunkOutputStream(short replicableIndex) {
+            this.replicableIndex = replicableIndex;
+            this.buffer = new byte[chunkSize];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                writeBuffer();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int written = 0;
+            while (written < len) {
+                if (count == buffer.length) {
+                    writeBuffer();
+                }
+                final int bytesToCopy = Math.min(len - written, buffer.length - count);
+                System.arraycopy(b, off + written, buffer, count, bytesToCopy);
+                count += bytesToCopy;
+                written += bytesToCopy;
+            }
+        }
+
+        private void writeBuffer() throws IOException {
+            if (closed) {
+                throw new IOException("Chunk stream for replicable #" + replicableIndex + " already closed");
+            }
+            if (count > 0) {
+                writeChunk(replicableIndex, buffer, count);
+                count = 0;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                writeBuffer();
+                closed = true;
+                writeChunk(replicableIndex, buffer, END_OF_REPLICABLE);
+            }
+        }
+
+        /**
+         * Discards the bytes not yet written and tells the replica that the replicable's initial load is incomplete
+         */
+        public void fail() throws IOException {
+            if (!closed) {
+                closed = true;
+                count = 0;
+                writeChunk(replicableIndex, buffer, REPLICABLE_FAILED);
+            }
+        }
+    }
+}
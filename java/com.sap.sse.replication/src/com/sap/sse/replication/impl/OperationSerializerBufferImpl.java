@@ -16,13 +16,13 @@ import java.util.logging.Logger;
 import com.sap.sse.common.Duration;
 import com.sap.sse.common.Util.Pair;
 import com.sap.sse.operationaltransformation.Operation;
+import com.sap.sse.replication.OperationCodec;
+import com.sap.sse.replication.OperationCodecRegistry;
 import com.sap.sse.replication.OperationWithResult;
 import com.sap.sse.replication.Replicable;
 import com.sap.sse.replication.ReplicationReceiver;
 import com.sap.sse.replication.ReplicationService;
 
-import net.jpountz.lz4.LZ4BlockOutputStream;
-
 /**
  * Encapsulates the serialization (using an {@link ObjectOutputStream}) and the buffering with delayed sending for a
  * sequence of {@link Operation}s. For sending, a {@link Pair} of {@code byte[]} and {@code List<Class<?>>} is
@@ -104,13 +104,34 @@ public class OperationSerializerBufferImpl implements OperationSerializerBuffer
      * serializing a single {@link Operation} into yet another {@link ObjectOutputStream}.
      * <p>
      * 
-     * Protocol version 2 (the current version) writes a {@link ReplicationReceiver#VERSION_INDICATOR version indicator},
-     * followed by an {@code int} value containing this protocol version, then followed by the replicable's ID as a
-     * {@link String}. Then, all operations follow in a single {@link ObjectOutputStream} format. This has become
-     * possible by now guaranteeing that {@link Operation} objects do not contain references to objects that may
-     * change state after the operation has been scheduled for sending.
+     * Protocol version 2 writes a {@link ReplicationReceiver#VERSION_INDICATOR version indicator}, followed by an
+     * {@code int} value containing this protocol version, then followed by the replicable's ID as a {@link String}.
+     * Then, all operations follow in a single {@link ObjectOutputStream} format. This has become possible by now
+     * guaranteeing that {@link Operation} objects do not contain references to objects that may change state after the
+     * operation has been scheduled for sending.
+     */
+    static final int PROTOCOL_VERSION_WITH_JAVA_SERIALIZATION = 2;
+
+    /**
+     * Protocol version 3 (the current version) uses the same header as version 2, but each operation in the
+     * {@link ObjectOutputStream} is prefixed by the {@code short} ID of the {@link OperationCodec} that encoded it, as
+     * written by {@link OperationCodecRegistry#writeOperation(OperationWithResult, ObjectOutputStream)}. This lets
+     * {@link Replicable}s replicate their most frequent operation types in a compact binary format while all other
+     * operations still use Java serialization.
      */
-    private static final int PROTOCOL_VERSION = 2;
+    static final int PROTOCOL_VERSION_WITH_OPERATION_CODECS = 3;
+
+    /**
+     * The name of the system property that can be set to {@code false} in order to not use the
+     * {@link Replicable#getOperationCodecRegistry() operation codecs} and send all operations using Java serialization
+     * with {@link #PROTOCOL_VERSION_WITH_JAVA_SERIALIZATION protocol version 2}, e.g., for replicas that don't
+     * understand protocol version 3 yet. Such replicas also expect each message to be LZ4-compressed, so in this mode
+     * all messages are compressed with {@link ReplicationMessageCompression#LZ4_ALWAYS}, ignoring the
+     * {@link ReplicationMessageCompression#COMPRESSION_SYSTEM_PROPERTY_NAME configured compression}.
+     */
+    public static final String USE_OPERATION_CODECS_SYSTEM_PROPERTY_NAME = "com.sap.sse.replication.useOperationCodecs";
+
+    private static final boolean USE_OPERATION_CODECS = Boolean.valueOf(System.getProperty(USE_OPERATION_CODECS_SYSTEM_PROPERTY_NAME, "true"));
 
     /**
      * The {@link #objectOutputStream} contains serialized operations originating from a single
@@ -122,6 +143,12 @@ public class OperationSerializerBufferImpl implements OperationSerializerBuffer
      */
     private String replicableIdAsString;
     
+    /**
+     * The codecs of the {@link Replicable} whose operations are currently being written, or {@code null} if
+     * {@link #USE_OPERATION_CODECS operation codecs are not used}; valid whenever {@link #replicableIdAsString} is set
+     */
+    private OperationCodecRegistry operationCodecRegistry;
+    
     private final ReplicationMessageSender sender;
     
     /**
@@ -138,7 +165,8 @@ public class OperationSerializerBufferImpl implements OperationSerializerBuffer
     private DataOutputStream dos;
     
     /**
-     * An object output stream that writes to {@link #bos}, through a compressing output stream. Operations are
+     * An object output stream that writes to {@link #bos}, uncompressed; the message is {@link #compression compressed}
+     * as a whole when the buffer is sent, so that small messages can be sent uncompressed. Operations are
      * serialized into this stream until the timer acquires the {@link #outboundBufferMonitor}, closes the stream and
      * transmits the contents of {@link #outboundBuffer} as a RabbitMQ message. While still holding the monitor, the
      * timer task creates a new {@link #outboundBuffer} and a new {@link #outboundObjectBuffer} wrapping the
@@ -156,8 +184,13 @@ public class OperationSerializerBufferImpl implements OperationSerializerBuffer
     
     private final Duration timeout;
     
+    /**
+     * Compared to the size of the uncompressed message in {@link #bos}
+     */
     private final int maximumBufferSizeInBytes;
     
+    private final ReplicationMessageCompression compression;
+    
     /**
      * Used to schedule the sending of all operations in {@link #outboundBuffer} using the {@link #sendingTask}.
      */
@@ -175,9 +208,21 @@ public class OperationSerializerBufferImpl implements OperationSerializerBuffer
      */
     private TimerTask timerTask;
     
+    /**
+     * Creates a buffer that uses the {@link ReplicationMessageCompression#getConfigured() configured compression}, or
+     * {@link ReplicationMessageCompression#LZ4_ALWAYS} if {@link #USE_OPERATION_CODECS_SYSTEM_PROPERTY_NAME operation
+     * codecs are turned off} for compatibility with old replicas
+     */
     public OperationSerializerBufferImpl(final ReplicationMessageSender sender, final Duration timeout,
             final int maximumBufferSizeInBytes, final Timer timer) throws IOException {
+        this(sender, timeout, maximumBufferSizeInBytes, timer, USE_OPERATION_CODECS
+                ? ReplicationMessageCompression.getConfigured() : ReplicationMessageCompression.LZ4_ALWAYS);
+    }
+    
+    public OperationSerializerBufferImpl(final ReplicationMessageSender sender, final Duration timeout,
+            final int maximumBufferSizeInBytes, final Timer timer, final ReplicationMessageCompression compression) throws IOException {
         this.sender = sender;
+        this.compression = compression;
         this.bos = new ByteArrayOutputStream();
         this.timeout = timeout;
         this.timer = timer;
@@ -185,32 +230,34 @@ public class OperationSerializerBufferImpl implements OperationSerializerBuffer
     }
     
     /**
-     * Creates a new compressing object output stream which writes its compressed contents into {@link #bos} which is
+     * Creates a new object output stream which writes its contents into {@link #bos} which is
      * {@link ByteArrayOutputStream#reset()reset} before creating the new object output stream. A new empty
      * {@link #listOfClasses} is created, too. As another side effect, cancels any scheduled {@link #timerTask} and
      * nulls it.
      */
-    private synchronized void createNewObjectOutputStream(String replicableIdAsString) throws IOException {
+    private synchronized void createNewObjectOutputStream(Replicable<?, ?> replicable) throws IOException {
+        final String replicableIdAsString = replicable.getId().toString();
         this.bos.reset();
         if (timerTask != null) {
             timerTask.cancel();
             timerTask = null;
         }
         listOfClasses = new ArrayList<>();
-        LZ4BlockOutputStream zipper = new LZ4BlockOutputStream(this.bos);
-        dos = new DataOutputStream(zipper);
+        dos = new DataOutputStream(this.bos);
         this.replicableIdAsString = replicableIdAsString;
+        this.operationCodecRegistry = USE_OPERATION_CODECS ? replicable.getOperationCodecRegistry() : null;
         dos.writeUTF(ReplicationReceiver.VERSION_INDICATOR);
-        dos.write(PROTOCOL_VERSION);
+        dos.write(operationCodecRegistry == null ? PROTOCOL_VERSION_WITH_JAVA_SERIALIZATION : PROTOCOL_VERSION_WITH_OPERATION_CODECS);
         dos.writeUTF(replicableIdAsString); // TODO bug5741: write something that clearly indicates the new version, ideally something that could never occur as a replicableIdAsString in the old protocol version
-        final ObjectOutputStream compressingObjectOutputStream = new ObjectOutputStream(zipper);
-        objectOutputStream = compressingObjectOutputStream;
+        objectOutputStream = new ObjectOutputStream(this.bos);
     }
     
     /**
      * Extracts the binary message from {@link #bos} and, together with the {@link #listOfClasses} representing the
      * types of the objects that were written to the buffer since its creation or last sending, enqueues it for
-     * sending out to the replicas by appending it to the {@link #queueToWriteTo} queue.
+     * sending out to the replicas by appending it to the {@link #queueToWriteTo} queue. The message is
+     * {@link ReplicationMessageCompression#compress(byte[]) compressed} according to the {@link #compression} of this
+     * buffer.
      */
     private synchronized void sendBuffer() throws IOException {
         if (replicableIdAsString != null && !listOfClasses.isEmpty()) {
@@ -222,8 +269,9 @@ public class OperationSerializerBufferImpl implements OperationSerializerBuffer
             } catch (IOException e) {
                 logger.log(Level.SEVERE, "Error trying to replicate " + listOfClasses.size() + " operations", e);
             }
-            final byte[] message = bos.toByteArray();
-            logger.fine(()->"Successfully produced message array for replicable "+replicableIdAsString+" of length " + message.length);
+            final byte[] message = compression.compress(bos.toByteArray());
+            logger.fine(()->"Successfully produced message array for replicable "+replicableIdAsString+" of length " + message.length+
+                    " from "+bos.size()+" uncompressed bytes");
             final List<Class<?>> listOfClasses = this.listOfClasses;
             this.listOfClasses = null;
             sender.send(message, listOfClasses);
@@ -239,13 +287,17 @@ public class OperationSerializerBufferImpl implements OperationSerializerBuffer
      */
     public synchronized <S, O extends OperationWithResult<S, ?>> void write(final OperationWithResult<?, ?> operation, Replicable<S, O> replicable) throws IOException {
         if (replicableIdAsString == null) {
-            createNewObjectOutputStream(replicable.getId().toString());
+            createNewObjectOutputStream(replicable);
         } else if (!replicableIdAsString.equals(replicable.getId().toString())) {
             logger.fine(()->"Received operation for replicable "+replicable.getId().toString()+" which is different from "+replicableIdAsString+"; sending buffer first");
             sendBuffer();
-            createNewObjectOutputStream(replicable.getId().toString());
+            createNewObjectOutputStream(replicable);
+        }
+        if (operationCodecRegistry == null) {
+            objectOutputStream.writeObject(operation);
+        } else {
+            operationCodecRegistry.writeOperation(operation, objectOutputStream);
         }
-        objectOutputStream.writeObject(operation);
         listOfClasses.add(operation.getClassForLogging());
         if (bos.size() > maximumBufferSizeInBytes) {
             logger.info("Triggering replication for replicable ID "+replicableIdAsString+" because buffer holds " + bos.size()
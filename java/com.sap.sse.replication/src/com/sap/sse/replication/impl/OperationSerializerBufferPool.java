@@ -1,9 +1,14 @@
 package com.sap.sse.replication.impl;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Timer;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.logging.Level;
@@ -24,11 +29,17 @@ import com.sap.sse.util.ThreadPoolUtil;
  * numbers, such as the ones for inserting fixes into time-sequenced tracks, can be expected to allow for this type
  * of asynchronous processing as their time stamps support out-of-order processing.<p>
  * 
- * Each thread in the pool is linked to a single {@link OperationSerializerBufferImpl}. The entire pool has a single inbound
- * {@link BlockingDeque} allowing multiple threads to add operation/replicable pairs to it. Each thread tries to
- * {@link BlockingDeque#take() take} such a pair from the queue and hand it to its {@link OperationSerializerBufferImpl}'s
- * {@link OperationSerializerBufferImpl#write(com.sap.sse.replication.OperationWithResult, com.sap.sse.replication.Replicable) write}
- * method.<p>
+ * The pool is sharded: each thread in the pool has its own inbound {@link BlockingQueue} and keeps one
+ * {@link OperationSerializerBufferImpl} per {@link Replicable} it has seen. Operations are assigned to a thread based on
+ * the {@link Replicable#getId() ID} of their replicable and their {@link Operation#getKeyForAsynchronousExecution() key
+ * for asynchronous execution}. This way, operations of different races or competitors are serialized and compressed
+ * on all cores in parallel, whereas the operations of one replicable with equal keys are always handled by the same
+ * thread and hence are sent in the order in which they were {@link #write(OperationWithResult, Replicable) written};
+ * this is the same ordering guarantee that the receiving side's {@link OperationQueueByKeyExecutor} gives when
+ * applying the operations. Having a buffer per replicable avoids sending a message each time operations of different
+ * replicables interleave. Each thread tries to {@link BlockingQueue#take() take} an operation/replicable pair from its
+ * queue and hand it to the {@link OperationSerializerBufferImpl#write(com.sap.sse.replication.OperationWithResult,
+ * com.sap.sse.replication.Replicable) write} method of the buffer for the replicable.<p>
  * 
  * The pool is created in "stopped" mode and needs to be started by calling {@link #start()} before submitting operations
  * to it with the {@link #write(OperationWithResult, Replicable)} method. Conversely, the pool can be stopped using the
@@ -45,7 +56,10 @@ public class OperationSerializerBufferPool implements OperationSerializerBuffer
     
     private final int size;
     
-    private final BlockingDeque<Pair<OperationWithResult<?, ?>, Replicable<?, ?>>> queue;
+    /**
+     * One inbound queue per thread; see {@link #getShard(OperationWithResult, Replicable)}
+     */
+    private final List<BlockingQueue<Pair<OperationWithResult<?, ?>, Replicable<?, ?>>>> queues;
 
     private final ReplicationMessageSender sender;
 
@@ -58,11 +72,25 @@ public class OperationSerializerBufferPool implements OperationSerializerBuffer
     private static final Pair<OperationWithResult<?, ?>, Replicable<?, ?>> STOP = new Pair<>(null, null);
     
     private class Runner implements Runnable {
-        private final OperationSerializerBufferImpl buffer;
+        private final BlockingQueue<Pair<OperationWithResult<?, ?>, Replicable<?, ?>>> queue;
+        
+        /**
+         * Only accessed by the thread running this runner
+         */
+        private final Map<Object, OperationSerializerBufferImpl> buffersByReplicableId;
         
-        private Runner(final ReplicationMessageSender sender, final Duration timeout,
-                final int maximumBufferSizeInBytes, final Timer timer) throws IOException {
-            buffer = new OperationSerializerBufferImpl(sender, timeout, maximumBufferSizeInBytes, timer);
+        private Runner(BlockingQueue<Pair<OperationWithResult<?, ?>, Replicable<?, ?>>> queue) {
+            this.queue = queue;
+            this.buffersByReplicableId = new HashMap<>();
+        }
+        
+        private OperationSerializerBufferImpl getBuffer(Replicable<?, ?> replicable) throws IOException {
+            OperationSerializerBufferImpl buffer = buffersByReplicableId.get(replicable.getId());
+            if (buffer == null) {
+                buffer = new OperationSerializerBufferImpl(sender, timeout, maximumBufferSizeInBytes, timer);
+                buffersByReplicableId.put(replicable.getId(), buffer);
+            }
+            return buffer;
         }
         
         @Override
@@ -77,7 +105,7 @@ public class OperationSerializerBufferPool implements OperationSerializerBuffer
                         interrupted = true;
                     } else {
                         try {
-                            buffer.write(operationAndReplicable.getA(), operationAndReplicable.getB());
+                            getBuffer(operationAndReplicable.getB()).write(operationAndReplicable.getA(), operationAndReplicable.getB());
                         } catch (IOException e) {
                             logger.log(Level.SEVERE, "Couldn't write operation for replicable "+operationAndReplicable, e);
                         }
@@ -93,7 +121,10 @@ public class OperationSerializerBufferPool implements OperationSerializerBuffer
     public OperationSerializerBufferPool(final ReplicationMessageSender sender, final Duration timeout,
             final int maximumBufferSizeInBytes, final Timer timer) throws IOException {
         size = ThreadPoolUtil.INSTANCE.getReasonableThreadPoolSize();
-        queue = new LinkedBlockingDeque<>();
+        queues = new ArrayList<>(size);
+        for (int i=0; i<size; i++) {
+            queues.add(new LinkedBlockingQueue<>());
+        }
         logger.info("Creating operation serializer buffer pool for outbound replication of size "+size);
         this.sender = sender;
         this.timeout = timeout;
@@ -104,15 +135,24 @@ public class OperationSerializerBufferPool implements OperationSerializerBuffer
     public synchronized void start() throws IOException {
         if (executor == null) {
             executor = ThreadPoolUtil.INSTANCE.createForegroundTaskThreadPoolExecutor(size, "OperationSerializerBufferPool thread pool");
-            for (int i=0; i<size; i++) {
-                executor.execute(new Runner(sender, timeout, maximumBufferSizeInBytes, timer));
+            for (final BlockingQueue<Pair<OperationWithResult<?, ?>, Replicable<?, ?>>> queue : queues) {
+                executor.execute(new Runner(queue));
             }
         }
     }
 
     @Override
     public <S, O extends OperationWithResult<S, ?>> void write(OperationWithResult<?, ?> operation, Replicable<S, O> replicable) throws IOException {
-        queue.add(new Pair<>(operation, replicable));
+        queues.get(getShard(operation, replicable)).add(new Pair<>(operation, replicable));
+    }
+    
+    /**
+     * @return the index of the queue and thread responsible for the {@code operation}, based on the replicable's
+     *         {@link Replicable#getId() ID} and the operation's {@link Operation#getKeyForAsynchronousExecution() key
+     *         for asynchronous execution}
+     */
+    int getShard(OperationWithResult<?, ?> operation, Replicable<?, ?> replicable) {
+        return Math.floorMod(Objects.hash(replicable.getId(), operation.getKeyForAsynchronousExecution()), size);
     }
     
     /**
@@ -123,7 +163,7 @@ public class OperationSerializerBufferPool implements OperationSerializerBuffer
             logger.info("Stopping operation serializer buffer pool");
             executor.shutdown();
             executor = null;
-            for (int i=0; i<size; i++) {
+            for (final BlockingQueue<Pair<OperationWithResult<?, ?>, Replicable<?, ?>>> queue : queues) {
                 queue.add(STOP);
             }
         }
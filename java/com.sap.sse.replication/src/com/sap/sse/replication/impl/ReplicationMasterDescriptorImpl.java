@@ -22,6 +22,7 @@ import com.sap.sse.replication.Replicable;
 import com.sap.sse.replication.ReplicationMasterDescriptor;
 import com.sap.sse.replication.ReplicationServletActions;
 import com.sap.sse.replication.ReplicationServletActions.Action;
+import com.sap.sse.replication.ReplicationServletActions.InitialLoadFormat;
 
 /**
  * Equality is defined by the master's hostname / port, the messaging hostname / port and the
@@ -168,6 +169,13 @@ public class ReplicationMasterDescriptorImpl implements ReplicationMasterDescrip
                 + Action.INITIAL_LOAD.name() +
                 "&"+ReplicationServletActions.REPLICABLES_IDS_AS_STRINGS_COMMA_SEPARATED_PARAMETER_NAME+"="+replicablesIdsAsStringSeparatedByCommas);
     }
+
+    @Override
+    public URL getInitialLoadURL(Iterable<Replicable<?, ?>> replicables, InitialLoadFormat format) throws MalformedURLException {
+        final URL url = getInitialLoadURL(replicables);
+        return new URL(url.getProtocol(), url.getHost(), url.getPort(), url.getFile() + "&"
+                + ReplicationServletActions.INITIAL_LOAD_FORMAT_PARAMETER_NAME + "=" + format.name());
+    }
     
     @Override
     public URL getSendReplicaInitiatedOperationToMasterURL(String replicableIdAsString) throws MalformedURLException {
@@ -0,0 +1,122 @@
+package com.sap.sse.replication.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import net.jpountz.lz4.LZ4BlockInputStream;
+import net.jpountz.lz4.LZ4BlockOutputStream;
+
+/**
+ * The compression applied to outbound replication messages by an {@link OperationSerializerBufferImpl}. The receiving
+ * side doesn't need to know the compression used by the master: {@link #createUncompressingInputStream(byte[])}
+ * recognizes LZ4-compressed messages by the magic bytes that an {@link LZ4BlockOutputStream} writes at the beginning of
+ * each block and reads all other messages as is. An uncompressed message never starts with these bytes because it
+ * starts with a string written by {@link java.io.DataOutputStream#writeUTF(String)} whose first byte is the high byte of
+ * the string's length.
+ * <p>
+ *
+ * Use the system property {@link #COMPRESSION_SYSTEM_PROPERTY_NAME} to select the compression for the master; the
+ * default is {@link #LZ4}. Replicas that don't know this class yet can only read {@link #LZ4_ALWAYS} messages; see
+ * {@link OperationSerializerBufferImpl#USE_OPERATION_CODECS_SYSTEM_PROPERTY_NAME}.
+ */
+public enum ReplicationMessageCompression {
+    /**
+     * Fast LZ4 block compression for all messages that have at least
+     * {@link ReplicationMessageCompression#getMinimumMessageSizeForCompressionInBytes() the minimum size} for
+     * compression; smaller messages are sent uncompressed because the compression header and the work required would
+     * not pay off.
+     */
+    LZ4 {
+        @Override
+        public byte[] compress(byte[] message) throws IOException {
+            final byte[] result;
+            if (message.length < getMinimumMessageSizeForCompressionInBytes()) {
+                result = message;
+            } else {
+                result = compressWithLZ4(message);
+            }
+            return result;
+        }
+    },
+
+    /**
+     * LZ4 block compression for all messages regardless of their size. This is the format that masters used before
+     * {@link OperationSerializerBufferImpl#PROTOCOL_VERSION_WITH_OPERATION_CODECS protocol version 3} and the only one
+     * that replicas of that time can read because they expect each message to be LZ4-compressed. Masters therefore use
+     * it, regardless of the {@link #COMPRESSION_SYSTEM_PROPERTY_NAME configured compression}, when
+     * {@link OperationSerializerBufferImpl#USE_OPERATION_CODECS_SYSTEM_PROPERTY_NAME operation codecs are turned off}.
+     */
+    LZ4_ALWAYS {
+        @Override
+        public byte[] compress(byte[] message) throws IOException {
+            return compressWithLZ4(message);
+        }
+    },
+
+    /**
+     * All messages are sent uncompressed, trading bandwidth for CPU, e.g., when master and replicas share a fast network
+     */
+    NONE {
+        @Override
+        public byte[] compress(byte[] message) {
+            return message;
+        }
+    };
+
+    public static final String COMPRESSION_SYSTEM_PROPERTY_NAME = "com.sap.sse.replication.compression";
+
+    /**
+     * The name of the system property specifying the minimum size in bytes of an uncompressed message for it to be
+     * compressed with {@link #LZ4}
+     */
+    public static final String MINIMUM_MESSAGE_SIZE_FOR_COMPRESSION_IN_BYTES_SYSTEM_PROPERTY_NAME = "com.sap.sse.replication.minimumMessageSizeForCompressionInBytes";
+
+    private static final int MINIMUM_MESSAGE_SIZE_FOR_COMPRESSION_IN_BYTES = Integer.getInteger(MINIMUM_MESSAGE_SIZE_FOR_COMPRESSION_IN_BYTES_SYSTEM_PROPERTY_NAME, 512);
+
+    private static final byte[] LZ4_MAGIC = "LZ4Block".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * @return the message, compressed if this compression decides so for a message of this size
+     */
+    public abstract byte[] compress(byte[] message) throws IOException;
+
+    private static byte[] compressWithLZ4(byte[] message) throws IOException {
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(message.length / 2);
+        try (final LZ4BlockOutputStream zipper = new LZ4BlockOutputStream(bos)) {
+            zipper.write(message);
+        }
+        return bos.toByteArray();
+    }
+
+    public static int getMinimumMessageSizeForCompressionInBytes() {
+        return MINIMUM_MESSAGE_SIZE_FOR_COMPRESSION_IN_BYTES;
+    }
+
+    /**
+     * @return the compression configured by the {@link #COMPRESSION_SYSTEM_PROPERTY_NAME} system property; {@link #LZ4}
+     *         if the property isn't set
+     */
+    public static ReplicationMessageCompression getConfigured() {
+        return valueOf(System.getProperty(COMPRESSION_SYSTEM_PROPERTY_NAME, LZ4.name()));
+    }
+
+    /**
+     * Creates a stream to read the uncompressed contents of a {@code message} produced by {@link #compress(byte[])} of
+     * any of the compression types.
+     */
+    public static InputStream createUncompressingInputStream(byte[] message) {
+        final InputStream bis = new ByteArrayInputStream(message);
+        return isLZ4Compressed(message) ? new LZ4BlockInputStream(bis) : bis;
+    }
+
+    private static boolean isLZ4Compressed(byte[] message) {
+        boolean result = message.length >= LZ4_MAGIC.length;
+        for (int i = 0; result && i < LZ4_MAGIC.length; i++) {
+            result = message[i] == LZ4_MAGIC[i];
+        }
+        return result;
+    }
+}
@@ -206,10 +206,14 @@ public class ReplicationReceiverImpl implements ReplicationReceiver, Runnable {
      * (which is partly explaining why performance was not very good). The stream for reading the nested {@code byte[]} is
      * produced by the {@link Replicable#createObjectInputStreamResolvingAgainstCache(InputStream, Map)} method in order
      * to avoid duplicates and for setting up proper class loading for the {@link Replicable}'s context.</li>
-     * <li></li>
+     * <li>Starting with protocol version 2, the stream starts with the {@link #VERSION_INDICATOR} and the protocol version,
+     * followed by the replicable ID. With version 2, all operations follow as serialized Java objects in a single
+     * {@link ObjectInputStream}. With version 3, each operation in that stream is prefixed by the ID of the
+     * {@link com.sap.sse.replication.OperationCodec codec} that encoded it, and the decoder is chosen accordingly; see
+     * {@link Replicable#readEncodedOperationFromObjectInputStream(ObjectInputStream)}.</li>
      * </ol>
      * After receiving a single message, assumes it's a
-     * {@link ReplicationServiceImpl#createUncompressingInputStream(InputStream) compressed} stream that first
+     * {@link ReplicationMessageCompression#createUncompressingInputStream(byte[]) possibly compressed} stream that first
      * {@link DataInputStream#readUTF() encodes a UTF string} representing the {@link Replicable#getId() replicable ID},
      * followed by a sequence of serialized {@code byte[]} objects which each can be {@link Replicable#readOperation(InputStream, Map) de-serialized}
      * by the receiving {@link Replicable} identified by the ID received as a prefix. This method then applies these operations to the
@@ -245,18 +249,21 @@ public class ReplicationReceiverImpl implements ReplicationReceiver, Runnable {
                 }
                 final byte[] bytesFromMessage = delivery.getBody();
                 checksPerformed = 0;
-                final InputStream uncompressingInputStream = ReplicationServiceImpl.createUncompressingInputStream(new ByteArrayInputStream(bytesFromMessage));
+                final InputStream uncompressingInputStream = ReplicationMessageCompression.createUncompressingInputStream(bytesFromMessage);
                 final DataInputStream dataInputStream = new DataInputStream(uncompressingInputStream);
                 final String replicableIdAsStringOrVersionIndicator = dataInputStream.readUTF();
                 final String replicableIdAsString;
                 final boolean legacyVersion;
+                final boolean withOperationCodecs;
                 if (replicableIdAsStringOrVersionIndicator.equals(VERSION_INDICATOR)) {
                     legacyVersion = false;
                     final int protocolVersion = dataInputStream.read();
                     logger.fine(()->"Found protocol version "+protocolVersion);
+                    withOperationCodecs = protocolVersion >= OperationSerializerBufferImpl.PROTOCOL_VERSION_WITH_OPERATION_CODECS;
                     replicableIdAsString = dataInputStream.readUTF();
                 } else {
                     legacyVersion = true;
+                    withOperationCodecs = false;
                     logger.fine("No protocol version indicator found; using legacy protocol");
                     replicableIdAsString = replicableIdAsStringOrVersionIndicator;
                 }
@@ -276,7 +283,7 @@ public class ReplicationReceiverImpl implements ReplicationReceiver, Runnable {
                                     readLegacyOperationAndApplyOrQueueIt(replicable, serializedOperation, classLoaderCache);
                                 }
                             } else {
-                                readOperationAndApplyOrQueueIt(replicable, ois);
+                                readOperationAndApplyOrQueueIt(replicable, ois, withOperationCodecs);
                             }
                             if (Util.contains(master.getReplicables(), replicable)) {
                                 operationCount++;
@@ -470,9 +477,17 @@ public class ReplicationReceiverImpl implements ReplicationReceiver, Runnable {
         return (BlockingQueue<?>) _queue.get(consumer);
     }
     
+    /**
+     * @param withOperationCodecs
+     *            if {@code true}, the operation is prefixed by the ID of the codec that encoded it (protocol version 3
+     *            and later), and the codec is looked up in the {@code replicable}'s
+     *            {@link Replicable#getOperationCodecRegistry() codec registry}; otherwise, the operation is expected to
+     *            be a serialized Java object
+     */
     private <S, O extends OperationWithResult<S, ?>> void readOperationAndApplyOrQueueIt(Replicable<S, O> replicable,
-            ObjectInputStream ois) throws ClassNotFoundException, IOException {
-        O operation = replicable.readOperationFromObjectInputStream(ois);
+            ObjectInputStream ois, boolean withOperationCodecs) throws ClassNotFoundException, IOException {
+        final O operation = withOperationCodecs ? replicable.readEncodedOperationFromObjectInputStream(ois)
+                : replicable.readOperationFromObjectInputStream(ois);
         if (Util.contains(master.getReplicables(), replicable)) {
             applyOrQueue(operation, replicable);
         }
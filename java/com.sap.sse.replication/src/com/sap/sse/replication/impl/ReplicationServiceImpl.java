@@ -8,6 +8,7 @@ import java.net.ConnectException;
 import java.net.SocketException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -20,6 +21,8 @@ import java.util.UUID;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
@@ -50,10 +53,12 @@ import com.sap.sse.replication.ReplicablesProvider.ReplicableLifeCycleListener;
 import com.sap.sse.replication.ReplicationMasterDescriptor;
 import com.sap.sse.replication.ReplicationReceiver;
 import com.sap.sse.replication.ReplicationService;
+import com.sap.sse.replication.ReplicationServletActions.InitialLoadFormat;
 import com.sap.sse.replication.ReplicationStatus;
 import com.sap.sse.replication.interfaces.impl.ReplicationStatusImpl;
 import com.sap.sse.replication.persistence.MongoObjectFactory;
 import com.sap.sse.util.HttpUrlConnectionHelper;
+import com.sap.sse.util.ThreadPoolUtil;
 
 import net.jpountz.lz4.LZ4BlockInputStream;
 
@@ -87,6 +92,15 @@ import net.jpountz.lz4.LZ4BlockInputStream;
 public class ReplicationServiceImpl implements ReplicationService, OperationsToMasterSendingQueue, ReplicationMessageSender {
     private static final Logger logger = Logger.getLogger(ReplicationServiceImpl.class.getName());
 
+    /**
+     * The name of the system property that tells whether a replica asks the master for the initial load in the
+     * {@link InitialLoadFormat#CHUNKED chunked format} which allows the replicables to be restored in parallel. Set to
+     * {@code false} to request the {@link InitialLoadFormat#SEQUENTIAL sequential format}. Defaults to {@code true}.
+     */
+    public static final String CHUNKED_INITIAL_LOAD_SYSTEM_PROPERTY_NAME = "com.sap.sse.replication.chunkedInitialLoad";
+
+    private static final boolean CHUNKED_INITIAL_LOAD = Boolean.valueOf(System.getProperty(CHUNKED_INITIAL_LOAD_SYSTEM_PROPERTY_NAME, "true"));
+
     private final ReplicationInstancesManager replicationInstancesManager;
 
     private final ReplicablesProvider replicablesProvider;
@@ -233,6 +247,12 @@ public class ReplicationServiceImpl implements ReplicationService, OperationsToM
      */
     private final Map<ReplicationMasterDescriptor, InitialLoadRequest> initialLoadChannels;
 
+    /**
+     * The number of uncompressed bytes received so far by a chunked initial load, keyed by the
+     * {@link Replicable#getId() replicable IDs} as strings; reported in the {@link #getStatus() status}
+     */
+    private final ConcurrentMap<String, Long> initialLoadBytesReceived;
+
     /**
      * Will be set
      */
@@ -336,6 +356,7 @@ public class ReplicationServiceImpl implements ReplicationService, OperationsToM
         unsentOperationsSenderJob = new UnsentOperationsSenderJob();
         executionListenersByReplicableIdAsString = new ConcurrentHashMap<>();
         initialLoadChannels = new ConcurrentHashMap<>();
+        initialLoadBytesReceived = new ConcurrentHashMap<>();
         this.replicationInstancesManager = replicationInstancesManager;
         replicaUUIDs = new ConcurrentHashMap<ReplicationMasterDescriptor, String>();
         this.replicablesProvider = replicablesProvider;
@@ -687,7 +708,8 @@ public class ReplicationServiceImpl implements ReplicationService, OperationsToM
                 timer.cancel();
             }
             logger.info("Connection to exchange successful.");
-            final URL initialLoadURL = master.getInitialLoadURL(replicables);
+            final URL initialLoadURL = CHUNKED_INITIAL_LOAD ? master.getInitialLoadURL(replicables, InitialLoadFormat.CHUNKED)
+                    : master.getInitialLoadURL(replicables);
             logger.info("Initial load URL is " + initialLoadURL);
             // start receiving messages already now, but start in suspended mode
             replicator = new ReplicationReceiverImpl(master, replicablesProvider, /* startSuspended */ true, consumer);
@@ -706,24 +728,32 @@ public class ReplicationServiceImpl implements ReplicationService, OperationsToM
                     .redirectConnectionWithBearerToken(initialLoadURL, /* HTTP request method */ "POST", master.getBearerToken());
             final InputStream is = (InputStream) initialLoadConnection.getContent();
             final String queueName;
+            final String formatName;
             try (final BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(is, HttpUrlConnectionHelper.getCharsetFromConnectionOrDefault(initialLoadConnection, "UTF-8")))) {
                 queueName = bufferedReader.readLine();
+                formatName = bufferedReader.readLine(); // masters not supporting other formats don't send this line
             }
+            final InitialLoadFormat format = formatName == null || formatName.isEmpty() ? InitialLoadFormat.SEQUENTIAL : InitialLoadFormat.valueOf(formatName.trim());
+            logger.info("Receiving initial load in format " + format);
             final Channel channel = master.createChannel();
             initialLoadChannels.put(master, new InitialLoadRequest(channel, replicables, queueName));
             final RabbitInputStreamProvider rabbitInputStreamProvider = new RabbitInputStreamProvider(channel, queueName);
             try {
                 final LZ4BlockInputStream uncompressingInputStream = new LZ4BlockInputStream(rabbitInputStreamProvider.getInputStream());
-                for (Replicable<?, ?> replicable : replicables) { // absolutely make sure to use the same sequence of
-                                                                  // replicables as for URL (bug 3015)
-                    logger.info("Starting to receive initial load for " + replicable.getId());
-                    try {
-                        replicable.initiallyFillFrom(uncompressingInputStream);
-                    } catch (Exception e) {
-                        logger.log(Level.SEVERE, "Exception trying to receive initial load for " + replicable.getId(), e);
-                        throw e;
+                if (format == InitialLoadFormat.CHUNKED) {
+                    receiveChunkedInitialLoad(master, replicables, uncompressingInputStream);
+                } else {
+                    for (Replicable<?, ?> replicable : replicables) { // absolutely make sure to use the same sequence of
+                                                                      // replicables as for URL (bug 3015)
+                        logger.info("Starting to receive initial load for " + replicable.getId());
+                        try {
+                            replicable.initiallyFillFrom(uncompressingInputStream);
+                        } catch (Exception e) {
+                            logger.log(Level.SEVERE, "Exception trying to receive initial load for " + replicable.getId(), e);
+                            throw e;
+                        }
+                        logger.info("Done receiving initial load for " + replicable.getId());
                     }
-                    logger.info("Done receiving initial load for " + replicable.getId());
                 }
             } catch (Throwable e) {
                 logger.log(Level.SEVERE, "Error while receiving initial load from "+master+". Cleaning up.", e);
@@ -743,6 +773,32 @@ public class ReplicationServiceImpl implements ReplicationService, OperationsToM
         }
     }
 
+    /**
+     * Restores the {@code replicables} in parallel, one thread per replicable, from an initial load received in the
+     * {@link InitialLoadFormat#CHUNKED chunked format}. The order of the {@code replicables} has to be the same as the
+     * one used for the initial load URL.
+     */
+    private void receiveChunkedInitialLoad(ReplicationMasterDescriptor master, Iterable<Replicable<?, ?>> replicables,
+            InputStream uncompressingInputStream) throws Exception {
+        final List<Replicable<?, ?>> replicablesAsList = new ArrayList<>();
+        Util.addAll(replicables, replicablesAsList);
+        for (final Replicable<?, ?> replicable : replicablesAsList) {
+            initialLoadBytesReceived.put(replicable.getId().toString(), 0l);
+        }
+        // the reader requires a thread for each replicable; see ChunkedInitialLoadReader
+        final ExecutorService executor = ThreadPoolUtil.INSTANCE.createForegroundTaskThreadPoolExecutor(
+                Math.max(1, replicablesAsList.size()), "Initial load receiver for " + master.getHostname());
+        try {
+            new ChunkedInitialLoadReader(uncompressingInputStream,
+                    (replicable, bytesReceived) -> initialLoadBytesReceived.put(replicable.getId().toString(), bytesReceived))
+                .read(replicablesAsList, executor);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     /**
      * @return the UUID that the master generated for this client which is also entered into {@link #replicaUUIDs}
      */
@@ -960,7 +1016,7 @@ public class ReplicationServiceImpl implements ReplicationService, OperationsToM
             isInitialLoadRunning.put(replicable.getId().toString(), replicable.isCurrentlyFillingFromInitialLoad());
         }
         return new ReplicationStatusImpl(isReplica, ServerInfo.getName(), isReplicationStarting, suspended, stopped,
-                messageQueueLength, isInitialLoadRunning, operationQueueLengths, getReplicatingFromMaster(), getReplicaInfo(), exchangeName, exchangePort);
+                messageQueueLength, isInitialLoadRunning, new HashMap<>(initialLoadBytesReceived), operationQueueLengths, getReplicatingFromMaster(), getReplicaInfo(), exchangeName, exchangePort);
     }
 
     public void stop() {
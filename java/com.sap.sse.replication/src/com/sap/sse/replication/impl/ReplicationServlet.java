@@ -3,15 +3,20 @@ package com.sap.sse.replication.impl;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,12 +40,14 @@ import com.sap.sse.replication.ReplicablesProvider;
 import com.sap.sse.replication.ReplicationService;
 import com.sap.sse.replication.ReplicationServletActions;
 import com.sap.sse.replication.ReplicationServletActions.Action;
+import com.sap.sse.replication.ReplicationServletActions.InitialLoadFormat;
 import com.sap.sse.replication.ReplicationStatus;
 import com.sap.sse.replication.interfaces.impl.ReplicaDescriptorImpl;
 import com.sap.sse.security.shared.TypeRelativeObjectIdentifier;
 import com.sap.sse.security.shared.impl.SecuredSecurityTypes;
 import com.sap.sse.security.shared.impl.SecuredSecurityTypes.ServerActions;
 import com.sap.sse.util.HttpRequestUtils;
+import com.sap.sse.util.ThreadPoolUtil;
 import com.sap.sse.util.impl.CountingOutputStream;
 
 import net.jpountz.lz4.LZ4BlockInputStream;
@@ -128,31 +135,39 @@ public class ReplicationServlet extends AbstractHttpServlet {
                     RabbitOutputStream ros = new RabbitOutputStream(INITIAL_LOAD_PACKAGE_SIZE, channel,
                             /* queueName */ "initialLoad-for-"+HttpRequestUtils.getClientIP(req)+"@"+new Date()+"-"+UUID.randomUUID(),
                             /* syncAfterTimeout */ false);
+                    final InitialLoadFormat format = getRequestedInitialLoadFormat(req);
                     PrintWriter br = new PrintWriter(new OutputStreamWriter(resp.getOutputStream()));
                     resp.setContentType("text/plain");
                     br.println(ros.getQueueName());
+                    if (format != InitialLoadFormat.SEQUENTIAL) {
+                        br.println(format.name());
+                    }
                     br.flush();
                     final CountingOutputStream countingOutputStream = new CountingOutputStream(
                             ros, /* log every megabyte */1024l * 1024l, Level.INFO,
                             "uncompressed output for initial load for " + HttpRequestUtils.getClientIP(req));
                     final LZ4BlockOutputStream compressingOutputStream = new LZ4BlockOutputStream(countingOutputStream);
-                    for (String replicableIdAsString : replicableIdsAsStrings) {
-                        logger.info("Serializing initial load for replicable "+replicableIdAsString+" for remote host "+HttpRequestUtils.getClientIP(req));
-                        Replicable<?, ?> replicable = replicablesProvider.getReplicable(replicableIdAsString, /* wait */ false);
-                        if (replicable == null) {
-                            final String msg = "Couldn't find replicable with ID "+replicableIdAsString+". Aborting serialization of initial load.";
-                            logger.severe(msg);
-                            resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, StringEscapeUtils.escapeHtml(msg));
-                            break; // causing an error on the replica which is expecting the replica's initial load
-                        }
-                        try {
-                            replicable.serializeForInitialReplication(compressingOutputStream);
-                            logger.info("Done serializing initial load for replicable "+replicableIdAsString+" for remote host "+HttpRequestUtils.getClientIP(req));
-                        } catch (Throwable e) {
-                            logger.info("Error trying to serialize initial load for replication: " + e.getMessage());
-                            logger.log(Level.SEVERE, "doGet", e);
-                            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-                            resp.getWriter().append("Error obtaining status; see server logs for details.");
+                    if (format == InitialLoadFormat.CHUNKED) {
+                        sendChunkedInitialLoad(req, resp, replicableIdsAsStrings, compressingOutputStream);
+                    } else {
+                        for (String replicableIdAsString : replicableIdsAsStrings) {
+                            logger.info("Serializing initial load for replicable "+replicableIdAsString+" for remote host "+HttpRequestUtils.getClientIP(req));
+                            Replicable<?, ?> replicable = replicablesProvider.getReplicable(replicableIdAsString, /* wait */ false);
+                            if (replicable == null) {
+                                final String msg = "Couldn't find replicable with ID "+replicableIdAsString+". Aborting serialization of initial load.";
+                                logger.severe(msg);
+                                resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, StringEscapeUtils.escapeHtml(msg));
+                                break; // causing an error on the replica which is expecting the replica's initial load
+                            }
+                            try {
+                                replicable.serializeForInitialReplication(compressingOutputStream);
+                                logger.info("Done serializing initial load for replicable "+replicableIdAsString+" for remote host "+HttpRequestUtils.getClientIP(req));
+                            } catch (Throwable e) {
+                                logger.info("Error trying to serialize initial load for replication: " + e.getMessage());
+                                logger.log(Level.SEVERE, "doGet", e);
+                                resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                                resp.getWriter().append("Error obtaining status; see server logs for details.");
+                            }
                         }
                     }
                     logger.info("Done serializing initial loads for remote host "+HttpRequestUtils.getClientIP(req));
@@ -192,6 +207,57 @@ public class ReplicationServlet extends AbstractHttpServlet {
         }
     }
     
+    /**
+     * @return the format requested by the replica if this master supports it; {@link InitialLoadFormat#SEQUENTIAL} if
+     *         the replica didn't request a specific format
+     */
+    private InitialLoadFormat getRequestedInitialLoadFormat(HttpServletRequest req) {
+        final String formatName = req.getParameter(ReplicationServletActions.INITIAL_LOAD_FORMAT_PARAMETER_NAME);
+        InitialLoadFormat result = InitialLoadFormat.SEQUENTIAL;
+        if (formatName != null) {
+            try {
+                result = InitialLoadFormat.valueOf(formatName);
+            } catch (IllegalArgumentException e) {
+                logger.warning("Initial load format "+formatName+" requested by "+HttpRequestUtils.getClientIP(req)+
+                        " not supported; using "+result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Serializes the replicables concurrently into independent chunk streams, using a {@link ChunkedInitialLoadWriter}.
+     * The replica uses a {@link ChunkedInitialLoadReader} to restore the replicables concurrently.
+     */
+    private void sendChunkedInitialLoad(HttpServletRequest req, HttpServletResponse resp, String[] replicableIdsAsStrings,
+            OutputStream compressingOutputStream) throws IOException, InterruptedException {
+        final List<Replicable<?, ?>> replicables = new ArrayList<>(replicableIdsAsStrings.length);
+        for (String replicableIdAsString : replicableIdsAsStrings) {
+            Replicable<?, ?> replicable = replicablesProvider.getReplicable(replicableIdAsString, /* wait */ false);
+            if (replicable == null) {
+                final String msg = "Couldn't find replicable with ID "+replicableIdAsString+". Aborting serialization of initial load.";
+                logger.severe(msg);
+                resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, StringEscapeUtils.escapeHtml(msg));
+                return; // causing an error on the replica which is expecting the replica's initial load
+            }
+            replicables.add(replicable);
+        }
+        logger.info("Serializing chunked initial load for replicables "+Arrays.toString(replicableIdsAsStrings)+
+                " for remote host "+HttpRequestUtils.getClientIP(req));
+        final ExecutorService executor = ThreadPoolUtil.INSTANCE.createForegroundTaskThreadPoolExecutor(
+                Math.max(1, Math.min(replicables.size(), ThreadPoolUtil.INSTANCE.getReasonableThreadPoolSize())),
+                "Initial load serializer for "+HttpRequestUtils.getClientIP(req));
+        try {
+            new ChunkedInitialLoadWriter(compressingOutputStream).write(replicables, executor);
+        } catch (ExecutionException e) {
+            logger.info("Error trying to serialize initial load for replication: " + e.getMessage());
+            logger.log(Level.SEVERE, "doGet", e);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     private void checkReplicatorPermission(com.sap.sse.security.shared.HasPermissions.Action action) {
         SecurityUtils.getSubject()
                 .checkPermission(SecuredSecurityTypes.SERVER.getStringPermissionForTypeRelativeIdentifier(action,
@@ -0,0 +1,112 @@
+package com.sap.sse.security.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.shiro.subject.PrincipalCollection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sse.security.AbstractCompositeAuthorizingRealm;
+import com.sap.sse.security.UsernamePasswordRealm;
+import com.sap.sse.security.interfaces.AccessControlStore;
+import com.sap.sse.security.interfaces.UserStore;
+import com.sap.sse.security.shared.impl.User;
+
+public class PermissionDecisionCacheTest {
+    private static final String USERNAME = "me";
+    private static final String PERMISSION = "event:read:123";
+
+    private PermissionDecisionCache cache;
+    private AtomicInteger numberOfDecisions;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new PermissionDecisionCache(/* maximumSize */ 100);
+        numberOfDecisions = new AtomicInteger();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        AbstractCompositeAuthorizingRealm.setTestStores(null, null);
+    }
+
+    private boolean decide(boolean decision) {
+        numberOfDecisions.incrementAndGet();
+        return decision;
+    }
+
+    @Test
+    public void testDecisionIsReusedUntilSecurityModelChanges() {
+        assertTrue(cache.isPermitted(USERNAME, PERMISSION, () -> decide(true)));
+        assertTrue(cache.isPermitted(USERNAME, PERMISSION, () -> decide(false)));
+        assertEquals(1, numberOfDecisions.get());
+        assertFalse(cache.isPermitted("someoneElse", PERMISSION, () -> decide(false)));
+        assertFalse(cache.isPermitted(/* username */ null, PERMISSION, () -> decide(false)));
+        assertEquals(3, numberOfDecisions.get());
+        cache.securityModelChanged();
+        assertFalse(cache.isPermitted(USERNAME, PERMISSION, () -> decide(false)));
+        assertEquals(4, numberOfDecisions.get());
+    }
+
+    @Test
+    public void testDecisionTakenWhileSecurityModelChangedIsNotCached() {
+        assertTrue(cache.isPermitted(USERNAME, PERMISSION, () -> {
+            cache.securityModelChanged();
+            return decide(true);
+        }));
+        assertFalse(cache.isPermitted(USERNAME, PERMISSION, () -> decide(false)));
+        assertEquals(2, numberOfDecisions.get());
+    }
+
+    @Test
+    public void testDecisionBasedOnDataReadBeforeSecurityModelChangedIsNeitherTakenFromNorPutIntoCache() {
+        final long versionBeforeReading = cache.getSecurityModelVersion();
+        cache.securityModelChanged();
+        assertTrue(cache.isPermitted(USERNAME, PERMISSION, () -> decide(true)));
+        assertFalse(cache.isPermitted(versionBeforeReading, USERNAME, PERMISSION, () -> decide(false)));
+        assertTrue(cache.isPermitted(USERNAME, PERMISSION, () -> decide(false)));
+        assertEquals(2, numberOfDecisions.get());
+    }
+
+    @Test
+    public void testCacheOfSizeZeroDecidesEachTime() {
+        final PermissionDecisionCache disabledCache = new PermissionDecisionCache(/* maximumSize */ 0);
+        disabledCache.isPermitted(USERNAME, PERMISSION, () -> decide(true));
+        disabledCache.isPermitted(USERNAME, PERMISSION, () -> decide(true));
+        assertEquals(2, numberOfDecisions.get());
+    }
+
+    @Test
+    public void testRealmUsesCacheOnlyForUserStoreManagedBySecurityService() {
+        final UserStore userStore = mock(UserStore.class);
+        final User user = mock(User.class);
+        when(userStore.getUserByName(USERNAME)).thenReturn(user);
+        AbstractCompositeAuthorizingRealm.setTestStores(userStore, mock(AccessControlStore.class));
+        final AbstractCompositeAuthorizingRealm realm = new UsernamePasswordRealm();
+        final PrincipalCollection principals = mock(PrincipalCollection.class);
+        when(principals.getPrimaryPrincipal()).thenReturn(USERNAME);
+        assertNull(PermissionDecisionCache.getCacheForUserStore(userStore));
+        realm.isPermitted(principals, "event:create");
+        realm.isPermitted(principals, "event:create");
+        verify(userStore, times(2)).getUserByName(USERNAME);
+        final PermissionDecisionCache userStoreCache = PermissionDecisionCache.createForUserStore(userStore);
+        assertSame(userStoreCache, PermissionDecisionCache.getCacheForUserStore(userStore));
+        realm.isPermitted(principals, "event:create");
+        realm.isPermitted(principals, "event:create");
+        verify(userStore, times(3)).getUserByName(USERNAME);
+        userStoreCache.securityModelChanged();
+        realm.isPermitted(principals, "event:create");
+        verify(userStore, times(4)).getUserByName(USERNAME);
+    }
+}
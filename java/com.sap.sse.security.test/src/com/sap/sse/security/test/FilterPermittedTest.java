@@ -0,0 +1,131 @@
+package com.sap.sse.security.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sse.security.SecurityService;
+import com.sap.sse.security.impl.SecurityServiceImpl;
+import com.sap.sse.security.shared.HasPermissions;
+import com.sap.sse.security.shared.HasPermissions.DefaultActions;
+import com.sap.sse.security.shared.QualifiedObjectIdentifier;
+import com.sap.sse.security.shared.RoleDefinition;
+import com.sap.sse.security.shared.TypeRelativeObjectIdentifier;
+import com.sap.sse.security.shared.UserStoreManagementException;
+import com.sap.sse.security.shared.WithQualifiedObjectIdentifier;
+import com.sap.sse.security.shared.impl.HasPermissionsImpl;
+import com.sap.sse.security.shared.impl.LockingAndBanningImpl;
+import com.sap.sse.security.shared.impl.Role;
+import com.sap.sse.security.shared.impl.SecuredSecurityTypes;
+import com.sap.sse.security.shared.impl.User;
+import com.sap.sse.security.shared.impl.UserGroupImpl;
+import com.sap.sse.security.shared.subscription.SSESubscriptionPlan;
+import com.sap.sse.security.userstore.mongodb.AccessControlStoreImpl;
+import com.sap.sse.security.userstore.mongodb.PersistenceFactory;
+import com.sap.sse.security.userstore.mongodb.UserStoreImpl;
+
+/**
+ * Checks that the decisions which {@link SecurityService#filterPermitted} caches are not reused after ACLs, roles or
+ * group memberships have changed.
+ */
+public class FilterPermittedTest {
+    private static final String TEST_DEFAULT_TENANT = "TestDefaultTenant";
+    private static final String USER_USERNAME = "user";
+    private final HasPermissions type = new HasPermissionsImpl("DEMO", DefaultActions.READ, DefaultActions.UPDATE);
+    private UserStoreImpl userStore;
+    private AccessControlStoreImpl accessControlStore;
+    private SecurityService securityService;
+    private User user;
+    private UserGroupImpl userGroup;
+    private DemoObject object1;
+    private DemoObject object2;
+
+    private class DemoObject implements WithQualifiedObjectIdentifier {
+        private static final long serialVersionUID = 1L;
+        private final String name;
+
+        private DemoObject(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public QualifiedObjectIdentifier getIdentifier() {
+            return type.getQualifiedObjectIdentifier(new TypeRelativeObjectIdentifier(name));
+        }
+
+        @Override
+        public HasPermissions getPermissionType() {
+            return type;
+        }
+    }
+
+    @BeforeEach
+    public void setup() throws UserStoreManagementException {
+        userStore = new UserStoreImpl(PersistenceFactory.INSTANCE.getDefaultDomainObjectFactory(),
+                PersistenceFactory.INSTANCE.getDefaultMongoObjectFactory(), TEST_DEFAULT_TENANT);
+        userStore.ensureDefaultRolesExist();
+        userStore.loadAndMigrateUsers();
+        user = userStore.createUser(USER_USERNAME, null, new LockingAndBanningImpl());
+        userGroup = userStore.createUserGroup(UUID.randomUUID(), USER_USERNAME+"-readers");
+        accessControlStore = new AccessControlStoreImpl(userStore);
+        securityService = new SecurityServiceImpl(null, /* corsFilterConfigurationTracker */ null, userStore,
+                accessControlStore, SecuredSecurityTypes::getAllInstances, SSESubscriptionPlan::getAllInstances);
+        securityService.initialize();
+        object1 = new DemoObject("object1");
+        object2 = new DemoObject("object2");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        userStore.clear();
+        accessControlStore.clear();
+    }
+
+    private List<DemoObject> filterReadable() {
+        return securityService.filterPermitted(user, DefaultActions.READ, Arrays.asList(object1, object2));
+    }
+
+    @Test
+    public void testAclChangesAreRespected() {
+        securityService.addUserToUserGroup(userGroup, user);
+        assertEquals(Collections.emptyList(), filterReadable());
+        securityService.addToAccessControlList(object2.getIdentifier(), userGroup, DefaultActions.READ.name());
+        assertEquals(Collections.singletonList(object2), filterReadable());
+        securityService.removeFromAccessControlList(object2.getIdentifier(), userGroup, DefaultActions.READ.name());
+        assertEquals(Collections.emptyList(), filterReadable());
+    }
+
+    @Test
+    public void testRoleChangesAreRespected() {
+        final RoleDefinition reader = userStore.createRoleDefinition(UUID.randomUUID(), "demo_reader",
+                Collections.singleton(type.getPermission(DefaultActions.READ)));
+        final Role role = new Role(reader, /* transitive */ true);
+        assertEquals(Collections.emptyList(), filterReadable());
+        securityService.addRoleForUser(user, role);
+        assertEquals(Arrays.asList(object1, object2), filterReadable());
+        securityService.removeRoleFromUser(user, role);
+        assertEquals(Collections.emptyList(), filterReadable());
+    }
+
+    @Test
+    public void testGroupMembershipChangesAreRespected() {
+        securityService.addToAccessControlList(object1.getIdentifier(), userGroup, DefaultActions.READ.name());
+        assertEquals(Collections.emptyList(), filterReadable());
+        securityService.addUserToUserGroup(userGroup, user);
+        assertEquals(Collections.singletonList(object1), filterReadable());
+        securityService.removeUserFromUserGroup(userGroup, user);
+        assertEquals(Collections.emptyList(), filterReadable());
+    }
+}
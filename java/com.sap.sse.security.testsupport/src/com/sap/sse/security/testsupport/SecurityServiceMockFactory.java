@@ -2,6 +2,7 @@ package com.sap.sse.security.testsupport;
 
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
@@ -48,6 +49,13 @@ public class SecurityServiceMockFactory {
         Mockito.doReturn(true).when(result)
                 .hasCurrentUserReadPermission(Mockito.any(WithQualifiedObjectIdentifier.class));
         Mockito.doNothing().when(result).checkCurrentUserReadPermission(Mockito.any());
+        Mockito.doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(InvocationOnMock invocation) throws Throwable {
+                invocation.getArgument(1, Iterable.class).forEach(invocation.getArgument(2, Consumer.class));
+                return null;
+            }
+        }).when(result).filterObjectsWithPermissionForCurrentUser(Mockito.any(), Mockito.any(), Mockito.any());
         return result;
     }
 }
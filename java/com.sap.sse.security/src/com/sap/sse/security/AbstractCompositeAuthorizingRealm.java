@@ -17,6 +17,7 @@ import org.apache.shiro.subject.PrincipalCollection;
 import org.osgi.framework.BundleContext;
 
 import com.sap.sse.security.impl.Activator;
+import com.sap.sse.security.impl.PermissionDecisionCache;
 import com.sap.sse.security.impl.PermissionConverter;
 import com.sap.sse.security.interfaces.AccessControlStore;
 import com.sap.sse.security.interfaces.UserStore;
@@ -104,10 +105,26 @@ public abstract class AbstractCompositeAuthorizingRealm extends AuthorizingRealm
         return result;
     }
 
+    /**
+     * Uses the {@link PermissionDecisionCache} of the security service managing the {@link #getUserStore() user store}
+     * if there is one; otherwise, the permission is evaluated from scratch.
+     */
     @Override
     public boolean isPermitted(PrincipalCollection principals, Permission perm) {
-        String username = (String) principals.getPrimaryPrincipal();
-        final User user = getUserStore().getUserByName(username);
+        final String username = (String) principals.getPrimaryPrincipal();
+        final UserStore theUserStore = getUserStore();
+        final PermissionDecisionCache permissionDecisionCache = PermissionDecisionCache.getCacheForUserStore(theUserStore);
+        final boolean result;
+        if (permissionDecisionCache == null) {
+            result = isPermitted(theUserStore, username, perm);
+        } else {
+            result = permissionDecisionCache.isPermitted(username, perm.toString(), ()->isPermitted(theUserStore, username, perm));
+        }
+        return result;
+    }
+
+    private boolean isPermitted(UserStore userStore, String username, Permission perm) {
+        final User user = userStore.getUserByName(username);
         final WildcardPermission wildcardPermission = new PermissionConverter().getWildcardPermission(perm);
         List<Set<String>> parts = wildcardPermission.getParts();
         final boolean result;
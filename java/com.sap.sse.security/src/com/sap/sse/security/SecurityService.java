@@ -457,6 +457,11 @@ public interface SecurityService extends ReplicableWithObjectInputStream<Replica
      */
     void deleteAllDataForRemovedObject(QualifiedObjectIdentifier identifier);
 
+    /**
+     * Passes those of the {@code objectsToFilter} to {@code filteredObjectsConsumer} on which the current subject has
+     * permission to perform {@code action}, using {@link #filterPermitted(User, HasPermissions.Action, Iterable)} for
+     * the subject's user
+     */
     <T extends WithQualifiedObjectIdentifier> void filterObjectsWithPermissionForCurrentUser(
             com.sap.sse.security.shared.HasPermissions.Action action, Iterable<T> objectsToFilter,
             Consumer<T> filteredObjectsConsumer);
@@ -468,6 +473,20 @@ public interface SecurityService extends ReplicableWithObjectInputStream<Replica
             com.sap.sse.security.shared.HasPermissions.Action[] actions,
             Iterable<T> objectsToFilter, Consumer<T> filteredObjectsConsumer);
 
+    /**
+     * Determines the objects on which {@code user} has permission to perform {@code action}. The result is the same
+     * as checking the permission for each object individually, but what only depends on the user, such as the groups
+     * of the user and of the {@link #getAllUser() all user}, is determined only once. Use this for listing large
+     * numbers of objects. Unlike the {@code ...ForCurrentUser} methods this does not consult the current Shiro
+     * subject.
+     * 
+     * @param user
+     *            {@code null} means to check only the permissions granted to the {@link #getAllUser() all user}
+     * @return the objects permitted, in the iteration order of {@code objectsToFilter}
+     */
+    <T extends WithQualifiedObjectIdentifier> List<T> filterPermitted(User user,
+            com.sap.sse.security.shared.HasPermissions.Action action, Iterable<T> objectsToFilter);
+
     <T extends WithQualifiedObjectIdentifier, R> List<R> mapAndFilterByReadPermissionForCurrentUser(
             Iterable<T> objectsToFilter, Function<T, R> filteredObjectsMapper);
 
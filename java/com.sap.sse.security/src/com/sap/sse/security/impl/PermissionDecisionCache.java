@@ -0,0 +1,169 @@
+package com.sap.sse.security.impl;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import com.sap.sse.common.Util.Pair;
+import com.sap.sse.security.AbstractCompositeAuthorizingRealm;
+import com.sap.sse.security.interfaces.AccessControlStore;
+import com.sap.sse.security.interfaces.UserStore;
+
+/**
+ * Remembers the outcome of permission checks, keyed by the name of the user and the permission requested, which
+ * includes the identifiers of the objects to which the permission applies. The decisions are stamped with a version of
+ * the security model that the {@link SecurityServiceImpl} owning the cache {@link #securityModelChanged() increments}
+ * whenever roles, role definitions, user permissions, group memberships, ownerships or access control lists change;
+ * decisions taken under an older version are never returned.
+ * <p>
+ *
+ * A cache is {@link #createForUserStore(UserStore) associated} with the {@link UserStore} of the security service so
+ * that the {@link AbstractCompositeAuthorizingRealm realms} that evaluate permissions against that same store can
+ * {@link #getCacheForUserStore(UserStore) find} it. Realms used with stores that are not managed by a security service,
+ * such as in tests that modify the stores directly, therefore keep evaluating each permission from scratch.
+ * <p>
+ *
+ * The number of decisions kept is limited by the system property {@link #CACHE_SIZE_SYSTEM_PROPERTY_NAME}; when the
+ * limit is reached, all decisions are dropped. A limit of {@code 0} disables caching. The class is thread-safe.
+ */
+public class PermissionDecisionCache {
+    /**
+     * The name of the system property that specifies the maximum number of permission decisions cached per security
+     * service; {@code 0} disables the cache. Defaults to {@link #DEFAULT_CACHE_SIZE}.
+     */
+    public static final String CACHE_SIZE_SYSTEM_PROPERTY_NAME = "security.permissionDecisionCacheSize";
+
+    public static final int DEFAULT_CACHE_SIZE = 100000;
+
+    private static final Map<UserStore, PermissionDecisionCache> cachesByUserStore = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final int maximumSize;
+
+    private final AtomicLong securityModelVersion;
+
+    /**
+     * The decisions taken under a single security model version
+     */
+    private static class Generation {
+        private final long securityModelVersion;
+        private final ConcurrentHashMap<Pair<String, String>, Boolean> decisions;
+
+        private Generation(long securityModelVersion) {
+            this.securityModelVersion = securityModelVersion;
+            this.decisions = new ConcurrentHashMap<>();
+        }
+    }
+
+    private volatile Generation generation;
+
+    PermissionDecisionCache(int maximumSize) {
+        this.maximumSize = maximumSize;
+        this.securityModelVersion = new AtomicLong();
+        this.generation = new Generation(securityModelVersion.get());
+    }
+
+    /**
+     * Creates a cache sized according to {@link #CACHE_SIZE_SYSTEM_PROPERTY_NAME} and makes it the one
+     * {@link #getCacheForUserStore(UserStore) found} for {@code userStore}, replacing any cache previously associated
+     * with it.
+     */
+    static PermissionDecisionCache createForUserStore(UserStore userStore) {
+        final PermissionDecisionCache result = new PermissionDecisionCache(
+                Integer.getInteger(CACHE_SIZE_SYSTEM_PROPERTY_NAME, DEFAULT_CACHE_SIZE));
+        if (userStore != null) {
+            cachesByUserStore.put(userStore, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return the cache of the security service managing {@code userStore}, or {@code null} if no security service
+     *         manages that store; in the latter case, modifications of the store are not tracked, so decisions must
+     *         not be cached
+     */
+    public static PermissionDecisionCache getCacheForUserStore(UserStore userStore) {
+        return userStore == null ? null : cachesByUserStore.get(userStore);
+    }
+
+    /**
+     * To be called by the security service after each change to its {@link UserStore} or {@link AccessControlStore}
+     * that may change the outcome of a permission check. Decisions cached so far will no longer be used.
+     */
+    void securityModelChanged() {
+        securityModelVersion.incrementAndGet();
+    }
+
+    /**
+     * @return the current version of the security model; read it before reading any of the data that
+     *         {@link #isPermitted(long, String, String, BooleanSupplier)} decisions are then based on
+     */
+    long getSecurityModelVersion() {
+        return securityModelVersion.get();
+    }
+
+    /**
+     * Returns the decision cached for the user and permission, or otherwise takes it using {@code decider} and caches
+     * it, unless the security model changed while deciding.
+     *
+     * @param username
+     *            may be {@code null}, e.g., for checks on behalf of an unknown user
+     * @param permission
+     *            the string representation of the permission, including the object identifiers, if any
+     */
+    public boolean isPermitted(String username, String permission, BooleanSupplier decider) {
+        return isPermitted(getSecurityModelVersion(), username, permission, decider);
+    }
+
+    /**
+     * Like {@link #isPermitted(String, String, BooleanSupplier)}, but for a {@code decider} that also uses data, such
+     * as the groups of the user, which was read once for several decisions after the security model had the
+     * {@link #getSecurityModelVersion() version} {@code versionBeforeReading}. If the model changed since then, the
+     * decision is neither taken from nor put into the cache.
+     */
+    boolean isPermitted(long versionBeforeReading, String username, String permission, BooleanSupplier decider) {
+        final boolean result;
+        if (maximumSize <= 0 || securityModelVersion.get() != versionBeforeReading) {
+            result = decider.getAsBoolean();
+        } else {
+            final Generation currentGeneration = getGeneration(versionBeforeReading);
+            final Pair<String, String> key = new Pair<>(username, permission);
+            final Boolean cachedDecision = currentGeneration.decisions.get(key);
+            if (cachedDecision != null) {
+                result = cachedDecision;
+            } else {
+                result = decider.getAsBoolean();
+                // the decision may have been based on a model that was changed while deciding; don't cache it then
+                if (securityModelVersion.get() == versionBeforeReading) {
+                    if (currentGeneration.decisions.size() >= maximumSize) {
+                        currentGeneration.decisions.clear();
+                    }
+                    currentGeneration.decisions.put(key, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the generation for {@code version}, replacing the current one if it is outdated
+     */
+    private Generation getGeneration(long version) {
+        Generation result = generation;
+        if (result.securityModelVersion != version) {
+            synchronized (this) {
+                result = generation;
+                if (result.securityModelVersion < version) {
+                    result = new Generation(version);
+                    generation = result;
+                } else if (result.securityModelVersion > version) {
+                    // the model changed again since the version was read; use a throw-away generation
+                    result = new Generation(version);
+                }
+            }
+        }
+        return result;
+    }
+}
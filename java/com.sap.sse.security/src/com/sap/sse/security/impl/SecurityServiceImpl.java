@@ -265,6 +265,12 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     private final AclResolver<AccessControlList, Ownership> aclResolver;
     
     private final PermissionChangeListeners permissionChangeListeners;
+
+    /**
+     * Caches the decisions of the realms evaluating permissions against {@link #store}; must be told about each change
+     * that may alter such a decision, see {@link #securityModelChanged()}.
+     */
+    private final PermissionDecisionCache permissionDecisionCache;
     
     private final ClassLoaderRegistry initialLoadClassLoaderRegistry = ClassLoaderRegistry.createInstance();
     
@@ -346,6 +352,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
         this.clientIPBasedLockingAndBanningForBearerTokenAuthentication = new ConcurrentHashMap<>();
         this.clientIPBasedLockingAndBanningForUserCreation = new ConcurrentHashMap<>();
         this.permissionChangeListeners = new PermissionChangeListeners(this);
+        this.permissionDecisionCache = PermissionDecisionCache.createForUserStore(userStore);
         this.sharedAcrossSubdomainsOf = sharedAcrossSubdomainsOf;
         this.subscriptionPlanProvider = subscriptionPlanProvider;
         this.baseUrlForCrossDomainStorage = baseUrlForCrossDomainStorage;
@@ -702,6 +709,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     public Void internalSetEmptyAccessControlList(QualifiedObjectIdentifier idOfAccessControlledObject, String displayNameOfAccessControlledObject) {
         permissionChangeListeners.aclChanged(idOfAccessControlledObject);
         accessControlStore.setEmptyAccessControlList(idOfAccessControlledObject, displayNameOfAccessControlledObject);
+        securityModelChanged();
         return null;
     }
 
@@ -738,6 +746,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     public Void internalAclPutPermissions(QualifiedObjectIdentifier idOfAccessControlledObject, UUID groupId, Set<String> actions) {
         permissionChangeListeners.aclChanged(idOfAccessControlledObject);
         accessControlStore.setAclPermissions(idOfAccessControlledObject, getUserGroup(groupId), actions);
+        securityModelChanged();
         return null;
     }
 
@@ -760,6 +769,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     public Void internalAclAddPermission(QualifiedObjectIdentifier idOfAccessControlledObject, UUID groupId, String action) {
         permissionChangeListeners.aclChanged(idOfAccessControlledObject);
         accessControlStore.addAclPermission(idOfAccessControlledObject, getUserGroup(groupId), action);
+        securityModelChanged();
         return null;
     }
 
@@ -785,6 +795,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     public Void internalAclRemovePermission(QualifiedObjectIdentifier idOfAccessControlledObject, UUID groupId, String permission) {
         permissionChangeListeners.aclChanged(idOfAccessControlledObject);
         accessControlStore.removeAclPermission(idOfAccessControlledObject, getUserGroup(groupId), permission);
+        securityModelChanged();
         return null;
     }
 
@@ -800,6 +811,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     public Void internalDeleteAcl(QualifiedObjectIdentifier idOfAccessControlledObject) {
         permissionChangeListeners.aclChanged(idOfAccessControlledObject);
         accessControlStore.removeAccessControlList(idOfAccessControlledObject);
+        securityModelChanged();
         return null;
     }
 
@@ -849,6 +861,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     @Override
     public Ownership internalSetOwnership(QualifiedObjectIdentifier objectId, String userOwnerName, UUID tenantOwnerId, String displayName) {
         final Ownership result = accessControlStore.setOwnership(objectId, getUserByName(userOwnerName), getUserGroup(tenantOwnerId), displayName).getAnnotation();
+        securityModelChanged();
         permissionChangeListeners.ownershipChanged(objectId);
         return result;
     }
@@ -864,6 +877,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     @Override
     public Void internalDeleteOwnership(QualifiedObjectIdentifier objectId) {
         accessControlStore.removeOwnership(objectId);
+        securityModelChanged();
         permissionChangeListeners.ownershipChanged(objectId);
         return null;
     }
@@ -913,6 +927,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     @Override
     public Void internalCreateUserGroup(UUID id, String name) throws UserGroupManagementException {
         store.createUserGroup(id, name);
+        securityModelChanged();
         return null;
     }
 
@@ -932,6 +947,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
         userGroup.add(user);
         permissionChangeListeners.userAddedToOrRemovedFromGroup(user, userGroup);
         store.updateUserGroup(userGroup);
+        securityModelChanged();
         return null;
     }
     
@@ -942,6 +958,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
         permissionChangeListeners.userAddedToOrRemovedFromGroup(user, userGroup);
         userGroup.remove(user);
         store.updateUserGroup(userGroup);
+        securityModelChanged();
         return null;
     }
     
@@ -969,6 +986,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
         permissionChangeListeners.roleAddedToOrRemovedFromGroup(userGroup, roleDefinition);
         userGroup.put(roleDefinition, forAll);
         store.updateUserGroup(userGroup);
+        securityModelChanged();
         return null;
     }
 
@@ -986,6 +1004,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
         permissionChangeListeners.roleAddedToOrRemovedFromGroup(userGroup, roleDefinition);
         userGroup.remove(roleDefinition);
         store.updateUserGroup(userGroup);
+        securityModelChanged();
         return null;
     }
 
@@ -1004,6 +1023,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
             final Iterable<OwnershipAnnotation> ownerhipsWithGroupOwner = accessControlStore.getOwnerhipsWithGroupOwner(userGroup);
             accessControlStore.removeAllOwnershipsFor(userGroup);
             store.deleteUserGroup(userGroup);
+            securityModelChanged();
             for (final OwnershipAnnotation ownershipWithGroupAsOwner : ownerhipsWithGroupOwner) {
                 permissionChangeListeners.ownershipChanged(ownershipWithGroupAsOwner.getIdOfAnnotatedObject());
             }
@@ -1212,6 +1232,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     @Override
     public User internalCreateUser(String username, String email, Account... accounts) throws UserManagementException {
         final User result = store.createUser(username, email, new LockingAndBanningImpl(), accounts);
+        securityModelChanged();
         return result;
     }
 
@@ -1539,7 +1560,9 @@ implements ReplicableSecurityService, ClearStateTestSupport {
 
     @Override
     public RoleDefinition internalCreateRoleDefinition(UUID roleId, String name) {
-        return store.createRoleDefinition(roleId, name, Collections.emptySet());
+        final RoleDefinition result = store.createRoleDefinition(roleId, name, Collections.emptySet());
+        securityModelChanged();
+        return result;
     }
     
     @Override
@@ -1554,6 +1577,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
         final RoleDefinition roleDefinition = store.getRoleDefinition(roleId);
         permissionChangeListeners.roleDefinitionRemoved(roleDefinition);
         store.removeRoleDefinition(roleDefinition);
+        securityModelChanged();
         return null;
     }
 
@@ -1571,6 +1595,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
         permissionChangeListeners.permissionAddedToOrRemovedFromRoleDefinition(role, role.getPermissions(), roleWithNewProperties.getPermissions());
         role.setPermissions(roleWithNewProperties.getPermissions());
         store.setRoleDefinitionPermissions(role.getId(), role.getPermissions());
+        securityModelChanged();
         return null;
     }
 
@@ -1612,6 +1637,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
                 getUserGroup(idOfTenantQualifyingRole), getUserByName(nameOfUserQualifyingRole), transitive);
         permissionChangeListeners.roleAddedToOrRemovedFromUser(getUserByName(username), role);
         store.addRoleForUser(username, role);
+        securityModelChanged();
         return null;
     }
 
@@ -1637,6 +1663,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
                 getUserGroup(idOfTenantQualifyingRole), getUserByName(nameOfUserQualifyingRole), transitive);
         permissionChangeListeners.roleAddedToOrRemovedFromUser(getUserByName(username), role);
         store.removeRoleFromUser(username, role);
+        securityModelChanged();
         return null;
     }
 
@@ -1650,6 +1677,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     public Void internalRemovePermissionForUser(String username, WildcardPermission permissionToRemove) throws UserManagementException {
         permissionChangeListeners.permissionAddedToOrRemovedFromUser(getUserByName(username), permissionToRemove);
         store.removePermissionFromUser(username, permissionToRemove);
+        securityModelChanged();
         return null;
     }
 
@@ -1663,6 +1691,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     public Void internalAddPermissionForUser(String username, WildcardPermission permissionToAdd) throws UserManagementException {
         permissionChangeListeners.permissionAddedToOrRemovedFromUser(getUserByName(username), permissionToAdd);
         store.addPermissionForUser(username, permissionToAdd);
+        securityModelChanged();
         return null;
     }
 
@@ -1684,6 +1713,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
             // remove all permissions the user has
             accessControlStore.removeAllOwnershipsFor(userToDelete);
             store.deleteUser(username);
+            securityModelChanged();
             final String defaultTenantNameForUsername = getDefaultTenantNameForUsername(username);
             final UserGroup defaultTenantUserGroup = getUserGroupByName(defaultTenantNameForUsername);
             if (defaultTenantUserGroup != null) {
@@ -2339,12 +2369,12 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     public <T extends WithQualifiedObjectIdentifier> void filterObjectsWithPermissionForCurrentUser(
             HasPermissions.Action action, Iterable<T> objectsToFilter,
             Consumer<T> filteredObjectsConsumer) {
-        objectsToFilter.forEach(objectToCheck -> {
-            if (SecurityUtils.getSubject().isPermitted(new ShiroWildcardPermissionFromParts(
-                    objectToCheck.getIdentifier().getPermission(action)))) {
-                filteredObjectsConsumer.accept(objectToCheck);
-            }
-        });
+        // evaluated for the user the realms would look up for the subject's principal, which for an anonymous
+        // subject is the all user; without a principal the subject isn't permitted anything
+        final Object principal = SecurityUtils.getSubject().getPrincipal();
+        if (principal != null) {
+            filterPermitted(store.getUserByName(principal.toString()), action, objectsToFilter).forEach(filteredObjectsConsumer);
+        }
     }
 
     /** Filters the objects with any of the given permissions for the current user */
@@ -2367,6 +2397,32 @@ implements ReplicableSecurityService, ClearStateTestSupport {
         });
     }
 
+    @Override
+    public <T extends WithQualifiedObjectIdentifier> List<T> filterPermitted(User user, HasPermissions.Action action,
+            Iterable<T> objectsToFilter) {
+        // read the version before the groups so that a decision based on outdated groups is never cached
+        final long securityModelVersion = permissionDecisionCache.getSecurityModelVersion();
+        final User allUser = getAllUser();
+        final List<UserGroup> groupsOfUser = user == null ? Collections.emptyList() : Util.asList(user.getUserGroups());
+        final List<UserGroup> groupsOfAllUser = allUser == null ? Collections.emptyList() : Util.asList(allUser.getUserGroups());
+        final String username = user == null ? null : user.getName();
+        final List<T> result = new ArrayList<>();
+        for (final T objectToCheck : objectsToFilter) {
+            final QualifiedObjectIdentifier objectIdentifier = objectToCheck.getIdentifier();
+            final WildcardPermission permission = objectIdentifier.getPermission(action);
+            if (permissionDecisionCache.isPermitted(securityModelVersion, username, permission.toString(), () -> {
+                final OwnershipAnnotation ownership = accessControlStore.getOwnership(objectIdentifier);
+                final AccessControlListAnnotation acl = accessControlStore.getAccessControlList(objectIdentifier);
+                return PermissionChecker.isPermitted(permission, user, groupsOfUser, allUser, groupsOfAllUser,
+                        ownership == null ? null : ownership.getAnnotation(), acl == null ? null : acl.getAnnotation(),
+                        /* additionalRoles */ (Iterable<Role>) null);
+            })) {
+                result.add(objectToCheck);
+            }
+        }
+        return result;
+    }
+
     @Override
     public <T extends WithQualifiedObjectIdentifier, R> List<R> mapAndFilterByReadPermissionForCurrentUser(
             Iterable<T> objectsToFilter, Function<T, R> filteredObjectsMapper) {
@@ -2448,11 +2504,13 @@ implements ReplicableSecurityService, ClearStateTestSupport {
         final RoleDefinition result;
         if (potentiallyExistingRoleDefinition == null) {
             result = store.createRoleDefinition(rolePrototype.getId(), rolePrototype.getName(), rolePrototype.getPermissions());
+            securityModelChanged();
             setOwnership(result.getIdentifier(), null, getServerGroup());
         } else if (rolePrototype.getPermissions() != null
                 && !rolePrototype.getPermissions().equals(potentiallyExistingRoleDefinition.getPermissions())) {
             store.setRoleDefinitionPermissions(potentiallyExistingRoleDefinition.getId(),
                     rolePrototype.getPermissions());
+            securityModelChanged();
             RoleDefinition roleDefinition = store.getRoleDefinition(rolePrototype.getId());
             result = roleDefinition;
         } else {
@@ -2516,6 +2574,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
     public void clearReplicaState() throws MalformedURLException, IOException, InterruptedException {
         store.clear();
         accessControlStore.clear();
+        securityModelChanged();
         corsFilterConfigurationsByReplicaSetName.clear();
         clientIPBasedLockingAndBanningForBearerTokenAuthentication.clear();
         clientIPBasedLockingAndBanningForUserCreation.clear();
@@ -2551,6 +2610,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
             // before replacing the local UserStore's contents, capture the server group:
             final UserGroup oldServerGroup = store.getServerGroup();
             store.replaceContentsFrom(newUserStore);
+            securityModelChanged();
             if (newServerGroup == null) {
                 // create the server group in a replication-aware fashion, making sure it appears on the master
                 final String serverGroupName = store.getServerGroupName();
@@ -2571,6 +2631,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
         try {
             AccessControlStore newAccessControlStore = (AccessControlStore) is.readObject();
             accessControlStore.replaceContentsFrom(newAccessControlStore);
+            securityModelChanged();
         } finally {
             Thread.currentThread().setContextClassLoader(oldCCL);
         }
@@ -3160,6 +3221,7 @@ implements ReplicableSecurityService, ClearStateTestSupport {
                     Arrays.asList(rolesToRemove));
             for (Role role : rolesToRemove) {
                 store.removeRoleFromUser(user.getName(), role);
+                securityModelChanged();
             }
         }
     }
@@ -3348,6 +3410,14 @@ implements ReplicableSecurityService, ClearStateTestSupport {
         return result;
     }
 
+    /**
+     * Invalidates the {@link #permissionDecisionCache}; to be called after each change of roles, role definitions,
+     * user permissions, group memberships, ownerships or ACLs, on the master as well as on replicas.
+     */
+    private void securityModelChanged() {
+        permissionDecisionCache.securityModelChanged();
+    }
+
     @Override
     public void addPermissionChangeListener(WildcardPermission permission, PermissionChangeListener listener) {
         permissionChangeListeners.addPermissionChangeListener(permission, listener);
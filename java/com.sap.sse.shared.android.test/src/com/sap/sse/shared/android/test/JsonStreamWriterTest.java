@@ -0,0 +1,89 @@
+package com.sap.sse.shared.android.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.junit.jupiter.api.Test;
+
+import com.sap.sse.shared.json.JsonStreamWriter;
+
+public class JsonStreamWriterTest {
+    @Test
+    public void testEmptyContainers() throws IOException {
+        final StringWriter out = new StringWriter();
+        new JsonStreamWriter(out).beginObject().name("a").beginArray().endArray().name("o").beginObject().endObject()
+                .endObject();
+        assertEquals("{\"a\":[],\"o\":{}}", out.toString());
+    }
+
+    @Test
+    public void testScalarsAreFormattedLikeJsonSimple() throws IOException {
+        final StringWriter out = new StringWriter();
+        new JsonStreamWriter(out).beginArray().value(12.5).value(Double.NaN).value(Double.POSITIVE_INFINITY)
+                .value(1E-7).value(123456789012l).value(true).value("\"quoted\"\n").value((Object) null).endArray();
+        final JSONArray expected = new JSONArray();
+        expected.add(12.5);
+        expected.add(Double.NaN);
+        expected.add(Double.POSITIVE_INFINITY);
+        expected.add(1E-7);
+        expected.add(123456789012l);
+        expected.add(true);
+        expected.add("\"quoted\"\n");
+        expected.add(null);
+        // responses are written using writeJSONString which, unlike toJSONString, writes NaN and infinity as null
+        final StringWriter expectedOut = new StringWriter();
+        expected.writeJSONString(expectedOut);
+        assertEquals(expectedOut.toString(), out.toString());
+    }
+
+    @Test
+    public void testNestedDocumentParsesToEqualTree() throws IOException, ParseException {
+        final JSONObject subtree = new JSONObject();
+        subtree.put("x", 1l);
+        subtree.put("y", "two");
+        final JSONObject expected = new JSONObject();
+        expected.put("name", "race é");
+        final JSONArray competitors = new JSONArray();
+        expected.put("competitors", competitors);
+        final StringWriter out = new StringWriter();
+        final JsonStreamWriter writer = new JsonStreamWriter(out);
+        writer.beginObject();
+        writer.field("name", "race é");
+        writer.name("competitors");
+        writer.beginArray();
+        // deeper than the initial nesting capacity of the writer
+        for (int i = 0; i < 20; i++) {
+            final JSONObject competitor = new JSONObject();
+            competitors.add(competitor);
+            competitor.put("id", (long) i);
+            competitor.put("subtree", subtree);
+            writer.beginObject().field("id", i).field("subtree", subtree);
+            final JSONArray track = new JSONArray();
+            competitor.put("track", track);
+            writer.name("track").beginArray();
+            JSONArray innermost = track;
+            for (int depth = 0; depth < i; depth++) {
+                final JSONArray nested = new JSONArray();
+                innermost.add(nested);
+                innermost = nested;
+                writer.beginArray();
+            }
+            innermost.add(i * 0.5);
+            writer.value(i * 0.5);
+            for (int depth = 0; depth < i; depth++) {
+                writer.endArray();
+            }
+            writer.endArray().endObject();
+        }
+        writer.endArray();
+        writer.endObject();
+        writer.flush();
+        assertEquals(expected, new JSONParser().parse(out.toString()));
+    }
+}
@@ -0,0 +1,155 @@
+package com.sap.sse.shared.json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+import org.json.simple.JSONValue;
+
+/**
+ * Writes a JSON document token by token to a {@link Writer}, as an alternative to building a complete tree of
+ * {@link org.json.simple.JSONObject}s and {@link org.json.simple.JSONArray}s before writing it. This keeps the memory
+ * required for serializing large documents, such as all fixes of a race, independent of the document's size. Scalar
+ * values are formatted the same way {@link JSONValue#writeJSONString(Object, Writer)} formats them, so clients can't
+ * tell the difference; small subtrees can still be built using json-simple and written using {@link #value(Object)}.
+ * <p>
+ *
+ * The writer inserts the commas and colons; callers only have to nest the {@code begin...}/{@code end...} calls
+ * correctly and call {@link #name(String)} before each value inside an object. No validation beyond that is performed.
+ * Instances are not thread-safe.
+ *
+ * @see StreamingJsonSerializer
+ */
+public class JsonStreamWriter {
+    private final Writer out;
+
+    /**
+     * For each currently open object or array, from the outermost to the innermost, tells whether no element has been
+     * written to it so far and hence no separating comma is required
+     */
+    private boolean[] empty;
+
+    private int depth;
+
+    /**
+     * {@code true} after a {@link #name(String) name} was written, until its value is written
+     */
+    private boolean afterName;
+
+    public JsonStreamWriter(Writer out) {
+        this.out = out;
+        this.empty = new boolean[16];
+    }
+
+    public JsonStreamWriter beginObject() throws IOException {
+        beforeValue();
+        out.write('{');
+        push();
+        return this;
+    }
+
+    public JsonStreamWriter endObject() throws IOException {
+        depth--;
+        out.write('}');
+        return this;
+    }
+
+    public JsonStreamWriter beginArray() throws IOException {
+        beforeValue();
+        out.write('[');
+        push();
+        return this;
+    }
+
+    public JsonStreamWriter endArray() throws IOException {
+        depth--;
+        out.write(']');
+        return this;
+    }
+
+    /**
+     * Writes the name of the next object member; the value has to follow
+     */
+    public JsonStreamWriter name(String name) throws IOException {
+        beforeValue();
+        out.write('"');
+        out.write(JSONValue.escape(name));
+        out.write("\":");
+        afterName = true;
+        return this;
+    }
+
+    /**
+     * Writes {@code value} like {@link JSONValue#writeJSONString(Object, Writer)} does; this includes {@code null},
+     * strings, numbers, booleans and complete json-simple trees
+     */
+    public JsonStreamWriter value(Object value) throws IOException {
+        beforeValue();
+        JSONValue.writeJSONString(value, out);
+        return this;
+    }
+
+    public JsonStreamWriter value(long value) throws IOException {
+        beforeValue();
+        out.write(Long.toString(value));
+        return this;
+    }
+
+    /**
+     * Writes {@code null} for infinite and NaN values, like json-simple does
+     */
+    public JsonStreamWriter value(double value) throws IOException {
+        beforeValue();
+        out.write(Double.isInfinite(value) || Double.isNaN(value) ? "null" : Double.toString(value));
+        return this;
+    }
+
+    public JsonStreamWriter value(boolean value) throws IOException {
+        beforeValue();
+        out.write(value ? "true" : "false");
+        return this;
+    }
+
+    public JsonStreamWriter field(String name, Object value) throws IOException {
+        return name(name).value(value);
+    }
+
+    public JsonStreamWriter field(String name, long value) throws IOException {
+        return name(name).value(value);
+    }
+
+    public JsonStreamWriter field(String name, double value) throws IOException {
+        return name(name).value(value);
+    }
+
+    public JsonStreamWriter field(String name, boolean value) throws IOException {
+        return name(name).value(value);
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void push() {
+        if (depth == empty.length) {
+            empty = Arrays.copyOf(empty, 2 * depth);
+        }
+        empty[depth++] = true;
+    }
+
+    /**
+     * Writes the comma separating the next element from the previous element of the innermost open object or array,
+     * unless the next element is the value of a member whose name was just written
+     */
+    private void beforeValue() throws IOException {
+        if (afterName) {
+            afterName = false;
+        } else if (depth > 0) {
+            if (empty[depth - 1]) {
+                empty[depth - 1] = false;
+            } else {
+                out.write(',');
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.sap.sse.shared.json;
+
+import java.io.IOException;
+
+/**
+ * Counterpart of {@link JsonSerializer} for potentially large documents: instead of building a
+ * {@link org.json.simple.JSONObject} tree, the object is written directly to a {@link JsonStreamWriter}, typically
+ * backed by the output stream of an HTTP response. Implementations should produce the same document that the
+ * {@link JsonSerializer} for the same type produces, except for the order of the object members.
+ *
+ * @param <T>
+ *            Object class to serialize.
+ */
+public interface StreamingJsonSerializer<T> {
+    /**
+     * Writes {@code object} as exactly one JSON value to {@code writer}
+     */
+    void serialize(T object, JsonStreamWriter writer) throws IOException;
+}
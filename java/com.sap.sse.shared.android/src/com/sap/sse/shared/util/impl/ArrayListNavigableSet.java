@@ -54,7 +54,13 @@ public class ArrayListNavigableSet<E> extends AbstractSet<E> implements Navigabl
         this.comparator = comparator;
     }
     
-    private ArrayListNavigableSet(List<E> list, Comparator<? super E> comparator) {
+    /**
+     * Uses the {@code list} passed as the backing structure. This allows callers to provide alternative list
+     * representations, e.g., a columnar, primitive-array based list that materializes its elements on demand. The
+     * {@code list} is expected to be empty or ordered according to {@code comparator} and should implement
+     * {@link java.util.RandomAccess} because all positional access and binary search relies on {@link List#get(int)}.
+     */
+    public ArrayListNavigableSet(List<E> list, Comparator<? super E> comparator) {
         this.list = list;
         this.comparator = comparator;
     }
@@ -174,9 +180,16 @@ public class ArrayListNavigableSet<E> extends AbstractSet<E> implements Navigabl
         return list.removeAll(c);
     }
 
+    /**
+     * Removes all elements; if the backing list is an {@link ArrayList}, its capacity is released, too, so that
+     * a large set cleared to save memory doesn't keep holding its element array.
+     */
     @Override
     public void clear() {
         list.clear();
+        if (list instanceof ArrayList<?>) {
+            ((ArrayList<?>) list).trimToSize();
+        }
     }
 
     @Override
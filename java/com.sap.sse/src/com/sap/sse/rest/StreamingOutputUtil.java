@@ -11,6 +11,9 @@ import javax.ws.rs.core.StreamingOutput;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 
+import com.sap.sse.shared.json.JsonStreamWriter;
+import com.sap.sse.shared.json.StreamingJsonSerializer;
+
 public class StreamingOutputUtil {
     protected StreamingOutput streamingOutput(JSONObject jsonObject) {
         return new StreamingOutput() {
@@ -36,6 +39,24 @@ public class StreamingOutputUtil {
         };
     }
     
+    /**
+     * Defers serializing {@code object} until the response is written and then lets {@code serializer} write it
+     * directly to the response's output stream, so that no JSON tree of the complete response has to be held in
+     * memory. Note that any exception thrown by the serializer then occurs after the response status has been sent.
+     */
+    protected <T> StreamingOutput streamingOutput(T object, StreamingJsonSerializer<T> serializer) {
+        return new StreamingOutput() {
+            @Override
+            public void write(OutputStream output) throws IOException {
+                BufferedWriter bufferedWriter = new BufferedWriter(new OutputStreamWriter(
+                        output, "UTF8"));
+                final JsonStreamWriter jsonStreamWriter = new JsonStreamWriter(bufferedWriter);
+                serializer.serialize(object, jsonStreamWriter);
+                jsonStreamWriter.flush();
+            }
+        };
+    }
+    
     /**
      * If the {@code entity} is a {@link StreamingOutput}, the stream will first be read and then converted to a
      * {@link String}. Otherwise, the {@link Object#toString()} method is used to convert the {@code entity} into a